@@ -51,15 +51,22 @@ public interface RemoteBlockReader extends Closeable {
   }
 
   /**
-   * Reads a remote block with a offset and length.
+   * Reads a range of a remote block, starting at the given offset.
+   *
+   * The returned buffer holds the data at the start of the range, which may be shorter than the
+   * range, so a range is read with a sequence of calls, each starting where the data returned by
+   * the previous one ended. A reader may fetch the rest of the range ahead of these calls, and a
+   * call which continues the previous one may extend the range being fetched. A call starting at
+   * any other offset abandons the data fetched ahead. The returned buffer is only valid until the
+   * next call or until the reader is closed.
    *
    * @param address the {@link InetSocketAddress} of the data server
    * @param blockId the id of the block trying to read
    * @param offset the offset of the block
-   * @param length the length the client wants to read
+   * @param length the length of the range, which bounds how far the reader may read ahead
    * @param lockId the acquired block lock id
    * @param sessionId the session id of the client
-   * @return a byte buffer containing the remote data block
+   * @return a byte buffer containing the data at the start of the range
    * @throws IOException if the remote server is not reachable or responds with failures
    */
   ByteBuffer readRemoteBlock(InetSocketAddress address, long blockId, long offset,
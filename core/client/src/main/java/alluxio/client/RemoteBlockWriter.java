@@ -68,4 +68,13 @@ public interface RemoteBlockWriter extends Closeable {
    * @throws IOException when the operation fails
    */
   void write(byte[] bytes, int offset, int length) throws IOException;
+
+  /**
+   * Closes the writer. All the data written before is stored by the data server once this returns,
+   * so the block can be committed.
+   *
+   * @throws IOException when the written data cannot be stored
+   */
+  @Override
+  void close() throws IOException;
 }
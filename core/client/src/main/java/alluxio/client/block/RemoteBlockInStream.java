@@ -11,6 +11,8 @@
 
 package alluxio.client.block;
 
+import alluxio.Configuration;
+import alluxio.PropertyKey;
 import alluxio.client.RemoteBlockReader;
 import alluxio.client.file.options.InStreamOptions;
 import alluxio.exception.ExceptionMessage;
@@ -49,6 +51,12 @@ public final class RemoteBlockInStream extends BufferedBlockInStream {
   private final BlockStoreContext mContext;
   /** {@link RemoteBlockReader} for this instance. */
   private RemoteBlockReader mReader;
+  /** The data returned by the last remote read which was not read yet, or null. */
+  private ByteBuffer mRemoteData;
+  /** The position in the block of the data returned by the last remote read. */
+  private long mRemoteDataPos;
+  /** The number of bytes to read ahead of sequential reads. */
+  private final long mReadAheadBytes;
 
   /**
    * Creates a new remote block input stream.
@@ -69,6 +77,7 @@ public final class RemoteBlockInStream extends BufferedBlockInStream {
 
     mContext = context;
     mCloser = Closer.create();
+    mReadAheadBytes = Configuration.getBytes(PropertyKey.USER_BLOCK_REMOTE_READ_AHEAD_BYTES);
 
     try {
       mBlockWorkerClient = mCloser.register(mContext.createWorkerClient(workerNetAddress));
@@ -150,18 +159,32 @@ public final class RemoteBlockInStream extends BufferedBlockInStream {
     // We read at most len bytes, but if mPos + len exceeds the length of the block, we only
     // read up to the end of the block.
     int toRead = (int) Math.min(len, remaining());
-    int bytesLeft = toRead;
+    int bytesRead = 0;
 
     if (mReader == null) {
       mReader = mCloser.register(RemoteBlockReader.Factory.create());
     }
 
-    while (bytesLeft > 0) {
-      ByteBuffer data = mReader.readRemoteBlock(mWorkerInetSocketAddress, mBlockId, getPosition(),
-          bytesLeft, mLockId, mBlockWorkerClient.getSessionId());
-      int bytesRead = data.remaining();
-      data.get(b, off, bytesRead);
-      bytesLeft -= bytesRead;
+    while (bytesRead < toRead) {
+      long pos = getPosition() + bytesRead;
+      if (mRemoteData == null || mRemoteDataPos != pos || !mRemoteData.hasRemaining()) {
+        // Only a read which continues the previous one lets the reader read ahead of it, so that
+        // random reads do not transfer data they skip.
+        long length = toRead - bytesRead;
+        if (mRemoteData != null && mRemoteDataPos == pos) {
+          length = Math.max(length, mReadAheadBytes);
+        }
+        mRemoteData = mReader.readRemoteBlock(mWorkerInetSocketAddress, mBlockId, pos,
+            Math.min(length, mBlockSize - pos), mLockId, mBlockWorkerClient.getSessionId());
+        mRemoteDataPos = pos;
+        if (!mRemoteData.hasRemaining()) {
+          throw new IOException(ExceptionMessage.BLOCK_UNAVAILABLE.getMessage(mBlockId));
+        }
+      }
+      int bytes = Math.min(mRemoteData.remaining(), toRead - bytesRead);
+      mRemoteData.get(b, off + bytesRead, bytes);
+      mRemoteDataPos += bytes;
+      bytesRead += bytes;
     }
 
     return toRead;
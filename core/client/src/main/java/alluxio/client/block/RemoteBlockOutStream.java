@@ -87,6 +87,8 @@ public final class RemoteBlockOutStream extends BufferedBlockOutStream {
 
     try {
       flush();
+      // The data must be stored by the worker before the block is committed.
+      mRemoteWriter.close();
       if (mFlushedBytes > 0) {
         mBlockWorkerClient.cacheBlock(mBlockId);
         Metrics.BLOCKS_WRITTEN_REMOTE.inc();
@@ -205,6 +205,11 @@ public class BaseFileSystem implements FileSystem {
     }
   }
 
+  @Override
+  public ListStatusIterator listStatusIterator(AlluxioURI path, ListStatusOptions options) {
+    return new ListStatusIterator(this, path, options);
+  }
+
   /**
    * {@inheritDoc}
    *
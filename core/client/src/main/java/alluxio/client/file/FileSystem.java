@@ -241,6 +241,18 @@ public interface FileSystem {
   List<URIStatus> listStatus(AlluxioURI path, ListStatusOptions options)
       throws FileDoesNotExistException, IOException, AlluxioException;
 
+  /**
+   * Like {@link #listStatus(AlluxioURI, ListStatusOptions)}, but returns an iterator which fetches
+   * the {@link URIStatus}s from the master in batches of {@link ListStatusOptions#getBatchSize()}
+   * entries, in name order. This should be used to list directories which may be too large to list
+   * in a single call.
+   *
+   * @param path the path to list information about
+   * @param options options to associate with this operation
+   * @return an iterator over the {@link URIStatus}s of the children of the given path
+   */
+  ListStatusIterator listStatusIterator(AlluxioURI path, ListStatusOptions options);
+
   /**
    * Convenience method for {@link #loadMetadata(AlluxioURI, LoadMetadataOptions)} with default
    * options.
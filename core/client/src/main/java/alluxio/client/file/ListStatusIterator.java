@@ -0,0 +1,150 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import alluxio.AlluxioURI;
+import alluxio.Configuration;
+import alluxio.PropertyKey;
+import alluxio.client.file.options.ListStatusOptions;
+import alluxio.exception.AlluxioException;
+import alluxio.exception.FileDoesNotExistException;
+import alluxio.wire.LoadMetadataType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Iterates over the {@link URIStatus}s of the direct children of a path in name order. The
+ * children are fetched from the master in batches, each batch continuing after the name of the
+ * last child of the previous one, so that listing a huge directory never requires the master or
+ * the client to hold all of its children at once. Masters which do not support batches return all
+ * the children in one response, in any order, which is then the complete listing.
+ */
+@NotThreadSafe
+public final class ListStatusIterator {
+  private final FileSystem mFileSystem;
+  private final AlluxioURI mPath;
+  private final int mBatchSize;
+  private LoadMetadataType mLoadMetadataType;
+  private Iterator<URIStatus> mBatch;
+  private String mLastName;
+  private boolean mFirstBatch;
+  private boolean mLastBatch;
+
+  /**
+   * Creates a new instance of {@link ListStatusIterator}.
+   *
+   * @param fileSystem the file system to list the batches with
+   * @param path the path to list
+   * @param options the list status options; if the batch size is not set,
+   *        {@link PropertyKey#USER_FILE_LIST_STATUS_BATCH_SIZE} is used
+   */
+  ListStatusIterator(FileSystem fileSystem, AlluxioURI path, ListStatusOptions options) {
+    mFileSystem = fileSystem;
+    mPath = path;
+    mBatchSize = options.getBatchSize() > 0 ? options.getBatchSize()
+        : Configuration.getInt(PropertyKey.USER_FILE_LIST_STATUS_BATCH_SIZE);
+    mLoadMetadataType = options.getLoadMetadataType();
+    mBatch = Collections.emptyIterator();
+    mLastName = options.getStartAfter();
+    mFirstBatch = true;
+    mLastBatch = false;
+  }
+
+  /**
+   * @return true if there are more children to list, fetching the next batch if needed
+   * @throws IOException if a non-Alluxio exception occurs
+   * @throws FileDoesNotExistException if the path does not exist
+   * @throws AlluxioException if an unexpected Alluxio exception is thrown
+   */
+  public boolean hasNext() throws IOException, AlluxioException {
+    while (!mBatch.hasNext() && !mLastBatch) {
+      ListStatusOptions options = ListStatusOptions.defaults()
+          .setLoadMetadataType(mLoadMetadataType).setStartAfter(mLastName)
+          .setBatchSize(mBatchSize);
+      List<URIStatus> batch = mFileSystem.listStatus(mPath, options);
+      // Metadata is loaded by the first batch, later batches only continue the listing.
+      mLoadMetadataType = LoadMetadataType.Never;
+      if (continuesListing(batch)) {
+        mLastBatch = batch.size() < mBatchSize;
+      } else {
+        // A master which does not support batches ignores the start and the batch size, and
+        // returns all the children in any order. The first response is the complete listing, and
+        // later responses repeat it.
+        if (mFirstBatch) {
+          batch = childrenAfter(batch, mLastName);
+        } else {
+          batch = Collections.emptyList();
+        }
+        mLastBatch = true;
+      }
+      mFirstBatch = false;
+      mBatch = batch.iterator();
+    }
+    return mBatch.hasNext();
+  }
+
+  /**
+   * @param batch a batch of children
+   * @return whether the names in the batch are in increasing order, starting after the last listed
+   *         name
+   */
+  private boolean continuesListing(List<URIStatus> batch) {
+    String previous = mLastName;
+    for (URIStatus status : batch) {
+      if (previous != null && status.getName().compareTo(previous) <= 0) {
+        return false;
+      }
+      previous = status.getName();
+    }
+    return true;
+  }
+
+  /**
+   * @param children the children to filter
+   * @param startAfter the name to start after, or null to keep all the children
+   * @return the children whose names are greater than the given name
+   */
+  private static List<URIStatus> childrenAfter(List<URIStatus> children, String startAfter) {
+    if (startAfter == null) {
+      return children;
+    }
+    List<URIStatus> after = new ArrayList<>(children.size());
+    for (URIStatus child : children) {
+      if (child.getName().compareTo(startAfter) > 0) {
+        after.add(child);
+      }
+    }
+    return after;
+  }
+
+  /**
+   * @return the {@link URIStatus} of the next child
+   * @throws IOException if a non-Alluxio exception occurs
+   * @throws FileDoesNotExistException if the path does not exist
+   * @throws AlluxioException if an unexpected Alluxio exception is thrown
+   */
+  public URIStatus next() throws IOException, AlluxioException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    URIStatus status = mBatch.next();
+    mLastName = status.getName();
+    return status;
+  }
+}
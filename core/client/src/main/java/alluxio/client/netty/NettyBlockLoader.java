@@ -0,0 +1,109 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.netty;
+
+import alluxio.Configuration;
+import alluxio.PropertyKey;
+import alluxio.client.block.BlockStoreContext;
+import alluxio.exception.ExceptionMessage;
+import alluxio.network.protocol.RPCBlockLoadRequest;
+import alluxio.network.protocol.RPCBlockLoadResponse;
+import alluxio.network.protocol.RPCErrorResponse;
+import alluxio.network.protocol.RPCMessage;
+import alluxio.network.protocol.RPCResponse;
+
+import com.google.common.base.Throwables;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Asks the data server of a worker to load a block of a persisted file from the under storage into
+ * the Alluxio storage of the worker. The data of the block does not go through the client.
+ */
+@ThreadSafe
+public final class NettyBlockLoader {
+  /** The maximum number of milliseconds to wait for a worker to load a block. */
+  private final long mTimeoutMs = Configuration.getLong(PropertyKey.USER_BLOCK_LOAD_TIMEOUT_MS);
+
+  /**
+   * Creates a new loader of blocks through the data servers of workers.
+   */
+  public NettyBlockLoader() {}
+
+  /**
+   * Loads a block into a worker, waiting for the worker to load it.
+   *
+   * @param address the address of the data server of the worker
+   * @param blockId the id of the block
+   * @return the number of bytes loaded from the under storage, 0 if the worker already stored the
+   *         block or was loading it
+   * @throws IOException if the worker fails to load the block or cannot be reached
+   */
+  public long load(InetSocketAddress address, long blockId) throws IOException {
+    Channel channel = null;
+    ClientHandler clientHandler = null;
+    try {
+      channel = BlockStoreContext.acquireNettyChannel(address);
+      if (!(channel.pipeline().last() instanceof ClientHandler)) {
+        channel.pipeline().addLast(new ClientHandler());
+      }
+      clientHandler = (ClientHandler) channel.pipeline().last();
+      SingleResponseListener listener = new SingleResponseListener();
+      clientHandler.addListener(listener);
+
+      ChannelFuture channelFuture = channel.writeAndFlush(new RPCBlockLoadRequest(blockId)).sync();
+      if (channelFuture.isDone() && !channelFuture.isSuccess()) {
+        throw new IOException(channelFuture.cause());
+      }
+
+      RPCResponse response = listener.get(mTimeoutMs, TimeUnit.MILLISECONDS);
+      switch (response.getType()) {
+        case RPC_BLOCK_LOAD_RESPONSE:
+          RPCBlockLoadResponse resp = (RPCBlockLoadResponse) response;
+          RPCResponse.Status status = resp.getStatus();
+          if (status == RPCResponse.Status.SUCCESS) {
+            return resp.getLength();
+          }
+          throw new IOException(status.getMessage() + " response: " + resp);
+        case RPC_ERROR_RESPONSE:
+          RPCErrorResponse error = (RPCErrorResponse) response;
+          throw new IOException(error.getStatus().getMessage());
+        default:
+          throw new IOException(ExceptionMessage.UNEXPECTED_RPC_RESPONSE.getMessage(
+              response.getType(), RPCMessage.Type.RPC_BLOCK_LOAD_RESPONSE));
+      }
+    } catch (Exception e) {
+      try {
+        if (channel != null) {
+          channel.close().sync();
+        }
+      } catch (InterruptedException ee) {
+        Throwables.propagate(ee);
+      }
+      Throwables.propagateIfInstanceOf(e, IOException.class);
+      throw new IOException(e);
+    } finally {
+      if (clientHandler != null) {
+        clientHandler.removeListeners();
+      }
+      if (channel != null) {
+        BlockStoreContext.releaseNettyChannel(address, channel);
+      }
+    }
+  }
+}
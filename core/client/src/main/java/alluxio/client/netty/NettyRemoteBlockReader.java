@@ -11,7 +11,9 @@
 
 package alluxio.client.netty;
 
+import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.PropertyKey;
 import alluxio.client.RemoteBlockReader;
 import alluxio.client.block.BlockStoreContext;
 import alluxio.exception.ExceptionMessage;
@@ -21,62 +23,99 @@ import alluxio.network.protocol.RPCBlockReadResponse;
 import alluxio.network.protocol.RPCErrorResponse;
 import alluxio.network.protocol.RPCMessage;
 import alluxio.network.protocol.RPCResponse;
+import alluxio.network.protocol.databuffer.DataBuffer;
 
 import com.codahale.metrics.Counter;
-import com.google.common.base.Throwables;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.SettableFuture;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * Read data from remote data server using Netty.
+ *
+ * A read returns at most one chunk of
+ * {@link PropertyKey#USER_NETWORK_NETTY_READER_CHUNK_SIZE_BYTES} bytes. The reader keeps up to
+ * {@link PropertyKey#USER_NETWORK_NETTY_READER_WINDOW_SIZE} chunk requests of the requested range
+ * outstanding on its channel, so when the next read continues where the previous one ended, its
+ * chunk is usually already transferred, and its range extends the range being read. A read of a
+ * different block or offset abandons the outstanding requests: their responses are drained and
+ * released, and the channel is returned to the pool.
  */
 @NotThreadSafe
 public final class NettyRemoteBlockReader implements RemoteBlockReader {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
 
+  /** The maximum number of bytes requested by a chunk request. */
+  private final long mChunkSize;
+  /** The maximum number of outstanding chunk requests. */
+  private final int mWindowSize;
+  /** The outstanding chunk requests, in the order they were sent. */
+  private final Deque<ChunkRequest> mChunkRequests = new ArrayDeque<>();
+
   /** A reference to read response so we can explicitly release the resource after reading. */
   private RPCBlockReadResponse mReadResponse = null;
 
+  /** The address of the data server of the range being read, or null if no range is read. */
+  private InetSocketAddress mAddress = null;
+  private Channel mChannel = null;
+  private PipelinedResponseListener mListener = null;
+  private long mBlockId;
+  private long mLockId;
+  private long mSessionId;
+  /** The offset of the next chunk to request. */
+  private long mNextRequestOffset;
+  /** The end of the range being read. */
+  private long mEndOffset;
+
   /**
    * Creates a new {@link NettyRemoteBlockReader}.
    */
-  public NettyRemoteBlockReader() {}
+  public NettyRemoteBlockReader() {
+    mChunkSize = Configuration.getBytes(PropertyKey.USER_NETWORK_NETTY_READER_CHUNK_SIZE_BYTES);
+    mWindowSize = Configuration.getInt(PropertyKey.USER_NETWORK_NETTY_READER_WINDOW_SIZE);
+    Preconditions.checkArgument(mChunkSize > 0, "The netty reader chunk size must be positive");
+    Preconditions.checkArgument(mWindowSize > 0, "The netty reader window size must be positive");
+  }
 
+  /**
+   * {@inheritDoc}
+   *
+   * The returned buffer contains at most one chunk, and is valid until the next read or until
+   * this reader is closed. The chunks after it, up to the end of the requested range, may already
+   * be requested.
+   */
   @Override
   public ByteBuffer readRemoteBlock(InetSocketAddress address, long blockId, long offset,
       long length, long lockId, long sessionId) throws IOException {
-    Channel channel = null;
-    ClientHandler clientHandler = null;
     Metrics.NETTY_BLOCK_READ_OPS.inc();
+    // always clear the previous response before reading another one
+    releaseReadResponse();
     try {
-      channel = BlockStoreContext.acquireNettyChannel(address);
-      if (!(channel.pipeline().last() instanceof ClientHandler)) {
-        channel.pipeline().addLast(new ClientHandler());
-      }
-      clientHandler = (ClientHandler) channel.pipeline().last();
-      SingleResponseListener listener = new SingleResponseListener();
-      clientHandler.addListener(listener);
-
-      ChannelFuture channelFuture = channel
-          .writeAndFlush(new RPCBlockReadRequest(blockId, offset, length, lockId, sessionId));
-      channelFuture = channelFuture.sync();
-      if (channelFuture.isDone() && !channelFuture.isSuccess()) {
-        LOG.error("Failed to write to %s for block %d with error %s.", address.toString(), blockId,
-            channelFuture.cause());
-        throw new IOException(channelFuture.cause());
+      if (continuesRange(address, blockId, offset)) {
+        mEndOffset = Math.max(mEndOffset, offset + length);
+      } else {
+        abortRange(false);
+        startRange(address, blockId, offset, offset + length, lockId, sessionId);
       }
-
-      RPCResponse response = listener.get(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      sendChunkRequests();
+      ChunkRequest request = mChunkRequests.remove();
+      RPCResponse response = request.mResponse.get(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS);
 
       switch (response.getType()) {
         case RPC_BLOCK_READ_RESPONSE:
@@ -85,9 +124,15 @@ public final class NettyRemoteBlockReader implements RemoteBlockReader {
 
           RPCResponse.Status status = blockResponse.getStatus();
           if (status == RPCResponse.Status.SUCCESS) {
-            // always clear the previous response before reading another one
-            close();
             mReadResponse = blockResponse;
+            if (blockResponse.getOffset() != request.mOffset) {
+              throw new IOException(String.format("Received offset %d of block %d instead of %d",
+                  blockResponse.getOffset(), blockId, request.mOffset));
+            }
+            if (mChunkRequests.isEmpty() && mNextRequestOffset >= mEndOffset) {
+              // The whole range is received, so the channel can be used by other readers.
+              releaseChannel();
+            }
             return blockResponse.getPayloadDataBuffer().getReadOnlyByteBuffer();
           }
           throw new IOException(status.getMessage() + " response: " + blockResponse);
@@ -100,37 +145,190 @@ public final class NettyRemoteBlockReader implements RemoteBlockReader {
       }
     } catch (Exception e) {
       Metrics.NETTY_BLOCK_READ_FAILURES.inc();
-      try {
-        if (channel != null) {
-          channel.close().sync();
-        }
-      } catch (InterruptedException ee) {
-        throw Throwables.propagate(ee);
-      }
+      releaseReadResponse();
+      abortRange(true);
       throw new IOException(e);
-    } finally {
-      if (clientHandler != null) {
-        clientHandler.removeListeners();
-      }
-      if (channel != null) {
-        BlockStoreContext.releaseNettyChannel(address, channel);
-      }
     }
   }
 
   /**
    * {@inheritDoc}
    *
-   * Release the underlying buffer of previous/current read response.
+   * Release the underlying buffer of previous/current read response, and drains the outstanding
+   * chunk requests.
    */
   @Override
   public void close() throws IOException {
+    releaseReadResponse();
+    abortRange(false);
+  }
+
+  /**
+   * @param address the address of the data server
+   * @param blockId the id of the block
+   * @param offset the offset of the read
+   * @return true if the read starts where the previous read of the range being read ended
+   */
+  private boolean continuesRange(InetSocketAddress address, long blockId, long offset) {
+    if (mAddress == null || !mAddress.equals(address) || mBlockId != blockId) {
+      return false;
+    }
+    long nextOffset =
+        mChunkRequests.isEmpty() ? mNextRequestOffset : mChunkRequests.peek().mOffset;
+    return nextOffset == offset;
+  }
+
+  /**
+   * Starts reading a range of a block on a channel of the data server.
+   *
+   * @param address the address of the data server
+   * @param blockId the id of the block
+   * @param offset the start of the range
+   * @param endOffset the end of the range
+   * @param lockId the acquired block lock id
+   * @param sessionId the session id of the client
+   * @throws IOException if a channel cannot be acquired
+   */
+  private void startRange(InetSocketAddress address, long blockId, long offset, long endOffset,
+      long lockId, long sessionId) throws IOException {
+    mChannel = BlockStoreContext.acquireNettyChannel(address);
+    mAddress = address;
+    if (!(mChannel.pipeline().last() instanceof ClientHandler)) {
+      mChannel.pipeline().addLast(new ClientHandler());
+    }
+    mListener = new PipelinedResponseListener();
+    ((ClientHandler) mChannel.pipeline().last()).addListener(mListener);
+    mBlockId = blockId;
+    mLockId = lockId;
+    mSessionId = sessionId;
+    mNextRequestOffset = offset;
+    mEndOffset = endOffset;
+  }
+
+  /**
+   * Sends chunk requests for the range being read until the window is full.
+   */
+  private void sendChunkRequests() {
+    // A request is sent even for an empty range, so that the read receives a response.
+    while (mChunkRequests.isEmpty()
+        || (mChunkRequests.size() < mWindowSize && mNextRequestOffset < mEndOffset)) {
+      long length = Math.min(mChunkSize, mEndOffset - mNextRequestOffset);
+      final ChunkRequest request = new ChunkRequest(mNextRequestOffset, mListener.expectResponse());
+      mChunkRequests.add(request);
+      mChannel.writeAndFlush(
+          new RPCBlockReadRequest(mBlockId, mNextRequestOffset, length, mLockId, mSessionId))
+          .addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+              if (!future.isSuccess()) {
+                request.mResponse.setException(future.cause());
+              }
+            }
+          });
+      mNextRequestOffset += length;
+    }
+  }
+
+  /**
+   * Releases the channel of the range being read to the channel pool. The responses of the
+   * outstanding chunk requests are received and released first, since they would otherwise be
+   * received by the next user of the channel. If they cannot be received, the channel is closed
+   * instead.
+   *
+   * @param closeChannel whether to close the channel instead of draining it
+   */
+  private void abortRange(boolean closeChannel) {
+    if (mChannel == null) {
+      return;
+    }
+    if (!closeChannel && !drainChunkRequests()) {
+      closeChannel = true;
+    }
+    if (closeChannel) {
+      mChannel.close().awaitUninterruptibly();
+      for (ChunkRequest request : mChunkRequests) {
+        // The responses which were already received hold buffers which must be released.
+        if (!request.mResponse.cancel(false)) {
+          try {
+            releaseResponse(request.mResponse.get());
+          } catch (InterruptedException | ExecutionException e) {
+            // The request failed, so there is no response to release.
+          }
+        }
+      }
+      mChunkRequests.clear();
+    }
+    releaseChannel();
+  }
+
+  /**
+   * Waits for the responses of the outstanding chunk requests and releases them.
+   *
+   * @return true if all the responses were received, false otherwise
+   */
+  private boolean drainChunkRequests() {
+    while (!mChunkRequests.isEmpty()) {
+      ChunkRequest request = mChunkRequests.peek();
+      try {
+        releaseResponse(request.mResponse.get(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      } catch (ExecutionException | TimeoutException e) {
+        return false;
+      }
+      mChunkRequests.remove();
+      Metrics.NETTY_BLOCK_READ_DRAINED_CHUNKS.inc();
+    }
+    return true;
+  }
+
+  /**
+   * Releases the channel of the range being read to the channel pool.
+   */
+  private void releaseChannel() {
+    ((ClientHandler) mChannel.pipeline().last()).removeListeners();
+    BlockStoreContext.releaseNettyChannel(mAddress, mChannel);
+    mChannel = null;
+    mAddress = null;
+    mListener = null;
+  }
+
+  /**
+   * Releases the buffer of the response returned by the previous read.
+   */
+  private void releaseReadResponse() {
     if (mReadResponse != null) {
-      mReadResponse.getPayloadDataBuffer().release();
+      releaseResponse(mReadResponse);
       mReadResponse = null;
     }
   }
 
+  /**
+   * @param response the response whose buffer to release
+   */
+  private static void releaseResponse(RPCResponse response) {
+    if (response instanceof RPCBlockReadResponse) {
+      DataBuffer buffer = ((RPCBlockReadResponse) response).getPayloadDataBuffer();
+      if (buffer != null) {
+        buffer.release();
+      }
+    }
+  }
+
+  /**
+   * An outstanding request for a chunk of the range being read.
+   */
+  private static final class ChunkRequest {
+    private final long mOffset;
+    private final SettableFuture<RPCResponse> mResponse;
+
+    ChunkRequest(long offset, SettableFuture<RPCResponse> response) {
+      mOffset = offset;
+      mResponse = response;
+    }
+  }
+
   /**
    * Class that contains metrics about {@link NettyRemoteBlockReader}.
    */
@@ -140,6 +338,8 @@ public final class NettyRemoteBlockReader implements RemoteBlockReader {
         MetricsSystem.clientCounter("NettyBlockReadOps");
     private static final Counter NETTY_BLOCK_READ_FAILURES =
         MetricsSystem.clientCounter("NettyBlockReadFailures");
+    private static final Counter NETTY_BLOCK_READ_DRAINED_CHUNKS =
+        MetricsSystem.clientCounter("NettyBlockReadDrainedChunks");
 
     private Metrics() {} // prevent instantiation
   }
@@ -11,7 +11,9 @@
 
 package alluxio.client.netty;
 
+import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.PropertyKey;
 import alluxio.client.RemoteBlockWriter;
 import alluxio.client.block.BlockStoreContext;
 import alluxio.exception.ExceptionMessage;
@@ -24,7 +26,8 @@ import alluxio.network.protocol.RPCResponse;
 import alluxio.network.protocol.databuffer.DataByteArrayChannel;
 
 import com.codahale.metrics.Counter;
-import com.google.common.base.Throwables;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.SettableFuture;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import org.slf4j.Logger;
@@ -32,6 +35,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -39,15 +44,29 @@ import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * Write data to a remote data server using Netty.
+ *
+ * The writes of a block are sent on a single channel, which the data server keeps the block file
+ * open for. Up to {@link PropertyKey#USER_NETWORK_NETTY_WRITER_WINDOW_SIZE} writes are sent before
+ * waiting for the data server to acknowledge the earliest one, and closing the writer waits for
+ * all of them and ends the write on the data server.
  */
 @NotThreadSafe
 public final class NettyRemoteBlockWriter implements RemoteBlockWriter {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+  private static final byte[] EMPTY_BYTES = new byte[0];
+
+  /** The maximum number of writes which are not acknowledged yet. */
+  private final int mWindowSize;
+  /** The responses of the writes which are not acknowledged yet, in the order of the writes. */
+  private final Deque<SettableFuture<RPCResponse>> mResponses = new ArrayDeque<>();
 
   private boolean mOpen;
   private InetSocketAddress mAddress;
   private long mBlockId;
   private long mSessionId;
+  /** The channel the writes are sent on, or null if nothing was written yet. */
+  private Channel mChannel;
+  private PipelinedResponseListener mListener;
 
   // Total number of bytes written to the remote block.
   private long mWrittenBytes;
@@ -56,10 +75,14 @@ public final class NettyRemoteBlockWriter implements RemoteBlockWriter {
    * Creates a new {@link NettyRemoteBlockWriter}.
    */
   public NettyRemoteBlockWriter() {
+    mWindowSize = Configuration.getInt(PropertyKey.USER_NETWORK_NETTY_WRITER_WINDOW_SIZE);
+    Preconditions.checkArgument(mWindowSize > 0, "The netty writer window size must be positive");
     mOpen = false;
     mAddress = null;
     mBlockId = 0;
     mSessionId = 0;
+    mChannel = null;
+    mListener = null;
     mWrittenBytes = 0;
   }
 
@@ -76,78 +99,136 @@ public final class NettyRemoteBlockWriter implements RemoteBlockWriter {
     mOpen = true;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * Waits for the outstanding writes to be acknowledged, and tells the data server that the block
+   * is written, so that it closes the block file.
+   */
   @Override
-  public void close() {
-    if (mOpen) {
-      mOpen = false;
+  public void close() throws IOException {
+    if (!mOpen) {
+      return;
+    }
+    mOpen = false;
+    if (mChannel == null) {
+      return;
+    }
+    try {
+      while (!mResponses.isEmpty()) {
+        waitForResponse();
+      }
+      // An empty write at the end of the block ends the write on the data server.
+      sendRequest(EMPTY_BYTES, 0, 0);
+      waitForResponse();
+      releaseChannel();
+    } catch (Exception e) {
+      closeChannel();
+      throw new IOException(e);
     }
   }
 
   @Override
   public void write(byte[] bytes, int offset, int length) throws IOException {
-    Channel channel = null;
-    ClientHandler clientHandler = null;
+    if (length == 0 && mWrittenBytes > 0) {
+      // An empty write in the middle of the block would end the write on the data server.
+      return;
+    }
     Metrics.NETTY_BLOCK_WRITE_OPS.inc();
     try {
-      channel = BlockStoreContext.acquireNettyChannel(mAddress);
-      if (!(channel.pipeline().last() instanceof ClientHandler)) {
-        channel.pipeline().addLast(new ClientHandler());
-      }
-      clientHandler = (ClientHandler) channel.pipeline().last();
-      SingleResponseListener listener = new SingleResponseListener();
-      clientHandler.addListener(listener);
-
-      ChannelFuture channelFuture = channel.writeAndFlush(
-          new RPCBlockWriteRequest(mSessionId, mBlockId, mWrittenBytes, length,
-              new DataByteArrayChannel(bytes, offset, length))).sync();
-      if (channelFuture.isDone() && !channelFuture.isSuccess()) {
-        LOG.error("Failed to write to %s for block %d with error %s.", mAddress.toString(),
-            mBlockId, channelFuture.cause());
-        throw new IOException(channelFuture.cause());
+      if (mChannel == null) {
+        mChannel = BlockStoreContext.acquireNettyChannel(mAddress);
+        if (!(mChannel.pipeline().last() instanceof ClientHandler)) {
+          mChannel.pipeline().addLast(new ClientHandler());
+        }
+        mListener = new PipelinedResponseListener();
+        ((ClientHandler) mChannel.pipeline().last()).addListener(mListener);
       }
-
-      RPCResponse response = listener.get(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS);
-
-      switch (response.getType()) {
-        case RPC_BLOCK_WRITE_RESPONSE:
-          RPCBlockWriteResponse resp = (RPCBlockWriteResponse) response;
-          RPCResponse.Status status = resp.getStatus();
-          LOG.debug("status: {} from remote machine {} received", status, mAddress);
-
-          if (status != RPCResponse.Status.SUCCESS) {
-            throw new IOException(ExceptionMessage.BLOCK_WRITE_ERROR.getMessage(mBlockId,
-                mSessionId, mAddress, status.getMessage()));
-          }
-          mWrittenBytes += length;
-          break;
-        case RPC_ERROR_RESPONSE:
-          RPCErrorResponse error = (RPCErrorResponse) response;
-          throw new IOException(error.getStatus().getMessage());
-        default:
-          throw new IOException(ExceptionMessage.UNEXPECTED_RPC_RESPONSE
-              .getMessage(response.getType(), RPCMessage.Type.RPC_BLOCK_WRITE_RESPONSE));
+      sendRequest(bytes, offset, length);
+      mWrittenBytes += length;
+      while (mResponses.size() >= mWindowSize) {
+        waitForResponse();
       }
     } catch (Exception e) {
       Metrics.NETTY_BLOCK_WRITE_FAILURES.inc();
-      try {
-        // TODO(peis): We should not close the channel unless it is an exception caused by network.
-        if (channel != null) {
-          channel.close().sync();
-        }
-      } catch (InterruptedException ee) {
-        Throwables.propagate(ee);
-      }
+      closeChannel();
       throw new IOException(e);
-    } finally {
-      if (clientHandler != null) {
-        clientHandler.removeListeners();
-      }
-      if (channel != null) {
-        BlockStoreContext.releaseNettyChannel(mAddress, channel);
-      }
     }
   }
 
+  /**
+   * Sends a write request at the end of the written data. This returns once the data is sent, so
+   * the source array can be reused.
+   *
+   * @param bytes the source data
+   * @param offset the offset into the source array
+   * @param length the length of the data
+   * @throws Exception if the request cannot be sent
+   */
+  private void sendRequest(byte[] bytes, int offset, int length) throws Exception {
+    mResponses.add(mListener.expectResponse());
+    ChannelFuture channelFuture = mChannel.writeAndFlush(
+        new RPCBlockWriteRequest(mSessionId, mBlockId, mWrittenBytes, length,
+            new DataByteArrayChannel(bytes, offset, length))).sync();
+    if (channelFuture.isDone() && !channelFuture.isSuccess()) {
+      LOG.error("Failed to write to {} for block {} with error {}.", mAddress, mBlockId,
+          channelFuture.cause());
+      throw new IOException(channelFuture.cause());
+    }
+  }
+
+  /**
+   * Waits for the earliest outstanding write to be acknowledged.
+   *
+   * @throws Exception if the write failed, or is not acknowledged in time
+   */
+  private void waitForResponse() throws Exception {
+    RPCResponse response =
+        mResponses.remove().get(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    switch (response.getType()) {
+      case RPC_BLOCK_WRITE_RESPONSE:
+        RPCBlockWriteResponse resp = (RPCBlockWriteResponse) response;
+        RPCResponse.Status status = resp.getStatus();
+        LOG.debug("status: {} from remote machine {} received", status, mAddress);
+
+        if (status != RPCResponse.Status.SUCCESS) {
+          throw new IOException(ExceptionMessage.BLOCK_WRITE_ERROR.getMessage(mBlockId,
+              mSessionId, mAddress, status.getMessage()));
+        }
+        break;
+      case RPC_ERROR_RESPONSE:
+        RPCErrorResponse error = (RPCErrorResponse) response;
+        throw new IOException(error.getStatus().getMessage());
+      default:
+        throw new IOException(ExceptionMessage.UNEXPECTED_RPC_RESPONSE
+            .getMessage(response.getType(), RPCMessage.Type.RPC_BLOCK_WRITE_RESPONSE));
+    }
+  }
+
+  /**
+   * Closes the channel after a failure, so that the data server discards the state of the write,
+   * and releases it to the channel pool.
+   */
+  private void closeChannel() {
+    if (mChannel == null) {
+      return;
+    }
+    // TODO(peis): We should not close the channel unless it is an exception caused by network.
+    mChannel.close().awaitUninterruptibly();
+    mResponses.clear();
+    releaseChannel();
+  }
+
+  /**
+   * Releases the channel to the channel pool.
+   */
+  private void releaseChannel() {
+    ((ClientHandler) mChannel.pipeline().last()).removeListeners();
+    BlockStoreContext.releaseNettyChannel(mAddress, mChannel);
+    mChannel = null;
+    mListener = null;
+  }
+
   /**
    * Class that contains metrics about {@link NettyRemoteBlockWriter}.
    */
@@ -0,0 +1,64 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.netty;
+
+import alluxio.network.protocol.RPCResponse;
+
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A listener that waits for the responses of several requests sent on the same channel. The data
+ * server responds to the requests of a channel in order, so the n-th response received completes
+ * the future of the n-th expected response.
+ */
+@ThreadSafe
+public final class PipelinedResponseListener implements ClientHandler.ResponseListener {
+  /** The futures of the responses which were not received yet, in the order of the requests. */
+  private final Queue<SettableFuture<RPCResponse>> mResponses = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Constructs a new {@link PipelinedResponseListener}.
+   */
+  public PipelinedResponseListener() {}
+
+  /**
+   * Registers a response to wait for. This must be called before the request is sent.
+   *
+   * @return the future of the response
+   */
+  public SettableFuture<RPCResponse> expectResponse() {
+    SettableFuture<RPCResponse> response = SettableFuture.create();
+    mResponses.add(response);
+    return response;
+  }
+
+  @Override
+  public void onResponseReceived(RPCResponse response) {
+    SettableFuture<RPCResponse> future = mResponses.poll();
+    if (future != null) {
+      future.set(response);
+    }
+  }
+
+  @Override
+  public void onExceptionCaught(Throwable cause) {
+    SettableFuture<RPCResponse> future;
+    while ((future = mResponses.poll()) != null) {
+      future.setException(cause);
+    }
+  }
+}
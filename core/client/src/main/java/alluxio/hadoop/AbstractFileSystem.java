@@ -20,10 +20,12 @@ import alluxio.client.file.FileOutStream;
 import alluxio.client.file.FileSystem;
 import alluxio.client.file.FileSystemContext;
 import alluxio.client.file.FileSystemMasterClient;
+import alluxio.client.file.ListStatusIterator;
 import alluxio.client.file.URIStatus;
 import alluxio.client.file.options.CreateDirectoryOptions;
 import alluxio.client.file.options.CreateFileOptions;
 import alluxio.client.file.options.DeleteOptions;
+import alluxio.client.file.options.ListStatusOptions;
 import alluxio.client.file.options.SetAttributeOptions;
 import alluxio.client.lineage.LineageContext;
 import alluxio.exception.AlluxioException;
@@ -450,25 +452,27 @@ abstract class AbstractFileSystem extends org.apache.hadoop.fs.FileSystem {
       mStatistics.incrementReadOps(1);
     }
 
+    // Fetch the children in batches, so that listing a huge directory does not require a single
+    // response holding all of them. Hadoop's listStatusIterator is not available in all the
+    // supported Hadoop versions, so the statuses are still returned as an array.
     AlluxioURI uri = new AlluxioURI(HadoopUtils.getPathWithoutScheme(path));
-    List<URIStatus> statuses;
+    List<FileStatus> ret = new ArrayList<>();
     try {
-      statuses = sFileSystem.listStatus(uri);
+      ListStatusIterator statuses =
+          sFileSystem.listStatusIterator(uri, ListStatusOptions.defaults());
+      while (statuses.hasNext()) {
+        URIStatus status = statuses.next();
+        // TODO(hy): Replicate 3 with the number of disk replications.
+        ret.add(new FileStatus(status.getLength(), status.isFolder(), 3,
+            status.getBlockSizeBytes(), status.getCreationTimeMs(), status.getCreationTimeMs(),
+            null, null, null, new Path(mAlluxioHeader + status.getPath())));
+      }
     } catch (FileDoesNotExistException e) {
       throw new FileNotFoundException(HadoopUtils.getPathWithoutScheme(path));
     } catch (AlluxioException e) {
       throw new IOException(e);
     }
-
-    FileStatus[] ret = new FileStatus[statuses.size()];
-    for (int k = 0; k < statuses.size(); k++) {
-      URIStatus status = statuses.get(k);
-      // TODO(hy): Replicate 3 with the number of disk replications.
-      ret[k] = new FileStatus(status.getLength(), status.isFolder(), 3, status.getBlockSizeBytes(),
-          status.getCreationTimeMs(), status.getCreationTimeMs(), null, null, null,
-          new Path(mAlluxioHeader + status.getPath()));
-    }
-    return ret;
+    return ret.toArray(new FileStatus[ret.size()]);
   }
 
   /**
@@ -0,0 +1,153 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import alluxio.AlluxioURI;
+import alluxio.client.file.options.ListStatusOptions;
+import alluxio.wire.FileInfo;
+import alluxio.wire.LoadMetadataType;
+
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Unit tests for {@link ListStatusIterator}.
+ */
+public final class ListStatusIteratorTest {
+  private static final AlluxioURI PATH = new AlluxioURI("/dir");
+
+  private FileSystem mFileSystem;
+
+  /**
+   * Sets up the file system before a test runs.
+   */
+  @Before
+  public void before() {
+    mFileSystem = Mockito.mock(FileSystem.class);
+  }
+
+  /**
+   * Tests that the children are fetched in batches, continuing after the last listed child.
+   */
+  @Test
+  public void listInBatches() throws Exception {
+    Mockito.when(mFileSystem.listStatus(PATH, batchOptions(LoadMetadataType.Once, null)))
+        .thenReturn(statuses("a", "b"));
+    Mockito.when(mFileSystem.listStatus(PATH, batchOptions(LoadMetadataType.Never, "b")))
+        .thenReturn(statuses("c", "d"));
+    Mockito.when(mFileSystem.listStatus(PATH, batchOptions(LoadMetadataType.Never, "d")))
+        .thenReturn(statuses("e"));
+
+    ListStatusIterator iterator =
+        new ListStatusIterator(mFileSystem, PATH, ListStatusOptions.defaults().setBatchSize(2));
+    Assert.assertEquals(Lists.newArrayList("a", "b", "c", "d", "e"), names(iterator));
+    Mockito.verify(mFileSystem, Mockito.times(3))
+        .listStatus(Mockito.eq(PATH), Mockito.any(ListStatusOptions.class));
+  }
+
+  /**
+   * Tests that a full batch is followed by a request which returns no children.
+   */
+  @Test
+  public void listFullLastBatch() throws Exception {
+    Mockito.when(mFileSystem.listStatus(PATH, batchOptions(LoadMetadataType.Once, null)))
+        .thenReturn(statuses("a", "b"));
+    Mockito.when(mFileSystem.listStatus(PATH, batchOptions(LoadMetadataType.Never, "b")))
+        .thenReturn(new ArrayList<URIStatus>());
+
+    ListStatusIterator iterator =
+        new ListStatusIterator(mFileSystem, PATH, ListStatusOptions.defaults().setBatchSize(2));
+    Assert.assertEquals(Lists.newArrayList("a", "b"), names(iterator));
+    Assert.assertFalse(iterator.hasNext());
+    try {
+      iterator.next();
+      Assert.fail("next() should fail once all the children are listed");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Tests that the listing ends when a master which ignores the start and the batch size returns
+   * more children than the batch size.
+   */
+  @Test
+  public void listWithoutBatchSupport() throws Exception {
+    Mockito.when(mFileSystem.listStatus(Mockito.eq(PATH), Mockito.any(ListStatusOptions.class)))
+        .thenReturn(statuses("a", "b", "c"));
+
+    ListStatusIterator iterator =
+        new ListStatusIterator(mFileSystem, PATH, ListStatusOptions.defaults().setBatchSize(2));
+    Assert.assertEquals(Lists.newArrayList("a", "b", "c"), names(iterator));
+  }
+
+  /**
+   * Tests that the listing ends when a master which ignores the start and the batch size returns
+   * exactly as many children as the batch size.
+   */
+  @Test
+  public void listFullBatchWithoutBatchSupport() throws Exception {
+    Mockito.when(mFileSystem.listStatus(Mockito.eq(PATH), Mockito.any(ListStatusOptions.class)))
+        .thenReturn(statuses("a", "b"));
+
+    ListStatusIterator iterator =
+        new ListStatusIterator(mFileSystem, PATH, ListStatusOptions.defaults().setBatchSize(2));
+    Assert.assertEquals(Lists.newArrayList("a", "b"), names(iterator));
+    Mockito.verify(mFileSystem, Mockito.times(2))
+        .listStatus(Mockito.eq(PATH), Mockito.any(ListStatusOptions.class));
+  }
+
+  /**
+   * Tests that an unsorted response, as returned by a master which does not support batches, is
+   * the complete listing.
+   */
+  @Test
+  public void listUnsortedWithoutBatchSupport() throws Exception {
+    Mockito.when(mFileSystem.listStatus(Mockito.eq(PATH), Mockito.any(ListStatusOptions.class)))
+        .thenReturn(statuses("c", "a", "b"));
+
+    ListStatusIterator iterator =
+        new ListStatusIterator(mFileSystem, PATH, ListStatusOptions.defaults().setBatchSize(3));
+    Assert.assertEquals(Lists.newArrayList("c", "a", "b"), names(iterator));
+    Mockito.verify(mFileSystem)
+        .listStatus(Mockito.eq(PATH), Mockito.any(ListStatusOptions.class));
+  }
+
+  private static ListStatusOptions batchOptions(LoadMetadataType loadMetadataType,
+      String startAfter) {
+    return ListStatusOptions.defaults().setLoadMetadataType(loadMetadataType)
+        .setStartAfter(startAfter).setBatchSize(2);
+  }
+
+  private static List<URIStatus> statuses(String... names) {
+    List<URIStatus> statuses = new ArrayList<>();
+    for (String name : names) {
+      statuses.add(new URIStatus(new FileInfo().setName(name).setPath("/dir/" + name)));
+    }
+    return statuses;
+  }
+
+  private static List<String> names(ListStatusIterator iterator) throws Exception {
+    List<String> names = new ArrayList<>();
+    while (iterator.hasNext()) {
+      names.add(iterator.next().getName());
+    }
+    return names;
+  }
+}
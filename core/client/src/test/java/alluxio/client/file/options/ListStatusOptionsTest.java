@@ -34,6 +34,13 @@ public class ListStatusOptionsTest {
   public void fields() {
     ListStatusOptions options = ListStatusOptions.defaults();
     Assert.assertEquals(LoadMetadataType.Once, options.getLoadMetadataType());
+    Assert.assertNull(options.getStartAfter());
+    Assert.assertEquals(0, options.getBatchSize());
+    Assert.assertFalse(options.isLoadMetadataRecursive());
+    options.setStartAfter("child").setBatchSize(10).setLoadMetadataRecursive(true);
+    Assert.assertEquals("child", options.getStartAfter());
+    Assert.assertEquals(10, options.getBatchSize());
+    Assert.assertTrue(options.isLoadMetadataRecursive());
   }
 
   @Test
@@ -41,6 +48,15 @@ public class ListStatusOptionsTest {
     ListStatusOptions options = ListStatusOptions.defaults();
     ListStatusTOptions thriftOptions = options.toThrift();
     Assert.assertEquals(LoadMetadataTType.Once, thriftOptions.getLoadMetadataType());
+    Assert.assertFalse(thriftOptions.isSetStartAfter());
+    Assert.assertFalse(thriftOptions.isSetBatchSize());
+    Assert.assertFalse(thriftOptions.isSetLoadMetadataRecursive());
+
+    thriftOptions = options.setStartAfter("child").setBatchSize(10).setLoadMetadataRecursive(true)
+        .toThrift();
+    Assert.assertEquals("child", thriftOptions.getStartAfter());
+    Assert.assertEquals(10, thriftOptions.getBatchSize());
+    Assert.assertTrue(thriftOptions.isLoadMetadataRecursive());
   }
 
   @Test
@@ -11,6 +11,10 @@
 
 package alluxio.client.netty;
 
+import alluxio.Configuration;
+import alluxio.ConfigurationTestUtils;
+import alluxio.PropertyKey;
+import alluxio.network.protocol.RPCBlockReadRequest;
 import alluxio.network.protocol.RPCBlockReadResponse;
 import alluxio.network.protocol.RPCErrorResponse;
 import alluxio.network.protocol.RPCFileWriteResponse;
@@ -22,6 +26,7 @@ import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelPipeline;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -86,6 +91,14 @@ public class NettyRemoteBlockReaderTest {
     Mockito.when(mChannelPipeline.last()).thenReturn(sClientHandler);
   }
 
+  /**
+   * Resets the configuration.
+   */
+  @After
+  public void after() {
+    ConfigurationTestUtils.resetConfiguration();
+  }
+
   /**
    * Test case for a valid {@link RPCBlockReadResponse} is received.
    */
@@ -162,6 +175,117 @@ public class NettyRemoteBlockReaderTest {
             BLOCK_ID, OFFSET, LENGTH, LOCK_ID, SESSION_ID);
   }
 
+  /**
+   * Tests that a sequential read keeps a window of chunk requests outstanding, and that the chunks
+   * are returned in order.
+   */
+  @Test
+  public void readRemoteBlockPipelined() throws IOException {
+    Configuration.set(PropertyKey.USER_NETWORK_NETTY_READER_CHUNK_SIZE_BYTES, "4");
+    Configuration.set(PropertyKey.USER_NETWORK_NETTY_READER_WINDOW_SIZE, "2");
+    NettyRemoteBlockReader reader = new NettyRemoteBlockReader();
+    Mockito.when(mChannel.writeAndFlush(Mockito.any())).then(new Answer<ChannelFuture>() {
+      @Override
+      public ChannelFuture answer(InvocationOnMock invocation) throws Throwable {
+        RPCBlockReadRequest request = (RPCBlockReadRequest) invocation.getArguments()[0];
+        sClientHandler.channelRead0(null, createRPCBlockReadResponse(request));
+        return mChannelFuture;
+      }
+    });
+
+    long length = 10;
+    for (long offset = 0; offset < length; offset += 4) {
+      ByteBuffer chunk = reader.readRemoteBlock(INET_SOCKET_ADDRESS, BLOCK_ID, offset,
+          length - offset, LOCK_ID, SESSION_ID);
+      Assert.assertEquals(Math.min(4, length - offset), chunk.remaining());
+      for (long pos = offset; chunk.hasRemaining(); pos++) {
+        Assert.assertEquals((byte) pos, chunk.get());
+      }
+      if (offset == 0) {
+        // The second chunk is requested with the first one.
+        Mockito.verify(mChannel, Mockito.times(2)).writeAndFlush(Mockito.any());
+      }
+    }
+    reader.close();
+    Mockito.verify(mChannel, Mockito.times(3)).writeAndFlush(Mockito.any());
+    // No request is outstanding once the range is read, so the channel is not closed.
+    Mockito.verify(mChannel, Mockito.never()).close();
+  }
+
+  /**
+   * Tests that a read at another offset drains the chunks read ahead and reuses the channel,
+   * instead of closing it.
+   */
+  @Test
+  public void readRemoteBlockSeekDrainsChannel() throws IOException {
+    Configuration.set(PropertyKey.USER_NETWORK_NETTY_READER_CHUNK_SIZE_BYTES, "4");
+    Configuration.set(PropertyKey.USER_NETWORK_NETTY_READER_WINDOW_SIZE, "2");
+    NettyRemoteBlockReader reader = new NettyRemoteBlockReader();
+    respondToChunkRequests();
+    // The channel pool of the address keeps the healthy channel, so it is only used by this test.
+    InetSocketAddress address = new InetSocketAddress(1235);
+
+    ByteBuffer chunk = reader.readRemoteBlock(address, BLOCK_ID, 0, 16, LOCK_ID, SESSION_ID);
+    Assert.assertEquals(0, chunk.get());
+    // The second chunk is outstanding when the read jumps to the end of the block.
+    chunk = reader.readRemoteBlock(address, BLOCK_ID, 12, 4, LOCK_ID, SESSION_ID);
+    Assert.assertEquals(4, chunk.remaining());
+    Assert.assertEquals(12, chunk.get());
+    reader.close();
+    Mockito.verify(mChannel, Mockito.times(3)).writeAndFlush(Mockito.any());
+    Mockito.verify(mChannel, Mockito.never()).close();
+  }
+
+  /**
+   * Tests that a read which continues the previous one extends the range being read.
+   */
+  @Test
+  public void readRemoteBlockContinuingReadExtendsRange() throws IOException {
+    Configuration.set(PropertyKey.USER_NETWORK_NETTY_READER_CHUNK_SIZE_BYTES, "4");
+    Configuration.set(PropertyKey.USER_NETWORK_NETTY_READER_WINDOW_SIZE, "2");
+    NettyRemoteBlockReader reader = new NettyRemoteBlockReader();
+    respondToChunkRequests();
+    // The channel pool of the address keeps the healthy channel, so it is only used by this test.
+    InetSocketAddress address = new InetSocketAddress(1236);
+
+    ByteBuffer chunk = reader.readRemoteBlock(address, BLOCK_ID, 0, 8, LOCK_ID, SESSION_ID);
+    Assert.assertEquals(0, chunk.get());
+    Mockito.verify(mChannel, Mockito.times(2)).writeAndFlush(Mockito.any());
+    for (long offset = 4; offset < 16; offset += 4) {
+      chunk = reader.readRemoteBlock(address, BLOCK_ID, offset, 16 - offset, LOCK_ID,
+          SESSION_ID);
+      Assert.assertEquals(4, chunk.remaining());
+      Assert.assertEquals((byte) offset, chunk.get());
+    }
+    reader.close();
+    // Each chunk is requested once, none of them is drained.
+    Mockito.verify(mChannel, Mockito.times(4)).writeAndFlush(Mockito.any());
+    Mockito.verify(mChannel, Mockito.never()).close();
+  }
+
+  private void respondToChunkRequests() {
+    Mockito.when(mChannel.isActive()).thenReturn(true);
+    Mockito.when(mChannel.writeAndFlush(Mockito.any())).then(new Answer<ChannelFuture>() {
+      @Override
+      public ChannelFuture answer(InvocationOnMock invocation) throws Throwable {
+        RPCBlockReadRequest request = (RPCBlockReadRequest) invocation.getArguments()[0];
+        sClientHandler.channelRead0(null, createRPCBlockReadResponse(request));
+        return mChannelFuture;
+      }
+    });
+  }
+
+  private RPCBlockReadResponse createRPCBlockReadResponse(RPCBlockReadRequest request) {
+    ByteBuffer byteBuffer = ByteBuffer.allocate((int) request.getLength());
+    for (int i = 0; i < request.getLength(); i++) {
+      byteBuffer.put((byte) (request.getOffset() + i));
+    }
+    byteBuffer.flip();
+    DataBuffer dataBuffer = new DataByteBuffer(byteBuffer, request.getLength());
+    return new RPCBlockReadResponse(request.getBlockId(), request.getOffset(), request.getLength(),
+        dataBuffer, RPCResponse.Status.SUCCESS);
+  }
+
   private RPCBlockReadResponse createRPCBlockReadResponse(RPCResponse.Status status) {
     ByteBuffer byteBuffer = ByteBuffer.allocateDirect((int) LENGTH);
     byteBuffer.put("alluxio".getBytes());
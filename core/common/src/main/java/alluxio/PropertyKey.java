@@ -25,8 +25,13 @@ public enum PropertyKey {
   CONF_DIR(Name.CONF_DIR, String.format("${%s}/conf", Name.HOME)),
   DEBUG(Name.DEBUG, false),
   HOME(Name.HOME, "/opt/alluxio"),
+  KEY_VALUE_CLIENT_MULTI_GET_BATCH_SIZE(Name.KEY_VALUE_CLIENT_MULTI_GET_BATCH_SIZE, 1024),
   KEY_VALUE_ENABLED(Name.KEY_VALUE_ENABLED, false),
+  KEY_VALUE_PARTITION_BLOOM_FILTER_BITS_PER_KEY(
+      Name.KEY_VALUE_PARTITION_BLOOM_FILTER_BITS_PER_KEY, 10),
   KEY_VALUE_PARTITION_SIZE_BYTES_MAX(Name.KEY_VALUE_PARTITION_SIZE_BYTES_MAX, "512MB"),
+  KEY_VALUE_WORKER_PARTITION_READER_CACHE_SIZE(
+      Name.KEY_VALUE_WORKER_PARTITION_READER_CACHE_SIZE, 256),
   LOGGER_TYPE(Name.LOGGER_TYPE, "Console"),
   LOGS_DIR(Name.LOGS_DIR, String.format("${%s}/logs", Name.WORK_DIR)),
   METRICS_CONF_FILE(Name.METRICS_CONF_FILE,
@@ -63,6 +68,10 @@ public enum PropertyKey {
   UNDERFS_HDFS_PREFIXES(Name.UNDERFS_HDFS_PREFIXES, "hdfs://,glusterfs:///"),
   UNDERFS_OBJECT_STORE_MOUNT_SHARED_PUBLICLY(Name.UNDERFS_OBJECT_STORE_MOUNT_SHARED_PUBLICLY,
       false),
+  UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX(Name.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX, 4),
+  UNDERFS_OBJECT_STORE_READ_AHEAD_MEMORY_MAX(Name.UNDERFS_OBJECT_STORE_READ_AHEAD_MEMORY_MAX,
+      "256MB"),
+  UNDERFS_OBJECT_STORE_READ_CHUNK_SIZE(Name.UNDERFS_OBJECT_STORE_READ_CHUNK_SIZE, "8MB"),
   UNDERFS_OSS_CONNECT_MAX(Name.UNDERFS_OSS_CONNECT_MAX, 1024),
   UNDERFS_OSS_CONNECT_TIMEOUT(Name.UNDERFS_OSS_CONNECT_TIMEOUT, 50000),
   UNDERFS_OSS_CONNECT_TTL(Name.UNDERFS_OSS_CONNECT_TTL, -1),
@@ -84,6 +93,10 @@ public enum PropertyKey {
   UNDERFS_S3A_SERVER_SIDE_ENCRYPTION_ENABLED(Name.UNDERFS_S3A_SERVER_SIDE_ENCRYPTION_ENABLED,
       false),
   UNDERFS_S3A_SOCKET_TIMEOUT_MS(Name.UNDERFS_S3A_SOCKET_TIMEOUT_MS, 50000),
+  UNDERFS_S3A_STREAMING_UPLOAD_BUFFERS_MAX(Name.UNDERFS_S3A_STREAMING_UPLOAD_BUFFERS_MAX, 4),
+  UNDERFS_S3A_STREAMING_UPLOAD_ENABLED(Name.UNDERFS_S3A_STREAMING_UPLOAD_ENABLED, false),
+  UNDERFS_S3A_STREAMING_UPLOAD_PARTITION_SIZE(Name.UNDERFS_S3A_STREAMING_UPLOAD_PARTITION_SIZE,
+      "64MB"),
 
   //
   // UFS access control related properties
@@ -115,14 +128,22 @@ public enum PropertyKey {
   MASTER_BIND_HOST(Name.MASTER_BIND_HOST, "0.0.0.0"),
   MASTER_FILE_ASYNC_PERSIST_HANDLER(Name.MASTER_FILE_ASYNC_PERSIST_HANDLER,
       "alluxio.master.file.async.DefaultAsyncPersistHandler"),
+  MASTER_FILE_DELETE_BACKGROUND_ENABLED(Name.MASTER_FILE_DELETE_BACKGROUND_ENABLED, false),
+  MASTER_FILE_DELETE_BACKGROUND_THREADS(Name.MASTER_FILE_DELETE_BACKGROUND_THREADS, 4),
+  MASTER_FILE_DELETE_BATCH_SIZE(Name.MASTER_FILE_DELETE_BATCH_SIZE, 1000),
   MASTER_FORMAT_FILE_PREFIX(Name.MASTER_FORMAT_FILE_PREFIX, "_format_"),
   MASTER_HEARTBEAT_INTERVAL_MS(Name.MASTER_HEARTBEAT_INTERVAL_MS, 1000),
   MASTER_HOSTNAME(Name.MASTER_HOSTNAME, null),
+  MASTER_INODE_TREE_OPTIMISTIC_READ_ENABLED(Name.MASTER_INODE_TREE_OPTIMISTIC_READ_ENABLED, true),
+  MASTER_JOURNAL_CHECKPOINT_COMPRESSION_ENABLED(
+      Name.MASTER_JOURNAL_CHECKPOINT_COMPRESSION_ENABLED, true),
+  MASTER_JOURNAL_CHECKPOINT_PERIOD_ENTRIES(Name.MASTER_JOURNAL_CHECKPOINT_PERIOD_ENTRIES, 2000000),
   MASTER_JOURNAL_FLUSH_BATCH_TIME_MS(Name.MASTER_JOURNAL_FLUSH_BATCH_TIME_MS, 5),
   MASTER_JOURNAL_FOLDER(Name.MASTER_JOURNAL_FOLDER, String.format("${%s}/journal", Name.WORK_DIR)),
   MASTER_JOURNAL_FORMATTER_CLASS(Name.MASTER_JOURNAL_FORMATTER_CLASS,
       "alluxio.master.journal.ProtoBufJournalFormatter"),
   MASTER_JOURNAL_LOG_SIZE_BYTES_MAX(Name.MASTER_JOURNAL_LOG_SIZE_BYTES_MAX, "10MB"),
+  MASTER_JOURNAL_QUEUE_CAPACITY(Name.MASTER_JOURNAL_QUEUE_CAPACITY, 65536),
   MASTER_JOURNAL_TAILER_SHUTDOWN_QUIET_WAIT_TIME_MS(
       Name.MASTER_JOURNAL_TAILER_SHUTDOWN_QUIET_WAIT_TIME_MS, 5000),
   MASTER_JOURNAL_TAILER_SLEEP_TIME_MS(Name.MASTER_JOURNAL_TAILER_SLEEP_TIME_MS, 1000),
@@ -133,6 +154,7 @@ public enum PropertyKey {
   MASTER_LINEAGE_RECOMPUTE_INTERVAL_MS(Name.MASTER_LINEAGE_RECOMPUTE_INTERVAL_MS, 300000),
   MASTER_LINEAGE_RECOMPUTE_LOG_PATH(Name.MASTER_LINEAGE_RECOMPUTE_LOG_PATH,
       String.format("${%s}/recompute.log", Name.LOGS_DIR)),
+  MASTER_METADATA_LOAD_THREADS(Name.MASTER_METADATA_LOAD_THREADS, 16),
   MASTER_PRINCIPAL(Name.MASTER_PRINCIPAL, null),
   MASTER_RETRY(Name.MASTER_RETRY, 29),
   MASTER_RPC_PORT(Name.MASTER_RPC_PORT, 19998),
@@ -157,7 +179,10 @@ public enum PropertyKey {
       "alluxio.worker.block.allocator.MaxFreeAllocator"),
   WORKER_BIND_HOST(Name.WORKER_BIND_HOST, "0.0.0.0"),
   WORKER_BLOCK_HEARTBEAT_INTERVAL_MS(Name.WORKER_BLOCK_HEARTBEAT_INTERVAL_MS, 1000),
+  WORKER_BLOCK_HEARTBEAT_REPORT_COMPRESSION_ENABLED(
+      Name.WORKER_BLOCK_HEARTBEAT_REPORT_COMPRESSION_ENABLED, false),
   WORKER_BLOCK_HEARTBEAT_TIMEOUT_MS(Name.WORKER_BLOCK_HEARTBEAT_TIMEOUT_MS, 60000),
+  WORKER_BLOCK_LOAD_THREADS(Name.WORKER_BLOCK_LOAD_THREADS, 8),
   WORKER_BLOCK_THREADS_MAX(Name.WORKER_BLOCK_THREADS_MAX, 2048),
   WORKER_BLOCK_THREADS_MIN(Name.WORKER_BLOCK_THREADS_MIN, 256),
   WORKER_DATA_BIND_HOST(Name.WORKER_DATA_BIND_HOST, "0.0.0.0"),
@@ -170,6 +195,8 @@ public enum PropertyKey {
   WORKER_EVICTOR_CLASS(Name.WORKER_EVICTOR_CLASS, "alluxio.worker.block.evictor.LRUEvictor"),
   WORKER_EVICTOR_LRFU_ATTENUATION_FACTOR(Name.WORKER_EVICTOR_LRFU_ATTENUATION_FACTOR, 2.0),
   WORKER_EVICTOR_LRFU_STEP_FACTOR(Name.WORKER_EVICTOR_LRFU_STEP_FACTOR, 0.25),
+  WORKER_FILE_PERSIST_PARTS_TIMEOUT_MS(Name.WORKER_FILE_PERSIST_PARTS_TIMEOUT_MS,
+      10 * Constants.MINUTE_MS),
   WORKER_FILE_PERSIST_POOL_SIZE(Name.WORKER_FILE_PERSIST_POOL_SIZE, 64),
   WORKER_FILE_PERSIST_RATE_LIMIT(Name.WORKER_FILE_PERSIST_RATE_LIMIT, "2GB"),
   WORKER_FILE_PERSIST_RATE_LIMIT_ENABLED(Name.WORKER_FILE_PERSIST_RATE_LIMIT_ENABLED, false),
@@ -188,6 +215,8 @@ public enum PropertyKey {
   WORKER_NETWORK_NETTY_WATERMARK_HIGH(Name.WORKER_NETWORK_NETTY_WATERMARK_HIGH, "32KB"),
   WORKER_NETWORK_NETTY_WATERMARK_LOW(Name.WORKER_NETWORK_NETTY_WATERMARK_LOW, "8KB"),
   WORKER_NETWORK_NETTY_WORKER_THREADS(Name.WORKER_NETWORK_NETTY_WORKER_THREADS, 0),
+  WORKER_NETWORK_NETTY_WRITER_SPACE_RESERVE_BYTES(
+      Name.WORKER_NETWORK_NETTY_WRITER_SPACE_RESERVE_BYTES, "4MB"),
   WORKER_PRINCIPAL(Name.WORKER_PRINCIPAL, null),
   WORKER_RPC_PORT(Name.WORKER_RPC_PORT, 29998),
   WORKER_SESSION_TIMEOUT_MS(Name.WORKER_SESSION_TIMEOUT_MS, 60000),
@@ -210,6 +239,11 @@ public enum PropertyKey {
   WORKER_TIERED_STORE_RESERVER_ENABLED(Name.WORKER_TIERED_STORE_RESERVER_ENABLED, false),
   WORKER_TIERED_STORE_RESERVER_INTERVAL_MS(Name.WORKER_TIERED_STORE_RESERVER_INTERVAL_MS, 1000),
   WORKER_TIERED_STORE_RETRY(Name.WORKER_TIERED_STORE_RETRY, 3),
+  WORKER_UFS_READ_CACHE_CHUNK_SIZE(Name.WORKER_UFS_READ_CACHE_CHUNK_SIZE, "4MB"),
+  WORKER_UFS_READ_CACHE_ENABLED(Name.WORKER_UFS_READ_CACHE_ENABLED, false),
+  WORKER_UFS_READ_CACHE_READ_TIMEOUT_MS(Name.WORKER_UFS_READ_CACHE_READ_TIMEOUT_MS, 60000),
+  WORKER_UFS_READ_CACHE_SIZE(Name.WORKER_UFS_READ_CACHE_SIZE, "256MB"),
+  WORKER_UFS_READ_CACHE_THREADS(Name.WORKER_UFS_READ_CACHE_THREADS, 16),
   WORKER_WEB_BIND_HOST(Name.WORKER_WEB_BIND_HOST, "0.0.0.0"),
   WORKER_WEB_HOSTNAME(Name.WORKER_WEB_HOSTNAME, null),
   WORKER_WEB_PORT(Name.WORKER_WEB_PORT, 30000),
@@ -217,7 +251,10 @@ public enum PropertyKey {
   //
   // User related properties
   //
+  USER_BLOCK_LOAD_CONCURRENCY(Name.USER_BLOCK_LOAD_CONCURRENCY, 4),
+  USER_BLOCK_LOAD_TIMEOUT_MS(Name.USER_BLOCK_LOAD_TIMEOUT_MS, 10 * Constants.MINUTE_MS),
   USER_BLOCK_MASTER_CLIENT_THREADS(Name.USER_BLOCK_MASTER_CLIENT_THREADS, 10),
+  USER_BLOCK_REMOTE_READ_AHEAD_BYTES(Name.USER_BLOCK_REMOTE_READ_AHEAD_BYTES, "4MB"),
   USER_BLOCK_REMOTE_READ_BUFFER_SIZE_BYTES(Name.USER_BLOCK_REMOTE_READ_BUFFER_SIZE_BYTES, "8MB"),
   USER_BLOCK_REMOTE_READER_CLASS(Name.USER_BLOCK_REMOTE_READER_CLASS,
       "alluxio.client.netty.NettyRemoteBlockReader"),
@@ -232,6 +269,7 @@ public enum PropertyKey {
   USER_FAILED_SPACE_REQUEST_LIMITS(Name.USER_FAILED_SPACE_REQUEST_LIMITS, 3),
   USER_FILE_BUFFER_BYTES(Name.USER_FILE_BUFFER_BYTES, "1MB"),
   USER_FILE_CACHE_PARTIALLY_READ_BLOCK(Name.USER_FILE_CACHE_PARTIALLY_READ_BLOCK, true),
+  USER_FILE_LIST_STATUS_BATCH_SIZE(Name.USER_FILE_LIST_STATUS_BATCH_SIZE, 1000),
   USER_FILE_MASTER_CLIENT_THREADS(Name.USER_FILE_MASTER_CLIENT_THREADS, 10),
   USER_FILE_READ_TYPE_DEFAULT(Name.USER_FILE_READ_TYPE_DEFAULT, "CACHE_PROMOTE"),
   USER_FILE_SEEK_BUFFER_SIZE_BYTES(Name.USER_FILE_SEEK_BUFFER_SIZE_BYTES, "1MB"),
@@ -247,8 +285,12 @@ public enum PropertyKey {
   USER_LINEAGE_ENABLED(Name.USER_LINEAGE_ENABLED, false),
   USER_LINEAGE_MASTER_CLIENT_THREADS(Name.USER_LINEAGE_MASTER_CLIENT_THREADS, 10),
   USER_NETWORK_NETTY_CHANNEL(Name.USER_NETWORK_NETTY_CHANNEL, null),
+  USER_NETWORK_NETTY_READER_CHUNK_SIZE_BYTES(Name.USER_NETWORK_NETTY_READER_CHUNK_SIZE_BYTES,
+      "1MB"),
+  USER_NETWORK_NETTY_READER_WINDOW_SIZE(Name.USER_NETWORK_NETTY_READER_WINDOW_SIZE, 4),
   USER_NETWORK_NETTY_TIMEOUT_MS(Name.USER_NETWORK_NETTY_TIMEOUT_MS, 30000),
   USER_NETWORK_NETTY_WORKER_THREADS(Name.USER_NETWORK_NETTY_WORKER_THREADS, 0),
+  USER_NETWORK_NETTY_WRITER_WINDOW_SIZE(Name.USER_NETWORK_NETTY_WRITER_WINDOW_SIZE, 4),
   USER_NETWORK_NETTY_CHANNEL_POOL_SIZE_MAX(Name.USER_NETWORK_NETTY_CHANNEL_POOL_SIZE_MAX, 1024),
   USER_NETWORK_NETTY_CHANNEL_POOL_GC_THRESHOLD_MS(
       Name.USER_NETWORK_NETTY_CHANNEL_POOL_GC_THRESHOLD_MS, 300 * Constants.SECOND_MS),
@@ -270,6 +312,8 @@ public enum PropertyKey {
   FUSE_CACHED_PATHS_MAX(Name.FUSE_CACHED_PATHS_MAX, 500),
   /** Have the fuse process log every FS request. */
   FUSE_DEBUG_ENABLED(Name.FUSE_DEBUG_ENABLED, false),
+  /** Have reads and writes bypass the kernel page cache and read-ahead. */
+  FUSE_DIRECT_IO_ENABLED(Name.FUSE_DIRECT_IO_ENABLED, false),
 
   /** FUSE file system name. */
   FUSE_FS_NAME(Name.FUSE_FS_NAME, "alluxio-fuse"),
@@ -279,7 +323,14 @@ public enum PropertyKey {
    * Capped by the kernel to 128KB max (as of Linux 3.16.0),.
    */
   FUSE_MAXWRITE_BYTES(Name.FUSE_MAXWRITE_BYTES, 131072),
+  /**
+   * Passed to fuse-mount when direct I/O is disabled, maximum number of bytes the kernel reads
+   * ahead of sequential reads.
+   */
+  FUSE_MAXREADAHEAD_BYTES(Name.FUSE_MAXREADAHEAD_BYTES, 131072),
   FUSE_MOUNT_DEFAULT(Name.FUSE_MOUNT_DEFAULT, "/mnt/alluxio"),
+  /** Maximum number of Alluxio streams reading an open file concurrently. */
+  FUSE_READ_STREAMS_MAX(Name.FUSE_READ_STREAMS_MAX, 4),
 
   //
   // Security related properties
@@ -356,9 +407,15 @@ public enum PropertyKey {
         "alluxio.integration.worker.resource.mem";
     public static final String INTEGRATION_YARN_WORKERS_PER_HOST_MAX =
         "alluxio.integration.yarn.workers.per.host.max";
+    public static final String KEY_VALUE_CLIENT_MULTI_GET_BATCH_SIZE =
+        "alluxio.keyvalue.client.multiget.batch.size";
     public static final String KEY_VALUE_ENABLED = "alluxio.keyvalue.enabled";
+    public static final String KEY_VALUE_PARTITION_BLOOM_FILTER_BITS_PER_KEY =
+        "alluxio.keyvalue.partition.bloom.filter.bits.per.key";
     public static final String KEY_VALUE_PARTITION_SIZE_BYTES_MAX =
         "alluxio.keyvalue.partition.size.bytes.max";
+    public static final String KEY_VALUE_WORKER_PARTITION_READER_CACHE_SIZE =
+        "alluxio.keyvalue.worker.partition.reader.cache.size";
     public static final String LOGGER_TYPE = "alluxio.logger.type";
     public static final String LOGS_DIR = "alluxio.logs.dir";
     public static final String METRICS_CONF_FILE = "alluxio.metrics.conf.file";
@@ -398,6 +455,12 @@ public enum PropertyKey {
     public static final String UNDERFS_HDFS_PREFIXES = "alluxio.underfs.hdfs.prefixes";
     public static final String UNDERFS_OBJECT_STORE_MOUNT_SHARED_PUBLICLY =
         "alluxio.underfs.object.store.mount.shared.publicly";
+    public static final String UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX =
+        "alluxio.underfs.object.store.read.ahead.chunks.max";
+    public static final String UNDERFS_OBJECT_STORE_READ_AHEAD_MEMORY_MAX =
+        "alluxio.underfs.object.store.read.ahead.memory.max";
+    public static final String UNDERFS_OBJECT_STORE_READ_CHUNK_SIZE =
+        "alluxio.underfs.object.store.read.chunk.size";
     public static final String UNDERFS_OSS_CONNECT_MAX = "alluxio.underfs.oss.connection.max";
     public static final String UNDERFS_OSS_CONNECT_TIMEOUT =
         "alluxio.underfs.oss.connection.timeout.ms";
@@ -412,6 +475,12 @@ public enum PropertyKey {
         "alluxio.underfs.s3a.server.side.encryption.enabled";
     public static final String UNDERFS_S3A_SOCKET_TIMEOUT_MS =
         "alluxio.underfs.s3a.socket.timeout.ms";
+    public static final String UNDERFS_S3A_STREAMING_UPLOAD_BUFFERS_MAX =
+        "alluxio.underfs.s3a.streaming.upload.buffers.max";
+    public static final String UNDERFS_S3A_STREAMING_UPLOAD_ENABLED =
+        "alluxio.underfs.s3a.streaming.upload.enabled";
+    public static final String UNDERFS_S3A_STREAMING_UPLOAD_PARTITION_SIZE =
+        "alluxio.underfs.s3a.streaming.upload.partition.size";
     public static final String UNDERFS_S3_ADMIN_THREADS_MAX =
         "alluxio.underfs.s3.admin.threads.max";
     public static final String UNDERFS_S3_DISABLE_DNS_BUCKETS =
@@ -459,10 +528,22 @@ public enum PropertyKey {
     public static final String MASTER_BIND_HOST = "alluxio.master.bind.host";
     public static final String MASTER_FILE_ASYNC_PERSIST_HANDLER =
         "alluxio.master.file.async.persist.handler";
+    public static final String MASTER_FILE_DELETE_BACKGROUND_ENABLED =
+        "alluxio.master.file.delete.background.enabled";
+    public static final String MASTER_FILE_DELETE_BACKGROUND_THREADS =
+        "alluxio.master.file.delete.background.threads";
+    public static final String MASTER_FILE_DELETE_BATCH_SIZE =
+        "alluxio.master.file.delete.batch.size";
     public static final String MASTER_FORMAT_FILE_PREFIX = "alluxio.master.format.file_prefix";
     public static final String MASTER_HEARTBEAT_INTERVAL_MS =
         "alluxio.master.heartbeat.interval.ms";
     public static final String MASTER_HOSTNAME = "alluxio.master.hostname";
+    public static final String MASTER_INODE_TREE_OPTIMISTIC_READ_ENABLED =
+        "alluxio.master.inode.tree.optimistic.read.enabled";
+    public static final String MASTER_JOURNAL_CHECKPOINT_COMPRESSION_ENABLED =
+        "alluxio.master.journal.checkpoint.compression.enabled";
+    public static final String MASTER_JOURNAL_CHECKPOINT_PERIOD_ENTRIES =
+        "alluxio.master.journal.checkpoint.period.entries";
     public static final String MASTER_JOURNAL_FLUSH_BATCH_TIME_MS =
         "alluxio.master.journal.flush.batch.time.ms";
     public static final String MASTER_JOURNAL_FOLDER = "alluxio.master.journal.folder";
@@ -470,6 +551,8 @@ public enum PropertyKey {
         "alluxio.master.journal.formatter.class";
     public static final String MASTER_JOURNAL_LOG_SIZE_BYTES_MAX =
         "alluxio.master.journal.log.size.bytes.max";
+    public static final String MASTER_JOURNAL_QUEUE_CAPACITY =
+        "alluxio.master.journal.queue.capacity";
     public static final String MASTER_JOURNAL_TAILER_SHUTDOWN_QUIET_WAIT_TIME_MS =
         "alluxio.master.journal.tailer.shutdown.quiet.wait.time.ms";
     public static final String MASTER_JOURNAL_TAILER_SLEEP_TIME_MS =
@@ -483,6 +566,8 @@ public enum PropertyKey {
         "alluxio.master.lineage.recompute.interval.ms";
     public static final String MASTER_LINEAGE_RECOMPUTE_LOG_PATH =
         "alluxio.master.lineage.recompute.log.path";
+    public static final String MASTER_METADATA_LOAD_THREADS =
+        "alluxio.master.metadata.load.threads";
     public static final String MASTER_PRINCIPAL = "alluxio.master.principal";
     public static final String MASTER_RETRY = "alluxio.master.retry";
     public static final String MASTER_RPC_PORT = "alluxio.master.port";
@@ -513,8 +598,11 @@ public enum PropertyKey {
     public static final String WORKER_BIND_HOST = "alluxio.worker.bind.host";
     public static final String WORKER_BLOCK_HEARTBEAT_INTERVAL_MS =
         "alluxio.worker.block.heartbeat.interval.ms";
+    public static final String WORKER_BLOCK_HEARTBEAT_REPORT_COMPRESSION_ENABLED =
+        "alluxio.worker.block.heartbeat.report.compression.enabled";
     public static final String WORKER_BLOCK_HEARTBEAT_TIMEOUT_MS =
         "alluxio.worker.block.heartbeat.timeout.ms";
+    public static final String WORKER_BLOCK_LOAD_THREADS = "alluxio.worker.block.load.threads";
     public static final String WORKER_BLOCK_THREADS_MAX = "alluxio.worker.block.threads.max";
     public static final String WORKER_BLOCK_THREADS_MIN = "alluxio.worker.block.threads.min";
     public static final String WORKER_DATA_BIND_HOST = "alluxio.worker.data.bind.host";
@@ -531,6 +619,8 @@ public enum PropertyKey {
         "alluxio.worker.evictor.lrfu.step.factor";
     public static final String WORKER_FILESYSTEM_HEARTBEAT_INTERVAL_MS =
         "alluxio.worker.filesystem.heartbeat.interval.ms";
+    public static final String WORKER_FILE_PERSIST_PARTS_TIMEOUT_MS =
+        "alluxio.worker.file.persist.parts.timeout.ms";
     public static final String WORKER_FILE_PERSIST_POOL_SIZE =
         "alluxio.worker.file.persist.pool.size";
     public static final String WORKER_FILE_PERSIST_RATE_LIMIT =
@@ -562,6 +652,8 @@ public enum PropertyKey {
         "alluxio.worker.network.netty.watermark.low";
     public static final String WORKER_NETWORK_NETTY_WORKER_THREADS =
         "alluxio.worker.network.netty.worker.threads";
+    public static final String WORKER_NETWORK_NETTY_WRITER_SPACE_RESERVE_BYTES =
+        "alluxio.worker.network.netty.writer.space.reserve.bytes";
     public static final String WORKER_PRINCIPAL = "alluxio.worker.principal";
     public static final String WORKER_RPC_PORT = "alluxio.worker.port";
     public static final String WORKER_SESSION_TIMEOUT_MS = "alluxio.worker.session.timeout.ms";
@@ -599,6 +691,15 @@ public enum PropertyKey {
     public static final String WORKER_TIERED_STORE_RESERVER_INTERVAL_MS =
         "alluxio.worker.tieredstore.reserver.interval.ms";
     public static final String WORKER_TIERED_STORE_RETRY = "alluxio.worker.tieredstore.retry";
+    public static final String WORKER_UFS_READ_CACHE_CHUNK_SIZE =
+        "alluxio.worker.ufs.read.cache.chunk.size";
+    public static final String WORKER_UFS_READ_CACHE_ENABLED =
+        "alluxio.worker.ufs.read.cache.enabled";
+    public static final String WORKER_UFS_READ_CACHE_READ_TIMEOUT_MS =
+        "alluxio.worker.ufs.read.cache.read.timeout.ms";
+    public static final String WORKER_UFS_READ_CACHE_SIZE = "alluxio.worker.ufs.read.cache.size";
+    public static final String WORKER_UFS_READ_CACHE_THREADS =
+        "alluxio.worker.ufs.read.cache.threads";
     public static final String WORKER_WEB_BIND_HOST = "alluxio.worker.web.bind.host";
     public static final String WORKER_WEB_HOSTNAME = "alluxio.worker.web.hostname";
     public static final String WORKER_WEB_PORT = "alluxio.worker.web.port";
@@ -606,10 +707,15 @@ public enum PropertyKey {
     //
     // User related properties
     //
+    public static final String USER_BLOCK_LOAD_CONCURRENCY =
+        "alluxio.user.block.load.concurrency";
+    public static final String USER_BLOCK_LOAD_TIMEOUT_MS = "alluxio.user.block.load.timeout.ms";
     public static final String USER_BLOCK_MASTER_CLIENT_THREADS =
         "alluxio.user.block.master.client.threads";
     public static final String USER_BLOCK_REMOTE_READER_CLASS =
         "alluxio.user.block.remote.reader.class";
+    public static final String USER_BLOCK_REMOTE_READ_AHEAD_BYTES =
+        "alluxio.user.block.remote.read.ahead.bytes";
     public static final String USER_BLOCK_REMOTE_READ_BUFFER_SIZE_BYTES =
         "alluxio.user.block.remote.read.buffer.size.bytes";
     public static final String USER_BLOCK_REMOTE_WRITER_CLASS =
@@ -627,6 +733,8 @@ public enum PropertyKey {
     public static final String USER_FILE_BUFFER_BYTES = "alluxio.user.file.buffer.bytes";
     public static final String USER_FILE_CACHE_PARTIALLY_READ_BLOCK =
         "alluxio.user.file.cache.partially.read.block";
+    public static final String USER_FILE_LIST_STATUS_BATCH_SIZE =
+        "alluxio.user.file.list.status.batch.size";
     public static final String USER_FILE_MASTER_CLIENT_THREADS =
         "alluxio.user.file.master.client.threads";
     public static final String USER_FILE_READ_TYPE_DEFAULT = "alluxio.user.file.readtype.default";
@@ -648,10 +756,16 @@ public enum PropertyKey {
     public static final String USER_LINEAGE_MASTER_CLIENT_THREADS =
         "alluxio.user.lineage.master.client.threads";
     public static final String USER_NETWORK_NETTY_CHANNEL = "alluxio.user.network.netty.channel";
+    public static final String USER_NETWORK_NETTY_READER_CHUNK_SIZE_BYTES =
+        "alluxio.user.network.netty.reader.chunk.size.bytes";
+    public static final String USER_NETWORK_NETTY_READER_WINDOW_SIZE =
+        "alluxio.user.network.netty.reader.window.size";
     public static final String USER_NETWORK_NETTY_TIMEOUT_MS =
         "alluxio.user.network.netty.timeout.ms";
     public static final String USER_NETWORK_NETTY_WORKER_THREADS =
         "alluxio.user.network.netty.worker.threads";
+    public static final String USER_NETWORK_NETTY_WRITER_WINDOW_SIZE =
+        "alluxio.user.network.netty.writer.window.size";
     public static final String USER_NETWORK_NETTY_CHANNEL_POOL_SIZE_MAX =
         "alluxio.user.network.netty.channel.pool.size.max";
     public static final String USER_NETWORK_NETTY_CHANNEL_POOL_GC_THRESHOLD_MS =
@@ -673,10 +787,13 @@ public enum PropertyKey {
     //
     public static final String FUSE_CACHED_PATHS_MAX = "alluxio.fuse.cached.paths.max";
     public static final String FUSE_DEBUG_ENABLED = "alluxio.fuse.debug.enabled";
+    public static final String FUSE_DIRECT_IO_ENABLED = "alluxio.fuse.direct.io.enabled";
     public static final String FUSE_FS_NAME = "alluxio.fuse.fs.name";
     public static final String FUSE_FS_ROOT = "alluxio.fuse.fs.root";
+    public static final String FUSE_MAXREADAHEAD_BYTES = "alluxio.fuse.maxreadahead.bytes";
     public static final String FUSE_MAXWRITE_BYTES = "alluxio.fuse.maxwrite.bytes";
     public static final String FUSE_MOUNT_DEFAULT = "alluxio.fuse.mount.default";
+    public static final String FUSE_READ_STREAMS_MAX = "alluxio.fuse.read.streams.max";
 
     //
     // Security related properties
@@ -0,0 +1,354 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A concurrent map from primitive longs to objects. The map is split into segments by the hash of
+ * the keys, and every segment is an open addressing hash table with linear probing. Updates lock
+ * the monitor of their segment, while lookups do not lock at all. An entry takes 12 bytes of a
+ * segment table with compressed references (about 16 bytes at the average load), instead of the
+ * boxed {@link Long} and the node of a {@link java.util.concurrent.ConcurrentHashMap}, which take
+ * more than 50 bytes.
+ *
+ * Null values are not supported.
+ *
+ * @param <V> the type of the values
+ */
+@ThreadSafe
+public final class ConcurrentLongHashMap<V> {
+  private static final float LOAD_FACTOR = 0.75f;
+  /** The value of the removed slots. */
+  private static final Object REMOVED = new Object();
+
+  private final Segment<V>[] mSegments;
+  private final int mSegmentShift;
+
+  /**
+   * Creates a new instance of {@link ConcurrentLongHashMap}.
+   *
+   * @param initialCapacity the number of entries to size the map for
+   * @param concurrencyLevel the number of segments, rounded up to a power of two
+   */
+  @SuppressWarnings("unchecked")
+  public ConcurrentLongHashMap(int initialCapacity, int concurrencyLevel) {
+    Preconditions.checkArgument(initialCapacity >= 0, "Negative capacity: %s", initialCapacity);
+    Preconditions.checkArgument(concurrencyLevel > 0 && concurrencyLevel <= 1 << 16,
+        "Invalid concurrency level: %s", concurrencyLevel);
+    int numSegments = Integer.highestOneBit(concurrencyLevel - 1) << 1;
+    numSegments = Math.max(numSegments, 1);
+    mSegmentShift = 32 - Integer.numberOfTrailingZeros(numSegments);
+    mSegments = new Segment[numSegments];
+    for (int i = 0; i < numSegments; i++) {
+      mSegments[i] = new Segment<>(initialCapacity / numSegments);
+    }
+  }
+
+  /**
+   * @param key the key to look up
+   * @return the value of the key, or null if the map does not contain the key
+   */
+  public V get(long key) {
+    int hash = LongHashSet.hash(key);
+    return segmentFor(hash).get(key, hash);
+  }
+
+  /**
+   * @param key the key to look up
+   * @return true if the map contains the key
+   */
+  public boolean containsKey(long key) {
+    return get(key) != null;
+  }
+
+  /**
+   * Maps a key to a value.
+   *
+   * @param key the key
+   * @param value the value
+   * @return the previous value of the key, or null if the map did not contain the key
+   */
+  public V put(long key, V value) {
+    Preconditions.checkNotNull(value);
+    int hash = LongHashSet.hash(key);
+    return segmentFor(hash).put(key, hash, value, false);
+  }
+
+  /**
+   * Maps a key to a value if the map does not contain the key yet.
+   *
+   * @param key the key
+   * @param value the value
+   * @return the current value of the key, or null if the value was added
+   */
+  public V putIfAbsent(long key, V value) {
+    Preconditions.checkNotNull(value);
+    int hash = LongHashSet.hash(key);
+    return segmentFor(hash).put(key, hash, value, true);
+  }
+
+  /**
+   * Removes a key from the map.
+   *
+   * @param key the key to remove
+   * @return the removed value, or null if the map did not contain the key
+   */
+  public V remove(long key) {
+    int hash = LongHashSet.hash(key);
+    return segmentFor(hash).remove(key, hash);
+  }
+
+  /**
+   * @return the number of entries of the map
+   */
+  public int size() {
+    long size = 0;
+    for (Segment<V> segment : mSegments) {
+      size += segment.size();
+    }
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Removes all the entries of the map.
+   */
+  public void clear() {
+    for (Segment<V> segment : mSegments) {
+      segment.clear();
+    }
+  }
+
+  /**
+   * Returns the values of the map. The values of every segment are copied when the iteration
+   * reaches the segment, so the iteration reflects the updates of the segments which are not
+   * reached yet, and only needs the memory of a single segment.
+   *
+   * @return the values of the map
+   */
+  public Iterable<V> values() {
+    return new Iterable<V>() {
+      @Override
+      public Iterator<V> iterator() {
+        return new ValueIterator();
+      }
+    };
+  }
+
+  /**
+   * @return the estimated heap size of the segment tables in bytes, excluding the values
+   */
+  public long getSizeBytes() {
+    long bytes = 0;
+    for (Segment<V> segment : mSegments) {
+      bytes += segment.getSizeBytes();
+    }
+    return bytes;
+  }
+
+  private Segment<V> segmentFor(int hash) {
+    // The high bits pick the segment, and the low bits pick the slot in the segment.
+    return mSegments.length == 1 ? mSegments[0] : mSegments[hash >>> mSegmentShift];
+  }
+
+  /**
+   * Iterates over the values of the map, one segment snapshot at a time.
+   */
+  private final class ValueIterator implements Iterator<V> {
+    private int mNextSegment = 0;
+    private Iterator<V> mCurrent = Collections.emptyIterator();
+
+    ValueIterator() {}
+
+    @Override
+    public boolean hasNext() {
+      while (!mCurrent.hasNext() && mNextSegment < mSegments.length) {
+        mCurrent = mSegments[mNextSegment++].snapshotValues().iterator();
+      }
+      return mCurrent.hasNext();
+    }
+
+    @Override
+    public V next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return mCurrent.next();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("remove is not supported by ConcurrentLongHashMap");
+    }
+  }
+
+  /**
+   * The table of a segment. The key of a slot is written before its value, and never changes
+   * once the value is set, so a reader which sees the value of a slot also sees its key.
+   */
+  private static final class Table {
+    private final long[] mKeys;
+    private final AtomicReferenceArray<Object> mValues;
+
+    Table(int capacity) {
+      mKeys = new long[capacity];
+      mValues = new AtomicReferenceArray<>(capacity);
+    }
+  }
+
+  /**
+   * A segment of the map. A slot is free if its value is null, and removed if its value is
+   * {@link #REMOVED}. Removed slots keep their key, so that the entries never move within a table
+   * and lookups can probe the table without locking. The removed slots are dropped when the table
+   * is rebuilt.
+   *
+   * @param <V> the type of the values
+   */
+  @ThreadSafe
+  private static final class Segment<V> {
+    /** Only replaced under the monitor, and read without locking by lookups. */
+    private volatile Table mTable;
+    @GuardedBy("this")
+    private int mSize;
+    @GuardedBy("this")
+    private int mRemoved;
+
+    Segment(int expectedSize) {
+      mTable = new Table(LongHashSet.tableCapacity(expectedSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key, int hash) {
+      Table table = mTable;
+      int mask = table.mKeys.length - 1;
+      for (int i = hash & mask; table.mValues.get(i) != null; i = (i + 1) & mask) {
+        if (table.mKeys[i] == key) {
+          // Reads the value again, since the slot may have been updated after the check above.
+          Object value = table.mValues.get(i);
+          return value == REMOVED ? null : (V) value;
+        }
+      }
+      return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized V put(long key, int hash, V value, boolean onlyIfAbsent) {
+      Table table = mTable;
+      int mask = table.mKeys.length - 1;
+      int i = hash & mask;
+      for (Object current; (current = table.mValues.get(i)) != null; i = (i + 1) & mask) {
+        if (table.mKeys[i] == key) {
+          if (current == REMOVED) {
+            table.mValues.set(i, value);
+            mRemoved--;
+            mSize++;
+            return null;
+          }
+          if (!onlyIfAbsent) {
+            table.mValues.set(i, value);
+          }
+          return (V) current;
+        }
+      }
+      table.mKeys[i] = key;
+      table.mValues.set(i, value);
+      if (++mSize + mRemoved > table.mKeys.length * LOAD_FACTOR) {
+        // Doubles the table if the live entries take more than half of the load threshold,
+        // otherwise only drops the removed slots.
+        rebuild(mSize > table.mKeys.length * LOAD_FACTOR / 2 ? table.mKeys.length << 1
+            : table.mKeys.length);
+      }
+      return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized V remove(long key, int hash) {
+      Table table = mTable;
+      int mask = table.mKeys.length - 1;
+      for (int i = hash & mask; table.mValues.get(i) != null; i = (i + 1) & mask) {
+        if (table.mKeys[i] == key) {
+          Object current = table.mValues.get(i);
+          if (current == REMOVED) {
+            return null;
+          }
+          table.mValues.set(i, REMOVED);
+          mSize--;
+          mRemoved++;
+          return (V) current;
+        }
+      }
+      return null;
+    }
+
+    synchronized int size() {
+      return mSize;
+    }
+
+    synchronized void clear() {
+      mTable = new Table(mTable.mKeys.length);
+      mSize = 0;
+      mRemoved = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized List<V> snapshotValues() {
+      Table table = mTable;
+      List<V> values = new ArrayList<>(mSize);
+      for (int i = 0; i < table.mKeys.length; i++) {
+        Object value = table.mValues.get(i);
+        if (value != null && value != REMOVED) {
+          values.add((V) value);
+        }
+      }
+      return values;
+    }
+
+    synchronized long getSizeBytes() {
+      // The segment, the table and the atomic array objects, and the key and value arrays with
+      // their headers, assuming compressed references.
+      return 24 + 16 + 16 + 2 * 16 + 12L * mTable.mKeys.length;
+    }
+
+    /**
+     * Copies the live entries to a new table, and publishes it to the readers.
+     */
+    @GuardedBy("this")
+    private void rebuild(int capacity) {
+      Table oldTable = mTable;
+      Table newTable = new Table(capacity);
+      int mask = capacity - 1;
+      for (int j = 0; j < oldTable.mKeys.length; j++) {
+        Object value = oldTable.mValues.get(j);
+        if (value != null && value != REMOVED) {
+          int i = LongHashSet.hash(oldTable.mKeys[j]) & mask;
+          while (newTable.mValues.get(i) != null) {
+            i = (i + 1) & mask;
+          }
+          newTable.mKeys[i] = oldTable.mKeys[j];
+          newTable.mValues.lazySet(i, value);
+        }
+      }
+      mRemoved = 0;
+      mTable = newTable;
+    }
+  }
+}
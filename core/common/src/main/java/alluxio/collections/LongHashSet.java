@@ -0,0 +1,310 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import com.google.common.base.Preconditions;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A set of primitive longs, stored in an open addressing hash table with linear probing. Every
+ * element takes 8 bytes of the table (about 11 bytes at the average load), instead of the boxed
+ * {@link Long} and the hash node of a {@link java.util.HashSet}, which take more than 50 bytes.
+ *
+ * The boxed {@link java.util.Set} methods are supported, so the set can be passed where a
+ * {@code Set<Long>} is expected, but the primitive methods should be used on hot paths. The
+ * iterator does not support removal.
+ */
+@NotThreadSafe
+public final class LongHashSet extends AbstractSet<Long> {
+  /** The key of the free slots of the table. The key itself is tracked by a separate flag. */
+  private static final long FREE = 0L;
+  private static final int MIN_CAPACITY = 16;
+  private static final float LOAD_FACTOR = 0.75f;
+
+  private long[] mTable;
+  /** The number of keys in the table, excluding {@link #FREE}. */
+  private int mTableSize;
+  private boolean mContainsFree;
+
+  /**
+   * Creates a new empty instance of {@link LongHashSet}.
+   */
+  public LongHashSet() {
+    this(0);
+  }
+
+  /**
+   * Creates a new empty instance of {@link LongHashSet}, sized to hold the given number of elements
+   * without growing.
+   *
+   * @param expectedSize the expected number of elements
+   */
+  public LongHashSet(int expectedSize) {
+    Preconditions.checkArgument(expectedSize >= 0, "Negative expected size: %s", expectedSize);
+    mTable = new long[tableCapacity(expectedSize)];
+  }
+
+  /**
+   * Creates a new instance of {@link LongHashSet} with the elements of the given collection.
+   *
+   * @param elements the elements to add
+   */
+  public LongHashSet(Collection<Long> elements) {
+    if (elements instanceof LongHashSet) {
+      LongHashSet other = (LongHashSet) elements;
+      mTable = other.mTable.clone();
+      mTableSize = other.mTableSize;
+      mContainsFree = other.mContainsFree;
+      return;
+    }
+    mTable = new long[tableCapacity(elements.size())];
+    for (long element : elements) {
+      add(element);
+    }
+  }
+
+  /**
+   * Mixes the bits of a key, so that keys which only differ in their high bits, like the block ids
+   * of the same sequence number in different containers, spread over the whole table.
+   *
+   * @param key the key to hash
+   * @return the hash of the key
+   */
+  static int hash(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+
+  /**
+   * @param expectedSize the expected number of keys
+   * @return the power of two table capacity which holds the keys below the load factor
+   */
+  static int tableCapacity(int expectedSize) {
+    long capacity = MIN_CAPACITY;
+    while (capacity * LOAD_FACTOR < expectedSize) {
+      capacity <<= 1;
+    }
+    Preconditions.checkArgument(capacity <= 1 << 30, "Too many elements: %s", expectedSize);
+    return (int) capacity;
+  }
+
+  /**
+   * Adds an element to the set.
+   *
+   * @param element the element to add
+   * @return true if the set did not contain the element
+   */
+  public boolean add(long element) {
+    if (element == FREE) {
+      boolean added = !mContainsFree;
+      mContainsFree = true;
+      return added;
+    }
+    int mask = mTable.length - 1;
+    for (int i = hash(element) & mask; true; i = (i + 1) & mask) {
+      long key = mTable[i];
+      if (key == element) {
+        return false;
+      }
+      if (key == FREE) {
+        mTable[i] = element;
+        if (++mTableSize > mTable.length * LOAD_FACTOR) {
+          resize(mTable.length << 1);
+        }
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public boolean add(Long element) {
+    return add(element.longValue());
+  }
+
+  /**
+   * @param element the element to look up
+   * @return true if the set contains the element
+   */
+  public boolean contains(long element) {
+    if (element == FREE) {
+      return mContainsFree;
+    }
+    int mask = mTable.length - 1;
+    for (int i = hash(element) & mask; true; i = (i + 1) & mask) {
+      long key = mTable[i];
+      if (key == element) {
+        return true;
+      }
+      if (key == FREE) {
+        return false;
+      }
+    }
+  }
+
+  @Override
+  public boolean contains(Object element) {
+    return element instanceof Long && contains(((Long) element).longValue());
+  }
+
+  /**
+   * Removes an element from the set.
+   *
+   * @param element the element to remove
+   * @return true if the set contained the element
+   */
+  public boolean remove(long element) {
+    if (element == FREE) {
+      boolean removed = mContainsFree;
+      mContainsFree = false;
+      return removed;
+    }
+    int mask = mTable.length - 1;
+    for (int i = hash(element) & mask; true; i = (i + 1) & mask) {
+      long key = mTable[i];
+      if (key == FREE) {
+        return false;
+      }
+      if (key == element) {
+        deleteSlot(i);
+        mTableSize--;
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public boolean remove(Object element) {
+    return element instanceof Long && remove(((Long) element).longValue());
+  }
+
+  /**
+   * @return the elements of the set, in no particular order
+   */
+  public long[] toLongArray() {
+    long[] elements = new long[size()];
+    int n = 0;
+    for (long key : mTable) {
+      if (key != FREE) {
+        elements[n++] = key;
+      }
+    }
+    if (mContainsFree) {
+      elements[n] = FREE;
+    }
+    return elements;
+  }
+
+  /**
+   * @return the estimated heap size of the set in bytes
+   */
+  public long getSizeBytes() {
+    // The object with its fields, and the table array with its header.
+    return 32 + 16 + 8L * mTable.length;
+  }
+
+  @Override
+  public int size() {
+    return mTableSize + (mContainsFree ? 1 : 0);
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(mTable, FREE);
+    mTableSize = 0;
+    mContainsFree = false;
+  }
+
+  @Override
+  public Iterator<Long> iterator() {
+    return new Iterator<Long>() {
+      private int mNext = advance(0);
+      private boolean mReturnedFree = !mContainsFree;
+
+      private int advance(int from) {
+        int i = from;
+        while (i < mTable.length && mTable[i] == FREE) {
+          i++;
+        }
+        return i;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return mNext < mTable.length || !mReturnedFree;
+      }
+
+      @Override
+      public Long next() {
+        if (mNext < mTable.length) {
+          long key = mTable[mNext];
+          mNext = advance(mNext + 1);
+          return key;
+        }
+        if (!mReturnedFree) {
+          mReturnedFree = true;
+          return FREE;
+        }
+        throw new NoSuchElementException();
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException("remove is not supported by LongHashSet");
+      }
+    };
+  }
+
+  /**
+   * Frees a slot of the table, and shifts back the following keys of the probe sequence, so that
+   * lookups never need tombstones.
+   *
+   * @param slot the slot to free
+   */
+  private void deleteSlot(int slot) {
+    int mask = mTable.length - 1;
+    int free = slot;
+    for (int i = (slot + 1) & mask; mTable[i] != FREE; i = (i + 1) & mask) {
+      int home = hash(mTable[i]) & mask;
+      // Move the key to the free slot if its home slot is not between the free slot and its slot,
+      // cyclically, which means the free slot is on its probe sequence.
+      if (((i - home) & mask) >= ((i - free) & mask)) {
+        mTable[free] = mTable[i];
+        free = i;
+      }
+    }
+    mTable[free] = FREE;
+  }
+
+  private void resize(int capacity) {
+    long[] oldTable = mTable;
+    mTable = new long[capacity];
+    int mask = capacity - 1;
+    for (long key : oldTable) {
+      if (key != FREE) {
+        int i = hash(key) & mask;
+        while (mTable[i] != FREE) {
+          i = (i + 1) & mask;
+        }
+        mTable[i] = key;
+      }
+    }
+  }
+}
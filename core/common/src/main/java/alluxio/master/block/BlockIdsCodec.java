@@ -0,0 +1,264 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.block;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Encodes the block ids a worker reports to the master in a compact form. The block ids of a list
+ * are sorted, and every id is written as the unsigned varint of its difference to the previous id.
+ * Since the block ids of a worker are mostly sequence numbers of the same containers, most of the
+ * differences fit in a single byte, instead of the 8 bytes (plus the boxing on both ends) of a
+ * Thrift {@code list<i64>}.
+ *
+ * An encoded buffer starts with a flags byte, which tells whether the rest of the buffer is
+ * compressed with {@link Deflater}.
+ */
+@ThreadSafe
+public final class BlockIdsCodec {
+  private static final byte FLAG_COMPRESSED = 1;
+
+  private BlockIdsCodec() {} // prevent instantiation
+
+  /**
+   * Encodes a list of block ids. The order of the ids is not preserved.
+   *
+   * @param blockIds the block ids to encode
+   * @param compress whether to compress the encoded ids
+   * @return the encoded block ids
+   */
+  public static ByteBuffer encode(Collection<Long> blockIds, boolean compress) {
+    VarintBuffer out = new VarintBuffer(blockIds.size() + 16);
+    writeBlockIds(out, blockIds);
+    return finish(out, compress);
+  }
+
+  /**
+   * Encodes a mapping from storage tier alias to block ids. The order of the ids is not preserved.
+   *
+   * @param blocksOnTiers the block ids on each tier
+   * @param compress whether to compress the encoded ids
+   * @return the encoded block ids
+   */
+  public static ByteBuffer encodeTiers(Map<String, ? extends Collection<Long>> blocksOnTiers,
+      boolean compress) {
+    int numBlocks = 0;
+    for (Collection<Long> blockIds : blocksOnTiers.values()) {
+      numBlocks += blockIds.size();
+    }
+    VarintBuffer out = new VarintBuffer(numBlocks + 16 * (blocksOnTiers.size() + 1));
+    out.writeVarint(blocksOnTiers.size());
+    for (Map.Entry<String, ? extends Collection<Long>> entry : blocksOnTiers.entrySet()) {
+      byte[] alias = entry.getKey().getBytes(Charsets.UTF_8);
+      out.writeVarint(alias.length);
+      out.write(alias, 0, alias.length);
+      writeBlockIds(out, entry.getValue());
+    }
+    return finish(out, compress);
+  }
+
+  /**
+   * Decodes a list of block ids encoded by {@link #encode(Collection, boolean)}.
+   *
+   * @param encoded the encoded block ids
+   * @return the block ids, in ascending order
+   */
+  public static long[] decode(ByteBuffer encoded) {
+    ByteBuffer in = start(encoded);
+    long[] blockIds = readBlockIds(in);
+    Preconditions.checkArgument(!in.hasRemaining(), "Trailing bytes after the encoded block ids");
+    return blockIds;
+  }
+
+  /**
+   * Decodes a mapping from storage tier alias to block ids encoded by
+   * {@link #encodeTiers(Map, boolean)}.
+   *
+   * @param encoded the encoded block ids
+   * @return the block ids on each tier, in ascending order
+   */
+  public static Map<String, long[]> decodeTiers(ByteBuffer encoded) {
+    ByteBuffer in = start(encoded);
+    int numTiers = readCount(in);
+    Map<String, long[]> blocksOnTiers = new HashMap<>();
+    for (int i = 0; i < numTiers; i++) {
+      int aliasLength = readCount(in);
+      Preconditions.checkArgument(aliasLength <= in.remaining(), "Truncated tier alias");
+      byte[] alias = new byte[aliasLength];
+      in.get(alias);
+      blocksOnTiers.put(new String(alias, Charsets.UTF_8), readBlockIds(in));
+    }
+    Preconditions.checkArgument(!in.hasRemaining(), "Trailing bytes after the encoded block ids");
+    return blocksOnTiers;
+  }
+
+  private static void writeBlockIds(VarintBuffer out, Collection<Long> blockIds) {
+    long[] sorted = new long[blockIds.size()];
+    int i = 0;
+    for (long blockId : blockIds) {
+      sorted[i++] = blockId;
+    }
+    Arrays.sort(sorted);
+    out.writeVarint(sorted.length);
+    long previous = 0;
+    for (long blockId : sorted) {
+      // The ids are sorted, so the difference is non-negative when read as an unsigned value.
+      out.writeVarint(blockId - previous);
+      previous = blockId;
+    }
+  }
+
+  private static long[] readBlockIds(ByteBuffer in) {
+    int count = readCount(in);
+    // Every id takes at least one byte, which bounds the allocation for corrupted counts.
+    Preconditions.checkArgument(count <= in.remaining(), "Truncated block ids");
+    long[] blockIds = new long[count];
+    long previous = 0;
+    for (int i = 0; i < count; i++) {
+      previous += readVarint(in);
+      blockIds[i] = previous;
+    }
+    return blockIds;
+  }
+
+  private static ByteBuffer finish(VarintBuffer out, boolean compress) {
+    if (!compress) {
+      byte[] encoded = out.toByteArray();
+      encoded[0] = 0;
+      return ByteBuffer.wrap(encoded);
+    }
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(out.getBuffer(), 1, out.size() - 1);
+      deflater.finish();
+      VarintBuffer compressed = new VarintBuffer(out.size() / 4 + 16);
+      byte[] chunk = new byte[64 * 1024];
+      while (!deflater.finished()) {
+        int length = deflater.deflate(chunk);
+        compressed.write(chunk, 0, length);
+      }
+      byte[] encoded = compressed.toByteArray();
+      encoded[0] = FLAG_COMPRESSED;
+      return ByteBuffer.wrap(encoded);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static ByteBuffer start(ByteBuffer encoded) {
+    ByteBuffer in = encoded.duplicate();
+    Preconditions.checkArgument(in.hasRemaining(), "Empty encoded block ids");
+    byte flags = in.get();
+    if ((flags & FLAG_COMPRESSED) == 0) {
+      return in;
+    }
+    byte[] input = new byte[in.remaining()];
+    in.get(input);
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(input);
+      VarintBuffer out = new VarintBuffer(input.length * 4);
+      byte[] chunk = new byte[64 * 1024];
+      while (!inflater.finished()) {
+        int length = inflater.inflate(chunk);
+        if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IllegalArgumentException("Truncated compressed block ids");
+        }
+        out.write(chunk, 0, length);
+      }
+      return ByteBuffer.wrap(out.getBuffer(), 1, out.size() - 1);
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("Corrupted compressed block ids", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static int readCount(ByteBuffer in) {
+    long count = readVarint(in);
+    Preconditions.checkArgument(count >= 0 && count <= Integer.MAX_VALUE,
+        "Invalid count %s in the encoded block ids", count);
+    return (int) count;
+  }
+
+  private static long readVarint(ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      Preconditions.checkArgument(in.hasRemaining(), "Truncated block ids");
+      byte b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint in the encoded block ids");
+  }
+
+  /**
+   * A growable byte array which writes unsigned varints. The first byte is reserved for the flags
+   * of the encoding.
+   */
+  private static final class VarintBuffer {
+    private byte[] mBuffer;
+    private int mSize;
+
+    VarintBuffer(int capacity) {
+      mBuffer = new byte[Math.max(capacity, 16)];
+      mSize = 1;
+    }
+
+    void writeVarint(long value) {
+      ensureCapacity(10);
+      while ((value & ~0x7FL) != 0) {
+        mBuffer[mSize++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      mBuffer[mSize++] = (byte) value;
+    }
+
+    void write(byte[] bytes, int offset, int length) {
+      ensureCapacity(length);
+      System.arraycopy(bytes, offset, mBuffer, mSize, length);
+      mSize += length;
+    }
+
+    byte[] getBuffer() {
+      return mBuffer;
+    }
+
+    int size() {
+      return mSize;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(mBuffer, mSize);
+    }
+
+    private void ensureCapacity(int length) {
+      if (mSize + length > mBuffer.length) {
+        mBuffer = Arrays.copyOf(mBuffer, Math.max(mBuffer.length * 2, mSize + length));
+      }
+    }
+  }
+}
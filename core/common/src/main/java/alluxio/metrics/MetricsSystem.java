@@ -19,6 +19,7 @@ import alluxio.util.network.NetworkAddressUtils;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.codahale.metrics.jvm.GarbageCollectorMetricSet;
@@ -234,6 +235,14 @@ public final class MetricsSystem {
     return METRIC_REGISTRY.counter((getMasterMetricName(name)));
   }
 
+  /**
+   * @param name the metric name
+   * @return the histogram
+   */
+  public static Histogram masterHistogram(String name) {
+    return METRIC_REGISTRY.histogram(getMasterMetricName(name));
+  }
+
   /**
    * @param name the metric name
    * @return the timer
@@ -249,6 +258,14 @@ public final class MetricsSystem {
     return METRIC_REGISTRY.counter((getWorkerMetricName(name)));
   }
 
+  /**
+   * @param name the metric name
+   * @return the histogram
+   */
+  public static Histogram workerHistogram(String name) {
+    return METRIC_REGISTRY.histogram(getWorkerMetricName(name));
+  }
+
   /**
    * @param name the metric name
    * @return the timer
@@ -264,6 +281,18 @@ public final class MetricsSystem {
     return METRIC_REGISTRY.counter(getClientMetricName(name));
   }
 
+  /**
+   * Registers a gauge, replacing the gauge registered with the same name if any.
+   *
+   * @param name the gauge name
+   * @param metric the gauge
+   * @param <T> the type
+   */
+  public static synchronized <T> void registerGauge(String name, Gauge<T> metric) {
+    METRIC_REGISTRY.remove(name);
+    METRIC_REGISTRY.register(name, metric);
+  }
+
   /**
    * Registers a gauge if it has not been registered.
    *
@@ -0,0 +1,75 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.network.protocol;
+
+import com.google.common.base.Objects;
+import com.google.common.primitives.Longs;
+import io.netty.buffer.ByteBuf;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * This represents an RPC request to an Alluxio worker to load a block of a file from the under
+ * storage into its Alluxio storage.
+ */
+@ThreadSafe
+public final class RPCBlockLoadRequest extends RPCRequest {
+  private final long mBlockId;
+
+  /**
+   * Constructs a new RPC request to load a block from the under storage.
+   *
+   * @param blockId the id of the block
+   */
+  public RPCBlockLoadRequest(long blockId) {
+    mBlockId = blockId;
+  }
+
+  @Override
+  public Type getType() {
+    return Type.RPC_BLOCK_LOAD_REQUEST;
+  }
+
+  /**
+   * Decodes the input {@link ByteBuf} into a {@link RPCBlockLoadRequest} object and returns it.
+   *
+   * @param in the input {@link ByteBuf}
+   * @return The decoded RPCBlockLoadRequest object
+   */
+  public static RPCBlockLoadRequest decode(ByteBuf in) {
+    long blockId = in.readLong();
+    return new RPCBlockLoadRequest(blockId);
+  }
+
+  @Override
+  public int getEncodedLength() {
+    // 1 long (mBlockId)
+    return Longs.BYTES;
+  }
+
+  @Override
+  public void encode(ByteBuf out) {
+    out.writeLong(mBlockId);
+  }
+
+  @Override
+  public String toString() {
+    return Objects.toStringHelper(this).add("blockId", mBlockId).toString();
+  }
+
+  /**
+   * @return the id of the block
+   */
+  public long getBlockId() {
+    return mBlockId;
+  }
+}
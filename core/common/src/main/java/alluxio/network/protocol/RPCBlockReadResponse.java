@@ -86,8 +86,15 @@ public final class RPCBlockReadResponse extends RPCResponse {
 
     DataBuffer data = null;
     if (length > 0) {
-      // use DataNettyBuffer instead of DataByteBuffer to avoid copying
-      data = new DataNettyBuffer(in, (int) length);
+      // The frame is a slice of the buffer the channel read it from, which it shares with the
+      // other frames read together with it, so the payload is copied into a buffer owned by this
+      // response alone. The response holds the only reference to it until it is released.
+      ByteBuf payload = in.readBytes((int) length);
+      try {
+        data = new DataNettyBuffer(payload, length);
+      } finally {
+        payload.release();
+      }
     }
     return new RPCBlockReadResponse(blockId, offset, length, data, Status.fromShort(status));
   }
@@ -37,6 +37,8 @@ public abstract class ResourcePool<T> {
   protected final int mMaxCapacity;
   protected final ConcurrentLinkedQueue<T> mResources;
   protected final AtomicInteger mCurrentCapacity;
+  /** The number of threads waiting for a resource, so releases only signal when needed. */
+  private final AtomicInteger mWaiters;
 
   /**
    * Creates a {@link ResourcePool} instance with the specified capacity.
@@ -58,6 +60,7 @@ public abstract class ResourcePool<T> {
     mNotEmpty = mTakeLock.newCondition();
     mMaxCapacity = maxCapacity;
     mCurrentCapacity = new AtomicInteger();
+    mWaiters = new AtomicInteger();
     mResources = resources;
   }
 
@@ -107,6 +110,9 @@ public abstract class ResourcePool<T> {
     // Otherwise, try to take a resource from the pool, blocking if none are available.
     try {
       mTakeLock.lockInterruptibly();
+      // The waiter is registered before polling, so a release either makes its resource visible
+      // to the poll below or sees the waiter and signals it.
+      mWaiters.incrementAndGet();
       try {
         while (true) {
           resource = mResources.poll();
@@ -126,6 +132,7 @@ public abstract class ResourcePool<T> {
           }
         }
       } finally {
+        mWaiters.decrementAndGet();
         mTakeLock.unlock();
       }
     } catch (InterruptedException e) {
@@ -147,6 +154,9 @@ public abstract class ResourcePool<T> {
    */
   public void release(T resource) {
     mResources.add(resource);
+    if (mWaiters.get() == 0) {
+      return;
+    }
     try (LockResource r = new LockResource(mTakeLock)) {
       mNotEmpty.signal();
     }
@@ -71,11 +71,11 @@ public class BlockMasterWorkerService {
      * 
      * @param usedBytesOnTiers the map of space used in bytes on all tiers
      * 
-     * @param removedBlockIds the list of removed block ids
+     * @param encodedRemovedBlockIds the encoded list of removed block ids
      * 
-     * @param addedBlocksOnTiers the map of added blocks on all tiers
+     * @param encodedAddedBlocksOnTiers the encoded map of added blocks on all tiers
      */
-    public alluxio.thrift.Command heartbeat(long workerId, Map<String,Long> usedBytesOnTiers, List<Long> removedBlockIds, Map<String,List<Long>> addedBlocksOnTiers) throws alluxio.thrift.AlluxioTException, org.apache.thrift.TException;
+    public alluxio.thrift.Command heartbeat(long workerId, Map<String,Long> usedBytesOnTiers, ByteBuffer encodedRemovedBlockIds, ByteBuffer encodedAddedBlocksOnTiers) throws alluxio.thrift.AlluxioTException, org.apache.thrift.TException;
 
     /**
      * Registers a worker.
@@ -88,9 +88,9 @@ public class BlockMasterWorkerService {
      * 
      * @param usedBytesOnTiers the map of used bytes on each tier
      * 
-     * @param currentBlocksOnTiers the map of list of blocks on each tier
+     * @param encodedCurrentBlocksOnTiers the encoded map of blocks on each tier
      */
-    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers) throws alluxio.thrift.AlluxioTException, org.apache.thrift.TException;
+    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, ByteBuffer encodedCurrentBlocksOnTiers) throws alluxio.thrift.AlluxioTException, org.apache.thrift.TException;
 
   }
 
@@ -100,9 +100,9 @@ public class BlockMasterWorkerService {
 
     public void getWorkerId(alluxio.thrift.WorkerNetAddress workerNetAddress, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
 
-    public void heartbeat(long workerId, Map<String,Long> usedBytesOnTiers, List<Long> removedBlockIds, Map<String,List<Long>> addedBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
+    public void heartbeat(long workerId, Map<String,Long> usedBytesOnTiers, ByteBuffer encodedRemovedBlockIds, ByteBuffer encodedAddedBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
 
-    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
+    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, ByteBuffer encodedCurrentBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
 
   }
 
@@ -179,19 +179,19 @@ public class BlockMasterWorkerService {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getWorkerId failed: unknown result");
     }
 
-    public alluxio.thrift.Command heartbeat(long workerId, Map<String,Long> usedBytesOnTiers, List<Long> removedBlockIds, Map<String,List<Long>> addedBlocksOnTiers) throws alluxio.thrift.AlluxioTException, org.apache.thrift.TException
+    public alluxio.thrift.Command heartbeat(long workerId, Map<String,Long> usedBytesOnTiers, ByteBuffer encodedRemovedBlockIds, ByteBuffer encodedAddedBlocksOnTiers) throws alluxio.thrift.AlluxioTException, org.apache.thrift.TException
     {
-      send_heartbeat(workerId, usedBytesOnTiers, removedBlockIds, addedBlocksOnTiers);
+      send_heartbeat(workerId, usedBytesOnTiers, encodedRemovedBlockIds, encodedAddedBlocksOnTiers);
       return recv_heartbeat();
     }
 
-    public void send_heartbeat(long workerId, Map<String,Long> usedBytesOnTiers, List<Long> removedBlockIds, Map<String,List<Long>> addedBlocksOnTiers) throws org.apache.thrift.TException
+    public void send_heartbeat(long workerId, Map<String,Long> usedBytesOnTiers, ByteBuffer encodedRemovedBlockIds, ByteBuffer encodedAddedBlocksOnTiers) throws org.apache.thrift.TException
     {
       heartbeat_args args = new heartbeat_args();
       args.setWorkerId(workerId);
       args.setUsedBytesOnTiers(usedBytesOnTiers);
-      args.setRemovedBlockIds(removedBlockIds);
-      args.setAddedBlocksOnTiers(addedBlocksOnTiers);
+      args.setEncodedRemovedBlockIds(encodedRemovedBlockIds);
+      args.setEncodedAddedBlocksOnTiers(encodedAddedBlocksOnTiers);
       sendBase("heartbeat", args);
     }
 
@@ -208,20 +208,20 @@ public class BlockMasterWorkerService {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "heartbeat failed: unknown result");
     }
 
-    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers) throws alluxio.thrift.AlluxioTException, org.apache.thrift.TException
+    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, ByteBuffer encodedCurrentBlocksOnTiers) throws alluxio.thrift.AlluxioTException, org.apache.thrift.TException
     {
-      send_registerWorker(workerId, storageTiers, totalBytesOnTiers, usedBytesOnTiers, currentBlocksOnTiers);
+      send_registerWorker(workerId, storageTiers, totalBytesOnTiers, usedBytesOnTiers, encodedCurrentBlocksOnTiers);
       recv_registerWorker();
     }
 
-    public void send_registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers) throws org.apache.thrift.TException
+    public void send_registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, ByteBuffer encodedCurrentBlocksOnTiers) throws org.apache.thrift.TException
     {
       registerWorker_args args = new registerWorker_args();
       args.setWorkerId(workerId);
       args.setStorageTiers(storageTiers);
       args.setTotalBytesOnTiers(totalBytesOnTiers);
       args.setUsedBytesOnTiers(usedBytesOnTiers);
-      args.setCurrentBlocksOnTiers(currentBlocksOnTiers);
+      args.setEncodedCurrentBlocksOnTiers(encodedCurrentBlocksOnTiers);
       sendBase("registerWorker", args);
     }
 
@@ -329,9 +329,9 @@ public class BlockMasterWorkerService {
       }
     }
 
-    public void heartbeat(long workerId, Map<String,Long> usedBytesOnTiers, List<Long> removedBlockIds, Map<String,List<Long>> addedBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
+    public void heartbeat(long workerId, Map<String,Long> usedBytesOnTiers, ByteBuffer encodedRemovedBlockIds, ByteBuffer encodedAddedBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
       checkReady();
-      heartbeat_call method_call = new heartbeat_call(workerId, usedBytesOnTiers, removedBlockIds, addedBlocksOnTiers, resultHandler, this, ___protocolFactory, ___transport);
+      heartbeat_call method_call = new heartbeat_call(workerId, usedBytesOnTiers, encodedRemovedBlockIds, encodedAddedBlocksOnTiers, resultHandler, this, ___protocolFactory, ___transport);
       this.___currentMethod = method_call;
       ___manager.call(method_call);
     }
@@ -339,14 +339,14 @@ public class BlockMasterWorkerService {
     public static class heartbeat_call extends org.apache.thrift.async.TAsyncMethodCall {
       private long workerId;
       private Map<String,Long> usedBytesOnTiers;
-      private List<Long> removedBlockIds;
-      private Map<String,List<Long>> addedBlocksOnTiers;
-      public heartbeat_call(long workerId, Map<String,Long> usedBytesOnTiers, List<Long> removedBlockIds, Map<String,List<Long>> addedBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+      private ByteBuffer encodedRemovedBlockIds;
+      private ByteBuffer encodedAddedBlocksOnTiers;
+      public heartbeat_call(long workerId, Map<String,Long> usedBytesOnTiers, ByteBuffer encodedRemovedBlockIds, ByteBuffer encodedAddedBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
         super(client, protocolFactory, transport, resultHandler, false);
         this.workerId = workerId;
         this.usedBytesOnTiers = usedBytesOnTiers;
-        this.removedBlockIds = removedBlockIds;
-        this.addedBlocksOnTiers = addedBlocksOnTiers;
+        this.encodedRemovedBlockIds = encodedRemovedBlockIds;
+        this.encodedAddedBlocksOnTiers = encodedAddedBlocksOnTiers;
       }
 
       public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
@@ -354,8 +354,8 @@ public class BlockMasterWorkerService {
         heartbeat_args args = new heartbeat_args();
         args.setWorkerId(workerId);
         args.setUsedBytesOnTiers(usedBytesOnTiers);
-        args.setRemovedBlockIds(removedBlockIds);
-        args.setAddedBlocksOnTiers(addedBlocksOnTiers);
+        args.setEncodedRemovedBlockIds(encodedRemovedBlockIds);
+        args.setEncodedAddedBlocksOnTiers(encodedAddedBlocksOnTiers);
         args.write(prot);
         prot.writeMessageEnd();
       }
@@ -370,9 +370,9 @@ public class BlockMasterWorkerService {
       }
     }
 
-    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
+    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, ByteBuffer encodedCurrentBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
       checkReady();
-      registerWorker_call method_call = new registerWorker_call(workerId, storageTiers, totalBytesOnTiers, usedBytesOnTiers, currentBlocksOnTiers, resultHandler, this, ___protocolFactory, ___transport);
+      registerWorker_call method_call = new registerWorker_call(workerId, storageTiers, totalBytesOnTiers, usedBytesOnTiers, encodedCurrentBlocksOnTiers, resultHandler, this, ___protocolFactory, ___transport);
       this.___currentMethod = method_call;
       ___manager.call(method_call);
     }
@@ -382,14 +382,14 @@ public class BlockMasterWorkerService {
       private List<String> storageTiers;
       private Map<String,Long> totalBytesOnTiers;
       private Map<String,Long> usedBytesOnTiers;
-      private Map<String,List<Long>> currentBlocksOnTiers;
-      public registerWorker_call(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+      private ByteBuffer encodedCurrentBlocksOnTiers;
+      public registerWorker_call(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, ByteBuffer encodedCurrentBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
         super(client, protocolFactory, transport, resultHandler, false);
         this.workerId = workerId;
         this.storageTiers = storageTiers;
         this.totalBytesOnTiers = totalBytesOnTiers;
         this.usedBytesOnTiers = usedBytesOnTiers;
-        this.currentBlocksOnTiers = currentBlocksOnTiers;
+        this.encodedCurrentBlocksOnTiers = encodedCurrentBlocksOnTiers;
       }
 
       public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
@@ -399,7 +399,7 @@ public class BlockMasterWorkerService {
         args.setStorageTiers(storageTiers);
         args.setTotalBytesOnTiers(totalBytesOnTiers);
         args.setUsedBytesOnTiers(usedBytesOnTiers);
-        args.setCurrentBlocksOnTiers(currentBlocksOnTiers);
+        args.setEncodedCurrentBlocksOnTiers(encodedCurrentBlocksOnTiers);
         args.write(prot);
         prot.writeMessageEnd();
       }
@@ -499,7 +499,7 @@ public class BlockMasterWorkerService {
       public heartbeat_result getResult(I iface, heartbeat_args args) throws org.apache.thrift.TException {
         heartbeat_result result = new heartbeat_result();
         try {
-          result.success = iface.heartbeat(args.workerId, args.usedBytesOnTiers, args.removedBlockIds, args.addedBlocksOnTiers);
+          result.success = iface.heartbeat(args.workerId, args.usedBytesOnTiers, args.encodedRemovedBlockIds, args.encodedAddedBlocksOnTiers);
         } catch (alluxio.thrift.AlluxioTException e) {
           result.e = e;
         }
@@ -523,7 +523,7 @@ public class BlockMasterWorkerService {
       public registerWorker_result getResult(I iface, registerWorker_args args) throws org.apache.thrift.TException {
         registerWorker_result result = new registerWorker_result();
         try {
-          iface.registerWorker(args.workerId, args.storageTiers, args.totalBytesOnTiers, args.usedBytesOnTiers, args.currentBlocksOnTiers);
+          iface.registerWorker(args.workerId, args.storageTiers, args.totalBytesOnTiers, args.usedBytesOnTiers, args.encodedCurrentBlocksOnTiers);
         } catch (alluxio.thrift.AlluxioTException e) {
           result.e = e;
         }
@@ -718,7 +718,7 @@ public class BlockMasterWorkerService {
       }
 
       public void start(I iface, heartbeat_args args, org.apache.thrift.async.AsyncMethodCallback<alluxio.thrift.Command> resultHandler) throws TException {
-        iface.heartbeat(args.workerId, args.usedBytesOnTiers, args.removedBlockIds, args.addedBlocksOnTiers,resultHandler);
+        iface.heartbeat(args.workerId, args.usedBytesOnTiers, args.encodedRemovedBlockIds, args.encodedAddedBlocksOnTiers,resultHandler);
       }
     }
 
@@ -774,7 +774,7 @@ public class BlockMasterWorkerService {
       }
 
       public void start(I iface, registerWorker_args args, org.apache.thrift.async.AsyncMethodCallback<Void> resultHandler) throws TException {
-        iface.registerWorker(args.workerId, args.storageTiers, args.totalBytesOnTiers, args.usedBytesOnTiers, args.currentBlocksOnTiers,resultHandler);
+        iface.registerWorker(args.workerId, args.storageTiers, args.totalBytesOnTiers, args.usedBytesOnTiers, args.encodedCurrentBlocksOnTiers,resultHandler);
       }
     }
 
@@ -2797,8 +2797,8 @@ public class BlockMasterWorkerService {
 
     private static final org.apache.thrift.protocol.TField WORKER_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("workerId", org.apache.thrift.protocol.TType.I64, (short)1);
     private static final org.apache.thrift.protocol.TField USED_BYTES_ON_TIERS_FIELD_DESC = new org.apache.thrift.protocol.TField("usedBytesOnTiers", org.apache.thrift.protocol.TType.MAP, (short)2);
-    private static final org.apache.thrift.protocol.TField REMOVED_BLOCK_IDS_FIELD_DESC = new org.apache.thrift.protocol.TField("removedBlockIds", org.apache.thrift.protocol.TType.LIST, (short)3);
-    private static final org.apache.thrift.protocol.TField ADDED_BLOCKS_ON_TIERS_FIELD_DESC = new org.apache.thrift.protocol.TField("addedBlocksOnTiers", org.apache.thrift.protocol.TType.MAP, (short)4);
+    private static final org.apache.thrift.protocol.TField ENCODED_REMOVED_BLOCK_IDS_FIELD_DESC = new org.apache.thrift.protocol.TField("encodedRemovedBlockIds", org.apache.thrift.protocol.TType.STRING, (short)5);
+    private static final org.apache.thrift.protocol.TField ENCODED_ADDED_BLOCKS_ON_TIERS_FIELD_DESC = new org.apache.thrift.protocol.TField("encodedAddedBlocksOnTiers", org.apache.thrift.protocol.TType.STRING, (short)6);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
@@ -2808,8 +2808,8 @@ public class BlockMasterWorkerService {
 
     private long workerId; // required
     private Map<String,Long> usedBytesOnTiers; // required
-    private List<Long> removedBlockIds; // required
-    private Map<String,List<Long>> addedBlocksOnTiers; // required
+    private ByteBuffer encodedRemovedBlockIds; // required
+    private ByteBuffer encodedAddedBlocksOnTiers; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -2822,13 +2822,13 @@ public class BlockMasterWorkerService {
        */
       USED_BYTES_ON_TIERS((short)2, "usedBytesOnTiers"),
       /**
-       * the list of removed block ids
+       * the encoded list of removed block ids
        */
-      REMOVED_BLOCK_IDS((short)3, "removedBlockIds"),
+      ENCODED_REMOVED_BLOCK_IDS((short)5, "encodedRemovedBlockIds"),
       /**
-       * the map of added blocks on all tiers
+       * the encoded map of added blocks on all tiers
        */
-      ADDED_BLOCKS_ON_TIERS((short)4, "addedBlocksOnTiers");
+      ENCODED_ADDED_BLOCKS_ON_TIERS((short)6, "encodedAddedBlocksOnTiers");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -2847,10 +2847,10 @@ public class BlockMasterWorkerService {
             return WORKER_ID;
           case 2: // USED_BYTES_ON_TIERS
             return USED_BYTES_ON_TIERS;
-          case 3: // REMOVED_BLOCK_IDS
-            return REMOVED_BLOCK_IDS;
-          case 4: // ADDED_BLOCKS_ON_TIERS
-            return ADDED_BLOCKS_ON_TIERS;
+          case 5: // ENCODED_REMOVED_BLOCK_IDS
+            return ENCODED_REMOVED_BLOCK_IDS;
+          case 6: // ENCODED_ADDED_BLOCKS_ON_TIERS
+            return ENCODED_ADDED_BLOCKS_ON_TIERS;
           default:
             return null;
         }
@@ -2902,14 +2902,10 @@ public class BlockMasterWorkerService {
           new org.apache.thrift.meta_data.MapMetaData(org.apache.thrift.protocol.TType.MAP, 
               new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING), 
               new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64))));
-      tmpMap.put(_Fields.REMOVED_BLOCK_IDS, new org.apache.thrift.meta_data.FieldMetaData("removedBlockIds", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
-              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64))));
-      tmpMap.put(_Fields.ADDED_BLOCKS_ON_TIERS, new org.apache.thrift.meta_data.FieldMetaData("addedBlocksOnTiers", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.MapMetaData(org.apache.thrift.protocol.TType.MAP, 
-              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING), 
-              new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
-                  new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)))));
+      tmpMap.put(_Fields.ENCODED_REMOVED_BLOCK_IDS, new org.apache.thrift.meta_data.FieldMetaData("encodedRemovedBlockIds", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING        , true)));
+      tmpMap.put(_Fields.ENCODED_ADDED_BLOCKS_ON_TIERS, new org.apache.thrift.meta_data.FieldMetaData("encodedAddedBlocksOnTiers", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING        , true)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
       org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(heartbeat_args.class, metaDataMap);
     }
@@ -2920,15 +2916,15 @@ public class BlockMasterWorkerService {
     public heartbeat_args(
       long workerId,
       Map<String,Long> usedBytesOnTiers,
-      List<Long> removedBlockIds,
-      Map<String,List<Long>> addedBlocksOnTiers)
+      ByteBuffer encodedRemovedBlockIds,
+      ByteBuffer encodedAddedBlocksOnTiers)
     {
       this();
       this.workerId = workerId;
       setWorkerIdIsSet(true);
       this.usedBytesOnTiers = usedBytesOnTiers;
-      this.removedBlockIds = removedBlockIds;
-      this.addedBlocksOnTiers = addedBlocksOnTiers;
+      this.encodedRemovedBlockIds = org.apache.thrift.TBaseHelper.copyBinary(encodedRemovedBlockIds);
+      this.encodedAddedBlocksOnTiers = org.apache.thrift.TBaseHelper.copyBinary(encodedAddedBlocksOnTiers);
     }
 
     /**
@@ -2941,24 +2937,11 @@ public class BlockMasterWorkerService {
         Map<String,Long> __this__usedBytesOnTiers = new HashMap<String,Long>(other.usedBytesOnTiers);
         this.usedBytesOnTiers = __this__usedBytesOnTiers;
       }
-      if (other.isSetRemovedBlockIds()) {
-        List<Long> __this__removedBlockIds = new ArrayList<Long>(other.removedBlockIds);
-        this.removedBlockIds = __this__removedBlockIds;
+      if (other.isSetEncodedRemovedBlockIds()) {
+        this.encodedRemovedBlockIds = org.apache.thrift.TBaseHelper.copyBinary(other.encodedRemovedBlockIds);
       }
-      if (other.isSetAddedBlocksOnTiers()) {
-        Map<String,List<Long>> __this__addedBlocksOnTiers = new HashMap<String,List<Long>>(other.addedBlocksOnTiers.size());
-        for (Map.Entry<String, List<Long>> other_element : other.addedBlocksOnTiers.entrySet()) {
-
-          String other_element_key = other_element.getKey();
-          List<Long> other_element_value = other_element.getValue();
-
-          String __this__addedBlocksOnTiers_copy_key = other_element_key;
-
-          List<Long> __this__addedBlocksOnTiers_copy_value = new ArrayList<Long>(other_element_value);
-
-          __this__addedBlocksOnTiers.put(__this__addedBlocksOnTiers_copy_key, __this__addedBlocksOnTiers_copy_value);
-        }
-        this.addedBlocksOnTiers = __this__addedBlocksOnTiers;
+      if (other.isSetEncodedAddedBlocksOnTiers()) {
+        this.encodedAddedBlocksOnTiers = org.apache.thrift.TBaseHelper.copyBinary(other.encodedAddedBlocksOnTiers);
       }
     }
 
@@ -2971,8 +2954,8 @@ public class BlockMasterWorkerService {
       setWorkerIdIsSet(false);
       this.workerId = 0;
       this.usedBytesOnTiers = null;
-      this.removedBlockIds = null;
-      this.addedBlocksOnTiers = null;
+      this.encodedRemovedBlockIds = null;
+      this.encodedAddedBlocksOnTiers = null;
     }
 
     /**
@@ -3045,89 +3028,83 @@ public class BlockMasterWorkerService {
       }
     }
 
-    public int getRemovedBlockIdsSize() {
-      return (this.removedBlockIds == null) ? 0 : this.removedBlockIds.size();
-    }
-
-    public java.util.Iterator<Long> getRemovedBlockIdsIterator() {
-      return (this.removedBlockIds == null) ? null : this.removedBlockIds.iterator();
+    /**
+     * the encoded list of removed block ids
+     */
+    public byte[] getEncodedRemovedBlockIds() {
+      setEncodedRemovedBlockIds(org.apache.thrift.TBaseHelper.rightSize(encodedRemovedBlockIds));
+      return encodedRemovedBlockIds == null ? null : encodedRemovedBlockIds.array();
     }
 
-    public void addToRemovedBlockIds(long elem) {
-      if (this.removedBlockIds == null) {
-        this.removedBlockIds = new ArrayList<Long>();
-      }
-      this.removedBlockIds.add(elem);
+    public ByteBuffer bufferForEncodedRemovedBlockIds() {
+      return org.apache.thrift.TBaseHelper.copyBinary(encodedRemovedBlockIds);
     }
 
     /**
-     * the list of removed block ids
+     * the encoded list of removed block ids
      */
-    public List<Long> getRemovedBlockIds() {
-      return this.removedBlockIds;
+    public heartbeat_args setEncodedRemovedBlockIds(byte[] encodedRemovedBlockIds) {
+      this.encodedRemovedBlockIds = encodedRemovedBlockIds == null ? (ByteBuffer)null : ByteBuffer.wrap(Arrays.copyOf(encodedRemovedBlockIds, encodedRemovedBlockIds.length));
+      return this;
     }
 
-    /**
-     * the list of removed block ids
-     */
-    public heartbeat_args setRemovedBlockIds(List<Long> removedBlockIds) {
-      this.removedBlockIds = removedBlockIds;
+    public heartbeat_args setEncodedRemovedBlockIds(ByteBuffer encodedRemovedBlockIds) {
+      this.encodedRemovedBlockIds = org.apache.thrift.TBaseHelper.copyBinary(encodedRemovedBlockIds);
       return this;
     }
 
-    public void unsetRemovedBlockIds() {
-      this.removedBlockIds = null;
+    public void unsetEncodedRemovedBlockIds() {
+      this.encodedRemovedBlockIds = null;
     }
 
-    /** Returns true if field removedBlockIds is set (has been assigned a value) and false otherwise */
-    public boolean isSetRemovedBlockIds() {
-      return this.removedBlockIds != null;
+    /** Returns true if field encodedRemovedBlockIds is set (has been assigned a value) and false otherwise */
+    public boolean isSetEncodedRemovedBlockIds() {
+      return this.encodedRemovedBlockIds != null;
     }
 
-    public void setRemovedBlockIdsIsSet(boolean value) {
+    public void setEncodedRemovedBlockIdsIsSet(boolean value) {
       if (!value) {
-        this.removedBlockIds = null;
+        this.encodedRemovedBlockIds = null;
       }
     }
 
-    public int getAddedBlocksOnTiersSize() {
-      return (this.addedBlocksOnTiers == null) ? 0 : this.addedBlocksOnTiers.size();
+    /**
+     * the encoded map of added blocks on all tiers
+     */
+    public byte[] getEncodedAddedBlocksOnTiers() {
+      setEncodedAddedBlocksOnTiers(org.apache.thrift.TBaseHelper.rightSize(encodedAddedBlocksOnTiers));
+      return encodedAddedBlocksOnTiers == null ? null : encodedAddedBlocksOnTiers.array();
     }
 
-    public void putToAddedBlocksOnTiers(String key, List<Long> val) {
-      if (this.addedBlocksOnTiers == null) {
-        this.addedBlocksOnTiers = new HashMap<String,List<Long>>();
-      }
-      this.addedBlocksOnTiers.put(key, val);
+    public ByteBuffer bufferForEncodedAddedBlocksOnTiers() {
+      return org.apache.thrift.TBaseHelper.copyBinary(encodedAddedBlocksOnTiers);
     }
 
     /**
-     * the map of added blocks on all tiers
+     * the encoded map of added blocks on all tiers
      */
-    public Map<String,List<Long>> getAddedBlocksOnTiers() {
-      return this.addedBlocksOnTiers;
+    public heartbeat_args setEncodedAddedBlocksOnTiers(byte[] encodedAddedBlocksOnTiers) {
+      this.encodedAddedBlocksOnTiers = encodedAddedBlocksOnTiers == null ? (ByteBuffer)null : ByteBuffer.wrap(Arrays.copyOf(encodedAddedBlocksOnTiers, encodedAddedBlocksOnTiers.length));
+      return this;
     }
 
-    /**
-     * the map of added blocks on all tiers
-     */
-    public heartbeat_args setAddedBlocksOnTiers(Map<String,List<Long>> addedBlocksOnTiers) {
-      this.addedBlocksOnTiers = addedBlocksOnTiers;
+    public heartbeat_args setEncodedAddedBlocksOnTiers(ByteBuffer encodedAddedBlocksOnTiers) {
+      this.encodedAddedBlocksOnTiers = org.apache.thrift.TBaseHelper.copyBinary(encodedAddedBlocksOnTiers);
       return this;
     }
 
-    public void unsetAddedBlocksOnTiers() {
-      this.addedBlocksOnTiers = null;
+    public void unsetEncodedAddedBlocksOnTiers() {
+      this.encodedAddedBlocksOnTiers = null;
     }
 
-    /** Returns true if field addedBlocksOnTiers is set (has been assigned a value) and false otherwise */
-    public boolean isSetAddedBlocksOnTiers() {
-      return this.addedBlocksOnTiers != null;
+    /** Returns true if field encodedAddedBlocksOnTiers is set (has been assigned a value) and false otherwise */
+    public boolean isSetEncodedAddedBlocksOnTiers() {
+      return this.encodedAddedBlocksOnTiers != null;
     }
 
-    public void setAddedBlocksOnTiersIsSet(boolean value) {
+    public void setEncodedAddedBlocksOnTiersIsSet(boolean value) {
       if (!value) {
-        this.addedBlocksOnTiers = null;
+        this.encodedAddedBlocksOnTiers = null;
       }
     }
 
@@ -3149,19 +3126,19 @@ public class BlockMasterWorkerService {
         }
         break;
 
-      case REMOVED_BLOCK_IDS:
+      case ENCODED_REMOVED_BLOCK_IDS:
         if (value == null) {
-          unsetRemovedBlockIds();
+          unsetEncodedRemovedBlockIds();
         } else {
-          setRemovedBlockIds((List<Long>)value);
+          setEncodedRemovedBlockIds((ByteBuffer)value);
         }
         break;
 
-      case ADDED_BLOCKS_ON_TIERS:
+      case ENCODED_ADDED_BLOCKS_ON_TIERS:
         if (value == null) {
-          unsetAddedBlocksOnTiers();
+          unsetEncodedAddedBlocksOnTiers();
         } else {
-          setAddedBlocksOnTiers((Map<String,List<Long>>)value);
+          setEncodedAddedBlocksOnTiers((ByteBuffer)value);
         }
         break;
 
@@ -3176,11 +3153,11 @@ public class BlockMasterWorkerService {
       case USED_BYTES_ON_TIERS:
         return getUsedBytesOnTiers();
 
-      case REMOVED_BLOCK_IDS:
-        return getRemovedBlockIds();
+      case ENCODED_REMOVED_BLOCK_IDS:
+        return getEncodedRemovedBlockIds();
 
-      case ADDED_BLOCKS_ON_TIERS:
-        return getAddedBlocksOnTiers();
+      case ENCODED_ADDED_BLOCKS_ON_TIERS:
+        return getEncodedAddedBlocksOnTiers();
 
       }
       throw new IllegalStateException();
@@ -3197,10 +3174,10 @@ public class BlockMasterWorkerService {
         return isSetWorkerId();
       case USED_BYTES_ON_TIERS:
         return isSetUsedBytesOnTiers();
-      case REMOVED_BLOCK_IDS:
-        return isSetRemovedBlockIds();
-      case ADDED_BLOCKS_ON_TIERS:
-        return isSetAddedBlocksOnTiers();
+      case ENCODED_REMOVED_BLOCK_IDS:
+        return isSetEncodedRemovedBlockIds();
+      case ENCODED_ADDED_BLOCKS_ON_TIERS:
+        return isSetEncodedAddedBlocksOnTiers();
       }
       throw new IllegalStateException();
     }
@@ -3236,21 +3213,21 @@ public class BlockMasterWorkerService {
           return false;
       }
 
-      boolean this_present_removedBlockIds = true && this.isSetRemovedBlockIds();
-      boolean that_present_removedBlockIds = true && that.isSetRemovedBlockIds();
-      if (this_present_removedBlockIds || that_present_removedBlockIds) {
-        if (!(this_present_removedBlockIds && that_present_removedBlockIds))
+      boolean this_present_encodedRemovedBlockIds = true && this.isSetEncodedRemovedBlockIds();
+      boolean that_present_encodedRemovedBlockIds = true && that.isSetEncodedRemovedBlockIds();
+      if (this_present_encodedRemovedBlockIds || that_present_encodedRemovedBlockIds) {
+        if (!(this_present_encodedRemovedBlockIds && that_present_encodedRemovedBlockIds))
           return false;
-        if (!this.removedBlockIds.equals(that.removedBlockIds))
+        if (!this.encodedRemovedBlockIds.equals(that.encodedRemovedBlockIds))
           return false;
       }
 
-      boolean this_present_addedBlocksOnTiers = true && this.isSetAddedBlocksOnTiers();
-      boolean that_present_addedBlocksOnTiers = true && that.isSetAddedBlocksOnTiers();
-      if (this_present_addedBlocksOnTiers || that_present_addedBlocksOnTiers) {
-        if (!(this_present_addedBlocksOnTiers && that_present_addedBlocksOnTiers))
+      boolean this_present_encodedAddedBlocksOnTiers = true && this.isSetEncodedAddedBlocksOnTiers();
+      boolean that_present_encodedAddedBlocksOnTiers = true && that.isSetEncodedAddedBlocksOnTiers();
+      if (this_present_encodedAddedBlocksOnTiers || that_present_encodedAddedBlocksOnTiers) {
+        if (!(this_present_encodedAddedBlocksOnTiers && that_present_encodedAddedBlocksOnTiers))
           return false;
-        if (!this.addedBlocksOnTiers.equals(that.addedBlocksOnTiers))
+        if (!this.encodedAddedBlocksOnTiers.equals(that.encodedAddedBlocksOnTiers))
           return false;
       }
 
@@ -3271,15 +3248,15 @@ public class BlockMasterWorkerService {
       if (present_usedBytesOnTiers)
         list.add(usedBytesOnTiers);
 
-      boolean present_removedBlockIds = true && (isSetRemovedBlockIds());
-      list.add(present_removedBlockIds);
-      if (present_removedBlockIds)
-        list.add(removedBlockIds);
+      boolean present_encodedRemovedBlockIds = true && (isSetEncodedRemovedBlockIds());
+      list.add(present_encodedRemovedBlockIds);
+      if (present_encodedRemovedBlockIds)
+        list.add(encodedRemovedBlockIds);
 
-      boolean present_addedBlocksOnTiers = true && (isSetAddedBlocksOnTiers());
-      list.add(present_addedBlocksOnTiers);
-      if (present_addedBlocksOnTiers)
-        list.add(addedBlocksOnTiers);
+      boolean present_encodedAddedBlocksOnTiers = true && (isSetEncodedAddedBlocksOnTiers());
+      list.add(present_encodedAddedBlocksOnTiers);
+      if (present_encodedAddedBlocksOnTiers)
+        list.add(encodedAddedBlocksOnTiers);
 
       return list.hashCode();
     }
@@ -3312,22 +3289,22 @@ public class BlockMasterWorkerService {
           return lastComparison;
         }
       }
-      lastComparison = Boolean.valueOf(isSetRemovedBlockIds()).compareTo(other.isSetRemovedBlockIds());
+      lastComparison = Boolean.valueOf(isSetEncodedRemovedBlockIds()).compareTo(other.isSetEncodedRemovedBlockIds());
       if (lastComparison != 0) {
         return lastComparison;
       }
-      if (isSetRemovedBlockIds()) {
-        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.removedBlockIds, other.removedBlockIds);
+      if (isSetEncodedRemovedBlockIds()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.encodedRemovedBlockIds, other.encodedRemovedBlockIds);
         if (lastComparison != 0) {
           return lastComparison;
         }
       }
-      lastComparison = Boolean.valueOf(isSetAddedBlocksOnTiers()).compareTo(other.isSetAddedBlocksOnTiers());
+      lastComparison = Boolean.valueOf(isSetEncodedAddedBlocksOnTiers()).compareTo(other.isSetEncodedAddedBlocksOnTiers());
       if (lastComparison != 0) {
         return lastComparison;
       }
-      if (isSetAddedBlocksOnTiers()) {
-        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.addedBlocksOnTiers, other.addedBlocksOnTiers);
+      if (isSetEncodedAddedBlocksOnTiers()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.encodedAddedBlocksOnTiers, other.encodedAddedBlocksOnTiers);
         if (lastComparison != 0) {
           return lastComparison;
         }
@@ -3364,19 +3341,19 @@ public class BlockMasterWorkerService {
       }
       first = false;
       if (!first) sb.append(", ");
-      sb.append("removedBlockIds:");
-      if (this.removedBlockIds == null) {
+      sb.append("encodedRemovedBlockIds:");
+      if (this.encodedRemovedBlockIds == null) {
         sb.append("null");
       } else {
-        sb.append(this.removedBlockIds);
+        org.apache.thrift.TBaseHelper.toString(this.encodedRemovedBlockIds, sb);
       }
       first = false;
       if (!first) sb.append(", ");
-      sb.append("addedBlocksOnTiers:");
-      if (this.addedBlocksOnTiers == null) {
+      sb.append("encodedAddedBlocksOnTiers:");
+      if (this.encodedAddedBlocksOnTiers == null) {
         sb.append("null");
       } else {
-        sb.append(this.addedBlocksOnTiers);
+        org.apache.thrift.TBaseHelper.toString(this.encodedAddedBlocksOnTiers, sb);
       }
       first = false;
       sb.append(")");
@@ -3452,50 +3429,18 @@ public class BlockMasterWorkerService {
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
               break;
-            case 3: // REMOVED_BLOCK_IDS
-              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
-                {
-                  org.apache.thrift.protocol.TList _list12 = iprot.readListBegin();
-                  struct.removedBlockIds = new ArrayList<Long>(_list12.size);
-                  long _elem13;
-                  for (int _i14 = 0; _i14 < _list12.size; ++_i14)
-                  {
-                    _elem13 = iprot.readI64();
-                    struct.removedBlockIds.add(_elem13);
-                  }
-                  iprot.readListEnd();
-                }
-                struct.setRemovedBlockIdsIsSet(true);
+            case 5: // ENCODED_REMOVED_BLOCK_IDS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct.encodedRemovedBlockIds = iprot.readBinary();
+                struct.setEncodedRemovedBlockIdsIsSet(true);
               } else { 
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
               break;
-            case 4: // ADDED_BLOCKS_ON_TIERS
-              if (schemeField.type == org.apache.thrift.protocol.TType.MAP) {
-                {
-                  org.apache.thrift.protocol.TMap _map15 = iprot.readMapBegin();
-                  struct.addedBlocksOnTiers = new HashMap<String,List<Long>>(2*_map15.size);
-                  String _key16;
-                  List<Long> _val17;
-                  for (int _i18 = 0; _i18 < _map15.size; ++_i18)
-                  {
-                    _key16 = iprot.readString();
-                    {
-                      org.apache.thrift.protocol.TList _list19 = iprot.readListBegin();
-                      _val17 = new ArrayList<Long>(_list19.size);
-                      long _elem20;
-                      for (int _i21 = 0; _i21 < _list19.size; ++_i21)
-                      {
-                        _elem20 = iprot.readI64();
-                        _val17.add(_elem20);
-                      }
-                      iprot.readListEnd();
-                    }
-                    struct.addedBlocksOnTiers.put(_key16, _val17);
-                  }
-                  iprot.readMapEnd();
-                }
-                struct.setAddedBlocksOnTiersIsSet(true);
+            case 6: // ENCODED_ADDED_BLOCKS_ON_TIERS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct.encodedAddedBlocksOnTiers = iprot.readBinary();
+                struct.setEncodedAddedBlocksOnTiersIsSet(true);
               } else { 
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
@@ -3531,36 +3476,14 @@ public class BlockMasterWorkerService {
           }
           oprot.writeFieldEnd();
         }
-        if (struct.removedBlockIds != null) {
-          oprot.writeFieldBegin(REMOVED_BLOCK_IDS_FIELD_DESC);
-          {
-            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.I64, struct.removedBlockIds.size()));
-            for (long _iter23 : struct.removedBlockIds)
-            {
-              oprot.writeI64(_iter23);
-            }
-            oprot.writeListEnd();
-          }
+        if (struct.encodedRemovedBlockIds != null) {
+          oprot.writeFieldBegin(ENCODED_REMOVED_BLOCK_IDS_FIELD_DESC);
+          oprot.writeBinary(struct.encodedRemovedBlockIds);
           oprot.writeFieldEnd();
         }
-        if (struct.addedBlocksOnTiers != null) {
-          oprot.writeFieldBegin(ADDED_BLOCKS_ON_TIERS_FIELD_DESC);
-          {
-            oprot.writeMapBegin(new org.apache.thrift.protocol.TMap(org.apache.thrift.protocol.TType.STRING, org.apache.thrift.protocol.TType.LIST, struct.addedBlocksOnTiers.size()));
-            for (Map.Entry<String, List<Long>> _iter24 : struct.addedBlocksOnTiers.entrySet())
-            {
-              oprot.writeString(_iter24.getKey());
-              {
-                oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.I64, _iter24.getValue().size()));
-                for (long _iter25 : _iter24.getValue())
-                {
-                  oprot.writeI64(_iter25);
-                }
-                oprot.writeListEnd();
-              }
-            }
-            oprot.writeMapEnd();
-          }
+        if (struct.encodedAddedBlocksOnTiers != null) {
+          oprot.writeFieldBegin(ENCODED_ADDED_BLOCKS_ON_TIERS_FIELD_DESC);
+          oprot.writeBinary(struct.encodedAddedBlocksOnTiers);
           oprot.writeFieldEnd();
         }
         oprot.writeFieldStop();
@@ -3587,10 +3510,10 @@ public class BlockMasterWorkerService {
         if (struct.isSetUsedBytesOnTiers()) {
           optionals.set(1);
         }
-        if (struct.isSetRemovedBlockIds()) {
+        if (struct.isSetEncodedRemovedBlockIds()) {
           optionals.set(2);
         }
-        if (struct.isSetAddedBlocksOnTiers()) {
+        if (struct.isSetEncodedAddedBlocksOnTiers()) {
           optionals.set(3);
         }
         oprot.writeBitSet(optionals, 4);
@@ -3607,30 +3530,11 @@ public class BlockMasterWorkerService {
             }
           }
         }
-        if (struct.isSetRemovedBlockIds()) {
-          {
-            oprot.writeI32(struct.removedBlockIds.size());
-            for (long _iter27 : struct.removedBlockIds)
-            {
-              oprot.writeI64(_iter27);
-            }
-          }
+        if (struct.isSetEncodedRemovedBlockIds()) {
+          oprot.writeBinary(struct.encodedRemovedBlockIds);
         }
-        if (struct.isSetAddedBlocksOnTiers()) {
-          {
-            oprot.writeI32(struct.addedBlocksOnTiers.size());
-            for (Map.Entry<String, List<Long>> _iter28 : struct.addedBlocksOnTiers.entrySet())
-            {
-              oprot.writeString(_iter28.getKey());
-              {
-                oprot.writeI32(_iter28.getValue().size());
-                for (long _iter29 : _iter28.getValue())
-                {
-                  oprot.writeI64(_iter29);
-                }
-              }
-            }
-          }
+        if (struct.isSetEncodedAddedBlocksOnTiers()) {
+          oprot.writeBinary(struct.encodedAddedBlocksOnTiers);
         }
       }
 
@@ -3658,41 +3562,12 @@ public class BlockMasterWorkerService {
           struct.setUsedBytesOnTiersIsSet(true);
         }
         if (incoming.get(2)) {
-          {
-            org.apache.thrift.protocol.TList _list34 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.I64, iprot.readI32());
-            struct.removedBlockIds = new ArrayList<Long>(_list34.size);
-            long _elem35;
-            for (int _i36 = 0; _i36 < _list34.size; ++_i36)
-            {
-              _elem35 = iprot.readI64();
-              struct.removedBlockIds.add(_elem35);
-            }
-          }
-          struct.setRemovedBlockIdsIsSet(true);
+          struct.encodedRemovedBlockIds = iprot.readBinary();
+          struct.setEncodedRemovedBlockIdsIsSet(true);
         }
         if (incoming.get(3)) {
-          {
-            org.apache.thrift.protocol.TMap _map37 = new org.apache.thrift.protocol.TMap(org.apache.thrift.protocol.TType.STRING, org.apache.thrift.protocol.TType.LIST, iprot.readI32());
-            struct.addedBlocksOnTiers = new HashMap<String,List<Long>>(2*_map37.size);
-            String _key38;
-            List<Long> _val39;
-            for (int _i40 = 0; _i40 < _map37.size; ++_i40)
-            {
-              _key38 = iprot.readString();
-              {
-                org.apache.thrift.protocol.TList _list41 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.I64, iprot.readI32());
-                _val39 = new ArrayList<Long>(_list41.size);
-                long _elem42;
-                for (int _i43 = 0; _i43 < _list41.size; ++_i43)
-                {
-                  _elem42 = iprot.readI64();
-                  _val39.add(_elem42);
-                }
-              }
-              struct.addedBlocksOnTiers.put(_key38, _val39);
-            }
-          }
-          struct.setAddedBlocksOnTiersIsSet(true);
+          struct.encodedAddedBlocksOnTiers = iprot.readBinary();
+          struct.setEncodedAddedBlocksOnTiersIsSet(true);
         }
       }
     }
@@ -4179,7 +4054,7 @@ public class BlockMasterWorkerService {
     private static final org.apache.thrift.protocol.TField STORAGE_TIERS_FIELD_DESC = new org.apache.thrift.protocol.TField("storageTiers", org.apache.thrift.protocol.TType.LIST, (short)2);
     private static final org.apache.thrift.protocol.TField TOTAL_BYTES_ON_TIERS_FIELD_DESC = new org.apache.thrift.protocol.TField("totalBytesOnTiers", org.apache.thrift.protocol.TType.MAP, (short)3);
     private static final org.apache.thrift.protocol.TField USED_BYTES_ON_TIERS_FIELD_DESC = new org.apache.thrift.protocol.TField("usedBytesOnTiers", org.apache.thrift.protocol.TType.MAP, (short)4);
-    private static final org.apache.thrift.protocol.TField CURRENT_BLOCKS_ON_TIERS_FIELD_DESC = new org.apache.thrift.protocol.TField("currentBlocksOnTiers", org.apache.thrift.protocol.TType.MAP, (short)5);
+    private static final org.apache.thrift.protocol.TField ENCODED_CURRENT_BLOCKS_ON_TIERS_FIELD_DESC = new org.apache.thrift.protocol.TField("encodedCurrentBlocksOnTiers", org.apache.thrift.protocol.TType.STRING, (short)6);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
@@ -4191,7 +4066,7 @@ public class BlockMasterWorkerService {
     private List<String> storageTiers; // required
     private Map<String,Long> totalBytesOnTiers; // required
     private Map<String,Long> usedBytesOnTiers; // required
-    private Map<String,List<Long>> currentBlocksOnTiers; // required
+    private ByteBuffer encodedCurrentBlocksOnTiers; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -4212,9 +4087,9 @@ public class BlockMasterWorkerService {
        */
       USED_BYTES_ON_TIERS((short)4, "usedBytesOnTiers"),
       /**
-       * the map of list of blocks on each tier
+       * the encoded map of blocks on each tier
        */
-      CURRENT_BLOCKS_ON_TIERS((short)5, "currentBlocksOnTiers");
+      ENCODED_CURRENT_BLOCKS_ON_TIERS((short)6, "encodedCurrentBlocksOnTiers");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -4237,8 +4112,8 @@ public class BlockMasterWorkerService {
             return TOTAL_BYTES_ON_TIERS;
           case 4: // USED_BYTES_ON_TIERS
             return USED_BYTES_ON_TIERS;
-          case 5: // CURRENT_BLOCKS_ON_TIERS
-            return CURRENT_BLOCKS_ON_TIERS;
+          case 6: // ENCODED_CURRENT_BLOCKS_ON_TIERS
+            return ENCODED_CURRENT_BLOCKS_ON_TIERS;
           default:
             return null;
         }
@@ -4297,11 +4172,8 @@ public class BlockMasterWorkerService {
           new org.apache.thrift.meta_data.MapMetaData(org.apache.thrift.protocol.TType.MAP, 
               new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING), 
               new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64))));
-      tmpMap.put(_Fields.CURRENT_BLOCKS_ON_TIERS, new org.apache.thrift.meta_data.FieldMetaData("currentBlocksOnTiers", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.MapMetaData(org.apache.thrift.protocol.TType.MAP, 
-              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING), 
-              new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
-                  new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)))));
+      tmpMap.put(_Fields.ENCODED_CURRENT_BLOCKS_ON_TIERS, new org.apache.thrift.meta_data.FieldMetaData("encodedCurrentBlocksOnTiers", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING        , true)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
       org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(registerWorker_args.class, metaDataMap);
     }
@@ -4314,7 +4186,7 @@ public class BlockMasterWorkerService {
       List<String> storageTiers,
       Map<String,Long> totalBytesOnTiers,
       Map<String,Long> usedBytesOnTiers,
-      Map<String,List<Long>> currentBlocksOnTiers)
+      ByteBuffer encodedCurrentBlocksOnTiers)
     {
       this();
       this.workerId = workerId;
@@ -4322,7 +4194,7 @@ public class BlockMasterWorkerService {
       this.storageTiers = storageTiers;
       this.totalBytesOnTiers = totalBytesOnTiers;
       this.usedBytesOnTiers = usedBytesOnTiers;
-      this.currentBlocksOnTiers = currentBlocksOnTiers;
+      this.encodedCurrentBlocksOnTiers = org.apache.thrift.TBaseHelper.copyBinary(encodedCurrentBlocksOnTiers);
     }
 
     /**
@@ -4343,20 +4215,8 @@ public class BlockMasterWorkerService {
         Map<String,Long> __this__usedBytesOnTiers = new HashMap<String,Long>(other.usedBytesOnTiers);
         this.usedBytesOnTiers = __this__usedBytesOnTiers;
       }
-      if (other.isSetCurrentBlocksOnTiers()) {
-        Map<String,List<Long>> __this__currentBlocksOnTiers = new HashMap<String,List<Long>>(other.currentBlocksOnTiers.size());
-        for (Map.Entry<String, List<Long>> other_element : other.currentBlocksOnTiers.entrySet()) {
-
-          String other_element_key = other_element.getKey();
-          List<Long> other_element_value = other_element.getValue();
-
-          String __this__currentBlocksOnTiers_copy_key = other_element_key;
-
-          List<Long> __this__currentBlocksOnTiers_copy_value = new ArrayList<Long>(other_element_value);
-
-          __this__currentBlocksOnTiers.put(__this__currentBlocksOnTiers_copy_key, __this__currentBlocksOnTiers_copy_value);
-        }
-        this.currentBlocksOnTiers = __this__currentBlocksOnTiers;
+      if (other.isSetEncodedCurrentBlocksOnTiers()) {
+        this.encodedCurrentBlocksOnTiers = org.apache.thrift.TBaseHelper.copyBinary(other.encodedCurrentBlocksOnTiers);
       }
     }
 
@@ -4371,7 +4231,7 @@ public class BlockMasterWorkerService {
       this.storageTiers = null;
       this.totalBytesOnTiers = null;
       this.usedBytesOnTiers = null;
-      this.currentBlocksOnTiers = null;
+      this.encodedCurrentBlocksOnTiers = null;
     }
 
     /**
@@ -4530,44 +4390,43 @@ public class BlockMasterWorkerService {
       }
     }
 
-    public int getCurrentBlocksOnTiersSize() {
-      return (this.currentBlocksOnTiers == null) ? 0 : this.currentBlocksOnTiers.size();
+    /**
+     * the encoded map of blocks on each tier
+     */
+    public byte[] getEncodedCurrentBlocksOnTiers() {
+      setEncodedCurrentBlocksOnTiers(org.apache.thrift.TBaseHelper.rightSize(encodedCurrentBlocksOnTiers));
+      return encodedCurrentBlocksOnTiers == null ? null : encodedCurrentBlocksOnTiers.array();
     }
 
-    public void putToCurrentBlocksOnTiers(String key, List<Long> val) {
-      if (this.currentBlocksOnTiers == null) {
-        this.currentBlocksOnTiers = new HashMap<String,List<Long>>();
-      }
-      this.currentBlocksOnTiers.put(key, val);
+    public ByteBuffer bufferForEncodedCurrentBlocksOnTiers() {
+      return org.apache.thrift.TBaseHelper.copyBinary(encodedCurrentBlocksOnTiers);
     }
 
     /**
-     * the map of list of blocks on each tier
+     * the encoded map of blocks on each tier
      */
-    public Map<String,List<Long>> getCurrentBlocksOnTiers() {
-      return this.currentBlocksOnTiers;
+    public registerWorker_args setEncodedCurrentBlocksOnTiers(byte[] encodedCurrentBlocksOnTiers) {
+      this.encodedCurrentBlocksOnTiers = encodedCurrentBlocksOnTiers == null ? (ByteBuffer)null : ByteBuffer.wrap(Arrays.copyOf(encodedCurrentBlocksOnTiers, encodedCurrentBlocksOnTiers.length));
+      return this;
     }
 
-    /**
-     * the map of list of blocks on each tier
-     */
-    public registerWorker_args setCurrentBlocksOnTiers(Map<String,List<Long>> currentBlocksOnTiers) {
-      this.currentBlocksOnTiers = currentBlocksOnTiers;
+    public registerWorker_args setEncodedCurrentBlocksOnTiers(ByteBuffer encodedCurrentBlocksOnTiers) {
+      this.encodedCurrentBlocksOnTiers = org.apache.thrift.TBaseHelper.copyBinary(encodedCurrentBlocksOnTiers);
       return this;
     }
 
-    public void unsetCurrentBlocksOnTiers() {
-      this.currentBlocksOnTiers = null;
+    public void unsetEncodedCurrentBlocksOnTiers() {
+      this.encodedCurrentBlocksOnTiers = null;
     }
 
-    /** Returns true if field currentBlocksOnTiers is set (has been assigned a value) and false otherwise */
-    public boolean isSetCurrentBlocksOnTiers() {
-      return this.currentBlocksOnTiers != null;
+    /** Returns true if field encodedCurrentBlocksOnTiers is set (has been assigned a value) and false otherwise */
+    public boolean isSetEncodedCurrentBlocksOnTiers() {
+      return this.encodedCurrentBlocksOnTiers != null;
     }
 
-    public void setCurrentBlocksOnTiersIsSet(boolean value) {
+    public void setEncodedCurrentBlocksOnTiersIsSet(boolean value) {
       if (!value) {
-        this.currentBlocksOnTiers = null;
+        this.encodedCurrentBlocksOnTiers = null;
       }
     }
 
@@ -4605,11 +4464,11 @@ public class BlockMasterWorkerService {
         }
         break;
 
-      case CURRENT_BLOCKS_ON_TIERS:
+      case ENCODED_CURRENT_BLOCKS_ON_TIERS:
         if (value == null) {
-          unsetCurrentBlocksOnTiers();
+          unsetEncodedCurrentBlocksOnTiers();
         } else {
-          setCurrentBlocksOnTiers((Map<String,List<Long>>)value);
+          setEncodedCurrentBlocksOnTiers((ByteBuffer)value);
         }
         break;
 
@@ -4630,8 +4489,8 @@ public class BlockMasterWorkerService {
       case USED_BYTES_ON_TIERS:
         return getUsedBytesOnTiers();
 
-      case CURRENT_BLOCKS_ON_TIERS:
-        return getCurrentBlocksOnTiers();
+      case ENCODED_CURRENT_BLOCKS_ON_TIERS:
+        return getEncodedCurrentBlocksOnTiers();
 
       }
       throw new IllegalStateException();
@@ -4652,8 +4511,8 @@ public class BlockMasterWorkerService {
         return isSetTotalBytesOnTiers();
       case USED_BYTES_ON_TIERS:
         return isSetUsedBytesOnTiers();
-      case CURRENT_BLOCKS_ON_TIERS:
-        return isSetCurrentBlocksOnTiers();
+      case ENCODED_CURRENT_BLOCKS_ON_TIERS:
+        return isSetEncodedCurrentBlocksOnTiers();
       }
       throw new IllegalStateException();
     }
@@ -4707,12 +4566,12 @@ public class BlockMasterWorkerService {
           return false;
       }
 
-      boolean this_present_currentBlocksOnTiers = true && this.isSetCurrentBlocksOnTiers();
-      boolean that_present_currentBlocksOnTiers = true && that.isSetCurrentBlocksOnTiers();
-      if (this_present_currentBlocksOnTiers || that_present_currentBlocksOnTiers) {
-        if (!(this_present_currentBlocksOnTiers && that_present_currentBlocksOnTiers))
+      boolean this_present_encodedCurrentBlocksOnTiers = true && this.isSetEncodedCurrentBlocksOnTiers();
+      boolean that_present_encodedCurrentBlocksOnTiers = true && that.isSetEncodedCurrentBlocksOnTiers();
+      if (this_present_encodedCurrentBlocksOnTiers || that_present_encodedCurrentBlocksOnTiers) {
+        if (!(this_present_encodedCurrentBlocksOnTiers && that_present_encodedCurrentBlocksOnTiers))
           return false;
-        if (!this.currentBlocksOnTiers.equals(that.currentBlocksOnTiers))
+        if (!this.encodedCurrentBlocksOnTiers.equals(that.encodedCurrentBlocksOnTiers))
           return false;
       }
 
@@ -4743,10 +4602,10 @@ public class BlockMasterWorkerService {
       if (present_usedBytesOnTiers)
         list.add(usedBytesOnTiers);
 
-      boolean present_currentBlocksOnTiers = true && (isSetCurrentBlocksOnTiers());
-      list.add(present_currentBlocksOnTiers);
-      if (present_currentBlocksOnTiers)
-        list.add(currentBlocksOnTiers);
+      boolean present_encodedCurrentBlocksOnTiers = true && (isSetEncodedCurrentBlocksOnTiers());
+      list.add(present_encodedCurrentBlocksOnTiers);
+      if (present_encodedCurrentBlocksOnTiers)
+        list.add(encodedCurrentBlocksOnTiers);
 
       return list.hashCode();
     }
@@ -4799,12 +4658,12 @@ public class BlockMasterWorkerService {
           return lastComparison;
         }
       }
-      lastComparison = Boolean.valueOf(isSetCurrentBlocksOnTiers()).compareTo(other.isSetCurrentBlocksOnTiers());
+      lastComparison = Boolean.valueOf(isSetEncodedCurrentBlocksOnTiers()).compareTo(other.isSetEncodedCurrentBlocksOnTiers());
       if (lastComparison != 0) {
         return lastComparison;
       }
-      if (isSetCurrentBlocksOnTiers()) {
-        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.currentBlocksOnTiers, other.currentBlocksOnTiers);
+      if (isSetEncodedCurrentBlocksOnTiers()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.encodedCurrentBlocksOnTiers, other.encodedCurrentBlocksOnTiers);
         if (lastComparison != 0) {
           return lastComparison;
         }
@@ -4857,11 +4716,11 @@ public class BlockMasterWorkerService {
       }
       first = false;
       if (!first) sb.append(", ");
-      sb.append("currentBlocksOnTiers:");
-      if (this.currentBlocksOnTiers == null) {
+      sb.append("encodedCurrentBlocksOnTiers:");
+      if (this.encodedCurrentBlocksOnTiers == null) {
         sb.append("null");
       } else {
-        sb.append(this.currentBlocksOnTiers);
+        org.apache.thrift.TBaseHelper.toString(this.encodedCurrentBlocksOnTiers, sb);
       }
       first = false;
       sb.append(")");
@@ -4975,32 +4834,10 @@ public class BlockMasterWorkerService {
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
               break;
-            case 5: // CURRENT_BLOCKS_ON_TIERS
-              if (schemeField.type == org.apache.thrift.protocol.TType.MAP) {
-                {
-                  org.apache.thrift.protocol.TMap _map55 = iprot.readMapBegin();
-                  struct.currentBlocksOnTiers = new HashMap<String,List<Long>>(2*_map55.size);
-                  String _key56;
-                  List<Long> _val57;
-                  for (int _i58 = 0; _i58 < _map55.size; ++_i58)
-                  {
-                    _key56 = iprot.readString();
-                    {
-                      org.apache.thrift.protocol.TList _list59 = iprot.readListBegin();
-                      _val57 = new ArrayList<Long>(_list59.size);
-                      long _elem60;
-                      for (int _i61 = 0; _i61 < _list59.size; ++_i61)
-                      {
-                        _elem60 = iprot.readI64();
-                        _val57.add(_elem60);
-                      }
-                      iprot.readListEnd();
-                    }
-                    struct.currentBlocksOnTiers.put(_key56, _val57);
-                  }
-                  iprot.readMapEnd();
-                }
-                struct.setCurrentBlocksOnTiersIsSet(true);
+            case 6: // ENCODED_CURRENT_BLOCKS_ON_TIERS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct.encodedCurrentBlocksOnTiers = iprot.readBinary();
+                struct.setEncodedCurrentBlocksOnTiersIsSet(true);
               } else { 
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
@@ -5061,24 +4898,9 @@ public class BlockMasterWorkerService {
           }
           oprot.writeFieldEnd();
         }
-        if (struct.currentBlocksOnTiers != null) {
-          oprot.writeFieldBegin(CURRENT_BLOCKS_ON_TIERS_FIELD_DESC);
-          {
-            oprot.writeMapBegin(new org.apache.thrift.protocol.TMap(org.apache.thrift.protocol.TType.STRING, org.apache.thrift.protocol.TType.LIST, struct.currentBlocksOnTiers.size()));
-            for (Map.Entry<String, List<Long>> _iter65 : struct.currentBlocksOnTiers.entrySet())
-            {
-              oprot.writeString(_iter65.getKey());
-              {
-                oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.I64, _iter65.getValue().size()));
-                for (long _iter66 : _iter65.getValue())
-                {
-                  oprot.writeI64(_iter66);
-                }
-                oprot.writeListEnd();
-              }
-            }
-            oprot.writeMapEnd();
-          }
+        if (struct.encodedCurrentBlocksOnTiers != null) {
+          oprot.writeFieldBegin(ENCODED_CURRENT_BLOCKS_ON_TIERS_FIELD_DESC);
+          oprot.writeBinary(struct.encodedCurrentBlocksOnTiers);
           oprot.writeFieldEnd();
         }
         oprot.writeFieldStop();
@@ -5111,7 +4933,7 @@ public class BlockMasterWorkerService {
         if (struct.isSetUsedBytesOnTiers()) {
           optionals.set(3);
         }
-        if (struct.isSetCurrentBlocksOnTiers()) {
+        if (struct.isSetEncodedCurrentBlocksOnTiers()) {
           optionals.set(4);
         }
         oprot.writeBitSet(optionals, 5);
@@ -5147,21 +4969,8 @@ public class BlockMasterWorkerService {
             }
           }
         }
-        if (struct.isSetCurrentBlocksOnTiers()) {
-          {
-            oprot.writeI32(struct.currentBlocksOnTiers.size());
-            for (Map.Entry<String, List<Long>> _iter70 : struct.currentBlocksOnTiers.entrySet())
-            {
-              oprot.writeString(_iter70.getKey());
-              {
-                oprot.writeI32(_iter70.getValue().size());
-                for (long _iter71 : _iter70.getValue())
-                {
-                  oprot.writeI64(_iter71);
-                }
-              }
-            }
-          }
+        if (struct.isSetEncodedCurrentBlocksOnTiers()) {
+          oprot.writeBinary(struct.encodedCurrentBlocksOnTiers);
         }
       }
 
@@ -5217,28 +5026,8 @@ public class BlockMasterWorkerService {
           struct.setUsedBytesOnTiersIsSet(true);
         }
         if (incoming.get(4)) {
-          {
-            org.apache.thrift.protocol.TMap _map83 = new org.apache.thrift.protocol.TMap(org.apache.thrift.protocol.TType.STRING, org.apache.thrift.protocol.TType.LIST, iprot.readI32());
-            struct.currentBlocksOnTiers = new HashMap<String,List<Long>>(2*_map83.size);
-            String _key84;
-            List<Long> _val85;
-            for (int _i86 = 0; _i86 < _map83.size; ++_i86)
-            {
-              _key84 = iprot.readString();
-              {
-                org.apache.thrift.protocol.TList _list87 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.I64, iprot.readI32());
-                _val85 = new ArrayList<Long>(_list87.size);
-                long _elem88;
-                for (int _i89 = 0; _i89 < _list87.size; ++_i89)
-                {
-                  _elem88 = iprot.readI64();
-                  _val85.add(_elem88);
-                }
-              }
-              struct.currentBlocksOnTiers.put(_key84, _val85);
-            }
-          }
-          struct.setCurrentBlocksOnTiersIsSet(true);
+          struct.encodedCurrentBlocksOnTiers = iprot.readBinary();
+          struct.setEncodedCurrentBlocksOnTiersIsSet(true);
         }
       }
     }
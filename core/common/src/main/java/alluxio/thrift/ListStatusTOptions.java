@@ -40,6 +40,9 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
 
   private static final org.apache.thrift.protocol.TField LOAD_DIRECT_CHILDREN_FIELD_DESC = new org.apache.thrift.protocol.TField("loadDirectChildren", org.apache.thrift.protocol.TType.BOOL, (short)1);
   private static final org.apache.thrift.protocol.TField LOAD_METADATA_TYPE_FIELD_DESC = new org.apache.thrift.protocol.TField("loadMetadataType", org.apache.thrift.protocol.TType.I32, (short)2);
+  private static final org.apache.thrift.protocol.TField START_AFTER_FIELD_DESC = new org.apache.thrift.protocol.TField("startAfter", org.apache.thrift.protocol.TType.STRING, (short)3);
+  private static final org.apache.thrift.protocol.TField BATCH_SIZE_FIELD_DESC = new org.apache.thrift.protocol.TField("batchSize", org.apache.thrift.protocol.TType.I32, (short)4);
+  private static final org.apache.thrift.protocol.TField LOAD_METADATA_RECURSIVE_FIELD_DESC = new org.apache.thrift.protocol.TField("loadMetadataRecursive", org.apache.thrift.protocol.TType.BOOL, (short)5);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -49,6 +52,9 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
 
   private boolean loadDirectChildren; // optional
   private LoadMetadataTType loadMetadataType; // optional
+  private String startAfter; // optional
+  private int batchSize; // optional
+  private boolean loadMetadataRecursive; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -57,7 +63,10 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
      * 
      * @see LoadMetadataTType
      */
-    LOAD_METADATA_TYPE((short)2, "loadMetadataType");
+    LOAD_METADATA_TYPE((short)2, "loadMetadataType"),
+    START_AFTER((short)3, "startAfter"),
+    BATCH_SIZE((short)4, "batchSize"),
+    LOAD_METADATA_RECURSIVE((short)5, "loadMetadataRecursive");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -76,6 +85,12 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
           return LOAD_DIRECT_CHILDREN;
         case 2: // LOAD_METADATA_TYPE
           return LOAD_METADATA_TYPE;
+        case 3: // START_AFTER
+          return START_AFTER;
+        case 4: // BATCH_SIZE
+          return BATCH_SIZE;
+        case 5: // LOAD_METADATA_RECURSIVE
+          return LOAD_METADATA_RECURSIVE;
         default:
           return null;
       }
@@ -117,8 +132,10 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
 
   // isset id assignments
   private static final int __LOADDIRECTCHILDREN_ISSET_ID = 0;
+  private static final int __BATCHSIZE_ISSET_ID = 1;
+  private static final int __LOADMETADATARECURSIVE_ISSET_ID = 2;
   private byte __isset_bitfield = 0;
-  private static final _Fields optionals[] = {_Fields.LOAD_DIRECT_CHILDREN,_Fields.LOAD_METADATA_TYPE};
+  private static final _Fields optionals[] = {_Fields.LOAD_DIRECT_CHILDREN,_Fields.LOAD_METADATA_TYPE,_Fields.START_AFTER,_Fields.BATCH_SIZE,_Fields.LOAD_METADATA_RECURSIVE};
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -126,6 +143,12 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
     tmpMap.put(_Fields.LOAD_METADATA_TYPE, new org.apache.thrift.meta_data.FieldMetaData("loadMetadataType", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
         new org.apache.thrift.meta_data.EnumMetaData(org.apache.thrift.protocol.TType.ENUM, LoadMetadataTType.class)));
+    tmpMap.put(_Fields.START_AFTER, new org.apache.thrift.meta_data.FieldMetaData("startAfter", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+    tmpMap.put(_Fields.BATCH_SIZE, new org.apache.thrift.meta_data.FieldMetaData("batchSize", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+    tmpMap.put(_Fields.LOAD_METADATA_RECURSIVE, new org.apache.thrift.meta_data.FieldMetaData("loadMetadataRecursive", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(ListStatusTOptions.class, metaDataMap);
   }
@@ -142,6 +165,11 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
     if (other.isSetLoadMetadataType()) {
       this.loadMetadataType = other.loadMetadataType;
     }
+    if (other.isSetStartAfter()) {
+      this.startAfter = other.startAfter;
+    }
+    this.batchSize = other.batchSize;
+    this.loadMetadataRecursive = other.loadMetadataRecursive;
   }
 
   public ListStatusTOptions deepCopy() {
@@ -153,6 +181,11 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
     setLoadDirectChildrenIsSet(false);
     this.loadDirectChildren = false;
     this.loadMetadataType = null;
+    this.startAfter = null;
+    setBatchSizeIsSet(false);
+    this.batchSize = 0;
+    setLoadMetadataRecursiveIsSet(false);
+    this.loadMetadataRecursive = false;
   }
 
   public boolean isLoadDirectChildren() {
@@ -210,6 +243,76 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
     }
   }
 
+  public String getStartAfter() {
+    return this.startAfter;
+  }
+
+  public ListStatusTOptions setStartAfter(String startAfter) {
+    this.startAfter = startAfter;
+    return this;
+  }
+
+  public void unsetStartAfter() {
+    this.startAfter = null;
+  }
+
+  /** Returns true if field startAfter is set (has been assigned a value) and false otherwise */
+  public boolean isSetStartAfter() {
+    return this.startAfter != null;
+  }
+
+  public void setStartAfterIsSet(boolean value) {
+    if (!value) {
+      this.startAfter = null;
+    }
+  }
+
+  public int getBatchSize() {
+    return this.batchSize;
+  }
+
+  public ListStatusTOptions setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+    setBatchSizeIsSet(true);
+    return this;
+  }
+
+  public void unsetBatchSize() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __BATCHSIZE_ISSET_ID);
+  }
+
+  /** Returns true if field batchSize is set (has been assigned a value) and false otherwise */
+  public boolean isSetBatchSize() {
+    return EncodingUtils.testBit(__isset_bitfield, __BATCHSIZE_ISSET_ID);
+  }
+
+  public void setBatchSizeIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __BATCHSIZE_ISSET_ID, value);
+  }
+
+  public boolean isLoadMetadataRecursive() {
+    return this.loadMetadataRecursive;
+  }
+
+  public ListStatusTOptions setLoadMetadataRecursive(boolean loadMetadataRecursive) {
+    this.loadMetadataRecursive = loadMetadataRecursive;
+    setLoadMetadataRecursiveIsSet(true);
+    return this;
+  }
+
+  public void unsetLoadMetadataRecursive() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __LOADMETADATARECURSIVE_ISSET_ID);
+  }
+
+  /** Returns true if field loadMetadataRecursive is set (has been assigned a value) and false otherwise */
+  public boolean isSetLoadMetadataRecursive() {
+    return EncodingUtils.testBit(__isset_bitfield, __LOADMETADATARECURSIVE_ISSET_ID);
+  }
+
+  public void setLoadMetadataRecursiveIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __LOADMETADATARECURSIVE_ISSET_ID, value);
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case LOAD_DIRECT_CHILDREN:
@@ -228,6 +331,30 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
       }
       break;
 
+    case START_AFTER:
+      if (value == null) {
+        unsetStartAfter();
+      } else {
+        setStartAfter((String)value);
+      }
+      break;
+
+    case BATCH_SIZE:
+      if (value == null) {
+        unsetBatchSize();
+      } else {
+        setBatchSize((Integer)value);
+      }
+      break;
+
+    case LOAD_METADATA_RECURSIVE:
+      if (value == null) {
+        unsetLoadMetadataRecursive();
+      } else {
+        setLoadMetadataRecursive((Boolean)value);
+      }
+      break;
+
     }
   }
 
@@ -239,6 +366,15 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
     case LOAD_METADATA_TYPE:
       return getLoadMetadataType();
 
+    case START_AFTER:
+      return getStartAfter();
+
+    case BATCH_SIZE:
+      return getBatchSize();
+
+    case LOAD_METADATA_RECURSIVE:
+      return isLoadMetadataRecursive();
+
     }
     throw new IllegalStateException();
   }
@@ -254,6 +390,12 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
       return isSetLoadDirectChildren();
     case LOAD_METADATA_TYPE:
       return isSetLoadMetadataType();
+    case START_AFTER:
+      return isSetStartAfter();
+    case BATCH_SIZE:
+      return isSetBatchSize();
+    case LOAD_METADATA_RECURSIVE:
+      return isSetLoadMetadataRecursive();
     }
     throw new IllegalStateException();
   }
@@ -289,6 +431,33 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
         return false;
     }
 
+    boolean this_present_startAfter = true && this.isSetStartAfter();
+    boolean that_present_startAfter = true && that.isSetStartAfter();
+    if (this_present_startAfter || that_present_startAfter) {
+      if (!(this_present_startAfter && that_present_startAfter))
+        return false;
+      if (!this.startAfter.equals(that.startAfter))
+        return false;
+    }
+
+    boolean this_present_batchSize = true && this.isSetBatchSize();
+    boolean that_present_batchSize = true && that.isSetBatchSize();
+    if (this_present_batchSize || that_present_batchSize) {
+      if (!(this_present_batchSize && that_present_batchSize))
+        return false;
+      if (this.batchSize != that.batchSize)
+        return false;
+    }
+
+    boolean this_present_loadMetadataRecursive = true && this.isSetLoadMetadataRecursive();
+    boolean that_present_loadMetadataRecursive = true && that.isSetLoadMetadataRecursive();
+    if (this_present_loadMetadataRecursive || that_present_loadMetadataRecursive) {
+      if (!(this_present_loadMetadataRecursive && that_present_loadMetadataRecursive))
+        return false;
+      if (this.loadMetadataRecursive != that.loadMetadataRecursive)
+        return false;
+    }
+
     return true;
   }
 
@@ -306,6 +475,21 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
     if (present_loadMetadataType)
       list.add(loadMetadataType.getValue());
 
+    boolean present_startAfter = true && (isSetStartAfter());
+    list.add(present_startAfter);
+    if (present_startAfter)
+      list.add(startAfter);
+
+    boolean present_batchSize = true && (isSetBatchSize());
+    list.add(present_batchSize);
+    if (present_batchSize)
+      list.add(batchSize);
+
+    boolean present_loadMetadataRecursive = true && (isSetLoadMetadataRecursive());
+    list.add(present_loadMetadataRecursive);
+    if (present_loadMetadataRecursive)
+      list.add(loadMetadataRecursive);
+
     return list.hashCode();
   }
 
@@ -337,6 +521,36 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetStartAfter()).compareTo(other.isSetStartAfter());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetStartAfter()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.startAfter, other.startAfter);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = Boolean.valueOf(isSetBatchSize()).compareTo(other.isSetBatchSize());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetBatchSize()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.batchSize, other.batchSize);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = Boolean.valueOf(isSetLoadMetadataRecursive()).compareTo(other.isSetLoadMetadataRecursive());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetLoadMetadataRecursive()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.loadMetadataRecursive, other.loadMetadataRecursive);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -372,6 +586,28 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
       }
       first = false;
     }
+    if (isSetStartAfter()) {
+      if (!first) sb.append(", ");
+      sb.append("startAfter:");
+      if (this.startAfter == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.startAfter);
+      }
+      first = false;
+    }
+    if (isSetBatchSize()) {
+      if (!first) sb.append(", ");
+      sb.append("batchSize:");
+      sb.append(this.batchSize);
+      first = false;
+    }
+    if (isSetLoadMetadataRecursive()) {
+      if (!first) sb.append(", ");
+      sb.append("loadMetadataRecursive:");
+      sb.append(this.loadMetadataRecursive);
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -433,6 +669,30 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 3: // START_AFTER
+            if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+              struct.startAfter = iprot.readString();
+              struct.setStartAfterIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 4: // BATCH_SIZE
+            if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+              struct.batchSize = iprot.readI32();
+              struct.setBatchSizeIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 5: // LOAD_METADATA_RECURSIVE
+            if (schemeField.type == org.apache.thrift.protocol.TType.BOOL) {
+              struct.loadMetadataRecursive = iprot.readBool();
+              struct.setLoadMetadataRecursiveIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -460,6 +720,23 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
           oprot.writeFieldEnd();
         }
       }
+      if (struct.startAfter != null) {
+        if (struct.isSetStartAfter()) {
+          oprot.writeFieldBegin(START_AFTER_FIELD_DESC);
+          oprot.writeString(struct.startAfter);
+          oprot.writeFieldEnd();
+        }
+      }
+      if (struct.isSetBatchSize()) {
+        oprot.writeFieldBegin(BATCH_SIZE_FIELD_DESC);
+        oprot.writeI32(struct.batchSize);
+        oprot.writeFieldEnd();
+      }
+      if (struct.isSetLoadMetadataRecursive()) {
+        oprot.writeFieldBegin(LOAD_METADATA_RECURSIVE_FIELD_DESC);
+        oprot.writeBool(struct.loadMetadataRecursive);
+        oprot.writeFieldEnd();
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -484,19 +761,37 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
       if (struct.isSetLoadMetadataType()) {
         optionals.set(1);
       }
-      oprot.writeBitSet(optionals, 2);
+      if (struct.isSetStartAfter()) {
+        optionals.set(2);
+      }
+      if (struct.isSetBatchSize()) {
+        optionals.set(3);
+      }
+      if (struct.isSetLoadMetadataRecursive()) {
+        optionals.set(4);
+      }
+      oprot.writeBitSet(optionals, 5);
       if (struct.isSetLoadDirectChildren()) {
         oprot.writeBool(struct.loadDirectChildren);
       }
       if (struct.isSetLoadMetadataType()) {
         oprot.writeI32(struct.loadMetadataType.getValue());
       }
+      if (struct.isSetStartAfter()) {
+        oprot.writeString(struct.startAfter);
+      }
+      if (struct.isSetBatchSize()) {
+        oprot.writeI32(struct.batchSize);
+      }
+      if (struct.isSetLoadMetadataRecursive()) {
+        oprot.writeBool(struct.loadMetadataRecursive);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, ListStatusTOptions struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(2);
+      BitSet incoming = iprot.readBitSet(5);
       if (incoming.get(0)) {
         struct.loadDirectChildren = iprot.readBool();
         struct.setLoadDirectChildrenIsSet(true);
@@ -505,6 +800,18 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
         struct.loadMetadataType = alluxio.thrift.LoadMetadataTType.findByValue(iprot.readI32());
         struct.setLoadMetadataTypeIsSet(true);
       }
+      if (incoming.get(2)) {
+        struct.startAfter = iprot.readString();
+        struct.setStartAfterIsSet(true);
+      }
+      if (incoming.get(3)) {
+        struct.batchSize = iprot.readI32();
+        struct.setBatchSizeIsSet(true);
+      }
+      if (incoming.get(4)) {
+        struct.loadMetadataRecursive = iprot.readBool();
+        struct.setLoadMetadataRecursiveIsSet(true);
+      }
     }
   }
 
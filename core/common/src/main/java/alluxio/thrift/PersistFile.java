@@ -40,6 +40,10 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
 
   private static final org.apache.thrift.protocol.TField FILE_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("fileId", org.apache.thrift.protocol.TType.I64, (short)1);
   private static final org.apache.thrift.protocol.TField BLOCK_IDS_FIELD_DESC = new org.apache.thrift.protocol.TField("blockIds", org.apache.thrift.protocol.TType.LIST, (short)2);
+  private static final org.apache.thrift.protocol.TField PART_INDEX_FIELD_DESC = new org.apache.thrift.protocol.TField("partIndex", org.apache.thrift.protocol.TType.I32, (short)3);
+  private static final org.apache.thrift.protocol.TField PART_COUNT_FIELD_DESC = new org.apache.thrift.protocol.TField("partCount", org.apache.thrift.protocol.TType.I32, (short)4);
+  private static final org.apache.thrift.protocol.TField PART_START_FIELD_DESC = new org.apache.thrift.protocol.TField("partStart", org.apache.thrift.protocol.TType.I32, (short)5);
+  private static final org.apache.thrift.protocol.TField PART_END_FIELD_DESC = new org.apache.thrift.protocol.TField("partEnd", org.apache.thrift.protocol.TType.I32, (short)6);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -49,11 +53,19 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
 
   private long fileId; // required
   private List<Long> blockIds; // required
+  private int partIndex; // required
+  private int partCount; // required
+  private int partStart; // required
+  private int partEnd; // required
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
     FILE_ID((short)1, "fileId"),
-    BLOCK_IDS((short)2, "blockIds");
+    BLOCK_IDS((short)2, "blockIds"),
+    PART_INDEX((short)3, "partIndex"),
+    PART_COUNT((short)4, "partCount"),
+    PART_START((short)5, "partStart"),
+    PART_END((short)6, "partEnd");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -72,6 +84,14 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
           return FILE_ID;
         case 2: // BLOCK_IDS
           return BLOCK_IDS;
+        case 3: // PART_INDEX
+          return PART_INDEX;
+        case 4: // PART_COUNT
+          return PART_COUNT;
+        case 5: // PART_START
+          return PART_START;
+        case 6: // PART_END
+          return PART_END;
         default:
           return null;
       }
@@ -113,6 +133,10 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
 
   // isset id assignments
   private static final int __FILEID_ISSET_ID = 0;
+  private static final int __PARTINDEX_ISSET_ID = 1;
+  private static final int __PARTCOUNT_ISSET_ID = 2;
+  private static final int __PARTSTART_ISSET_ID = 3;
+  private static final int __PARTEND_ISSET_ID = 4;
   private byte __isset_bitfield = 0;
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
@@ -122,6 +146,14 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
     tmpMap.put(_Fields.BLOCK_IDS, new org.apache.thrift.meta_data.FieldMetaData("blockIds", org.apache.thrift.TFieldRequirementType.DEFAULT, 
         new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
             new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64))));
+    tmpMap.put(_Fields.PART_INDEX, new org.apache.thrift.meta_data.FieldMetaData("partIndex", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+      new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+    tmpMap.put(_Fields.PART_COUNT, new org.apache.thrift.meta_data.FieldMetaData("partCount", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+      new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+    tmpMap.put(_Fields.PART_START, new org.apache.thrift.meta_data.FieldMetaData("partStart", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+      new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+    tmpMap.put(_Fields.PART_END, new org.apache.thrift.meta_data.FieldMetaData("partEnd", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+      new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(PersistFile.class, metaDataMap);
   }
@@ -131,12 +163,24 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
 
   public PersistFile(
     long fileId,
-    List<Long> blockIds)
+    List<Long> blockIds,
+    int partIndex,
+    int partCount,
+    int partStart,
+    int partEnd)
   {
     this();
     this.fileId = fileId;
     setFileIdIsSet(true);
     this.blockIds = blockIds;
+    this.partIndex = partIndex;
+    setPartIndexIsSet(true);
+    this.partCount = partCount;
+    setPartCountIsSet(true);
+    this.partStart = partStart;
+    setPartStartIsSet(true);
+    this.partEnd = partEnd;
+    setPartEndIsSet(true);
   }
 
   /**
@@ -149,6 +193,10 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
       List<Long> __this__blockIds = new ArrayList<Long>(other.blockIds);
       this.blockIds = __this__blockIds;
     }
+    this.partIndex = other.partIndex;
+    this.partCount = other.partCount;
+    this.partStart = other.partStart;
+    this.partEnd = other.partEnd;
   }
 
   public PersistFile deepCopy() {
@@ -160,6 +208,14 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
     setFileIdIsSet(false);
     this.fileId = 0;
     this.blockIds = null;
+    setPartIndexIsSet(false);
+    this.partIndex = 0;
+    setPartCountIsSet(false);
+    this.partCount = 0;
+    setPartStartIsSet(false);
+    this.partStart = 0;
+    setPartEndIsSet(false);
+    this.partEnd = 0;
   }
 
   public long getFileId() {
@@ -224,6 +280,98 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
     }
   }
 
+  public int getPartIndex() {
+    return this.partIndex;
+  }
+
+  public PersistFile setPartIndex(int partIndex) {
+    this.partIndex = partIndex;
+    setPartIndexIsSet(true);
+    return this;
+  }
+
+  public void unsetPartIndex() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __PARTINDEX_ISSET_ID);
+  }
+
+  /** Returns true if field partIndex is set (has been assigned a value) and false otherwise */
+  public boolean isSetPartIndex() {
+    return EncodingUtils.testBit(__isset_bitfield, __PARTINDEX_ISSET_ID);
+  }
+
+  public void setPartIndexIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __PARTINDEX_ISSET_ID, value);
+  }
+
+  public int getPartCount() {
+    return this.partCount;
+  }
+
+  public PersistFile setPartCount(int partCount) {
+    this.partCount = partCount;
+    setPartCountIsSet(true);
+    return this;
+  }
+
+  public void unsetPartCount() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __PARTCOUNT_ISSET_ID);
+  }
+
+  /** Returns true if field partCount is set (has been assigned a value) and false otherwise */
+  public boolean isSetPartCount() {
+    return EncodingUtils.testBit(__isset_bitfield, __PARTCOUNT_ISSET_ID);
+  }
+
+  public void setPartCountIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __PARTCOUNT_ISSET_ID, value);
+  }
+
+  public int getPartStart() {
+    return this.partStart;
+  }
+
+  public PersistFile setPartStart(int partStart) {
+    this.partStart = partStart;
+    setPartStartIsSet(true);
+    return this;
+  }
+
+  public void unsetPartStart() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __PARTSTART_ISSET_ID);
+  }
+
+  /** Returns true if field partStart is set (has been assigned a value) and false otherwise */
+  public boolean isSetPartStart() {
+    return EncodingUtils.testBit(__isset_bitfield, __PARTSTART_ISSET_ID);
+  }
+
+  public void setPartStartIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __PARTSTART_ISSET_ID, value);
+  }
+
+  public int getPartEnd() {
+    return this.partEnd;
+  }
+
+  public PersistFile setPartEnd(int partEnd) {
+    this.partEnd = partEnd;
+    setPartEndIsSet(true);
+    return this;
+  }
+
+  public void unsetPartEnd() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __PARTEND_ISSET_ID);
+  }
+
+  /** Returns true if field partEnd is set (has been assigned a value) and false otherwise */
+  public boolean isSetPartEnd() {
+    return EncodingUtils.testBit(__isset_bitfield, __PARTEND_ISSET_ID);
+  }
+
+  public void setPartEndIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __PARTEND_ISSET_ID, value);
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case FILE_ID:
@@ -242,6 +390,38 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
       }
       break;
 
+    case PART_INDEX:
+      if (value == null) {
+        unsetPartIndex();
+      } else {
+        setPartIndex((Integer)value);
+      }
+      break;
+
+    case PART_COUNT:
+      if (value == null) {
+        unsetPartCount();
+      } else {
+        setPartCount((Integer)value);
+      }
+      break;
+
+    case PART_START:
+      if (value == null) {
+        unsetPartStart();
+      } else {
+        setPartStart((Integer)value);
+      }
+      break;
+
+    case PART_END:
+      if (value == null) {
+        unsetPartEnd();
+      } else {
+        setPartEnd((Integer)value);
+      }
+      break;
+
     }
   }
 
@@ -253,6 +433,18 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
     case BLOCK_IDS:
       return getBlockIds();
 
+    case PART_INDEX:
+      return getPartIndex();
+
+    case PART_COUNT:
+      return getPartCount();
+
+    case PART_START:
+      return getPartStart();
+
+    case PART_END:
+      return getPartEnd();
+
     }
     throw new IllegalStateException();
   }
@@ -268,6 +460,14 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
       return isSetFileId();
     case BLOCK_IDS:
       return isSetBlockIds();
+    case PART_INDEX:
+      return isSetPartIndex();
+    case PART_COUNT:
+      return isSetPartCount();
+    case PART_START:
+      return isSetPartStart();
+    case PART_END:
+      return isSetPartEnd();
     }
     throw new IllegalStateException();
   }
@@ -303,6 +503,42 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
         return false;
     }
 
+    boolean this_present_partIndex = true;
+    boolean that_present_partIndex = true;
+    if (this_present_partIndex || that_present_partIndex) {
+      if (!(this_present_partIndex && that_present_partIndex))
+        return false;
+      if (this.partIndex != that.partIndex)
+        return false;
+    }
+
+    boolean this_present_partCount = true;
+    boolean that_present_partCount = true;
+    if (this_present_partCount || that_present_partCount) {
+      if (!(this_present_partCount && that_present_partCount))
+        return false;
+      if (this.partCount != that.partCount)
+        return false;
+    }
+
+    boolean this_present_partStart = true;
+    boolean that_present_partStart = true;
+    if (this_present_partStart || that_present_partStart) {
+      if (!(this_present_partStart && that_present_partStart))
+        return false;
+      if (this.partStart != that.partStart)
+        return false;
+    }
+
+    boolean this_present_partEnd = true;
+    boolean that_present_partEnd = true;
+    if (this_present_partEnd || that_present_partEnd) {
+      if (!(this_present_partEnd && that_present_partEnd))
+        return false;
+      if (this.partEnd != that.partEnd)
+        return false;
+    }
+
     return true;
   }
 
@@ -320,6 +556,26 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
     if (present_blockIds)
       list.add(blockIds);
 
+    boolean present_partIndex = true;
+    list.add(present_partIndex);
+    if (present_partIndex)
+      list.add(partIndex);
+
+    boolean present_partCount = true;
+    list.add(present_partCount);
+    if (present_partCount)
+      list.add(partCount);
+
+    boolean present_partStart = true;
+    list.add(present_partStart);
+    if (present_partStart)
+      list.add(partStart);
+
+    boolean present_partEnd = true;
+    list.add(present_partEnd);
+    if (present_partEnd)
+      list.add(partEnd);
+
     return list.hashCode();
   }
 
@@ -351,6 +607,46 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetPartIndex()).compareTo(other.isSetPartIndex());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetPartIndex()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.partIndex, other.partIndex);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = Boolean.valueOf(isSetPartCount()).compareTo(other.isSetPartCount());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetPartCount()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.partCount, other.partCount);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = Boolean.valueOf(isSetPartStart()).compareTo(other.isSetPartStart());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetPartStart()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.partStart, other.partStart);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = Boolean.valueOf(isSetPartEnd()).compareTo(other.isSetPartEnd());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetPartEnd()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.partEnd, other.partEnd);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -382,6 +678,22 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
       sb.append(this.blockIds);
     }
     first = false;
+    if (!first) sb.append(", ");
+    sb.append("partIndex:");
+    sb.append(this.partIndex);
+    first = false;
+    if (!first) sb.append(", ");
+    sb.append("partCount:");
+    sb.append(this.partCount);
+    first = false;
+    if (!first) sb.append(", ");
+    sb.append("partStart:");
+    sb.append(this.partStart);
+    first = false;
+    if (!first) sb.append(", ");
+    sb.append("partEnd:");
+    sb.append(this.partEnd);
+    first = false;
     sb.append(")");
     return sb.toString();
   }
@@ -453,6 +765,38 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 3: // PART_INDEX
+            if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+              struct.partIndex = iprot.readI32();
+              struct.setPartIndexIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 4: // PART_COUNT
+            if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+              struct.partCount = iprot.readI32();
+              struct.setPartCountIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 5: // PART_START
+            if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+              struct.partStart = iprot.readI32();
+              struct.setPartStartIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 6: // PART_END
+            if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+              struct.partEnd = iprot.readI32();
+              struct.setPartEndIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -483,6 +827,18 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
         }
         oprot.writeFieldEnd();
       }
+      oprot.writeFieldBegin(PART_INDEX_FIELD_DESC);
+      oprot.writeI32(struct.partIndex);
+      oprot.writeFieldEnd();
+      oprot.writeFieldBegin(PART_COUNT_FIELD_DESC);
+      oprot.writeI32(struct.partCount);
+      oprot.writeFieldEnd();
+      oprot.writeFieldBegin(PART_START_FIELD_DESC);
+      oprot.writeI32(struct.partStart);
+      oprot.writeFieldEnd();
+      oprot.writeFieldBegin(PART_END_FIELD_DESC);
+      oprot.writeI32(struct.partEnd);
+      oprot.writeFieldEnd();
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -507,7 +863,19 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
       if (struct.isSetBlockIds()) {
         optionals.set(1);
       }
-      oprot.writeBitSet(optionals, 2);
+      if (struct.isSetPartIndex()) {
+        optionals.set(2);
+      }
+      if (struct.isSetPartCount()) {
+        optionals.set(3);
+      }
+      if (struct.isSetPartStart()) {
+        optionals.set(4);
+      }
+      if (struct.isSetPartEnd()) {
+        optionals.set(5);
+      }
+      oprot.writeBitSet(optionals, 6);
       if (struct.isSetFileId()) {
         oprot.writeI64(struct.fileId);
       }
@@ -520,12 +888,24 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
           }
         }
       }
+      if (struct.isSetPartIndex()) {
+        oprot.writeI32(struct.partIndex);
+      }
+      if (struct.isSetPartCount()) {
+        oprot.writeI32(struct.partCount);
+      }
+      if (struct.isSetPartStart()) {
+        oprot.writeI32(struct.partStart);
+      }
+      if (struct.isSetPartEnd()) {
+        oprot.writeI32(struct.partEnd);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, PersistFile struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(2);
+      BitSet incoming = iprot.readBitSet(6);
       if (incoming.get(0)) {
         struct.fileId = iprot.readI64();
         struct.setFileIdIsSet(true);
@@ -543,6 +923,22 @@ public class PersistFile implements org.apache.thrift.TBase<PersistFile, Persist
         }
         struct.setBlockIdsIsSet(true);
       }
+      if (incoming.get(2)) {
+        struct.partIndex = iprot.readI32();
+        struct.setPartIndexIsSet(true);
+      }
+      if (incoming.get(3)) {
+        struct.partCount = iprot.readI32();
+        struct.setPartCountIsSet(true);
+      }
+      if (incoming.get(4)) {
+        struct.partStart = iprot.readI32();
+        struct.setPartStartIsSet(true);
+      }
+      if (incoming.get(5)) {
+        struct.partEnd = iprot.readI32();
+        struct.setPartEndIsSet(true);
+      }
     }
   }
 
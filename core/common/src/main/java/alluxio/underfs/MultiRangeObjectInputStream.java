@@ -0,0 +1,431 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs;
+
+import alluxio.Configuration;
+import alluxio.PropertyKey;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A stream for reading an object from an object store with ranged requests, which fetches the
+ * chunks of the object after the position of the stream concurrently, so that reading a large
+ * object sequentially is not limited by the throughput of a single connection.
+ * <p>
+ * The object is read in chunks of a fixed size, each fetched with its own ranged request on the
+ * executor. Chunks are only fetched ahead of the position once the stream moves to the next chunk.
+ * The number of chunks fetched ahead then starts at one and doubles each time the stream moves to
+ * the next chunk, up to a maximum, and drops back to none when the stream moves elsewhere, so that
+ * random reads do not fetch chunks they do not read. Each read still fetches the whole chunk
+ * containing its position, so small random reads should use {@link #positionedRead}, which fetches
+ * exactly the requested bytes. Seeking and skipping within the fetched chunks do not issue any
+ * request.
+ * <p>
+ * The chunks fetched ahead by all the streams share a memory budget of
+ * {@link PropertyKey#UNDERFS_OBJECT_STORE_READ_AHEAD_MEMORY_MAX}. A stream fetches fewer chunks
+ * ahead, or none, when the budget is used up.
+ */
+@NotThreadSafe
+public abstract class MultiRangeObjectInputStream extends InputStream {
+  /** The memory of the chunks fetched ahead by all the streams. */
+  private static final ReadAheadMemory READ_AHEAD_MEMORY = new ReadAheadMemory(
+      Configuration.getBytes(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_MEMORY_MAX));
+
+  /** The length of the object. */
+  private final long mLength;
+
+  /** The executor fetching the chunks. */
+  private final ExecutorService mExecutor;
+
+  /** The size of the chunks. */
+  private final int mChunkSize;
+
+  /** The maximum number of chunks fetched ahead of the current chunk. */
+  private final int mMaxReadAheadChunks;
+
+  /** The memory budget of the chunks fetched ahead. */
+  private final ReadAheadMemory mReadAheadMemory;
+
+  /**
+   * The fetches of the chunks after the current chunk, by chunk index. Each holds its length in
+   * the read-ahead memory budget until it becomes the current chunk or is dropped.
+   */
+  private final TreeMap<Long, Future<byte[]>> mChunks = new TreeMap<>();
+
+  /** The number of chunks fetched ahead of the current chunk. */
+  private int mReadAheadChunks;
+
+  /** The index of the current chunk, or -1 if there is no current chunk. */
+  private long mChunkIndex = -1;
+
+  /** The bytes of the current chunk. */
+  private byte[] mChunk;
+
+  /** The position of the stream. */
+  private long mPos;
+
+  /** Flag to indicate this stream has been closed, to ensure close is only done once. */
+  private boolean mClosed = false;
+
+  /**
+   * Creates a stream with the chunk size and the read-ahead window in the configuration.
+   *
+   * @param length the length of the object
+   * @param position the position to begin reading from
+   * @param executor the executor to fetch the chunks with
+   */
+  protected MultiRangeObjectInputStream(long length, long position, ExecutorService executor) {
+    this(length, position, executor,
+        Configuration.getBytes(PropertyKey.UNDERFS_OBJECT_STORE_READ_CHUNK_SIZE),
+        Configuration.getInt(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX));
+  }
+
+  /**
+   * Creates a stream.
+   *
+   * @param length the length of the object
+   * @param position the position to begin reading from
+   * @param executor the executor to fetch the chunks with
+   * @param chunkSize the size of the chunks
+   * @param maxReadAheadChunks the maximum number of chunks fetched ahead of the current chunk
+   */
+  protected MultiRangeObjectInputStream(long length, long position, ExecutorService executor,
+      long chunkSize, int maxReadAheadChunks) {
+    this(length, position, executor, chunkSize, maxReadAheadChunks, READ_AHEAD_MEMORY);
+  }
+
+  /**
+   * Creates a stream with its own read-ahead memory budget.
+   *
+   * @param length the length of the object
+   * @param position the position to begin reading from
+   * @param executor the executor to fetch the chunks with
+   * @param chunkSize the size of the chunks
+   * @param maxReadAheadChunks the maximum number of chunks fetched ahead of the current chunk
+   * @param readAheadMemory the memory budget of the chunks fetched ahead
+   */
+  MultiRangeObjectInputStream(long length, long position, ExecutorService executor,
+      long chunkSize, int maxReadAheadChunks, ReadAheadMemory readAheadMemory) {
+    Preconditions.checkArgument(length >= 0, "Invalid length: %s", length);
+    Preconditions.checkArgument(position >= 0, "Invalid position: %s", position);
+    Preconditions.checkArgument(chunkSize > 0 && chunkSize <= Integer.MAX_VALUE,
+        "Invalid chunk size: %s", chunkSize);
+    Preconditions.checkArgument(maxReadAheadChunks >= 0, "Invalid number of read-ahead chunks: %s",
+        maxReadAheadChunks);
+    mLength = length;
+    mPos = position;
+    mExecutor = Preconditions.checkNotNull(executor);
+    mChunkSize = (int) chunkSize;
+    mMaxReadAheadChunks = maxReadAheadChunks;
+    mReadAheadMemory = Preconditions.checkNotNull(readAheadMemory);
+    mReadAheadChunks = 0;
+  }
+
+  /**
+   * Opens a stream of a range of the object.
+   *
+   * @param start the start of the range, inclusive
+   * @param end the end of the range, exclusive, which is at most the length of the object
+   * @return a stream of the bytes in the range
+   * @throws IOException if the range fails to be opened
+   */
+  protected abstract InputStream openRange(long start, long end) throws IOException;
+
+  @Override
+  public int read() throws IOException {
+    checkNotClosed();
+    if (mPos >= mLength) {
+      return -1;
+    }
+    byte[] chunk = currentChunk();
+    return chunk[(int) (mPos++ - mChunkIndex * mChunkSize)] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b) throws IOException {
+    return read(b, 0, b.length);
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    Preconditions.checkPositionIndexes(off, off + len, b.length);
+    checkNotClosed();
+    if (len == 0) {
+      return 0;
+    }
+    if (mPos >= mLength) {
+      return -1;
+    }
+    int read = 0;
+    while (read < len && mPos < mLength) {
+      byte[] chunk = currentChunk();
+      int chunkOffset = (int) (mPos - mChunkIndex * mChunkSize);
+      int toCopy = Math.min(len - read, chunk.length - chunkOffset);
+      System.arraycopy(chunk, chunkOffset, b, off + read, toCopy);
+      mPos += toCopy;
+      read += toCopy;
+    }
+    return read;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    checkNotClosed();
+    if (n <= 0) {
+      return 0;
+    }
+    long toSkip = Math.min(n, mLength - mPos);
+    mPos += toSkip;
+    return toSkip;
+  }
+
+  /**
+   * Reads bytes at a position of the object, without moving the stream. The bytes are fetched
+   * with a single ranged request for exactly the requested range, which is cheaper than fetching
+   * whole chunks for small random reads.
+   *
+   * @param position the position of the object to read from
+   * @param b the buffer to read into
+   * @param off the offset in the buffer
+   * @param len the number of bytes to read
+   * @return the number of bytes read, which is less than the requested number only at the end of
+   *         the object, or -1 if the position is at or past the end of the object
+   * @throws IOException if the bytes fail to be read
+   */
+  public int positionedRead(long position, byte[] b, int off, int len) throws IOException {
+    Preconditions.checkPositionIndexes(off, off + len, b.length);
+    Preconditions.checkArgument(position >= 0, "Invalid position: %s", position);
+    checkNotClosed();
+    if (len == 0) {
+      return 0;
+    }
+    if (position >= mLength) {
+      return -1;
+    }
+    int read = (int) Math.min(len, mLength - position);
+    try (InputStream in = openRange(position, position + read)) {
+      ByteStreams.readFully(in, b, off, read);
+    }
+    return read;
+  }
+
+  /**
+   * Moves the stream to a position of the object. No request is issued until the stream is read.
+   *
+   * @param position the position to move to
+   * @throws IOException if the stream is closed
+   */
+  public void seek(long position) throws IOException {
+    Preconditions.checkArgument(position >= 0, "Invalid position: %s", position);
+    checkNotClosed();
+    mPos = position;
+  }
+
+  /**
+   * @return the position of the stream
+   */
+  public long getPos() {
+    return mPos;
+  }
+
+  @Override
+  public int available() throws IOException {
+    checkNotClosed();
+    if (mChunk == null || mPos / mChunkSize != mChunkIndex) {
+      return 0;
+    }
+    return (int) (mChunkIndex * mChunkSize + mChunk.length - mPos);
+  }
+
+  @Override
+  public void close() {
+    if (mClosed) {
+      return;
+    }
+    mClosed = true;
+    for (Map.Entry<Long, Future<byte[]>> entry : mChunks.entrySet()) {
+      entry.getValue().cancel(true);
+      mReadAheadMemory.release(chunkLength(entry.getKey()));
+    }
+    mChunks.clear();
+    mChunk = null;
+  }
+
+  /**
+   * Gets the chunk at the position of the stream, moving the read-ahead window so that it starts
+   * after that chunk.
+   *
+   * @return the bytes of the chunk at the position
+   * @throws IOException if the chunk fails to be fetched
+   */
+  private byte[] currentChunk() throws IOException {
+    long index = mPos / mChunkSize;
+    if (index == mChunkIndex) {
+      return mChunk;
+    }
+    if ((mChunkIndex >= 0 && index == mChunkIndex + 1) || mChunks.containsKey(index)) {
+      // The object is read sequentially, so the window grows to fetch more chunks concurrently.
+      mReadAheadChunks = Math.min(Math.max(mReadAheadChunks * 2, 1), mMaxReadAheadChunks);
+    } else {
+      // Nothing is fetched ahead until the object is read sequentially again.
+      mReadAheadChunks = 0;
+    }
+    // Drops the fetches out of the new window.
+    Iterator<Map.Entry<Long, Future<byte[]>>> iterator = mChunks.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Long, Future<byte[]>> entry = iterator.next();
+      if (entry.getKey() < index || entry.getKey() > index + mReadAheadChunks) {
+        entry.getValue().cancel(true);
+        iterator.remove();
+        mReadAheadMemory.release(chunkLength(entry.getKey()));
+      }
+    }
+    // The chunk being read is fetched first, and outside of the read-ahead memory budget.
+    Future<byte[]> fetch = mChunks.remove(index);
+    if (fetch != null) {
+      mReadAheadMemory.release(chunkLength(index));
+    } else {
+      fetch = submitFetch(index);
+    }
+    long numChunks = (mLength + mChunkSize - 1) / mChunkSize;
+    for (long i = index + 1; i <= index + mReadAheadChunks && i < numChunks; i++) {
+      if (!mChunks.containsKey(i)) {
+        if (!mReadAheadMemory.tryReserve(chunkLength(i))) {
+          break;
+        }
+        mChunks.put(i, submitFetch(i));
+      }
+    }
+    mChunk = null;
+    mChunkIndex = -1;
+    byte[] chunk = getFetch(fetch);
+    mChunk = chunk;
+    mChunkIndex = index;
+    return chunk;
+  }
+
+  /**
+   * @param index the index of a chunk
+   * @return the length of the chunk
+   */
+  private long chunkLength(long index) {
+    return Math.min(mChunkSize, mLength - index * mChunkSize);
+  }
+
+  /**
+   * Submits the fetch of a chunk of the object to the executor.
+   *
+   * @param index the index of the chunk
+   * @return the fetch of the bytes of the chunk
+   */
+  private Future<byte[]> submitFetch(long index) {
+    final long start = index * mChunkSize;
+    final long end = start + chunkLength(index);
+    return mExecutor.submit(new Callable<byte[]>() {
+      @Override
+      public byte[] call() throws IOException {
+        byte[] bytes = new byte[(int) (end - start)];
+        try (InputStream in = openRange(start, end)) {
+          ByteStreams.readFully(in, bytes);
+        }
+        return bytes;
+      }
+    });
+  }
+
+  /**
+   * @param fetch the fetch of a range
+   * @return the bytes of the range
+   * @throws IOException if the range fails to be fetched, or the wait is interrupted
+   */
+  private static byte[] getFetch(Future<byte[]> fetch) throws IOException {
+    try {
+      return fetch.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private void checkNotClosed() throws IOException {
+    if (mClosed) {
+      throw new IOException("Stream closed");
+    }
+  }
+
+  /**
+   * A memory budget for the chunks fetched ahead, shared by streams.
+   */
+  @ThreadSafe
+  static final class ReadAheadMemory {
+    private final long mMaxBytes;
+    private final AtomicLong mUsedBytes = new AtomicLong();
+
+    /**
+     * @param maxBytes the maximum number of bytes of the chunks fetched ahead
+     */
+    ReadAheadMemory(long maxBytes) {
+      Preconditions.checkArgument(maxBytes >= 0, "Invalid read-ahead memory: %s", maxBytes);
+      mMaxBytes = maxBytes;
+    }
+
+    /**
+     * @param bytes the number of bytes to reserve
+     * @return whether the bytes were reserved, false if the budget does not have room for them
+     */
+    boolean tryReserve(long bytes) {
+      while (true) {
+        long used = mUsedBytes.get();
+        if (used + bytes > mMaxBytes) {
+          return false;
+        }
+        if (mUsedBytes.compareAndSet(used, used + bytes)) {
+          return true;
+        }
+      }
+    }
+
+    /**
+     * @param bytes the number of reserved bytes to release
+     */
+    void release(long bytes) {
+      mUsedBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * @return the number of reserved bytes
+     */
+    long getUsedBytes() {
+      return mUsedBytes.get();
+    }
+  }
+}
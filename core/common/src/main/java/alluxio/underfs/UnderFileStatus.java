@@ -0,0 +1,194 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The metadata of a file or directory in an {@link UnderFileSystem}, fetched at once by
+ * {@link UnderFileSystem#getStatus(String)} or {@link UnderFileSystem#listStatus(String)}, so that
+ * loading the metadata of a path does not take one call to the under storage per attribute.
+ *
+ * The content length, block size and modification time are only set for files.
+ */
+@NotThreadSafe
+public final class UnderFileStatus {
+  private final String mName;
+  private final boolean mIsDirectory;
+  private long mContentLength;
+  private long mBlockSizeBytes;
+  private long mLastModifiedTimeMs;
+  private String mOwner;
+  private String mGroup;
+  private short mMode;
+
+  /**
+   * Creates a new instance of {@link UnderFileStatus}.
+   *
+   * @param name the name of the file or directory
+   * @param isDirectory whether the path is a directory
+   */
+  public UnderFileStatus(String name, boolean isDirectory) {
+    mName = Preconditions.checkNotNull(name);
+    mIsDirectory = isDirectory;
+    mOwner = "";
+    mGroup = "";
+  }
+
+  /**
+   * @return the name of the file or directory, relative to the listed directory for the statuses
+   *         returned by {@link UnderFileSystem#listStatus(String)}, or the path itself for the
+   *         status returned by {@link UnderFileSystem#getStatus(String)}
+   */
+  public String getName() {
+    return mName;
+  }
+
+  /**
+   * @return true if the path is a directory, false if it is a file
+   */
+  public boolean isDirectory() {
+    return mIsDirectory;
+  }
+
+  /**
+   * @return the length of the file in bytes
+   */
+  public long getContentLength() {
+    return mContentLength;
+  }
+
+  /**
+   * @return the block size of the file in bytes
+   */
+  public long getBlockSizeBytes() {
+    return mBlockSizeBytes;
+  }
+
+  /**
+   * @return the last modification time of the file in milliseconds
+   */
+  public long getLastModifiedTimeMs() {
+    return mLastModifiedTimeMs;
+  }
+
+  /**
+   * @return the owner of the path
+   */
+  public String getOwner() {
+    return mOwner;
+  }
+
+  /**
+   * @return the group of the path
+   */
+  public String getGroup() {
+    return mGroup;
+  }
+
+  /**
+   * @return the mode of the path in short format, e.g. 0700
+   */
+  public short getMode() {
+    return mMode;
+  }
+
+  /**
+   * @param contentLength the length of the file in bytes
+   * @return the updated object
+   */
+  public UnderFileStatus setContentLength(long contentLength) {
+    mContentLength = contentLength;
+    return this;
+  }
+
+  /**
+   * @param blockSizeBytes the block size of the file in bytes
+   * @return the updated object
+   */
+  public UnderFileStatus setBlockSizeBytes(long blockSizeBytes) {
+    mBlockSizeBytes = blockSizeBytes;
+    return this;
+  }
+
+  /**
+   * @param lastModifiedTimeMs the last modification time of the file in milliseconds
+   * @return the updated object
+   */
+  public UnderFileStatus setLastModifiedTimeMs(long lastModifiedTimeMs) {
+    mLastModifiedTimeMs = lastModifiedTimeMs;
+    return this;
+  }
+
+  /**
+   * @param owner the owner of the path
+   * @return the updated object
+   */
+  public UnderFileStatus setOwner(String owner) {
+    mOwner = Preconditions.checkNotNull(owner);
+    return this;
+  }
+
+  /**
+   * @param group the group of the path
+   * @return the updated object
+   */
+  public UnderFileStatus setGroup(String group) {
+    mGroup = Preconditions.checkNotNull(group);
+    return this;
+  }
+
+  /**
+   * @param mode the mode of the path in short format, e.g. 0700
+   * @return the updated object
+   */
+  public UnderFileStatus setMode(short mode) {
+    mMode = mode;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof UnderFileStatus)) {
+      return false;
+    }
+    UnderFileStatus that = (UnderFileStatus) o;
+    return mName.equals(that.mName)
+        && mIsDirectory == that.mIsDirectory
+        && mContentLength == that.mContentLength
+        && mBlockSizeBytes == that.mBlockSizeBytes
+        && mLastModifiedTimeMs == that.mLastModifiedTimeMs
+        && mOwner.equals(that.mOwner)
+        && mGroup.equals(that.mGroup)
+        && mMode == that.mMode;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(mName, mIsDirectory, mContentLength, mBlockSizeBytes,
+        mLastModifiedTimeMs, mOwner, mGroup, mMode);
+  }
+
+  @Override
+  public String toString() {
+    return Objects.toStringHelper(this).add("name", mName).add("isDirectory", mIsDirectory)
+        .add("contentLength", mContentLength).add("blockSizeBytes", mBlockSizeBytes)
+        .add("lastModifiedTimeMs", mLastModifiedTimeMs).add("owner", mOwner)
+        .add("group", mGroup).add("mode", mMode).toString();
+  }
+}
@@ -288,6 +288,20 @@ public abstract class UnderFileSystem {
    */
   public abstract void close() throws IOException;
 
+  /**
+   * Joins files into a new file, in the given order, and deletes them. The files to join must be
+   * in the same directory as the new file, and are only supported by under file systems for which
+   * {@link #supportsConcat()} returns true.
+   *
+   * @param dst the path of the new file, which must not exist
+   * @param srcs the paths of the files to join
+   * @throws IOException if the files fail to be joined, in which case the new file is not created
+   *         and the files to join are not deleted
+   */
+  public void concat(String dst, List<String> srcs) throws IOException {
+    throw new UnsupportedOperationException("concat is not supported by " + getUnderFSType());
+  }
+
   /**
    * Creates a file in the under file system with the indicated name.
    *
@@ -337,6 +351,25 @@ public abstract class UnderFileSystem {
    */
   public abstract boolean delete(String path, boolean recursive) throws IOException;
 
+  /**
+   * Deletes files from the under file system. Implementations should delete them in as few calls
+   * to the under storage as possible; this default implementation deletes them one at a time.
+   * Files which do not exist are considered deleted.
+   *
+   * @param paths the files to delete
+   * @return the paths of the files which failed to be deleted
+   * @throws IOException if a non-Alluxio error occurs
+   */
+  public List<String> deleteFiles(List<String> paths) throws IOException {
+    List<String> failedPaths = new ArrayList<>();
+    for (String path : paths) {
+      if (!delete(path, false) && exists(path)) {
+        failedPaths.add(path);
+      }
+    }
+    return failedPaths;
+  }
+
   /**
    * Checks if a file or folder exists in under file system.
    *
@@ -417,6 +450,41 @@ public abstract class UnderFileSystem {
    */
   public abstract long getSpace(String path, SpaceType type) throws IOException;
 
+  /**
+   * Gets the status of a file or directory, with all the metadata Alluxio loads from the under
+   * storage. Implementations should fetch it in as few calls to the under storage as possible; this
+   * default implementation makes one call per attribute.
+   *
+   * @param path the path of the file or directory
+   * @return the status of the path, named by the given path, or null if the path does not exist
+   * @throws IOException if a non-Alluxio error occurs
+   */
+  public UnderFileStatus getStatus(String path) throws IOException {
+    if (!exists(path)) {
+      return null;
+    }
+    return getStatus(path, path);
+  }
+
+  /**
+   * Gets the status of a path with the per attribute methods of the under file system.
+   *
+   * @param name the name of the status
+   * @param path the path of the file or directory, which must exist
+   * @return the status of the path
+   * @throws IOException if a non-Alluxio error occurs
+   */
+  private UnderFileStatus getStatus(String name, String path) throws IOException {
+    boolean isFile = isFile(path);
+    UnderFileStatus status = new UnderFileStatus(name, !isFile).setOwner(getOwner(path))
+        .setGroup(getGroup(path)).setMode(getMode(path));
+    if (isFile) {
+      status.setContentLength(getFileSize(path)).setBlockSizeBytes(getBlockSizeByte(path))
+          .setLastModifiedTimeMs(getModificationTimeMs(path));
+    }
+    return status;
+  }
+
   /**
    * Checks if the indicated path is a file or not.
    *
@@ -497,6 +565,33 @@ public abstract class UnderFileSystem {
     return returnPaths.toArray(new String[returnPaths.size()]);
   }
 
+  /**
+   * Returns the statuses of the files and directories in the directory denoted by this abstract
+   * pathname, like {@link #list(String)} does with their names. Implementations should take the
+   * statuses from the listing of the directory when the under storage returns them; this default
+   * implementation gets the status of every child separately.
+   *
+   * @param path the abstract pathname to list
+   * @return the statuses of the files and directories in the directory, named relative to the
+   *         directory, or {@code null} if this abstract pathname does not denote a directory
+   * @throws IOException if a non-Alluxio error occurs
+   */
+  public UnderFileStatus[] listStatus(String path) throws IOException {
+    String[] names = list(path);
+    if (names == null) {
+      return null;
+    }
+    List<UnderFileStatus> statuses = new ArrayList<>(names.length);
+    for (String name : names) {
+      String childPath = PathUtils.concatPath(path, name);
+      // Skip the children removed since the listing.
+      if (exists(childPath)) {
+        statuses.add(getStatus(name, childPath));
+      }
+    }
+    return statuses.toArray(new UnderFileStatus[statuses.size()]);
+  }
+
   /**
    * Creates the directory named by this abstract pathname. If the folder already exists, the method
    * returns false.
@@ -622,6 +717,15 @@ public abstract class UnderFileSystem {
    */
   public abstract short getMode(String path) throws IOException;
 
+  /**
+   * Whether this type of UFS supports joining files with {@link #concat(String, List)}.
+   *
+   * @return true if this type of UFS supports concat, false otherwise
+   */
+  public boolean supportsConcat() {
+    return false;
+  }
+
   /**
    * Whether this type of UFS supports flush.
    *
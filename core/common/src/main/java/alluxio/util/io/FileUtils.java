@@ -122,9 +122,17 @@ public final class FileUtils {
    * @throws IOException when fails to get the permission
    */
   public static short getLocalFileMode(String filePath) throws IOException {
-    Set<PosixFilePermission> permission =
-        Files.readAttributes(Paths.get(filePath), PosixFileAttributes.class).permissions();
-    // Translate posix file permissions to short mode.
+    return translatePosixPermissionToMode(
+        Files.readAttributes(Paths.get(filePath), PosixFileAttributes.class).permissions());
+  }
+
+  /**
+   * Translates posix file permissions to a mode.
+   *
+   * @param permission the posix file permissions
+   * @return the file mode in short, e.g. 0777
+   */
+  public static short translatePosixPermissionToMode(Set<PosixFilePermission> permission) {
     int mode = 0;
     for (PosixFilePermission action : PosixFilePermission.values()) {
       mode = mode << 1;
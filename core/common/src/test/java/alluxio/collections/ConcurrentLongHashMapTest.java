@@ -0,0 +1,181 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests the {@link ConcurrentLongHashMap} class.
+ */
+public class ConcurrentLongHashMapTest {
+
+  /**
+   * Tests putting, getting and removing entries.
+   */
+  @Test
+  public void putGetRemove() {
+    ConcurrentLongHashMap<String> map = new ConcurrentLongHashMap<>(0, 4);
+    Assert.assertNull(map.put(0L, "a"));
+    Assert.assertEquals("a", map.put(0L, "b"));
+    Assert.assertEquals("b", map.putIfAbsent(0L, "c"));
+    Assert.assertNull(map.putIfAbsent(-1L, "d"));
+    Assert.assertEquals("b", map.get(0L));
+    Assert.assertTrue(map.containsKey(-1L));
+    Assert.assertFalse(map.containsKey(1L));
+    Assert.assertEquals(2, map.size());
+
+    Assert.assertEquals("b", map.remove(0L));
+    Assert.assertNull(map.remove(0L));
+    Assert.assertNull(map.get(0L));
+    Assert.assertEquals(1, map.size());
+    map.clear();
+    Assert.assertEquals(0, map.size());
+    Assert.assertFalse(map.values().iterator().hasNext());
+  }
+
+  /**
+   * Tests that the map behaves like a {@link HashMap} under random updates.
+   */
+  @Test
+  public void randomOperations() {
+    Random random = new Random(0);
+    ConcurrentLongHashMap<Long> map = new ConcurrentLongHashMap<>(0, 1);
+    Map<Long, Long> expected = new HashMap<>();
+    for (int i = 0; i < 100000; i++) {
+      long key = ((long) random.nextInt(64) << 24) | random.nextInt(256);
+      if (random.nextInt(3) == 0) {
+        Assert.assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        Assert.assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+      }
+    }
+    Assert.assertEquals(expected.size(), map.size());
+    for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+      Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+    }
+    List<Long> values = new ArrayList<>();
+    for (long value : map.values()) {
+      values.add(value);
+    }
+    Assert.assertEquals(expected.size(), values.size());
+    Assert.assertTrue(values.containsAll(expected.values()));
+  }
+
+  /**
+   * Tests concurrent updates of disjoint keys.
+   */
+  @Test
+  public void concurrentPuts() throws Exception {
+    final ConcurrentLongHashMap<Long> map = new ConcurrentLongHashMap<>(0, 16);
+    final int numThreads = 8;
+    final int numKeys = 10000;
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        final long thread = t;
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            for (long i = 0; i < numKeys; i++) {
+              long key = (thread << 24) | i;
+              map.put(key, key);
+              if (i % 2 == 0) {
+                map.remove(key);
+              }
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Assert.assertEquals(numThreads * numKeys / 2, map.size());
+    for (long t = 0; t < numThreads; t++) {
+      for (long i = 0; i < numKeys; i++) {
+        long key = (t << 24) | i;
+        Assert.assertEquals(i % 2 == 0 ? null : (Long) key, map.get(key));
+      }
+    }
+  }
+
+  /**
+   * Tests that lookups, which do not lock the segments, always find the entries which are not
+   * updated while other entries are added and removed, and the tables are rebuilt.
+   */
+  @Test
+  public void concurrentGetsDuringUpdates() throws Exception {
+    final ConcurrentLongHashMap<Long> map = new ConcurrentLongHashMap<>(0, 2);
+    final int numStableKeys = 1000;
+    for (long key = 0; key < numStableKeys; key++) {
+      map.put(key, key);
+    }
+    final AtomicBoolean done = new AtomicBoolean(false);
+    ExecutorService executor = Executors.newFixedThreadPool(5);
+    try {
+      List<Future<Void>> readers = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        readers.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            while (!done.get()) {
+              for (long key = 0; key < numStableKeys; key++) {
+                Assert.assertEquals((Long) key, map.get(key));
+              }
+            }
+            return null;
+          }
+        }));
+      }
+      Future<Void> writer = executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() {
+          try {
+            Random random = new Random(0);
+            for (int i = 0; i < 1000000; i++) {
+              long key = (1L << 32) | random.nextInt(20000);
+              if (map.put(key, key) != null) {
+                map.remove(key);
+              }
+            }
+          } finally {
+            done.set(true);
+          }
+          return null;
+        }
+      });
+      writer.get();
+      for (Future<Void> reader : readers) {
+        reader.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Assert.assertEquals((Long) 0L, map.get(0L));
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests the {@link LongHashSet} class.
+ */
+public class LongHashSetTest {
+
+  /**
+   * Tests adding, looking up and removing elements, including 0 which marks the free slots.
+   */
+  @Test
+  public void addContainsRemove() {
+    LongHashSet set = new LongHashSet();
+    Assert.assertTrue(set.add(0L));
+    Assert.assertTrue(set.add(-1L));
+    Assert.assertTrue(set.add(Long.MAX_VALUE));
+    Assert.assertFalse(set.add(0L));
+    Assert.assertFalse(set.add(-1L));
+    Assert.assertEquals(3, set.size());
+    Assert.assertTrue(set.contains(0L));
+    Assert.assertTrue(set.contains(Long.MAX_VALUE));
+    Assert.assertFalse(set.contains(1L));
+
+    Assert.assertTrue(set.remove(0L));
+    Assert.assertFalse(set.remove(0L));
+    Assert.assertFalse(set.contains(0L));
+    Assert.assertTrue(set.remove(-1L));
+    Assert.assertFalse(set.remove(1L));
+    Assert.assertEquals(ImmutableSet.of(Long.MAX_VALUE), set);
+  }
+
+  /**
+   * Tests that the set behaves like a {@link HashSet} under random additions and removals, which
+   * exercise the growth of the table and the shifting of the probe sequences on removal.
+   */
+  @Test
+  public void randomOperations() {
+    Random random = new Random(0);
+    LongHashSet set = new LongHashSet();
+    Set<Long> expected = new HashSet<>();
+    for (int i = 0; i < 100000; i++) {
+      // Block ids of a few containers, so the keys collide in their low bits.
+      long element = ((long) random.nextInt(64) << 24) | random.nextInt(256);
+      if (random.nextInt(3) == 0) {
+        Assert.assertEquals(expected.remove(element), set.remove(element));
+      } else {
+        Assert.assertEquals(expected.add(element), set.add(element));
+      }
+      Assert.assertEquals(expected.size(), set.size());
+    }
+    Assert.assertEquals(expected, set);
+    for (long element : expected) {
+      Assert.assertTrue(set.contains(element));
+    }
+  }
+
+  /**
+   * Tests copying a set and converting it to an array.
+   */
+  @Test
+  public void copyAndToLongArray() {
+    LongHashSet set = new LongHashSet(Arrays.asList(3L, 0L, 1L, 2L));
+    LongHashSet copy = new LongHashSet(set);
+    set.remove(3L);
+    Assert.assertEquals(ImmutableSet.of(0L, 1L, 2L, 3L), copy);
+
+    long[] elements = copy.toLongArray();
+    Arrays.sort(elements);
+    Assert.assertArrayEquals(new long[] {0L, 1L, 2L, 3L}, elements);
+  }
+
+  /**
+   * Tests clearing the set.
+   */
+  @Test
+  public void clear() {
+    LongHashSet set = new LongHashSet(Arrays.asList(0L, 1L, 2L));
+    set.clear();
+    Assert.assertTrue(set.isEmpty());
+    Assert.assertFalse(set.contains(0L));
+    Assert.assertFalse(set.iterator().hasNext());
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.block;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Longs;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests for {@link BlockIdsCodec}.
+ */
+public final class BlockIdsCodecTest {
+
+  /**
+   * Tests that encoded block ids are decoded in ascending order, with and without compression.
+   */
+  @Test
+  public void encodeDecode() {
+    List<Long> blockIds = Arrays.asList(5L, 1L, Long.MAX_VALUE, 0L, 1L << 40, 3L);
+    long[] expected = {0L, 1L, 3L, 5L, 1L << 40, Long.MAX_VALUE};
+    for (boolean compress : new boolean[] {false, true}) {
+      Assert.assertArrayEquals(expected,
+          BlockIdsCodec.decode(BlockIdsCodec.encode(blockIds, compress)));
+    }
+  }
+
+  /**
+   * Tests encoding an empty list of block ids.
+   */
+  @Test
+  public void encodeDecodeEmpty() {
+    for (boolean compress : new boolean[] {false, true}) {
+      Assert.assertEquals(0,
+          BlockIdsCodec.decode(BlockIdsCodec.encode(new ArrayList<Long>(), compress)).length);
+    }
+  }
+
+  /**
+   * Tests that a large number of sequential block ids takes about a byte per block.
+   */
+  @Test
+  public void encodeSequentialIds() {
+    List<Long> blockIds = new ArrayList<>();
+    Random random = new Random(0);
+    for (long containerId = 0; containerId < 100; containerId++) {
+      for (long sequence = 0; sequence < 1000; sequence += 1 + random.nextInt(3)) {
+        blockIds.add((containerId << 24) | sequence);
+      }
+    }
+    Collections.shuffle(blockIds, random);
+    ByteBuffer encoded = BlockIdsCodec.encode(blockIds, false);
+    Assert.assertTrue(encoded.remaining() < blockIds.size() + 1024);
+    ByteBuffer compressed = BlockIdsCodec.encode(blockIds, true);
+    Assert.assertTrue(compressed.remaining() < encoded.remaining());
+
+    long[] expected = Longs.toArray(blockIds);
+    Arrays.sort(expected);
+    Assert.assertArrayEquals(expected, BlockIdsCodec.decode(encoded));
+    Assert.assertArrayEquals(expected, BlockIdsCodec.decode(compressed));
+  }
+
+  /**
+   * Tests encoding the block ids on each tier.
+   */
+  @Test
+  public void encodeDecodeTiers() {
+    Map<String, List<Long>> blocksOnTiers = ImmutableMap.<String, List<Long>>of(
+        "MEM", Arrays.asList(3L, 1L, 2L), "SSD", new ArrayList<Long>(), "HDD", Arrays.asList(7L));
+    for (boolean compress : new boolean[] {false, true}) {
+      Map<String, long[]> decoded =
+          BlockIdsCodec.decodeTiers(BlockIdsCodec.encodeTiers(blocksOnTiers, compress));
+      Assert.assertEquals(blocksOnTiers.keySet(), decoded.keySet());
+      Assert.assertArrayEquals(new long[] {1L, 2L, 3L}, decoded.get("MEM"));
+      Assert.assertArrayEquals(new long[0], decoded.get("SSD"));
+      Assert.assertArrayEquals(new long[] {7L}, decoded.get("HDD"));
+    }
+  }
+
+  /**
+   * Tests that decoding a buffer does not change its position.
+   */
+  @Test
+  public void decodeKeepsPosition() {
+    ByteBuffer encoded = BlockIdsCodec.encode(Arrays.asList(1L, 2L), false);
+    int remaining = encoded.remaining();
+    BlockIdsCodec.decode(encoded);
+    Assert.assertEquals(remaining, encoded.remaining());
+  }
+
+  /**
+   * Tests that truncated buffers are rejected.
+   */
+  @Test
+  public void decodeTruncated() {
+    for (boolean compress : new boolean[] {false, true}) {
+      ByteBuffer encoded = BlockIdsCodec.encode(Arrays.asList(1L, 1000L, 1L << 50), compress);
+      encoded.limit(encoded.limit() - 1);
+      try {
+        BlockIdsCodec.decode(encoded);
+        Assert.fail("Decoding truncated block ids should fail");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+}
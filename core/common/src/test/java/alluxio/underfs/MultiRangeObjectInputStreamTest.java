@@ -0,0 +1,261 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs;
+
+import alluxio.util.io.BufferUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Unit tests for {@link MultiRangeObjectInputStream}.
+ */
+public final class MultiRangeObjectInputStreamTest {
+  private static final int CHUNK_SIZE = 100;
+  private static final int LENGTH = 1050;
+  private static final byte[] DATA = BufferUtils.getIncreasingByteArray(LENGTH);
+
+  private ExecutorService mExecutor;
+  private MultiRangeObjectInputStream.ReadAheadMemory mReadAheadMemory;
+  /** The ranges requested by the streams, as pairs of start and end. */
+  private List<long[]> mRanges;
+
+  /**
+   * A stream of an object in memory, which records the requested ranges.
+   */
+  private final class TestStream extends MultiRangeObjectInputStream {
+    TestStream(long position, int maxReadAheadChunks) {
+      this(position, maxReadAheadChunks, mReadAheadMemory);
+    }
+
+    TestStream(long position, int maxReadAheadChunks, ReadAheadMemory readAheadMemory) {
+      super(LENGTH, position, mExecutor, CHUNK_SIZE, maxReadAheadChunks, readAheadMemory);
+    }
+
+    @Override
+    protected InputStream openRange(long start, long end) throws IOException {
+      Assert.assertTrue(start >= 0 && start < end && end <= LENGTH);
+      mRanges.add(new long[] {start, end});
+      return new ByteArrayInputStream(DATA, (int) start, (int) (end - start));
+    }
+  }
+
+  /**
+   * Sets up the executor before each test runs.
+   */
+  @Before
+  public void before() {
+    mExecutor = Executors.newCachedThreadPool();
+    mReadAheadMemory = new MultiRangeObjectInputStream.ReadAheadMemory(LENGTH);
+    mRanges = Collections.synchronizedList(new ArrayList<long[]>());
+  }
+
+  /**
+   * Stops the executor after each test.
+   */
+  @After
+  public void after() {
+    mExecutor.shutdownNow();
+  }
+
+  /**
+   * Tests that reading the whole object returns its bytes, with one request per chunk.
+   */
+  @Test
+  public void readSequentially() throws Exception {
+    byte[] read = new byte[LENGTH + CHUNK_SIZE];
+    int total = 0;
+    try (TestStream stream = new TestStream(0, 4)) {
+      Assert.assertEquals(DATA[0], (byte) stream.read());
+      total = 1;
+      int n;
+      while ((n = stream.read(read, total, 77)) != -1) {
+        total += n;
+      }
+      Assert.assertEquals(-1, stream.read());
+    }
+    Assert.assertEquals(LENGTH, total);
+    Assert.assertArrayEquals(DATA, Arrays.copyOf(read, LENGTH));
+    Assert.assertEquals((LENGTH + CHUNK_SIZE - 1) / CHUNK_SIZE, mRanges.size());
+  }
+
+  /**
+   * Tests that the chunks after the position are only fetched ahead of the reads once the object
+   * is read sequentially, with a window which grows up to the maximum.
+   */
+  @Test
+  public void readAhead() throws Exception {
+    try (TestStream stream = new TestStream(0, 4)) {
+      stream.read();
+      // Only the first chunk.
+      Assert.assertEquals(1, fetchedChunks());
+      stream.skip(CHUNK_SIZE);
+      stream.read();
+      // Chunk 1 and one chunk ahead.
+      Assert.assertEquals(3, fetchedChunks());
+      stream.skip(CHUNK_SIZE);
+      stream.read();
+      // The window doubles to two chunks ahead of chunk 2.
+      Assert.assertEquals(5, fetchedChunks());
+      stream.skip(CHUNK_SIZE);
+      stream.read();
+      // The window reaches the maximum of four chunks ahead of chunk 3.
+      Assert.assertEquals(8, fetchedChunks());
+    }
+  }
+
+  /**
+   * Tests that seeking moves the stream without issuing requests, and that random reads do not
+   * fetch any chunk ahead.
+   */
+  @Test
+  public void seek() throws Exception {
+    try (TestStream stream = new TestStream(0, 4)) {
+      stream.seek(555);
+      Assert.assertEquals(555, stream.getPos());
+      Assert.assertTrue(mRanges.isEmpty());
+      Assert.assertEquals(DATA[555], (byte) stream.read());
+      Assert.assertEquals(1, fetchedChunks());
+      stream.seek(10);
+      Assert.assertEquals(DATA[10], (byte) stream.read());
+      Assert.assertEquals(DATA[11], (byte) stream.read());
+      Assert.assertEquals(2, fetchedChunks());
+      Assert.assertEquals(LENGTH - 12, stream.skip(LENGTH));
+      Assert.assertEquals(-1, stream.read());
+    }
+  }
+
+  /**
+   * Tests that the chunks fetched ahead by the streams are bounded by their shared memory budget,
+   * and that the budget is released as the chunks are read and when the streams are closed.
+   */
+  @Test
+  public void readAheadMemory() throws Exception {
+    MultiRangeObjectInputStream.ReadAheadMemory memory =
+        new MultiRangeObjectInputStream.ReadAheadMemory(3 * CHUNK_SIZE);
+    try (TestStream stream1 = new TestStream(0, 4, memory);
+         TestStream stream2 = new TestStream(0, 4, memory)) {
+      stream1.read();
+      stream1.seek(CHUNK_SIZE);
+      stream1.read();
+      stream1.seek(2 * CHUNK_SIZE);
+      stream1.read();
+      // Chunks 3 and 4 are fetched ahead of chunk 2.
+      Assert.assertEquals(2 * CHUNK_SIZE, memory.getUsedBytes());
+      stream2.read();
+      stream2.seek(CHUNK_SIZE);
+      stream2.read();
+      // Only chunk 2 fits in the budget.
+      Assert.assertEquals(3 * CHUNK_SIZE, memory.getUsedBytes());
+      stream2.seek(2 * CHUNK_SIZE);
+      stream2.read();
+      // Chunk 2 is read, which makes room for chunk 3 only.
+      Assert.assertEquals(3 * CHUNK_SIZE, memory.getUsedBytes());
+      stream1.close();
+      Assert.assertEquals(CHUNK_SIZE, memory.getUsedBytes());
+    }
+    Assert.assertEquals(0, memory.getUsedBytes());
+  }
+
+  /**
+   * Tests that positional reads return the bytes of the range without moving the stream, with a
+   * single request for exactly the range.
+   */
+  @Test
+  public void positionedRead() throws Exception {
+    try (TestStream stream = new TestStream(0, 4)) {
+      stream.read();
+      int requests = mRanges.size();
+      byte[] read = new byte[250];
+      Assert.assertEquals(250, stream.positionedRead(50, read, 0, 250));
+      Assert.assertArrayEquals(Arrays.copyOfRange(DATA, 50, 300), read);
+      Assert.assertEquals(1, stream.getPos());
+      Assert.assertEquals(requests + 1, mRanges.size());
+      Assert.assertArrayEquals(new long[] {50, 300}, mRanges.get(mRanges.size() - 1));
+
+      Assert.assertEquals(50, stream.positionedRead(1000, read, 0, 250));
+      Assert.assertArrayEquals(Arrays.copyOfRange(DATA, 1000, LENGTH), Arrays.copyOf(read, 50));
+      Assert.assertArrayEquals(new long[] {1000, LENGTH}, mRanges.get(mRanges.size() - 1));
+      Assert.assertEquals(-1, stream.positionedRead(LENGTH, read, 0, 1));
+      Assert.assertEquals(DATA[1], (byte) stream.read());
+    }
+  }
+
+  /**
+   * Tests that a stream opened at a position starts reading there.
+   */
+  @Test
+  public void openAtPosition() throws Exception {
+    try (TestStream stream = new TestStream(1040, 4)) {
+      byte[] read = new byte[20];
+      Assert.assertEquals(10, stream.read(read));
+      Assert.assertArrayEquals(Arrays.copyOfRange(DATA, 1040, LENGTH), Arrays.copyOf(read, 10));
+      Assert.assertEquals(1, mRanges.size());
+    }
+  }
+
+  /**
+   * Tests that a stream without read-ahead only fetches the chunk being read.
+   */
+  @Test
+  public void noReadAhead() throws Exception {
+    try (TestStream stream = new TestStream(0, 0)) {
+      byte[] read = new byte[CHUNK_SIZE];
+      Assert.assertEquals(CHUNK_SIZE, stream.read(read));
+      Assert.assertEquals(1, mRanges.size());
+    }
+  }
+
+  /**
+   * Tests that a closed stream cannot be read.
+   */
+  @Test
+  public void close() throws Exception {
+    TestStream stream = new TestStream(0, 4);
+    stream.close();
+    try {
+      stream.read();
+      Assert.fail("Reading a closed stream should fail");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  /**
+   * @return the number of distinct chunks requested
+   */
+  private int fetchedChunks() throws InterruptedException {
+    // The fetches are submitted before the read returns, but may not have started yet.
+    Thread.sleep(100);
+    List<Long> starts = new ArrayList<>();
+    synchronized (mRanges) {
+      for (long[] range : mRanges) {
+        if (!starts.contains(range[0])) {
+          starts.add(range[0]);
+        }
+      }
+    }
+    return starts.size();
+  }
+}
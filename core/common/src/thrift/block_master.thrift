@@ -73,8 +73,8 @@ service BlockMasterWorkerService extends common.AlluxioService {
   common.Command heartbeat(
     /** the id of the worker */ 1: i64 workerId,
     /** the map of space used in bytes on all tiers */ 2: map<string, i64> usedBytesOnTiers,
-    /** the list of removed block ids */ 3: list<i64> removedBlockIds,
-    /** the map of added blocks on all tiers */ 4: map<string, list<i64>> addedBlocksOnTiers,
+    /** the encoded list of removed block ids */ 5: binary encodedRemovedBlockIds,
+    /** the encoded map of added blocks on all tiers */ 6: binary encodedAddedBlocksOnTiers,
     )
     throws (1: exception.AlluxioTException e)
 
@@ -86,7 +86,7 @@ service BlockMasterWorkerService extends common.AlluxioService {
     /** the list of storage tiers */  2: list<string> storageTiers,
     /** the map of total bytes on each tier */  3: map<string, i64> totalBytesOnTiers,
     /** the map of used bytes on each tier */  4: map<string, i64> usedBytesOnTiers,
-    /** the map of list of blocks on each tier */  5: map<string, list<i64>> currentBlocksOnTiers,
+    /** the encoded map of blocks on each tier */  6: binary encodedCurrentBlocksOnTiers,
     )
     throws (1: exception.AlluxioTException e)
 }
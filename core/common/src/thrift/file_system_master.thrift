@@ -42,6 +42,13 @@ struct ListStatusTOptions {
   // This is deprecated since 1.1.1 and will be removed in 2.0. Use loadMetadataType.
   1: optional bool loadDirectChildren
   2: optional LoadMetadataTType loadMetadataType
+  // The name of the last child returned by the previous batch; children are listed in name order
+  3: optional string startAfter
+  // The maximum number of children to return, all of them if unset or not positive
+  4: optional i32 batchSize
+  // Whether to load the metadata of the whole tree under the directory before listing it; the
+  // listing itself only returns the direct children
+  5: optional bool loadMetadataRecursive
 }
 
 /**
@@ -93,6 +100,13 @@ struct PersistCommandOptions {
 struct PersistFile {
   1: i64 fileId
   2: list<i64> blockIds
+  // The part of the file to persist, when the file is persisted in parts by several workers.
+  // The blocks of the part are the blocks of blockIds from partStart, inclusive, to partEnd,
+  // exclusive. The whole file is persisted if partCount is less than 2.
+  3: i32 partIndex
+  4: i32 partCount
+  5: i32 partStart
+  6: i32 partEnd
 }
 
 struct SetAttributeTOptions {
@@ -11,9 +11,14 @@
 
 package alluxio.master;
 
+import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.PropertyKey;
 import alluxio.clock.Clock;
 import alluxio.exception.PreconditionMessage;
+import alluxio.heartbeat.HeartbeatContext;
+import alluxio.heartbeat.HeartbeatExecutor;
+import alluxio.heartbeat.HeartbeatThread;
 import alluxio.master.journal.AsyncJournalWriter;
 import alluxio.master.journal.Journal;
 import alluxio.master.journal.JournalInputStream;
@@ -31,6 +36,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -60,6 +66,8 @@ public abstract class AbstractMaster implements Master {
   private JournalWriter mJournalWriter = null;
   /** The {@link AsyncJournalWriter} for async journal writes. */
   private AsyncJournalWriter mAsyncJournalWriter = null;
+  /** The service installing the checkpoints written by standby masters, when the leader. */
+  private Future<?> mStandbyCheckpointInstallService = null;
 
   /** The clock to use for determining the time. */
   protected final Clock mClock;
@@ -119,6 +127,9 @@ public abstract class AbstractMaster implements Master {
        *
        * Since this method is called before the master RPC server starts serving, there is no
        * concurrent access to the master during these phases.
+       *
+       * Afterwards, the checkpoints which standby masters write from their replayed state are
+       * installed as they appear, so the completed logs stay bounded without pausing this master.
        */
 
       // Phase 1: Recover from a backup checkpoint if necessary.
@@ -160,6 +171,10 @@ public abstract class AbstractMaster implements Master {
       checkpointStream.close();
 
       mAsyncJournalWriter = new AsyncJournalWriter(mJournalWriter);
+      mStandbyCheckpointInstallService = mExecutorService.submit(new HeartbeatThread(
+          HeartbeatContext.MASTER_JOURNAL_CHECKPOINT_INSTALL,
+          new StandbyCheckpointInstallExecutor(mJournalWriter),
+          Configuration.getInt(PropertyKey.MASTER_JOURNAL_TAILER_SLEEP_TIME_MS)));
     } else {
       // This master is in standby mode. Start the journal tailer thread. Since the master is in
       // standby mode, its RPC server is NOT serving. Therefore, the only thread modifying the
@@ -173,7 +188,16 @@ public abstract class AbstractMaster implements Master {
   public void stop() throws IOException {
     LOG.info("{}: Stopping {} master.", getName(), mIsLeader ? "leader" : "standby");
     if (mIsLeader) {
-      // Stop this leader master.
+      // Stop this leader master. The async journal writer is stopped first, since it writes the
+      // appended entries with the journal writer.
+      if (mStandbyCheckpointInstallService != null) {
+        mStandbyCheckpointInstallService.cancel(true);
+        mStandbyCheckpointInstallService = null;
+      }
+      if (mAsyncJournalWriter != null) {
+        mAsyncJournalWriter.close();
+        mAsyncJournalWriter = null;
+      }
       if (mJournalWriter != null) {
         mJournalWriter.close();
         mJournalWriter = null;
@@ -264,4 +288,32 @@ public abstract class AbstractMaster implements Master {
   protected ExecutorService getExecutorService() {
     return mExecutorService;
   }
+
+  /**
+   * Installs the checkpoint written by a standby master as the journal checkpoint.
+   */
+  private static final class StandbyCheckpointInstallExecutor implements HeartbeatExecutor {
+    private final JournalWriter mJournalWriter;
+
+    /**
+     * @param journalWriter the journal writer of the leader master
+     */
+    StandbyCheckpointInstallExecutor(JournalWriter journalWriter) {
+      mJournalWriter = journalWriter;
+    }
+
+    @Override
+    public void heartbeat() {
+      try {
+        mJournalWriter.installStandbyCheckpoint();
+      } catch (IOException | RuntimeException e) {
+        LOG.error("Failed to install the standby checkpoint", e);
+      }
+    }
+
+    @Override
+    public void close() {
+      // Nothing to clean up
+    }
+  }
 }
@@ -19,8 +19,10 @@ import alluxio.StorageTierAssoc;
 import alluxio.clock.Clock;
 import alluxio.clock.SystemClock;
 import alluxio.collections.ConcurrentHashSet;
+import alluxio.collections.ConcurrentLongHashMap;
 import alluxio.collections.IndexDefinition;
 import alluxio.collections.IndexedSet;
+import alluxio.collections.LongHashSet;
 import alluxio.exception.BlockInfoException;
 import alluxio.exception.ExceptionMessage;
 import alluxio.exception.NoWorkerException;
@@ -36,6 +38,7 @@ import alluxio.master.journal.Journal;
 import alluxio.master.journal.JournalInputStream;
 import alluxio.master.journal.JournalOutputStream;
 import alluxio.master.journal.JournalProtoUtils;
+import alluxio.master.journal.ParallelJournalEntryProcessor;
 import alluxio.metrics.MetricsSystem;
 import alluxio.proto.journal.Block.BlockContainerIdGeneratorEntry;
 import alluxio.proto.journal.Block.BlockInfoEntry;
@@ -56,7 +59,6 @@ import com.codahale.metrics.Gauge;
 import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.Message;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import io.netty.util.internal.chmv8.ConcurrentHashMapV8;
 import org.apache.thrift.TProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -127,8 +129,8 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
 
   // Block metadata management.
   /** Blocks on all workers, including active and lost blocks. This state must be journaled. */
-  private final ConcurrentHashMapV8<Long, MasterBlockInfo> mBlocks =
-      new ConcurrentHashMapV8<>(8192, 0.90f, 64);
+  private final ConcurrentLongHashMap<MasterBlockInfo> mBlocks =
+      new ConcurrentLongHashMap<>(8192, 64);
   /** Keeps track of blocks which are no longer in Alluxio storage. */
   private final ConcurrentHashSet<Long> mLostBlocks = new ConcurrentHashSet<>(64, 0.90f, 64);
 
@@ -180,7 +182,7 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
    */
   public BlockMaster(Journal journal) {
     super(journal, new SystemClock(), ExecutorServiceFactories
-        .fixedThreadPoolExecutorServiceFactory(Constants.BLOCK_MASTER_NAME, 2));
+        .fixedThreadPoolExecutorServiceFactory(Constants.BLOCK_MASTER_NAME, 3));
 
     Metrics.registerGauges(this);
   }
@@ -217,7 +219,27 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
   public void processJournalCheckpoint(JournalInputStream inputStream) throws IOException {
     // clear state before processing checkpoint.
     mBlocks.clear();
-    super.processJournalCheckpoint(inputStream);
+    // The blocks are independent of each other, so they are added in parallel batches.
+    ParallelJournalEntryProcessor processor =
+        new ParallelJournalEntryProcessor(this, Runtime.getRuntime().availableProcessors());
+    try {
+      JournalEntry entry;
+      while ((entry = inputStream.getNextEntry()) != null) {
+        if (!entry.hasBlockInfo()) {
+          processor.processBatch();
+          processJournalEntry(entry);
+          continue;
+        }
+        if (processor.isFull()) {
+          processor.processBatch();
+        }
+        processor.add(entry);
+      }
+      processor.processBatch();
+    } finally {
+      processor.close();
+      inputStream.close();
+    }
   }
 
   @Override
@@ -272,6 +294,31 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
     return mWorkers.size();
   }
 
+  /**
+   * @return the number of blocks, including the lost blocks
+   */
+  public int getBlockCount() {
+    return mBlocks.size();
+  }
+
+  /**
+   * Estimates the heap size of the block metadata: the block index, the metadata and locations of
+   * every block, and the block sets of the workers. The blocks are not visited, so the estimate is
+   * cheap enough for a metric.
+   *
+   * @return the estimated heap size of the block metadata in bytes
+   */
+  public long getBlockMetadataSizeBytes() {
+    long bytes = mBlocks.getSizeBytes() + mBlocks.size() * MasterBlockInfo.SIZE_BYTES;
+    for (MasterWorkerInfo worker : mWorkers) {
+      synchronized (worker) {
+        bytes += worker.getBlocksSizeBytes()
+            + worker.getNumBlocks() * MasterBlockInfo.LOCATION_SIZE_BYTES;
+      }
+    }
+    return bytes;
+  }
+
   /**
    * @return a list of {@link WorkerInfo} objects representing the workers in Alluxio
    */
@@ -650,10 +697,17 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
       throw new NoWorkerException(ExceptionMessage.NO_WORKER_FOUND.getMessage(workerId));
     }
 
-    // Gather all blocks on this worker.
-    HashSet<Long> blocks = new HashSet<>();
+    // Gather all blocks on this worker. The set is sized up front, since a worker may report
+    // millions of blocks and rehashing them dominates the registration otherwise.
+    int numBlocks = 0;
     for (List<Long> blockIds : currentBlocksOnTiers.values()) {
-      blocks.addAll(blockIds);
+      numBlocks += blockIds.size();
+    }
+    LongHashSet blocks = new LongHashSet(numBlocks);
+    for (List<Long> blockIds : currentBlocksOnTiers.values()) {
+      for (long blockId : blockIds) {
+        blocks.add(blockId);
+      }
     }
 
     synchronized (worker) {
@@ -712,6 +766,9 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
   @GuardedBy("workerInfo")
   private void processWorkerRemovedBlocks(MasterWorkerInfo workerInfo,
       Collection<Long> removedBlockIds) {
+    if (!removedBlockIds.isEmpty()) {
+      LOG.info("{} blocks are removed on worker {}.", removedBlockIds.size(), workerInfo.getId());
+    }
     for (long removedBlockId : removedBlockIds) {
       MasterBlockInfo block = mBlocks.get(removedBlockId);
       // TODO(calvin): Investigate if this branching logic can be simplified.
@@ -726,7 +783,7 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
         continue;
       }
       synchronized (block) {
-        LOG.info("Block {} is removed on worker {}.", removedBlockId, workerInfo.getId());
+        LOG.debug("Block {} is removed on worker {}.", removedBlockId, workerInfo.getId());
         workerInfo.removeBlock(block.getBlockId());
         block.removeWorker(workerInfo.getId());
         if (block.getNumLocations() == 0) {
@@ -745,20 +802,29 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
   @GuardedBy("workerInfo")
   private void processWorkerAddedBlocks(MasterWorkerInfo workerInfo,
       Map<String, List<Long>> addedBlockIds) {
+    int numMissingBlocks = 0;
     for (Map.Entry<String, List<Long>> entry : addedBlockIds.entrySet()) {
       for (long blockId : entry.getValue()) {
         MasterBlockInfo block = mBlocks.get(blockId);
-        if (block != null) {
-          synchronized (block) {
-            workerInfo.addBlock(blockId);
-            block.addWorker(workerInfo.getId(), entry.getKey());
-            mLostBlocks.remove(blockId);
-          }
-        } else {
-          LOG.warn("Failed to register workerId: {} to blockId: {}", workerInfo.getId(), blockId);
+        if (block == null) {
+          LOG.debug("Failed to register workerId: {} to blockId: {}", workerInfo.getId(),
+              blockId);
+          numMissingBlocks++;
+          continue;
+        }
+        // The worker metadata is guarded by the worker monitor, which is already held, so only
+        // the location of the block needs the block monitor.
+        workerInfo.addBlock(blockId);
+        synchronized (block) {
+          block.addWorker(workerInfo.getId(), entry.getKey());
+          mLostBlocks.remove(blockId);
         }
       }
     }
+    if (numMissingBlocks > 0) {
+      LOG.warn("Failed to register workerId: {} to {} blocks without metadata on the master",
+          workerInfo.getId(), numMissingBlocks);
+    }
   }
 
   /**
@@ -853,6 +919,9 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
     public static final String CAPACITY_TOTAL = "CapacityTotal";
     public static final String CAPACITY_USED = "CapacityUsed";
     public static final String CAPACITY_FREE = "CapacityFree";
+    public static final String BLOCKS = "Blocks";
+    public static final String BLOCK_METADATA_SIZE = "BlockMetadataSize";
+    public static final String BLOCK_METADATA_BYTES_PER_BLOCK = "BlockMetadataBytesPerBlock";
 
     private static void registerGauges(final BlockMaster master) {
       MetricsSystem.registerGaugeIfAbsent(MetricsSystem.getMasterMetricName(CAPACITY_TOTAL),
@@ -879,6 +948,31 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
             }
           });
 
+      MetricsSystem.registerGaugeIfAbsent(MetricsSystem.getMasterMetricName(BLOCKS),
+          new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+              return master.getBlockCount();
+            }
+          });
+
+      MetricsSystem.registerGaugeIfAbsent(MetricsSystem.getMasterMetricName(BLOCK_METADATA_SIZE),
+          new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+              return master.getBlockMetadataSizeBytes();
+            }
+          });
+
+      MetricsSystem.registerGaugeIfAbsent(
+          MetricsSystem.getMasterMetricName(BLOCK_METADATA_BYTES_PER_BLOCK),
+          new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+              return master.getBlockMetadataSizeBytes() / Math.max(master.getBlockCount(), 1);
+            }
+          });
+
       MetricsSystem.registerGaugeIfAbsent(MetricsSystem.getMasterMetricName("Workers"),
           new Gauge<Integer>() {
             @Override
@@ -21,7 +21,10 @@ import alluxio.thrift.WorkerNetAddress;
 import alluxio.wire.ThriftUtils;
 
 import com.google.common.base.Preconditions;
+import com.google.common.primitives.Longs;
 
+import java.nio.ByteBuffer;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -62,12 +65,12 @@ public final class BlockMasterWorkerServiceHandler implements BlockMasterWorkerS
   @Override
   public void registerWorker(final long workerId, final List<String> storageTiers,
       final Map<String, Long> totalBytesOnTiers, final Map<String, Long> usedBytesOnTiers,
-      final Map<String, List<Long>> currentBlocksOnTiers) throws AlluxioTException {
+      final ByteBuffer encodedCurrentBlocksOnTiers) throws AlluxioTException {
     RpcUtils.call(new RpcUtils.RpcCallable<Void>() {
       @Override
       public Void call() throws AlluxioException {
         mBlockMaster.workerRegister(workerId, storageTiers, totalBytesOnTiers, usedBytesOnTiers,
-            currentBlocksOnTiers);
+            decodeBlocksOnTiers(encodedCurrentBlocksOnTiers));
         return null;
       }
     });
@@ -75,13 +78,14 @@ public final class BlockMasterWorkerServiceHandler implements BlockMasterWorkerS
 
   @Override
   public Command heartbeat(final long workerId, final Map<String, Long> usedBytesOnTiers,
-      final List<Long> removedBlockIds, final Map<String, List<Long>> addedBlocksOnTiers)
+      final ByteBuffer encodedRemovedBlockIds, final ByteBuffer encodedAddedBlocksOnTiers)
       throws AlluxioTException {
     return RpcUtils.call(new RpcUtils.RpcCallable<Command>() {
       @Override
       public Command call() throws AlluxioException {
-        return mBlockMaster
-            .workerHeartbeat(workerId, usedBytesOnTiers, removedBlockIds, addedBlocksOnTiers);
+        return mBlockMaster.workerHeartbeat(workerId, usedBytesOnTiers,
+            Longs.asList(BlockIdsCodec.decode(encodedRemovedBlockIds)),
+            decodeBlocksOnTiers(encodedAddedBlocksOnTiers));
       }
     });
   }
@@ -97,5 +101,19 @@ public final class BlockMasterWorkerServiceHandler implements BlockMasterWorkerS
       }
     });
   }
-}
 
+  /**
+   * Decodes the block ids on each tier reported by a worker. The lists are views of the decoded
+   * primitive arrays, so the ids are only boxed while they are applied by the master.
+   *
+   * @param encoded the encoded block ids on each tier
+   * @return a mapping from tier alias to the block ids on the tier
+   */
+  private static Map<String, List<Long>> decodeBlocksOnTiers(ByteBuffer encoded) {
+    Map<String, List<Long>> blocksOnTiers = new HashMap<>();
+    for (Map.Entry<String, long[]> entry : BlockIdsCodec.decodeTiers(encoded).entrySet()) {
+      blocksOnTiers.put(entry.getKey(), Longs.asList(entry.getValue()));
+    }
+    return blocksOnTiers;
+  }
+}
@@ -18,10 +18,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -32,7 +32,17 @@ import javax.annotation.concurrent.NotThreadSafe;
  */
 @NotThreadSafe
 public final class MasterBlockInfo {
+  /**
+   * The estimated heap size of the metadata of a block in bytes, excluding its locations: the
+   * object with its fields, and the headers of the location arrays.
+   */
+  public static final long SIZE_BYTES = 80;
+  /** The estimated heap size of a location of a block in bytes. */
+  public static final long LOCATION_SIZE_BYTES = 12;
+
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+  private static final long[] NO_WORKER_IDS = new long[0];
+  private static final String[] NO_TIER_ALIASES = new String[0];
 
   /** The id of the block. */
   private final long mBlockId;
@@ -42,8 +52,14 @@ public final class MasterBlockInfo {
    */
   private long mLength;
 
-  /** Maps from the worker id to the tier alias the block is on. */
-  private final Map<Long, String> mWorkerIdToAlias;
+  /**
+   * The ids of the workers the block is on, and the tier alias of the block on each worker. Only
+   * the first {@link #mNumLocations} entries are used. The arrays are kept instead of a map, since
+   * a block has very few locations and the master keeps the metadata of every block in memory.
+   */
+  private long[] mWorkerIds;
+  private String[] mTierAliases;
+  private int mNumLocations;
 
   /**
    * Creates a new instance of {@link MasterBlockInfo}.
@@ -56,7 +72,8 @@ public final class MasterBlockInfo {
     mBlockId = blockId;
     mLength = length;
 
-    mWorkerIdToAlias = new HashMap<>();
+    mWorkerIds = NO_WORKER_IDS;
+    mTierAliases = NO_TIER_ALIASES;
   }
 
   /**
@@ -94,7 +111,18 @@ public final class MasterBlockInfo {
    * @param tierAlias the alias of the storage tier that this block is on
    */
   public void addWorker(long workerId, String tierAlias) {
-    mWorkerIdToAlias.put(workerId, tierAlias);
+    int index = indexOf(workerId);
+    if (index >= 0) {
+      mTierAliases[index] = tierAlias;
+      return;
+    }
+    if (mNumLocations == mWorkerIds.length) {
+      mWorkerIds = Arrays.copyOf(mWorkerIds, mNumLocations + 1);
+      mTierAliases = Arrays.copyOf(mTierAliases, mNumLocations + 1);
+    }
+    mWorkerIds[mNumLocations] = workerId;
+    mTierAliases[mNumLocations] = tierAlias;
+    mNumLocations++;
   }
 
   /**
@@ -103,21 +131,33 @@ public final class MasterBlockInfo {
    * @param workerId the worker id to remove
    */
   public void removeWorker(long workerId) {
-    mWorkerIdToAlias.remove(workerId);
+    int index = indexOf(workerId);
+    if (index < 0) {
+      return;
+    }
+    mNumLocations--;
+    // Keep the remaining locations in the order they were added.
+    System.arraycopy(mWorkerIds, index + 1, mWorkerIds, index, mNumLocations - index);
+    System.arraycopy(mTierAliases, index + 1, mTierAliases, index, mNumLocations - index);
+    mTierAliases[mNumLocations] = null;
   }
 
   /**
    * @return all the worker ids that this block is on
    */
   public Set<Long> getWorkers() {
-    return Collections.unmodifiableSet(mWorkerIdToAlias.keySet());
+    Set<Long> workers = new HashSet<>();
+    for (int i = 0; i < mNumLocations; i++) {
+      workers.add(mWorkerIds[i]);
+    }
+    return Collections.unmodifiableSet(workers);
   }
 
   /**
    * @return the number of workers this block is on
    */
   public int getNumLocations() {
-    return mWorkerIdToAlias.size();
+    return mNumLocations;
   }
 
   /**
@@ -126,9 +166,9 @@ public final class MasterBlockInfo {
    * @return the net addresses of the workers
    */
   public List<MasterBlockLocation> getBlockLocations() {
-    List<MasterBlockLocation> ret = new ArrayList<>(mWorkerIdToAlias.size());
-    for (Map.Entry<Long, String> entry : mWorkerIdToAlias.entrySet()) {
-      ret.add(new MasterBlockLocation(entry.getKey(), entry.getValue()));
+    List<MasterBlockLocation> ret = new ArrayList<>(mNumLocations);
+    for (int i = 0; i < mNumLocations; i++) {
+      ret.add(new MasterBlockLocation(mWorkerIds[i], mTierAliases[i]));
     }
     return ret;
   }
@@ -138,14 +178,23 @@ public final class MasterBlockInfo {
    * @return true if the block is in the given tier
    */
   public boolean isInTier(String targetTierAlias) {
-    for (String tierAlias : mWorkerIdToAlias.values()) {
-      if (tierAlias.equals(targetTierAlias)) {
+    for (int i = 0; i < mNumLocations; i++) {
+      if (mTierAliases[i].equals(targetTierAlias)) {
         return true;
       }
     }
     return false;
   }
 
+  private int indexOf(long workerId) {
+    for (int i = 0; i < mNumLocations; i++) {
+      if (mWorkerIds[i] == workerId) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
   @Override
   public String toString() {
     return Objects.toStringHelper(this).add("blockId", mBlockId).add("length", mLength).toString();
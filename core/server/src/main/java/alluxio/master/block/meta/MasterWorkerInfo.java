@@ -14,20 +14,19 @@ package alluxio.master.block.meta;
 import alluxio.Constants;
 import alluxio.StorageTierAssoc;
 import alluxio.WorkerStorageTierAssoc;
+import alluxio.collections.LongHashSet;
 import alluxio.util.CommonUtils;
 import alluxio.wire.WorkerInfo;
 import alluxio.wire.WorkerNetAddress;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Sets;
+import com.google.common.primitives.Longs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -62,9 +61,9 @@ public final class MasterWorkerInfo {
   private Map<String, Long> mUsedBytesOnTiers;
 
   /** ids of blocks the worker contains. */
-  private Set<Long> mBlocks;
+  private LongHashSet mBlocks;
   /** ids of blocks the worker should remove. */
-  private Set<Long> mToRemoveBlocks;
+  private LongHashSet mToRemoveBlocks;
 
   /**
    * Creates a new instance of {@link MasterWorkerInfo}.
@@ -81,8 +80,8 @@ public final class MasterWorkerInfo {
     mStorageTierAssoc = null;
     mTotalBytesOnTiers = new HashMap<>();
     mUsedBytesOnTiers = new HashMap<>();
-    mBlocks = new HashSet<>();
-    mToRemoveBlocks = new HashSet<>();
+    mBlocks = new LongHashSet();
+    mToRemoveBlocks = new LongHashSet();
   }
 
   /**
@@ -132,6 +131,10 @@ public final class MasterWorkerInfo {
       mUsedBytes += bytes;
     }
 
+    // Set the new block information.
+    LongHashSet oldBlocks = mBlocks;
+    mBlocks = new LongHashSet(blocks);
+
     Set<Long> removedBlocks;
     if (mIsRegistered) {
       // This is a re-register of an existing worker. Assume the new block ownership data is more
@@ -139,14 +142,17 @@ public final class MasterWorkerInfo {
       LOG.info("re-registering an existing workerId: {}", mId);
 
       // Compute the difference between the existing block data, and the new data.
-      removedBlocks = Sets.difference(mBlocks, blocks);
+      LongHashSet difference = new LongHashSet();
+      for (long blockId : oldBlocks.toLongArray()) {
+        if (!mBlocks.contains(blockId)) {
+          difference.add(blockId);
+        }
+      }
+      removedBlocks = difference;
     } else {
       removedBlocks = Collections.emptySet();
     }
 
-    // Set the new block information.
-    mBlocks = new HashSet<>(blocks);
-
     mIsRegistered = true;
     return removedBlocks;
   }
@@ -201,7 +207,7 @@ public final class MasterWorkerInfo {
    * @return ids of all blocks the worker contains
    */
   public Set<Long> getBlocks() {
-    return new HashSet<>(mBlocks);
+    return new LongHashSet(mBlocks);
   }
 
   /**
@@ -229,7 +235,21 @@ public final class MasterWorkerInfo {
    * @return ids of blocks the worker should remove
    */
   public List<Long> getToRemoveBlocks() {
-    return new ArrayList<>(mToRemoveBlocks);
+    return Longs.asList(mToRemoveBlocks.toLongArray());
+  }
+
+  /**
+   * @return the number of blocks the worker contains
+   */
+  public int getNumBlocks() {
+    return mBlocks.size();
+  }
+
+  /**
+   * @return the estimated heap size of the block sets of the worker in bytes
+   */
+  public long getBlocksSizeBytes() {
+    return mBlocks.getSizeBytes() + mToRemoveBlocks.getSizeBytes();
   }
 
   /**
@@ -290,7 +310,7 @@ public final class MasterWorkerInfo {
   public String toString() {
     return Objects.toStringHelper(this).add("id", mId).add("workerAddress", mWorkerAddress)
         .add("capacityBytes", mCapacityBytes).add("usedBytes", mUsedBytes)
-        .add("lastUpdatedTimeMs", mLastUpdatedTimeMs).add("blocks", mBlocks).toString();
+        .add("lastUpdatedTimeMs", mLastUpdatedTimeMs).add("numBlocks", mBlocks.size()).toString();
   }
 
   /**
@@ -0,0 +1,429 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file;
+
+import alluxio.AlluxioURI;
+import alluxio.Constants;
+import alluxio.master.block.BlockMaster;
+import alluxio.master.file.meta.Inode;
+import alluxio.master.file.meta.InodeDirectory;
+import alluxio.master.file.meta.InodeFile;
+import alluxio.master.file.meta.InodeTree;
+import alluxio.master.file.meta.TtlBucketList;
+import alluxio.metrics.MetricsSystem;
+import alluxio.proto.journal.File.BackgroundDeleteEntry;
+import alluxio.underfs.UnderFileSystem;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Multiset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Removes the inodes, the blocks and the under storage files of deleted directory trees in the
+ * background. A delete only unlinks the root of the tree from its parent and journals the delete
+ * once, while holding the locks of the path to the root. The inodes of the tree can then no longer
+ * be reached, and are removed from the inode tree and the TTL buckets here, without any locks.
+ * <p>
+ * The blocks are removed and the under storage files are deleted in batches, with one bulk request
+ * per batch for the under storages which support it. Directories are deleted after their files,
+ * deepest first. Until a deletion completes, the metadata of its paths is not loaded from the
+ * under storage again. A path which exists in the namespace again when it is about to be deleted,
+ * because it was created again after the delete, is left in the under storage.
+ * <p>
+ * The under storage deletion of a persisted tree is journaled with a {@link BackgroundDeleteEntry}
+ * when the tree is deleted, and again when it completes. A deletion which was not completed when
+ * the master stopped is recovered by the next leader, which deletes the under storage path of the
+ * root recursively, unless the root exists in the namespace again. The blocks of such a deletion
+ * are removed when the delete is replayed from the journal.
+ */
+@ThreadSafe
+final class BackgroundDeleter {
+  private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+
+  private final InodeTree mInodeTree;
+  private final BlockMaster mBlockMaster;
+  private final TtlBucketList mTtlBuckets;
+  private final DeletionJournal mJournal;
+  private final int mBatchSize;
+  private final ThreadPoolExecutor mExecutor;
+
+  /**
+   * The number of under storage paths waiting to be deleted. A tree which has not been walked yet
+   * counts as one path.
+   */
+  private final AtomicLong mPendingUfsPaths = new AtomicLong();
+
+  /** The roots of the deleted directory trees whose deletion is not completed. */
+  private final Multiset<String> mPendingRoots = ConcurrentHashMultiset.create();
+
+  /**
+   * Journals the progress of the deletions.
+   */
+  interface DeletionJournal {
+    /**
+     * Waits until the journal entries up to the given flush counter are flushed.
+     *
+     * @param flushCounter the flush counter of the delete
+     */
+    void waitForFlush(long flushCounter);
+
+    /**
+     * Journals that the under storage paths of a deletion have been deleted.
+     *
+     * @param deletion the completed deletion
+     */
+    void completed(Deletion deletion);
+  }
+
+  /**
+   * A deleted directory tree.
+   */
+  @ThreadSafe
+  static final class Deletion {
+    private final long mId;
+    private final AlluxioURI mAlluxioUri;
+    /** The unlinked root inode, or null for a deletion recovered from the journal. */
+    private final InodeDirectory mInode;
+    /** The under storage of the tree, or null if the root is not persisted. */
+    private final UnderFileSystem mUfs;
+    private final AlluxioURI mUfsUri;
+
+    /**
+     * @param id the id of the root inode
+     * @param alluxioUri the Alluxio path of the root
+     * @param inode the unlinked root inode, or null for a deletion recovered from the journal
+     * @param ufs the under storage of the tree, or null if the root is not persisted
+     * @param ufsUri the under storage path of the root
+     */
+    Deletion(long id, AlluxioURI alluxioUri, InodeDirectory inode, UnderFileSystem ufs,
+        AlluxioURI ufsUri) {
+      mId = id;
+      mAlluxioUri = alluxioUri;
+      mInode = inode;
+      mUfs = ufs;
+      mUfsUri = ufsUri;
+    }
+
+    /**
+     * @return the id of the root inode
+     */
+    long getId() {
+      return mId;
+    }
+
+    /**
+     * @return whether the tree has under storage paths to delete, and its deletion is journaled
+     */
+    boolean isPersisted() {
+      return mUfs != null;
+    }
+
+    /**
+     * @param completed whether the under storage paths have been deleted
+     * @return the journal entry of the deletion
+     */
+    BackgroundDeleteEntry toJournalEntry(boolean completed) {
+      return BackgroundDeleteEntry.newBuilder()
+          .setId(mId)
+          .setAlluxioPath(mAlluxioUri.getPath())
+          .setUfsPath(mUfsUri.toString())
+          .setCompleted(completed)
+          .build();
+    }
+  }
+
+  /**
+   * A path to delete from an under storage.
+   */
+  private static final class UfsPath {
+    private final AlluxioURI mAlluxioUri;
+    private final String mUfsUri;
+
+    private UfsPath(AlluxioURI alluxioUri, String ufsUri) {
+      mAlluxioUri = alluxioUri;
+      mUfsUri = ufsUri;
+    }
+  }
+
+  /**
+   * Creates a new instance of {@link BackgroundDeleter}.
+   *
+   * @param inodeTree the inode tree to remove the inodes from
+   * @param blockMaster the block master to remove the blocks with
+   * @param ttlBuckets the TTL buckets to remove the files from
+   * @param journal the journal of the deletions
+   * @param threads the maximum number of deletions processed in parallel
+   * @param batchSize the maximum number of blocks or under storage files removed at once
+   */
+  BackgroundDeleter(InodeTree inodeTree, BlockMaster blockMaster, TtlBucketList ttlBuckets,
+      DeletionJournal journal, int threads, int batchSize) {
+    Preconditions.checkArgument(threads > 0, "Invalid number of threads: %s", threads);
+    Preconditions.checkArgument(batchSize > 0, "Invalid batch size: %s", batchSize);
+    mInodeTree = Preconditions.checkNotNull(inodeTree);
+    mBlockMaster = Preconditions.checkNotNull(blockMaster);
+    mTtlBuckets = Preconditions.checkNotNull(ttlBuckets);
+    mJournal = Preconditions.checkNotNull(journal);
+    mBatchSize = batchSize;
+    // The threads are released when no deletion is pending.
+    mExecutor = new ThreadPoolExecutor(threads, threads, Constants.MINUTE_MS,
+        TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+        ThreadFactoryUtils.build("file-system-master-delete-%d", true));
+    mExecutor.allowCoreThreadTimeOut(true);
+    // The gauge of a previous deleter, closed when the master lost the leadership, is replaced.
+    MetricsSystem.registerGauge(MetricsSystem.getMasterMetricName("UfsPathsPendingDelete"),
+        new Gauge<Long>() {
+          @Override
+          public Long getValue() {
+            return mPendingUfsPaths.get();
+          }
+        });
+  }
+
+  /**
+   * Schedules the removal of a deleted directory tree. Nothing is removed before the delete is
+   * flushed to the journal.
+   *
+   * @param deletion the deleted tree
+   * @param flushCounter the flush counter of the delete
+   */
+  void submit(final Deletion deletion, final long flushCounter) {
+    final String root = deletion.mAlluxioUri.getPath();
+    mPendingRoots.add(root);
+    mPendingUfsPaths.incrementAndGet();
+    mExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          mJournal.waitForFlush(flushCounter);
+          if (deletion.mInode != null) {
+            process(deletion);
+          } else {
+            processRecovered(deletion);
+          }
+          if (deletion.isPersisted()) {
+            mJournal.completed(deletion);
+          }
+        } catch (RuntimeException e) {
+          LOG.error("Failed to complete the deletion of {}", root, e);
+        } finally {
+          mPendingRoots.remove(root);
+        }
+      }
+    });
+  }
+
+  /**
+   * @param path an Alluxio path
+   * @return whether the path is in a deleted directory tree whose deletion is not completed
+   */
+  boolean isPendingDelete(AlluxioURI path) {
+    if (mPendingRoots.isEmpty()) {
+      return false;
+    }
+    for (AlluxioURI uri = new AlluxioURI(path.getPath()); uri != null; uri = uri.getParent()) {
+      if (mPendingRoots.contains(uri.getPath())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the number of under storage paths waiting to be deleted
+   */
+  long getPendingUfsPaths() {
+    return mPendingUfsPaths.get();
+  }
+
+  /**
+   * Stops the deletions. The under storage paths of the deletions which are not completed are
+   * deleted by the next leader.
+   */
+  void close() {
+    mExecutor.shutdownNow();
+    long pendingUfsPaths = mPendingUfsPaths.get();
+    if (pendingUfsPaths > 0) {
+      LOG.warn("Stopped the background deletions with {} under storage paths left to delete",
+          pendingUfsPaths);
+    }
+  }
+
+  /**
+   * Removes the inodes, the blocks and the under storage paths of an unlinked tree.
+   *
+   * @param deletion the deletion
+   */
+  private void process(Deletion deletion) {
+    List<Long> blockIds = new ArrayList<>();
+    List<UfsPath> files = new ArrayList<>();
+    List<UfsPath> directories = new ArrayList<>();
+    removeInodes(deletion.mInode, deletion.mAlluxioUri, deletion.mUfs, deletion.mUfsUri,
+        blockIds, files, directories);
+    if (deletion.isPersisted()) {
+      directories.add(new UfsPath(deletion.mAlluxioUri, deletion.mUfsUri.toString()));
+    }
+    // The tree was counted as one path until it was walked.
+    mPendingUfsPaths.addAndGet(files.size() + directories.size() - 1);
+
+    for (int i = 0; i < blockIds.size(); i += mBatchSize) {
+      List<Long> batch = blockIds.subList(i, Math.min(i + mBatchSize, blockIds.size()));
+      mBlockMaster.removeBlocks(batch, true /* delete */);
+      Metrics.BLOCKS_REMOVED.inc(batch.size());
+    }
+    if (!deletion.isPersisted()) {
+      return;
+    }
+    deleteFiles(deletion.mUfs, files);
+    for (UfsPath directory : directories) {
+      try {
+        if (mInodeTree.inodePathExists(directory.mAlluxioUri)) {
+          LOG.info("Not deleting {} from the under storage because {} exists again",
+              directory.mUfsUri, directory.mAlluxioUri);
+        } else if (!deletion.mUfs.delete(directory.mUfsUri, true)
+            && deletion.mUfs.exists(directory.mUfsUri)) {
+          LOG.error("Failed to delete {} from the under file system", directory.mUfsUri);
+          Metrics.UFS_DELETE_FAILURES.inc();
+        } else {
+          Metrics.UFS_PATHS_DELETED.inc();
+        }
+      } catch (IOException e) {
+        LOG.error("Failed to delete {} from the under file system", directory.mUfsUri, e);
+        Metrics.UFS_DELETE_FAILURES.inc();
+      }
+      mPendingUfsPaths.decrementAndGet();
+    }
+  }
+
+  /**
+   * Removes the descendants of an unlinked directory from the inode tree, and collects their
+   * blocks and their persisted paths. Directories are collected after their descendants.
+   *
+   * @param directory the directory
+   * @param alluxioUri the Alluxio path of the directory when it was deleted
+   * @param ufs the under storage of the tree, or null if the root is not persisted
+   * @param ufsUri the under storage path of the directory
+   * @param blockIds the list to add the ids of the blocks to
+   * @param files the list to add the persisted files to
+   * @param directories the list to add the persisted directories to
+   */
+  private void removeInodes(InodeDirectory directory, AlluxioURI alluxioUri, UnderFileSystem ufs,
+      AlluxioURI ufsUri, List<Long> blockIds, List<UfsPath> files, List<UfsPath> directories) {
+    for (Inode<?> child : directory.getChildren()) {
+      AlluxioURI childUri = alluxioUri.join(child.getName());
+      AlluxioURI childUfsUri = ufs == null ? null : ufs.resolveUri(ufsUri, child.getName());
+      if (child.isDirectory()) {
+        removeInodes((InodeDirectory) child, childUri, ufs, childUfsUri, blockIds, files,
+            directories);
+      } else {
+        InodeFile file = (InodeFile) child;
+        blockIds.addAll(file.getBlockIds());
+        mTtlBuckets.remove(file);
+      }
+      if (ufs != null && child.isPersisted()) {
+        (child.isDirectory() ? directories : files)
+            .add(new UfsPath(childUri, childUfsUri.toString()));
+      }
+      mInodeTree.removeUnlinkedInode(child);
+      Metrics.INODES_REMOVED.inc();
+    }
+  }
+
+  /**
+   * Deletes the under storage path of a deletion recovered from the journal. The inodes and the
+   * blocks of the tree were removed when the delete was replayed.
+   *
+   * @param deletion the deletion
+   */
+  private void processRecovered(Deletion deletion) {
+    String ufsUri = deletion.mUfsUri.toString();
+    try {
+      if (mInodeTree.inodePathExists(deletion.mAlluxioUri)) {
+        LOG.warn("Not deleting {} from the under storage because {} exists again",
+            ufsUri, deletion.mAlluxioUri);
+      } else if (!deletion.mUfs.delete(ufsUri, true) && deletion.mUfs.exists(ufsUri)) {
+        LOG.error("Failed to delete {} from the under file system", ufsUri);
+        Metrics.UFS_DELETE_FAILURES.inc();
+      } else {
+        Metrics.UFS_PATHS_DELETED.inc();
+      }
+    } catch (IOException e) {
+      LOG.error("Failed to delete {} from the under file system", ufsUri, e);
+      Metrics.UFS_DELETE_FAILURES.inc();
+    }
+    mPendingUfsPaths.decrementAndGet();
+  }
+
+  /**
+   * Deletes files from an under storage, in batches.
+   *
+   * @param ufs the under storage
+   * @param files the files to delete
+   */
+  private void deleteFiles(UnderFileSystem ufs, List<UfsPath> files) {
+    for (int i = 0; i < files.size(); i += mBatchSize) {
+      List<UfsPath> batch = files.subList(i, Math.min(i + mBatchSize, files.size()));
+      List<String> ufsUris = new ArrayList<>(batch.size());
+      for (UfsPath file : batch) {
+        if (mInodeTree.inodePathExists(file.mAlluxioUri)) {
+          LOG.info("Not deleting {} from the under storage because {} exists again",
+              file.mUfsUri, file.mAlluxioUri);
+        } else {
+          ufsUris.add(file.mUfsUri);
+        }
+      }
+      try {
+        List<String> failedUris = ufs.deleteFiles(ufsUris);
+        if (!failedUris.isEmpty()) {
+          LOG.error("Failed to delete {} files from the under file system: {}",
+              failedUris.size(), failedUris);
+        }
+        Metrics.UFS_PATHS_DELETED.inc(ufsUris.size() - failedUris.size());
+        Metrics.UFS_DELETE_FAILURES.inc(failedUris.size());
+      } catch (IOException e) {
+        LOG.error("Failed to delete {} files from the under file system", ufsUris.size(), e);
+        Metrics.UFS_DELETE_FAILURES.inc(ufsUris.size());
+      }
+      mPendingUfsPaths.addAndGet(-batch.size());
+    }
+  }
+
+  /**
+   * Class that contains metrics about the background deletions.
+   */
+  private static final class Metrics {
+    private static final Counter BLOCKS_REMOVED =
+        MetricsSystem.masterCounter("BackgroundDeleteBlocksRemoved");
+    private static final Counter INODES_REMOVED =
+        MetricsSystem.masterCounter("BackgroundDeleteInodesRemoved");
+    private static final Counter UFS_DELETE_FAILURES =
+        MetricsSystem.masterCounter("BackgroundDeleteUfsFailures");
+    private static final Counter UFS_PATHS_DELETED =
+        MetricsSystem.masterCounter("BackgroundDeleteUfsPathsDeleted");
+
+    private Metrics() {} // prevent instantiation
+  }
+}
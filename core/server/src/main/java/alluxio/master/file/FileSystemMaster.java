@@ -47,6 +47,7 @@ import alluxio.master.file.meta.InodePathPair;
 import alluxio.master.file.meta.InodeTree;
 import alluxio.master.file.meta.LockedInodePath;
 import alluxio.master.file.meta.MountTable;
+import alluxio.master.file.meta.OptimisticLockedInodePath;
 import alluxio.master.file.meta.PersistenceState;
 import alluxio.master.file.meta.TempInodePathForChild;
 import alluxio.master.file.meta.TempInodePathForDescendant;
@@ -64,11 +65,14 @@ import alluxio.master.file.options.MountOptions;
 import alluxio.master.file.options.SetAttributeOptions;
 import alluxio.master.journal.AsyncJournalWriter;
 import alluxio.master.journal.Journal;
+import alluxio.master.journal.JournalInputStream;
 import alluxio.master.journal.JournalOutputStream;
 import alluxio.master.journal.JournalProtoUtils;
+import alluxio.master.journal.ParallelJournalEntryProcessor;
 import alluxio.metrics.MetricsSystem;
 import alluxio.proto.journal.File.AddMountPointEntry;
 import alluxio.proto.journal.File.AsyncPersistRequestEntry;
+import alluxio.proto.journal.File.BackgroundDeleteEntry;
 import alluxio.proto.journal.File.CompleteFileEntry;
 import alluxio.proto.journal.File.DeleteFileEntry;
 import alluxio.proto.journal.File.DeleteMountPointEntry;
@@ -91,10 +95,12 @@ import alluxio.thrift.FileSystemMasterClientService;
 import alluxio.thrift.FileSystemMasterWorkerService;
 import alluxio.thrift.PersistCommandOptions;
 import alluxio.thrift.PersistFile;
+import alluxio.underfs.UnderFileStatus;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.MkdirsOptions;
 import alluxio.util.CommonUtils;
 import alluxio.util.IdUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.executor.ExecutorServiceFactories;
 import alluxio.util.executor.ExecutorServiceFactory;
 import alluxio.util.io.PathUtils;
@@ -108,6 +114,8 @@ import alluxio.wire.WorkerInfo;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
 import com.google.protobuf.Message;
@@ -118,8 +126,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -127,9 +137,17 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * The master that handles all file system metadata management.
@@ -138,6 +156,9 @@ import javax.annotation.concurrent.NotThreadSafe;
 public final class FileSystemMaster extends AbstractMaster {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
 
+  /** The interval between the progress logs of a recursive metadata load. */
+  private static final long METADATA_LOAD_PROGRESS_INTERVAL_MS = 10 * Constants.SECOND_MS;
+
   /**
    * Locking in the FileSystemMaster
    *
@@ -237,6 +258,31 @@ public final class FileSystemMaster extends AbstractMaster {
 
   private Future<List<AlluxioURI>> mStartupConsistencyCheck;
 
+  /** The maximum number of under storage directories listed at once by a recursive load. */
+  private final int mMetadataLoadThreads;
+
+  /**
+   * The pool listing under storage directories in parallel for recursive metadata loads, created
+   * when the master starts as the leader.
+   */
+  private ThreadPoolExecutor mMetadataLoadExecutor;
+
+  /** Whether the inodes, blocks and under storage files of deleted trees are removed later. */
+  private final boolean mBackgroundDeleteEnabled;
+
+  /**
+   * Removes the inodes, the blocks and the under storage files of deleted directory trees in the
+   * background, created when the master starts as the leader.
+   */
+  private BackgroundDeleter mBackgroundDeleter;
+
+  /**
+   * The journaled background deletions whose under storage paths may not be deleted yet, by the
+   * id of the root inode. The next leader deletes them again.
+   */
+  private final Map<Long, BackgroundDeleteEntry> mPendingBackgroundDeletes =
+      new ConcurrentHashMap<>();
+
   /**
    * @param baseDirectory the base journal directory
    * @return the journal directory for this master
@@ -253,7 +299,7 @@ public final class FileSystemMaster extends AbstractMaster {
    */
   public FileSystemMaster(BlockMaster blockMaster, Journal journal) {
     this(blockMaster, journal, ExecutorServiceFactories
-        .fixedThreadPoolExecutorServiceFactory(Constants.FILE_SYSTEM_MASTER_NAME, 3));
+        .fixedThreadPoolExecutorServiceFactory(Constants.FILE_SYSTEM_MASTER_NAME, 4));
   }
 
   /**
@@ -279,6 +325,10 @@ public final class FileSystemMaster extends AbstractMaster {
     mAsyncPersistHandler = AsyncPersistHandler.Factory.create(new FileSystemMasterView(this));
     mPermissionChecker = new PermissionChecker(mInodeTree);
 
+    mMetadataLoadThreads = Configuration.getInt(PropertyKey.MASTER_METADATA_LOAD_THREADS);
+    mBackgroundDeleteEnabled =
+        Configuration.getBoolean(PropertyKey.MASTER_FILE_DELETE_BACKGROUND_ENABLED);
+
     Metrics.registerGauges(this);
   }
 
@@ -299,6 +349,44 @@ public final class FileSystemMaster extends AbstractMaster {
     return Constants.FILE_SYSTEM_MASTER_NAME;
   }
 
+  @Override
+  public void processJournalCheckpoint(JournalInputStream inputStream) throws IOException {
+    // The inode tree is written breadth first, so the inodes are added in parallel batches which
+    // end before the first inode whose parent is in the batch.
+    ParallelJournalEntryProcessor processor =
+        new ParallelJournalEntryProcessor(this, Runtime.getRuntime().availableProcessors());
+    Set<Long> batchDirectoryIds = new HashSet<>();
+    try {
+      JournalEntry entry;
+      while ((entry = inputStream.getNextEntry()) != null) {
+        long parentId;
+        if (entry.hasInodeFile()) {
+          parentId = entry.getInodeFile().getParentId();
+        } else if (entry.hasInodeDirectory()
+            && entry.getInodeDirectory().getParentId() != InodeTree.NO_PARENT) {
+          parentId = entry.getInodeDirectory().getParentId();
+        } else {
+          processor.processBatch();
+          batchDirectoryIds.clear();
+          processJournalEntry(entry);
+          continue;
+        }
+        if (processor.isFull() || batchDirectoryIds.contains(parentId)) {
+          processor.processBatch();
+          batchDirectoryIds.clear();
+        }
+        if (entry.hasInodeDirectory()) {
+          batchDirectoryIds.add(entry.getInodeDirectory().getId());
+        }
+        processor.add(entry);
+      }
+      processor.processBatch();
+    } finally {
+      processor.close();
+      inputStream.close();
+    }
+  }
+
   @Override
   public void processJournalEntry(JournalEntry entry) throws IOException {
     Message innerEntry = JournalProtoUtils.unwrap(entry);
@@ -349,6 +437,13 @@ public final class FileSystemMaster extends AbstractMaster {
       }
     } else if (innerEntry instanceof DeleteFileEntry) {
       deleteFromEntry((DeleteFileEntry) innerEntry);
+    } else if (innerEntry instanceof BackgroundDeleteEntry) {
+      BackgroundDeleteEntry backgroundDeleteEntry = (BackgroundDeleteEntry) innerEntry;
+      if (backgroundDeleteEntry.getCompleted()) {
+        mPendingBackgroundDeletes.remove(backgroundDeleteEntry.getId());
+      } else {
+        mPendingBackgroundDeletes.put(backgroundDeleteEntry.getId(), backgroundDeleteEntry);
+      }
     } else if (innerEntry instanceof RenameEntry) {
       renameFromEntry((RenameEntry) innerEntry);
     } else if (innerEntry instanceof InodeDirectoryIdGeneratorEntry) {
@@ -394,6 +489,9 @@ public final class FileSystemMaster extends AbstractMaster {
     // when replaying the checkpoint, the inodes exist before mount entries. Replaying a mount
     // entry traverses the inode tree.
     mMountTable.streamToJournalCheckpoint(outputStream);
+    for (BackgroundDeleteEntry entry : mPendingBackgroundDeletes.values()) {
+      outputStream.writeEntry(JournalEntry.newBuilder().setBackgroundDelete(entry).build());
+    }
   }
 
   @Override
@@ -419,6 +517,18 @@ public final class FileSystemMaster extends AbstractMaster {
     // getExecutorService() because the super.start initializes the executor service.
     super.start(isLeader);
     if (isLeader) {
+      // The threads only wait for the under storage, and are released when no tree is being
+      // loaded.
+      mMetadataLoadExecutor = new ThreadPoolExecutor(mMetadataLoadThreads, mMetadataLoadThreads,
+          Constants.MINUTE_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+          ThreadFactoryUtils.build("file-system-master-metadata-load-%d", true));
+      mMetadataLoadExecutor.allowCoreThreadTimeOut(true);
+      // The deleter is also needed to complete the deletions of the previous leader.
+      mBackgroundDeleter = new BackgroundDeleter(mInodeTree, mBlockMaster, mTtlBuckets,
+          new BackgroundDeleteJournal(),
+          Configuration.getInt(PropertyKey.MASTER_FILE_DELETE_BACKGROUND_THREADS),
+          Configuration.getInt(PropertyKey.MASTER_FILE_DELETE_BATCH_SIZE));
+      recoverBackgroundDeletes();
       mTtlCheckerService = getExecutorService().submit(
           new HeartbeatThread(HeartbeatContext.MASTER_TTL_CHECK, new MasterInodeTtlCheckExecutor(),
               Configuration.getInt(PropertyKey.MASTER_TTL_CHECKER_INTERVAL_MS)));
@@ -436,6 +546,19 @@ public final class FileSystemMaster extends AbstractMaster {
     }
   }
 
+  @Override
+  public void stop() throws IOException {
+    if (mMetadataLoadExecutor != null) {
+      mMetadataLoadExecutor.shutdownNow();
+      mMetadataLoadExecutor = null;
+    }
+    if (mBackgroundDeleter != null) {
+      mBackgroundDeleter.close();
+      mBackgroundDeleter = null;
+    }
+    super.stop();
+  }
+
   /**
    * Class to represent the status and result of the startup consistency check.
    */
@@ -595,6 +718,26 @@ public final class FileSystemMaster extends AbstractMaster {
   public FileInfo getFileInfo(AlluxioURI path)
       throws FileDoesNotExistException, InvalidPathException, AccessControlException {
     Metrics.GET_FILE_INFO_OPS.inc();
+    // Paths which already exist are first looked up without locking their ancestors. The result
+    // is only returned if none of the inodes of the path was modified while it was read.
+    try (OptimisticLockedInodePath inodePath = mInodeTree.tryLockFullInodePathOptimistic(path)) {
+      if (inodePath != null) {
+        try {
+          mPermissionChecker.checkPermission(Mode.Bits.READ, inodePath);
+          FileInfo fileInfo = getFileInfoInternal(inodePath);
+          if (inodePath.validate()) {
+            return fileInfo;
+          }
+        } catch (AccessControlException | FileDoesNotExistException | InvalidPathException
+            | RuntimeException e) {
+          if (inodePath.validate()) {
+            throw e;
+          }
+        }
+        Metrics.OPTIMISTIC_LOOKUP_FALLBACKS.inc();
+      }
+    }
+
     long flushCounter = AsyncJournalWriter.INVALID_FLUSH_COUNTER;
     try (LockedInodePath inodePath = mInodeTree.lockInodePath(path, InodeTree.LockMode.WRITE)) {
       // This is WRITE locked, since loading metadata is possible.
@@ -652,8 +795,7 @@ public final class FileSystemMaster extends AbstractMaster {
    */
   // TODO(binfan): Add permission checking for internal APIs
   public PersistenceState getPersistenceState(long fileId) throws FileDoesNotExistException {
-    try (
-        LockedInodePath inodePath = mInodeTree.lockFullInodePath(fileId, InodeTree.LockMode.READ)) {
+    try (LockedInodePath inodePath = mInodeTree.lockFullInodePathForTargetRead(fileId)) {
       return inodePath.getInode().getPersistenceState();
     }
   }
@@ -661,7 +803,15 @@ public final class FileSystemMaster extends AbstractMaster {
   /**
    * Returns a list of {@link FileInfo} for a given path. If the given path is a file, the list only
    * contains a single object. If it is a directory, the resulting list contains all direct children
-   * of the directory.
+   * of the directory, in name order.
+   * <p>
+   * Large directories can be listed in batches by setting
+   * {@link ListStatusOptions#setBatchSize(int)}, and passing the name of the last child of a batch
+   * to {@link ListStatusOptions#setStartAfter(String)} to get the next one.
+   * <p>
+   * If {@link ListStatusOptions#isLoadMetadataRecursive()} is set, the metadata of the whole tree
+   * under the path is loaded before the first batch is listed, by listing the directories of the
+   * UFS in parallel. The list still only contains the direct children of the directory.
    * <p>
    * This operation requires users to have
    * {@link Mode.Bits#READ} permission on the path, and also
@@ -677,6 +827,51 @@ public final class FileSystemMaster extends AbstractMaster {
   public List<FileInfo> listStatus(AlluxioURI path, ListStatusOptions listStatusOptions)
       throws AccessControlException, FileDoesNotExistException, InvalidPathException {
     Metrics.GET_FILE_INFO_OPS.inc();
+    LoadMetadataType loadMetadataType = listStatusOptions.getLoadMetadataType();
+    String startAfter = listStatusOptions.getStartAfter();
+    if (listStatusOptions.isLoadMetadataRecursive() && loadMetadataType != LoadMetadataType.Never
+        && (startAfter == null || startAfter.isEmpty())) {
+      waitForJournalFlush(loadMetadataRecursiveAndJournal(path, loadMetadataType));
+      // The directory was just loaded with the rest of the tree, so it is only loaded again if
+      // listing it failed.
+      loadMetadataType = LoadMetadataType.Once;
+    }
+    // Most listings do not need to load any metadata, so first try to serve the listing while only
+    // holding read locks. This allows concurrent listings of the same directory. If enabled, only
+    // the directory itself is locked, and the listing is only returned if none of the inodes of
+    // the path was modified while it was listed.
+    try (OptimisticLockedInodePath inodePath = mInodeTree.tryLockFullInodePathOptimistic(path)) {
+      if (inodePath != null) {
+        try {
+          if (!isLoadMetadataRequired(inodePath, loadMetadataType)) {
+            mPermissionChecker.checkPermission(Mode.Bits.READ, inodePath);
+            List<FileInfo> ret = listStatusInternal(inodePath, listStatusOptions);
+            if (inodePath.validate()) {
+              Metrics.LIST_STATUS_READ_LOCKED_OPS.inc();
+              return ret;
+            }
+            Metrics.OPTIMISTIC_LOOKUP_FALLBACKS.inc();
+          }
+        } catch (AccessControlException | FileDoesNotExistException | InvalidPathException
+            | RuntimeException e) {
+          if (inodePath.validate()) {
+            throw e;
+          }
+          Metrics.OPTIMISTIC_LOOKUP_FALLBACKS.inc();
+        }
+      }
+    }
+    try (LockedInodePath inodePath = mInodeTree.lockInodePath(path, InodeTree.LockMode.READ)) {
+      if (!isLoadMetadataRequired(inodePath, loadMetadataType)) {
+        mPermissionChecker.checkPermission(Mode.Bits.READ, inodePath);
+        Metrics.LIST_STATUS_READ_LOCKED_OPS.inc();
+        return listStatusInternal(inodePath, listStatusOptions);
+      }
+    }
+
+    // Metadata may have to be loaded, so lock the path again in WRITE mode. The path may have been
+    // changed after the READ locks were released, so whether to load the metadata is rechecked.
+    Metrics.LIST_STATUS_WRITE_LOCKED_OPS.inc();
     long flushCounter = AsyncJournalWriter.INVALID_FLUSH_COUNTER;
     try (LockedInodePath inodePath = mInodeTree.lockInodePath(path, InodeTree.LockMode.WRITE)) {
       // This is WRITE locked, since loading metadata is possible.
@@ -684,12 +879,12 @@ public final class FileSystemMaster extends AbstractMaster {
 
       LoadMetadataOptions loadMetadataOptions =
           LoadMetadataOptions.defaults().setCreateAncestors(true).setLoadDirectChildren(
-              listStatusOptions.getLoadMetadataType() != LoadMetadataType.Never);
+              loadMetadataType != LoadMetadataType.Never);
       Inode<?> inode;
       if (inodePath.fullPathExists()) {
         inode = inodePath.getInode();
         if (inode.isDirectory()
-            && listStatusOptions.getLoadMetadataType() != LoadMetadataType.Always
+            && loadMetadataType != LoadMetadataType.Always
             && ((InodeDirectory) inode).isDirectChildrenLoaded()) {
           loadMetadataOptions.setLoadDirectChildren(false);
         }
@@ -697,33 +892,79 @@ public final class FileSystemMaster extends AbstractMaster {
 
       flushCounter = loadMetadataIfNotExistAndJournal(inodePath, loadMetadataOptions);
       mInodeTree.ensureFullInodePath(inodePath, InodeTree.LockMode.READ);
-      inode = inodePath.getInode();
-
-      List<FileInfo> ret = new ArrayList<>();
-      if (inode.isDirectory()) {
-        TempInodePathForDescendant tempInodePath = new TempInodePathForDescendant(inodePath);
-        mPermissionChecker.checkPermission(Mode.Bits.EXECUTE, inodePath);
-        for (Inode<?> child : ((InodeDirectory) inode).getChildren()) {
-          child.lockRead();
-          try {
-            // the path to child for getPath should already be locked.
-            tempInodePath.setDescendant(child, mInodeTree.getPath(child));
-            ret.add(getFileInfoInternal(tempInodePath));
-          } finally {
-            child.unlockRead();
-          }
-        }
-      } else {
-        ret.add(getFileInfoInternal(inodePath));
-      }
-      Metrics.FILE_INFOS_GOT.inc();
-      return ret;
+      return listStatusInternal(inodePath, listStatusOptions);
     } finally {
       // finally runs after resources are closed (unlocked).
       waitForJournalFlush(flushCounter);
     }
   }
 
+  /**
+   * Returns whether listing the given path may load metadata from the UFS. If this returns false,
+   * the listing can be served without modifying the inode tree.
+   *
+   * @param inodePath the {@link LockedInodePath} to list
+   * @param loadMetadataType the {@link LoadMetadataType} of the listing
+   * @return true if the path does not exist, or if its direct children may have to be loaded
+   * @throws FileDoesNotExistException if the path does not exist
+   */
+  private boolean isLoadMetadataRequired(LockedInodePath inodePath,
+      LoadMetadataType loadMetadataType) throws FileDoesNotExistException {
+    if (!inodePath.fullPathExists()) {
+      return true;
+    }
+    Inode<?> inode = inodePath.getInode();
+    if (!inode.isDirectory() || loadMetadataType == LoadMetadataType.Never) {
+      return false;
+    }
+    return loadMetadataType == LoadMetadataType.Always
+        || !((InodeDirectory) inode).isDirectChildrenLoaded();
+  }
+
+  /**
+   * Lists the status of an existing path. The path must already be locked. The children of a
+   * directory are read from the directory in name order without copying them, and only the
+   * requested batch is converted to {@link FileInfo}s.
+   *
+   * @param inodePath the {@link LockedInodePath} to list
+   * @param listStatusOptions the options specifying the batch to list
+   * @return the list of {@link FileInfo}s
+   * @throws AccessControlException if permission checking fails
+   * @throws FileDoesNotExistException if the file does not exist
+   * @throws InvalidPathException if the path is invalid
+   */
+  private List<FileInfo> listStatusInternal(LockedInodePath inodePath,
+      ListStatusOptions listStatusOptions)
+      throws AccessControlException, FileDoesNotExistException, InvalidPathException {
+    Inode<?> inode = inodePath.getInode();
+    String startAfter = listStatusOptions.getStartAfter();
+    int batchSize = listStatusOptions.getBatchSize() > 0
+        ? listStatusOptions.getBatchSize() : Integer.MAX_VALUE;
+    List<FileInfo> ret = new ArrayList<>();
+    if (inode.isDirectory()) {
+      TempInodePathForDescendant tempInodePath = new TempInodePathForDescendant(inodePath);
+      mPermissionChecker.checkPermission(Mode.Bits.EXECUTE, inodePath);
+      for (Inode<?> child : ((InodeDirectory) inode).getChildrenAfter(startAfter)) {
+        if (ret.size() >= batchSize) {
+          break;
+        }
+        child.lockRead();
+        try {
+          // The path of the child is derived from the locked path instead of computing it with
+          // getPath, which locks the ancestors and may not be called while they are not locked.
+          tempInodePath.setDescendant(child, inodePath.getUri().join(child.getName()));
+          ret.add(getFileInfoInternal(tempInodePath));
+        } finally {
+          child.unlockRead();
+        }
+      }
+    } else if (startAfter == null || inode.getName().compareTo(startAfter) > 0) {
+      ret.add(getFileInfoInternal(inodePath));
+    }
+    Metrics.FILE_INFOS_GOT.inc();
+    return ret;
+  }
+
   /**
    * @return a read-only view of the file system master
    */
@@ -792,14 +1033,13 @@ public final class FileSystemMaster extends AbstractMaster {
       return !ufs.exists(ufsPath);
     }
     // TODO(calvin): Evaluate which other metadata fields should be validated.
+    UnderFileStatus ufsStatus = ufs.getStatus(ufsPath);
     if (inode.isDirectory()) {
-      return ufs.exists(ufsPath)
-          && !ufs.isFile(ufsPath);
+      return ufsStatus != null && ufsStatus.isDirectory();
     } else {
       InodeFile file = (InodeFile) inode;
-      return ufs.exists(ufsPath)
-          && ufs.isFile(ufsPath)
-          && ufs.getFileSize(ufsPath) == file.getLength();
+      return ufsStatus != null && !ufsStatus.isDirectory()
+          && ufsStatus.getContentLength() == file.getLength();
     }
   }
 
@@ -1157,13 +1397,25 @@ public final class FileSystemMaster extends AbstractMaster {
     Inode<?> inode = inodePath.getInode();
     long fileId = inode.getId();
     long opTimeMs = System.currentTimeMillis();
-    deleteInternal(inodePath, recursive, false, opTimeMs);
+    BackgroundDeleter.Deletion deletion = deleteInternal(inodePath, recursive, false, opTimeMs);
     DeleteFileEntry deleteFile = DeleteFileEntry.newBuilder()
         .setId(fileId)
         .setRecursive(recursive)
         .setOpTimeMs(opTimeMs)
         .build();
-    return appendJournalEntry(JournalEntry.newBuilder().setDeleteFile(deleteFile).build());
+    long counter = appendJournalEntry(JournalEntry.newBuilder().setDeleteFile(deleteFile).build());
+    BackgroundDeleter backgroundDeleter = mBackgroundDeleter;
+    if (deletion != null && backgroundDeleter != null) {
+      if (deletion.isPersisted()) {
+        // The under storage paths are deleted again by the next leader if this one stops first.
+        BackgroundDeleteEntry backgroundDelete = deletion.toJournalEntry(false);
+        mPendingBackgroundDeletes.put(backgroundDelete.getId(), backgroundDelete);
+        counter = appendJournalEntry(
+            JournalEntry.newBuilder().setBackgroundDelete(backgroundDelete).build());
+      }
+      backgroundDeleter.submit(deletion, counter);
+    }
+    return counter;
   }
 
   /**
@@ -1202,28 +1454,34 @@ public final class FileSystemMaster extends AbstractMaster {
 
   /**
    * Implements file deletion.
+   * <p>
+   * If background deletion is enabled, a non-empty directory tree without mount points is only
+   * unlinked from its parent, and the inodes, the blocks and the under storage paths of the tree
+   * are removed later by the {@link BackgroundDeleter}, without holding any locks. The returned
+   * deletion must be submitted to it after the delete is journaled.
    *
    * @param inodePath the file {@link LockedInodePath}
    * @param recursive if the file id identifies a directory, this flag specifies whether the
    *        directory content should be deleted recursively
    * @param replayed whether the operation is a result of replaying the journal
    * @param opTimeMs the time of the operation
+   * @return the deletion of the unlinked tree, or null if the path was deleted completely
    * @throws FileDoesNotExistException if a non-existent file is encountered
    * @throws IOException if an I/O error is encountered
    * @throws InvalidPathException if the specified path is the root
    * @throws DirectoryNotEmptyException if recursive is false and the file is a nonempty directory
    */
-  private void deleteInternal(LockedInodePath inodePath, boolean recursive, boolean replayed,
-      long opTimeMs) throws FileDoesNotExistException, IOException, DirectoryNotEmptyException,
-      InvalidPathException {
+  private BackgroundDeleter.Deletion deleteInternal(LockedInodePath inodePath, boolean recursive,
+      boolean replayed, long opTimeMs) throws FileDoesNotExistException, IOException,
+      DirectoryNotEmptyException, InvalidPathException {
     // TODO(jiri): A crash after any UFS object is deleted and before the delete operation is
     // journaled will result in an inconsistency between Alluxio and UFS.
     if (!inodePath.fullPathExists()) {
-      return;
+      return null;
     }
     Inode<?> inode = inodePath.getInode();
     if (inode == null) {
-      return;
+      return null;
     }
     if (inode.isDirectory() && !recursive && ((InodeDirectory) inode).getNumberOfChildren() > 0) {
       // inode is nonempty, and we don't want to delete a nonempty directory unless recursive is
@@ -1236,6 +1494,20 @@ public final class FileSystemMaster extends AbstractMaster {
       throw new InvalidPathException(ExceptionMessage.DELETE_ROOT_DIRECTORY.getMessage());
     }
 
+    if (!replayed && mBackgroundDeleteEnabled && mBackgroundDeleter != null
+        && inode.isDirectory() && ((InodeDirectory) inode).getNumberOfChildren() > 0
+        && !containsMountPoint(inodePath.getUri())) {
+      // Only the root is write locked, so no other operation holds a lock in the tree. Once the
+      // root is removed from its parent and from the inode index, the rest of the tree can no
+      // longer be reached by path or by id.
+      AlluxioURI uri = inodePath.getUri();
+      MountTable.Resolution resolution = mMountTable.resolve(uri);
+      mInodeTree.deleteInode(inodePath, opTimeMs);
+      Metrics.PATHS_DELETED.inc();
+      return new BackgroundDeleter.Deletion(inode.getId(), uri, (InodeDirectory) inode,
+          inode.isPersisted() ? resolution.getUfs() : null, resolution.getUri());
+    }
+
     List<Inode<?>> delInodes = new ArrayList<>();
     delInodes.add(inode);
 
@@ -1287,6 +1559,52 @@ public final class FileSystemMaster extends AbstractMaster {
     }
 
     Metrics.PATHS_DELETED.inc(delInodes.size());
+    return null;
+  }
+
+  /**
+   * @param uri an Alluxio path
+   * @return whether the path or one of its descendants is a mount point
+   * @throws InvalidPathException if the path is invalid
+   */
+  private boolean containsMountPoint(AlluxioURI uri) throws InvalidPathException {
+    for (String mountPoint : mMountTable.getMountTable().keySet()) {
+      if (PathUtils.hasPrefix(mountPoint, uri.getPath())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Submits the journaled deletions of the previous leaders whose under storage paths may not be
+   * deleted yet to the {@link BackgroundDeleter}.
+   */
+  private void recoverBackgroundDeletes() {
+    for (BackgroundDeleteEntry entry : mPendingBackgroundDeletes.values()) {
+      AlluxioURI uri = new AlluxioURI(entry.getAlluxioPath());
+      BackgroundDeleter.Deletion deletion = null;
+      try {
+        MountTable.Resolution resolution = mMountTable.resolve(uri);
+        if (resolution.getUri().toString().equals(entry.getUfsPath())) {
+          deletion = new BackgroundDeleter.Deletion(entry.getId(), uri, null,
+              resolution.getUfs(), resolution.getUri());
+        }
+      } catch (InvalidPathException e) {
+        LOG.warn(e.getMessage());
+      }
+      if (deletion != null) {
+        LOG.info("Resuming the under storage deletion of {}", uri);
+        mBackgroundDeleter.submit(deletion, AsyncJournalWriter.INVALID_FLUSH_COUNTER);
+      } else {
+        // The path was unmounted since it was deleted.
+        LOG.warn("Not deleting {} from the under storage because {} is no longer mounted there",
+            entry.getUfsPath(), uri);
+        mPendingBackgroundDeletes.remove(entry.getId());
+        appendJournalEntry(JournalEntry.newBuilder()
+            .setBackgroundDelete(entry.toBuilder().setCompleted(true)).build());
+      }
+    }
   }
 
   /**
@@ -2047,30 +2365,30 @@ public final class FileSystemMaster extends AbstractMaster {
     AlluxioURI ufsUri = resolution.getUri();
     UnderFileSystem ufs = resolution.getUfs();
     try {
-      if (!ufs.exists(ufsUri.toString())) {
+      // The status is known when the path is loaded as a child of a listed directory.
+      UnderFileStatus ufsStatus = options.getUnderFileStatus();
+      BackgroundDeleter backgroundDeleter = mBackgroundDeleter;
+      if (backgroundDeleter != null && backgroundDeleter.isPendingDelete(path)) {
+        // The path is deleted, but not yet from the under storage.
+        ufsStatus = null;
+      } else if (ufsStatus == null) {
+        ufsStatus = ufs.getStatus(ufsUri.toString());
+      }
+      if (ufsStatus == null) {
         InodeDirectory inode = (InodeDirectory) inodePath.getInode();
         inode.setDirectChildrenLoaded(true);
         return AsyncJournalWriter.INVALID_FLUSH_COUNTER;
       }
-      if (ufs.isFile(ufsUri.toString())) {
-        return loadFileMetadataAndJournal(inodePath, resolution, options);
+      if (!ufsStatus.isDirectory()) {
+        return loadFileMetadataAndJournal(inodePath, resolution, ufsStatus, options);
       } else {
-        long counter = loadDirectoryMetadataAndJournal(inodePath, options);
-        InodeDirectory inode = (InodeDirectory) inodePath.getInode();
+        long counter = loadDirectoryMetadataAndJournal(inodePath, ufsStatus, options);
 
         if (options.isLoadDirectChildren()) {
-          String[] files = ufs.list(ufsUri.getPath());
-          LoadMetadataOptions loadMetadataOptions = LoadMetadataOptions.defaults();
-          loadMetadataOptions.setLoadDirectChildren(false).setCreateAncestors(false);
-
-          for (String file : files) {
-            if (PathUtils.isTemporaryFileName(file) || inode.getChild(file) != null) {
-              continue;
-            }
-            TempInodePathForChild tempInodePath = new TempInodePathForChild(inodePath, file);
-            counter = loadMetadataAndJournal(tempInodePath, loadMetadataOptions);
-          }
-          inode.setDirectChildrenLoaded(true);
+          // The listing returns the statuses of the children, so that loading them does not make
+          // more calls to the under storage.
+          counter = AsyncJournalWriter.getFlushCounter(counter,
+              loadChildrenMetadataAndJournal(inodePath, ufs.listStatus(ufsUri.toString())));
         }
         return counter;
       }
@@ -2080,11 +2398,229 @@ public final class FileSystemMaster extends AbstractMaster {
     }
   }
 
+  /**
+   * Loads the metadata of the direct children of a directory from their statuses in the UFS, and
+   * marks the children of the directory as loaded. The children which already exist in Alluxio are
+   * not changed.
+   * <p>
+   * Writes to the journal.
+   *
+   * @param inodePath the path of the directory, which must be locked in WRITE mode
+   * @param children the statuses of the children in the UFS, or null if the directory does not
+   *        exist in the UFS
+   * @return the flush counter for journaling
+   * @throws InvalidPathException if invalid path is encountered
+   * @throws FileDoesNotExistException if there is no UFS path
+   * @throws BlockInfoException if an invalid block size is encountered
+   * @throws FileAlreadyCompletedException if the file is already completed
+   * @throws InvalidFileSizeException if invalid file size is encountered
+   * @throws AccessControlException if permission checking fails
+   * @throws IOException if an I/O error occurs
+   */
+  private long loadChildrenMetadataAndJournal(LockedInodePath inodePath,
+      UnderFileStatus[] children) throws InvalidPathException, FileDoesNotExistException,
+      BlockInfoException, FileAlreadyCompletedException, InvalidFileSizeException,
+      AccessControlException, IOException {
+    InodeDirectory inode = (InodeDirectory) inodePath.getInode();
+    long counter = AsyncJournalWriter.INVALID_FLUSH_COUNTER;
+    if (children != null) {
+      LoadMetadataOptions loadMetadataOptions = LoadMetadataOptions.defaults();
+      loadMetadataOptions.setLoadDirectChildren(false).setCreateAncestors(false);
+      for (UnderFileStatus child : children) {
+        String file = child.getName();
+        if (PathUtils.isTemporaryFileName(file) || inode.getChild(file) != null) {
+          continue;
+        }
+        TempInodePathForChild tempInodePath = new TempInodePathForChild(inodePath, file);
+        loadMetadataOptions.setUnderFileStatus(child);
+        counter = AsyncJournalWriter.getFlushCounter(counter,
+            loadMetadataAndJournal(tempInodePath, loadMetadataOptions));
+      }
+    }
+    inode.setDirectChildrenLoaded(true);
+    return counter;
+  }
+
+  /**
+   * Loads the metadata of a directory tree from the UFS into Alluxio. The directories are listed
+   * in parallel by {@link #mMetadataLoadExecutor}, while the children of each listed directory are
+   * loaded in a single batch by the calling thread, which only locks that directory. The journal
+   * entries of the whole tree are flushed once by the caller.
+   * <p>
+   * The directories whose children are already loaded are only listed again for
+   * {@link LoadMetadataType#Always}. The subtree of a directory is skipped if the directory fails
+   * to be listed or loaded.
+   *
+   * @param path the root of the tree to load
+   * @param loadMetadataType the {@link LoadMetadataType} of the tree
+   * @return the flush counter for journaling
+   * @throws AccessControlException if permission checking fails
+   * @throws InvalidPathException if the path is invalid
+   */
+  private long loadMetadataRecursiveAndJournal(AlluxioURI path,
+      LoadMetadataType loadMetadataType) throws AccessControlException, InvalidPathException {
+    long startMs = System.currentTimeMillis();
+    long lastProgressMs = startMs;
+    long numDirectoriesListed = 0;
+    long numPathsLoaded = 0;
+    long flushCounter;
+    try (LockedInodePath inodePath = mInodeTree.lockInodePath(path, InodeTree.LockMode.WRITE)) {
+      mPermissionChecker.checkPermission(Mode.Bits.READ, inodePath);
+      flushCounter = loadMetadataIfNotExistAndJournal(inodePath,
+          LoadMetadataOptions.defaults().setCreateAncestors(true));
+    }
+
+    // The directories whose subtrees are not visited yet, and the pending listings of the UFS.
+    Deque<AlluxioURI> directories = new ArrayDeque<>();
+    directories.add(path);
+    CompletionService<Pair<AlluxioURI, UnderFileStatus[]>> listings =
+        new ExecutorCompletionService<>(mMetadataLoadExecutor);
+    Set<Future<Pair<AlluxioURI, UnderFileStatus[]>>> pendingListings = new HashSet<>();
+    try {
+      while (!directories.isEmpty() || !pendingListings.isEmpty()) {
+        while (!directories.isEmpty() && pendingListings.size() < mMetadataLoadThreads) {
+          AlluxioURI directory = directories.poll();
+          try (LockedInodePath inodePath =
+              mInodeTree.lockFullInodePath(directory, InodeTree.LockMode.READ)) {
+            mPermissionChecker.checkPermission(Mode.Bits.READ, inodePath);
+            Inode<?> inode = inodePath.getInode();
+            if (!inode.isDirectory()) {
+              continue;
+            }
+            if (loadMetadataType == LoadMetadataType.Always
+                || !((InodeDirectory) inode).isDirectChildrenLoaded()) {
+              pendingListings.add(listings.submit(
+                  new UfsListingCallable(directory, mMountTable.resolve(directory))));
+            } else {
+              addChildDirectories((InodeDirectory) inode, directory, directories);
+            }
+          } catch (FileDoesNotExistException e) {
+            // The directory was deleted after its parent was loaded.
+          }
+        }
+        if (pendingListings.isEmpty()) {
+          continue;
+        }
+
+        Future<Pair<AlluxioURI, UnderFileStatus[]>> future = listings.take();
+        pendingListings.remove(future);
+        Pair<AlluxioURI, UnderFileStatus[]> listing = future.get();
+        AlluxioURI directory = listing.getFirst();
+        numDirectoriesListed++;
+        Metrics.METADATA_LOAD_DIRECTORIES_LISTED.inc();
+        if (listing.getSecond() == null) {
+          // The listing failed, so the subtree is skipped.
+          continue;
+        }
+        try (LockedInodePath inodePath =
+            mInodeTree.lockFullInodePath(directory, InodeTree.LockMode.WRITE)) {
+          Inode<?> inode = inodePath.getInode();
+          if (!inode.isDirectory()) {
+            continue;
+          }
+          InodeDirectory inodeDirectory = (InodeDirectory) inode;
+          int numChildren = inodeDirectory.getNumberOfChildren();
+          flushCounter = AsyncJournalWriter.getFlushCounter(flushCounter,
+              loadChildrenMetadataAndJournal(inodePath, listing.getSecond()));
+          numPathsLoaded += inodeDirectory.getNumberOfChildren() - numChildren;
+          Metrics.METADATA_LOAD_PATHS_LOADED.inc(
+              inodeDirectory.getNumberOfChildren() - numChildren);
+          addChildDirectories(inodeDirectory, directory, directories);
+        } catch (FileDoesNotExistException e) {
+          // The directory was deleted after it was listed.
+        } catch (AlluxioException | IOException e) {
+          LOG.warn("Failed to load the metadata of the children of {}: {}", directory,
+              e.getMessage());
+        }
+
+        long nowMs = System.currentTimeMillis();
+        if (nowMs - lastProgressMs >= METADATA_LOAD_PROGRESS_INTERVAL_MS) {
+          lastProgressMs = nowMs;
+          LOG.info("Loading the metadata of {}: listed {} directories and loaded {} paths in {} ms,"
+              + " {} directories to visit", path, numDirectoriesListed, numPathsLoaded,
+              nowMs - startMs, directories.size() + pendingListings.size());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOG.warn("Interrupted while loading the metadata of {}", path);
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    } finally {
+      for (Future<Pair<AlluxioURI, UnderFileStatus[]>> future : pendingListings) {
+        future.cancel(true);
+      }
+    }
+    long durationMs = System.currentTimeMillis() - startMs;
+    LOG.info("Loaded the metadata of {}: listed {} directories and loaded {} paths in {} ms"
+        + " ({} paths/s)", path, numDirectoriesListed, numPathsLoaded, durationMs,
+        numPathsLoaded * Constants.SECOND_MS / Math.max(durationMs, 1));
+    return flushCounter;
+  }
+
+  /**
+   * Adds the child directories of a directory to the directories to visit.
+   *
+   * @param inode the directory, which must be locked
+   * @param uri the path of the directory
+   * @param directories the directories to visit
+   */
+  private void addChildDirectories(InodeDirectory inode, AlluxioURI uri,
+      Deque<AlluxioURI> directories) {
+    for (Inode<?> child : inode.getChildren()) {
+      if (child.isDirectory()) {
+        directories.add(uri.join(child.getName()));
+      }
+    }
+  }
+
+  /**
+   * Lists a directory of the UFS. The listing does not access the inode tree, so it runs without
+   * holding any lock.
+   */
+  @ThreadSafe
+  private static final class UfsListingCallable
+      implements Callable<Pair<AlluxioURI, UnderFileStatus[]>> {
+    private final AlluxioURI mUri;
+    private final MountTable.Resolution mResolution;
+
+    /**
+     * @param uri the Alluxio path of the directory
+     * @param resolution the resolution of the path in the UFS
+     */
+    UfsListingCallable(AlluxioURI uri, MountTable.Resolution resolution) {
+      mUri = uri;
+      mResolution = resolution;
+    }
+
+    /**
+     * @return the path of the directory, and the statuses of its children in the UFS, which are
+     *         an empty array if the directory does not exist in the UFS, or null if the listing
+     *         failed
+     */
+    @Override
+    public Pair<AlluxioURI, UnderFileStatus[]> call() {
+      Timer.Context timer = Metrics.METADATA_LOAD_UFS_LIST_STATUS.time();
+      try {
+        UnderFileStatus[] children =
+            mResolution.getUfs().listStatus(mResolution.getUri().toString());
+        return new Pair<>(mUri, children == null ? new UnderFileStatus[0] : children);
+      } catch (IOException e) {
+        LOG.warn("Failed to list {} in the under storage: {}", mResolution.getUri(),
+            e.getMessage());
+        return new Pair<>(mUri, null);
+      } finally {
+        timer.stop();
+      }
+    }
+  }
+
   /**
    * Loads metadata for the file identified by the given path from UFS into Alluxio.
    *
    * @param inodePath the path for which metadata should be loaded
    * @param resolution the UFS resolution of path
+   * @param ufsStatus the status of the file in the UFS
    * @param options the load metadata options
    * @return the file id of the loaded file
    * @throws BlockInfoException if an invalid block size is encountered
@@ -2096,25 +2632,20 @@ public final class FileSystemMaster extends AbstractMaster {
    * @throws IOException if an I/O error occurs
    */
   private long loadFileMetadataAndJournal(LockedInodePath inodePath,
-      MountTable.Resolution resolution, LoadMetadataOptions options)
+      MountTable.Resolution resolution, UnderFileStatus ufsStatus, LoadMetadataOptions options)
       throws IOException, BlockInfoException, FileDoesNotExistException, InvalidPathException,
       AccessControlException, FileAlreadyCompletedException, InvalidFileSizeException, IOException {
     if (inodePath.fullPathExists()) {
       return AsyncJournalWriter.INVALID_FLUSH_COUNTER;
     }
-    AlluxioURI ufsUri = resolution.getUri();
-    UnderFileSystem ufs = resolution.getUfs();
-
-    long ufsBlockSizeByte = ufs.getBlockSizeByte(ufsUri.toString());
-    long ufsLength = ufs.getFileSize(ufsUri.toString());
+    long ufsBlockSizeByte = ufsStatus.getBlockSizeBytes();
+    long ufsLength = ufsStatus.getContentLength();
     // Metadata loaded from UFS has no TTL set.
     CreateFileOptions createFileOptions =
         CreateFileOptions.defaults().setBlockSizeBytes(ufsBlockSizeByte)
             .setRecursive(options.isCreateAncestors()).setMetadataLoad(true).setPersisted(true);
-    String ufsOwner = ufs.getOwner(ufsUri.toString());
-    String ufsGroup = ufs.getGroup(ufsUri.toString());
-    short ufsMode = ufs.getMode(ufsUri.toString());
-    Permission permission = new Permission(ufsOwner, ufsGroup, ufsMode);
+    Permission permission =
+        new Permission(ufsStatus.getOwner(), ufsStatus.getGroup(), ufsStatus.getMode());
     if (resolution.getShared()) {
       Mode mode = permission.getMode();
       mode.setOtherBits(mode.getOtherBits().or(mode.getOwnerBits()));
@@ -2141,6 +2672,7 @@ public final class FileSystemMaster extends AbstractMaster {
    * It is a no-op if the directory exists and is persisted.
    *
    * @param inodePath the path for which metadata should be loaded
+   * @param ufsStatus the status of the directory in the UFS, or null to fetch its permission
    * @param options the load metadata options
    * @return the flush counter for journaling
    * @throws InvalidPathException if invalid path is encountered
@@ -2150,7 +2682,7 @@ public final class FileSystemMaster extends AbstractMaster {
    */
 
   private long loadDirectoryMetadataAndJournal(LockedInodePath inodePath,
-      LoadMetadataOptions options)
+      UnderFileStatus ufsStatus, LoadMetadataOptions options)
       throws FileDoesNotExistException, InvalidPathException, AccessControlException, IOException {
     if (inodePath.fullPathExists()) {
       if (inodePath.getInode().isPersisted()) {
@@ -2162,12 +2694,18 @@ public final class FileSystemMaster extends AbstractMaster {
             .setPersisted(true).setRecursive(options.isCreateAncestors()).setMetadataLoad(true)
             .setAllowExists(true);
     MountTable.Resolution resolution = mMountTable.resolve(inodePath.getUri());
-    AlluxioURI ufsUri = resolution.getUri();
-    UnderFileSystem ufs = resolution.getUfs();
-    String ufsOwner = ufs.getOwner(ufsUri.toString());
-    String ufsGroup = ufs.getGroup(ufsUri.toString());
-    short ufsMode = ufs.getMode(ufsUri.toString());
-    Permission permission = new Permission(ufsOwner, ufsGroup, ufsMode);
+    Permission permission;
+    if (ufsStatus != null) {
+      permission =
+          new Permission(ufsStatus.getOwner(), ufsStatus.getGroup(), ufsStatus.getMode());
+    } else {
+      AlluxioURI ufsUri = resolution.getUri();
+      UnderFileSystem ufs = resolution.getUfs();
+      String ufsOwner = ufs.getOwner(ufsUri.toString());
+      String ufsGroup = ufs.getGroup(ufsUri.toString());
+      short ufsMode = ufs.getMode(ufsUri.toString());
+      permission = new Permission(ufsOwner, ufsGroup, ufsMode);
+    }
     if (resolution.getShared()) {
       Mode mode = permission.getMode();
       mode.setOtherBits(mode.getOtherBits().or(mode.getOwnerBits()));
@@ -2272,11 +2810,12 @@ public final class FileSystemMaster extends AbstractMaster {
           ExceptionMessage.MOUNT_POINT_ALREADY_EXISTS.getMessage(inodePath.getUri()));
     }
 
-    mountInternal(inodePath, ufsPath, false /* not replayed */, options);
+    UnderFileStatus ufsStatus =
+        mountInternal(inodePath, ufsPath, false /* not replayed */, options);
     boolean loadMetadataSucceeded = false;
     try {
       // This will create the directory at alluxioPath
-      loadDirectoryMetadataAndJournal(inodePath,
+      loadDirectoryMetadataAndJournal(inodePath, ufsStatus,
           LoadMetadataOptions.defaults().setCreateAncestors(false));
       loadMetadataSucceeded = true;
     } finally {
@@ -2326,24 +2865,27 @@ public final class FileSystemMaster extends AbstractMaster {
    * @param ufsPath the UFS endpoint to mount
    * @param replayed whether the operation is a result of replaying the journal
    * @param options the mount options (may be updated)
+   * @return the status of the UFS endpoint, or null if the operation is replayed
    * @throws FileAlreadyExistsException if the mount point already exists
    * @throws InvalidPathException if an invalid path is encountered
    * @throws IOException if an I/O exception occurs
    */
-  private void mountInternal(LockedInodePath inodePath, AlluxioURI ufsPath, boolean replayed,
-      MountOptions options)
+  private UnderFileStatus mountInternal(LockedInodePath inodePath, AlluxioURI ufsPath,
+      boolean replayed, MountOptions options)
       throws FileAlreadyExistsException, InvalidPathException, IOException {
     AlluxioURI alluxioPath = inodePath.getUri();
 
+    UnderFileStatus ufsStatus = null;
     if (!replayed) {
       // Check that the ufsPath exists and is a directory
       UnderFileSystem ufs = UnderFileSystem.get(ufsPath.toString());
       ufs.setProperties(options.getProperties());
-      if (!ufs.exists(ufsPath.toString())) {
+      ufsStatus = ufs.getStatus(ufsPath.toString());
+      if (ufsStatus == null) {
         throw new IOException(
             ExceptionMessage.UFS_PATH_DOES_NOT_EXIST.getMessage(ufsPath.getPath()));
       }
-      if (ufs.isFile(ufsPath.toString())) {
+      if (!ufsStatus.isDirectory()) {
         throw new IOException(
             ExceptionMessage.PATH_MUST_BE_DIRECTORY.getMessage(ufsPath.getPath()));
       }
@@ -2363,6 +2905,7 @@ public final class FileSystemMaster extends AbstractMaster {
     // Add the mount point. This will only succeed if we are not mounting a prefix of an existing
     // mount and no existing mount is a prefix of this mount.
     mMountTable.add(alluxioPath, ufsPath, options);
+    return ufsStatus;
   }
 
   /**
@@ -2801,6 +3344,28 @@ public final class FileSystemMaster extends AbstractMaster {
     return mBlockMaster.getWorkerInfoList();
   }
 
+  /**
+   * Journals the progress of the background deletions of this master.
+   */
+  private final class BackgroundDeleteJournal implements BackgroundDeleter.DeletionJournal {
+    /**
+     * Constructs a new {@link BackgroundDeleteJournal}.
+     */
+    BackgroundDeleteJournal() {}
+
+    @Override
+    public void waitForFlush(long flushCounter) {
+      waitForJournalFlush(flushCounter);
+    }
+
+    @Override
+    public void completed(BackgroundDeleter.Deletion deletion) {
+      mPendingBackgroundDeletes.remove(deletion.getId());
+      waitForJournalFlush(appendJournalEntry(
+          JournalEntry.newBuilder().setBackgroundDelete(deletion.toJournalEntry(true)).build()));
+    }
+  }
+
   /**
    * This class represents the executor for periodic inode ttl check.
    */
@@ -2813,47 +3378,128 @@ public final class FileSystemMaster extends AbstractMaster {
 
     @Override
     public void heartbeat() {
-      Set<TtlBucket> expiredBuckets = mTtlBuckets.getExpiredBuckets(System.currentTimeMillis());
+      long nowMs = System.currentTimeMillis();
+      Set<TtlBucket> expiredBuckets = mTtlBuckets.getExpiredBuckets(nowMs);
+      // Groups the expired files by parent, so that the path of each parent is computed once.
+      Map<Long, List<InodeFile>> filesByParent = new HashMap<>();
       for (TtlBucket bucket : expiredBuckets) {
         for (InodeFile file : bucket.getFiles()) {
-          AlluxioURI path = null;
-          try (LockedInodePath inodePath = mInodeTree
-              .lockFullInodePath(file.getId(), InodeTree.LockMode.READ)) {
-            path = inodePath.getUri();
-          } catch (Exception e) {
-            LOG.error("Exception trying to clean up {} for ttl check: {}", file.toString(),
-                e.toString());
-          }
-          if (path != null) {
-            try {
-              TtlAction ttlAction = file.getTtlAction();
-              LOG.debug("File {} is expired. Performing action {}", file.getName(), ttlAction);
-              switch (ttlAction) {
-                case FREE:
-                  free(path, false);
-                  // Reset state
-                  file.setTtl(Constants.NO_TTL);
-                  file.setTtlAction(TtlAction.DELETE);
-                  mTtlBuckets.remove(file);
-                  break;
-                case DELETE:// Default if not set is DELETE
-                  // public delete method will lock the path, and check WRITE permission required at
-                  // parent of file
-                  delete(path, false);
-                  break;
-                default:
-                  LOG.error("Unknown TtlAction.");
-              }
-            } catch (Exception e) {
-              LOG.error("Exception trying to clean up {} for ttl check: {}", file.toString(),
-                  e.toString());
-            }
+          List<InodeFile> files = filesByParent.get(file.getParentId());
+          if (files == null) {
+            files = new ArrayList<>();
+            filesByParent.put(file.getParentId(), files);
           }
+          files.add(file);
         }
       }
+      long flushCounter = AsyncJournalWriter.INVALID_FLUSH_COUNTER;
+      try {
+        for (Map.Entry<Long, List<InodeFile>> entry : filesByParent.entrySet()) {
+          flushCounter = AsyncJournalWriter.getFlushCounter(flushCounter,
+              expireFiles(entry.getKey(), entry.getValue(), nowMs));
+        }
+      } finally {
+        // The journal entries of all the expired files are flushed at once.
+        waitForJournalFlush(flushCounter);
+      }
       mTtlBuckets.removeBuckets(expiredBuckets);
     }
 
+    /**
+     * Performs the ttl actions of expired files of a directory.
+     * <p>
+     * Writes to the journal.
+     *
+     * @param parentId the id of the directory
+     * @param files the expired files of the directory
+     * @param nowMs the time of the check
+     * @return the flush counter for journaling
+     */
+    private long expireFiles(long parentId, List<InodeFile> files, long nowMs) {
+      AlluxioURI parentUri = null;
+      try (LockedInodePath parentPath = mInodeTree
+          .lockFullInodePath(parentId, InodeTree.LockMode.READ)) {
+        parentUri = parentPath.getUri();
+      } catch (FileDoesNotExistException e) {
+        // The files are looked up by id below.
+        LOG.debug("The parent {} of expired files does not exist: {}", parentId, e.toString());
+      }
+      long counter = AsyncJournalWriter.INVALID_FLUSH_COUNTER;
+      for (InodeFile file : files) {
+        try (LockedInodePath inodePath = lockExpiredFile(parentUri, file)) {
+          if (inodePath == null) {
+            continue;
+          }
+          long ttlEndTimeMs = file.getCreationTimeMs() + file.getTtl();
+          TtlAction ttlAction = file.getTtlAction();
+          LOG.debug("File {} is expired. Performing action {}", file.getName(), ttlAction);
+          switch (ttlAction) {
+            case FREE:
+              mPermissionChecker.checkPermission(Mode.Bits.READ, inodePath);
+              freeInternal(inodePath, false);
+              // Reset state
+              SetAttributeOptions options = SetAttributeOptions.defaults()
+                  .setTtl(Constants.NO_TTL).setTtlAction(TtlAction.DELETE);
+              setAttributeInternal(inodePath, false, nowMs, options);
+              counter = AsyncJournalWriter.getFlushCounter(counter,
+                  journalSetAttribute(inodePath, nowMs, options));
+              break;
+            case DELETE:// Default if not set is DELETE
+              // WRITE permission required at parent of file
+              mPermissionChecker.checkParentPermission(Mode.Bits.WRITE, inodePath);
+              mMountTable.checkUnderWritableMountPoint(inodePath.getUri());
+              counter = AsyncJournalWriter.getFlushCounter(counter,
+                  deleteAndJournal(inodePath, false));
+              break;
+            default:
+              LOG.error("Unknown TtlAction.");
+              continue;
+          }
+          Metrics.TTL_FILES_EXPIRED.inc();
+          Metrics.TTL_EXPIRATION_LAG_MS.update(Math.max(nowMs - ttlEndTimeMs, 0));
+        } catch (Exception e) {
+          LOG.error("Exception trying to clean up {} for ttl check: {}", file.toString(),
+              e.toString());
+        }
+      }
+      return counter;
+    }
+
+    /**
+     * Locks an expired file for its ttl action, through the path of its parent if the file was
+     * not moved, or else by id.
+     *
+     * @param parentUri the path of the parent of the file, or null if the parent is not found
+     * @param file the expired file
+     * @return the locked path of the file, or null if the file does not exist anymore
+     */
+    private LockedInodePath lockExpiredFile(AlluxioURI parentUri, InodeFile file) {
+      if (parentUri != null) {
+        LockedInodePath inodePath = null;
+        try {
+          inodePath = mInodeTree
+              .lockFullInodePath(parentUri.join(file.getName()), InodeTree.LockMode.WRITE);
+          if (inodePath.getInode().getId() == file.getId()) {
+            LockedInodePath locked = inodePath;
+            inodePath = null;
+            return locked;
+          }
+        } catch (FileDoesNotExistException | InvalidPathException e) {
+          // The file was moved, look it up by id.
+        } finally {
+          if (inodePath != null) {
+            inodePath.close();
+          }
+        }
+      }
+      try {
+        return mInodeTree.lockFullInodePath(file.getId(), InodeTree.LockMode.WRITE);
+      } catch (FileDoesNotExistException e) {
+        LOG.debug("Expired file {} does not exist anymore: {}", file.getId(), e.toString());
+        return null;
+      }
+    }
+
     @Override
     public void close() {
       // Nothing to clean up
@@ -2907,11 +3553,22 @@ public final class FileSystemMaster extends AbstractMaster {
     private static final Counter FILES_CREATED = MetricsSystem.masterCounter("FilesCreated");
     private static final Counter FILES_FREED = MetricsSystem.masterCounter("FilesFreed");
     private static final Counter FILES_PERSISTED = MetricsSystem.masterCounter("FilesPersisted");
+    private static final Counter METADATA_LOAD_DIRECTORIES_LISTED =
+        MetricsSystem.masterCounter("MetadataLoadDirectoriesListed");
+    private static final Counter METADATA_LOAD_PATHS_LOADED =
+        MetricsSystem.masterCounter("MetadataLoadPathsLoaded");
+    private static final Timer METADATA_LOAD_UFS_LIST_STATUS =
+        MetricsSystem.masterTimer("MetadataLoadUfsListStatus");
     private static final Counter NEW_BLOCKS_GOT = MetricsSystem.masterCounter("NewBlocksGot");
+    private static final Counter OPTIMISTIC_LOOKUP_FALLBACKS =
+        MetricsSystem.masterCounter("OptimisticLookupFallbacks");
     private static final Counter PATHS_DELETED = MetricsSystem.masterCounter("PathsDeleted");
     private static final Counter PATHS_MOUNTED = MetricsSystem.masterCounter("PathsMounted");
     private static final Counter PATHS_RENAMED = MetricsSystem.masterCounter("PathsRenamed");
     private static final Counter PATHS_UNMOUNTED = MetricsSystem.masterCounter("PathsUnmounted");
+    private static final Histogram TTL_EXPIRATION_LAG_MS =
+        MetricsSystem.masterHistogram("TtlExpirationLagMs");
+    private static final Counter TTL_FILES_EXPIRED = MetricsSystem.masterCounter("TtlFilesExpired");
 
     // TODO(peis): Increment the RPCs OPs at the place where we receive the RPCs.
     private static final Counter COMPLETE_FILE_OPS = MetricsSystem.masterCounter("CompleteFileOps");
@@ -2924,6 +3581,10 @@ public final class FileSystemMaster extends AbstractMaster {
         MetricsSystem.masterCounter("GetFileBlockInfoOps");
     private static final Counter GET_FILE_INFO_OPS = MetricsSystem.masterCounter("GetFileInfoOps");
     private static final Counter GET_NEW_BLOCK_OPS = MetricsSystem.masterCounter("GetNewBlockOps");
+    private static final Counter LIST_STATUS_READ_LOCKED_OPS =
+        MetricsSystem.masterCounter("ListStatusReadLockedOps");
+    private static final Counter LIST_STATUS_WRITE_LOCKED_OPS =
+        MetricsSystem.masterCounter("ListStatusWriteLockedOps");
     private static final Counter MOUNT_OPS = MetricsSystem.masterCounter("MountOps");
     private static final Counter RENAME_PATH_OPS = MetricsSystem.masterCounter("RenamePathOps");
     private static final Counter SET_ATTRIBUTE_OPS = MetricsSystem.masterCounter("SetAttributeOps");
@@ -12,7 +12,9 @@
 package alluxio.master.file.async;
 
 import alluxio.AlluxioURI;
+import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.PropertyKey;
 import alluxio.exception.AccessControlException;
 import alluxio.exception.AlluxioException;
 import alluxio.exception.FileDoesNotExistException;
@@ -20,6 +22,7 @@ import alluxio.exception.InvalidPathException;
 import alluxio.master.file.FileSystemMaster;
 import alluxio.master.file.meta.FileSystemMasterView;
 import alluxio.thrift.PersistFile;
+import alluxio.underfs.UnderFileSystem;
 import alluxio.util.IdUtils;
 import alluxio.wire.BlockLocation;
 import alluxio.wire.FileBlockInfo;
@@ -39,9 +42,14 @@ import java.util.Random;
 import java.util.Set;
 
 /**
- * The default handler for async persistence that schedules the persistence on the workers that
- * contains all the blocks of a given file, and the handler returns the scheduled request whenever
- * the corresponding worker polls.
+ * The default handler for async persistence, which returns the scheduled requests whenever the
+ * corresponding workers poll.
+ *
+ * When the blocks of a file are stored by several workers and the under file system can join
+ * files, the file is split into parts of consecutive blocks, and each part is persisted by a
+ * worker storing its blocks, in parallel. The worker persisting the first part then joins the
+ * parts. Otherwise the persistence is scheduled on the worker storing the most bytes of the file,
+ * which reads the blocks it does not store from the other workers.
  */
 public final class DefaultAsyncPersistHandler implements AsyncPersistHandler {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
@@ -51,6 +59,9 @@ public final class DefaultAsyncPersistHandler implements AsyncPersistHandler {
   /** Map from worker to the files to persist on that worker. Used by async persistence service. */
   private final Map<Long, Set<Long>> mWorkerToAsyncPersistFiles;
 
+  /** Map from worker to the parts of the files split over several workers to persist on it. */
+  private final Map<Long, List<PersistFile>> mWorkerToAsyncPersistParts;
+
   /**
    * Constructs a new instance of {@link AsyncPersistHandler}.
    *
@@ -58,12 +69,33 @@ public final class DefaultAsyncPersistHandler implements AsyncPersistHandler {
    */
   public DefaultAsyncPersistHandler(FileSystemMasterView view) {
     mWorkerToAsyncPersistFiles = new HashMap<>();
+    mWorkerToAsyncPersistParts = new HashMap<>();
     mFileSystemMasterView = Preconditions.checkNotNull(view);
   }
 
   @Override
   public synchronized void scheduleAsyncPersistence(AlluxioURI path)
       throws AlluxioException {
+    long fileId = mFileSystemMasterView.getFileId(path);
+    List<FilePart> parts = getFileParts(path, fileId);
+    if (parts.size() > 1) {
+      List<Long> blockIds = new ArrayList<>();
+      for (FileBlockInfo fileBlockInfo : mFileSystemMasterView.getFileBlockInfoList(path)) {
+        blockIds.add(fileBlockInfo.getBlockInfo().getBlockId());
+      }
+      for (int i = 0; i < parts.size(); i++) {
+        FilePart part = parts.get(i);
+        if (!mWorkerToAsyncPersistParts.containsKey(part.mWorkerId)) {
+          mWorkerToAsyncPersistParts.put(part.mWorkerId, new ArrayList<PersistFile>());
+        }
+        mWorkerToAsyncPersistParts.get(part.mWorkerId)
+            .add(new PersistFile(fileId, blockIds, i, parts.size(), part.mStart, part.mEnd));
+      }
+      LOG.info("The blocks of file {} are stored on several workers, persisting it in {} parts",
+          path, parts.size());
+      return;
+    }
+
     // find the worker
     long workerId = getWorkerStoringFile(path);
 
@@ -75,11 +107,81 @@ public final class DefaultAsyncPersistHandler implements AsyncPersistHandler {
     if (!mWorkerToAsyncPersistFiles.containsKey(workerId)) {
       mWorkerToAsyncPersistFiles.put(workerId, new HashSet<Long>());
     }
-    mWorkerToAsyncPersistFiles.get(workerId).add(mFileSystemMasterView.getFileId(path));
+    mWorkerToAsyncPersistFiles.get(workerId).add(fileId);
+  }
+
+  /**
+   * Splits a file into parts of consecutive blocks stored by the same worker. A block is persisted
+   * by the worker persisting the previous block if that worker stores it, or else by the worker
+   * storing it which stores the most bytes of the file, so that the file is split into few parts.
+   *
+   * @param path the path to the file
+   * @param fileId the id of the file
+   * @return the parts of the file, or an empty list if the file cannot be persisted in parts
+   * @throws AlluxioException if the blocks of the file fail to be looked up
+   */
+  private List<FilePart> getFileParts(AlluxioURI path, long fileId) throws AlluxioException {
+    List<FilePart> parts = new ArrayList<>();
+    if (!UnderFileSystem.get(Configuration.get(PropertyKey.UNDERFS_ADDRESS)).supportsConcat()) {
+      return parts;
+    }
+    FileInfo fileInfo = mFileSystemMasterView.getFileInfo(fileId);
+    if (!fileInfo.isCompleted() || fileInfo.getLength() == 0) {
+      return parts;
+    }
+    List<FileBlockInfo> blockInfoList = mFileSystemMasterView.getFileBlockInfoList(path);
+    Map<Long, Long> workerBlockBytes = getWorkerBlockBytes(blockInfoList);
+    long previousWorkerId = IdUtils.INVALID_WORKER_ID;
+    for (int i = 0; i < blockInfoList.size(); i++) {
+      long workerId = IdUtils.INVALID_WORKER_ID;
+      for (BlockLocation blockLocation : blockInfoList.get(i).getBlockInfo().getLocations()) {
+        long locationWorkerId = blockLocation.getWorkerId();
+        if (locationWorkerId == previousWorkerId) {
+          workerId = locationWorkerId;
+          break;
+        }
+        if (workerId == IdUtils.INVALID_WORKER_ID
+            || workerBlockBytes.get(locationWorkerId) > workerBlockBytes.get(workerId)) {
+          workerId = locationWorkerId;
+        }
+      }
+      if (workerId == IdUtils.INVALID_WORKER_ID) {
+        // the block is not stored by any worker
+        return new ArrayList<>();
+      }
+      if (workerId != previousWorkerId) {
+        if (!parts.isEmpty()) {
+          parts.get(parts.size() - 1).mEnd = i;
+        }
+        parts.add(new FilePart(workerId, i));
+        previousWorkerId = workerId;
+      }
+    }
+    if (!parts.isEmpty()) {
+      parts.get(parts.size() - 1).mEnd = blockInfoList.size();
+    }
+    return parts;
   }
 
   /**
-   * Gets a worker where the given file is stored.
+   * @param blockInfoList the blocks of a file
+   * @return the number of bytes of the file stored by each worker
+   */
+  private static Map<Long, Long> getWorkerBlockBytes(List<FileBlockInfo> blockInfoList) {
+    Map<Long, Long> workerBlockBytes = new HashMap<>();
+    for (FileBlockInfo fileBlockInfo : blockInfoList) {
+      long blockLength = fileBlockInfo.getBlockInfo().getLength();
+      for (BlockLocation blockLocation : fileBlockInfo.getBlockInfo().getLocations()) {
+        long workerId = blockLocation.getWorkerId();
+        Long bytes = workerBlockBytes.get(workerId);
+        workerBlockBytes.put(workerId, (bytes == null ? 0 : bytes) + blockLength);
+      }
+    }
+    return workerBlockBytes;
+  }
+
+  /**
+   * Gets the worker which stores the most bytes of the given file.
    *
    * @param path the path to the file
    * @return the id of the storing worker
@@ -102,26 +204,9 @@ public final class DefaultAsyncPersistHandler implements AsyncPersistHandler {
       return workerInfoList.get(index).getId();
     }
 
-    Map<Long, Integer> workerBlockCounts = new HashMap<>();
-    List<FileBlockInfo> blockInfoList;
+    Map<Long, Long> workerBlockBytes;
     try {
-      blockInfoList = mFileSystemMasterView.getFileBlockInfoList(path);
-
-      for (FileBlockInfo fileBlockInfo : blockInfoList) {
-        for (BlockLocation blockLocation : fileBlockInfo.getBlockInfo().getLocations()) {
-          if (workerBlockCounts.containsKey(blockLocation.getWorkerId())) {
-            workerBlockCounts.put(blockLocation.getWorkerId(),
-                workerBlockCounts.get(blockLocation.getWorkerId()) + 1);
-          } else {
-            workerBlockCounts.put(blockLocation.getWorkerId(), 1);
-          }
-
-          // all the blocks of a file must be stored on the same worker
-          if (workerBlockCounts.get(blockLocation.getWorkerId()) == blockInfoList.size()) {
-            return blockLocation.getWorkerId();
-          }
-        }
-      }
+      workerBlockBytes = getWorkerBlockBytes(mFileSystemMasterView.getFileBlockInfoList(path));
     } catch (FileDoesNotExistException e) {
       LOG.error("The file {} to persist does not exist", path);
       return IdUtils.INVALID_WORKER_ID;
@@ -130,13 +215,22 @@ public final class DefaultAsyncPersistHandler implements AsyncPersistHandler {
       return IdUtils.INVALID_WORKER_ID;
     }
 
-    if (workerBlockCounts.size() == 0) {
+    if (workerBlockBytes.size() == 0) {
       LOG.error("The file " + path + " does not exist on any worker");
       return IdUtils.INVALID_WORKER_ID;
     }
-
-    LOG.error("Not all the blocks of file {} stored on the same worker", path);
-    return IdUtils.INVALID_WORKER_ID;
+    long bestWorkerId = IdUtils.INVALID_WORKER_ID;
+    for (Map.Entry<Long, Long> entry : workerBlockBytes.entrySet()) {
+      if (bestWorkerId == IdUtils.INVALID_WORKER_ID
+          || entry.getValue() > workerBlockBytes.get(bestWorkerId)) {
+        bestWorkerId = entry.getKey();
+      }
+    }
+    if (workerBlockBytes.size() > 1) {
+      LOG.info("The blocks of file {} are stored on {} workers, persisting it on worker {}", path,
+          workerBlockBytes.size(), bestWorkerId);
+    }
+    return bestWorkerId;
   }
 
   /**
@@ -155,6 +249,10 @@ public final class DefaultAsyncPersistHandler implements AsyncPersistHandler {
     List<PersistFile> filesToPersist = new ArrayList<>();
     List<Long> fileIdsToPersist = new ArrayList<>();
 
+    List<PersistFile> scheduledParts = mWorkerToAsyncPersistParts.remove(workerId);
+    if (scheduledParts != null) {
+      filesToPersist.addAll(scheduledParts);
+    }
     if (!mWorkerToAsyncPersistFiles.containsKey(workerId)) {
       return filesToPersist;
     }
@@ -170,10 +268,33 @@ public final class DefaultAsyncPersistHandler implements AsyncPersistHandler {
           blockIds.add(fileBlockInfo.getBlockInfo().getBlockId());
         }
 
-        filesToPersist.add(new PersistFile(fileId, blockIds));
+        filesToPersist.add(new PersistFile(fileId, blockIds, 0, 1, 0, blockIds.size()));
       }
     }
     mWorkerToAsyncPersistFiles.get(workerId).removeAll(fileIdsToPersist);
     return filesToPersist;
   }
+
+  /**
+   * A part of a file, made of consecutive blocks persisted by the same worker.
+   */
+  private static final class FilePart {
+    /** The id of the worker persisting the part. */
+    private final long mWorkerId;
+    /** The index of the first block of the part. */
+    private final int mStart;
+    /** The index of the block following the part. */
+    private int mEnd;
+
+    /**
+     * Creates a new instance of {@link FilePart}.
+     *
+     * @param workerId the id of the worker persisting the part
+     * @param start the index of the first block of the part
+     */
+    private FilePart(long workerId, int start) {
+      mWorkerId = workerId;
+      mStart = start;
+    }
+  }
 }
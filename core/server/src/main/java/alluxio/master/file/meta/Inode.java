@@ -18,6 +18,7 @@ import alluxio.wire.FileInfo;
 
 import com.google.common.base.Objects;
 
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -30,6 +31,13 @@ import javax.annotation.concurrent.NotThreadSafe;
  */
 @NotThreadSafe
 public abstract class Inode<T> implements JournalEntryRepresentable {
+  /** Stamp returned by {@link #tryOptimisticRead()} when the inode is currently write locked. */
+  static final long INVALID_STAMP = -1;
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicLongFieldUpdater<Inode> VERSION_UPDATER =
+      AtomicLongFieldUpdater.newUpdater(Inode.class, "mVersion");
+
   protected long mCreationTimeMs;
   private boolean mDeleted;
   protected final boolean mDirectory;
@@ -45,6 +53,8 @@ public abstract class Inode<T> implements JournalEntryRepresentable {
   private short mMode;
 
   private final ReentrantReadWriteLock mLock;
+  /** Incremented whenever the write lock is acquired or released, used for optimistic reads. */
+  private volatile long mVersion;
 
   protected Inode(long id, boolean isDirectory) {
     mCreationTimeMs = System.currentTimeMillis();
@@ -60,6 +70,7 @@ public abstract class Inode<T> implements JournalEntryRepresentable {
     mPinned = false;
     mOwner = "";
     mLock = new ReentrantReadWriteLock();
+    mVersion = 0;
   }
 
   /**
@@ -295,15 +306,40 @@ public abstract class Inode<T> implements JournalEntryRepresentable {
    */
   public void lockWrite() {
     mLock.writeLock().lock();
+    VERSION_UPDATER.incrementAndGet(this);
   }
 
   /**
    * Releases the write lock for this inode.
    */
   public void unlockWrite() {
+    VERSION_UPDATER.incrementAndGet(this);
     mLock.writeLock().unlock();
   }
 
+  /**
+   * Returns a stamp for reading this inode without holding a lock. The stamp must later be checked
+   * with {@link #validate(long)}; if it is no longer valid, anything read in between may be
+   * inconsistent and must be discarded.
+   *
+   * @return a stamp to validate later, or {@link #INVALID_STAMP} if the inode is write locked
+   */
+  long tryOptimisticRead() {
+    long stamp = mVersion;
+    if (mLock.isWriteLocked()) {
+      return INVALID_STAMP;
+    }
+    return stamp;
+  }
+
+  /**
+   * @param stamp a stamp returned by {@link #tryOptimisticRead()}
+   * @return true if the inode has not been write locked since the stamp was issued
+   */
+  boolean validate(long stamp) {
+    return stamp != INVALID_STAMP && !mLock.isWriteLocked() && mVersion == stamp;
+  }
+
   /**
    * @return returns true if the current thread holds a write lock on this inode, false otherwise
    */
@@ -12,9 +12,6 @@
 package alluxio.master.file.meta;
 
 import alluxio.Constants;
-import alluxio.collections.FieldIndex;
-import alluxio.collections.IndexDefinition;
-import alluxio.collections.UniqueFieldIndex;
 import alluxio.master.file.options.CreateDirectoryOptions;
 import alluxio.proto.journal.File.InodeDirectoryEntry;
 import alluxio.proto.journal.Journal.JournalEntry;
@@ -25,8 +22,12 @@ import alluxio.wire.TtlAction;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -36,15 +37,16 @@ import javax.annotation.concurrent.NotThreadSafe;
  */
 @NotThreadSafe
 public final class InodeDirectory extends Inode<InodeDirectory> {
-  private static final IndexDefinition<Inode<?>> NAME_INDEX = new IndexDefinition<Inode<?>>(true) {
-    @Override
-    public Object getFieldValue(Inode<?> o) {
-      return o.getName();
-    }
-  };
-
-  /** Use UniqueFieldIndex directly for name index rather than using IndexedSet. */
-  private final FieldIndex<Inode<?>> mChildren = new UniqueFieldIndex<>(NAME_INDEX);
+  /**
+   * The children keyed by name. The map is sorted so that large directories can be listed in
+   * batches, continuing after the name of the last listed child, and it is concurrent because
+   * optimistic path traversals look up children without holding the directory lock.
+   * <p>
+   * Compared to a concurrent hash map, a lookup takes O(log n) name comparisons instead of one
+   * hash probe.
+   */
+  private final ConcurrentNavigableMap<String, Inode<?>> mChildren =
+      new ConcurrentSkipListMap<>();
 
   private boolean mMountPoint;
 
@@ -73,7 +75,8 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    * @return true if inode was added successfully, false otherwise
    */
   public boolean addChild(Inode<?> child) {
-    return mChildren.add(child);
+    Inode<?> previous = mChildren.putIfAbsent(child.getName(), child);
+    return previous == null || previous == child;
   }
 
   /**
@@ -81,14 +84,28 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    * @return the inode with the given name, or null if there is no child with that name
    */
   public Inode<?> getChild(String name) {
-    return mChildren.getFirst(name);
+    return mChildren.get(name);
   }
 
   /**
-   * @return an unmodifiable set of the children inodes
+   * @return an unmodifiable set of the children inodes, in name order
    */
   public Set<Inode<?>> getChildren() {
-    return ImmutableSet.copyOf(mChildren.iterator());
+    return ImmutableSet.copyOf(mChildren.values());
+  }
+
+  /**
+   * Returns a view of the children whose names are greater than the given name, in name order.
+   * The view is backed by the directory and is not copied, so callers listing a large directory
+   * should stop iterating once they have enough children.
+   *
+   * @param startAfter the name to start after, or null to start from the first child
+   * @return an unmodifiable view of the children after the given name
+   */
+  public Collection<Inode<?>> getChildrenAfter(String startAfter) {
+    ConcurrentNavigableMap<String, Inode<?>> children =
+        startAfter == null ? mChildren : mChildren.tailMap(startAfter, false);
+    return Collections.unmodifiableCollection(children.values());
   }
 
   /**
@@ -96,7 +113,7 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    */
   public Set<Long> getChildrenIds() {
     Set<Long> ret = new HashSet<>(mChildren.size());
-    for (Inode<?> child : mChildren) {
+    for (Inode<?> child : mChildren.values()) {
       ret.add(child.getId());
     }
     return ret;
@@ -130,7 +147,7 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    * @return true if the inode was removed, false otherwise
    */
   public boolean removeChild(Inode<?> child) {
-    return mChildren.remove(child);
+    return mChildren.remove(child.getName(), child);
   }
 
   /**
@@ -140,8 +157,7 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    * @return true if the inode was removed, false otherwise
    */
   public boolean removeChild(String name) {
-    Inode<?> child = mChildren.getFirst(name);
-    return mChildren.remove(child);
+    return mChildren.remove(name) != null;
   }
 
   /**
@@ -195,7 +211,8 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
 
   @Override
   public String toString() {
-    return toStringHelper().add("mountPoint", mMountPoint).add("children", mChildren).toString();
+    return toStringHelper().add("mountPoint", mMountPoint).add("children", mChildren.values())
+        .toString();
   }
 
   /**
@@ -12,7 +12,9 @@
 package alluxio.master.file.meta;
 
 import alluxio.AlluxioURI;
+import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.PropertyKey;
 import alluxio.collections.ConcurrentHashSet;
 import alluxio.collections.FieldIndex;
 import alluxio.collections.IndexDefinition;
@@ -31,6 +33,7 @@ import alluxio.master.file.options.CreatePathOptions;
 import alluxio.master.journal.JournalCheckpointStreamable;
 import alluxio.master.journal.JournalOutputStream;
 import alluxio.master.journal.JournalProtoUtils;
+import alluxio.metrics.MetricsSystem;
 import alluxio.proto.journal.File.InodeDirectoryEntry;
 import alluxio.proto.journal.File.InodeFileEntry;
 import alluxio.proto.journal.Journal.JournalEntry;
@@ -41,6 +44,7 @@ import alluxio.util.SecurityUtils;
 import alluxio.util.io.PathUtils;
 import alluxio.wire.TtlAction;
 
+import com.codahale.metrics.Counter;
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.protobuf.Message;
@@ -59,6 +63,16 @@ import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * Represents the tree of Inode's.
+ *
+ * Callers which only read the target inode of a path can lock it with
+ * {@link #lockFullInodePathForTargetRead(AlluxioURI)}, which may traverse the path optimistically:
+ * the ancestors are visited without taking their locks, only the target inode is read locked, and
+ * the version stamps of all the visited inodes are validated afterwards. If validation fails, the
+ * path is traversed again with the regular per-inode locking.
+ *
+ * Callers which also read the ancestors, such as status and listing lookups which check
+ * permissions, can use {@link #tryLockFullInodePathOptimistic(AlluxioURI)} instead, and validate
+ * the path again once they have read everything they need.
  */
 @NotThreadSafe
 // TODO(jiri): Make this class thread-safe.
@@ -126,6 +140,9 @@ public class InodeTree implements JournalCheckpointStreamable {
    */
   private InodeDirectory mCachedInode;
 
+  /** Whether target-only read traversals should first try to skip locking the ancestors. */
+  private final boolean mOptimisticReadEnabled;
+
   /**
    * @param containerIdGenerator the container id generator to use to get new container ids
    * @param directoryIdGenerator the directory id generator to use to get new directory ids
@@ -136,6 +153,8 @@ public class InodeTree implements JournalCheckpointStreamable {
     mContainerIdGenerator = containerIdGenerator;
     mDirectoryIdGenerator = directoryIdGenerator;
     mMountTable = mountTable;
+    mOptimisticReadEnabled =
+        Configuration.getBoolean(PropertyKey.MASTER_INODE_TREE_OPTIMISTIC_READ_ENABLED);
   }
 
   /**
@@ -193,7 +212,7 @@ public class InodeTree implements JournalCheckpointStreamable {
   public boolean inodePathExists(AlluxioURI uri) {
     try {
       TraversalResult traversalResult =
-          traverseToInode(PathUtils.getPathComponents(uri.getPath()), LockMode.READ, null);
+          traverseToTarget(PathUtils.getPathComponents(uri.getPath()));
       traversalResult.getInodeLockList().close();
       return traversalResult.isFound();
     } catch (InvalidPathException e) {
@@ -347,6 +366,19 @@ public class InodeTree implements JournalCheckpointStreamable {
    */
   public LockedInodePath lockFullInodePath(long id, LockMode lockMode)
       throws FileDoesNotExistException {
+    return lockFullInodePath(id, lockMode, false);
+  }
+
+  /**
+   * @param id the inode id
+   * @param lockMode the {@link LockMode} to lock the inodes with
+   * @param targetOnly whether the caller only reads the target inode, see
+   *        {@link #lockFullInodePathForTargetRead(AlluxioURI)}
+   * @return the {@link LockedInodePath} representing the locked path of inodes
+   * @throws FileDoesNotExistException if the target inode does not exist
+   */
+  private LockedInodePath lockFullInodePath(long id, LockMode lockMode, boolean targetOnly)
+      throws FileDoesNotExistException {
     int count = 0;
     while (true) {
       Inode<?> inode = mInodes.getFirst(id);
@@ -361,7 +393,8 @@ public class InodeTree implements JournalCheckpointStreamable {
       boolean valid = false;
       LockedInodePath inodePath = null;
       try {
-        inodePath = lockFullInodePath(uri, lockMode);
+        inodePath = targetOnly ? lockFullInodePathForTargetRead(uri)
+            : lockFullInodePath(uri, lockMode);
         if (inodePath.getInode().getId() == id) {
           // Set to true, so the path is not unlocked before returning.
           valid = true;
@@ -384,6 +417,80 @@ public class InodeTree implements JournalCheckpointStreamable {
     }
   }
 
+  /**
+   * Read locks the target inode of the specified path, for callers which only read the target
+   * inode. The target inode must exist.
+   * <p>
+   * When {@link PropertyKey#MASTER_INODE_TREE_OPTIMISTIC_READ_ENABLED} is set, the ancestors of the
+   * target may be left unlocked, so they can be modified, renamed or deleted while the path is
+   * held. The callers must therefore not read the ancestors of the returned path, check its
+   * permissions, or compute the path of its inodes with {@link #getPath(Inode)}.
+   *
+   * @param path the {@link AlluxioURI} path to lock
+   * @return the {@link LockedInodePath} representing the locked path of inodes
+   * @throws InvalidPathException if the path is invalid
+   * @throws FileDoesNotExistException if the target inode does not exist
+   */
+  public LockedInodePath lockFullInodePathForTargetRead(AlluxioURI path)
+      throws InvalidPathException, FileDoesNotExistException {
+    TraversalResult traversalResult = traverseToTarget(PathUtils.getPathComponents(path.getPath()));
+    if (!traversalResult.isFound()) {
+      traversalResult.getInodeLockList().close();
+      throw new FileDoesNotExistException(ExceptionMessage.PATH_DOES_NOT_EXIST.getMessage(path));
+    }
+    return new MutableLockedInodePath(path, traversalResult.getInodes(),
+        traversalResult.getInodeLockList());
+  }
+
+  /**
+   * Read locks the target inode of the path to the inode specified by an id, for callers which
+   * only read the target inode, with the same restrictions as
+   * {@link #lockFullInodePathForTargetRead(AlluxioURI)}. The target inode must exist.
+   *
+   * @param id the inode id
+   * @return the {@link LockedInodePath} representing the locked path of inodes
+   * @throws FileDoesNotExistException if the target inode does not exist
+   */
+  public LockedInodePath lockFullInodePathForTargetRead(long id)
+      throws FileDoesNotExistException {
+    return lockFullInodePath(id, LockMode.READ, true);
+  }
+
+  /**
+   * Read locks the target inode of an existing path without locking its ancestors, if
+   * {@link PropertyKey#MASTER_INODE_TREE_OPTIMISTIC_READ_ENABLED} is set. The ancestors can be
+   * modified while the path is held, so anything the caller reads from them, including permission
+   * checks and the paths of the inodes, must be discarded unless
+   * {@link OptimisticLockedInodePath#validate()} returns true after it is read.
+   *
+   * @param path the {@link AlluxioURI} path to lock
+   * @return the locked path, or null if optimistic reads are disabled, or the path cannot be
+   *         traversed optimistically, in which case the caller should lock the path instead
+   */
+  public OptimisticLockedInodePath tryLockFullInodePathOptimistic(AlluxioURI path) {
+    if (!mOptimisticReadEnabled) {
+      return null;
+    }
+    TraversalResult traversalResult;
+    try {
+      traversalResult = traverseToInodeOptimistic(PathUtils.getPathComponents(path.getPath()));
+    } catch (InvalidPathException e) {
+      return null;
+    }
+    if (traversalResult == null) {
+      Metrics.OPTIMISTIC_TRAVERSAL_FALLBACKS.inc();
+      return null;
+    }
+    Metrics.OPTIMISTIC_TRAVERSALS.inc();
+    try {
+      return new OptimisticLockedInodePath(path, traversalResult.getInodes(),
+          traversalResult.getInodeLockList(), traversalResult.getStamps());
+    } catch (InvalidPathException e) {
+      traversalResult.getInodeLockList().close();
+      return null;
+    }
+  }
+
   /**
    * Attempts to extend an existing {@link LockedInodePath} to reach the target inode (the last
    * inode for the full path). If the target inode does not exist, an exception will be thrown.
@@ -739,6 +846,20 @@ public class InodeTree implements JournalCheckpointStreamable {
     deleteInode(inodePath, System.currentTimeMillis());
   }
 
+  /**
+   * Removes an inode of a directory tree whose root was deleted with
+   * {@link #deleteInode(LockedInodePath, long)} while the tree was not empty. The inodes of such a
+   * tree can no longer be reached by path or by id, so they do not have to be locked, and can be
+   * removed after the delete.
+   *
+   * @param inode the inode to remove
+   */
+  public void removeUnlinkedInode(Inode<?> inode) {
+    mInodes.remove(inode);
+    mPinnedInodeFileIds.remove(inode.getId());
+    inode.setDeleted(true);
+  }
+
   /**
    * Sets the pinned state of an inode. If the inode is a directory, the pinned state will be set
    * recursively.
@@ -873,8 +994,9 @@ public class InodeTree implements JournalCheckpointStreamable {
    * @param inode the inode to add to the inode tree
    */
   private void addInodeFromJournalInternal(Inode<?> inode) {
+    // The inodes of a checkpoint may be added concurrently, so the cached inode is read once.
     InodeDirectory parentDirectory = mCachedInode;
-    if (inode.getParentId() != mCachedInode.getId()) {
+    if (inode.getParentId() != parentDirectory.getId()) {
       parentDirectory = (InodeDirectory) mInodes.getFirst(inode.getParentId());
       mCachedInode = parentDirectory;
     }
@@ -1074,6 +1196,91 @@ public class InodeTree implements JournalCheckpointStreamable {
     return TraversalResult.createFoundResult(nonPersistedInodes, inodes, lockList);
   }
 
+  /**
+   * Traverses the tree to find the given path components for a caller which only reads the target
+   * inode. The traversal is optimistic if enabled, and falls back to read locking the whole path.
+   *
+   * @param pathComponents the components of the path to traverse
+   * @return the {@link TraversalResult} for this traversal
+   * @throws InvalidPathException if the path is invalid
+   */
+  private TraversalResult traverseToTarget(String[] pathComponents) throws InvalidPathException {
+    if (mOptimisticReadEnabled) {
+      TraversalResult result = traverseToInodeOptimistic(pathComponents);
+      if (result != null) {
+        Metrics.OPTIMISTIC_TRAVERSALS.inc();
+        return result;
+      }
+      Metrics.OPTIMISTIC_TRAVERSAL_FALLBACKS.inc();
+    }
+    return traverseToInode(pathComponents, LockMode.READ, null);
+  }
+
+  /**
+   * Traverses the tree to find the given path components without locking the ancestors of the
+   * target. Only the target inode is read locked. After the target is locked, the version stamps of
+   * every inode on the path are validated, to make sure none of them was write locked during the
+   * traversal.
+   *
+   * @param pathComponents the components of the path to traverse
+   * @return the {@link TraversalResult} for this traversal, or null if the target does not exist,
+   *         the path is invalid, or validation failed; the caller should then fall back to the
+   *         locking traversal, which also reports the proper errors
+   */
+  private TraversalResult traverseToInodeOptimistic(String[] pathComponents) {
+    if (pathComponents == null || pathComponents.length == 0
+        || !pathComponents[0].equals(ROOT_INODE_NAME)) {
+      return null;
+    }
+    List<Inode<?>> nonPersistedInodes = new ArrayList<>();
+    List<Inode<?>> inodes = new ArrayList<>(pathComponents.length);
+    long[] stamps = new long[pathComponents.length];
+
+    Inode<?> current = mRoot;
+    for (int i = 0; i < pathComponents.length; i++) {
+      if (i > 0) {
+        if (!current.isDirectory()) {
+          return null;
+        }
+        current = ((InodeDirectory) current).getChild(pathComponents[i]);
+        if (current == null) {
+          return null;
+        }
+      }
+      long stamp = current.tryOptimisticRead();
+      if (stamp == Inode.INVALID_STAMP) {
+        return null;
+      }
+      stamps[i] = stamp;
+      inodes.add(current);
+      if (i > 0 && current.isDirectory() && !current.isPersisted()) {
+        nonPersistedInodes.add(current);
+      }
+    }
+
+    InodeLockList lockList = new InodeLockList();
+    lockList.lockRead(current);
+    for (int i = 0; i < inodes.size(); i++) {
+      if (!inodes.get(i).validate(stamps[i])) {
+        lockList.close();
+        return null;
+      }
+    }
+    return TraversalResult.createOptimisticResult(nonPersistedInodes, inodes, lockList, stamps);
+  }
+
+  /**
+   * Class that contains metrics about the inode tree.
+   */
+  private static final class Metrics {
+    private static final Counter OPTIMISTIC_TRAVERSALS =
+        MetricsSystem.masterCounter("InodeOptimisticTraversals");
+    private static final Counter OPTIMISTIC_TRAVERSAL_FALLBACKS =
+        MetricsSystem.masterCounter("InodeOptimisticTraversalFallbacks");
+
+    private Metrics() {} // prevent instantiation
+  }
+
   private static final class TraversalResult {
     /** True if the traversal found the target inode, false otherwise. */
     private final boolean mFound;
@@ -1087,23 +1294,32 @@ public class InodeTree implements JournalCheckpointStreamable {
     /** The {@link InodeLockList} managing the locks for the inodes. */
     private final InodeLockList mLockList;
 
+    /** The version stamps of the inodes for an optimistic traversal, or null. */
+    private final long[] mStamps;
+
     // TODO(gpang): consider a builder paradigm to iteratively build the traversal result.
     static TraversalResult createFoundResult(List<Inode<?>> nonPersisted, List<Inode<?>> inodes,
         InodeLockList lockList) {
-      return new TraversalResult(true, nonPersisted, inodes, lockList);
+      return new TraversalResult(true, nonPersisted, inodes, lockList, null);
     }
 
     static TraversalResult createNotFoundResult(int index, List<Inode<?>> nonPersisted,
         List<Inode<?>> inodes, InodeLockList lockList) {
-      return new TraversalResult(false, nonPersisted, inodes, lockList);
+      return new TraversalResult(false, nonPersisted, inodes, lockList, null);
+    }
+
+    static TraversalResult createOptimisticResult(List<Inode<?>> nonPersisted,
+        List<Inode<?>> inodes, InodeLockList lockList, long[] stamps) {
+      return new TraversalResult(true, nonPersisted, inodes, lockList, stamps);
     }
 
     private TraversalResult(boolean found, List<Inode<?>> nonPersisted,
-        List<Inode<?>> inodes, InodeLockList lockList) {
+        List<Inode<?>> inodes, InodeLockList lockList, long[] stamps) {
       mFound = found;
       mNonPersisted = nonPersisted;
       mInodes = inodes;
       mLockList = lockList;
+      mStamps = stamps;
     }
 
     /**
@@ -1133,6 +1349,13 @@ public class InodeTree implements JournalCheckpointStreamable {
     InodeLockList getInodeLockList() {
       return mLockList;
     }
+
+    /**
+     * @return the version stamps of the inodes for an optimistic traversal, or null
+     */
+    long[] getStamps() {
+      return mStamps;
+    }
   }
 
   /**
@@ -0,0 +1,60 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import alluxio.AlluxioURI;
+import alluxio.exception.InvalidPathException;
+
+import com.google.common.base.Preconditions;
+
+import java.util.List;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * This class represents a path whose target inode is read locked, while its ancestors were
+ * traversed without locking them. Anything read from the ancestors, such as their permissions or
+ * the paths of the inodes, is only consistent if {@link #validate()} returns true after it is read.
+ */
+@ThreadSafe
+public final class OptimisticLockedInodePath extends MutableLockedInodePath {
+  /** The version stamps of the inodes, taken when the path was traversed. */
+  private final long[] mStamps;
+
+  /**
+   * Creates an instance of {@link OptimisticLockedInodePath}.
+   *
+   * @param uri the URI
+   * @param inodes the inodes
+   * @param lockList the lock list, which only locks the target inode
+   * @param stamps the version stamps of the inodes
+   * @throws InvalidPathException if the path passed is invalid
+   */
+  OptimisticLockedInodePath(AlluxioURI uri, List<Inode<?>> inodes, InodeLockList lockList,
+      long[] stamps) throws InvalidPathException {
+    super(uri, inodes, lockList);
+    Preconditions.checkArgument(stamps.length == inodes.size());
+    mStamps = stamps;
+  }
+
+  /**
+   * @return true if none of the inodes of the path was write locked since the path was traversed
+   */
+  public synchronized boolean validate() {
+    for (int i = 0; i < mStamps.length; i++) {
+      if (!mInodes.get(i).validate(mStamps[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
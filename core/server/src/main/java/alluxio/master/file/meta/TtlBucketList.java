@@ -13,58 +13,82 @@ package alluxio.master.file.meta;
 
 import alluxio.Constants;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
- * A list of non-empty {@link TtlBucket}s sorted by ttl interval start time of each bucket.
+ * The non-empty {@link TtlBucket}s, indexed by a hierarchical timer wheel on the ttl interval of
+ * each bucket.
+ * <p>
+ * Time is divided into ticks of one ttl interval, and each bucket is the bucket of one tick. The
+ * wheel has several levels of {@link #SLOTS_PER_LEVEL} slots, where a slot of a level spans as
+ * many ticks as the whole level below. A bucket is placed in the lowest level whose slots tell its
+ * tick apart from the current tick, and moves down a level each time the current tick reaches the
+ * slot it is in, so that inserting a file and expiring a bucket take constant time, whatever the
+ * number of buckets. Buckets whose tick has passed are kept sorted until they are removed.
  * <p>
  * Two adjacent buckets may not have adjacent intervals since there may be no files with ttl value
  * in the skipped intervals.
  */
 @ThreadSafe
 public final class TtlBucketList {
+  /** The number of bits of a tick which index the slots of a level. */
+  private static final int SLOT_BITS = 6;
+  /** The number of slots of each level of the wheel. */
+  private static final int SLOTS_PER_LEVEL = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS_PER_LEVEL - 1;
+  /** The number of levels of the wheel, enough to tell apart any two ticks. */
+  private static final int NUM_LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+
+  /** The length of a tick, which is the ttl interval, or one millisecond for no interval. */
+  private final long mTickMs;
+
+  /** The buckets by tick, whether their tick has passed or not. */
+  @GuardedBy("this")
+  private final Map<Long, TtlBucket> mBuckets = new HashMap<>();
   /**
-   * List of buckets sorted by interval start time. SkipList is used for O(logn) insertion and
-   * retrieval, see {@link ConcurrentSkipListSet}.
+   * The slots of the wheel, level after level. A slot may hold buckets which were removed, which
+   * are dropped when the slot is reached.
    */
-  private final ConcurrentSkipListSet<TtlBucket> mBucketList;
+  @GuardedBy("this")
+  private final List<List<TtlBucket>> mSlots = new ArrayList<>(NUM_LEVELS * SLOTS_PER_LEVEL);
+  /** The number of buckets in the slots of each level. */
+  @GuardedBy("this")
+  private final int[] mLevelSizes = new int[NUM_LEVELS];
+  /** The first tick which has not passed. */
+  @GuardedBy("this")
+  private long mCurrentTick;
+  /** The buckets whose tick has passed, by tick. */
+  @GuardedBy("this")
+  private final TreeMap<Long, TtlBucket> mExpiredBuckets = new TreeMap<>();
 
   /**
    * Creates a new list of {@link TtlBucket}s.
    */
   public TtlBucketList() {
-    mBucketList = new ConcurrentSkipListSet<>();
+    this(System.currentTimeMillis());
   }
 
   /**
-   * Gets the bucket in the list that contains the file.
+   * Creates a new list of {@link TtlBucket}s whose wheel starts at the given time.
    *
-   * @param file the file to be contained
-   * @return the bucket containing the file, or null if no such bucket exists
+   * @param startTimeMs the time from which buckets are placed in the wheel, the buckets of an
+   *        earlier interval are expired as soon as they are added
    */
-  private TtlBucket getBucketContaining(InodeFile file) {
-    if (file.getTtl() == Constants.NO_TTL) {
-      // no bucket will contain a file with NO_TTL.
-      return null;
+  TtlBucketList(long startTimeMs) {
+    mTickMs = Math.max(TtlBucket.getTtlIntervalMs(), 1);
+    mCurrentTick = floorDiv(startTimeMs, mTickMs);
+    for (int i = 0; i < NUM_LEVELS * SLOTS_PER_LEVEL; i++) {
+      mSlots.add(new ArrayList<TtlBucket>());
     }
-
-    long ttlEndTimeMs = file.getCreationTimeMs() + file.getTtl();
-    // Gets the last bucket with interval start time less than or equal to the file's life end
-    // time.
-    TtlBucket bucket = mBucketList.floor(new TtlBucket(ttlEndTimeMs));
-    if (bucket == null || bucket.getTtlIntervalEndTimeMs() < ttlEndTimeMs
-        || (bucket.getTtlIntervalEndTimeMs() == ttlEndTimeMs
-            && TtlBucket.getTtlIntervalMs() != 0)) {
-      // 1. There is no bucket in the list, or
-      // 2. All buckets' interval start time is larger than the file's life end time, or
-      // 3. No bucket actually contains ttlEndTimeMs in its interval.
-      return null;
-    }
-
-    return bucket;
   }
 
   /**
@@ -79,19 +103,22 @@ public final class TtlBucketList {
     if (file.getTtl() == Constants.NO_TTL) {
       return;
     }
-
-    TtlBucket bucket = getBucketContaining(file);
-    if (bucket == null) {
-      long ttlEndTimeMs = file.getCreationTimeMs() + file.getTtl();
-      // No bucket contains the file, so a new bucket should be added with an appropriate interval
-      // start. Assume the list of buckets have continuous intervals, and the first interval starts
-      // at 0, then ttlEndTimeMs should be in number (ttlEndTimeMs / interval) interval, so the
-      // start time of this interval should be (ttlEndTimeMs / interval) * interval.
-      long interval = TtlBucket.getTtlIntervalMs();
-      bucket = new TtlBucket(interval == 0 ? ttlEndTimeMs : ttlEndTimeMs / interval * interval);
-      mBucketList.add(bucket);
+    long tick = getTick(file);
+    synchronized (this) {
+      TtlBucket bucket = mBuckets.get(tick);
+      if (bucket == null) {
+        // The start of the interval containing the ttl end time, assuming the intervals are
+        // continuous and the first interval starts at 0.
+        bucket = new TtlBucket(tick * mTickMs);
+        mBuckets.put(tick, bucket);
+        if (tick < mCurrentTick) {
+          mExpiredBuckets.put(tick, bucket);
+        } else {
+          place(bucket, tick);
+        }
+      }
+      bucket.addFile(file);
     }
-    bucket.addFile(file);
   }
 
   /**
@@ -106,22 +133,32 @@ public final class TtlBucketList {
    * @param file the file to be removed
    */
   public void remove(InodeFile file) {
-    TtlBucket bucket = getBucketContaining(file);
-    if (bucket != null) {
-      bucket.removeFile(file);
+    if (file.getTtl() == Constants.NO_TTL) {
+      // no bucket will contain a file with NO_TTL.
+      return;
+    }
+    long tick = getTick(file);
+    synchronized (this) {
+      TtlBucket bucket = mBuckets.get(tick);
+      if (bucket != null) {
+        bucket.removeFile(file);
+      }
     }
   }
 
   /**
    * Retrieves buckets whose ttl interval has expired before the specified time, that is, the
    * bucket's interval start time should be less than or equal to (specified time - ttl interval).
-   * The returned set is backed by the internal set.
+   * The returned set is a snapshot sorted by interval start time, but the files of its buckets are
+   * backed by the buckets.
    *
    * @param time the expiration time
    * @return a set of expired buckets or an empty set if no buckets have expired
    */
-  public Set<TtlBucket> getExpiredBuckets(long time) {
-    return mBucketList.headSet(new TtlBucket(time - TtlBucket.getTtlIntervalMs()), true);
+  public synchronized Set<TtlBucket> getExpiredBuckets(long time) {
+    long lastTick = floorDiv(time - TtlBucket.getTtlIntervalMs(), mTickMs);
+    advance(lastTick);
+    return new TreeSet<>(mExpiredBuckets.headMap(lastTick, true).values());
   }
 
   /**
@@ -129,7 +166,118 @@ public final class TtlBucketList {
    *
    * @param buckets a set of buckets to be removed
    */
-  public void removeBuckets(Set<TtlBucket> buckets) {
-    mBucketList.removeAll(buckets);
+  public synchronized void removeBuckets(Set<TtlBucket> buckets) {
+    for (TtlBucket bucket : buckets) {
+      long tick = floorDiv(bucket.getTtlIntervalStartTimeMs(), mTickMs);
+      if (mBuckets.get(tick) == bucket) {
+        mBuckets.remove(tick);
+      }
+      if (mExpiredBuckets.get(tick) == bucket) {
+        mExpiredBuckets.remove(tick);
+      }
+    }
+  }
+
+  /**
+   * @param file a file with a ttl
+   * @return the tick of the ttl end time of the file
+   */
+  private long getTick(InodeFile file) {
+    return floorDiv(file.getCreationTimeMs() + file.getTtl(), mTickMs);
+  }
+
+  /**
+   * Places a bucket in the slot of the lowest level which tells its tick apart from the current
+   * tick.
+   *
+   * @param bucket the bucket
+   * @param tick the tick of the bucket, not before the current tick
+   */
+  @GuardedBy("this")
+  private void place(TtlBucket bucket, long tick) {
+    long diff = tick ^ mCurrentTick;
+    int level = diff == 0 ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(diff)) / SLOT_BITS;
+    int slot = (int) (tick >>> (level * SLOT_BITS)) & SLOT_MASK;
+    mSlots.get(level * SLOTS_PER_LEVEL + slot).add(bucket);
+    mLevelSizes[level]++;
+  }
+
+  /**
+   * Moves the current tick after the given tick, expiring the buckets of the ticks passed.
+   *
+   * @param lastTick the last tick to expire
+   */
+  @GuardedBy("this")
+  private void advance(long lastTick) {
+    while (mCurrentTick <= lastTick) {
+      int level = 0;
+      while (level < NUM_LEVELS && mLevelSizes[level] == 0) {
+        level++;
+      }
+      if (level == NUM_LEVELS) {
+        // The wheel is empty.
+        mCurrentTick = lastTick + 1;
+        return;
+      }
+      if (level == 0) {
+        for (TtlBucket bucket : takeSlot(0, (int) mCurrentTick & SLOT_MASK)) {
+          mExpiredBuckets.put(mCurrentTick, bucket);
+        }
+        mCurrentTick++;
+      } else {
+        // The levels below are empty, so no bucket expires before the next slot of this level.
+        long span = 1L << (level * SLOT_BITS);
+        long nextSlotTick = (mCurrentTick & -span) + span;
+        if (nextSlotTick > lastTick + 1) {
+          mCurrentTick = lastTick + 1;
+          return;
+        }
+        mCurrentTick = nextSlotTick;
+      }
+      // Moves the buckets of the slots reached by the current tick down the wheel, from the
+      // highest level since a bucket moved down may land in a slot reached at a lower level.
+      for (int i = NUM_LEVELS - 1; i > 0; i--) {
+        if ((mCurrentTick & ((1L << (i * SLOT_BITS)) - 1)) == 0) {
+          int slot = (int) (mCurrentTick >>> (i * SLOT_BITS)) & SLOT_MASK;
+          for (TtlBucket bucket : takeSlot(i, slot)) {
+            place(bucket, floorDiv(bucket.getTtlIntervalStartTimeMs(), mTickMs));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Empties a slot of the wheel.
+   *
+   * @param level the level of the slot
+   * @param slot the index of the slot in the level
+   * @return the buckets of the slot which were not removed
+   */
+  @GuardedBy("this")
+  private List<TtlBucket> takeSlot(int level, int slot) {
+    List<TtlBucket> buckets = mSlots.get(level * SLOTS_PER_LEVEL + slot);
+    if (buckets.isEmpty()) {
+      return buckets;
+    }
+    mLevelSizes[level] -= buckets.size();
+    List<TtlBucket> taken = new ArrayList<>(buckets.size());
+    for (TtlBucket bucket : buckets) {
+      if (mBuckets.get(floorDiv(bucket.getTtlIntervalStartTimeMs(), mTickMs)) == bucket) {
+        taken.add(bucket);
+      }
+    }
+    buckets.clear();
+    return taken;
+  }
+
+  /**
+   * @param x the dividend
+   * @param y the divisor, which is positive
+   * @return the largest value less than or equal to the quotient
+   */
+  private static long floorDiv(long x, long y) {
+    long quotient = x / y;
+    return x % y < 0 ? quotient - 1 : quotient;
   }
 }
@@ -24,6 +24,9 @@ import javax.annotation.concurrent.NotThreadSafe;
 @NotThreadSafe
 public final class ListStatusOptions {
   private LoadMetadataType mLoadMetadataType;
+  private String mStartAfter;
+  private int mBatchSize;
+  private boolean mLoadMetadataRecursive;
 
   /**
    * @return the default {@link ListStatusOptions}
@@ -34,6 +37,9 @@ public final class ListStatusOptions {
 
   private ListStatusOptions() {
     mLoadMetadataType = LoadMetadataType.Once;
+    mStartAfter = null;
+    mBatchSize = 0;
+    mLoadMetadataRecursive = false;
   }
 
   /**
@@ -48,6 +54,10 @@ public final class ListStatusOptions {
     } else if (!options.isLoadDirectChildren()) {
       mLoadMetadataType = LoadMetadataType.Never;
     }
+    mStartAfter = options.isSetStartAfter() ? options.getStartAfter() : null;
+    mBatchSize = options.isSetBatchSize() ? options.getBatchSize() : 0;
+    mLoadMetadataRecursive =
+        options.isSetLoadMetadataRecursive() && options.isLoadMetadataRecursive();
   }
 
   /**
@@ -58,6 +68,27 @@ public final class ListStatusOptions {
     return mLoadMetadataType;
   }
 
+  /**
+   * @return the name of the child to start listing after, or null to list from the first child
+   */
+  public String getStartAfter() {
+    return mStartAfter;
+  }
+
+  /**
+   * @return the maximum number of children to list, a non-positive value lists all the children
+   */
+  public int getBatchSize() {
+    return mBatchSize;
+  }
+
+  /**
+   * @return whether to load the metadata of the whole tree under the directory before listing it
+   */
+  public boolean isLoadMetadataRecursive() {
+    return mLoadMetadataRecursive;
+  }
+
   /**
    * Sets the {@link ListStatusOptions#mLoadMetadataType}.
    *
@@ -69,6 +100,42 @@ public final class ListStatusOptions {
     return this;
   }
 
+  /**
+   * Sets the name to start listing after. Children are listed in name order, so passing the name
+   * of the last child of a batch continues the listing with the next batch.
+   *
+   * @param startAfter the name of the child to start listing after, or null to start from the
+   *        first child
+   * @return the updated options
+   */
+  public ListStatusOptions setStartAfter(String startAfter) {
+    mStartAfter = startAfter;
+    return this;
+  }
+
+  /**
+   * @param batchSize the maximum number of children to list, a non-positive value lists all the
+   *        children
+   * @return the updated options
+   */
+  public ListStatusOptions setBatchSize(int batchSize) {
+    mBatchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * Sets whether to load the metadata of the whole tree under the directory according to the load
+   * metadata type before listing it. The tree is loaded with the first batch only, and the listing
+   * itself still returns the direct children.
+   *
+   * @param loadMetadataRecursive whether to load the metadata of the whole tree
+   * @return the updated options
+   */
+  public ListStatusOptions setLoadMetadataRecursive(boolean loadMetadataRecursive) {
+    mLoadMetadataRecursive = loadMetadataRecursive;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -78,18 +145,24 @@ public final class ListStatusOptions {
       return false;
     }
     ListStatusOptions that = (ListStatusOptions) o;
-    return Objects.equal(mLoadMetadataType, that.mLoadMetadataType);
+    return Objects.equal(mLoadMetadataType, that.mLoadMetadataType)
+        && Objects.equal(mStartAfter, that.mStartAfter)
+        && mBatchSize == that.mBatchSize
+        && mLoadMetadataRecursive == that.mLoadMetadataRecursive;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mLoadMetadataType);
+    return Objects.hashCode(mLoadMetadataType, mStartAfter, mBatchSize, mLoadMetadataRecursive);
   }
 
   @Override
   public String toString() {
     return Objects.toStringHelper(this)
         .add("loadMetadataType", mLoadMetadataType.toString())
+        .add("startAfter", mStartAfter)
+        .add("batchSize", mBatchSize)
+        .add("loadMetadataRecursive", mLoadMetadataRecursive)
         .toString();
   }
 }
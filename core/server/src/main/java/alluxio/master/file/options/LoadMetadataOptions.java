@@ -11,6 +11,8 @@
 
 package alluxio.master.file.options;
 
+import alluxio.underfs.UnderFileStatus;
+
 import com.google.common.base.Objects;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -22,6 +24,7 @@ import javax.annotation.concurrent.NotThreadSafe;
 public final class LoadMetadataOptions {
   private boolean mCreateAncestors;
   private boolean mLoadDirectChildren;
+  private UnderFileStatus mUnderFileStatus;
 
   /**
    * @return the default {@link LoadMetadataOptions}
@@ -33,6 +36,7 @@ public final class LoadMetadataOptions {
   private LoadMetadataOptions() {
     mCreateAncestors = false;
     mLoadDirectChildren = false;
+    mUnderFileStatus = null;
   }
 
   /**
@@ -51,6 +55,14 @@ public final class LoadMetadataOptions {
     return mLoadDirectChildren;
   }
 
+  /**
+   * @return the status of the path in the under storage, if it is already known from listing its
+   *         parent, or null if it has to be fetched
+   */
+  public UnderFileStatus getUnderFileStatus() {
+    return mUnderFileStatus;
+  }
+
   /**
    * Sets the recursive flag.
    *
@@ -75,6 +87,18 @@ public final class LoadMetadataOptions {
     return this;
   }
 
+  /**
+   * Sets the status of the path in the under storage, so that loading its metadata does not fetch
+   * it again.
+   *
+   * @param underFileStatus the status of the path in the under storage
+   * @return the updated object
+   */
+  public LoadMetadataOptions setUnderFileStatus(UnderFileStatus underFileStatus) {
+    mUnderFileStatus = underFileStatus;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -85,17 +109,19 @@ public final class LoadMetadataOptions {
     }
     LoadMetadataOptions that = (LoadMetadataOptions) o;
     return Objects.equal(mCreateAncestors, that.mCreateAncestors)
-        && Objects.equal(mLoadDirectChildren, that.mLoadDirectChildren);
+        && Objects.equal(mLoadDirectChildren, that.mLoadDirectChildren)
+        && Objects.equal(mUnderFileStatus, that.mUnderFileStatus);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mCreateAncestors, mLoadDirectChildren);
+    return Objects.hashCode(mCreateAncestors, mLoadDirectChildren, mUnderFileStatus);
   }
 
   @Override
   public String toString() {
     return Objects.toStringHelper(this).add("createAncestors", mCreateAncestors)
-        .add("loadDirectChildren", mLoadDirectChildren).toString();
+        .add("loadDirectChildren", mLoadDirectChildren)
+        .add("underFileStatus", mUnderFileStatus).toString();
   }
 }
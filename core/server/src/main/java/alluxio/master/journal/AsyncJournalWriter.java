@@ -14,21 +14,51 @@ package alluxio.master.journal;
 import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.PropertyKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.util.ThreadFactoryUtils;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Uninterruptibles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
- * This enables async journal writing, as well as some batched journal flushing.
+ * This enables async journal writing, with the entries group committed by a dedicated writer
+ * thread.
+ *
+ * Appended entries are put into a bounded queue. When the queue is full, appending blocks until
+ * the writer thread catches up, which pushes back on the RPC handlers instead of letting the
+ * queue grow without bound. The writer thread takes all the queued entries, writes them, and
+ * flushes them to the journal with a single flush. Entries appended while a flush is in progress
+ * are committed together by the next flush, so the batches grow as the flushes get slower.
+ *
+ * When the batches show concurrent load, the writer also waits for more entries before flushing,
+ * for up to the average flush latency and at most
+ * {@link PropertyKey#MASTER_JOURNAL_FLUSH_BATCH_TIME_MS}. This amortizes slow UFS flushes over
+ * more entries, without delaying the flushes of a master which is not busy.
+ *
+ * A failed write stops the writer for good. The entries of the failed batch may not be durable,
+ * and flushing a later counter would claim that they are, so every flush which is not already
+ * complete fails, and so do all later appends.
  */
 @ThreadSafe
 public final class AsyncJournalWriter {
@@ -37,49 +67,94 @@ public final class AsyncJournalWriter {
   /** An invalid journal flush counter. */
   public static final long INVALID_FLUSH_COUNTER = -1;
 
+  private static final ThreadFactory THREAD_FACTORY =
+      ThreadFactoryUtils.build("async-journal-writer-%d", true);
+
+  /** The weight of the latest flush in the average flush latency. */
+  private static final double FLUSH_LATENCY_WEIGHT = 0.2;
+
+  /** How often a blocked append checks whether the writer is still running, in milliseconds. */
+  private static final long BLOCKED_APPEND_CHECK_INTERVAL_MS = 100;
+
   private final JournalWriter mJournalWriter;
-  private final ConcurrentLinkedQueue<JournalEntry> mQueue;
+  private final BlockingQueue<PendingEntry> mQueue;
   private final AtomicLong mCounter;
   private final AtomicLong mFlushCounter;
   /** Maximum number of nanoseconds for a batch flush. */
   private final long mFlushBatchTime;
+  private final Thread mWriterThread;
+
+  /** Guards waiting for the {@link #mFlushCounter} to advance. */
+  private final ReentrantLock mFlushLock = new ReentrantLock();
+  /** Signaled whenever the {@link #mFlushCounter} advances, or the writer stops. */
+  private final Condition mFlushed = mFlushLock.newCondition();
+  /** Whether the writer thread has stopped. */
+  @GuardedBy("mFlushLock")
+  private boolean mStopped;
+  /** Whether {@link #close()} was called. */
+  private final AtomicBoolean mClosed = new AtomicBoolean(false);
+  /** The error which stopped the writer, or null if it did not fail. */
+  private volatile Throwable mWriterFailure;
+
+  /** The average flush latency in nanoseconds. Only accessed by the writer thread. */
+  private double mAverageFlushTime;
 
   /**
-   * Use a {@link ReentrantLock} to guard the journal writing. Using the fairness policy seems to
-   * result in better throughput.
+   * The marker put into the queue to stop the writer thread. Identity comparison is used, so it
+   * cannot be confused with an appended entry.
    */
-  private final ReentrantLock mFlushLock = new ReentrantLock(true);
+  private final PendingEntry mCloseMarker = new PendingEntry(JournalEntry.getDefaultInstance());
 
   /**
-   * Creates a {@link AsyncJournalWriter}.
+   * Creates a {@link AsyncJournalWriter} and starts its writer thread.
    *
    * @param journalWriter the {@link JournalWriter} to use for writing
    */
   public AsyncJournalWriter(JournalWriter journalWriter) {
     mJournalWriter = Preconditions.checkNotNull(journalWriter, "journalWriter");
-    mQueue = new ConcurrentLinkedQueue<>();
+    mQueue = new ArrayBlockingQueue<>(
+        Configuration.getInt(PropertyKey.MASTER_JOURNAL_QUEUE_CAPACITY));
     mCounter = new AtomicLong(0);
     mFlushCounter = new AtomicLong(0);
     // convert milliseconds to nanoseconds.
     mFlushBatchTime =
         1000000L * Configuration.getLong(PropertyKey.MASTER_JOURNAL_FLUSH_BATCH_TIME_MS);
+    mAverageFlushTime = 0;
+    mWriterThread = THREAD_FACTORY.newThread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          writeEntries();
+        } catch (RuntimeException | Error e) {
+          LOG.error("The async journal writer thread failed", e);
+          mWriterFailure = e;
+          throw e;
+        } finally {
+          mFlushLock.lock();
+          try {
+            mStopped = true;
+            mFlushed.signalAll();
+          } finally {
+            mFlushLock.unlock();
+          }
+        }
+      }
+    });
+    mWriterThread.start();
   }
 
   /**
-   * Appends a {@link JournalEntry} for writing to the journal.
+   * Appends a {@link JournalEntry} for writing to the journal. If the queue of entries to write is
+   * full, this blocks until the writer thread makes room for the entry.
    *
    * @param entry the {@link JournalEntry} to append
    * @return a counter for the entry, for flushing
+   * @throws IllegalStateException if the writer is closed or its thread failed
    */
   public long appendEntry(JournalEntry entry) {
-    // TODO(gpang): handle bounding the queue if it becomes too large.
-
     /**
      * Protocol for appending entries
      *
-     * This protocol is lock free, to reduce the overhead in critical sections. It uses
-     * {@link AtomicLong} and {@link ConcurrentLinkedQueue} which are both lock-free.
-     *
      * The invariant that must be satisfied is that the 'counter' that is returned must be
      * greater than or equal to the actual counter of the entry in the queue.
      *
@@ -90,55 +165,109 @@ public final class AsyncJournalWriter {
      * Therefore, the {@link #mCounter} must be read AFTER the entry is added to the queue. The
      * resulting read of the counter AFTER the entry is added is guaranteed to be greater than or
      * equal to the counter for the entries in the queue.
+     *
+     * Since the counter is already incremented, the entry must be added to the queue even if the
+     * thread is interrupted. Otherwise, the flushes of later entries would never complete. Once
+     * the writer has stopped, nothing drains the queue and no flush completes, so the append
+     * fails instead.
      */
+    checkRunning();
     mCounter.incrementAndGet();
-    mQueue.offer(entry);
+    PendingEntry pendingEntry = new PendingEntry(entry);
+    if (!mQueue.offer(pendingEntry)) {
+      Metrics.BLOCKED_APPENDS.inc();
+      while (!offerUninterruptibly(pendingEntry)) {
+        checkRunning();
+      }
+    }
     return mCounter.get();
   }
 
   /**
-   * Flushes and waits until the specified counter is flushed to the journal. If the specified
-   * counter is already flushed, this is essentially a no-op.
+   * Waits until the specified counter is flushed to the journal. If the specified counter is
+   * already flushed, this is essentially a no-op.
    *
    * @param counter the counter to flush
    * @throws IOException if an error occurs in flushing the journal
    */
   public void flush(final long counter) throws IOException {
+    // The flush counter only advances past successfully written entries.
     if (counter <= mFlushCounter.get()) {
       return;
     }
-    // Using reentrant lock, since it seems to result in higher throughput than using 'synchronized'
+    boolean interrupted = false;
     mFlushLock.lock();
     try {
-      long startTime = System.nanoTime();
-      long flushCounter = mFlushCounter.get();
-      if (counter <= flushCounter) {
-        // The specified counter is already flushed, so just return.
-        return;
-      }
-      while (counter > flushCounter) {
-        for (;;) {
-          JournalEntry entry = mQueue.poll();
-          if (entry == null) {
-            // No more entries in the queue. Break out of the infinite for-loop.
-            break;
-          }
-          mJournalWriter.getEntryOutputStream().writeEntry(entry);
-          flushCounter++;
-
-          if (flushCounter >= counter) {
-            if ((System.nanoTime() - startTime) >= mFlushBatchTime) {
-              // This thread has been writing to the journal for enough time. Break out of the
-              // infinite for-loop.
-              break;
-            }
+      while (counter > mFlushCounter.get()) {
+        if (mStopped) {
+          if (mWriterFailure != null) {
+            throw new IOException("The journal writer failed", mWriterFailure);
           }
+          throw new IOException("The journal writer is closed");
+        }
+        try {
+          mFlushed.await();
+        } catch (InterruptedException e) {
+          // The caller already modified the master state, so it has to wait for the journal.
+          interrupted = true;
         }
       }
-      mJournalWriter.getEntryOutputStream().flush();
-      mFlushCounter.set(flushCounter);
     } finally {
       mFlushLock.unlock();
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Stops the writer thread after it has written the entries appended before this call. Later
+   * appends are rejected. The {@link JournalWriter} is not closed.
+   */
+  public void close() {
+    if (mClosed.getAndSet(true)) {
+      return;
+    }
+    // A failed writer thread does not take the marker, so stop offering it if the thread is dead.
+    while (!offerUninterruptibly(mCloseMarker)) {
+      if (!mWriterThread.isAlive()) {
+        break;
+      }
+    }
+    Uninterruptibles.joinUninterruptibly(mWriterThread);
+  }
+
+  /**
+   * @throws IllegalStateException if the writer is closed or failed
+   */
+  private void checkRunning() {
+    Preconditions.checkState(!mClosed.get(), "The journal writer is closed");
+    if (mWriterFailure != null) {
+      throw new IllegalStateException("The journal writer failed", mWriterFailure);
+    }
+  }
+
+  /**
+   * Offers an entry to the queue, waiting for up to {@link #BLOCKED_APPEND_CHECK_INTERVAL_MS} for
+   * room. Interrupts are deferred until the entry is offered.
+   *
+   * @param entry the entry to offer
+   * @return whether the entry was added to the queue
+   */
+  private boolean offerUninterruptibly(PendingEntry entry) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return mQueue.offer(entry, BLOCKED_APPEND_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
     }
   }
 
@@ -153,4 +282,132 @@ public final class AsyncJournalWriter {
   public static long getFlushCounter(long counter1, long counter2) {
     return Math.max(counter1, counter2);
   }
+
+  /**
+   * The body of the writer thread. Writes and flushes batches of entries until the writer is
+   * closed or a batch fails to be written.
+   */
+  private void writeEntries() {
+    List<PendingEntry> batch = new ArrayList<>();
+    int lastBatchSize = 0;
+    boolean closed = false;
+    while (!closed) {
+      batch.clear();
+      closed = takeBatch(batch, lastBatchSize > 1);
+      lastBatchSize = batch.size();
+      if (batch.isEmpty()) {
+        continue;
+      }
+      try {
+        writeBatch(batch);
+      } catch (IOException | RuntimeException e) {
+        // The flush counter is not advanced, so the waiting and later flushes fail once the
+        // thread stops.
+        LOG.error("Failed to write {} journal entries, stopping the journal writer", batch.size(),
+            e);
+        mWriterFailure = e;
+        return;
+      }
+      mFlushLock.lock();
+      try {
+        mFlushCounter.addAndGet(batch.size());
+        mFlushed.signalAll();
+      } finally {
+        mFlushLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Takes the next batch of entries from the queue. This blocks until at least one entry is
+   * available, and then takes all the queued entries, spending at most the batch flush time doing
+   * so. If linger is true, it also waits for more entries for up to the average flush latency.
+   *
+   * @param batch the list to add the entries to
+   * @param linger whether to wait for more entries once the queue is empty
+   * @return true if the writer is closed, false otherwise
+   */
+  private boolean takeBatch(List<PendingEntry> batch, boolean linger) {
+    PendingEntry entry = Uninterruptibles.takeUninterruptibly(mQueue);
+    long startTime = System.nanoTime();
+    long lingerTime = linger ? (long) Math.min(mAverageFlushTime, mFlushBatchTime) : 0;
+    while (entry != mCloseMarker) {
+      batch.add(entry);
+      long elapsedTime = System.nanoTime() - startTime;
+      if (elapsedTime >= mFlushBatchTime) {
+        // This batch has been collected for long enough, so flush it.
+        return false;
+      }
+      entry = mQueue.poll();
+      if (entry == null) {
+        if (elapsedTime >= lingerTime) {
+          return false;
+        }
+        try {
+          entry = mQueue.poll(lingerTime - elapsedTime, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+        if (entry == null) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes and flushes a batch of entries to the journal, and updates the metrics.
+   *
+   * @param batch the entries to write
+   * @throws IOException if an error occurs in writing the journal
+   */
+  private void writeBatch(List<PendingEntry> batch) throws IOException {
+    JournalOutputStream outputStream = mJournalWriter.getEntryOutputStream();
+    for (PendingEntry entry : batch) {
+      outputStream.writeEntry(entry.mEntry);
+    }
+    long flushStartTime = System.nanoTime();
+    outputStream.flush();
+    long flushEndTime = System.nanoTime();
+
+    long flushTime = flushEndTime - flushStartTime;
+    mAverageFlushTime = mAverageFlushTime == 0 ? flushTime
+        : FLUSH_LATENCY_WEIGHT * flushTime + (1 - FLUSH_LATENCY_WEIGHT) * mAverageFlushTime;
+    Metrics.FLUSH_TIMER.update(flushTime, TimeUnit.NANOSECONDS);
+    Metrics.BATCH_SIZE.update(batch.size());
+    for (PendingEntry entry : batch) {
+      Metrics.DURABLE_LATENCY_TIMER.update(flushEndTime - entry.mAppendTime,
+          TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * An appended entry waiting to be written, with the time it was appended.
+   */
+  private static final class PendingEntry {
+    private final JournalEntry mEntry;
+    private final long mAppendTime;
+
+    private PendingEntry(JournalEntry entry) {
+      mEntry = entry;
+      mAppendTime = System.nanoTime();
+    }
+  }
+
+  /**
+   * Class that contains metrics about the async journal writer.
+   */
+  private static final class Metrics {
+    private static final Counter BLOCKED_APPENDS =
+        MetricsSystem.masterCounter("JournalBlockedAppends");
+    private static final Histogram BATCH_SIZE =
+        MetricsSystem.masterHistogram("JournalFlushBatchSize");
+    private static final Timer FLUSH_TIMER = MetricsSystem.masterTimer("JournalFlushTimer");
+    private static final Timer DURABLE_LATENCY_TIMER =
+        MetricsSystem.masterTimer("JournalAppendToDurableTimer");
+
+    private Metrics() {} // prevent instantiation
+  }
 }
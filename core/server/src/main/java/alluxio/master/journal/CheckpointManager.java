@@ -12,6 +12,7 @@
 package alluxio.master.journal;
 
 import alluxio.Constants;
+import alluxio.proto.journal.Journal.JournalEntry;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.util.UnderFileSystemUtils;
 
@@ -34,7 +35,7 @@ import java.io.IOException;
  * 2. Rename checkpoint.data to checkpoint.data.backup.tmp
  * 3. Rename checkpoint.data.backup.tmp to checkpoint.data.backup
  * 4. Rename checkpoint.data.tmp to checkpoint.data
- * 5. Delete completed logs
+ * 5. Delete the completed logs reflected in checkpoint.data, but not in checkpoint.data.backup
  * 6. Delete checkpoint.data.backup
  * </pre>
  */
@@ -43,6 +44,8 @@ public final class CheckpointManager {
 
   /** The UFS where the journal is being written to. */
   private final UnderFileSystem mUfs;
+  /** The journal whose checkpoint is managed. */
+  private final Journal mJournal;
   /**
    * Absolute path to the checkpoint file. This is where the latest checkpoint is stored. During
    * normal operation (when not writing a new checkpoint file), this is the only checkpoint file
@@ -73,12 +76,13 @@ public final class CheckpointManager {
    * Creates a new instance of {@link CheckpointManager}.
    *
    * @param ufs the under file system holding the journal
-   * @param checkpointPath the path to the checkpoint file
+   * @param journal the journal whose checkpoint is managed
    * @param writer a journal writer which can be used to delete completed logs
    */
-  public CheckpointManager(UnderFileSystem ufs, String checkpointPath, JournalWriter writer) {
+  public CheckpointManager(UnderFileSystem ufs, Journal journal, JournalWriter writer) {
     mUfs = ufs;
-    mCheckpointPath = checkpointPath;
+    mJournal = journal;
+    mCheckpointPath = journal.getCheckpointFilePath();
     mBackupCheckpointPath = mCheckpointPath + ".backup";
     mTempBackupCheckpointPath = mBackupCheckpointPath + ".tmp";
     mWriter = writer;
@@ -109,7 +113,7 @@ public final class CheckpointManager {
         // We must have crashed after step 3
         if (checkpointExists) {
           // We crashed after step 4, so we can finish steps 5 and 6.
-          mWriter.deleteCompletedLogs();
+          deleteReflectedLogs(mBackupCheckpointPath);
           mUfs.delete(mBackupCheckpointPath, false);
         } else {
           // We crashed before step 4, so we roll back to the backup checkpoint.
@@ -130,7 +134,8 @@ public final class CheckpointManager {
    */
   public void updateCheckpoint(String newCheckpointPath) {
     try {
-      if (mUfs.exists(mCheckpointPath)) {
+      boolean checkpointExists = mUfs.exists(mCheckpointPath);
+      if (checkpointExists) {
         UnderFileSystemUtils.deleteIfExists(mUfs, mTempBackupCheckpointPath);
         UnderFileSystemUtils.deleteIfExists(mUfs, mBackupCheckpointPath);
         // Rename in two steps so that we never have identical mCheckpointPath and
@@ -142,11 +147,41 @@ public final class CheckpointManager {
       mUfs.rename(newCheckpointPath, mCheckpointPath);
       LOG.info("Renamed the checkpoint file from {} to {}", newCheckpointPath, mCheckpointPath);
 
-      // The checkpoint already reflects the information in the completed logs.
-      mWriter.deleteCompletedLogs();
+      // The checkpoint already reflects the information in the completed logs before its header.
+      if (checkpointExists) {
+        deleteReflectedLogs(mBackupCheckpointPath);
+      } else {
+        mWriter.deleteCompletedLogs(Journal.FIRST_COMPLETED_LOG_NUMBER,
+            mJournal.getCheckpointNextLogNumber(mUfs, mCheckpointPath));
+      }
       UnderFileSystemUtils.deleteIfExists(mUfs, mBackupCheckpointPath);
     } catch (IOException e) {
       throw Throwables.propagate(e);
     }
   }
+
+  /**
+   * Deletes the completed logs which are reflected in the checkpoint, but not in the previous one.
+   *
+   * @param previousCheckpointPath the path to the previous checkpoint
+   * @throws IOException if an I/O error occurs
+   */
+  private void deleteReflectedLogs(String previousCheckpointPath) throws IOException {
+    JournalInputStream inputStream =
+        mJournal.getJournalFormatter().deserialize(mUfs.open(mCheckpointPath));
+    JournalEntry firstEntry;
+    try {
+      firstEntry = inputStream.getNextEntry();
+    } finally {
+      inputStream.close();
+    }
+    if (firstEntry == null || !firstEntry.hasCheckpointHeader()) {
+      // The checkpoint was written without a header, so it reflects all the completed logs.
+      mWriter.deleteCompletedLogs();
+      return;
+    }
+    mWriter.deleteCompletedLogs(
+        mJournal.getCheckpointNextLogNumber(mUfs, previousCheckpointPath),
+        Journal.getNextLogNumber(firstEntry));
+  }
 }
@@ -12,6 +12,10 @@
 package alluxio.master.journal;
 
 import alluxio.AlluxioURI;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.underfs.UnderFileSystem;
+
+import java.io.IOException;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -23,6 +27,11 @@ import javax.annotation.concurrent.ThreadSafe;
  * To construct the full state of the master, all the entries must be applied to the checkpoint in
  * order. The entry file most recently being written to is in the base journal folder, where the
  * completed entry files are in the "completed/" sub-directory.
+ *
+ * Every checkpoint starts with a header entry holding the number of the first completed log which
+ * is not reflected in the checkpoint, so older completed logs can be deleted at any time after the
+ * checkpoint is written. Checkpoints written before the header was introduced reflect none of the
+ * completed logs.
  */
 @ThreadSafe
 public abstract class Journal {
@@ -34,6 +43,8 @@ public abstract class Journal {
   private static final String CURRENT_LOG_EXTENSION = ".out";
   /** The filename of the checkpoint file. */
   private static final String CHECKPOINT_FILENAME = "checkpoint.data";
+  /** The filename of the checkpoint written by a standby master, for the leader to install. */
+  private static final String STANDBY_CHECKPOINT_FILENAME = "standby.checkpoint.data";
   /** The base of the entry log filenames, without the file extension. */
   private static final String ENTRY_LOG_FILENAME_BASE = "log";
   /** The directory where this journal is stored. */
@@ -76,6 +87,14 @@ public abstract class Journal {
     return mDirectory + CHECKPOINT_FILENAME;
   }
 
+  /**
+   * @return the absolute path for the checkpoint file written by a standby master, which the
+   *         leader master installs as the next journal checkpoint
+   */
+  public String getStandbyCheckpointFilePath() {
+    return mDirectory + STANDBY_CHECKPOINT_FILENAME;
+  }
+
   /**
    * @return the absolute path for the current log file
    */
@@ -99,4 +118,33 @@ public abstract class Journal {
   public JournalFormatter getJournalFormatter() {
     return mJournalFormatter;
   }
+
+  /**
+   * Reads the header of a checkpoint file.
+   *
+   * @param ufs the under file system holding the checkpoint
+   * @param checkpointPath the absolute path of the checkpoint file
+   * @return the number of the first completed log which is not reflected in the checkpoint
+   * @throws IOException if the checkpoint cannot be read
+   */
+  public long getCheckpointNextLogNumber(UnderFileSystem ufs, String checkpointPath)
+      throws IOException {
+    JournalInputStream inputStream = mJournalFormatter.deserialize(ufs.open(checkpointPath));
+    try {
+      return getNextLogNumber(inputStream.getNextEntry());
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  /**
+   * @param firstEntry the first entry of a checkpoint, or null if the checkpoint is empty
+   * @return the number of the first completed log which is not reflected in the checkpoint
+   */
+  static long getNextLogNumber(JournalEntry firstEntry) {
+    if (firstEntry == null || !firstEntry.hasCheckpointHeader()) {
+      return FIRST_COMPLETED_LOG_NUMBER;
+    }
+    return firstEntry.getCheckpointHeader().getNextLogNumber();
+  }
 }
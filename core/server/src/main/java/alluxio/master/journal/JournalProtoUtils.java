@@ -33,10 +33,16 @@ public final class JournalProtoUtils {
     switch (entry.getEntryCase()) {
       case ADD_MOUNT_POINT:
         return entry.getAddMountPoint();
+      case BACKGROUND_DELETE:
+        return entry.getBackgroundDelete();
       case BLOCK_CONTAINER_ID_GENERATOR:
         return entry.getBlockContainerIdGenerator();
       case BLOCK_INFO:
         return entry.getBlockInfo();
+      case CHECKPOINT_CHUNK:
+        return entry.getCheckpointChunk();
+      case CHECKPOINT_HEADER:
+        return entry.getCheckpointHeader();
       case COMPLETE_FILE:
         return entry.getCompleteFile();
       case DELETE_FILE:
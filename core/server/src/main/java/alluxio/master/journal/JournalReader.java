@@ -12,6 +12,7 @@
 package alluxio.master.journal;
 
 import alluxio.Constants;
+import alluxio.proto.journal.Journal.JournalEntry;
 import alluxio.underfs.UnderFileSystem;
 
 import com.google.common.base.Preconditions;
@@ -29,6 +30,10 @@ import javax.annotation.concurrent.NotThreadSafe;
  *
  * 2. Afterwards, completed entries are read in order. Only completed logs are read, so the last log
  * currently being written is not read until it is marked as complete.
+ *
+ * Reading starts with the first completed log which is not reflected in the checkpoint. If the
+ * checkpoint is updated while reading, the reader stays valid as long as the new checkpoint only
+ * reflects logs which were already read.
  */
 @NotThreadSafe
 public class JournalReader {
@@ -46,6 +51,8 @@ public class JournalReader {
   private long mCheckpointOpenedTime = -1;
   /** The modified time (in ms) for the latest checkpoint file. */
   private long mCheckpointLastModifiedTime = -1;
+  /** The number of the first completed log which is not reflected in the read checkpoint. */
+  private long mCheckpointNextLogNumber = Journal.FIRST_COMPLETED_LOG_NUMBER;
   /** The log number for the completed log file. */
   private long mCurrentLogNumber = Journal.FIRST_COMPLETED_LOG_NUMBER;
 
@@ -86,9 +93,16 @@ public class JournalReader {
     LOG.info("Opening journal checkpoint file: {}", mCheckpointPath);
     JournalInputStream jis =
         mJournal.getJournalFormatter().deserialize(mUfs.open(mCheckpointPath));
+    JournalEntry firstEntry = jis.getNextEntry();
+    mCheckpointNextLogNumber = Journal.getNextLogNumber(firstEntry);
+    mCurrentLogNumber = mCheckpointNextLogNumber;
+    if (firstEntry != null && firstEntry.hasCheckpointHeader()) {
+      firstEntry = null;
+    }
 
     mCheckpointRead = true;
-    return jis;
+    return new ParallelCheckpointInputStream(new CheckpointInputStream(jis, firstEntry),
+        mJournal.getJournalFormatter(), Runtime.getRuntime().availableProcessors());
   }
 
   /**
@@ -101,7 +115,7 @@ public class JournalReader {
     if (!mCheckpointRead) {
       throw new IOException("Must read the checkpoint file before getting input stream.");
     }
-    if (getCheckpointLastModifiedTimeMs() != mCheckpointOpenedTime) {
+    if (getCheckpointLastModifiedTimeMs() != mCheckpointOpenedTime && !switchCheckpoint()) {
       throw new IOException("Checkpoint file has been updated. This reader is no longer valid.");
     }
     String currentLogPath = mJournal.getCompletedLogFilePath(mCurrentLogNumber);
@@ -119,6 +133,41 @@ public class JournalReader {
     return jis;
   }
 
+  /**
+   * @return the number of the first completed log which is not reflected in the checkpoint
+   */
+  public long getCheckpointNextLogNumber() {
+    return mCheckpointNextLogNumber;
+  }
+
+  /**
+   * @return the number of the next completed log to read
+   */
+  public long getNextLogNumber() {
+    return mCurrentLogNumber;
+  }
+
+  /**
+   * Switches to a checkpoint which was updated after the read one, if all the completed logs it
+   * reflects were already read. The state read so far is then the state of the updated checkpoint
+   * plus the logs read after its header, so reading can continue with the next log.
+   *
+   * @return true if the reader switched to the updated checkpoint
+   * @throws IOException if the updated checkpoint cannot be read
+   */
+  private boolean switchCheckpoint() throws IOException {
+    long modifiedTime = mCheckpointLastModifiedTime;
+    long nextLogNumber = mJournal.getCheckpointNextLogNumber(mUfs, mCheckpointPath);
+    if (nextLogNumber > mCurrentLogNumber || getCheckpointLastModifiedTimeMs() != modifiedTime) {
+      return false;
+    }
+    LOG.info("Switching to the updated journal checkpoint, which reflects the logs before {}",
+        nextLogNumber);
+    mCheckpointOpenedTime = modifiedTime;
+    mCheckpointNextLogNumber = nextLogNumber;
+    return true;
+  }
+
   /**
    * @return the last modified time of the checkpoint file in ms
    * @throws IOException if the checkpoint does not exist
@@ -130,4 +179,38 @@ public class JournalReader {
     mCheckpointLastModifiedTime = mUfs.getModificationTimeMs(mCheckpointPath);
     return mCheckpointLastModifiedTime;
   }
+
+  /**
+   * The input stream for the checkpoint file, which skips the checkpoint header.
+   */
+  private static final class CheckpointInputStream implements JournalInputStream {
+    private final JournalInputStream mInputStream;
+    /** The first entry after the header, which was read before this stream was created. */
+    private JournalEntry mFirstEntry;
+
+    CheckpointInputStream(JournalInputStream inputStream, JournalEntry firstEntry) {
+      mInputStream = inputStream;
+      mFirstEntry = firstEntry;
+    }
+
+    @Override
+    public JournalEntry getNextEntry() throws IOException {
+      if (mFirstEntry != null) {
+        JournalEntry entry = mFirstEntry;
+        mFirstEntry = null;
+        return entry;
+      }
+      return mInputStream.getNextEntry();
+    }
+
+    @Override
+    public void close() throws IOException {
+      mInputStream.close();
+    }
+
+    @Override
+    public long getLatestSequenceNumber() {
+      return mInputStream.getLatestSequenceNumber();
+    }
+  }
 }
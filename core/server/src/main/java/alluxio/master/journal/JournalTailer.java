@@ -14,6 +14,9 @@ package alluxio.master.journal;
 import alluxio.Constants;
 import alluxio.master.Master;
 import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.underfs.UnderFileSystem;
+import alluxio.util.UnderFileSystemUtils;
+import alluxio.util.io.PathUtils;
 
 import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
@@ -39,6 +42,10 @@ public final class JournalTailer {
   private final JournalReader mReader;
   /** This keeps track of the latest sequence number seen in the journal entries. */
   private long mLatestSequenceNumber = 0;
+  /** The number of the first completed log which is not reflected in the latest checkpoint. */
+  private long mCheckpointNextLogNumber = Journal.FIRST_COMPLETED_LOG_NUMBER;
+  /** The number of entries processed since the latest checkpoint. */
+  private long mNumEntriesSinceCheckpoint = 0;
 
   /**
    * Creates a new instance of {@link JournalTailer}.
@@ -78,6 +85,14 @@ public final class JournalTailer {
     return mLatestSequenceNumber;
   }
 
+  /**
+   * @return the number of entries processed since the latest checkpoint, which is the checkpoint
+   *         read by this tailer, installed by the leader master, or written by this tailer
+   */
+  public long getNumEntriesSinceCheckpoint() {
+    return mNumEntriesSinceCheckpoint;
+  }
+
   /**
    * Loads and (optionally) processes the journal checkpoint file.
    *
@@ -100,6 +115,8 @@ public final class JournalTailer {
     // update the latest sequence number seen.
     mLatestSequenceNumber = is.getLatestSequenceNumber();
     is.close();
+    mCheckpointNextLogNumber = mReader.getCheckpointNextLogNumber();
+    mNumEntriesSinceCheckpoint = 0;
   }
 
   /**
@@ -116,6 +133,11 @@ public final class JournalTailer {
     while (mReader.isValid()) {
       // Process the new completed log file, if it exists.
       JournalInputStream inputStream = mReader.getNextInputStream();
+      if (mReader.getCheckpointNextLogNumber() > mCheckpointNextLogNumber) {
+        // The reader switched to a checkpoint which was installed by the leader master.
+        mCheckpointNextLogNumber = mReader.getCheckpointNextLogNumber();
+        mNumEntriesSinceCheckpoint = 0;
+      }
       if (inputStream != null) {
         LOG.info("{}: Processing a completed log file.", mMaster.getName());
         JournalEntry entry;
@@ -123,6 +145,7 @@ public final class JournalTailer {
           mMaster.processJournalEntry(entry);
           // update the latest sequence number seen.
           mLatestSequenceNumber = inputStream.getLatestSequenceNumber();
+          mNumEntriesSinceCheckpoint++;
         }
         inputStream.close();
         numFilesProcessed++;
@@ -135,4 +158,45 @@ public final class JournalTailer {
         mMaster.getName(), mJournal.getCheckpointFilePath());
     return numFilesProcessed;
   }
+
+  /**
+   * Writes a checkpoint of the state processed so far, for the leader master to install as the
+   * journal checkpoint. Nothing is written if the leader master has not installed the previous
+   * checkpoint of a standby master yet. No journal entries may be applied to the master while the
+   * checkpoint is written, so that it reflects exactly the completed logs processed so far.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public void writeStandbyCheckpoint() throws IOException {
+    // Wait for another period before retrying, whether or not the checkpoint is written.
+    mNumEntriesSinceCheckpoint = 0;
+    UnderFileSystem ufs = UnderFileSystem.get(mJournal.getDirectory());
+    String standbyCheckpointPath = mJournal.getStandbyCheckpointFilePath();
+    if (ufs.exists(standbyCheckpointPath)) {
+      LOG.info("{}: The previous standby checkpoint is not installed yet.", mMaster.getName());
+      return;
+    }
+    long nextLogNumber = mReader.getNextLogNumber();
+    LOG.info("{}: Writing a standby checkpoint which reflects the logs before {}",
+        mMaster.getName(), nextLogNumber);
+    String tempPath = PathUtils.temporaryFileName(System.nanoTime(), standbyCheckpointPath);
+    ParallelCheckpointOutputStream outputStream = new ParallelCheckpointOutputStream(
+        ufs.create(tempPath), mJournal.getJournalFormatter(), mLatestSequenceNumber,
+        Runtime.getRuntime().availableProcessors());
+    boolean renamed = false;
+    try {
+      outputStream.writeHeader(nextLogNumber);
+      mMaster.streamToJournalCheckpoint(outputStream);
+      outputStream.close();
+      // Another standby master may have written a checkpoint in the meantime.
+      renamed = ufs.rename(tempPath, standbyCheckpointPath);
+    } finally {
+      if (!renamed) {
+        outputStream.close();
+        UnderFileSystemUtils.deleteIfExists(ufs, tempPath);
+      }
+    }
+    mCheckpointNextLogNumber = nextLogNumber;
+    LOG.info("{}: Finished writing the standby checkpoint.", mMaster.getName());
+  }
 }
@@ -27,7 +27,9 @@ import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * This thread continually tails the journal and applies it to the master, until the master
- * initiates the shutdown of the thread.
+ * initiates the shutdown of the thread. Whenever it has caught up with the journal after
+ * {@link PropertyKey#MASTER_JOURNAL_CHECKPOINT_PERIOD_ENTRIES} entries, it writes a checkpoint for
+ * the leader master to install, so that the completed logs do not grow without bound.
  */
 @NotThreadSafe
 public final class JournalTailerThread extends Thread {
@@ -39,6 +41,7 @@ public final class JournalTailerThread extends Thread {
   private final Journal mJournal;
   private final int mShutdownQuietWaitTimeMs;
   private final int mJournalTailerSleepTimeMs;
+  private final long mCheckpointPeriodEntries;
   /** This becomes true when the master initiates the shutdown. */
   private volatile boolean mInitiateShutdown = false;
 
@@ -60,6 +63,8 @@ public final class JournalTailerThread extends Thread {
         Configuration.getInt(PropertyKey.MASTER_JOURNAL_TAILER_SHUTDOWN_QUIET_WAIT_TIME_MS);
     mJournalTailerSleepTimeMs =
         Configuration.getInt(PropertyKey.MASTER_JOURNAL_TAILER_SLEEP_TIME_MS);
+    mCheckpointPeriodEntries =
+        Configuration.getLong(PropertyKey.MASTER_JOURNAL_CHECKPOINT_PERIOD_ENTRIES);
   }
 
   /**
@@ -127,6 +132,11 @@ public final class JournalTailerThread extends Thread {
             // Reset the shutdown timer.
             waitForShutdownStart = -1;
           } else {
+            if (!mInitiateShutdown && mCheckpointPeriodEntries > 0
+                && mJournalTailer.getNumEntriesSinceCheckpoint() >= mCheckpointPeriodEntries) {
+              writeStandbyCheckpoint();
+              continue;
+            }
             if (mInitiateShutdown) {
               if (waitForShutdownStart == -1) {
                 waitForShutdownStart = CommonUtils.getCurrentMs();
@@ -155,4 +165,16 @@ public final class JournalTailerThread extends Thread {
     LOG.info("{}: Journal tailer has been shutdown.", mMaster.getName());
     mStopped = true;
   }
+
+  /**
+   * Writes a checkpoint of the master state, logging any failure since the journal can still be
+   * tailed without it.
+   */
+  private void writeStandbyCheckpoint() {
+    try {
+      mJournalTailer.writeStandbyCheckpoint();
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("{}: Failed to write a standby checkpoint", mMaster.getName(), e);
+    }
+  }
 }
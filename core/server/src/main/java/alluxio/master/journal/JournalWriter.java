@@ -41,7 +41,7 @@ import javax.annotation.concurrent.ThreadSafe;
  * log files.
  *
  * The latest state can be reconstructed by reading the checkpoint file, and applying all the
- * completed logs and then the remaining log in progress.
+ * completed logs which are not reflected in the checkpoint and then the remaining log in progress.
  */
 @ThreadSafe
 public final class JournalWriter {
@@ -85,7 +85,7 @@ public final class JournalWriter {
     mCompletedDirectory = mJournal.getCompletedDirectory();
     mTempCheckpointPath = mJournal.getCheckpointFilePath() + ".tmp";
     mUfs = UnderFileSystem.get(mJournalDirectory);
-    mCheckpointManager = new CheckpointManager(mUfs, mJournal.getCheckpointFilePath(), this);
+    mCheckpointManager = new CheckpointManager(mUfs, mJournal, this);
   }
 
   /**
@@ -95,8 +95,9 @@ public final class JournalWriter {
    */
   public synchronized void completeAllLogs() throws IOException {
     LOG.info("Marking all logs as complete.");
-    // Loop over all complete logs starting from the beginning, to determine the next log number.
-    mNextCompleteLogNumber = Journal.FIRST_COMPLETED_LOG_NUMBER;
+    // Loop over all complete logs after the checkpoint, to determine the next log number. The
+    // earlier logs are reflected in the checkpoint, and may already be deleted.
+    mNextCompleteLogNumber = getCheckpointNextLogNumber();
     String logFilename = mJournal.getCompletedLogFilePath(mNextCompleteLogNumber);
     while (mUfs.exists(logFilename)) {
       mNextCompleteLogNumber++;
@@ -129,8 +130,11 @@ public final class JournalWriter {
       LOG.info("Latest journal sequence number: {} Next journal sequence number: {}",
           latestSequenceNumber, mNextEntrySequenceNumber);
       UnderFileSystemUtils.deleteIfExists(mUfs, mTempCheckpointPath);
+      // A checkpoint written by a standby master cannot reflect more logs than this checkpoint.
+      UnderFileSystemUtils.deleteIfExists(mUfs, mJournal.getStandbyCheckpointFilePath());
       mCheckpointOutputStream =
-          new CheckpointOutputStream(new DataOutputStream(mUfs.create(mTempCheckpointPath)));
+          new CheckpointOutputStream(mUfs.create(mTempCheckpointPath), latestSequenceNumber);
+      mCheckpointOutputStream.writeHeader(mNextCompleteLogNumber);
     }
     return mCheckpointOutputStream;
   }
@@ -206,6 +210,74 @@ public final class JournalWriter {
     mNextCompleteLogNumber = Journal.FIRST_COMPLETED_LOG_NUMBER;
   }
 
+  /**
+   * Deletes the completed logs in a range of log numbers. Logs which do not exist are skipped, so
+   * a deletion which was interrupted can be repeated.
+   *
+   * @param fromLogNumber the number of the first log to delete
+   * @param toLogNumber the number after the last log to delete
+   * @throws IOException if an I/O error occurs
+   */
+  public void deleteCompletedLogs(long fromLogNumber, long toLogNumber) throws IOException {
+    LOG.info("Deleting completed log files {} to {}...", fromLogNumber, toLogNumber - 1);
+    for (long i = fromLogNumber; i < toLogNumber; i++) {
+      String logFilename = mJournal.getCompletedLogFilePath(i);
+      if (mUfs.exists(logFilename)) {
+        LOG.info("Deleting completed log: {}", logFilename);
+        mUfs.delete(logFilename, true);
+      }
+    }
+    LOG.info("Finished deleting completed log files.");
+  }
+
+  /**
+   * Installs the checkpoint written by a standby master as the journal checkpoint, if it reflects
+   * more completed logs than the current checkpoint. The logs which only the installed checkpoint
+   * reflects are deleted. This must only be called after the checkpoint of this writer is closed.
+   *
+   * @return true if a standby checkpoint was installed
+   * @throws IOException if an I/O error occurs
+   */
+  public boolean installStandbyCheckpoint() throws IOException {
+    String standbyCheckpointPath = mJournal.getStandbyCheckpointFilePath();
+    if (!mUfs.exists(standbyCheckpointPath)) {
+      return false;
+    }
+    // Move the standby checkpoint first, so a standby master cannot replace it while installing.
+    UnderFileSystemUtils.deleteIfExists(mUfs, mTempCheckpointPath);
+    if (!mUfs.rename(standbyCheckpointPath, mTempCheckpointPath)) {
+      return false;
+    }
+    long nextLogNumber = mJournal.getCheckpointNextLogNumber(mUfs, mTempCheckpointPath);
+    long checkpointNextLogNumber = getCheckpointNextLogNumber();
+    long nextCompleteLogNumber;
+    synchronized (this) {
+      nextCompleteLogNumber = mNextCompleteLogNumber;
+    }
+    if (nextLogNumber <= checkpointNextLogNumber || nextLogNumber > nextCompleteLogNumber) {
+      LOG.info("Discarding the standby checkpoint which reflects the logs before {}, since the "
+          + "checkpoint reflects the logs before {} and the logs before {} are complete.",
+          nextLogNumber, checkpointNextLogNumber, nextCompleteLogNumber);
+      mUfs.delete(mTempCheckpointPath, false);
+      return false;
+    }
+    LOG.info("Installing the standby checkpoint which reflects the logs before {}", nextLogNumber);
+    mCheckpointManager.updateCheckpoint(mTempCheckpointPath);
+    return true;
+  }
+
+  /**
+   * @return the number of the first completed log which is not reflected in the checkpoint
+   * @throws IOException if the checkpoint cannot be read
+   */
+  private long getCheckpointNextLogNumber() throws IOException {
+    String checkpointPath = mJournal.getCheckpointFilePath();
+    if (!mUfs.exists(checkpointPath)) {
+      return Journal.FIRST_COMPLETED_LOG_NUMBER;
+    }
+    return mJournal.getCheckpointNextLogNumber(mUfs, checkpointPath);
+  }
+
   /**
    * Moves the current log file to the completed folder, marking it as complete. If successful, the
    * current log file will no longer exist. The current log must already be closed before this call.
@@ -235,22 +307,34 @@ public final class JournalWriter {
    * delete the completed logs, and then mark the current log as complete.
    */
   private class CheckpointOutputStream implements JournalOutputStream {
-    private final DataOutputStream mOutputStream;
+    private final ParallelCheckpointOutputStream mOutputStream;
     private boolean mIsClosed = false;
 
-    CheckpointOutputStream(DataOutputStream outputStream) {
-      mOutputStream = outputStream;
+    CheckpointOutputStream(OutputStream outputStream, long sequenceNumber) {
+      mOutputStream = new ParallelCheckpointOutputStream(outputStream,
+          mJournal.getJournalFormatter(), sequenceNumber,
+          Runtime.getRuntime().availableProcessors());
     }
 
     boolean isClosed() {
       return mIsClosed;
     }
 
+    /**
+     * Writes the header of the checkpoint file, which must be its first entry.
+     *
+     * @param nextLogNumber the number of the first completed log not reflected in the checkpoint
+     * @throws IOException if an I/O error occurs
+     */
+    synchronized void writeHeader(long nextLogNumber) throws IOException {
+      mOutputStream.writeHeader(nextLogNumber);
+    }
+
     /**
      * Writes an entry to the checkpoint file.
      *
-     * The entry should not have its sequence number set. This method will add the proper sequence
-     * number to the passed in entry.
+     * The entry should not have its sequence number set. The entries of the checkpoint are written
+     * with the sequence number of the latest journal entry reflected in the checkpoint.
      *
      * @param entry an entry to write to the journal checkpoint file
      * @throws IOException if an I/O error occurs
@@ -260,17 +344,15 @@ public final class JournalWriter {
       if (mIsClosed) {
         throw new IOException(ExceptionMessage.JOURNAL_WRITE_AFTER_CLOSE.getMessage());
       }
-      mJournal.getJournalFormatter().serialize(
-          entry.toBuilder().setSequenceNumber(allocateNextEntrySequenceNumber()).build(),
-          mOutputStream);
+      mOutputStream.writeEntry(entry);
     }
 
     /**
      * Closes the checkpoint file. The entries in the checkpoint should already reflect all the
      * state of the complete log files (but not the last, current log file).
      *
-     * Closing the checkpoint file will delete all the completed log files, since the checkpoint
-     * already reflects that state.
+     * Closing the checkpoint file will delete all the completed log files before the one named in
+     * the checkpoint header, since the checkpoint already reflects that state.
      *
      * The current log file (if it exists) will be closed and marked as complete.
      *
@@ -281,7 +363,6 @@ public final class JournalWriter {
       if (mIsClosed) {
         return;
       }
-      mOutputStream.flush();
       mOutputStream.close();
 
       LOG.info("Successfully created tmp checkpoint file: {}", mTempCheckpointPath);
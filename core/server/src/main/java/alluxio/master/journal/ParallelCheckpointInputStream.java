@@ -0,0 +1,173 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.proto.journal.Journal.CheckpointChunkEntry;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Futures;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.InflaterInputStream;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * This input stream reads the entries of a checkpoint file written by
+ * {@link ParallelCheckpointOutputStream}. The {@link CheckpointChunkEntry} entries are read ahead
+ * and decoded in parallel, and their entries are returned in order. Other entries, such as the
+ * entries of checkpoint files written before the entries were grouped into chunks, are returned
+ * as they are.
+ */
+@NotThreadSafe
+final class ParallelCheckpointInputStream implements JournalInputStream {
+  private final JournalInputStream mInputStream;
+  private final JournalFormatter mJournalFormatter;
+  private final ExecutorService mExecutorService;
+  /** The maximum number of chunks which are read ahead. */
+  private final int mMaxPendingChunks;
+  /** The entries of the chunks which were read ahead, in the order they were read. */
+  private final Deque<Future<List<JournalEntry>>> mPendingChunks = new ArrayDeque<>();
+
+  /** The remaining entries of the current chunk. */
+  private Iterator<JournalEntry> mEntries = Collections.emptyIterator();
+  private long mLatestSequenceNumber;
+  /** Whether all the entries of the underlying stream were read. */
+  private boolean mEndOfStream = false;
+
+  /**
+   * Creates a new instance of {@link ParallelCheckpointInputStream}.
+   *
+   * @param inputStream the stream of the checkpoint entries
+   * @param journalFormatter the formatter to deserialize the entries of the chunks with
+   * @param threads the number of threads to decode the chunks with
+   */
+  ParallelCheckpointInputStream(JournalInputStream inputStream,
+      JournalFormatter journalFormatter, int threads) {
+    mInputStream = inputStream;
+    mJournalFormatter = journalFormatter;
+    mExecutorService = Executors.newFixedThreadPool(threads,
+        ThreadFactoryUtils.build("journal-checkpoint-deserializer-%d", true));
+    mMaxPendingChunks = 2 * threads;
+  }
+
+  @Override
+  public JournalEntry getNextEntry() throws IOException {
+    while (!mEntries.hasNext()) {
+      readAhead();
+      if (mPendingChunks.isEmpty()) {
+        return null;
+      }
+      mEntries = getChunkEntries(mPendingChunks.remove()).iterator();
+    }
+    JournalEntry entry = mEntries.next();
+    mLatestSequenceNumber = entry.getSequenceNumber();
+    return entry;
+  }
+
+  @Override
+  public void close() throws IOException {
+    mExecutorService.shutdownNow();
+    mInputStream.close();
+  }
+
+  @Override
+  public long getLatestSequenceNumber() {
+    return mLatestSequenceNumber;
+  }
+
+  /**
+   * Reads entries from the underlying stream until enough chunks are read ahead, and starts
+   * decoding the chunks.
+   *
+   * @throws IOException if the entries cannot be read
+   */
+  private void readAhead() throws IOException {
+    while (!mEndOfStream && mPendingChunks.size() < mMaxPendingChunks) {
+      JournalEntry entry = mInputStream.getNextEntry();
+      if (entry == null) {
+        mEndOfStream = true;
+        mExecutorService.shutdown();
+      } else if (entry.hasCheckpointChunk()) {
+        mPendingChunks.add(mExecutorService.submit(new ChunkDecoder(entry.getCheckpointChunk())));
+      } else {
+        mPendingChunks.add(Futures.immediateFuture(Collections.singletonList(entry)));
+      }
+    }
+  }
+
+  /**
+   * @param chunk the chunk to wait for
+   * @return the entries of the chunk
+   * @throws IOException if the chunk cannot be decoded
+   */
+  private static List<JournalEntry> getChunkEntries(Future<List<JournalEntry>> chunk)
+      throws IOException {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Decodes the entries of a chunk.
+   */
+  private final class ChunkDecoder implements Callable<List<JournalEntry>> {
+    private final CheckpointChunkEntry mChunk;
+
+    ChunkDecoder(CheckpointChunkEntry chunk) {
+      mChunk = chunk;
+    }
+
+    @Override
+    public List<JournalEntry> call() throws IOException {
+      InputStream inputStream = mChunk.getEntries().newInput();
+      if (mChunk.getCompressed()) {
+        inputStream = new InflaterInputStream(inputStream);
+      }
+      List<JournalEntry> entries = new ArrayList<>(mChunk.getNumEntries());
+      JournalInputStream entryStream = mJournalFormatter.deserialize(inputStream);
+      try {
+        JournalEntry entry;
+        while ((entry = entryStream.getNextEntry()) != null) {
+          entries.add(entry);
+        }
+      } finally {
+        entryStream.close();
+      }
+      if (entries.size() != mChunk.getNumEntries()) {
+        throw new IOException(String.format("Checkpoint chunk has %d entries, but %d were expected",
+            entries.size(), mChunk.getNumEntries()));
+      }
+      return entries;
+    }
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.Configuration;
+import alluxio.Constants;
+import alluxio.PropertyKey;
+import alluxio.exception.ExceptionMessage;
+import alluxio.proto.journal.Journal.CheckpointChunkEntry;
+import alluxio.proto.journal.Journal.CheckpointHeaderEntry;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.protobuf.ByteString;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * This output stream writes a checkpoint file from the state of a master. Consecutive entries of
+ * the same type are grouped into chunks, which are serialized (and optionally compressed) in
+ * parallel, and written to the file in order as {@link CheckpointChunkEntry} entries. The type of
+ * the entries of a chunk is recorded in the chunk, so the chunks form an index of the sections of
+ * the checkpoint, and can be decoded in parallel by {@link ParallelCheckpointInputStream}.
+ *
+ * All the entries are written with the same sequence number, the sequence number of the latest
+ * journal entry which is reflected in the checkpoint.
+ */
+@NotThreadSafe
+final class ParallelCheckpointOutputStream implements JournalOutputStream {
+  /** The maximum number of entries in a chunk. */
+  private static final int MAX_CHUNK_ENTRIES = 4096;
+  /** The serialized size of the entries after which a chunk is full. */
+  private static final int MAX_CHUNK_BYTES = 4 * Constants.MB;
+
+  private final OutputStream mOutputStream;
+  private final JournalFormatter mJournalFormatter;
+  private final long mSequenceNumber;
+  /** Whether the entries of the chunks are compressed. */
+  private final boolean mCompressed;
+  private final ExecutorService mExecutorService;
+  /** The maximum number of chunks which are serialized, but not yet written. */
+  private final int mMaxPendingChunks;
+  /** The serialized chunks, in the order they are written. */
+  private final Deque<Future<byte[]>> mPendingChunks = new ArrayDeque<>();
+
+  /** The entries of the chunk which is not full yet. */
+  private List<JournalEntry> mEntries = new ArrayList<>();
+  /** The serialized size of the entries of the chunk which is not full yet. */
+  private long mChunkBytes = 0;
+  private boolean mIsClosed = false;
+
+  /**
+   * Creates a new instance of {@link ParallelCheckpointOutputStream}.
+   *
+   * @param outputStream the stream of the checkpoint file
+   * @param journalFormatter the formatter to serialize the entries with
+   * @param sequenceNumber the sequence number of the latest journal entry reflected in the
+   *        checkpoint
+   * @param threads the number of threads to serialize the chunks with
+   */
+  ParallelCheckpointOutputStream(OutputStream outputStream, JournalFormatter journalFormatter,
+      long sequenceNumber, int threads) {
+    mOutputStream = outputStream;
+    mJournalFormatter = journalFormatter;
+    mSequenceNumber = sequenceNumber;
+    mCompressed =
+        Configuration.getBoolean(PropertyKey.MASTER_JOURNAL_CHECKPOINT_COMPRESSION_ENABLED);
+    mExecutorService = Executors.newFixedThreadPool(threads,
+        ThreadFactoryUtils.build("journal-checkpoint-serializer-%d", true));
+    mMaxPendingChunks = 2 * threads;
+  }
+
+  /**
+   * Writes the header of the checkpoint file, which must be written before any entry.
+   *
+   * @param nextLogNumber the number of the first completed log not reflected in the checkpoint
+   * @throws IOException if an I/O error occurs
+   */
+  void writeHeader(long nextLogNumber) throws IOException {
+    Preconditions.checkState(mEntries.isEmpty() && mPendingChunks.isEmpty(),
+        "The checkpoint header must be written first");
+    mJournalFormatter.serialize(JournalEntry.newBuilder()
+        .setSequenceNumber(mSequenceNumber)
+        .setCheckpointHeader(CheckpointHeaderEntry.newBuilder().setNextLogNumber(nextLogNumber))
+        .build(), mOutputStream);
+  }
+
+  @Override
+  public void writeEntry(JournalEntry entry) throws IOException {
+    if (mIsClosed) {
+      throw new IOException(ExceptionMessage.JOURNAL_WRITE_AFTER_CLOSE.getMessage());
+    }
+    if (!mEntries.isEmpty() && (entry.getEntryCase() != mEntries.get(0).getEntryCase()
+        || mEntries.size() == MAX_CHUNK_ENTRIES || mChunkBytes >= MAX_CHUNK_BYTES)) {
+      serializeChunk();
+    }
+    mEntries.add(entry);
+    mChunkBytes += entry.getSerializedSize();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (mIsClosed) {
+      return;
+    }
+    mIsClosed = true;
+    try {
+      writeAllChunks();
+      mOutputStream.flush();
+    } finally {
+      mExecutorService.shutdownNow();
+      mOutputStream.close();
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (mIsClosed) {
+      return;
+    }
+    writeAllChunks();
+    mOutputStream.flush();
+  }
+
+  /**
+   * Starts serializing the entries which were not serialized yet, and writes the serialized chunks
+   * while too many of them are pending.
+   *
+   * @throws IOException if a chunk cannot be serialized or written
+   */
+  private void serializeChunk() throws IOException {
+    if (mEntries.isEmpty()) {
+      return;
+    }
+    final List<JournalEntry> entries = mEntries;
+    mEntries = new ArrayList<>();
+    mChunkBytes = 0;
+    mPendingChunks.add(mExecutorService.submit(new Callable<byte[]>() {
+      @Override
+      public byte[] call() throws IOException {
+        ByteString.Output serializedEntries = ByteString.newOutput();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (OutputStream outputStream = mCompressed
+            ? new DeflaterOutputStream(serializedEntries, deflater) : serializedEntries) {
+          for (JournalEntry entry : entries) {
+            mJournalFormatter.serialize(
+                entry.toBuilder().setSequenceNumber(mSequenceNumber).build(), outputStream);
+          }
+        } finally {
+          deflater.end();
+        }
+        CheckpointChunkEntry chunk = CheckpointChunkEntry.newBuilder()
+            .setEntryType(entries.get(0).getEntryCase().getNumber())
+            .setNumEntries(entries.size())
+            .setCompressed(mCompressed)
+            .setEntries(serializedEntries.toByteString())
+            .build();
+        ByteArrayOutputStream chunkOutputStream = new ByteArrayOutputStream();
+        mJournalFormatter.serialize(JournalEntry.newBuilder().setSequenceNumber(mSequenceNumber)
+            .setCheckpointChunk(chunk).build(), chunkOutputStream);
+        return chunkOutputStream.toByteArray();
+      }
+    }));
+    while (mPendingChunks.size() > mMaxPendingChunks) {
+      writeChunk();
+    }
+  }
+
+  /**
+   * Serializes the remaining entries, and writes all the pending chunks.
+   *
+   * @throws IOException if a chunk cannot be serialized or written
+   */
+  private void writeAllChunks() throws IOException {
+    serializeChunk();
+    while (!mPendingChunks.isEmpty()) {
+      writeChunk();
+    }
+  }
+
+  /**
+   * Waits for the oldest pending chunk to be serialized, and writes it.
+   *
+   * @throws IOException if the chunk cannot be serialized or written
+   */
+  private void writeChunk() throws IOException {
+    try {
+      mOutputStream.write(mPendingChunks.remove().get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new IOException(e.getCause());
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.master.Master;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.google.common.base.Throwables;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Processes batches of journal entries with a master in parallel, to speed up the replay of
+ * journal checkpoints. The entries of a batch must not depend on each other, since they are
+ * processed in no particular order, and the master must be able to process them concurrently.
+ */
+@NotThreadSafe
+public final class ParallelJournalEntryProcessor {
+  /** The maximum number of entries in a batch. */
+  private static final int MAX_BATCH_SIZE = 64 * 1024;
+  /** The minimum number of entries processed by each thread. */
+  private static final int MIN_ENTRIES_PER_THREAD = 256;
+
+  private final Master mMaster;
+  private final int mThreads;
+  private final ExecutorService mExecutorService;
+
+  /** The entries of the batch which was not processed yet. */
+  private List<JournalEntry> mBatch = new ArrayList<>();
+
+  /**
+   * Creates a new instance of {@link ParallelJournalEntryProcessor}.
+   *
+   * @param master the master to process the entries with
+   * @param threads the number of threads to process the entries with
+   */
+  public ParallelJournalEntryProcessor(Master master, int threads) {
+    mMaster = master;
+    mThreads = threads;
+    mExecutorService = Executors.newFixedThreadPool(threads,
+        ThreadFactoryUtils.build("journal-entry-processor-%d", true));
+  }
+
+  /**
+   * Adds an entry to the current batch. The batch must not be full.
+   *
+   * @param entry the entry to add
+   */
+  public void add(JournalEntry entry) {
+    mBatch.add(entry);
+  }
+
+  /**
+   * @return true if the current batch is full, and must be processed before adding more entries
+   */
+  public boolean isFull() {
+    return mBatch.size() >= MAX_BATCH_SIZE;
+  }
+
+  /**
+   * Processes the entries of the current batch in parallel, and waits for them to be processed.
+   *
+   * @throws IOException if an entry cannot be processed
+   */
+  public void processBatch() throws IOException {
+    List<JournalEntry> batch = mBatch;
+    mBatch = new ArrayList<>();
+    int threads = Math.min(mThreads, batch.size() / MIN_ENTRIES_PER_THREAD);
+    if (threads <= 1) {
+      for (JournalEntry entry : batch) {
+        mMaster.processJournalEntry(entry);
+      }
+      return;
+    }
+    List<Future<Void>> futures = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      final List<JournalEntry> slice =
+          batch.subList(batch.size() * i / threads, batch.size() * (i + 1) / threads);
+      futures.add(mExecutorService.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws IOException {
+          for (JournalEntry entry : slice) {
+            mMaster.processJournalEntry(entry);
+          }
+          return null;
+        }
+      }));
+    }
+    // Wait for all the slices, so that no entry is processed after a failure is reported.
+    Throwable failure = null;
+    for (Future<Void> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failure = e;
+        break;
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      }
+    }
+    if (failure != null) {
+      Throwables.propagateIfPossible(failure, IOException.class);
+      throw new IOException(failure);
+    }
+  }
+
+  /**
+   * Stops the threads processing the entries. Entries which were not processed are dropped.
+   */
+  public void close() {
+    mExecutorService.shutdownNow();
+  }
+}
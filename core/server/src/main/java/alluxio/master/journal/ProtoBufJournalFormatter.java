@@ -14,6 +14,7 @@ package alluxio.master.journal;
 import alluxio.Constants;
 import alluxio.proto.journal.Journal.JournalEntry;
 
+import com.google.common.io.ByteStreams;
 import com.google.protobuf.CodedInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,7 +60,8 @@ public final class ProtoBufJournalFormatter implements JournalFormatter {
         // All journal entries start with their size in bytes written as a varint.
         int size = CodedInputStream.readRawVarint32(firstByte, inputStream);
         byte[] buffer = size <= mBuffer.length ? mBuffer : new byte[size];
-        int bytes = inputStream.read(buffer, 0, size);
+        // Streams such as the ones of compressed checkpoint chunks may return fewer bytes per read.
+        int bytes = ByteStreams.read(inputStream, buffer, 0, size);
         if (bytes < size) {
           LOG.warn("Journal entry was truncated. Expected to read " + size + " bytes but only got "
               + bytes);
@@ -98,7 +98,7 @@ public final class LineageMaster extends AbstractMaster {
    */
   public LineageMaster(FileSystemMaster fileSystemMaster, Journal journal) {
     this(fileSystemMaster, journal, ExecutorServiceFactories
-        .fixedThreadPoolExecutorServiceFactory(Constants.LINEAGE_MASTER_NAME, 2));
+        .fixedThreadPoolExecutorServiceFactory(Constants.LINEAGE_MASTER_NAME, 3));
   }
 
   /**
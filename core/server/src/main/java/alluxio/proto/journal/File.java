@@ -2295,6 +2295,871 @@ public final class File {
     // @@protoc_insertion_point(class_scope:alluxio.proto.journal.AsyncPersistRequestEntry)
   }
 
+  public interface BackgroundDeleteEntryOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:alluxio.proto.journal.BackgroundDeleteEntry)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>optional int64 id = 1;</code>
+     *
+     * <pre>
+     * The id of the root inode of the deleted tree.
+     * </pre>
+     */
+    boolean hasId();
+    /**
+     * <code>optional int64 id = 1;</code>
+     *
+     * <pre>
+     * The id of the root inode of the deleted tree.
+     * </pre>
+     */
+    long getId();
+
+    /**
+     * <code>optional string alluxio_path = 2;</code>
+     */
+    boolean hasAlluxioPath();
+    /**
+     * <code>optional string alluxio_path = 2;</code>
+     */
+    java.lang.String getAlluxioPath();
+    /**
+     * <code>optional string alluxio_path = 2;</code>
+     */
+    com.google.protobuf.ByteString
+        getAlluxioPathBytes();
+
+    /**
+     * <code>optional string ufs_path = 3;</code>
+     */
+    boolean hasUfsPath();
+    /**
+     * <code>optional string ufs_path = 3;</code>
+     */
+    java.lang.String getUfsPath();
+    /**
+     * <code>optional string ufs_path = 3;</code>
+     */
+    com.google.protobuf.ByteString
+        getUfsPathBytes();
+
+    /**
+     * <code>optional bool completed = 4;</code>
+     *
+     * <pre>
+     * Whether the under storage paths of the tree have been deleted.
+     * </pre>
+     */
+    boolean hasCompleted();
+    /**
+     * <code>optional bool completed = 4;</code>
+     *
+     * <pre>
+     * Whether the under storage paths of the tree have been deleted.
+     * </pre>
+     */
+    boolean getCompleted();
+  }
+  /**
+   * Protobuf type {@code alluxio.proto.journal.BackgroundDeleteEntry}
+   *
+   * <pre>
+   * Tracks the under storage deletion of a directory tree which was deleted from the namespace, and
+   * whose under storage paths are deleted in the background.
+   * next available id: 5
+   * </pre>
+   */
+  public static final class BackgroundDeleteEntry extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:alluxio.proto.journal.BackgroundDeleteEntry)
+      BackgroundDeleteEntryOrBuilder {
+    // Use BackgroundDeleteEntry.newBuilder() to construct.
+    private BackgroundDeleteEntry(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private BackgroundDeleteEntry(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final BackgroundDeleteEntry defaultInstance;
+    public static BackgroundDeleteEntry getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public BackgroundDeleteEntry getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private BackgroundDeleteEntry(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+              bitField0_ |= 0x00000001;
+              id_ = input.readInt64();
+              break;
+            }
+            case 18: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              alluxioPath_ = bs;
+              break;
+            }
+            case 26: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000004;
+              ufsPath_ = bs;
+              break;
+            }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              completed_ = input.readBool();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return alluxio.proto.journal.File.internal_static_alluxio_proto_journal_BackgroundDeleteEntry_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return alluxio.proto.journal.File.internal_static_alluxio_proto_journal_BackgroundDeleteEntry_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              alluxio.proto.journal.File.BackgroundDeleteEntry.class, alluxio.proto.journal.File.BackgroundDeleteEntry.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<BackgroundDeleteEntry> PARSER =
+        new com.google.protobuf.AbstractParser<BackgroundDeleteEntry>() {
+      public BackgroundDeleteEntry parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new BackgroundDeleteEntry(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<BackgroundDeleteEntry> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int ID_FIELD_NUMBER = 1;
+    private long id_;
+    /**
+     * <code>optional int64 id = 1;</code>
+     *
+     * <pre>
+     * The id of the root inode of the deleted tree.
+     * </pre>
+     */
+    public boolean hasId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional int64 id = 1;</code>
+     *
+     * <pre>
+     * The id of the root inode of the deleted tree.
+     * </pre>
+     */
+    public long getId() {
+      return id_;
+    }
+
+    public static final int ALLUXIO_PATH_FIELD_NUMBER = 2;
+    private java.lang.Object alluxioPath_;
+    /**
+     * <code>optional string alluxio_path = 2;</code>
+     */
+    public boolean hasAlluxioPath() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional string alluxio_path = 2;</code>
+     */
+    public java.lang.String getAlluxioPath() {
+      java.lang.Object ref = alluxioPath_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          alluxioPath_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string alluxio_path = 2;</code>
+     */
+    public com.google.protobuf.ByteString
+        getAlluxioPathBytes() {
+      java.lang.Object ref = alluxioPath_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        alluxioPath_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int UFS_PATH_FIELD_NUMBER = 3;
+    private java.lang.Object ufsPath_;
+    /**
+     * <code>optional string ufs_path = 3;</code>
+     */
+    public boolean hasUfsPath() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional string ufs_path = 3;</code>
+     */
+    public java.lang.String getUfsPath() {
+      java.lang.Object ref = ufsPath_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          ufsPath_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string ufs_path = 3;</code>
+     */
+    public com.google.protobuf.ByteString
+        getUfsPathBytes() {
+      java.lang.Object ref = ufsPath_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        ufsPath_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int COMPLETED_FIELD_NUMBER = 4;
+    private boolean completed_;
+    /**
+     * <code>optional bool completed = 4;</code>
+     *
+     * <pre>
+     * Whether the under storage paths of the tree have been deleted.
+     * </pre>
+     */
+    public boolean hasCompleted() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional bool completed = 4;</code>
+     *
+     * <pre>
+     * Whether the under storage paths of the tree have been deleted.
+     * </pre>
+     */
+    public boolean getCompleted() {
+      return completed_;
+    }
+
+    private void initFields() {
+      id_ = 0L;
+      alluxioPath_ = "";
+      ufsPath_ = "";
+      completed_ = false;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeInt64(1, id_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, getAlluxioPathBytes());
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeBytes(3, getUfsPathBytes());
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeBool(4, completed_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(1, id_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(2, getAlluxioPathBytes());
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(3, getUfsPathBytes());
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(4, completed_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static alluxio.proto.journal.File.BackgroundDeleteEntry parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static alluxio.proto.journal.File.BackgroundDeleteEntry parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static alluxio.proto.journal.File.BackgroundDeleteEntry parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static alluxio.proto.journal.File.BackgroundDeleteEntry parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static alluxio.proto.journal.File.BackgroundDeleteEntry parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static alluxio.proto.journal.File.BackgroundDeleteEntry parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static alluxio.proto.journal.File.BackgroundDeleteEntry parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static alluxio.proto.journal.File.BackgroundDeleteEntry parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static alluxio.proto.journal.File.BackgroundDeleteEntry parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static alluxio.proto.journal.File.BackgroundDeleteEntry parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(alluxio.proto.journal.File.BackgroundDeleteEntry prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code alluxio.proto.journal.BackgroundDeleteEntry}
+     *
+     * <pre>
+     * Tracks the under storage deletion of a directory tree which was deleted from the namespace, and
+     * whose under storage paths are deleted in the background.
+     * next available id: 5
+     * </pre>
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:alluxio.proto.journal.BackgroundDeleteEntry)
+        alluxio.proto.journal.File.BackgroundDeleteEntryOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return alluxio.proto.journal.File.internal_static_alluxio_proto_journal_BackgroundDeleteEntry_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return alluxio.proto.journal.File.internal_static_alluxio_proto_journal_BackgroundDeleteEntry_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                alluxio.proto.journal.File.BackgroundDeleteEntry.class, alluxio.proto.journal.File.BackgroundDeleteEntry.Builder.class);
+      }
+
+      // Construct using alluxio.proto.journal.File.BackgroundDeleteEntry.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        id_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        alluxioPath_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
+        ufsPath_ = "";
+        bitField0_ = (bitField0_ & ~0x00000004);
+        completed_ = false;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return alluxio.proto.journal.File.internal_static_alluxio_proto_journal_BackgroundDeleteEntry_descriptor;
+      }
+
+      public alluxio.proto.journal.File.BackgroundDeleteEntry getDefaultInstanceForType() {
+        return alluxio.proto.journal.File.BackgroundDeleteEntry.getDefaultInstance();
+      }
+
+      public alluxio.proto.journal.File.BackgroundDeleteEntry build() {
+        alluxio.proto.journal.File.BackgroundDeleteEntry result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public alluxio.proto.journal.File.BackgroundDeleteEntry buildPartial() {
+        alluxio.proto.journal.File.BackgroundDeleteEntry result = new alluxio.proto.journal.File.BackgroundDeleteEntry(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.id_ = id_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.alluxioPath_ = alluxioPath_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.ufsPath_ = ufsPath_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.completed_ = completed_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof alluxio.proto.journal.File.BackgroundDeleteEntry) {
+          return mergeFrom((alluxio.proto.journal.File.BackgroundDeleteEntry)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(alluxio.proto.journal.File.BackgroundDeleteEntry other) {
+        if (other == alluxio.proto.journal.File.BackgroundDeleteEntry.getDefaultInstance()) return this;
+        if (other.hasId()) {
+          setId(other.getId());
+        }
+        if (other.hasAlluxioPath()) {
+          bitField0_ |= 0x00000002;
+          alluxioPath_ = other.alluxioPath_;
+          onChanged();
+        }
+        if (other.hasUfsPath()) {
+          bitField0_ |= 0x00000004;
+          ufsPath_ = other.ufsPath_;
+          onChanged();
+        }
+        if (other.hasCompleted()) {
+          setCompleted(other.getCompleted());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        alluxio.proto.journal.File.BackgroundDeleteEntry parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (alluxio.proto.journal.File.BackgroundDeleteEntry) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private long id_ ;
+      /**
+       * <code>optional int64 id = 1;</code>
+       *
+       * <pre>
+       * The id of the root inode of the deleted tree.
+       * </pre>
+       */
+      public boolean hasId() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional int64 id = 1;</code>
+       *
+       * <pre>
+       * The id of the root inode of the deleted tree.
+       * </pre>
+       */
+      public long getId() {
+        return id_;
+      }
+      /**
+       * <code>optional int64 id = 1;</code>
+       *
+       * <pre>
+       * The id of the root inode of the deleted tree.
+       * </pre>
+       */
+      public Builder setId(long value) {
+        bitField0_ |= 0x00000001;
+        id_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int64 id = 1;</code>
+       *
+       * <pre>
+       * The id of the root inode of the deleted tree.
+       * </pre>
+       */
+      public Builder clearId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        id_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object alluxioPath_ = "";
+      /**
+       * <code>optional string alluxio_path = 2;</code>
+       */
+      public boolean hasAlluxioPath() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional string alluxio_path = 2;</code>
+       */
+      public java.lang.String getAlluxioPath() {
+        java.lang.Object ref = alluxioPath_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            alluxioPath_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string alluxio_path = 2;</code>
+       */
+      public com.google.protobuf.ByteString
+          getAlluxioPathBytes() {
+        java.lang.Object ref = alluxioPath_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          alluxioPath_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string alluxio_path = 2;</code>
+       */
+      public Builder setAlluxioPath(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        alluxioPath_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string alluxio_path = 2;</code>
+       */
+      public Builder clearAlluxioPath() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        alluxioPath_ = getDefaultInstance().getAlluxioPath();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string alluxio_path = 2;</code>
+       */
+      public Builder setAlluxioPathBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        alluxioPath_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object ufsPath_ = "";
+      /**
+       * <code>optional string ufs_path = 3;</code>
+       */
+      public boolean hasUfsPath() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional string ufs_path = 3;</code>
+       */
+      public java.lang.String getUfsPath() {
+        java.lang.Object ref = ufsPath_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            ufsPath_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string ufs_path = 3;</code>
+       */
+      public com.google.protobuf.ByteString
+          getUfsPathBytes() {
+        java.lang.Object ref = ufsPath_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          ufsPath_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string ufs_path = 3;</code>
+       */
+      public Builder setUfsPath(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        ufsPath_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string ufs_path = 3;</code>
+       */
+      public Builder clearUfsPath() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        ufsPath_ = getDefaultInstance().getUfsPath();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string ufs_path = 3;</code>
+       */
+      public Builder setUfsPathBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        ufsPath_ = value;
+        onChanged();
+        return this;
+      }
+
+      private boolean completed_ ;
+      /**
+       * <code>optional bool completed = 4;</code>
+       *
+       * <pre>
+       * Whether the under storage paths of the tree have been deleted.
+       * </pre>
+       */
+      public boolean hasCompleted() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional bool completed = 4;</code>
+       *
+       * <pre>
+       * Whether the under storage paths of the tree have been deleted.
+       * </pre>
+       */
+      public boolean getCompleted() {
+        return completed_;
+      }
+      /**
+       * <code>optional bool completed = 4;</code>
+       *
+       * <pre>
+       * Whether the under storage paths of the tree have been deleted.
+       * </pre>
+       */
+      public Builder setCompleted(boolean value) {
+        bitField0_ |= 0x00000008;
+        completed_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bool completed = 4;</code>
+       *
+       * <pre>
+       * Whether the under storage paths of the tree have been deleted.
+       * </pre>
+       */
+      public Builder clearCompleted() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        completed_ = false;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:alluxio.proto.journal.BackgroundDeleteEntry)
+    }
+
+    static {
+      defaultInstance = new BackgroundDeleteEntry(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:alluxio.proto.journal.BackgroundDeleteEntry)
+  }
+
   public interface CompleteFileEntryOrBuilder extends
       // @@protoc_insertion_point(interface_extends:alluxio.proto.journal.CompleteFileEntry)
       com.google.protobuf.MessageOrBuilder {
@@ -12200,6 +13065,11 @@ public final class File {
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_alluxio_proto_journal_AsyncPersistRequestEntry_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_alluxio_proto_journal_BackgroundDeleteEntry_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_alluxio_proto_journal_BackgroundDeleteEntry_fieldAccessorTable;
   private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_alluxio_proto_journal_CompleteFileEntry_descriptor;
   private static
@@ -12276,46 +13146,49 @@ public final class File {
       "\001(\010\022:\n\nproperties\030\004 \003(\0132&.alluxio.proto." +
       "journal.StringPairEntry\022\016\n\006shared\030\005 \001(\010\"" +
       "+\n\030AsyncPersistRequestEntry\022\017\n\007file_id\030\001" +
-      " \001(\003\"V\n\021CompleteFileEntry\022\021\n\tblock_ids\030\001" +
-      " \003(\003\022\n\n\002id\030\002 \001(\003\022\016\n\006length\030\003 \001(\003\022\022\n\nop_t" +
-      "ime_ms\030\004 \001(\003\"D\n\017DeleteFileEntry\022\n\n\002id\030\001 ",
-      "\001(\003\022\021\n\trecursive\030\002 \001(\010\022\022\n\nop_time_ms\030\003 \001" +
-      "(\003\"-\n\025DeleteMountPointEntry\022\024\n\014alluxio_p" +
-      "ath\030\001 \001(\t\"\213\002\n\023InodeDirectoryEntry\022\n\n\002id\030" +
-      "\001 \001(\003\022\021\n\tparent_id\030\002 \001(\003\022\014\n\004name\030\003 \001(\t\022\031" +
-      "\n\021persistence_state\030\004 \001(\t\022\016\n\006pinned\030\005 \001(" +
-      "\010\022\030\n\020creation_time_ms\030\006 \001(\003\022!\n\031last_modi" +
-      "fication_time_ms\030\007 \001(\003\022\r\n\005owner\030\010 \001(\t\022\r\n" +
-      "\005group\030\t \001(\t\022\014\n\004mode\030\n \001(\005\022\023\n\013mount_poin" +
-      "t\030\013 \001(\010\022\036\n\026direct_children_loaded\030\014 \001(\010\"" +
-      "O\n\036InodeDirectoryIdGeneratorEntry\022\024\n\014con",
-      "tainer_id\030\001 \001(\003\022\027\n\017sequence_number\030\002 \001(\003" +
-      "\"\374\002\n\016InodeFileEntry\022\n\n\002id\030\001 \001(\003\022\021\n\tparen" +
-      "t_id\030\002 \001(\003\022\014\n\004name\030\003 \001(\t\022\031\n\021persistence_" +
-      "state\030\004 \001(\t\022\016\n\006pinned\030\005 \001(\010\022\030\n\020creation_" +
-      "time_ms\030\006 \001(\003\022!\n\031last_modification_time_" +
-      "ms\030\007 \001(\003\022\030\n\020block_size_bytes\030\010 \001(\003\022\016\n\006le" +
-      "ngth\030\t \001(\003\022\021\n\tcompleted\030\n \001(\010\022\021\n\tcacheab" +
-      "le\030\013 \001(\010\022\016\n\006blocks\030\014 \003(\003\022\013\n\003ttl\030\r \001(\003\022\r\n" +
-      "\005owner\030\016 \001(\t\022\r\n\005group\030\017 \001(\t\022\014\n\004mode\030\020 \001(" +
-      "\005\022<\n\tttlAction\030\021 \001(\0162!.alluxio.proto.jou",
-      "rnal.PTtlAction:\006DELETE\"O\n\036InodeLastModi" +
-      "ficationTimeEntry\022\n\n\002id\030\001 \001(\003\022!\n\031last_mo" +
-      "dification_time_ms\030\002 \001(\003\"#\n\025PersistDirec" +
-      "toryEntry\022\n\n\002id\030\001 \001(\003\"B\n\020PersistFileEntr" +
-      "y\022\n\n\002id\030\001 \001(\003\022\016\n\006length\030\002 \001(\003\022\022\n\nop_time" +
-      "_ms\030\003 \001(\003\"\212\001\n\025ReinitializeFileEntry\022\014\n\004p" +
-      "ath\030\001 \001(\t\022\030\n\020block_size_bytes\030\002 \001(\003\022\013\n\003t" +
-      "tl\030\003 \001(\003\022<\n\tttlAction\030\004 \001(\0162!.alluxio.pr" +
-      "oto.journal.PTtlAction:\006DELETE\"?\n\013Rename" +
-      "Entry\022\n\n\002id\030\001 \001(\003\022\020\n\010dst_path\030\002 \001(\t\022\022\n\no",
-      "p_time_ms\030\003 \001(\003\"\323\001\n\021SetAttributeEntry\022\n\n" +
-      "\002id\030\001 \001(\003\022\022\n\nop_time_ms\030\002 \001(\003\022\016\n\006pinned\030" +
-      "\003 \001(\010\022\013\n\003ttl\030\004 \001(\003\022\021\n\tpersisted\030\005 \001(\010\022\r\n" +
-      "\005owner\030\006 \001(\t\022\r\n\005group\030\007 \001(\t\022\022\n\npermissio" +
-      "n\030\010 \001(\005\022<\n\tttlAction\030\t \001(\0162!.alluxio.pro" +
-      "to.journal.PTtlAction:\006DELETE*\"\n\nPTtlAct" +
-      "ion\022\n\n\006DELETE\020\000\022\010\n\004FREE\020\001"
+      " \001(\003\"^\n\025BackgroundDeleteEntry\022\n\n\002id\030\001 \001(" +
+      "\003\022\024\n\014alluxio_path\030\002 \001(\t\022\020\n\010ufs_path\030\003 \001(" +
+      "\t\022\021\n\tcompleted\030\004 \001(\010\"V\n\021CompleteFileEntr",
+      "y\022\021\n\tblock_ids\030\001 \003(\003\022\n\n\002id\030\002 \001(\003\022\016\n\006leng" +
+      "th\030\003 \001(\003\022\022\n\nop_time_ms\030\004 \001(\003\"D\n\017DeleteFi" +
+      "leEntry\022\n\n\002id\030\001 \001(\003\022\021\n\trecursive\030\002 \001(\010\022\022" +
+      "\n\nop_time_ms\030\003 \001(\003\"-\n\025DeleteMountPointEn" +
+      "try\022\024\n\014alluxio_path\030\001 \001(\t\"\213\002\n\023InodeDirec" +
+      "toryEntry\022\n\n\002id\030\001 \001(\003\022\021\n\tparent_id\030\002 \001(\003" +
+      "\022\014\n\004name\030\003 \001(\t\022\031\n\021persistence_state\030\004 \001(" +
+      "\t\022\016\n\006pinned\030\005 \001(\010\022\030\n\020creation_time_ms\030\006 " +
+      "\001(\003\022!\n\031last_modification_time_ms\030\007 \001(\003\022\r" +
+      "\n\005owner\030\010 \001(\t\022\r\n\005group\030\t \001(\t\022\014\n\004mode\030\n \001",
+      "(\005\022\023\n\013mount_point\030\013 \001(\010\022\036\n\026direct_childr" +
+      "en_loaded\030\014 \001(\010\"O\n\036InodeDirectoryIdGener" +
+      "atorEntry\022\024\n\014container_id\030\001 \001(\003\022\027\n\017seque" +
+      "nce_number\030\002 \001(\003\"\374\002\n\016InodeFileEntry\022\n\n\002i" +
+      "d\030\001 \001(\003\022\021\n\tparent_id\030\002 \001(\003\022\014\n\004name\030\003 \001(\t" +
+      "\022\031\n\021persistence_state\030\004 \001(\t\022\016\n\006pinned\030\005 " +
+      "\001(\010\022\030\n\020creation_time_ms\030\006 \001(\003\022!\n\031last_mo" +
+      "dification_time_ms\030\007 \001(\003\022\030\n\020block_size_b" +
+      "ytes\030\010 \001(\003\022\016\n\006length\030\t \001(\003\022\021\n\tcompleted\030" +
+      "\n \001(\010\022\021\n\tcacheable\030\013 \001(\010\022\016\n\006blocks\030\014 \003(\003",
+      "\022\013\n\003ttl\030\r \001(\003\022\r\n\005owner\030\016 \001(\t\022\r\n\005group\030\017 " +
+      "\001(\t\022\014\n\004mode\030\020 \001(\005\022<\n\tttlAction\030\021 \001(\0162!.a" +
+      "lluxio.proto.journal.PTtlAction:\006DELETE\"" +
+      "O\n\036InodeLastModificationTimeEntry\022\n\n\002id\030" +
+      "\001 \001(\003\022!\n\031last_modification_time_ms\030\002 \001(\003" +
+      "\"#\n\025PersistDirectoryEntry\022\n\n\002id\030\001 \001(\003\"B\n" +
+      "\020PersistFileEntry\022\n\n\002id\030\001 \001(\003\022\016\n\006length\030" +
+      "\002 \001(\003\022\022\n\nop_time_ms\030\003 \001(\003\"\212\001\n\025Reinitiali" +
+      "zeFileEntry\022\014\n\004path\030\001 \001(\t\022\030\n\020block_size_" +
+      "bytes\030\002 \001(\003\022\013\n\003ttl\030\003 \001(\003\022<\n\tttlAction\030\004 ",
+      "\001(\0162!.alluxio.proto.journal.PTtlAction:\006" +
+      "DELETE\"?\n\013RenameEntry\022\n\n\002id\030\001 \001(\003\022\020\n\010dst" +
+      "_path\030\002 \001(\t\022\022\n\nop_time_ms\030\003 \001(\003\"\323\001\n\021SetA" +
+      "ttributeEntry\022\n\n\002id\030\001 \001(\003\022\022\n\nop_time_ms\030" +
+      "\002 \001(\003\022\016\n\006pinned\030\003 \001(\010\022\013\n\003ttl\030\004 \001(\003\022\021\n\tpe" +
+      "rsisted\030\005 \001(\010\022\r\n\005owner\030\006 \001(\t\022\r\n\005group\030\007 " +
+      "\001(\t\022\022\n\npermission\030\010 \001(\005\022<\n\tttlAction\030\t \001" +
+      "(\0162!.alluxio.proto.journal.PTtlAction:\006D" +
+      "ELETE*\"\n\nPTtlAction\022\n\n\006DELETE\020\000\022\010\n\004FREE\020" +
+      "\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -12347,74 +13220,80 @@ public final class File {
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_AsyncPersistRequestEntry_descriptor,
         new java.lang.String[] { "FileId", });
-    internal_static_alluxio_proto_journal_CompleteFileEntry_descriptor =
+    internal_static_alluxio_proto_journal_BackgroundDeleteEntry_descriptor =
       getDescriptor().getMessageTypes().get(3);
+    internal_static_alluxio_proto_journal_BackgroundDeleteEntry_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_alluxio_proto_journal_BackgroundDeleteEntry_descriptor,
+        new java.lang.String[] { "Id", "AlluxioPath", "UfsPath", "Completed", });
+    internal_static_alluxio_proto_journal_CompleteFileEntry_descriptor =
+      getDescriptor().getMessageTypes().get(4);
     internal_static_alluxio_proto_journal_CompleteFileEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_CompleteFileEntry_descriptor,
         new java.lang.String[] { "BlockIds", "Id", "Length", "OpTimeMs", });
     internal_static_alluxio_proto_journal_DeleteFileEntry_descriptor =
-      getDescriptor().getMessageTypes().get(4);
+      getDescriptor().getMessageTypes().get(5);
     internal_static_alluxio_proto_journal_DeleteFileEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_DeleteFileEntry_descriptor,
         new java.lang.String[] { "Id", "Recursive", "OpTimeMs", });
     internal_static_alluxio_proto_journal_DeleteMountPointEntry_descriptor =
-      getDescriptor().getMessageTypes().get(5);
+      getDescriptor().getMessageTypes().get(6);
     internal_static_alluxio_proto_journal_DeleteMountPointEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_DeleteMountPointEntry_descriptor,
         new java.lang.String[] { "AlluxioPath", });
     internal_static_alluxio_proto_journal_InodeDirectoryEntry_descriptor =
-      getDescriptor().getMessageTypes().get(6);
+      getDescriptor().getMessageTypes().get(7);
     internal_static_alluxio_proto_journal_InodeDirectoryEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_InodeDirectoryEntry_descriptor,
         new java.lang.String[] { "Id", "ParentId", "Name", "PersistenceState", "Pinned", "CreationTimeMs", "LastModificationTimeMs", "Owner", "Group", "Mode", "MountPoint", "DirectChildrenLoaded", });
     internal_static_alluxio_proto_journal_InodeDirectoryIdGeneratorEntry_descriptor =
-      getDescriptor().getMessageTypes().get(7);
+      getDescriptor().getMessageTypes().get(8);
     internal_static_alluxio_proto_journal_InodeDirectoryIdGeneratorEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_InodeDirectoryIdGeneratorEntry_descriptor,
         new java.lang.String[] { "ContainerId", "SequenceNumber", });
     internal_static_alluxio_proto_journal_InodeFileEntry_descriptor =
-      getDescriptor().getMessageTypes().get(8);
+      getDescriptor().getMessageTypes().get(9);
     internal_static_alluxio_proto_journal_InodeFileEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_InodeFileEntry_descriptor,
         new java.lang.String[] { "Id", "ParentId", "Name", "PersistenceState", "Pinned", "CreationTimeMs", "LastModificationTimeMs", "BlockSizeBytes", "Length", "Completed", "Cacheable", "Blocks", "Ttl", "Owner", "Group", "Mode", "TtlAction", });
     internal_static_alluxio_proto_journal_InodeLastModificationTimeEntry_descriptor =
-      getDescriptor().getMessageTypes().get(9);
+      getDescriptor().getMessageTypes().get(10);
     internal_static_alluxio_proto_journal_InodeLastModificationTimeEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_InodeLastModificationTimeEntry_descriptor,
         new java.lang.String[] { "Id", "LastModificationTimeMs", });
     internal_static_alluxio_proto_journal_PersistDirectoryEntry_descriptor =
-      getDescriptor().getMessageTypes().get(10);
+      getDescriptor().getMessageTypes().get(11);
     internal_static_alluxio_proto_journal_PersistDirectoryEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_PersistDirectoryEntry_descriptor,
         new java.lang.String[] { "Id", });
     internal_static_alluxio_proto_journal_PersistFileEntry_descriptor =
-      getDescriptor().getMessageTypes().get(11);
+      getDescriptor().getMessageTypes().get(12);
     internal_static_alluxio_proto_journal_PersistFileEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_PersistFileEntry_descriptor,
         new java.lang.String[] { "Id", "Length", "OpTimeMs", });
     internal_static_alluxio_proto_journal_ReinitializeFileEntry_descriptor =
-      getDescriptor().getMessageTypes().get(12);
+      getDescriptor().getMessageTypes().get(13);
     internal_static_alluxio_proto_journal_ReinitializeFileEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_ReinitializeFileEntry_descriptor,
         new java.lang.String[] { "Path", "BlockSizeBytes", "Ttl", "TtlAction", });
     internal_static_alluxio_proto_journal_RenameEntry_descriptor =
-      getDescriptor().getMessageTypes().get(13);
+      getDescriptor().getMessageTypes().get(14);
     internal_static_alluxio_proto_journal_RenameEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_RenameEntry_descriptor,
         new java.lang.String[] { "Id", "DstPath", "OpTimeMs", });
     internal_static_alluxio_proto_journal_SetAttributeEntry_descriptor =
-      getDescriptor().getMessageTypes().get(14);
+      getDescriptor().getMessageTypes().get(15);
     internal_static_alluxio_proto_journal_SetAttributeEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_SetAttributeEntry_descriptor,
@@ -34,6 +34,19 @@ public final class Journal {
      */
     alluxio.proto.journal.File.AddMountPointEntryOrBuilder getAddMountPointOrBuilder();
 
+    /**
+     * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+     */
+    boolean hasBackgroundDelete();
+    /**
+     * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+     */
+    alluxio.proto.journal.File.BackgroundDeleteEntry getBackgroundDelete();
+    /**
+     * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+     */
+    alluxio.proto.journal.File.BackgroundDeleteEntryOrBuilder getBackgroundDeleteOrBuilder();
+
     /**
      * <code>optional .alluxio.proto.journal.BlockContainerIdGeneratorEntry block_container_id_generator = 3;</code>
      */
@@ -60,6 +73,32 @@ public final class Journal {
      */
     alluxio.proto.journal.Block.BlockInfoEntryOrBuilder getBlockInfoOrBuilder();
 
+    /**
+     * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
+     */
+    boolean hasCheckpointChunk();
+    /**
+     * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
+     */
+    alluxio.proto.journal.Journal.CheckpointChunkEntry getCheckpointChunk();
+    /**
+     * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
+     */
+    alluxio.proto.journal.Journal.CheckpointChunkEntryOrBuilder getCheckpointChunkOrBuilder();
+
+    /**
+     * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
+     */
+    boolean hasCheckpointHeader();
+    /**
+     * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
+     */
+    alluxio.proto.journal.Journal.CheckpointHeaderEntry getCheckpointHeader();
+    /**
+     * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
+     */
+    alluxio.proto.journal.Journal.CheckpointHeaderEntryOrBuilder getCheckpointHeaderOrBuilder();
+
     /**
      * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
      */
@@ -338,7 +377,7 @@ public final class Journal {
    *
    * <pre>
    * Wraps around all types of Alluxio journal messages.
-   * next available id: 29
+   * next available id: 32
    * </pre>
    */
   public static final class JournalEntry extends
@@ -707,6 +746,45 @@ public final class Journal {
               entryCase_ = 28;
               break;
             }
+            case 234: {
+              alluxio.proto.journal.Journal.CheckpointHeaderEntry.Builder subBuilder = null;
+              if (entryCase_ == 29) {
+                subBuilder = ((alluxio.proto.journal.Journal.CheckpointHeaderEntry) entry_).toBuilder();
+              }
+              entry_ = input.readMessage(alluxio.proto.journal.Journal.CheckpointHeaderEntry.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom((alluxio.proto.journal.Journal.CheckpointHeaderEntry) entry_);
+                entry_ = subBuilder.buildPartial();
+              }
+              entryCase_ = 29;
+              break;
+            }
+            case 242: {
+              alluxio.proto.journal.Journal.CheckpointChunkEntry.Builder subBuilder = null;
+              if (entryCase_ == 30) {
+                subBuilder = ((alluxio.proto.journal.Journal.CheckpointChunkEntry) entry_).toBuilder();
+              }
+              entry_ = input.readMessage(alluxio.proto.journal.Journal.CheckpointChunkEntry.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom((alluxio.proto.journal.Journal.CheckpointChunkEntry) entry_);
+                entry_ = subBuilder.buildPartial();
+              }
+              entryCase_ = 30;
+              break;
+            }
+            case 250: {
+              alluxio.proto.journal.File.BackgroundDeleteEntry.Builder subBuilder = null;
+              if (entryCase_ == 31) {
+                subBuilder = ((alluxio.proto.journal.File.BackgroundDeleteEntry) entry_).toBuilder();
+              }
+              entry_ = input.readMessage(alluxio.proto.journal.File.BackgroundDeleteEntry.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom((alluxio.proto.journal.File.BackgroundDeleteEntry) entry_);
+                entry_ = subBuilder.buildPartial();
+              }
+              entryCase_ = 31;
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -752,8 +830,11 @@ public final class Journal {
     public enum EntryCase
         implements com.google.protobuf.Internal.EnumLite {
       ADD_MOUNT_POINT(2),
+      BACKGROUND_DELETE(31),
       BLOCK_CONTAINER_ID_GENERATOR(3),
       BLOCK_INFO(4),
+      CHECKPOINT_CHUNK(30),
+      CHECKPOINT_HEADER(29),
       COMPLETE_FILE(5),
       COMPLETE_PARTITION(21),
       COMPLETE_STORE(22),
@@ -783,8 +864,11 @@ public final class Journal {
       public static EntryCase valueOf(int value) {
         switch (value) {
           case 2: return ADD_MOUNT_POINT;
+          case 31: return BACKGROUND_DELETE;
           case 3: return BLOCK_CONTAINER_ID_GENERATOR;
           case 4: return BLOCK_INFO;
+          case 30: return CHECKPOINT_CHUNK;
+          case 29: return CHECKPOINT_HEADER;
           case 5: return COMPLETE_FILE;
           case 21: return COMPLETE_PARTITION;
           case 22: return COMPLETE_STORE;
@@ -863,6 +947,32 @@ public final class Journal {
       return alluxio.proto.journal.File.AddMountPointEntry.getDefaultInstance();
     }
 
+    public static final int BACKGROUND_DELETE_FIELD_NUMBER = 31;
+    /**
+     * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+     */
+    public boolean hasBackgroundDelete() {
+      return entryCase_ == 31;
+    }
+    /**
+     * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+     */
+    public alluxio.proto.journal.File.BackgroundDeleteEntry getBackgroundDelete() {
+      if (entryCase_ == 31) {
+         return (alluxio.proto.journal.File.BackgroundDeleteEntry) entry_;
+      }
+      return alluxio.proto.journal.File.BackgroundDeleteEntry.getDefaultInstance();
+    }
+    /**
+     * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+     */
+    public alluxio.proto.journal.File.BackgroundDeleteEntryOrBuilder getBackgroundDeleteOrBuilder() {
+      if (entryCase_ == 31) {
+         return (alluxio.proto.journal.File.BackgroundDeleteEntry) entry_;
+      }
+      return alluxio.proto.journal.File.BackgroundDeleteEntry.getDefaultInstance();
+    }
+
     public static final int BLOCK_CONTAINER_ID_GENERATOR_FIELD_NUMBER = 3;
     /**
      * <code>optional .alluxio.proto.journal.BlockContainerIdGeneratorEntry block_container_id_generator = 3;</code>
@@ -915,6 +1025,58 @@ public final class Journal {
       return alluxio.proto.journal.Block.BlockInfoEntry.getDefaultInstance();
     }
 
+    public static final int CHECKPOINT_CHUNK_FIELD_NUMBER = 30;
+    /**
+     * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
+     */
+    public boolean hasCheckpointChunk() {
+      return entryCase_ == 30;
+    }
+    /**
+     * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
+     */
+    public alluxio.proto.journal.Journal.CheckpointChunkEntry getCheckpointChunk() {
+      if (entryCase_ == 30) {
+         return (alluxio.proto.journal.Journal.CheckpointChunkEntry) entry_;
+      }
+      return alluxio.proto.journal.Journal.CheckpointChunkEntry.getDefaultInstance();
+    }
+    /**
+     * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
+     */
+    public alluxio.proto.journal.Journal.CheckpointChunkEntryOrBuilder getCheckpointChunkOrBuilder() {
+      if (entryCase_ == 30) {
+         return (alluxio.proto.journal.Journal.CheckpointChunkEntry) entry_;
+      }
+      return alluxio.proto.journal.Journal.CheckpointChunkEntry.getDefaultInstance();
+    }
+
+    public static final int CHECKPOINT_HEADER_FIELD_NUMBER = 29;
+    /**
+     * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
+     */
+    public boolean hasCheckpointHeader() {
+      return entryCase_ == 29;
+    }
+    /**
+     * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
+     */
+    public alluxio.proto.journal.Journal.CheckpointHeaderEntry getCheckpointHeader() {
+      if (entryCase_ == 29) {
+         return (alluxio.proto.journal.Journal.CheckpointHeaderEntry) entry_;
+      }
+      return alluxio.proto.journal.Journal.CheckpointHeaderEntry.getDefaultInstance();
+    }
+    /**
+     * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
+     */
+    public alluxio.proto.journal.Journal.CheckpointHeaderEntryOrBuilder getCheckpointHeaderOrBuilder() {
+      if (entryCase_ == 29) {
+         return (alluxio.proto.journal.Journal.CheckpointHeaderEntry) entry_;
+      }
+      return alluxio.proto.journal.Journal.CheckpointHeaderEntry.getDefaultInstance();
+    }
+
     public static final int COMPLETE_FILE_FIELD_NUMBER = 5;
     /**
      * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
@@ -1552,6 +1714,15 @@ public final class Journal {
       if (entryCase_ == 28) {
         output.writeMessage(28, (alluxio.proto.journal.KeyValue.RenameStoreEntry) entry_);
       }
+      if (entryCase_ == 29) {
+        output.writeMessage(29, (alluxio.proto.journal.Journal.CheckpointHeaderEntry) entry_);
+      }
+      if (entryCase_ == 30) {
+        output.writeMessage(30, (alluxio.proto.journal.Journal.CheckpointChunkEntry) entry_);
+      }
+      if (entryCase_ == 31) {
+        output.writeMessage(31, (alluxio.proto.journal.File.BackgroundDeleteEntry) entry_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -1661,6 +1832,18 @@ public final class Journal {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(28, (alluxio.proto.journal.KeyValue.RenameStoreEntry) entry_);
       }
+      if (entryCase_ == 29) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(29, (alluxio.proto.journal.Journal.CheckpointHeaderEntry) entry_);
+      }
+      if (entryCase_ == 30) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(30, (alluxio.proto.journal.Journal.CheckpointChunkEntry) entry_);
+      }
+      if (entryCase_ == 31) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(31, (alluxio.proto.journal.File.BackgroundDeleteEntry) entry_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -1744,7 +1927,7 @@ public final class Journal {
      *
      * <pre>
      * Wraps around all types of Alluxio journal messages.
-     * next available id: 29
+     * next available id: 32
      * </pre>
      */
     public static final class Builder extends
@@ -1826,6 +2009,13 @@ public final class Journal {
             result.entry_ = addMountPointBuilder_.build();
           }
         }
+        if (entryCase_ == 31) {
+          if (backgroundDeleteBuilder_ == null) {
+            result.entry_ = entry_;
+          } else {
+            result.entry_ = backgroundDeleteBuilder_.build();
+          }
+        }
         if (entryCase_ == 3) {
           if (blockContainerIdGeneratorBuilder_ == null) {
             result.entry_ = entry_;
@@ -1840,6 +2030,20 @@ public final class Journal {
             result.entry_ = blockInfoBuilder_.build();
           }
         }
+        if (entryCase_ == 30) {
+          if (checkpointChunkBuilder_ == null) {
+            result.entry_ = entry_;
+          } else {
+            result.entry_ = checkpointChunkBuilder_.build();
+          }
+        }
+        if (entryCase_ == 29) {
+          if (checkpointHeaderBuilder_ == null) {
+            result.entry_ = entry_;
+          } else {
+            result.entry_ = checkpointHeaderBuilder_.build();
+          }
+        }
         if (entryCase_ == 5) {
           if (completeFileBuilder_ == null) {
             result.entry_ = entry_;
@@ -2012,6 +2216,10 @@ public final class Journal {
             mergeAddMountPoint(other.getAddMountPoint());
             break;
           }
+          case BACKGROUND_DELETE: {
+            mergeBackgroundDelete(other.getBackgroundDelete());
+            break;
+          }
           case BLOCK_CONTAINER_ID_GENERATOR: {
             mergeBlockContainerIdGenerator(other.getBlockContainerIdGenerator());
             break;
@@ -2020,6 +2228,14 @@ public final class Journal {
             mergeBlockInfo(other.getBlockInfo());
             break;
           }
+          case CHECKPOINT_CHUNK: {
+            mergeCheckpointChunk(other.getCheckpointChunk());
+            break;
+          }
+          case CHECKPOINT_HEADER: {
+            mergeCheckpointHeader(other.getCheckpointHeader());
+            break;
+          }
           case COMPLETE_FILE: {
             mergeCompleteFile(other.getCompleteFile());
             break;
@@ -2317,6 +2533,141 @@ public final class Journal {
         return addMountPointBuilder_;
       }
 
+      private com.google.protobuf.SingleFieldBuilder<
+          alluxio.proto.journal.File.BackgroundDeleteEntry, alluxio.proto.journal.File.BackgroundDeleteEntry.Builder, alluxio.proto.journal.File.BackgroundDeleteEntryOrBuilder> backgroundDeleteBuilder_;
+      /**
+       * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+       */
+      public boolean hasBackgroundDelete() {
+        return entryCase_ == 31;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+       */
+      public alluxio.proto.journal.File.BackgroundDeleteEntry getBackgroundDelete() {
+        if (backgroundDeleteBuilder_ == null) {
+          if (entryCase_ == 31) {
+            return (alluxio.proto.journal.File.BackgroundDeleteEntry) entry_;
+          }
+          return alluxio.proto.journal.File.BackgroundDeleteEntry.getDefaultInstance();
+        } else {
+          if (entryCase_ == 31) {
+            return backgroundDeleteBuilder_.getMessage();
+          }
+          return alluxio.proto.journal.File.BackgroundDeleteEntry.getDefaultInstance();
+        }
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+       */
+      public Builder setBackgroundDelete(alluxio.proto.journal.File.BackgroundDeleteEntry value) {
+        if (backgroundDeleteBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          entry_ = value;
+          onChanged();
+        } else {
+          backgroundDeleteBuilder_.setMessage(value);
+        }
+        entryCase_ = 31;
+        return this;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+       */
+      public Builder setBackgroundDelete(
+          alluxio.proto.journal.File.BackgroundDeleteEntry.Builder builderForValue) {
+        if (backgroundDeleteBuilder_ == null) {
+          entry_ = builderForValue.build();
+          onChanged();
+        } else {
+          backgroundDeleteBuilder_.setMessage(builderForValue.build());
+        }
+        entryCase_ = 31;
+        return this;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+       */
+      public Builder mergeBackgroundDelete(alluxio.proto.journal.File.BackgroundDeleteEntry value) {
+        if (backgroundDeleteBuilder_ == null) {
+          if (entryCase_ == 31 &&
+              entry_ != alluxio.proto.journal.File.BackgroundDeleteEntry.getDefaultInstance()) {
+            entry_ = alluxio.proto.journal.File.BackgroundDeleteEntry.newBuilder((alluxio.proto.journal.File.BackgroundDeleteEntry) entry_)
+                .mergeFrom(value).buildPartial();
+          } else {
+            entry_ = value;
+          }
+          onChanged();
+        } else {
+          if (entryCase_ == 31) {
+            backgroundDeleteBuilder_.mergeFrom(value);
+          }
+          backgroundDeleteBuilder_.setMessage(value);
+        }
+        entryCase_ = 31;
+        return this;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+       */
+      public Builder clearBackgroundDelete() {
+        if (backgroundDeleteBuilder_ == null) {
+          if (entryCase_ == 31) {
+            entryCase_ = 0;
+            entry_ = null;
+            onChanged();
+          }
+        } else {
+          if (entryCase_ == 31) {
+            entryCase_ = 0;
+            entry_ = null;
+          }
+          backgroundDeleteBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+       */
+      public alluxio.proto.journal.File.BackgroundDeleteEntry.Builder getBackgroundDeleteBuilder() {
+        return getBackgroundDeleteFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+       */
+      public alluxio.proto.journal.File.BackgroundDeleteEntryOrBuilder getBackgroundDeleteOrBuilder() {
+        if ((entryCase_ == 31) && (backgroundDeleteBuilder_ != null)) {
+          return backgroundDeleteBuilder_.getMessageOrBuilder();
+        } else {
+          if (entryCase_ == 31) {
+            return (alluxio.proto.journal.File.BackgroundDeleteEntry) entry_;
+          }
+          return alluxio.proto.journal.File.BackgroundDeleteEntry.getDefaultInstance();
+        }
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.BackgroundDeleteEntry background_delete = 31;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          alluxio.proto.journal.File.BackgroundDeleteEntry, alluxio.proto.journal.File.BackgroundDeleteEntry.Builder, alluxio.proto.journal.File.BackgroundDeleteEntryOrBuilder> 
+          getBackgroundDeleteFieldBuilder() {
+        if (backgroundDeleteBuilder_ == null) {
+          if (!(entryCase_ == 31)) {
+            entry_ = alluxio.proto.journal.File.BackgroundDeleteEntry.getDefaultInstance();
+          }
+          backgroundDeleteBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              alluxio.proto.journal.File.BackgroundDeleteEntry, alluxio.proto.journal.File.BackgroundDeleteEntry.Builder, alluxio.proto.journal.File.BackgroundDeleteEntryOrBuilder>(
+                  (alluxio.proto.journal.File.BackgroundDeleteEntry) entry_,
+                  getParentForChildren(),
+                  isClean());
+          entry_ = null;
+        }
+        entryCase_ = 31;
+        return backgroundDeleteBuilder_;
+      }
+
       private com.google.protobuf.SingleFieldBuilder<
           alluxio.proto.journal.Block.BlockContainerIdGeneratorEntry, alluxio.proto.journal.Block.BlockContainerIdGeneratorEntry.Builder, alluxio.proto.journal.Block.BlockContainerIdGeneratorEntryOrBuilder> blockContainerIdGeneratorBuilder_;
       /**
@@ -2588,182 +2939,452 @@ public final class Journal {
       }
 
       private com.google.protobuf.SingleFieldBuilder<
-          alluxio.proto.journal.File.CompleteFileEntry, alluxio.proto.journal.File.CompleteFileEntry.Builder, alluxio.proto.journal.File.CompleteFileEntryOrBuilder> completeFileBuilder_;
+          alluxio.proto.journal.Journal.CheckpointChunkEntry, alluxio.proto.journal.Journal.CheckpointChunkEntry.Builder, alluxio.proto.journal.Journal.CheckpointChunkEntryOrBuilder> checkpointChunkBuilder_;
       /**
-       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
        */
-      public boolean hasCompleteFile() {
-        return entryCase_ == 5;
+      public boolean hasCheckpointChunk() {
+        return entryCase_ == 30;
       }
       /**
-       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
        */
-      public alluxio.proto.journal.File.CompleteFileEntry getCompleteFile() {
-        if (completeFileBuilder_ == null) {
-          if (entryCase_ == 5) {
-            return (alluxio.proto.journal.File.CompleteFileEntry) entry_;
+      public alluxio.proto.journal.Journal.CheckpointChunkEntry getCheckpointChunk() {
+        if (checkpointChunkBuilder_ == null) {
+          if (entryCase_ == 30) {
+            return (alluxio.proto.journal.Journal.CheckpointChunkEntry) entry_;
           }
-          return alluxio.proto.journal.File.CompleteFileEntry.getDefaultInstance();
+          return alluxio.proto.journal.Journal.CheckpointChunkEntry.getDefaultInstance();
         } else {
-          if (entryCase_ == 5) {
-            return completeFileBuilder_.getMessage();
+          if (entryCase_ == 30) {
+            return checkpointChunkBuilder_.getMessage();
           }
-          return alluxio.proto.journal.File.CompleteFileEntry.getDefaultInstance();
+          return alluxio.proto.journal.Journal.CheckpointChunkEntry.getDefaultInstance();
         }
       }
       /**
-       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
        */
-      public Builder setCompleteFile(alluxio.proto.journal.File.CompleteFileEntry value) {
-        if (completeFileBuilder_ == null) {
+      public Builder setCheckpointChunk(alluxio.proto.journal.Journal.CheckpointChunkEntry value) {
+        if (checkpointChunkBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
           }
           entry_ = value;
           onChanged();
         } else {
-          completeFileBuilder_.setMessage(value);
+          checkpointChunkBuilder_.setMessage(value);
         }
-        entryCase_ = 5;
+        entryCase_ = 30;
         return this;
       }
       /**
-       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
        */
-      public Builder setCompleteFile(
-          alluxio.proto.journal.File.CompleteFileEntry.Builder builderForValue) {
-        if (completeFileBuilder_ == null) {
+      public Builder setCheckpointChunk(
+          alluxio.proto.journal.Journal.CheckpointChunkEntry.Builder builderForValue) {
+        if (checkpointChunkBuilder_ == null) {
           entry_ = builderForValue.build();
           onChanged();
         } else {
-          completeFileBuilder_.setMessage(builderForValue.build());
+          checkpointChunkBuilder_.setMessage(builderForValue.build());
         }
-        entryCase_ = 5;
+        entryCase_ = 30;
         return this;
       }
       /**
-       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
        */
-      public Builder mergeCompleteFile(alluxio.proto.journal.File.CompleteFileEntry value) {
-        if (completeFileBuilder_ == null) {
-          if (entryCase_ == 5 &&
-              entry_ != alluxio.proto.journal.File.CompleteFileEntry.getDefaultInstance()) {
-            entry_ = alluxio.proto.journal.File.CompleteFileEntry.newBuilder((alluxio.proto.journal.File.CompleteFileEntry) entry_)
+      public Builder mergeCheckpointChunk(alluxio.proto.journal.Journal.CheckpointChunkEntry value) {
+        if (checkpointChunkBuilder_ == null) {
+          if (entryCase_ == 30 &&
+              entry_ != alluxio.proto.journal.Journal.CheckpointChunkEntry.getDefaultInstance()) {
+            entry_ = alluxio.proto.journal.Journal.CheckpointChunkEntry.newBuilder((alluxio.proto.journal.Journal.CheckpointChunkEntry) entry_)
                 .mergeFrom(value).buildPartial();
           } else {
             entry_ = value;
           }
           onChanged();
         } else {
-          if (entryCase_ == 5) {
-            completeFileBuilder_.mergeFrom(value);
+          if (entryCase_ == 30) {
+            checkpointChunkBuilder_.mergeFrom(value);
           }
-          completeFileBuilder_.setMessage(value);
+          checkpointChunkBuilder_.setMessage(value);
         }
-        entryCase_ = 5;
+        entryCase_ = 30;
         return this;
       }
       /**
-       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
        */
-      public Builder clearCompleteFile() {
-        if (completeFileBuilder_ == null) {
-          if (entryCase_ == 5) {
+      public Builder clearCheckpointChunk() {
+        if (checkpointChunkBuilder_ == null) {
+          if (entryCase_ == 30) {
             entryCase_ = 0;
             entry_ = null;
             onChanged();
           }
         } else {
-          if (entryCase_ == 5) {
+          if (entryCase_ == 30) {
             entryCase_ = 0;
             entry_ = null;
           }
-          completeFileBuilder_.clear();
+          checkpointChunkBuilder_.clear();
         }
         return this;
       }
       /**
-       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
        */
-      public alluxio.proto.journal.File.CompleteFileEntry.Builder getCompleteFileBuilder() {
-        return getCompleteFileFieldBuilder().getBuilder();
+      public alluxio.proto.journal.Journal.CheckpointChunkEntry.Builder getCheckpointChunkBuilder() {
+        return getCheckpointChunkFieldBuilder().getBuilder();
       }
       /**
-       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
        */
-      public alluxio.proto.journal.File.CompleteFileEntryOrBuilder getCompleteFileOrBuilder() {
-        if ((entryCase_ == 5) && (completeFileBuilder_ != null)) {
-          return completeFileBuilder_.getMessageOrBuilder();
+      public alluxio.proto.journal.Journal.CheckpointChunkEntryOrBuilder getCheckpointChunkOrBuilder() {
+        if ((entryCase_ == 30) && (checkpointChunkBuilder_ != null)) {
+          return checkpointChunkBuilder_.getMessageOrBuilder();
         } else {
-          if (entryCase_ == 5) {
-            return (alluxio.proto.journal.File.CompleteFileEntry) entry_;
+          if (entryCase_ == 30) {
+            return (alluxio.proto.journal.Journal.CheckpointChunkEntry) entry_;
           }
-          return alluxio.proto.journal.File.CompleteFileEntry.getDefaultInstance();
+          return alluxio.proto.journal.Journal.CheckpointChunkEntry.getDefaultInstance();
         }
       }
       /**
-       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointChunkEntry checkpoint_chunk = 30;</code>
        */
       private com.google.protobuf.SingleFieldBuilder<
-          alluxio.proto.journal.File.CompleteFileEntry, alluxio.proto.journal.File.CompleteFileEntry.Builder, alluxio.proto.journal.File.CompleteFileEntryOrBuilder> 
-          getCompleteFileFieldBuilder() {
-        if (completeFileBuilder_ == null) {
-          if (!(entryCase_ == 5)) {
-            entry_ = alluxio.proto.journal.File.CompleteFileEntry.getDefaultInstance();
-          }
-          completeFileBuilder_ = new com.google.protobuf.SingleFieldBuilder<
-              alluxio.proto.journal.File.CompleteFileEntry, alluxio.proto.journal.File.CompleteFileEntry.Builder, alluxio.proto.journal.File.CompleteFileEntryOrBuilder>(
-                  (alluxio.proto.journal.File.CompleteFileEntry) entry_,
+          alluxio.proto.journal.Journal.CheckpointChunkEntry, alluxio.proto.journal.Journal.CheckpointChunkEntry.Builder, alluxio.proto.journal.Journal.CheckpointChunkEntryOrBuilder> 
+          getCheckpointChunkFieldBuilder() {
+        if (checkpointChunkBuilder_ == null) {
+          if (!(entryCase_ == 30)) {
+            entry_ = alluxio.proto.journal.Journal.CheckpointChunkEntry.getDefaultInstance();
+          }
+          checkpointChunkBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              alluxio.proto.journal.Journal.CheckpointChunkEntry, alluxio.proto.journal.Journal.CheckpointChunkEntry.Builder, alluxio.proto.journal.Journal.CheckpointChunkEntryOrBuilder>(
+                  (alluxio.proto.journal.Journal.CheckpointChunkEntry) entry_,
                   getParentForChildren(),
                   isClean());
           entry_ = null;
         }
-        entryCase_ = 5;
-        return completeFileBuilder_;
+        entryCase_ = 30;
+        return checkpointChunkBuilder_;
       }
 
       private com.google.protobuf.SingleFieldBuilder<
-          alluxio.proto.journal.KeyValue.CompletePartitionEntry, alluxio.proto.journal.KeyValue.CompletePartitionEntry.Builder, alluxio.proto.journal.KeyValue.CompletePartitionEntryOrBuilder> completePartitionBuilder_;
+          alluxio.proto.journal.Journal.CheckpointHeaderEntry, alluxio.proto.journal.Journal.CheckpointHeaderEntry.Builder, alluxio.proto.journal.Journal.CheckpointHeaderEntryOrBuilder> checkpointHeaderBuilder_;
       /**
-       * <code>optional .alluxio.proto.journal.CompletePartitionEntry complete_partition = 21;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
        */
-      public boolean hasCompletePartition() {
-        return entryCase_ == 21;
+      public boolean hasCheckpointHeader() {
+        return entryCase_ == 29;
       }
       /**
-       * <code>optional .alluxio.proto.journal.CompletePartitionEntry complete_partition = 21;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
        */
-      public alluxio.proto.journal.KeyValue.CompletePartitionEntry getCompletePartition() {
-        if (completePartitionBuilder_ == null) {
-          if (entryCase_ == 21) {
-            return (alluxio.proto.journal.KeyValue.CompletePartitionEntry) entry_;
+      public alluxio.proto.journal.Journal.CheckpointHeaderEntry getCheckpointHeader() {
+        if (checkpointHeaderBuilder_ == null) {
+          if (entryCase_ == 29) {
+            return (alluxio.proto.journal.Journal.CheckpointHeaderEntry) entry_;
           }
-          return alluxio.proto.journal.KeyValue.CompletePartitionEntry.getDefaultInstance();
+          return alluxio.proto.journal.Journal.CheckpointHeaderEntry.getDefaultInstance();
         } else {
-          if (entryCase_ == 21) {
-            return completePartitionBuilder_.getMessage();
+          if (entryCase_ == 29) {
+            return checkpointHeaderBuilder_.getMessage();
           }
-          return alluxio.proto.journal.KeyValue.CompletePartitionEntry.getDefaultInstance();
+          return alluxio.proto.journal.Journal.CheckpointHeaderEntry.getDefaultInstance();
         }
       }
       /**
-       * <code>optional .alluxio.proto.journal.CompletePartitionEntry complete_partition = 21;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
        */
-      public Builder setCompletePartition(alluxio.proto.journal.KeyValue.CompletePartitionEntry value) {
-        if (completePartitionBuilder_ == null) {
+      public Builder setCheckpointHeader(alluxio.proto.journal.Journal.CheckpointHeaderEntry value) {
+        if (checkpointHeaderBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
           }
           entry_ = value;
           onChanged();
         } else {
-          completePartitionBuilder_.setMessage(value);
+          checkpointHeaderBuilder_.setMessage(value);
         }
-        entryCase_ = 21;
+        entryCase_ = 29;
         return this;
       }
       /**
-       * <code>optional .alluxio.proto.journal.CompletePartitionEntry complete_partition = 21;</code>
+       * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
+       */
+      public Builder setCheckpointHeader(
+          alluxio.proto.journal.Journal.CheckpointHeaderEntry.Builder builderForValue) {
+        if (checkpointHeaderBuilder_ == null) {
+          entry_ = builderForValue.build();
+          onChanged();
+        } else {
+          checkpointHeaderBuilder_.setMessage(builderForValue.build());
+        }
+        entryCase_ = 29;
+        return this;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
+       */
+      public Builder mergeCheckpointHeader(alluxio.proto.journal.Journal.CheckpointHeaderEntry value) {
+        if (checkpointHeaderBuilder_ == null) {
+          if (entryCase_ == 29 &&
+              entry_ != alluxio.proto.journal.Journal.CheckpointHeaderEntry.getDefaultInstance()) {
+            entry_ = alluxio.proto.journal.Journal.CheckpointHeaderEntry.newBuilder((alluxio.proto.journal.Journal.CheckpointHeaderEntry) entry_)
+                .mergeFrom(value).buildPartial();
+          } else {
+            entry_ = value;
+          }
+          onChanged();
+        } else {
+          if (entryCase_ == 29) {
+            checkpointHeaderBuilder_.mergeFrom(value);
+          }
+          checkpointHeaderBuilder_.setMessage(value);
+        }
+        entryCase_ = 29;
+        return this;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
+       */
+      public Builder clearCheckpointHeader() {
+        if (checkpointHeaderBuilder_ == null) {
+          if (entryCase_ == 29) {
+            entryCase_ = 0;
+            entry_ = null;
+            onChanged();
+          }
+        } else {
+          if (entryCase_ == 29) {
+            entryCase_ = 0;
+            entry_ = null;
+          }
+          checkpointHeaderBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
+       */
+      public alluxio.proto.journal.Journal.CheckpointHeaderEntry.Builder getCheckpointHeaderBuilder() {
+        return getCheckpointHeaderFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
+       */
+      public alluxio.proto.journal.Journal.CheckpointHeaderEntryOrBuilder getCheckpointHeaderOrBuilder() {
+        if ((entryCase_ == 29) && (checkpointHeaderBuilder_ != null)) {
+          return checkpointHeaderBuilder_.getMessageOrBuilder();
+        } else {
+          if (entryCase_ == 29) {
+            return (alluxio.proto.journal.Journal.CheckpointHeaderEntry) entry_;
+          }
+          return alluxio.proto.journal.Journal.CheckpointHeaderEntry.getDefaultInstance();
+        }
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CheckpointHeaderEntry checkpoint_header = 29;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          alluxio.proto.journal.Journal.CheckpointHeaderEntry, alluxio.proto.journal.Journal.CheckpointHeaderEntry.Builder, alluxio.proto.journal.Journal.CheckpointHeaderEntryOrBuilder> 
+          getCheckpointHeaderFieldBuilder() {
+        if (checkpointHeaderBuilder_ == null) {
+          if (!(entryCase_ == 29)) {
+            entry_ = alluxio.proto.journal.Journal.CheckpointHeaderEntry.getDefaultInstance();
+          }
+          checkpointHeaderBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              alluxio.proto.journal.Journal.CheckpointHeaderEntry, alluxio.proto.journal.Journal.CheckpointHeaderEntry.Builder, alluxio.proto.journal.Journal.CheckpointHeaderEntryOrBuilder>(
+                  (alluxio.proto.journal.Journal.CheckpointHeaderEntry) entry_,
+                  getParentForChildren(),
+                  isClean());
+          entry_ = null;
+        }
+        entryCase_ = 29;
+        return checkpointHeaderBuilder_;
+      }
+
+      private com.google.protobuf.SingleFieldBuilder<
+          alluxio.proto.journal.File.CompleteFileEntry, alluxio.proto.journal.File.CompleteFileEntry.Builder, alluxio.proto.journal.File.CompleteFileEntryOrBuilder> completeFileBuilder_;
+      /**
+       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       */
+      public boolean hasCompleteFile() {
+        return entryCase_ == 5;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       */
+      public alluxio.proto.journal.File.CompleteFileEntry getCompleteFile() {
+        if (completeFileBuilder_ == null) {
+          if (entryCase_ == 5) {
+            return (alluxio.proto.journal.File.CompleteFileEntry) entry_;
+          }
+          return alluxio.proto.journal.File.CompleteFileEntry.getDefaultInstance();
+        } else {
+          if (entryCase_ == 5) {
+            return completeFileBuilder_.getMessage();
+          }
+          return alluxio.proto.journal.File.CompleteFileEntry.getDefaultInstance();
+        }
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       */
+      public Builder setCompleteFile(alluxio.proto.journal.File.CompleteFileEntry value) {
+        if (completeFileBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          entry_ = value;
+          onChanged();
+        } else {
+          completeFileBuilder_.setMessage(value);
+        }
+        entryCase_ = 5;
+        return this;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       */
+      public Builder setCompleteFile(
+          alluxio.proto.journal.File.CompleteFileEntry.Builder builderForValue) {
+        if (completeFileBuilder_ == null) {
+          entry_ = builderForValue.build();
+          onChanged();
+        } else {
+          completeFileBuilder_.setMessage(builderForValue.build());
+        }
+        entryCase_ = 5;
+        return this;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       */
+      public Builder mergeCompleteFile(alluxio.proto.journal.File.CompleteFileEntry value) {
+        if (completeFileBuilder_ == null) {
+          if (entryCase_ == 5 &&
+              entry_ != alluxio.proto.journal.File.CompleteFileEntry.getDefaultInstance()) {
+            entry_ = alluxio.proto.journal.File.CompleteFileEntry.newBuilder((alluxio.proto.journal.File.CompleteFileEntry) entry_)
+                .mergeFrom(value).buildPartial();
+          } else {
+            entry_ = value;
+          }
+          onChanged();
+        } else {
+          if (entryCase_ == 5) {
+            completeFileBuilder_.mergeFrom(value);
+          }
+          completeFileBuilder_.setMessage(value);
+        }
+        entryCase_ = 5;
+        return this;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       */
+      public Builder clearCompleteFile() {
+        if (completeFileBuilder_ == null) {
+          if (entryCase_ == 5) {
+            entryCase_ = 0;
+            entry_ = null;
+            onChanged();
+          }
+        } else {
+          if (entryCase_ == 5) {
+            entryCase_ = 0;
+            entry_ = null;
+          }
+          completeFileBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       */
+      public alluxio.proto.journal.File.CompleteFileEntry.Builder getCompleteFileBuilder() {
+        return getCompleteFileFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       */
+      public alluxio.proto.journal.File.CompleteFileEntryOrBuilder getCompleteFileOrBuilder() {
+        if ((entryCase_ == 5) && (completeFileBuilder_ != null)) {
+          return completeFileBuilder_.getMessageOrBuilder();
+        } else {
+          if (entryCase_ == 5) {
+            return (alluxio.proto.journal.File.CompleteFileEntry) entry_;
+          }
+          return alluxio.proto.journal.File.CompleteFileEntry.getDefaultInstance();
+        }
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CompleteFileEntry complete_file = 5;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          alluxio.proto.journal.File.CompleteFileEntry, alluxio.proto.journal.File.CompleteFileEntry.Builder, alluxio.proto.journal.File.CompleteFileEntryOrBuilder> 
+          getCompleteFileFieldBuilder() {
+        if (completeFileBuilder_ == null) {
+          if (!(entryCase_ == 5)) {
+            entry_ = alluxio.proto.journal.File.CompleteFileEntry.getDefaultInstance();
+          }
+          completeFileBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              alluxio.proto.journal.File.CompleteFileEntry, alluxio.proto.journal.File.CompleteFileEntry.Builder, alluxio.proto.journal.File.CompleteFileEntryOrBuilder>(
+                  (alluxio.proto.journal.File.CompleteFileEntry) entry_,
+                  getParentForChildren(),
+                  isClean());
+          entry_ = null;
+        }
+        entryCase_ = 5;
+        return completeFileBuilder_;
+      }
+
+      private com.google.protobuf.SingleFieldBuilder<
+          alluxio.proto.journal.KeyValue.CompletePartitionEntry, alluxio.proto.journal.KeyValue.CompletePartitionEntry.Builder, alluxio.proto.journal.KeyValue.CompletePartitionEntryOrBuilder> completePartitionBuilder_;
+      /**
+       * <code>optional .alluxio.proto.journal.CompletePartitionEntry complete_partition = 21;</code>
+       */
+      public boolean hasCompletePartition() {
+        return entryCase_ == 21;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CompletePartitionEntry complete_partition = 21;</code>
+       */
+      public alluxio.proto.journal.KeyValue.CompletePartitionEntry getCompletePartition() {
+        if (completePartitionBuilder_ == null) {
+          if (entryCase_ == 21) {
+            return (alluxio.proto.journal.KeyValue.CompletePartitionEntry) entry_;
+          }
+          return alluxio.proto.journal.KeyValue.CompletePartitionEntry.getDefaultInstance();
+        } else {
+          if (entryCase_ == 21) {
+            return completePartitionBuilder_.getMessage();
+          }
+          return alluxio.proto.journal.KeyValue.CompletePartitionEntry.getDefaultInstance();
+        }
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CompletePartitionEntry complete_partition = 21;</code>
+       */
+      public Builder setCompletePartition(alluxio.proto.journal.KeyValue.CompletePartitionEntry value) {
+        if (completePartitionBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          entry_ = value;
+          onChanged();
+        } else {
+          completePartitionBuilder_.setMessage(value);
+        }
+        entryCase_ = 21;
+        return this;
+      }
+      /**
+       * <code>optional .alluxio.proto.journal.CompletePartitionEntry complete_partition = 21;</code>
        */
       public Builder setCompletePartition(
           alluxio.proto.journal.KeyValue.CompletePartitionEntry.Builder builderForValue) {
@@ -5433,79 +6054,1311 @@ public final class Journal {
     // @@protoc_insertion_point(class_scope:alluxio.proto.journal.JournalEntry)
   }
 
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_alluxio_proto_journal_JournalEntry_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_alluxio_proto_journal_JournalEntry_fieldAccessorTable;
+  public interface CheckpointChunkEntryOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:alluxio.proto.journal.CheckpointChunkEntry)
+      com.google.protobuf.MessageOrBuilder {
 
-  public static com.google.protobuf.Descriptors.FileDescriptor
-      getDescriptor() {
-    return descriptor;
-  }
-  private static com.google.protobuf.Descriptors.FileDescriptor
-      descriptor;
-  static {
-    java.lang.String[] descriptorData = {
-      "\n\rjournal.proto\022\025alluxio.proto.journal\032\013" +
-      "block.proto\032\nfile.proto\032\017key_value.proto" +
-      "\032\rlineage.proto\"\344\r\n\014JournalEntry\022\027\n\017sequ" +
-      "ence_number\030\001 \001(\003\022D\n\017add_mount_point\030\002 \001" +
-      "(\0132).alluxio.proto.journal.AddMountPoint" +
-      "EntryH\000\022]\n\034block_container_id_generator\030" +
-      "\003 \001(\01325.alluxio.proto.journal.BlockConta" +
-      "inerIdGeneratorEntryH\000\022;\n\nblock_info\030\004 \001" +
-      "(\0132%.alluxio.proto.journal.BlockInfoEntr" +
-      "yH\000\022A\n\rcomplete_file\030\005 \001(\0132(.alluxio.pro",
-      "to.journal.CompleteFileEntryH\000\022K\n\022comple" +
-      "te_partition\030\025 \001(\0132-.alluxio.proto.journ" +
-      "al.CompletePartitionEntryH\000\022C\n\016complete_" +
-      "store\030\026 \001(\0132).alluxio.proto.journal.Comp" +
-      "leteStoreEntryH\000\022?\n\014create_store\030\027 \001(\0132\'" +
-      ".alluxio.proto.journal.CreateStoreEntryH" +
-      "\000\022=\n\013delete_file\030\006 \001(\0132&.alluxio.proto.j" +
-      "ournal.DeleteFileEntryH\000\022C\n\016delete_linea" +
-      "ge\030\007 \001(\0132).alluxio.proto.journal.DeleteL" +
-      "ineageEntryH\000\022J\n\022delete_mount_point\030\010 \001(",
-      "\0132,.alluxio.proto.journal.DeleteMountPoi" +
-      "ntEntryH\000\022?\n\014delete_store\030\031 \001(\0132\'.alluxi" +
-      "o.proto.journal.DeleteStoreEntryH\000\022E\n\017in" +
-      "ode_directory\030\t \001(\0132*.alluxio.proto.jour" +
-      "nal.InodeDirectoryEntryH\000\022]\n\034inode_direc" +
-      "tory_id_generator\030\n \001(\01325.alluxio.proto." +
-      "journal.InodeDirectoryIdGeneratorEntryH\000" +
-      "\022;\n\ninode_file\030\013 \001(\0132%.alluxio.proto.jou" +
-      "rnal.InodeFileEntryH\000\022]\n\034inode_last_modi" +
-      "fication_time\030\014 \001(\01325.alluxio.proto.jour",
-      "nal.InodeLastModificationTimeEntryH\000\0226\n\007" +
-      "lineage\030\r \001(\0132#.alluxio.proto.journal.Li" +
-      "neageEntryH\000\022N\n\024lineage_id_generator\030\016 \001" +
-      "(\0132..alluxio.proto.journal.LineageIdGene" +
-      "ratorEntryH\000\022=\n\013merge_store\030\032 \001(\0132&.allu" +
-      "xio.proto.journal.MergeStoreEntryH\000\022I\n\021p" +
-      "ersist_directory\030\017 \001(\0132,.alluxio.proto.j" +
-      "ournal.PersistDirectoryEntryH\000\022P\n\025async_" +
-      "persist_request\030\020 \001(\0132/.alluxio.proto.jo" +
-      "urnal.AsyncPersistRequestEntryH\000\022I\n\021rein",
-      "itialize_file\030\022 \001(\0132,.alluxio.proto.jour" +
-      "nal.ReinitializeFileEntryH\000\0224\n\006rename\030\023 " +
-      "\001(\0132\".alluxio.proto.journal.RenameEntryH" +
-      "\000\022?\n\014rename_store\030\034 \001(\0132\'.alluxio.proto." +
-      "journal.RenameStoreEntryH\000\022A\n\rset_attrib" +
-      "ute\030\033 \001(\0132(.alluxio.proto.journal.SetAtt" +
-      "ributeEntryH\000B\007\n\005entryB\027\n\025alluxio.proto." +
-      "journal"
-    };
-    com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
-        new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
-          public com.google.protobuf.ExtensionRegistry assignDescriptors(
-              com.google.protobuf.Descriptors.FileDescriptor root) {
-            descriptor = root;
-            return null;
-          }
-        };
-    com.google.protobuf.Descriptors.FileDescriptor
-      .internalBuildGeneratedFileFrom(descriptorData,
+    /**
+     * <code>optional int32 entry_type = 1;</code>
+     *
+     * <pre>
+     * The field number of the entry type shared by all the entries of the chunk.
+     * </pre>
+     */
+    boolean hasEntryType();
+    /**
+     * <code>optional int32 entry_type = 1;</code>
+     *
+     * <pre>
+     * The field number of the entry type shared by all the entries of the chunk.
+     * </pre>
+     */
+    int getEntryType();
+
+    /**
+     * <code>optional int32 num_entries = 2;</code>
+     *
+     * <pre>
+     * The number of entries in the chunk.
+     * </pre>
+     */
+    boolean hasNumEntries();
+    /**
+     * <code>optional int32 num_entries = 2;</code>
+     *
+     * <pre>
+     * The number of entries in the chunk.
+     * </pre>
+     */
+    int getNumEntries();
+
+    /**
+     * <code>optional bool compressed = 3;</code>
+     *
+     * <pre>
+     * Whether the entries are compressed with deflate.
+     * </pre>
+     */
+    boolean hasCompressed();
+    /**
+     * <code>optional bool compressed = 3;</code>
+     *
+     * <pre>
+     * Whether the entries are compressed with deflate.
+     * </pre>
+     */
+    boolean getCompressed();
+
+    /**
+     * <code>optional bytes entries = 4;</code>
+     *
+     * <pre>
+     * The serialized entries.
+     * </pre>
+     */
+    boolean hasEntries();
+    /**
+     * <code>optional bytes entries = 4;</code>
+     *
+     * <pre>
+     * The serialized entries.
+     * </pre>
+     */
+    com.google.protobuf.ByteString getEntries();
+  }
+  /**
+   * Protobuf type {@code alluxio.proto.journal.CheckpointChunkEntry}
+   *
+   * <pre>
+   * Groups consecutive checkpoint entries of the same type, so that the entries of different chunks
+   * can be decoded in parallel.
+   * next available id: 5
+   * </pre>
+   */
+  public static final class CheckpointChunkEntry extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:alluxio.proto.journal.CheckpointChunkEntry)
+      CheckpointChunkEntryOrBuilder {
+    // Use CheckpointChunkEntry.newBuilder() to construct.
+    private CheckpointChunkEntry(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private CheckpointChunkEntry(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final CheckpointChunkEntry defaultInstance;
+    public static CheckpointChunkEntry getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public CheckpointChunkEntry getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private CheckpointChunkEntry(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+              bitField0_ |= 0x00000001;
+              entryType_ = input.readInt32();
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              numEntries_ = input.readInt32();
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              compressed_ = input.readBool();
+              break;
+            }
+            case 34: {
+              bitField0_ |= 0x00000008;
+              entries_ = input.readBytes();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return alluxio.proto.journal.Journal.internal_static_alluxio_proto_journal_CheckpointChunkEntry_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return alluxio.proto.journal.Journal.internal_static_alluxio_proto_journal_CheckpointChunkEntry_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              alluxio.proto.journal.Journal.CheckpointChunkEntry.class, alluxio.proto.journal.Journal.CheckpointChunkEntry.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<CheckpointChunkEntry> PARSER =
+        new com.google.protobuf.AbstractParser<CheckpointChunkEntry>() {
+      public CheckpointChunkEntry parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new CheckpointChunkEntry(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<CheckpointChunkEntry> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int ENTRY_TYPE_FIELD_NUMBER = 1;
+    private int entryType_;
+    /**
+     * <code>optional int32 entry_type = 1;</code>
+     *
+     * <pre>
+     * The field number of the entry type shared by all the entries of the chunk.
+     * </pre>
+     */
+    public boolean hasEntryType() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional int32 entry_type = 1;</code>
+     *
+     * <pre>
+     * The field number of the entry type shared by all the entries of the chunk.
+     * </pre>
+     */
+    public int getEntryType() {
+      return entryType_;
+    }
+
+    public static final int NUM_ENTRIES_FIELD_NUMBER = 2;
+    private int numEntries_;
+    /**
+     * <code>optional int32 num_entries = 2;</code>
+     *
+     * <pre>
+     * The number of entries in the chunk.
+     * </pre>
+     */
+    public boolean hasNumEntries() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional int32 num_entries = 2;</code>
+     *
+     * <pre>
+     * The number of entries in the chunk.
+     * </pre>
+     */
+    public int getNumEntries() {
+      return numEntries_;
+    }
+
+    public static final int COMPRESSED_FIELD_NUMBER = 3;
+    private boolean compressed_;
+    /**
+     * <code>optional bool compressed = 3;</code>
+     *
+     * <pre>
+     * Whether the entries are compressed with deflate.
+     * </pre>
+     */
+    public boolean hasCompressed() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional bool compressed = 3;</code>
+     *
+     * <pre>
+     * Whether the entries are compressed with deflate.
+     * </pre>
+     */
+    public boolean getCompressed() {
+      return compressed_;
+    }
+
+    public static final int ENTRIES_FIELD_NUMBER = 4;
+    private com.google.protobuf.ByteString entries_;
+    /**
+     * <code>optional bytes entries = 4;</code>
+     *
+     * <pre>
+     * The serialized entries.
+     * </pre>
+     */
+    public boolean hasEntries() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional bytes entries = 4;</code>
+     *
+     * <pre>
+     * The serialized entries.
+     * </pre>
+     */
+    public com.google.protobuf.ByteString getEntries() {
+      return entries_;
+    }
+
+    private void initFields() {
+      entryType_ = 0;
+      numEntries_ = 0;
+      compressed_ = false;
+      entries_ = com.google.protobuf.ByteString.EMPTY;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeInt32(1, entryType_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeInt32(2, numEntries_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeBool(3, compressed_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeBytes(4, entries_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(1, entryType_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(2, numEntries_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(3, compressed_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(4, entries_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static alluxio.proto.journal.Journal.CheckpointChunkEntry parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointChunkEntry parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointChunkEntry parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointChunkEntry parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointChunkEntry parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointChunkEntry parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointChunkEntry parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointChunkEntry parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointChunkEntry parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointChunkEntry parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(alluxio.proto.journal.Journal.CheckpointChunkEntry prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code alluxio.proto.journal.CheckpointChunkEntry}
+     *
+     * <pre>
+     * Groups consecutive checkpoint entries of the same type, so that the entries of different chunks
+     * can be decoded in parallel.
+     * next available id: 5
+     * </pre>
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:alluxio.proto.journal.CheckpointChunkEntry)
+        alluxio.proto.journal.Journal.CheckpointChunkEntryOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return alluxio.proto.journal.Journal.internal_static_alluxio_proto_journal_CheckpointChunkEntry_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return alluxio.proto.journal.Journal.internal_static_alluxio_proto_journal_CheckpointChunkEntry_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                alluxio.proto.journal.Journal.CheckpointChunkEntry.class, alluxio.proto.journal.Journal.CheckpointChunkEntry.Builder.class);
+      }
+
+      // Construct using alluxio.proto.journal.Journal.CheckpointChunkEntry.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        entryType_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        numEntries_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        compressed_ = false;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        entries_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return alluxio.proto.journal.Journal.internal_static_alluxio_proto_journal_CheckpointChunkEntry_descriptor;
+      }
+
+      public alluxio.proto.journal.Journal.CheckpointChunkEntry getDefaultInstanceForType() {
+        return alluxio.proto.journal.Journal.CheckpointChunkEntry.getDefaultInstance();
+      }
+
+      public alluxio.proto.journal.Journal.CheckpointChunkEntry build() {
+        alluxio.proto.journal.Journal.CheckpointChunkEntry result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public alluxio.proto.journal.Journal.CheckpointChunkEntry buildPartial() {
+        alluxio.proto.journal.Journal.CheckpointChunkEntry result = new alluxio.proto.journal.Journal.CheckpointChunkEntry(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.entryType_ = entryType_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.numEntries_ = numEntries_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.compressed_ = compressed_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.entries_ = entries_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof alluxio.proto.journal.Journal.CheckpointChunkEntry) {
+          return mergeFrom((alluxio.proto.journal.Journal.CheckpointChunkEntry)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(alluxio.proto.journal.Journal.CheckpointChunkEntry other) {
+        if (other == alluxio.proto.journal.Journal.CheckpointChunkEntry.getDefaultInstance()) return this;
+        if (other.hasEntryType()) {
+          setEntryType(other.getEntryType());
+        }
+        if (other.hasNumEntries()) {
+          setNumEntries(other.getNumEntries());
+        }
+        if (other.hasCompressed()) {
+          setCompressed(other.getCompressed());
+        }
+        if (other.hasEntries()) {
+          setEntries(other.getEntries());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        alluxio.proto.journal.Journal.CheckpointChunkEntry parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (alluxio.proto.journal.Journal.CheckpointChunkEntry) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private int entryType_ ;
+      /**
+       * <code>optional int32 entry_type = 1;</code>
+       *
+       * <pre>
+       * The field number of the entry type shared by all the entries of the chunk.
+       * </pre>
+       */
+      public boolean hasEntryType() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional int32 entry_type = 1;</code>
+       *
+       * <pre>
+       * The field number of the entry type shared by all the entries of the chunk.
+       * </pre>
+       */
+      public int getEntryType() {
+        return entryType_;
+      }
+      /**
+       * <code>optional int32 entry_type = 1;</code>
+       *
+       * <pre>
+       * The field number of the entry type shared by all the entries of the chunk.
+       * </pre>
+       */
+      public Builder setEntryType(int value) {
+        bitField0_ |= 0x00000001;
+        entryType_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 entry_type = 1;</code>
+       *
+       * <pre>
+       * The field number of the entry type shared by all the entries of the chunk.
+       * </pre>
+       */
+      public Builder clearEntryType() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        entryType_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private int numEntries_ ;
+      /**
+       * <code>optional int32 num_entries = 2;</code>
+       *
+       * <pre>
+       * The number of entries in the chunk.
+       * </pre>
+       */
+      public boolean hasNumEntries() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional int32 num_entries = 2;</code>
+       *
+       * <pre>
+       * The number of entries in the chunk.
+       * </pre>
+       */
+      public int getNumEntries() {
+        return numEntries_;
+      }
+      /**
+       * <code>optional int32 num_entries = 2;</code>
+       *
+       * <pre>
+       * The number of entries in the chunk.
+       * </pre>
+       */
+      public Builder setNumEntries(int value) {
+        bitField0_ |= 0x00000002;
+        numEntries_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 num_entries = 2;</code>
+       *
+       * <pre>
+       * The number of entries in the chunk.
+       * </pre>
+       */
+      public Builder clearNumEntries() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        numEntries_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private boolean compressed_ ;
+      /**
+       * <code>optional bool compressed = 3;</code>
+       *
+       * <pre>
+       * Whether the entries are compressed with deflate.
+       * </pre>
+       */
+      public boolean hasCompressed() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional bool compressed = 3;</code>
+       *
+       * <pre>
+       * Whether the entries are compressed with deflate.
+       * </pre>
+       */
+      public boolean getCompressed() {
+        return compressed_;
+      }
+      /**
+       * <code>optional bool compressed = 3;</code>
+       *
+       * <pre>
+       * Whether the entries are compressed with deflate.
+       * </pre>
+       */
+      public Builder setCompressed(boolean value) {
+        bitField0_ |= 0x00000004;
+        compressed_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bool compressed = 3;</code>
+       *
+       * <pre>
+       * Whether the entries are compressed with deflate.
+       * </pre>
+       */
+      public Builder clearCompressed() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        compressed_ = false;
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.ByteString entries_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes entries = 4;</code>
+       *
+       * <pre>
+       * The serialized entries.
+       * </pre>
+       */
+      public boolean hasEntries() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional bytes entries = 4;</code>
+       *
+       * <pre>
+       * The serialized entries.
+       * </pre>
+       */
+      public com.google.protobuf.ByteString getEntries() {
+        return entries_;
+      }
+      /**
+       * <code>optional bytes entries = 4;</code>
+       *
+       * <pre>
+       * The serialized entries.
+       * </pre>
+       */
+      public Builder setEntries(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000008;
+        entries_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bytes entries = 4;</code>
+       *
+       * <pre>
+       * The serialized entries.
+       * </pre>
+       */
+      public Builder clearEntries() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        entries_ = getDefaultInstance().getEntries();
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:alluxio.proto.journal.CheckpointChunkEntry)
+    }
+
+    static {
+      defaultInstance = new CheckpointChunkEntry(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:alluxio.proto.journal.CheckpointChunkEntry)
+  }
+
+  public interface CheckpointHeaderEntryOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:alluxio.proto.journal.CheckpointHeaderEntry)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>optional int64 next_log_number = 1;</code>
+     *
+     * <pre>
+     * The number of the first completed log which is not reflected in the checkpoint.
+     * </pre>
+     */
+    boolean hasNextLogNumber();
+    /**
+     * <code>optional int64 next_log_number = 1;</code>
+     *
+     * <pre>
+     * The number of the first completed log which is not reflected in the checkpoint.
+     * </pre>
+     */
+    long getNextLogNumber();
+  }
+  /**
+   * Protobuf type {@code alluxio.proto.journal.CheckpointHeaderEntry}
+   *
+   * <pre>
+   * Starts every checkpoint file, describing which completed logs the checkpoint reflects.
+   * next available id: 2
+   * </pre>
+   */
+  public static final class CheckpointHeaderEntry extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:alluxio.proto.journal.CheckpointHeaderEntry)
+      CheckpointHeaderEntryOrBuilder {
+    // Use CheckpointHeaderEntry.newBuilder() to construct.
+    private CheckpointHeaderEntry(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private CheckpointHeaderEntry(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final CheckpointHeaderEntry defaultInstance;
+    public static CheckpointHeaderEntry getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public CheckpointHeaderEntry getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private CheckpointHeaderEntry(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+              bitField0_ |= 0x00000001;
+              nextLogNumber_ = input.readInt64();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return alluxio.proto.journal.Journal.internal_static_alluxio_proto_journal_CheckpointHeaderEntry_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return alluxio.proto.journal.Journal.internal_static_alluxio_proto_journal_CheckpointHeaderEntry_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              alluxio.proto.journal.Journal.CheckpointHeaderEntry.class, alluxio.proto.journal.Journal.CheckpointHeaderEntry.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<CheckpointHeaderEntry> PARSER =
+        new com.google.protobuf.AbstractParser<CheckpointHeaderEntry>() {
+      public CheckpointHeaderEntry parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new CheckpointHeaderEntry(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<CheckpointHeaderEntry> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int NEXT_LOG_NUMBER_FIELD_NUMBER = 1;
+    private long nextLogNumber_;
+    /**
+     * <code>optional int64 next_log_number = 1;</code>
+     *
+     * <pre>
+     * The number of the first completed log which is not reflected in the checkpoint.
+     * </pre>
+     */
+    public boolean hasNextLogNumber() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional int64 next_log_number = 1;</code>
+     *
+     * <pre>
+     * The number of the first completed log which is not reflected in the checkpoint.
+     * </pre>
+     */
+    public long getNextLogNumber() {
+      return nextLogNumber_;
+    }
+
+    private void initFields() {
+      nextLogNumber_ = 0L;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeInt64(1, nextLogNumber_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(1, nextLogNumber_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static alluxio.proto.journal.Journal.CheckpointHeaderEntry parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointHeaderEntry parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointHeaderEntry parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointHeaderEntry parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointHeaderEntry parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointHeaderEntry parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointHeaderEntry parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointHeaderEntry parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointHeaderEntry parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static alluxio.proto.journal.Journal.CheckpointHeaderEntry parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(alluxio.proto.journal.Journal.CheckpointHeaderEntry prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code alluxio.proto.journal.CheckpointHeaderEntry}
+     *
+     * <pre>
+     * Starts every checkpoint file, describing which completed logs the checkpoint reflects.
+     * next available id: 2
+     * </pre>
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:alluxio.proto.journal.CheckpointHeaderEntry)
+        alluxio.proto.journal.Journal.CheckpointHeaderEntryOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return alluxio.proto.journal.Journal.internal_static_alluxio_proto_journal_CheckpointHeaderEntry_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return alluxio.proto.journal.Journal.internal_static_alluxio_proto_journal_CheckpointHeaderEntry_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                alluxio.proto.journal.Journal.CheckpointHeaderEntry.class, alluxio.proto.journal.Journal.CheckpointHeaderEntry.Builder.class);
+      }
+
+      // Construct using alluxio.proto.journal.Journal.CheckpointHeaderEntry.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        nextLogNumber_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return alluxio.proto.journal.Journal.internal_static_alluxio_proto_journal_CheckpointHeaderEntry_descriptor;
+      }
+
+      public alluxio.proto.journal.Journal.CheckpointHeaderEntry getDefaultInstanceForType() {
+        return alluxio.proto.journal.Journal.CheckpointHeaderEntry.getDefaultInstance();
+      }
+
+      public alluxio.proto.journal.Journal.CheckpointHeaderEntry build() {
+        alluxio.proto.journal.Journal.CheckpointHeaderEntry result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public alluxio.proto.journal.Journal.CheckpointHeaderEntry buildPartial() {
+        alluxio.proto.journal.Journal.CheckpointHeaderEntry result = new alluxio.proto.journal.Journal.CheckpointHeaderEntry(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.nextLogNumber_ = nextLogNumber_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof alluxio.proto.journal.Journal.CheckpointHeaderEntry) {
+          return mergeFrom((alluxio.proto.journal.Journal.CheckpointHeaderEntry)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(alluxio.proto.journal.Journal.CheckpointHeaderEntry other) {
+        if (other == alluxio.proto.journal.Journal.CheckpointHeaderEntry.getDefaultInstance()) return this;
+        if (other.hasNextLogNumber()) {
+          setNextLogNumber(other.getNextLogNumber());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        alluxio.proto.journal.Journal.CheckpointHeaderEntry parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (alluxio.proto.journal.Journal.CheckpointHeaderEntry) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private long nextLogNumber_ ;
+      /**
+       * <code>optional int64 next_log_number = 1;</code>
+       *
+       * <pre>
+       * The number of the first completed log which is not reflected in the checkpoint.
+       * </pre>
+       */
+      public boolean hasNextLogNumber() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional int64 next_log_number = 1;</code>
+       *
+       * <pre>
+       * The number of the first completed log which is not reflected in the checkpoint.
+       * </pre>
+       */
+      public long getNextLogNumber() {
+        return nextLogNumber_;
+      }
+      /**
+       * <code>optional int64 next_log_number = 1;</code>
+       *
+       * <pre>
+       * The number of the first completed log which is not reflected in the checkpoint.
+       * </pre>
+       */
+      public Builder setNextLogNumber(long value) {
+        bitField0_ |= 0x00000001;
+        nextLogNumber_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int64 next_log_number = 1;</code>
+       *
+       * <pre>
+       * The number of the first completed log which is not reflected in the checkpoint.
+       * </pre>
+       */
+      public Builder clearNextLogNumber() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        nextLogNumber_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:alluxio.proto.journal.CheckpointHeaderEntry)
+    }
+
+    static {
+      defaultInstance = new CheckpointHeaderEntry(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:alluxio.proto.journal.CheckpointHeaderEntry)
+  }
+
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_alluxio_proto_journal_JournalEntry_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_alluxio_proto_journal_JournalEntry_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_alluxio_proto_journal_CheckpointChunkEntry_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_alluxio_proto_journal_CheckpointChunkEntry_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_alluxio_proto_journal_CheckpointHeaderEntry_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_alluxio_proto_journal_CheckpointHeaderEntry_fieldAccessorTable;
+
+  public static com.google.protobuf.Descriptors.FileDescriptor
+      getDescriptor() {
+    return descriptor;
+  }
+  private static com.google.protobuf.Descriptors.FileDescriptor
+      descriptor;
+  static {
+    java.lang.String[] descriptorData = {
+      "\n\rjournal.proto\022\025alluxio.proto.journal\032\013" +
+      "block.proto\032\nfile.proto\032\017key_value.proto" +
+      "\032\rlineage.proto\"\303\017\n\014JournalEntry\022\027\n\017sequ" +
+      "ence_number\030\001 \001(\003\022D\n\017add_mount_point\030\002 \001" +
+      "(\0132).alluxio.proto.journal.AddMountPoint" +
+      "EntryH\000\022I\n\021background_delete\030\037 \001(\0132,.all" +
+      "uxio.proto.journal.BackgroundDeleteEntry" +
+      "H\000\022]\n\034block_container_id_generator\030\003 \001(\013" +
+      "25.alluxio.proto.journal.BlockContainerI" +
+      "dGeneratorEntryH\000\022;\n\nblock_info\030\004 \001(\0132%.",
+      "alluxio.proto.journal.BlockInfoEntryH\000\022G" +
+      "\n\020checkpoint_chunk\030\036 \001(\0132+.alluxio.proto" +
+      ".journal.CheckpointChunkEntryH\000\022I\n\021check" +
+      "point_header\030\035 \001(\0132,.alluxio.proto.journ" +
+      "al.CheckpointHeaderEntryH\000\022A\n\rcomplete_f" +
+      "ile\030\005 \001(\0132(.alluxio.proto.journal.Comple" +
+      "teFileEntryH\000\022K\n\022complete_partition\030\025 \001(" +
+      "\0132-.alluxio.proto.journal.CompletePartit" +
+      "ionEntryH\000\022C\n\016complete_store\030\026 \001(\0132).all" +
+      "uxio.proto.journal.CompleteStoreEntryH\000\022",
+      "?\n\014create_store\030\027 \001(\0132\'.alluxio.proto.jo" +
+      "urnal.CreateStoreEntryH\000\022=\n\013delete_file\030" +
+      "\006 \001(\0132&.alluxio.proto.journal.DeleteFile" +
+      "EntryH\000\022C\n\016delete_lineage\030\007 \001(\0132).alluxi" +
+      "o.proto.journal.DeleteLineageEntryH\000\022J\n\022" +
+      "delete_mount_point\030\010 \001(\0132,.alluxio.proto" +
+      ".journal.DeleteMountPointEntryH\000\022?\n\014dele" +
+      "te_store\030\031 \001(\0132\'.alluxio.proto.journal.D" +
+      "eleteStoreEntryH\000\022E\n\017inode_directory\030\t \001" +
+      "(\0132*.alluxio.proto.journal.InodeDirector",
+      "yEntryH\000\022]\n\034inode_directory_id_generator" +
+      "\030\n \001(\01325.alluxio.proto.journal.InodeDire" +
+      "ctoryIdGeneratorEntryH\000\022;\n\ninode_file\030\013 " +
+      "\001(\0132%.alluxio.proto.journal.InodeFileEnt" +
+      "ryH\000\022]\n\034inode_last_modification_time\030\014 \001" +
+      "(\01325.alluxio.proto.journal.InodeLastModi" +
+      "ficationTimeEntryH\000\0226\n\007lineage\030\r \001(\0132#.a" +
+      "lluxio.proto.journal.LineageEntryH\000\022N\n\024l" +
+      "ineage_id_generator\030\016 \001(\0132..alluxio.prot" +
+      "o.journal.LineageIdGeneratorEntryH\000\022=\n\013m",
+      "erge_store\030\032 \001(\0132&.alluxio.proto.journal" +
+      ".MergeStoreEntryH\000\022I\n\021persist_directory\030" +
+      "\017 \001(\0132,.alluxio.proto.journal.PersistDir" +
+      "ectoryEntryH\000\022P\n\025async_persist_request\030\020" +
+      " \001(\0132/.alluxio.proto.journal.AsyncPersis" +
+      "tRequestEntryH\000\022I\n\021reinitialize_file\030\022 \001" +
+      "(\0132,.alluxio.proto.journal.ReinitializeF" +
+      "ileEntryH\000\0224\n\006rename\030\023 \001(\0132\".alluxio.pro" +
+      "to.journal.RenameEntryH\000\022?\n\014rename_store" +
+      "\030\034 \001(\0132\'.alluxio.proto.journal.RenameSto",
+      "reEntryH\000\022A\n\rset_attribute\030\033 \001(\0132(.allux" +
+      "io.proto.journal.SetAttributeEntryH\000B\007\n\005" +
+      "entry\"d\n\024CheckpointChunkEntry\022\022\n\nentry_t" +
+      "ype\030\001 \001(\005\022\023\n\013num_entries\030\002 \001(\005\022\022\n\ncompre" +
+      "ssed\030\003 \001(\010\022\017\n\007entries\030\004 \001(\014\"0\n\025Checkpoin" +
+      "tHeaderEntry\022\027\n\017next_log_number\030\001 \001(\003B\027\n" +
+      "\025alluxio.proto.journal"
+    };
+    com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
+        new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
+          public com.google.protobuf.ExtensionRegistry assignDescriptors(
+              com.google.protobuf.Descriptors.FileDescriptor root) {
+            descriptor = root;
+            return null;
+          }
+        };
+    com.google.protobuf.Descriptors.FileDescriptor
+      .internalBuildGeneratedFileFrom(descriptorData,
         new com.google.protobuf.Descriptors.FileDescriptor[] {
           alluxio.proto.journal.Block.getDescriptor(),
           alluxio.proto.journal.File.getDescriptor(),
@@ -5517,7 +7370,19 @@ public final class Journal {
     internal_static_alluxio_proto_journal_JournalEntry_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_alluxio_proto_journal_JournalEntry_descriptor,
-        new java.lang.String[] { "SequenceNumber", "AddMountPoint", "BlockContainerIdGenerator", "BlockInfo", "CompleteFile", "CompletePartition", "CompleteStore", "CreateStore", "DeleteFile", "DeleteLineage", "DeleteMountPoint", "DeleteStore", "InodeDirectory", "InodeDirectoryIdGenerator", "InodeFile", "InodeLastModificationTime", "Lineage", "LineageIdGenerator", "MergeStore", "PersistDirectory", "AsyncPersistRequest", "ReinitializeFile", "Rename", "RenameStore", "SetAttribute", "Entry", });
+        new java.lang.String[] { "SequenceNumber", "AddMountPoint", "BackgroundDelete", "BlockContainerIdGenerator", "BlockInfo", "CheckpointChunk", "CheckpointHeader", "CompleteFile", "CompletePartition", "CompleteStore", "CreateStore", "DeleteFile", "DeleteLineage", "DeleteMountPoint", "DeleteStore", "InodeDirectory", "InodeDirectoryIdGenerator", "InodeFile", "InodeLastModificationTime", "Lineage", "LineageIdGenerator", "MergeStore", "PersistDirectory", "AsyncPersistRequest", "ReinitializeFile", "Rename", "RenameStore", "SetAttribute", "Entry", });
+    internal_static_alluxio_proto_journal_CheckpointChunkEntry_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_alluxio_proto_journal_CheckpointChunkEntry_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_alluxio_proto_journal_CheckpointChunkEntry_descriptor,
+        new java.lang.String[] { "EntryType", "NumEntries", "Compressed", "Entries", });
+    internal_static_alluxio_proto_journal_CheckpointHeaderEntry_descriptor =
+      getDescriptor().getMessageTypes().get(2);
+    internal_static_alluxio_proto_journal_CheckpointHeaderEntry_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_alluxio_proto_journal_CheckpointHeaderEntry_descriptor,
+        new java.lang.String[] { "NextLogNumber", });
     alluxio.proto.journal.Block.getDescriptor();
     alluxio.proto.journal.File.getDescriptor();
     alluxio.proto.journal.KeyValue.getDescriptor();
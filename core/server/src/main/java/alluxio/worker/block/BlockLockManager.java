@@ -26,7 +26,6 @@ import io.netty.util.internal.chmv8.ConcurrentHashMapV8;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -37,16 +36,24 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 
-import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * Handle all block locks.
+ *
+ * The maps of this class are concurrent maps, so locking and unlocking blocks does not contend on
+ * a shared monitor. The few compound updates are guarded by monitor stripes instead: the block
+ * lock of a block id is allocated and released under the stripe of the block id, and the set of
+ * lock ids of a session is updated under the stripe of the session id. Stripe monitors are never
+ * nested.
  */
 @ThreadSafe
 public final class BlockLockManager {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
 
+  /** The number of monitor stripes, must be a power of two. */
+  private static final int NUM_STRIPES = 256;
+
   /** The unique id of each lock. */
   private static final AtomicLong LOCK_ID_GEN = new AtomicLong(0);
 
@@ -62,22 +69,29 @@ public final class BlockLockManager {
     }
   };
 
-  /** A map from block id to the read write lock used to guard that block. */
-  @GuardedBy("mSharedMapsLock")
-  private final Map<Long, ClientRWLock> mLocks = new HashMap<>();
+  /**
+   * A map from block id to the read write lock used to guard that block. Entries are added and
+   * removed under the stripe of the block id.
+   */
+  private final Map<Long, ClientRWLock> mLocks =
+      new ConcurrentHashMapV8<>(Constants.KB, 0.75f, NUM_STRIPES);
 
-  /** A map from a session id to all the locks hold by this session. */
-  @GuardedBy("mSharedMapsLock")
-  private final Map<Long, Set<Long>> mSessionIdToLockIdsMap = new HashMap<>();
+  /**
+   * A map from a session id to all the locks hold by this session. Entries and their sets are
+   * updated under the stripe of the session id.
+   */
+  private final Map<Long, Set<Long>> mSessionIdToLockIdsMap =
+      new ConcurrentHashMapV8<>(Constants.KB, 0.75f, NUM_STRIPES);
 
   /** A map from a lock id to the lock record of it. */
-  @GuardedBy("mSharedMapsLock")
-  private final Map<Long, LockRecord> mLockIdToRecordMap = new HashMap<>();
+  private final ConcurrentMap<Long, LockRecord> mLockIdToRecordMap =
+      new ConcurrentHashMapV8<>(Constants.KB, 0.75f, NUM_STRIPES);
 
-  /**
-   * To guard access to the maps maintained by this class.
-   */
-  private final Object mSharedMapsLock = new Object();
+  /** The monitors guarding the compound updates of the block lock map, by block id. */
+  private final Object[] mBlockStripes = createStripes();
+
+  /** The monitors guarding the compound updates of the session map, by session id. */
+  private final Object[] mSessionStripes = createStripes();
 
   /**
    * Constructs a new {@link BlockLockManager}.
@@ -107,8 +121,8 @@ public final class BlockLockManager {
     lock.lock();
     try {
       long lockId = LOCK_ID_GEN.getAndIncrement();
-      synchronized (mSharedMapsLock) {
-        mLockIdToRecordMap.put(lockId, new LockRecord(sessionId, blockId, lock));
+      mLockIdToRecordMap.put(lockId, new LockRecord(sessionId, blockId, lock));
+      synchronized (sessionStripe(sessionId)) {
         Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
         if (sessionLockIds == null) {
           mSessionIdToLockIdsMap.put(sessionId, Sets.newHashSet(lockId));
@@ -133,12 +147,13 @@ public final class BlockLockManager {
    * @return the block lock
    */
   private ClientRWLock getBlockLock(long blockId) {
+    Object blockStripe = blockStripe(blockId);
     // Loop until we either find the block lock in the mLocks map, or successfully acquire a new
     // block lock from the lock pool.
     while (true) {
       ClientRWLock blockLock;
       // Check whether a lock has already been allocated for the block id.
-      synchronized (mSharedMapsLock) {
+      synchronized (blockStripe) {
         blockLock = mLocks.get(blockId);
         if (blockLock != null) {
           blockLock.addReference();
@@ -151,11 +166,12 @@ public final class BlockLockManager {
       // allocated to another thread, in which case we could just use that lock.
       blockLock = mLockPool.acquire(1, TimeUnit.SECONDS);
       if (blockLock != null) {
-        synchronized (mSharedMapsLock) {
+        synchronized (blockStripe) {
           // Check if someone else acquired a block lock for blockId while we were acquiring one.
-          if (mLocks.containsKey(blockId)) {
+          ClientRWLock existingLock = mLocks.get(blockId);
+          if (existingLock != null) {
             mLockPool.release(blockLock);
-            blockLock = mLocks.get(blockId);
+            blockLock = existingLock;
           } else {
             mLocks.put(blockId, blockLock);
           }
@@ -173,24 +189,14 @@ public final class BlockLockManager {
    * @throws BlockDoesNotExistException if lock id cannot be found
    */
   public void unlockBlock(long lockId) throws BlockDoesNotExistException {
-    Lock lock;
-    LockRecord record;
-    synchronized (mSharedMapsLock) {
-      record = mLockIdToRecordMap.get(lockId);
-      if (record == null) {
-        throw new BlockDoesNotExistException(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID,
-            lockId);
-      }
-      long sessionId = record.getSessionId();
-      lock = record.getLock();
-      mLockIdToRecordMap.remove(lockId);
-      Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
-      sessionLockIds.remove(lockId);
-      if (sessionLockIds.isEmpty()) {
-        mSessionIdToLockIdsMap.remove(sessionId);
-      }
+    // Removing the record claims the lock, so a lock is never released twice.
+    LockRecord record = mLockIdToRecordMap.remove(lockId);
+    if (record == null) {
+      throw new BlockDoesNotExistException(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID,
+          lockId);
     }
-    unlock(lock, record.getBlockId());
+    removeSessionLockId(record.getSessionId(), lockId);
+    unlock(record.getLock(), record.getBlockId());
   }
 
   /**
@@ -202,7 +208,8 @@ public final class BlockLockManager {
    */
   // TODO(bin): Temporary, remove me later.
   public void unlockBlock(long sessionId, long blockId) throws BlockDoesNotExistException {
-    synchronized (mSharedMapsLock) {
+    LockRecord record = null;
+    synchronized (sessionStripe(sessionId)) {
       Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
       if (sessionLockIds == null) {
         LOG.warn("Attempted to unlock block {} with session {}, but the session has not taken"
@@ -210,25 +217,27 @@ public final class BlockLockManager {
         return;
       }
       for (long lockId : sessionLockIds) {
-        LockRecord record = mLockIdToRecordMap.get(lockId);
-        if (record == null) {
-          throw new BlockDoesNotExistException(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID,
-              lockId);
+        // The record is already gone if unlockBlock(lockId) claimed it and has not yet removed
+        // the lock id from the session, in which case that call releases the lock.
+        LockRecord lockRecord = mLockIdToRecordMap.get(lockId);
+        if (lockRecord == null || blockId != lockRecord.getBlockId()) {
+          continue;
         }
-        if (blockId == record.getBlockId()) {
-          mLockIdToRecordMap.remove(lockId);
+        if (mLockIdToRecordMap.remove(lockId, lockRecord)) {
           sessionLockIds.remove(lockId);
           if (sessionLockIds.isEmpty()) {
             mSessionIdToLockIdsMap.remove(sessionId);
           }
-          Lock lock = record.getLock();
-          unlock(lock, blockId);
-          return;
+          record = lockRecord;
+          break;
         }
       }
+    }
+    if (record == null) {
       throw new BlockDoesNotExistException(
           ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_BLOCK_AND_SESSION, blockId, sessionId);
     }
+    unlock(record.getLock(), blockId);
   }
 
   /**
@@ -243,20 +252,18 @@ public final class BlockLockManager {
    */
   public void validateLock(long sessionId, long blockId, long lockId)
       throws BlockDoesNotExistException, InvalidWorkerStateException {
-    synchronized (mSharedMapsLock) {
-      LockRecord record = mLockIdToRecordMap.get(lockId);
-      if (record == null) {
-        throw new BlockDoesNotExistException(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID,
-            lockId);
-      }
-      if (sessionId != record.getSessionId()) {
-        throw new InvalidWorkerStateException(ExceptionMessage.LOCK_ID_FOR_DIFFERENT_SESSION,
-            lockId, record.getSessionId(), sessionId);
-      }
-      if (blockId != record.getBlockId()) {
-        throw new InvalidWorkerStateException(ExceptionMessage.LOCK_ID_FOR_DIFFERENT_BLOCK, lockId,
-            record.getBlockId(), blockId);
-      }
+    LockRecord record = mLockIdToRecordMap.get(lockId);
+    if (record == null) {
+      throw new BlockDoesNotExistException(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID,
+          lockId);
+    }
+    if (sessionId != record.getSessionId()) {
+      throw new InvalidWorkerStateException(ExceptionMessage.LOCK_ID_FOR_DIFFERENT_SESSION,
+          lockId, record.getSessionId(), sessionId);
+    }
+    if (blockId != record.getBlockId()) {
+      throw new InvalidWorkerStateException(ExceptionMessage.LOCK_ID_FOR_DIFFERENT_BLOCK, lockId,
+          record.getBlockId(), blockId);
     }
   }
 
@@ -266,22 +273,20 @@ public final class BlockLockManager {
    * @param sessionId the id of the session to cleanup
    */
   public void cleanupSession(long sessionId) {
-    synchronized (mSharedMapsLock) {
-      Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
-      if (sessionLockIds == null) {
-        return;
-      }
-      for (long lockId : sessionLockIds) {
-        LockRecord record = mLockIdToRecordMap.get(lockId);
-        if (record == null) {
-          LOG.error(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID.getMessage(lockId));
-          continue;
-        }
-        Lock lock = record.getLock();
-        unlock(lock, record.getBlockId());
-        mLockIdToRecordMap.remove(lockId);
+    Set<Long> sessionLockIds;
+    synchronized (sessionStripe(sessionId)) {
+      sessionLockIds = mSessionIdToLockIdsMap.remove(sessionId);
+    }
+    if (sessionLockIds == null) {
+      return;
+    }
+    for (long lockId : sessionLockIds) {
+      LockRecord record = mLockIdToRecordMap.remove(lockId);
+      if (record == null) {
+        // The lock was released concurrently.
+        continue;
       }
-      mSessionIdToLockIdsMap.remove(sessionId);
+      unlock(record.getLock(), record.getBlockId());
     }
   }
 
@@ -291,12 +296,30 @@ public final class BlockLockManager {
    * @return a set of locked blocks
    */
   public Set<Long> getLockedBlocks() {
-    synchronized (mSharedMapsLock) {
-      Set<Long> set = new HashSet<>();
-      for (LockRecord lockRecord : mLockIdToRecordMap.values()) {
-        set.add(lockRecord.getBlockId());
+    Set<Long> set = new HashSet<>();
+    for (LockRecord lockRecord : mLockIdToRecordMap.values()) {
+      set.add(lockRecord.getBlockId());
+    }
+    return set;
+  }
+
+  /**
+   * Removes a lock id from the lock ids of a session.
+   *
+   * @param sessionId the session id
+   * @param lockId the lock id to remove
+   */
+  private void removeSessionLockId(long sessionId, long lockId) {
+    synchronized (sessionStripe(sessionId)) {
+      Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
+      if (sessionLockIds == null) {
+        // The session was cleaned up concurrently.
+        return;
+      }
+      sessionLockIds.remove(lockId);
+      if (sessionLockIds.isEmpty()) {
+        mSessionIdToLockIdsMap.remove(sessionId);
       }
-      return set;
     }
   }
 
@@ -319,57 +342,85 @@ public final class BlockLockManager {
    * @param blockId the block id for which to potentially release the block lock
    */
   private void releaseBlockLockIfUnused(long blockId) {
-    synchronized (mSharedMapsLock) {
-      ClientRWLock lock = mLocks.get(blockId);
+    ClientRWLock lock;
+    synchronized (blockStripe(blockId)) {
+      lock = mLocks.get(blockId);
       if (lock == null) {
         // Someone else probably released the block lock already.
         return;
       }
       // If we were the last worker with a reference to the lock, clean it up.
-      if (lock.dropReference() == 0) {
-        mLocks.remove(blockId);
-        mLockPool.release(lock);
+      if (lock.dropReference() != 0) {
+        return;
       }
+      mLocks.remove(blockId);
+    }
+    mLockPool.release(lock);
+  }
+
+  /**
+   * @param blockId the block id
+   * @return the monitor guarding the block lock of the block id
+   */
+  private Object blockStripe(long blockId) {
+    return mBlockStripes[stripeIndex(blockId)];
+  }
+
+  /**
+   * @param sessionId the session id
+   * @return the monitor guarding the lock ids of the session
+   */
+  private Object sessionStripe(long sessionId) {
+    return mSessionStripes[stripeIndex(sessionId)];
+  }
+
+  private static int stripeIndex(long id) {
+    return (int) (id ^ (id >>> 32)) & (NUM_STRIPES - 1);
+  }
+
+  private static Object[] createStripes() {
+    Object[] stripes = new Object[NUM_STRIPES];
+    for (int i = 0; i < NUM_STRIPES; i++) {
+      stripes[i] = new Object();
     }
+    return stripes;
   }
 
   /**
    * Checks the internal state of the manager to make sure invariants hold.
    *
-   * This method is intended for testing purposes. A runtime exception will be thrown if invalid
-   * state is encountered.
+   * This method is intended for testing purposes, and must not be called concurrently with the
+   * other methods. A runtime exception will be thrown if invalid state is encountered.
    */
   public void validate() {
-    synchronized (mSharedMapsLock) {
-      // Compute block lock reference counts based off of lock records
-      ConcurrentMap<Long, AtomicInteger> blockLockReferenceCounts = new ConcurrentHashMapV8<>();
-      for (LockRecord record : mLockIdToRecordMap.values()) {
-        blockLockReferenceCounts.putIfAbsent(record.getBlockId(), new AtomicInteger(0));
-        blockLockReferenceCounts.get(record.getBlockId()).incrementAndGet();
-      }
+    // Compute block lock reference counts based off of lock records
+    ConcurrentMap<Long, AtomicInteger> blockLockReferenceCounts = new ConcurrentHashMapV8<>();
+    for (LockRecord record : mLockIdToRecordMap.values()) {
+      blockLockReferenceCounts.putIfAbsent(record.getBlockId(), new AtomicInteger(0));
+      blockLockReferenceCounts.get(record.getBlockId()).incrementAndGet();
+    }
 
-      // Check that the reference count for each block lock matches the lock record counts.
-      for (Entry<Long, ClientRWLock> entry : mLocks.entrySet()) {
-        long blockId = entry.getKey();
-        ClientRWLock lock = entry.getValue();
-        Integer recordCount = blockLockReferenceCounts.get(blockId).get();
-        Integer referenceCount = lock.getReferenceCount();
-        if (!Objects.equal(recordCount, referenceCount)) {
-          throw new IllegalStateException("There are " + recordCount + " lock records for block"
-              + " id " + blockId + ", but the reference count is " + referenceCount);
-        }
+    // Check that the reference count for each block lock matches the lock record counts.
+    for (Entry<Long, ClientRWLock> entry : mLocks.entrySet()) {
+      long blockId = entry.getKey();
+      ClientRWLock lock = entry.getValue();
+      Integer recordCount = blockLockReferenceCounts.get(blockId).get();
+      Integer referenceCount = lock.getReferenceCount();
+      if (!Objects.equal(recordCount, referenceCount)) {
+        throw new IllegalStateException("There are " + recordCount + " lock records for block"
+            + " id " + blockId + ", but the reference count is " + referenceCount);
       }
+    }
 
-      // Check that if a lock id is mapped to by a session id, the lock record for that lock id
-      // contains that session id.
-      for (Entry<Long, Set<Long>> entry : mSessionIdToLockIdsMap.entrySet()) {
-        for (Long lockId : entry.getValue()) {
-          LockRecord record = mLockIdToRecordMap.get(lockId);
-          if (record.getSessionId() != entry.getKey()) {
-            throw new IllegalStateException("The session id map contains lock id " + lockId
-                + "under session id " + entry.getKey() + ", but the record for that lock id ("
-                + record + ")" + " doesn't contain that session id");
-          }
+    // Check that if a lock id is mapped to by a session id, the lock record for that lock id
+    // contains that session id.
+    for (Entry<Long, Set<Long>> entry : mSessionIdToLockIdsMap.entrySet()) {
+      for (Long lockId : entry.getValue()) {
+        LockRecord record = mLockIdToRecordMap.get(lockId);
+        if (record.getSessionId() != entry.getKey()) {
+          throw new IllegalStateException("The session id map contains lock id " + lockId
+              + "under session id " + entry.getKey() + ", but the record for that lock id ("
+              + record + ")" + " doesn't contain that session id");
         }
       }
     }
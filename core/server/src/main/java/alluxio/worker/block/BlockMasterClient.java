@@ -12,9 +12,12 @@
 package alluxio.worker.block;
 
 import alluxio.AbstractMasterClient;
+import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.PropertyKey;
 import alluxio.exception.AlluxioException;
 import alluxio.exception.ConnectionFailedException;
+import alluxio.master.block.BlockIdsCodec;
 import alluxio.thrift.AlluxioService;
 import alluxio.thrift.AlluxioTException;
 import alluxio.thrift.BlockMasterWorkerService;
@@ -42,6 +45,9 @@ import javax.annotation.concurrent.ThreadSafe;
 public final class BlockMasterClient extends AbstractMasterClient {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
   private BlockMasterWorkerService.Client mClient = null;
+  /** Whether to compress the block ids reported to the master. */
+  private final boolean mCompress =
+      Configuration.getBoolean(PropertyKey.WORKER_BLOCK_HEARTBEAT_REPORT_COMPRESSION_ENABLED);
 
   /**
    * Creates a new instance of {@link BlockMasterClient} for the worker.
@@ -132,7 +138,9 @@ public final class BlockMasterClient extends AbstractMasterClient {
     return retryRPC(new RpcCallable<Command>() {
       @Override
       public Command call() throws TException {
-        return mClient.heartbeat(workerId, usedBytesOnTiers, removedBlocks, addedBlocks);
+        return mClient.heartbeat(workerId, usedBytesOnTiers,
+            BlockIdsCodec.encode(removedBlocks, mCompress),
+            BlockIdsCodec.encodeTiers(addedBlocks, mCompress));
       }
     });
   }
@@ -156,7 +164,7 @@ public final class BlockMasterClient extends AbstractMasterClient {
       @Override
       public Void call() throws AlluxioTException, TException {
         mClient.registerWorker(workerId, storageTierAliases, totalBytesOnTiers, usedBytesOnTiers,
-            currentBlocksOnTiers);
+            BlockIdsCodec.encodeTiers(currentBlocksOnTiers, mCompress));
         return null;
       }
     });
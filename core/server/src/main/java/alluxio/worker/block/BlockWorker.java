@@ -275,6 +275,14 @@ public interface BlockWorker extends Worker {
   BlockReader readBlockRemote(long sessionId, long blockId, long lockId)
       throws BlockDoesNotExistException, InvalidWorkerStateException, IOException;
 
+  /**
+   * Registers a listener for the events of the block store, e.g. to drop the state kept for a
+   * block when the block is removed or evicted.
+   *
+   * @param listener the listener to register
+   */
+  void registerBlockStoreEventListener(BlockStoreEventListener listener);
+
   /**
    * Frees a block from Alluxio managed space.
    *
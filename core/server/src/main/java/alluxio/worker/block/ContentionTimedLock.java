@@ -0,0 +1,78 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.block;
+
+import com.codahale.metrics.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link Lock} which records how long {@link #lock()} waits when the lock is contended. Locks
+ * acquired without waiting are not recorded, so the count of the timer is the number of contended
+ * acquisitions.
+ */
+@ThreadSafe
+final class ContentionTimedLock implements Lock {
+  private final Lock mLock;
+  private final Timer mWaitTimer;
+
+  /**
+   * @param lock the lock to delegate to
+   * @param waitTimer the timer recording the waits for the lock
+   */
+  ContentionTimedLock(Lock lock, Timer waitTimer) {
+    mLock = lock;
+    mWaitTimer = waitTimer;
+  }
+
+  @Override
+  public void lock() {
+    if (mLock.tryLock()) {
+      return;
+    }
+    Timer.Context context = mWaitTimer.time();
+    try {
+      mLock.lock();
+    } finally {
+      context.stop();
+    }
+  }
+
+  @Override
+  public void lockInterruptibly() throws InterruptedException {
+    mLock.lockInterruptibly();
+  }
+
+  @Override
+  public boolean tryLock() {
+    return mLock.tryLock();
+  }
+
+  @Override
+  public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+    return mLock.tryLock(time, unit);
+  }
+
+  @Override
+  public void unlock() {
+    mLock.unlock();
+  }
+
+  @Override
+  public Condition newCondition() {
+    return mLock.newCondition();
+  }
+}
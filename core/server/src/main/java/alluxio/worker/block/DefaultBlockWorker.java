@@ -383,6 +383,11 @@ public final class DefaultBlockWorker extends AbstractWorker implements BlockWor
     return mBlockStore.getBlockReader(sessionId, blockId, lockId);
   }
 
+  @Override
+  public void registerBlockStoreEventListener(BlockStoreEventListener listener) {
+    mBlockStore.registerBlockStoreEventListener(listener);
+  }
+
   @Override
   public void removeBlock(long sessionId, long blockId)
       throws InvalidWorkerStateException, BlockDoesNotExistException, IOException {
@@ -22,6 +22,7 @@ import alluxio.exception.BlockDoesNotExistException;
 import alluxio.exception.ExceptionMessage;
 import alluxio.exception.InvalidWorkerStateException;
 import alluxio.exception.WorkerOutOfSpaceException;
+import alluxio.metrics.MetricsSystem;
 import alluxio.resource.LockResource;
 import alluxio.util.io.FileUtils;
 import alluxio.worker.block.allocator.Allocator;
@@ -36,6 +37,7 @@ import alluxio.worker.block.meta.BlockMeta;
 import alluxio.worker.block.meta.StorageDirView;
 import alluxio.worker.block.meta.TempBlockMeta;
 
+import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
 import org.slf4j.Logger;
@@ -55,6 +57,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * This class represents an object store that manages all the blocks in the local tiered storage.
@@ -70,9 +73,14 @@ import javax.annotation.concurrent.NotThreadSafe;
  * read/write lock, guarding both the metadata operations and the following I/O on this block. It
  * coordinates different threads (clients) when accessing the same block concurrently.</li>
  * <li>Any metadata operation (read or write) must go through {@link TieredBlockStore#mMetaManager}
- * and guarded by {@link TieredBlockStore#mMetadataLock}. This is also a read/write lock and
- * coordinates different threads (clients) when accessing the shared data structure for metadata.
- * </li>
+ * and is guarded by the metadata locks, which coordinate different threads (clients) when
+ * accessing the shared data structure for metadata. The metadata of a block is guarded by one of
+ * the {@link TieredBlockStore#mBlockMetadataLocks}, chosen by the block id, so that operations on
+ * different blocks do not wait for each other. Operations which allocate space or look at the
+ * whole store take the write lock of {@link TieredBlockStore#mMetadataLock}, while operations
+ * which change the metadata of a single block take its read lock first. These locks are always
+ * acquired in this order, and reading the metadata of a single block only takes its block
+ * metadata lock, so it is never blocked by allocation or eviction.</li>
  * <li>Method {@link #createBlockMeta} does not acquire the block lock, because it only creates a
  * temp block which is only visible to its writer before committed (thus no concurrent access).</li>
  * <li>Eviction is done in {@link #freeSpaceInternal} and it is on the basis of best effort. For
@@ -84,6 +92,8 @@ public final class TieredBlockStore implements BlockStore {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
   private static final int MAX_RETRIES =
           Configuration.getInt(PropertyKey.WORKER_TIERED_STORE_RETRY);
+  /** The number of locks guarding the metadata of blocks, which must be a power of 2. */
+  private static final int NUM_BLOCK_METADATA_LOCKS = 256;
 
   private final BlockMetadataManager mMetaManager;
   private final BlockLockManager mLockManager;
@@ -95,14 +105,26 @@ public final class TieredBlockStore implements BlockStore {
   /** A set of pinned inodes fetched from the master. */
   private final Set<Long> mPinnedInodes = new HashSet<>();
 
-  /** Lock to guard metadata operations. */
+  /** Lock to guard metadata operations on the whole store. */
   private final ReentrantReadWriteLock mMetadataLock = new ReentrantReadWriteLock();
 
-  /** ReadLock provided by {@link #mMetadataLock} to guard metadata read operations. */
-  private final Lock mMetadataReadLock = mMetadataLock.readLock();
+  /** ReadLock provided by {@link #mMetadataLock} to guard changes to the metadata of a block. */
+  private final Lock mMetadataReadLock =
+      new ContentionTimedLock(mMetadataLock.readLock(), Metrics.STORE_METADATA_LOCK_WAIT);
 
-  /** WriteLock provided by {@link #mMetadataLock} to guard metadata write operations. */
-  private final Lock mMetadataWriteLock = mMetadataLock.writeLock();
+  /** WriteLock provided by {@link #mMetadataLock} to guard allocation and store-wide reads. */
+  private final Lock mMetadataWriteLock =
+      new ContentionTimedLock(mMetadataLock.writeLock(), Metrics.STORE_METADATA_LOCK_WAIT);
+
+  /** Locks to guard the metadata of blocks, indexed by {@link #blockMetadataLockIndex(long)}. */
+  private final ReentrantReadWriteLock[] mBlockMetadataLocks =
+      new ReentrantReadWriteLock[NUM_BLOCK_METADATA_LOCKS];
+
+  /** ReadLocks provided by {@link #mBlockMetadataLocks}. */
+  private final Lock[] mBlockMetadataReadLocks = new Lock[NUM_BLOCK_METADATA_LOCKS];
+
+  /** WriteLocks provided by {@link #mBlockMetadataLocks}. */
+  private final Lock[] mBlockMetadataWriteLocks = new Lock[NUM_BLOCK_METADATA_LOCKS];
 
   /** Association between storage tier aliases and ordinals. */
   private final StorageTierAssoc mStorageTierAssoc;
@@ -111,6 +133,13 @@ public final class TieredBlockStore implements BlockStore {
    * Creates a new instance of {@link TieredBlockStore}.
    */
   public TieredBlockStore() {
+    for (int i = 0; i < NUM_BLOCK_METADATA_LOCKS; i++) {
+      mBlockMetadataLocks[i] = new ReentrantReadWriteLock();
+      mBlockMetadataReadLocks[i] = new ContentionTimedLock(mBlockMetadataLocks[i].readLock(),
+          Metrics.BLOCK_METADATA_LOCK_WAIT);
+      mBlockMetadataWriteLocks[i] = new ContentionTimedLock(mBlockMetadataLocks[i].writeLock(),
+          Metrics.BLOCK_METADATA_LOCK_WAIT);
+    }
     mMetaManager = BlockMetadataManager.createBlockMetadataManager();
     mLockManager = new BlockLockManager();
 
@@ -135,7 +164,7 @@ public final class TieredBlockStore implements BlockStore {
   public long lockBlock(long sessionId, long blockId) throws BlockDoesNotExistException {
     long lockId = mLockManager.lockBlock(sessionId, blockId, BlockLockType.READ);
     boolean hasBlock;
-    try (LockResource r = new LockResource(mMetadataReadLock)) {
+    try (LockResource r = new LockResource(blockMetadataReadLock(blockId))) {
       hasBlock = mMetaManager.hasBlockMeta(blockId);
     }
     if (hasBlock) {
@@ -162,7 +191,7 @@ public final class TieredBlockStore implements BlockStore {
     // NOTE: a temp block is supposed to only be visible by its own writer, unnecessary to acquire
     // block lock here since no sharing
     // TODO(bin): Handle the case where multiple writers compete for the same block.
-    try (LockResource r = new LockResource(mMetadataReadLock)) {
+    try (LockResource r = new LockResource(blockMetadataReadLock(blockId))) {
       TempBlockMeta tempBlockMeta = mMetaManager.getTempBlockMeta(blockId);
       return new LocalFileBlockWriter(tempBlockMeta.getPath());
     }
@@ -172,7 +201,7 @@ public final class TieredBlockStore implements BlockStore {
   public BlockReader getBlockReader(long sessionId, long blockId, long lockId)
       throws BlockDoesNotExistException, InvalidWorkerStateException, IOException {
     mLockManager.validateLock(sessionId, blockId, lockId);
-    try (LockResource r = new LockResource(mMetadataReadLock)) {
+    try (LockResource r = new LockResource(blockMetadataReadLock(blockId))) {
       BlockMeta blockMeta = mMetaManager.getBlockMeta(blockId);
       return new LocalFileBlockReader(blockMeta.getPath());
     }
@@ -204,7 +233,7 @@ public final class TieredBlockStore implements BlockStore {
   // TODO(bin): Make this method to return a snapshot.
   @Override
   public BlockMeta getVolatileBlockMeta(long blockId) throws BlockDoesNotExistException {
-    try (LockResource r = new LockResource(mMetadataReadLock)) {
+    try (LockResource r = new LockResource(blockMetadataReadLock(blockId))) {
       return mMetaManager.getBlockMeta(blockId);
     }
   }
@@ -213,7 +242,7 @@ public final class TieredBlockStore implements BlockStore {
   public BlockMeta getBlockMeta(long sessionId, long blockId, long lockId)
       throws BlockDoesNotExistException, InvalidWorkerStateException {
     mLockManager.validateLock(sessionId, blockId, lockId);
-    try (LockResource r = new LockResource(mMetadataReadLock)) {
+    try (LockResource r = new LockResource(blockMetadataReadLock(blockId))) {
       return mMetaManager.getBlockMeta(blockId);
     }
   }
@@ -308,7 +337,7 @@ public final class TieredBlockStore implements BlockStore {
   @Override
   public void accessBlock(long sessionId, long blockId) throws BlockDoesNotExistException {
     boolean hasBlock;
-    try (LockResource r = new LockResource(mMetadataReadLock)) {
+    try (LockResource r = new LockResource(blockMetadataReadLock(blockId))) {
       hasBlock = mMetaManager.hasBlockMeta(blockId);
     }
     if (!hasBlock) {
@@ -350,7 +379,7 @@ public final class TieredBlockStore implements BlockStore {
 
   @Override
   public boolean hasBlockMeta(long blockId) {
-    try (LockResource r = new LockResource(mMetadataReadLock)) {
+    try (LockResource r = new LockResource(blockMetadataReadLock(blockId))) {
       return mMetaManager.hasBlockMeta(blockId);
     }
   }
@@ -381,8 +410,8 @@ public final class TieredBlockStore implements BlockStore {
   }
 
   /**
-   * Checks if a block id is available for a new temp block. This method must be enclosed by
-   * {@link #mMetadataLock}.
+   * Checks if a block id is available for a new temp block. This method must be enclosed by the
+   * block metadata lock of the block.
    *
    * @param blockId the id of block
    * @throws BlockAlreadyExistsException if block id already exists
@@ -398,7 +427,7 @@ public final class TieredBlockStore implements BlockStore {
 
   /**
    * Checks if block id is a temporary block and owned by session id. This method must be enclosed
-   * by {@link #mMetadataLock}.
+   * by the block metadata lock of the block.
    *
    * @param sessionId the id of session
    * @param blockId the id of block
@@ -435,7 +464,7 @@ public final class TieredBlockStore implements BlockStore {
     try {
       String path;
       TempBlockMeta tempBlockMeta;
-      try (LockResource r = new LockResource(mMetadataReadLock)) {
+      try (LockResource r = new LockResource(blockMetadataReadLock(blockId))) {
         checkTempBlockOwnedBySession(sessionId, blockId);
         tempBlockMeta = mMetaManager.getTempBlockMeta(blockId);
         path = tempBlockMeta.getPath();
@@ -444,7 +473,8 @@ public final class TieredBlockStore implements BlockStore {
       // Heavy IO is guarded by block lock but not metadata lock. This may throw IOException.
       Files.delete(Paths.get(path));
 
-      try (LockResource r = new LockResource(mMetadataWriteLock)) {
+      try (LockResource r = new LockResource(mMetadataReadLock);
+          LockResource r2 = new LockResource(blockMetadataWriteLock(blockId))) {
         mMetaManager.abortTempBlockMeta(tempBlockMeta);
       } catch (BlockDoesNotExistException e) {
         throw Throwables.propagate(e); // We shall never reach here
@@ -477,7 +507,7 @@ public final class TieredBlockStore implements BlockStore {
       String srcPath;
       String dstPath;
       TempBlockMeta tempBlockMeta;
-      try (LockResource r = new LockResource(mMetadataReadLock)) {
+      try (LockResource r = new LockResource(blockMetadataReadLock(blockId))) {
         checkTempBlockOwnedBySession(sessionId, blockId);
         tempBlockMeta = mMetaManager.getTempBlockMeta(blockId);
         srcPath = tempBlockMeta.getPath();
@@ -488,7 +518,8 @@ public final class TieredBlockStore implements BlockStore {
       // Heavy IO is guarded by block lock but not metadata lock. This may throw IOException.
       FileUtils.move(srcPath, dstPath);
 
-      try (LockResource r = new LockResource(mMetadataWriteLock)) {
+      try (LockResource r = new LockResource(mMetadataReadLock);
+          LockResource r2 = new LockResource(blockMetadataWriteLock(blockId))) {
         mMetaManager.commitTempBlockMeta(tempBlockMeta);
       } catch (BlockAlreadyExistsException | BlockDoesNotExistException
           | WorkerOutOfSpaceException e) {
@@ -518,7 +549,8 @@ public final class TieredBlockStore implements BlockStore {
           throws BlockAlreadyExistsException {
     // NOTE: a temp block is supposed to be visible for its own writer, unnecessary to acquire
     // block lock here since no sharing
-    try (LockResource r = new LockResource(mMetadataWriteLock)) {
+    try (LockResource r = new LockResource(mMetadataWriteLock);
+        LockResource r2 = new LockResource(blockMetadataWriteLock(blockId))) {
       if (newBlock) {
         checkTempBlockIdAvailable(blockId);
       }
@@ -559,7 +591,8 @@ public final class TieredBlockStore implements BlockStore {
       throws BlockDoesNotExistException {
     // NOTE: a temp block is supposed to be visible for its own writer, unnecessary to acquire
     // block lock here since no sharing
-    try (LockResource r = new LockResource(mMetadataWriteLock)) {
+    try (LockResource r = new LockResource(mMetadataWriteLock);
+        LockResource r2 = new LockResource(blockMetadataWriteLock(blockId))) {
       TempBlockMeta tempBlockMeta = mMetaManager.getTempBlockMeta(blockId);
       if (tempBlockMeta.getParentDir().getAvailableBytes() < additionalBytes) {
         return new Pair<>(false, tempBlockMeta.getBlockLocation());
@@ -588,7 +621,8 @@ public final class TieredBlockStore implements BlockStore {
   private void freeSpaceInternal(long sessionId, long availableBytes, BlockStoreLocation location)
       throws WorkerOutOfSpaceException, IOException {
     EvictionPlan plan;
-    try (LockResource r = new LockResource(mMetadataReadLock)) {
+    // The plan is made on a stable view of the whole store.
+    try (LockResource r = new LockResource(mMetadataWriteLock)) {
       plan = mEvictor.freeSpaceWithView(availableBytes, location, getUpdatedView());
       // Absent plan means failed to evict enough space.
       if (plan == null) {
@@ -701,7 +735,7 @@ public final class TieredBlockStore implements BlockStore {
       BlockStoreLocation srcLocation;
       BlockStoreLocation dstLocation;
 
-      try (LockResource r = new LockResource(mMetadataReadLock)) {
+      try (LockResource r = new LockResource(blockMetadataReadLock(blockId))) {
         if (mMetaManager.hasTempBlockMeta(blockId)) {
           throw new InvalidWorkerStateException(ExceptionMessage.MOVE_UNCOMMITTED_BLOCK, blockId);
         }
@@ -729,7 +763,10 @@ public final class TieredBlockStore implements BlockStore {
       // When the dstLocation belongs to srcLocation, simply abort the tempBlockMeta just created
       // internally from the newLocation and return success with specific block location.
       if (dstLocation.belongsTo(srcLocation)) {
-        mMetaManager.abortTempBlockMeta(dstTempBlock);
+        try (LockResource r = new LockResource(mMetadataReadLock);
+            LockResource r2 = new LockResource(blockMetadataWriteLock(blockId))) {
+          mMetaManager.abortTempBlockMeta(dstTempBlock);
+        }
         return new MoveBlockResult(true, blockSize, srcLocation, dstLocation);
       }
       dstFilePath = dstTempBlock.getCommitPath();
@@ -737,7 +774,8 @@ public final class TieredBlockStore implements BlockStore {
       // Heavy IO is guarded by block lock but not metadata lock. This may throw IOException.
       FileUtils.move(srcFilePath, dstFilePath);
 
-      try (LockResource r = new LockResource(mMetadataWriteLock)) {
+      try (LockResource r = new LockResource(mMetadataReadLock);
+          LockResource r2 = new LockResource(blockMetadataWriteLock(blockId))) {
         // If this metadata update fails, we panic for now.
         // TODO(bin): Implement rollback scheme to recover from IO failures.
         mMetaManager.moveBlockMeta(srcBlockMeta, dstTempBlock);
@@ -770,7 +808,7 @@ public final class TieredBlockStore implements BlockStore {
     try {
       String filePath;
       BlockMeta blockMeta;
-      try (LockResource r = new LockResource(mMetadataReadLock)) {
+      try (LockResource r = new LockResource(blockMetadataReadLock(blockId))) {
         if (mMetaManager.hasTempBlockMeta(blockId)) {
           throw new InvalidWorkerStateException(ExceptionMessage.REMOVE_UNCOMMITTED_BLOCK, blockId);
         }
@@ -785,7 +823,8 @@ public final class TieredBlockStore implements BlockStore {
       // Heavy IO is guarded by block lock but not metadata lock. This may throw IOException.
       Files.delete(Paths.get(filePath));
 
-      try (LockResource r = new LockResource(mMetadataWriteLock)) {
+      try (LockResource r = new LockResource(mMetadataReadLock);
+          LockResource r2 = new LockResource(blockMetadataWriteLock(blockId))) {
         mMetaManager.removeBlockMeta(blockMeta);
       } catch (BlockDoesNotExistException e) {
         throw Throwables.propagate(e); // we shall never reach here
@@ -795,6 +834,30 @@ public final class TieredBlockStore implements BlockStore {
     }
   }
 
+  /**
+   * @param blockId the id of a block
+   * @return the index of the lock guarding the metadata of the block
+   */
+  private static int blockMetadataLockIndex(long blockId) {
+    return (int) (blockId ^ (blockId >>> 32)) & (NUM_BLOCK_METADATA_LOCKS - 1);
+  }
+
+  /**
+   * @param blockId the id of a block
+   * @return the read lock guarding the metadata of the block
+   */
+  private Lock blockMetadataReadLock(long blockId) {
+    return mBlockMetadataReadLocks[blockMetadataLockIndex(blockId)];
+  }
+
+  /**
+   * @param blockId the id of a block
+   * @return the write lock guarding the metadata of the block
+   */
+  private Lock blockMetadataWriteLock(long blockId) {
+    return mBlockMetadataWriteLocks[blockMetadataLockIndex(blockId)];
+  }
+
   /**
    * Updates the pinned blocks.
    *
@@ -865,4 +928,19 @@ public final class TieredBlockStore implements BlockStore {
       return mDstLocation;
     }
   }
+
+  /**
+   * Class that contains metrics about {@link TieredBlockStore}.
+   */
+  @ThreadSafe
+  private static final class Metrics {
+    /** The time spent waiting for {@link #mMetadataLock} when it is contended. */
+    private static final Timer STORE_METADATA_LOCK_WAIT =
+        MetricsSystem.workerTimer("StoreMetadataLockWait");
+    /** The time spent waiting for {@link #mBlockMetadataLocks} when they are contended. */
+    private static final Timer BLOCK_METADATA_LOCK_WAIT =
+        MetricsSystem.workerTimer("BlockMetadataLockWait");
+
+    private Metrics() {} // prevent instantiation
+  }
 }
@@ -12,6 +12,7 @@
 package alluxio.worker.block.meta;
 
 import alluxio.Constants;
+import alluxio.collections.ConcurrentHashSet;
 import alluxio.exception.BlockAlreadyExistsException;
 import alluxio.exception.BlockDoesNotExistException;
 import alluxio.exception.ExceptionMessage;
@@ -21,7 +22,6 @@ import alluxio.util.io.FileUtils;
 import alluxio.worker.block.BlockStoreLocation;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,10 +29,10 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -40,17 +40,20 @@ import javax.annotation.concurrent.NotThreadSafe;
 /**
  * Represents a directory in a storage tier. It has a fixed capacity allocated to it on
  * instantiation. It contains the set of blocks currently in the storage directory.
+ *
+ * The metadata of different blocks may be changed concurrently, but the metadata of a block must
+ * not be changed concurrently with other changes to it, or with additions of blocks.
  */
 @NotThreadSafe
 public final class StorageDir {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
   private final long mCapacityBytes;
   /** A map from block id to block metadata. */
-  private Map<Long, BlockMeta> mBlockIdToBlockMap;
+  private ConcurrentMap<Long, BlockMeta> mBlockIdToBlockMap;
   /** A map from block id to temp block metadata. */
-  private Map<Long, TempBlockMeta> mBlockIdToTempBlockMap;
+  private ConcurrentMap<Long, TempBlockMeta> mBlockIdToTempBlockMap;
   /** A map from session id to the set of temp blocks created by this session. */
-  private Map<Long, Set<Long>> mSessionIdToTempBlockIdsMap;
+  private ConcurrentMap<Long, Set<Long>> mSessionIdToTempBlockIdsMap;
   private AtomicLong mAvailableBytes;
   private AtomicLong mCommittedBytes;
   private String mDirPath;
@@ -64,9 +67,9 @@ public final class StorageDir {
     mAvailableBytes = new AtomicLong(capacityBytes);
     mCommittedBytes = new AtomicLong(0);
     mDirPath = dirPath;
-    mBlockIdToBlockMap = new HashMap<>(200);
-    mBlockIdToTempBlockMap = new HashMap<>(200);
-    mSessionIdToTempBlockIdsMap = new HashMap<>(200);
+    mBlockIdToBlockMap = new ConcurrentHashMap<>(200);
+    mBlockIdToTempBlockMap = new ConcurrentHashMap<>(200);
+    mSessionIdToTempBlockIdsMap = new ConcurrentHashMap<>(200);
   }
 
   /**
@@ -314,10 +317,10 @@ public final class StorageDir {
     mBlockIdToTempBlockMap.put(blockId, tempBlockMeta);
     Set<Long> sessionTempBlocks = mSessionIdToTempBlockIdsMap.get(sessionId);
     if (sessionTempBlocks == null) {
-      mSessionIdToTempBlockIdsMap.put(sessionId, Sets.newHashSet(blockId));
-    } else {
-      sessionTempBlocks.add(blockId);
+      sessionTempBlocks = new ConcurrentHashSet<>();
+      mSessionIdToTempBlockIdsMap.put(sessionId, sessionTempBlocks);
     }
+    sessionTempBlocks.add(blockId);
     reserveSpace(blockSize, false);
   }
 
@@ -358,7 +361,7 @@ public final class StorageDir {
     }
     Preconditions.checkState(sessionBlocks.remove(blockId));
     if (sessionBlocks.isEmpty()) {
-      mSessionIdToTempBlockIdsMap.remove(sessionId);
+      mSessionIdToTempBlockIdsMap.remove(sessionId, sessionBlocks);
     }
     reclaimSpace(tempBlockMeta.getBlockSize(), false);
   }
@@ -432,7 +435,11 @@ public final class StorageDir {
     }
     List<TempBlockMeta> sessionTempBlocks = new ArrayList<>();
     for (long blockId : sessionTempBlockIds) {
-      sessionTempBlocks.add(mBlockIdToTempBlockMap.get(blockId));
+      TempBlockMeta tempBlockMeta = mBlockIdToTempBlockMap.get(blockId);
+      // The temp block may be committed or aborted concurrently.
+      if (tempBlockMeta != null) {
+        sessionTempBlocks.add(tempBlockMeta);
+      }
     }
     return sessionTempBlocks;
   }
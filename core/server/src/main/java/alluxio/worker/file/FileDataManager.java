@@ -16,11 +16,17 @@ import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.PropertyKey;
 import alluxio.Sessions;
+import alluxio.client.ReadType;
+import alluxio.client.block.AlluxioBlockStore;
+import alluxio.client.block.BufferedBlockInStream;
+import alluxio.client.file.options.InStreamOptions;
 import alluxio.exception.BlockDoesNotExistException;
 import alluxio.exception.InvalidWorkerStateException;
+import alluxio.metrics.MetricsSystem;
 import alluxio.security.authorization.Permission;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
+import alluxio.util.CommonUtils;
 import alluxio.util.io.BufferUtils;
 import alluxio.util.io.PathUtils;
 import alluxio.wire.FileInfo;
@@ -28,6 +34,8 @@ import alluxio.worker.block.BlockWorker;
 import alluxio.worker.block.io.BlockReader;
 import alluxio.worker.block.meta.BlockMeta;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.RateLimiter;
@@ -50,23 +58,42 @@ import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
- * Responsible for storing files into under file system.
+ * Responsible for storing files into under file system. The blocks of a file which are not stored
+ * by this worker are read from the workers storing them.
+ *
+ * A file whose blocks are stored by several workers may be persisted in parts instead, each of
+ * which is written by a worker storing its blocks into a file next to the persisted file. The
+ * worker persisting the first part joins the parts into the persisted file with
+ * {@link UnderFileSystem#concat(String, List)} once all of them are written.
  */
 @NotThreadSafe // TODO(jiri): make thread-safe (c.f. ALLUXIO-1624)
 public final class FileDataManager {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
 
+  /** The format of the suffix of the files the parts of a file are persisted into. */
+  private static final String PART_SUFFIX_FORMAT = ".alluxio.0x%016X.part%d";
+
+  /** The interval at which the parts persisted by other workers are checked. */
+  private static final long PARTS_CHECK_INTERVAL_MS = Constants.SECOND_MS;
+
   private final UnderFileSystem mUfs;
 
   /** Block worker handler for access block info. */
   private final BlockWorker mBlockWorker;
 
+  /** Client to read the blocks stored by other workers. */
+  private final AlluxioBlockStore mBlockStore;
+
   /** The files being persisted, keyed by fileId,
    * and the inner map tracks the block id to lock id. */
   @GuardedBy("mLock")
   // the file being persisted,
   private final Map<Long, Map<Long, Long>> mPersistingInProgressFiles;
 
+  /** The blocks of the files being persisted which are stored by other workers, keyed by fileId. */
+  @GuardedBy("mLock")
+  private final Map<Long, Set<Long>> mPersistingRemoteBlocks;
+
   /** The file are persisted, but not sent back to master for confirmation yet. */
   @GuardedBy("mLock")
   private final Set<Long> mPersistedFiles;
@@ -85,8 +112,23 @@ public final class FileDataManager {
    */
   public FileDataManager(BlockWorker blockWorker, UnderFileSystem ufs,
       RateLimiter persistenceRateLimiter) {
+    this(blockWorker, ufs, persistenceRateLimiter, new AlluxioBlockStore());
+  }
+
+  /**
+   * Creates a new instance of {@link FileDataManager}.
+   *
+   * @param blockWorker the block worker handle
+   * @param ufs the under file system to persist files to
+   * @param persistenceRateLimiter a per worker rate limiter to throttle async persistence
+   * @param blockStore the client to read the blocks stored by other workers
+   */
+  public FileDataManager(BlockWorker blockWorker, UnderFileSystem ufs,
+      RateLimiter persistenceRateLimiter, AlluxioBlockStore blockStore) {
     mBlockWorker = Preconditions.checkNotNull(blockWorker);
+    mBlockStore = Preconditions.checkNotNull(blockStore);
     mPersistingInProgressFiles = new HashMap<>();
+    mPersistingRemoteBlocks = new HashMap<>();
     mPersistedFiles = new HashSet<>();
     mUfs = ufs;
     mPersistenceRateLimiter = persistenceRateLimiter;
@@ -158,57 +200,54 @@ public final class FileDataManager {
    * @throws IOException an I/O exception occurs
    */
   private synchronized boolean fileExistsInUfs(long fileId) throws IOException {
-    String ufsRoot = Configuration.get(PropertyKey.UNDERFS_ADDRESS);
-    FileInfo fileInfo = mBlockWorker.getFileInfo(fileId);
-    String dstPath = PathUtils.concatPath(ufsRoot, fileInfo.getPath());
-
-    return mUfs.exists(dstPath);
+    return mUfs.exists(getUfsFilePath(fileId));
   }
 
   /**
-   * Locks all the blocks of a given file Id.
+   * Locks the blocks of a given file Id which are stored by this worker. The other blocks are read
+   * from the workers storing them when the file is persisted.
    *
    * @param fileId the id of the file
    * @param blockIds the ids of the file's blocks
-   * @throws IOException when an I/O exception occurs
+   * @throws IOException if the file is already being persisted
    */
   public void lockBlocks(long fileId, List<Long> blockIds) throws IOException {
-    Map<Long, Long> blockIdToLockId = new HashMap<>();
-    List<Throwable> errors = new ArrayList<>();
+    Set<Long> remoteBlockIds = new HashSet<>();
     synchronized (mLock) {
       if (mPersistingInProgressFiles.containsKey(fileId)) {
         throw new IOException("the file " + fileId + " is already being persisted");
       }
     }
-    try {
-      // lock all the blocks to prevent any eviction
-      for (long blockId : blockIds) {
+    Map<Long, Long> blockIdToLockId = lockLocalBlocks(fileId, blockIds, remoteBlockIds);
+    synchronized (mLock) {
+      mPersistingInProgressFiles.put(fileId, blockIdToLockId);
+      mPersistingRemoteBlocks.put(fileId, remoteBlockIds);
+    }
+  }
+
+  /**
+   * Locks the given blocks which are stored by this worker, to prevent their eviction.
+   *
+   * @param fileId the id of the file of the blocks
+   * @param blockIds the ids of the blocks
+   * @param remoteBlockIds the set to add the ids of the blocks not stored by this worker to
+   * @return the ids of the locks of the blocks stored by this worker, keyed by block id
+   */
+  private Map<Long, Long> lockLocalBlocks(long fileId, List<Long> blockIds,
+      Set<Long> remoteBlockIds) {
+    Map<Long, Long> blockIdToLockId = new HashMap<>();
+    for (long blockId : blockIds) {
+      try {
         long lockId = mBlockWorker.lockBlock(Sessions.CHECKPOINT_SESSION_ID, blockId);
         blockIdToLockId.put(blockId, lockId);
-      }
-    } catch (BlockDoesNotExistException e) {
-      errors.add(e);
-      // make sure all the locks are released
-      for (long lockId : blockIdToLockId.values()) {
-        try {
-          mBlockWorker.unlockBlock(lockId);
-        } catch (BlockDoesNotExistException bdnee) {
-          errors.add(bdnee);
-        }
-      }
-
-      if (!errors.isEmpty()) {
-        StringBuilder errorStr = new StringBuilder();
-        errorStr.append("failed to lock all blocks of file ").append(fileId).append("\n");
-        for (Throwable error : errors) {
-          errorStr.append(error).append('\n');
-        }
-        throw new IOException(errorStr.toString());
+      } catch (BlockDoesNotExistException e) {
+        remoteBlockIds.add(blockId);
       }
     }
-    synchronized (mLock) {
-      mPersistingInProgressFiles.put(fileId, blockIdToLockId);
+    if (!remoteBlockIds.isEmpty()) {
+      LOG.info("blocks {} of file {} are read from other workers", remoteBlockIds, fileId);
     }
+    return blockIdToLockId;
   }
 
   /**
@@ -220,24 +259,181 @@ public final class FileDataManager {
    */
   public void persistFile(long fileId, List<Long> blockIds) throws IOException {
     Map<Long, Long> blockIdToLockId;
+    Set<Long> remoteBlockIds;
     synchronized (mLock) {
       blockIdToLockId = mPersistingInProgressFiles.get(fileId);
-      if (blockIdToLockId == null || !blockIdToLockId.keySet().equals(new HashSet<>(blockIds))) {
+      remoteBlockIds = mPersistingRemoteBlocks.get(fileId);
+      if (blockIdToLockId == null) {
+        throw new IOException("Not all the blocks of file " + fileId + " are locked");
+      }
+      Set<Long> lockedBlockIds = new HashSet<>(blockIdToLockId.keySet());
+      lockedBlockIds.addAll(remoteBlockIds);
+      if (!lockedBlockIds.equals(new HashSet<>(blockIds))) {
         throw new IOException("Not all the blocks of file " + fileId + " are locked");
       }
     }
+    long startTimeMs = System.currentTimeMillis();
+    String dstPath = prepareUfsFilePath(fileId);
+    long bytesPersisted;
+    try {
+      bytesPersisted = writeBlocks(fileId, dstPath, blockIds, blockIdToLockId, remoteBlockIds);
+    } catch (IOException e) {
+      synchronized (mLock) {
+        mPersistingInProgressFiles.remove(fileId);
+        mPersistingRemoteBlocks.remove(fileId);
+      }
+      throw e;
+    }
+    synchronized (mLock) {
+      mPersistingInProgressFiles.remove(fileId);
+      mPersistingRemoteBlocks.remove(fileId);
+      mPersistedFiles.add(fileId);
+    }
+    long durationMs = Math.max(System.currentTimeMillis() - startTimeMs, 1);
+    Metrics.FILES_PERSISTED.inc();
+    Metrics.FILE_PERSIST_THROUGHPUT.update(bytesPersisted * Constants.SECOND_MS / durationMs);
+    LOG.info("persisted file {} of {} bytes in {} ms", fileId, bytesPersisted, durationMs);
+  }
 
+  /**
+   * Persists a part of a file which is persisted in parts by several workers. The part is written
+   * into a file next to the persisted file, and joined with the other parts by
+   * {@link #joinFileParts(long, int, long)} on the worker persisting the first part.
+   *
+   * @param fileId the id of the file
+   * @param blockIds the ids of all the blocks of the file
+   * @param partIndex the index of the part
+   * @param partStart the index of the first block of the part
+   * @param partEnd the index of the block following the part
+   * @throws IOException if the part fails to be persisted
+   */
+  public void persistFilePart(long fileId, List<Long> blockIds, int partIndex, int partStart,
+      int partEnd) throws IOException {
     String dstPath = prepareUfsFilePath(fileId);
-    // TODO(chaomin): should also propagate ancestor dirs permission to UFS.
-    FileInfo fileInfo = mBlockWorker.getFileInfo(fileId);
-    Permission perm = new Permission(fileInfo.getOwner(), fileInfo.getGroup(),
-        (short) fileInfo.getMode());
-    OutputStream outputStream = mUfs.create(dstPath, new CreateOptions().setPermission(perm));
-    final WritableByteChannel outputChannel = Channels.newChannel(outputStream);
+    String partPath = getPartPath(dstPath, fileId, partIndex);
+    List<Long> partBlockIds = blockIds.subList(partStart, partEnd);
+    Set<Long> remoteBlockIds = new HashSet<>();
+    Map<Long, Long> blockIdToLockId = lockLocalBlocks(fileId, partBlockIds, remoteBlockIds);
+    long bytesPersisted;
+    try {
+      bytesPersisted =
+          writeBlocks(fileId, partPath, partBlockIds, blockIdToLockId, remoteBlockIds);
+    } catch (IOException e) {
+      if (mUfs.exists(partPath) && !mUfs.delete(partPath, false)) {
+        LOG.warn("Failed to delete part {} of file {} at {}", partIndex, fileId, partPath);
+      }
+      throw e;
+    }
+    Metrics.FILE_PARTS_PERSISTED.inc();
+    LOG.info("persisted part {} of file {} of {} bytes at {}", partIndex, fileId, bytesPersisted,
+        partPath);
+  }
 
+  /**
+   * Joins the parts of a file persisted by several workers into the persisted file, waiting for
+   * the parts which are not persisted yet. The parts are left in the under file system if they
+   * fail to be joined, and can then be deleted with {@link #deleteFileParts(long, int)}.
+   *
+   * @param fileId the id of the file
+   * @param partCount the number of parts of the file
+   * @param startTimeMs the time at which this worker started to persist the file
+   * @return true if the file is persisted, false if not all the parts were persisted before
+   *         {@link PropertyKey#WORKER_FILE_PERSIST_PARTS_TIMEOUT_MS}, or they failed to be joined
+   * @throws IOException if the file fails to be looked up
+   */
+  public boolean joinFileParts(long fileId, int partCount, long startTimeMs) throws IOException {
+    String dstPath = getUfsFilePath(fileId);
+    List<String> partPaths = getPartPaths(dstPath, fileId, partCount);
+    long length = mBlockWorker.getFileInfo(fileId).getLength();
+    long deadlineMs = System.currentTimeMillis()
+        + Configuration.getLong(PropertyKey.WORKER_FILE_PERSIST_PARTS_TIMEOUT_MS);
+    // A part only has its full length once it is completely written, so the parts are all
+    // persisted when their lengths add up to the length of the file
+    while (getPartsLength(partPaths) != length) {
+      if (System.currentTimeMillis() >= deadlineMs || Thread.currentThread().isInterrupted()) {
+        LOG.warn("Timed out waiting for the {} parts of file {} to be persisted", partCount,
+            fileId);
+        return false;
+      }
+      CommonUtils.sleepMs(PARTS_CHECK_INTERVAL_MS);
+    }
+    try {
+      mUfs.concat(dstPath, partPaths);
+    } catch (IOException | UnsupportedOperationException e) {
+      LOG.warn("Failed to join the {} parts of file {}: {}", partCount, fileId, e.getMessage());
+      return false;
+    }
+    addPersistedFile(fileId);
+    long durationMs = Math.max(System.currentTimeMillis() - startTimeMs, 1);
+    Metrics.FILES_PERSISTED.inc();
+    Metrics.FILES_PERSISTED_IN_PARTS.inc();
+    Metrics.FILE_PERSIST_THROUGHPUT.update(length * Constants.SECOND_MS / durationMs);
+    LOG.info("persisted file {} of {} bytes in {} parts in {} ms", fileId, length, partCount,
+        durationMs);
+    return true;
+  }
+
+  /**
+   * Deletes the parts of a file persisted by several workers which are in the under file system.
+   *
+   * @param fileId the id of the file
+   * @param partCount the number of parts of the file
+   * @throws IOException if the file fails to be looked up
+   */
+  public void deleteFileParts(long fileId, int partCount) throws IOException {
+    List<String> partPaths = getPartPaths(getUfsFilePath(fileId), fileId, partCount);
+    List<String> failedPaths = mUfs.deleteFiles(partPaths);
+    if (!failedPaths.isEmpty()) {
+      LOG.warn("Failed to delete the parts {} of file {}", failedPaths, fileId);
+    }
+  }
+
+  /**
+   * @param partPaths the paths of the parts of a file
+   * @return the sum of the lengths of the parts, or -1 if a part does not exist
+   * @throws IOException if the parts fail to be looked up
+   */
+  private long getPartsLength(List<String> partPaths) throws IOException {
+    long length = 0;
+    for (String partPath : partPaths) {
+      if (!mUfs.exists(partPath)) {
+        return -1;
+      }
+      length += mUfs.getFileSize(partPath);
+    }
+    return length;
+  }
+
+  /**
+   * Writes blocks of a file into a new file of the under file system, and unlocks the blocks
+   * stored by this worker.
+   *
+   * @param fileId the id of the file of the blocks
+   * @param dstPath the path of the file to write the blocks into
+   * @param blockIds the ids of the blocks, in order
+   * @param blockIdToLockId the ids of the locks of the blocks stored by this worker
+   * @param remoteBlockIds the ids of the blocks stored by other workers
+   * @return the number of bytes written
+   * @throws IOException if the blocks fail to be written
+   */
+  private long writeBlocks(long fileId, String dstPath, List<Long> blockIds,
+      Map<Long, Long> blockIdToLockId, Set<Long> remoteBlockIds) throws IOException {
+    long bytesPersisted = 0;
+    OutputStream outputStream = null;
+    WritableByteChannel outputChannel = null;
     List<Throwable> errors = new ArrayList<>();
     try {
+      // TODO(chaomin): should also propagate ancestor dirs permission to UFS.
+      FileInfo fileInfo = mBlockWorker.getFileInfo(fileId);
+      Permission perm = new Permission(fileInfo.getOwner(), fileInfo.getGroup(),
+          (short) fileInfo.getMode());
+      outputStream = mUfs.create(dstPath, new CreateOptions().setPermission(perm));
+      outputChannel = Channels.newChannel(outputStream);
       for (long blockId : blockIds) {
+        if (remoteBlockIds.contains(blockId)) {
+          bytesPersisted += persistRemoteBlock(blockId, outputChannel);
+          continue;
+        }
         long lockId = blockIdToLockId.get(blockId);
 
         if (Configuration.getBoolean(PropertyKey.WORKER_FILE_PERSIST_RATE_LIMIT_ENABLED)) {
@@ -253,9 +449,10 @@ public final class FileDataManager {
         // write content out
         ReadableByteChannel inputChannel = reader.getChannel();
         BufferUtils.fastCopy(inputChannel, outputChannel);
+        bytesPersisted += reader.getLength();
         reader.close();
       }
-    } catch (BlockDoesNotExistException | InvalidWorkerStateException e) {
+    } catch (BlockDoesNotExistException | InvalidWorkerStateException | IOException e) {
       errors.add(e);
     } finally {
       // make sure all the locks are released
@@ -280,9 +477,30 @@ public final class FileDataManager {
     outputStream.flush();
     outputChannel.close();
     outputStream.close();
-    synchronized (mLock) {
-      mPersistingInProgressFiles.remove(fileId);
-      mPersistedFiles.add(fileId);
+    Metrics.BYTES_PERSISTED.inc(bytesPersisted);
+    return bytesPersisted;
+  }
+
+  /**
+   * Copies a block stored by another worker into the file being persisted.
+   *
+   * @param blockId the id of the block
+   * @param outputChannel the channel of the file being persisted
+   * @return the number of bytes copied
+   * @throws IOException if the block fails to be read or written
+   */
+  private long persistRemoteBlock(long blockId, WritableByteChannel outputChannel)
+      throws IOException {
+    // the block is not cached on this worker, as it is only read once to be persisted
+    InStreamOptions options = InStreamOptions.defaults().setReadType(ReadType.NO_CACHE);
+    try (BufferedBlockInStream inputStream = mBlockStore.getInStream(blockId, options)) {
+      long length = inputStream.remaining();
+      if (Configuration.getBoolean(PropertyKey.WORKER_FILE_PERSIST_RATE_LIMIT_ENABLED)) {
+        mPersistenceRateLimiter.acquire((int) length);
+      }
+      BufferUtils.fastCopy(Channels.newChannel(inputStream), outputChannel);
+      Metrics.BYTES_PERSISTED_REMOTE.inc(length);
+      return length;
     }
   }
 
@@ -322,6 +540,40 @@ public final class FileDataManager {
     return dstPath;
   }
 
+  /**
+   * @param fileId the file id
+   * @return the path the file is persisted at
+   * @throws IOException if the file fails to be looked up
+   */
+  private String getUfsFilePath(long fileId) throws IOException {
+    String ufsRoot = Configuration.get(PropertyKey.UNDERFS_ADDRESS);
+    return PathUtils.concatPath(ufsRoot, mBlockWorker.getFileInfo(fileId).getPath());
+  }
+
+  /**
+   * @param dstPath the path the file is persisted at
+   * @param fileId the file id
+   * @param partIndex the index of a part of the file
+   * @return the path the part is persisted at, in the same directory as the file
+   */
+  private static String getPartPath(String dstPath, long fileId, int partIndex) {
+    return dstPath + String.format(PART_SUFFIX_FORMAT, fileId, partIndex);
+  }
+
+  /**
+   * @param dstPath the path the file is persisted at
+   * @param fileId the file id
+   * @param partCount the number of parts of the file
+   * @return the paths the parts of the file are persisted at, in order
+   */
+  private static List<String> getPartPaths(String dstPath, long fileId, int partCount) {
+    List<String> partPaths = new ArrayList<>(partCount);
+    for (int i = 0; i < partCount; i++) {
+      partPaths.add(getPartPath(dstPath, fileId, i));
+    }
+    return partPaths;
+  }
+
   /**
    * @return the persisted file
    */
@@ -341,4 +593,23 @@ public final class FileDataManager {
       mPersistedFiles.removeAll(persistedFiles);
     }
   }
+
+  /**
+   * Class that contains metrics about the persistence of files.
+   */
+  private static final class Metrics {
+    private static final Counter FILES_PERSISTED = MetricsSystem.workerCounter("FilesPersisted");
+    private static final Counter BYTES_PERSISTED = MetricsSystem.workerCounter("BytesPersisted");
+    private static final Counter BYTES_PERSISTED_REMOTE =
+        MetricsSystem.workerCounter("BytesPersistedFromRemoteWorkers");
+    private static final Counter FILE_PARTS_PERSISTED =
+        MetricsSystem.workerCounter("FilePartsPersisted");
+    private static final Counter FILES_PERSISTED_IN_PARTS =
+        MetricsSystem.workerCounter("FilesPersistedInParts");
+    /** The throughput of persisting each file, in bytes per second. */
+    private static final Histogram FILE_PERSIST_THROUGHPUT =
+        MetricsSystem.workerHistogram("FilePersistThroughput");
+
+    private Metrics() {} // prevent instantiation
+  }
 }
@@ -27,7 +27,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
@@ -39,7 +42,8 @@ import javax.annotation.concurrent.NotThreadSafe;
  * {@link FileSystemMasterClient}.
  *
  * When running, this class pulls from the master to check which file to persist for async
- * persistence.
+ * persistence. The parts of a file persisted by several workers which are persisted on this worker
+ * are persisted by one thread, after which the worker persisting the first part joins the parts.
  *
  * If the task fails to heartbeat to the master, it will destroy its old master client and recreate
  * it before retrying.
@@ -56,6 +60,8 @@ final class FileWorkerMasterSyncExecutor implements HeartbeatExecutor {
   private final FileSystemMasterClient mMasterClient;
   /** The thread pool to persist file. */
   private final ExecutorService mPersistFileService;
+  /** The thread pool to join the parts of files persisted by several workers. */
+  private final ExecutorService mJoinFilePartsService;
   /** This worker's id. May be updated by other threads if worker re-registration occurs. */
   private final AtomicReference<Long> mWorkerId;
 
@@ -74,6 +80,10 @@ final class FileWorkerMasterSyncExecutor implements HeartbeatExecutor {
     mPersistFileService = Executors.newFixedThreadPool(
         Configuration.getInt(PropertyKey.WORKER_FILE_PERSIST_POOL_SIZE),
         ThreadFactoryUtils.build("persist-file-service-%d", true));
+    // Joining the parts waits for the other workers, so it is not done by the threads persisting
+    // files, which may be persisting the parts waited for by other workers.
+    mJoinFilePartsService = Executors.newCachedThreadPool(
+        ThreadFactoryUtils.build("join-file-parts-service-%d", true));
   }
 
   @Override
@@ -103,17 +113,29 @@ final class FileWorkerMasterSyncExecutor implements HeartbeatExecutor {
       return;
     }
 
+    Map<Long, List<PersistFile>> fileParts = new HashMap<>();
     for (PersistFile persistFile : command.getCommandOptions().getPersistOptions()
             .getPersistFiles()) {
+      if (persistFile.getPartCount() > 1) {
+        if (!fileParts.containsKey(persistFile.getFileId())) {
+          fileParts.put(persistFile.getFileId(), new ArrayList<PersistFile>());
+        }
+        fileParts.get(persistFile.getFileId()).add(persistFile);
+        continue;
+      }
       // Enqueue the persist request.
       mPersistFileService.execute(
           new FilePersister(mFileDataManager, persistFile.getFileId(), persistFile.getBlockIds()));
     }
+    for (List<PersistFile> parts : fileParts.values()) {
+      mPersistFileService.execute(new FilePartsPersister(mFileDataManager, parts));
+    }
   }
 
   @Override
   public void close() {
     mPersistFileService.shutdown();
+    mJoinFilePartsService.shutdown();
   }
 
   /**
@@ -155,4 +177,72 @@ final class FileWorkerMasterSyncExecutor implements HeartbeatExecutor {
       }
     }
   }
+
+  /**
+   * Thread to persist the parts of a file which are persisted on this worker, when the file is
+   * persisted in parts by several workers.
+   */
+  class FilePartsPersister implements Runnable {
+    private FileDataManager mFileDataManager;
+    private List<PersistFile> mParts;
+
+    /**
+     * Creates a new instance of {@link FilePartsPersister}.
+     *
+     * @param fileDataManager a {@link FileDataManager} handle
+     * @param parts the parts of the file to persist on this worker
+     */
+    public FilePartsPersister(FileDataManager fileDataManager, List<PersistFile> parts) {
+      mFileDataManager = fileDataManager;
+      mParts = parts;
+    }
+
+    @Override
+    public void run() {
+      final long startTimeMs = System.currentTimeMillis();
+      final PersistFile firstPart = mParts.get(0);
+      final long fileId = firstPart.getFileId();
+      if (!mFileDataManager.needPersistence(fileId)) {
+        return;
+      }
+      boolean persistsFirstPart = false;
+      boolean partsPersisted = true;
+      for (PersistFile part : mParts) {
+        LOG.info("persist part {} of file {} of blocks {}", part.getPartIndex(), fileId,
+            part.getBlockIds().subList(part.getPartStart(), part.getPartEnd()));
+        try {
+          mFileDataManager.persistFilePart(fileId, part.getBlockIds(), part.getPartIndex(),
+              part.getPartStart(), part.getPartEnd());
+        } catch (IOException e) {
+          LOG.error("Failed to persist part {} of file {}", part.getPartIndex(), fileId, e);
+          partsPersisted = false;
+        }
+        persistsFirstPart |= part.getPartIndex() == 0;
+      }
+      if (!persistsFirstPart) {
+        return;
+      }
+      final boolean ownPartsPersisted = partsPersisted;
+      mJoinFilePartsService.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            if (ownPartsPersisted
+                && mFileDataManager.joinFileParts(fileId, firstPart.getPartCount(), startTimeMs)) {
+              return;
+            }
+            // The parts are not all persisted, so this worker persists the whole file instead,
+            // reading the blocks it does not store from the other workers.
+            LOG.warn("Failed to persist file {} in parts, persisting it on this worker", fileId);
+            mFileDataManager.deleteFileParts(fileId, firstPart.getPartCount());
+            new FilePersister(mFileDataManager, fileId, firstPart.getBlockIds()).run();
+            // parts persisted since are not needed anymore
+            mFileDataManager.deleteFileParts(fileId, firstPart.getPartCount());
+          } catch (IOException e) {
+            LOG.error("Failed to persist file {}", fileId, e);
+          }
+        }
+      });
+    }
+  }
 }
@@ -0,0 +1,452 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.file;
+
+import alluxio.Constants;
+import alluxio.metrics.MetricsSystem;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Serves the reads of under storage files shared by the clients of the worker.
+ * <p>
+ * The files are read in chunks of a fixed size. The first read of a chunk fetches the chunk from
+ * the under storage in the background, and every read of the chunk while it is being fetched waits
+ * for the bytes it needs instead of reading the under storage again, so that many clients reading
+ * the same file at once result in a single read of the under storage. The reads return the bytes
+ * of a chunk as soon as they are fetched, and fail if the bytes they wait for are not fetched in
+ * time. The chunk after the one being read is fetched ahead of the reads.
+ * <p>
+ * The chunks being fetched and the fetched chunks are kept in memory up to a maximum size, the
+ * least recently used fetched chunks being evicted first. A fetch waits for room before it starts,
+ * so the memory is bounded no matter how many chunks are requested at once.
+ * <p>
+ * The chunks are keyed by the length and the modification time of their file, so that a file
+ * overwritten in the under storage is fetched again.
+ */
+@ThreadSafe
+class UfsReadCache {
+  private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+
+  private final long mChunkSize;
+  private final long mCapacityBytes;
+  private final long mReadTimeoutMs;
+  private final ThreadPoolExecutor mExecutor;
+
+  /** The chunks being fetched and the fetched chunks, least recently used first. */
+  @GuardedBy("this")
+  private final LinkedHashMap<ChunkKey, Chunk> mChunks = new LinkedHashMap<>(16, 0.75f, true);
+  /** The total size of the fetched chunks. */
+  @GuardedBy("this")
+  private long mCachedBytes;
+  /** The total size of the chunks being fetched. */
+  @GuardedBy("this")
+  private long mFetchingBytes;
+
+  /**
+   * The identity of a chunk of a version of a file.
+   */
+  private static final class ChunkKey {
+    private final String mUri;
+    private final long mFileLength;
+    private final long mModificationTimeMs;
+    private final long mIndex;
+
+    private ChunkKey(String uri, long fileLength, long modificationTimeMs, long index) {
+      mUri = uri;
+      mFileLength = fileLength;
+      mModificationTimeMs = modificationTimeMs;
+      mIndex = index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ChunkKey)) {
+        return false;
+      }
+      ChunkKey that = (ChunkKey) o;
+      return mUri.equals(that.mUri) && mFileLength == that.mFileLength
+          && mModificationTimeMs == that.mModificationTimeMs && mIndex == that.mIndex;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(mUri, mFileLength, mModificationTimeMs, mIndex);
+    }
+  }
+
+  /**
+   * A chunk of a file, with the bytes fetched so far.
+   */
+  @ThreadSafe
+  private static final class Chunk {
+    private final ChunkKey mKey;
+    private final long mStart;
+    private final int mLength;
+
+    /** The bytes of the chunk, allocated when the fetch starts. */
+    @GuardedBy("this")
+    private byte[] mData;
+    /** The number of bytes fetched from the start of the chunk. */
+    @GuardedBy("this")
+    private int mFetched;
+    /** The error which ended the fetch, or null. */
+    @GuardedBy("this")
+    private IOException mError;
+
+    private Chunk(ChunkKey key, long start, int length) {
+      mKey = key;
+      mStart = start;
+      mLength = length;
+    }
+
+    /**
+     * Copies fetched bytes of the chunk, waiting for at least one byte to be fetched.
+     *
+     * @param offset the offset in the chunk to read from, which is less than the chunk length
+     * @param dest the buffer to copy into
+     * @param off the offset in the buffer
+     * @param len the maximum number of bytes to copy
+     * @param timeoutMs the maximum time to wait for a byte to be fetched
+     * @return the number of bytes copied
+     * @throws IOException if the fetch fails, or the wait times out or is interrupted
+     */
+    private synchronized int read(int offset, byte[] dest, int off, int len, long timeoutMs)
+        throws IOException {
+      long deadlineMs = System.currentTimeMillis() + timeoutMs;
+      while (mFetched <= offset && mError == null) {
+        long remainingMs = deadlineMs - System.currentTimeMillis();
+        if (remainingMs <= 0) {
+          throw new IOException("Timed out after " + timeoutMs + " ms reading " + mKey.mUri
+              + " at position " + (mStart + offset));
+        }
+        try {
+          wait(remainingMs);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException(e);
+        }
+      }
+      if (mFetched <= offset) {
+        throw new IOException("Failed to read " + mKey.mUri + " at position " + (mStart + offset),
+            mError);
+      }
+      int copied = Math.min(len, mFetched - offset);
+      System.arraycopy(mData, offset, dest, off, copied);
+      return copied;
+    }
+
+    /**
+     * @return whether all the bytes of the chunk are fetched
+     */
+    private synchronized boolean isFetched() {
+      return mFetched == mLength;
+    }
+  }
+
+  /**
+   * Creates a new instance of {@link UfsReadCache}.
+   *
+   * @param chunkSize the size of the chunks of the files
+   * @param capacityBytes the maximum total size of the chunks being fetched and fetched
+   * @param threads the maximum number of chunks fetched in parallel
+   * @param readTimeoutMs the maximum time a read waits for the bytes of a chunk being fetched
+   */
+  UfsReadCache(long chunkSize, long capacityBytes, int threads, long readTimeoutMs) {
+    Preconditions.checkArgument(chunkSize > 0 && chunkSize <= Integer.MAX_VALUE,
+        "Invalid chunk size: %s", chunkSize);
+    Preconditions.checkArgument(threads > 0, "Invalid number of threads: %s", threads);
+    Preconditions.checkArgument(readTimeoutMs > 0, "Invalid read timeout: %s", readTimeoutMs);
+    mChunkSize = chunkSize;
+    mCapacityBytes = capacityBytes;
+    mReadTimeoutMs = readTimeoutMs;
+    // The threads are released when no chunk is being fetched.
+    mExecutor = new ThreadPoolExecutor(threads, threads, Constants.MINUTE_MS,
+        TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+        ThreadFactoryUtils.build("ufs-read-cache-%d", true));
+    mExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Opens a stream of a file in the under storage, whose reads are served by the cache. The
+   * stream does not need to be closed.
+   *
+   * @param uri the uri of the file in the under storage
+   * @param fileLength the length of the file
+   * @param modificationTimeMs the modification time of the file
+   * @param position the position in the file to start the stream at
+   * @return the stream
+   */
+  InputStream openAtPosition(String uri, long fileLength, long modificationTimeMs,
+      long position) {
+    return new CachedInputStream(uri, fileLength, modificationTimeMs, position);
+  }
+
+  /**
+   * Opens a stream of a file in the under storage at a position, to fetch a chunk.
+   *
+   * @param uri the uri of the file in the under storage
+   * @param fileLength the length of the file
+   * @param position the position of the chunk
+   * @return the stream, at the position
+   * @throws IOException if the stream fails to be opened
+   */
+  InputStream openUfs(String uri, long fileLength, long position) throws IOException {
+    return UnderFileSystemManager.openAtPosition(uri, fileLength, position);
+  }
+
+  /**
+   * Gets a chunk of a file, starting its fetch if it is neither being fetched nor cached.
+   *
+   * @param key the key of the chunk
+   * @param countAccess whether to count the access in the metrics
+   * @return the chunk
+   */
+  private Chunk getChunk(ChunkKey key, boolean countAccess) {
+    Chunk chunk;
+    synchronized (this) {
+      chunk = mChunks.get(key);
+      if (chunk == null) {
+        long start = key.mIndex * mChunkSize;
+        chunk = new Chunk(key, start, (int) Math.min(mChunkSize, key.mFileLength - start));
+        mChunks.put(key, chunk);
+      } else {
+        if (countAccess) {
+          if (chunk.isFetched()) {
+            Metrics.UFS_READ_CACHE_HITS.inc();
+          } else {
+            Metrics.UFS_READS_COALESCED.inc();
+          }
+        }
+        return chunk;
+      }
+    }
+    if (countAccess) {
+      Metrics.UFS_READ_CACHE_MISSES.inc();
+    }
+    final Chunk fetched = chunk;
+    mExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        fetch(fetched);
+      }
+    });
+    return chunk;
+  }
+
+  /**
+   * Fetches a chunk from the under storage, letting the readers of the chunk copy the bytes as
+   * they are fetched.
+   *
+   * @param chunk the chunk to fetch
+   */
+  private void fetch(Chunk chunk) {
+    try {
+      reserve(chunk);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      fail(chunk, new IOException(e), false);
+      return;
+    }
+    byte[] data = new byte[chunk.mLength];
+    synchronized (chunk) {
+      chunk.mData = data;
+    }
+    try (InputStream in = openUfs(chunk.mKey.mUri, chunk.mKey.mFileLength, chunk.mStart)) {
+      int fetched = 0;
+      while (fetched < chunk.mLength) {
+        int read = in.read(data, fetched, chunk.mLength - fetched);
+        if (read == -1) {
+          throw new EOFException("Unexpected end of " + chunk.mKey.mUri + " at position "
+              + (chunk.mStart + fetched));
+        }
+        fetched += read;
+        Metrics.UFS_READ_CACHE_BYTES_FETCHED.inc(read);
+        synchronized (chunk) {
+          chunk.mFetched = fetched;
+          chunk.notifyAll();
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to fetch {} at position {}: {}", chunk.mKey.mUri, chunk.mStart,
+          e.getMessage());
+      fail(chunk, e instanceof IOException ? (IOException) e : new IOException(e), true);
+      return;
+    }
+    synchronized (this) {
+      mFetchingBytes -= chunk.mLength;
+      if (mChunks.get(chunk.mKey) == chunk) {
+        mCachedBytes += chunk.mLength;
+        evict(0);
+      }
+      notifyAll();
+    }
+  }
+
+  /**
+   * Waits until the memory of the cache has room for a chunk, evicting fetched chunks to make
+   * room, and reserves it. A chunk is always admitted when no other chunk is being fetched, so
+   * that the fetches make progress even if the cache is smaller than a chunk.
+   *
+   * @param chunk the chunk about to be fetched
+   * @throws InterruptedException if the wait is interrupted
+   */
+  private synchronized void reserve(Chunk chunk) throws InterruptedException {
+    while (true) {
+      evict(chunk.mLength);
+      if (mFetchingBytes == 0 || mCachedBytes + mFetchingBytes + chunk.mLength <= mCapacityBytes) {
+        mFetchingBytes += chunk.mLength;
+        return;
+      }
+      // The fetches in progress make room as they complete.
+      wait();
+    }
+  }
+
+  /**
+   * Evicts the least recently used fetched chunks until the memory of the cache has room for the
+   * given number of bytes, or no fetched chunk is left.
+   *
+   * @param bytes the number of bytes to make room for
+   */
+  @GuardedBy("this")
+  private void evict(long bytes) {
+    Iterator<Chunk> iterator = mChunks.values().iterator();
+    while (mCachedBytes + mFetchingBytes + bytes > mCapacityBytes && iterator.hasNext()) {
+      Chunk eldest = iterator.next();
+      if (eldest.isFetched()) {
+        iterator.remove();
+        mCachedBytes -= eldest.mLength;
+      }
+    }
+  }
+
+  /**
+   * Fails a chunk, dropping it from the cache so that the next read fetches it again.
+   *
+   * @param chunk the chunk
+   * @param error the error which failed the fetch
+   * @param reserved whether the memory of the chunk was reserved
+   */
+  private void fail(Chunk chunk, IOException error, boolean reserved) {
+    synchronized (this) {
+      if (reserved) {
+        mFetchingBytes -= chunk.mLength;
+        notifyAll();
+      }
+      if (mChunks.get(chunk.mKey) == chunk) {
+        mChunks.remove(chunk.mKey);
+      }
+    }
+    synchronized (chunk) {
+      chunk.mError = error;
+      chunk.notifyAll();
+    }
+  }
+
+  /**
+   * A stream of a file whose reads are served by the cache.
+   */
+  @NotThreadSafe
+  private final class CachedInputStream extends InputStream {
+    private final String mUri;
+    private final long mFileLength;
+    private final long mModificationTimeMs;
+    private long mPos;
+    /** The chunk at the position, or null if it is not looked up yet. */
+    private Chunk mChunk;
+
+    private CachedInputStream(String uri, long fileLength, long modificationTimeMs,
+        long position) {
+      mUri = uri;
+      mFileLength = fileLength;
+      mModificationTimeMs = modificationTimeMs;
+      mPos = position;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      Preconditions.checkNotNull(b);
+      Preconditions.checkPositionIndexes(off, off + len, b.length);
+      if (len == 0) {
+        return 0;
+      }
+      if (mPos >= mFileLength) {
+        return -1;
+      }
+      long index = mPos / mChunkSize;
+      if (mChunk == null || mChunk.mKey.mIndex != index) {
+        mChunk = getChunk(new ChunkKey(mUri, mFileLength, mModificationTimeMs, index), true);
+        if ((index + 1) * mChunkSize < mFileLength) {
+          // Fetches the next chunk ahead of the reads.
+          getChunk(new ChunkKey(mUri, mFileLength, mModificationTimeMs, index + 1), false);
+        }
+      }
+      int read = mChunk.read((int) (mPos - mChunk.mStart), b, off, len, mReadTimeoutMs);
+      mPos += read;
+      return read;
+    }
+
+    @Override
+    public long skip(long n) {
+      if (n <= 0) {
+        return 0;
+      }
+      long skipped = Math.min(n, Math.max(mFileLength - mPos, 0));
+      mPos += skipped;
+      return skipped;
+    }
+  }
+
+  /**
+   * Class that contains metrics about the worker read cache.
+   */
+  private static final class Metrics {
+    private static final Counter UFS_READ_CACHE_BYTES_FETCHED =
+        MetricsSystem.workerCounter("UfsReadCacheBytesFetched");
+    private static final Counter UFS_READ_CACHE_HITS =
+        MetricsSystem.workerCounter("UfsReadCacheHits");
+    private static final Counter UFS_READ_CACHE_MISSES =
+        MetricsSystem.workerCounter("UfsReadCacheMisses");
+    private static final Counter UFS_READS_COALESCED =
+        MetricsSystem.workerCounter("UfsReadsCoalesced");
+
+    private Metrics() {} // prevent instantiation
+  }
+}
@@ -12,7 +12,9 @@
 package alluxio.worker.file;
 
 import alluxio.AlluxioURI;
+import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.PropertyKey;
 import alluxio.collections.IndexDefinition;
 import alluxio.collections.IndexedSet;
 import alluxio.exception.ExceptionMessage;
@@ -98,6 +100,8 @@ public final class UnderFileSystemManager {
   /** Map of worker file ids to open under file system output streams. */
   @GuardedBy("itself")
   private final IndexedSet<OutputStreamAgent> mOutputStreamAgents;
+  /** The cache serving the reads of the input streams, or null if the cache is disabled. */
+  private final UfsReadCache mReadCache;
 
   /**
    * Creates a new under file system manager. Stream ids are unique to each under file system
@@ -109,6 +113,70 @@ public final class UnderFileSystemManager {
         new IndexedSet<>(INPUT_AGENT_ID_INDEX, INPUT_AGENT_SESSION_ID_INDEX);
     mOutputStreamAgents =
         new IndexedSet<>(OUTPUT_AGENT_ID_INDEX, OUTPUT_AGENT_SESSION_ID_INDEX);
+    mReadCache = Configuration.getBoolean(PropertyKey.WORKER_UFS_READ_CACHE_ENABLED)
+        ? new UfsReadCache(Configuration.getBytes(PropertyKey.WORKER_UFS_READ_CACHE_CHUNK_SIZE),
+            Configuration.getBytes(PropertyKey.WORKER_UFS_READ_CACHE_SIZE),
+            Configuration.getInt(PropertyKey.WORKER_UFS_READ_CACHE_THREADS),
+            Configuration.getLong(PropertyKey.WORKER_UFS_READ_CACHE_READ_TIMEOUT_MS))
+        : null;
+  }
+
+  /**
+   * Opens a stream of a file in the under file system at a position.
+   *
+   * @param uri the uri of the file in the under file system
+   * @param length the length of the file
+   * @param position the position in the file to start the stream at
+   * @return the stream, at the position
+   * @throws IOException if an error occurs when interacting with the UFS
+   */
+  public static InputStream openAtPosition(String uri, long length, long position)
+      throws IOException {
+    UnderFileSystem ufs = UnderFileSystem.get(uri);
+    InputStream in = openAtPositionIfSupported(ufs, uri, length, position);
+    if (in != null) {
+      return in;
+    }
+    in = ufs.open(uri);
+    long skipped = 0;
+    try {
+      while (skipped < position) {
+        long skip = in.skip(position - skipped);
+        if (skip <= 0) {
+          throw new IOException(ExceptionMessage.FAILED_SKIP.getMessage(position - skipped));
+        }
+        skipped += skip;
+      }
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+    return in;
+  }
+
+  /**
+   * Opens a stream of a file at a position, for the under file systems which can open a file at a
+   * position without reading the bytes before.
+   *
+   * @param ufs the under file system
+   * @param uri the uri of the file in the under file system
+   * @param length the length of the file
+   * @param position the position in the file to start the stream at
+   * @return the stream at the position, or null if the under file system cannot open a file at a
+   *         position
+   * @throws IOException if an error occurs when interacting with the UFS
+   */
+  private static InputStream openAtPositionIfSupported(UnderFileSystem ufs, String uri,
+      long length, long position) throws IOException {
+    // TODO(calvin): Consider making openAtPosition part of the UFS API
+    if (ufs instanceof S3AUnderFileSystem) { // Optimization for S3A UFS
+      return ((S3AUnderFileSystem) ufs).openAtPosition(uri, length, position);
+    } else if (ufs instanceof S3UnderFileSystem) { // Optimization for S3 UFS
+      return ((S3UnderFileSystem) ufs).openAtPosition(uri, length, position);
+    } else if (ufs instanceof GCSUnderFileSystem) { // Optimization for GCS UFS
+      return ((GCSUnderFileSystem) ufs).openAtPosition(uri, length, position);
+    }
+    return null;
   }
 
   /**
@@ -123,6 +191,8 @@ public final class UnderFileSystemManager {
     private final long mAgentId;
     /** The length of the file in the under storage. */
     private final long mLength;
+    /** The modification time of the file, only known if the read cache is enabled. */
+    private final long mModificationTimeMs;
     /** The string form of the uri to the file in the under file system. */
     private final String mUri;
 
@@ -154,6 +224,7 @@ public final class UnderFileSystemManager {
             ExceptionMessage.UFS_PATH_DOES_NOT_EXIST.getMessage(mUri));
       }
       mLength = ufs.getFileSize(mUri);
+      mModificationTimeMs = mReadCache != null ? ufs.getModificationTimeMs(mUri) : 0;
     }
 
     /**
@@ -185,6 +256,9 @@ public final class UnderFileSystemManager {
       if (position >= mLength) { // Position is at EOF
         return null;
       }
+      if (mReadCache != null) {
+        return mReadCache.openAtPosition(mUri, mLength, mModificationTimeMs, position);
+      }
 
       // If no stream has been created or if we need to go backward, make a new stream and cache it.
       if (mStream == null || mInitPos + mStream.getCount() > position) {
@@ -192,18 +266,9 @@ public final class UnderFileSystemManager {
           mStream.close();
         }
         UnderFileSystem ufs = UnderFileSystem.get(mUri);
-        // TODO(calvin): Consider making openAtPosition part of the UFS API
-        if (ufs instanceof S3AUnderFileSystem) { // Optimization for S3A UFS
-          mStream =
-              new CountingInputStream(((S3AUnderFileSystem) ufs).openAtPosition(mUri, position));
-          mInitPos = position;
-        } else if (ufs instanceof S3UnderFileSystem) { // Optimization for S3 UFS
-          mStream =
-              new CountingInputStream(((S3UnderFileSystem) ufs).openAtPosition(mUri, position));
-          mInitPos = position;
-        } else if (ufs instanceof GCSUnderFileSystem) { // Optimization for GCS UFS
-          mStream =
-              new CountingInputStream(((GCSUnderFileSystem) ufs).openAtPosition(mUri, position));
+        InputStream in = openAtPositionIfSupported(ufs, mUri, mLength, position);
+        if (in != null) {
+          mStream = new CountingInputStream(in);
           mInitPos = position;
         } else { // Other UFSs can skip efficiently, so open at start of the file
           mStream = new CountingInputStream(ufs.open(mUri));
@@ -17,6 +17,7 @@ import alluxio.PropertyKey;
 import alluxio.StorageTierAssoc;
 import alluxio.WorkerStorageTierAssoc;
 import alluxio.exception.BlockDoesNotExistException;
+import alluxio.exception.WorkerOutOfSpaceException;
 import alluxio.metrics.MetricsSystem;
 import alluxio.network.protocol.RPCBlockReadRequest;
 import alluxio.network.protocol.RPCBlockReadResponse;
@@ -35,9 +36,12 @@ import com.google.common.base.Preconditions;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
@@ -50,6 +54,9 @@ import javax.annotation.concurrent.NotThreadSafe;
 @NotThreadSafe
 final class BlockDataServerHandler {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+  /** The key of the block write session of a channel. */
+  private static final AttributeKey<BlockWriteSession> WRITE_SESSION_KEY =
+      AttributeKey.valueOf("BlockWriteSession");
 
   /** The Block Worker which handles blocks stored in the Alluxio storage of the worker. */
   private final BlockWorker mWorker;
@@ -57,12 +64,16 @@ final class BlockDataServerHandler {
   private final FileTransferType mTransferType;
   /** An object storing the mapping of tier aliases to ordinals. */
   private final StorageTierAssoc mStorageTierAssoc;
+  /** The minimum amount of space reserved at once for a block written remotely. */
+  private final long mSpaceReserveBytes;
 
   BlockDataServerHandler(BlockWorker worker) {
     mWorker = worker;
     mStorageTierAssoc = new WorkerStorageTierAssoc();
     mTransferType = Configuration
         .getEnum(PropertyKey.WORKER_NETWORK_NETTY_FILE_TRANSFER_TYPE, FileTransferType.class);
+    mSpaceReserveBytes =
+        Configuration.getBytes(PropertyKey.WORKER_NETWORK_NETTY_WRITER_SPACE_RESERVE_BYTES);
   }
 
   /**
@@ -120,13 +131,16 @@ final class BlockDataServerHandler {
    * provided by the block worker. This method takes care of requesting space and creating the
    * block if necessary.
    *
+   * The writer of a block is kept open in a {@link BlockWriteSession} attached to the channel, as
+   * long as the requests on the channel continue writing the same block, and space is reserved for
+   * the block in increments of at least
+   * {@link PropertyKey#WORKER_NETWORK_NETTY_WRITER_SPACE_RESERVE_BYTES}. An empty request at the
+   * end of the written data ends the session.
+   *
    * @param ctx The context of this request which handles the result of this operation
    * @param req The initiating {@link RPCBlockWriteRequest}
    * @throws IOException if an I/O exception occurs when writing the data
    */
-  // TODO(hy): This write request handler is very simple in order to be stateless. Therefore, the
-  // block file is opened and closed for every request. If this is too slow, then this handler
-  // should be optimized to keep state.
   void handleBlockWriteRequest(final ChannelHandlerContext ctx, final RPCBlockWriteRequest req)
       throws IOException {
     final long sessionId = req.getSessionId();
@@ -135,40 +149,97 @@ final class BlockDataServerHandler {
     final long length = req.getLength();
     final DataBuffer data = req.getPayloadDataBuffer();
 
-    BlockWriter writer = null;
+    Attribute<BlockWriteSession> attribute = ctx.channel().attr(WRITE_SESSION_KEY);
+    BlockWriteSession session = attribute.get();
     try {
       req.validate();
-      ByteBuffer buffer = data.getReadOnlyByteBuffer();
-
-      if (offset == 0) {
-        // This is the first write to the block, so create the temp block file. The file will only
-        // be created if the first write starts at offset 0. This allocates enough space for the
-        // write.
-        mWorker.createBlockRemote(sessionId, blockId, mStorageTierAssoc.getAlias(0), length);
-      } else {
-        // Allocate enough space in the existing temporary block for the write.
-        mWorker.requestSpace(sessionId, blockId, length);
+      if (session != null && !session.continuesWith(req)) {
+        attribute.remove();
+        session.close();
+        session = null;
+      }
+      if (session == null && (length > 0 || offset == 0)) {
+        session = createSession(sessionId, blockId, offset, length);
+        attribute.set(session);
+      }
+      if (length > 0) {
+        session.write(data.getReadOnlyByteBuffer());
+        Metrics.BYTES_WRITTEN_REMOTE.inc(data.getLength());
+      } else if (session != null) {
+        // The client finished writing the block.
+        attribute.remove();
+        session.close();
       }
-      writer = mWorker.getTempBlockWriterRemote(sessionId, blockId);
-      writer.append(buffer);
-
-      Metrics.BYTES_WRITTEN_REMOTE.inc(data.getLength());
       RPCBlockWriteResponse resp =
           new RPCBlockWriteResponse(sessionId, blockId, offset, length, RPCResponse.Status.SUCCESS);
-      ChannelFuture future = ctx.writeAndFlush(resp);
-      future.addListener(new ClosableResourceChannelListener(writer));
+      ctx.writeAndFlush(resp);
     } catch (Exception e) {
       LOG.error("Error writing remote block : {}", e.getMessage(), e);
       RPCBlockWriteResponse resp =
           RPCBlockWriteResponse.createErrorResponse(req, RPCResponse.Status.WRITE_ERROR);
       ChannelFuture future = ctx.writeAndFlush(resp);
       future.addListener(ChannelFutureListener.CLOSE);
-      if (writer != null) {
-        writer.close();
+      session = attribute.getAndRemove();
+      if (session != null) {
+        session.close();
       }
     }
   }
 
+  /**
+   * Closes the block writer left open on a channel which became inactive.
+   *
+   * @param ctx the context of the channel
+   * @throws IOException if the writer fails to close
+   */
+  void handleChannelInactive(final ChannelHandlerContext ctx) throws IOException {
+    BlockWriteSession session = ctx.channel().attr(WRITE_SESSION_KEY).getAndRemove();
+    if (session != null) {
+      session.close();
+    }
+  }
+
+  /**
+   * Creates a write session for a block, creating the temporary block first if the write starts at
+   * the beginning of the block.
+   *
+   * @param sessionId the id of the session writing the block
+   * @param blockId the id of the block
+   * @param offset the offset of the first write of the session
+   * @param length the length of the first write of the session
+   * @return the session
+   * @throws Exception if the block cannot be created or its writer cannot be opened
+   */
+  private BlockWriteSession createSession(long sessionId, long blockId, long offset, long length)
+      throws Exception {
+    long reservedBytes = length == 0 ? 0 : Math.max(length, mSpaceReserveBytes);
+    if (offset == 0) {
+      // This is the first write to the block, so create the temp block file. The file will only
+      // be created if the first write starts at offset 0. This allocates enough space for the
+      // write.
+      String tierAlias = mStorageTierAssoc.getAlias(0);
+      try {
+        mWorker.createBlockRemote(sessionId, blockId, tierAlias, reservedBytes);
+      } catch (WorkerOutOfSpaceException e) {
+        if (reservedBytes <= length) {
+          throw e;
+        }
+        reservedBytes = length;
+        mWorker.createBlockRemote(sessionId, blockId, tierAlias, reservedBytes);
+      }
+      return new BlockWriteSession(sessionId, blockId, offset, reservedBytes);
+    }
+    // The block was written by an earlier session, which reserved the space it wrote.
+    BlockWriteSession session = new BlockWriteSession(sessionId, blockId, offset, 0);
+    try {
+      session.reserve(length);
+    } catch (Exception e) {
+      session.close();
+      throw e;
+    }
+    return session;
+  }
+
   /**
    * @return how much of a file to read. When {@code len} is {@code -1}, then
    * {@code fileLength - offset} is used.
@@ -220,6 +291,81 @@ final class BlockDataServerHandler {
     }
   }
 
+  /**
+   * The state of a block being written by the requests of a channel.
+   */
+  @NotThreadSafe
+  private final class BlockWriteSession implements Closeable {
+    private final long mSessionId;
+    private final long mBlockId;
+    private final BlockWriter mWriter;
+    /** The offset of the next write expected from the client. */
+    private long mOffset;
+    /** The space reserved for the block which was not written yet. */
+    private long mReservedBytes;
+
+    BlockWriteSession(long sessionId, long blockId, long offset, long reservedBytes)
+        throws Exception {
+      mSessionId = sessionId;
+      mBlockId = blockId;
+      mOffset = offset;
+      mReservedBytes = reservedBytes;
+      mWriter = mWorker.getTempBlockWriterRemote(sessionId, blockId);
+    }
+
+    /**
+     * @param req a write request
+     * @return true if the request writes the data following the data written by the session
+     */
+    boolean continuesWith(RPCBlockWriteRequest req) {
+      return req.getSessionId() == mSessionId && req.getBlockId() == mBlockId
+          && req.getOffset() == mOffset;
+    }
+
+    /**
+     * Reserves enough space in the block for a write.
+     *
+     * @param length the length of the write
+     * @throws Exception if the space cannot be reserved
+     */
+    void reserve(long length) throws Exception {
+      if (mReservedBytes >= length) {
+        return;
+      }
+      long neededBytes = length - mReservedBytes;
+      long requestedBytes = Math.max(neededBytes, mSpaceReserveBytes);
+      try {
+        mWorker.requestSpace(mSessionId, mBlockId, requestedBytes);
+      } catch (WorkerOutOfSpaceException e) {
+        if (requestedBytes == neededBytes) {
+          throw e;
+        }
+        requestedBytes = neededBytes;
+        mWorker.requestSpace(mSessionId, mBlockId, requestedBytes);
+      }
+      mReservedBytes += requestedBytes;
+    }
+
+    /**
+     * Appends data to the block, reserving space for it first if needed.
+     *
+     * @param buffer the data to append
+     * @throws Exception if the space cannot be reserved or the data cannot be written
+     */
+    void write(ByteBuffer buffer) throws Exception {
+      long length = buffer.remaining();
+      reserve(length);
+      mWriter.append(buffer);
+      mOffset += length;
+      mReservedBytes -= length;
+    }
+
+    @Override
+    public void close() throws IOException {
+      mWriter.close();
+    }
+  }
+
   /**
    * Class that contains metrics for BlockDataServerHandler.
    */
@@ -0,0 +1,218 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.netty;
+
+import alluxio.Configuration;
+import alluxio.Constants;
+import alluxio.PropertyKey;
+import alluxio.Sessions;
+import alluxio.StorageTierAssoc;
+import alluxio.WorkerStorageTierAssoc;
+import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.RPCBlockLoadRequest;
+import alluxio.network.protocol.RPCBlockLoadResponse;
+import alluxio.network.protocol.RPCResponse;
+import alluxio.util.IdUtils;
+import alluxio.util.ThreadFactoryUtils;
+import alluxio.wire.FileInfo;
+import alluxio.worker.block.BlockWorker;
+import alluxio.worker.block.io.BlockWriter;
+import alluxio.worker.file.UnderFileSystemManager;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import io.netty.channel.ChannelHandlerContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * This class handles {@link RPCBlockLoadRequest}s by loading the blocks of persisted files from the
+ * under storage into the top tier of the worker. The blocks are loaded in the background, at most
+ * {@link PropertyKey#WORKER_BLOCK_LOAD_THREADS} at once, and the response to a request is sent when
+ * its block is loaded, so that clients can bound the loads in progress on each worker. A request
+ * for a block which is already being loaded waits for that load instead of starting another one.
+ */
+@ThreadSafe
+final class BlockLoadDataServerHandler {
+  private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+  /** The maximum size of the buffer used to copy a block from the under storage. */
+  private static final int BUFFER_SIZE = 4 * Constants.MB;
+
+  /** The Block Worker which handles blocks stored in the Alluxio storage of the worker. */
+  private final BlockWorker mWorker;
+  /** An object storing the mapping of tier aliases to ordinals. */
+  private final StorageTierAssoc mStorageTierAssoc;
+  private final ThreadPoolExecutor mExecutor;
+  /** The loads in progress, by block id. */
+  private final ConcurrentMap<Long, SettableFuture<Long>> mLoadingBlocks =
+      new ConcurrentHashMap<>();
+
+  BlockLoadDataServerHandler(BlockWorker worker) {
+    mWorker = worker;
+    mStorageTierAssoc = new WorkerStorageTierAssoc();
+    int threads = Configuration.getInt(PropertyKey.WORKER_BLOCK_LOAD_THREADS);
+    Preconditions.checkArgument(threads > 0, "Invalid number of threads: %s", threads);
+    // The threads are released when no block is being loaded.
+    mExecutor = new ThreadPoolExecutor(threads, threads, Constants.MINUTE_MS,
+        TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+        ThreadFactoryUtils.build("block-load-%d", true));
+    mExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Handles a {@link RPCBlockLoadRequest} by loading the block in the background, and sending the
+   * response once it is loaded. If the block is already being loaded, the response is sent when
+   * that load completes, reporting no bytes loaded by this request.
+   *
+   * @param ctx The context of this request which handles the result of this operation
+   * @param req The initiating {@link RPCBlockLoadRequest}
+   */
+  void handleBlockLoadRequest(final ChannelHandlerContext ctx, final RPCBlockLoadRequest req) {
+    final long blockId = req.getBlockId();
+    final SettableFuture<Long> newLoad = SettableFuture.create();
+    final SettableFuture<Long> inFlightLoad = mLoadingBlocks.putIfAbsent(blockId, newLoad);
+    if (inFlightLoad == null) {
+      mExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            newLoad.set(load(blockId));
+          } catch (Exception e) {
+            LOG.error("Failed to load block {} from the under storage", blockId, e);
+            Metrics.BLOCK_LOAD_FAILURES.inc();
+            newLoad.setException(e);
+          } finally {
+            mLoadingBlocks.remove(blockId, newLoad);
+          }
+        }
+      });
+    }
+    Futures.addCallback(inFlightLoad == null ? newLoad : inFlightLoad, new FutureCallback<Long>() {
+      @Override
+      public void onSuccess(Long length) {
+        // Only the request which loaded the block reports the bytes read from the under storage.
+        ctx.writeAndFlush(new RPCBlockLoadResponse(blockId, inFlightLoad == null ? length : 0,
+            RPCResponse.Status.SUCCESS));
+      }
+
+      @Override
+      public void onFailure(Throwable t) {
+        ctx.writeAndFlush(
+            RPCBlockLoadResponse.createErrorResponse(req, RPCResponse.Status.UFS_READ_FAILED));
+      }
+    });
+  }
+
+  /**
+   * Loads a block from the under storage file of its file into the top tier of the worker, unless
+   * the worker already stores the block.
+   *
+   * @param blockId the id of the block
+   * @return the number of bytes loaded
+   * @throws Exception if the block cannot be read from the under storage or stored in the worker
+   */
+  private long load(long blockId) throws Exception {
+    if (mWorker.hasBlockMeta(blockId)) {
+      return 0;
+    }
+    long startTimeMs = System.currentTimeMillis();
+    FileInfo fileInfo = mWorker.getFileInfo(IdUtils.fileIdFromBlockId(blockId));
+    if (!fileInfo.isPersisted()) {
+      throw new IOException("File " + fileInfo.getPath() + " is not persisted");
+    }
+    int index = fileInfo.getBlockIds().indexOf(blockId);
+    if (index == -1) {
+      throw new IOException("Block " + blockId + " is not a block of " + fileInfo.getPath());
+    }
+    long offset = index * fileInfo.getBlockSizeBytes();
+    long length = Math.min(fileInfo.getBlockSizeBytes(), fileInfo.getLength() - offset);
+    // The length of the block is known, so all its space is reserved at once.
+    mWorker.createBlockRemote(Sessions.LOAD_BLOCK_SESSION_ID, blockId,
+        mStorageTierAssoc.getAlias(0), length);
+    try {
+      try (BlockWriter writer =
+               mWorker.getTempBlockWriterRemote(Sessions.LOAD_BLOCK_SESSION_ID, blockId);
+           InputStream in =
+               UnderFileSystemManager.openAtPosition(fileInfo.getUfsPath(),
+                   fileInfo.getLength(), offset)) {
+        copy(in, writer, length);
+      }
+      mWorker.commitBlock(Sessions.LOAD_BLOCK_SESSION_ID, blockId);
+    } catch (Exception e) {
+      try {
+        mWorker.abortBlock(Sessions.LOAD_BLOCK_SESSION_ID, blockId);
+      } catch (Exception ee) {
+        LOG.warn("Failed to abort block {}: {}", blockId, ee.getMessage());
+      }
+      throw e;
+    }
+    long durationMs = Math.max(System.currentTimeMillis() - startTimeMs, 1);
+    Metrics.BLOCKS_LOADED.inc();
+    Metrics.BYTES_LOADED.inc(length);
+    Metrics.BLOCK_LOAD_THROUGHPUT.update(length * Constants.SECOND_MS / durationMs);
+    LOG.debug("Loaded block {} of {} bytes in {} ms", blockId, length, durationMs);
+    return length;
+  }
+
+  /**
+   * Copies the bytes of a block from the under storage.
+   *
+   * @param in the stream of the under storage file, at the start of the block
+   * @param writer the writer of the block
+   * @param length the length of the block
+   * @throws IOException if the bytes cannot be read or written
+   */
+  private static void copy(InputStream in, BlockWriter writer, long length) throws IOException {
+    byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, length)];
+    long remaining = length;
+    while (remaining > 0) {
+      int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+      if (read == -1) {
+        throw new EOFException("Unexpected end of the under storage file, " + remaining
+            + " bytes of the block are missing");
+      }
+      writer.append(ByteBuffer.wrap(buffer, 0, read));
+      remaining -= read;
+    }
+  }
+
+  /**
+   * Class that contains metrics for BlockLoadDataServerHandler.
+   */
+  private static final class Metrics {
+    private static final Counter BLOCKS_LOADED = MetricsSystem.workerCounter("BlocksLoaded");
+    private static final Counter BYTES_LOADED = MetricsSystem.workerCounter("BytesLoaded");
+    private static final Counter BLOCK_LOAD_FAILURES =
+        MetricsSystem.workerCounter("BlockLoadFailures");
+    /** The throughput of loading each block, in bytes per second. */
+    private static final Histogram BLOCK_LOAD_THROUGHPUT =
+        MetricsSystem.workerHistogram("BlockLoadThroughput");
+
+    private Metrics() {} // prevent instantiation
+  }
+}
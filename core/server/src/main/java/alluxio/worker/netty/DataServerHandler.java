@@ -12,6 +12,7 @@
 package alluxio.worker.netty;
 
 import alluxio.Constants;
+import alluxio.network.protocol.RPCBlockLoadRequest;
 import alluxio.network.protocol.RPCBlockReadRequest;
 import alluxio.network.protocol.RPCBlockWriteRequest;
 import alluxio.network.protocol.RPCErrorResponse;
@@ -46,6 +47,8 @@ final class DataServerHandler extends SimpleChannelInboundHandler<RPCMessage> {
 
   /** Handler for any block store requests. */
   private final BlockDataServerHandler mBlockHandler;
+  /** Handler for any block load requests. */
+  private final BlockLoadDataServerHandler mBlockLoadHandler;
   /** Handler for any file system requests. */
   private final UnderFileSystemDataServerHandler mUnderFileSystemHandler;
 
@@ -57,6 +60,7 @@ final class DataServerHandler extends SimpleChannelInboundHandler<RPCMessage> {
   public DataServerHandler(final AlluxioWorkerService worker) {
     Preconditions.checkNotNull(worker, "worker");
     mBlockHandler = new BlockDataServerHandler(worker.getBlockWorker());
+    mBlockLoadHandler = new BlockLoadDataServerHandler(worker.getBlockWorker());
     mUnderFileSystemHandler = new UnderFileSystemDataServerHandler(worker.getFileSystemWorker());
   }
 
@@ -72,6 +76,10 @@ final class DataServerHandler extends SimpleChannelInboundHandler<RPCMessage> {
         assert msg instanceof RPCBlockWriteRequest;
         mBlockHandler.handleBlockWriteRequest(ctx, (RPCBlockWriteRequest) msg);
         break;
+      case RPC_BLOCK_LOAD_REQUEST:
+        assert msg instanceof RPCBlockLoadRequest;
+        mBlockLoadHandler.handleBlockLoadRequest(ctx, (RPCBlockLoadRequest) msg);
+        break;
       case RPC_FILE_READ_REQUEST:
         assert msg instanceof RPCFileReadRequest;
         mUnderFileSystemHandler.handleFileReadRequest(ctx, (RPCFileReadRequest) msg);
@@ -94,6 +102,15 @@ final class DataServerHandler extends SimpleChannelInboundHandler<RPCMessage> {
     }
   }
 
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    try {
+      mBlockHandler.handleChannelInactive(ctx);
+    } finally {
+      super.channelInactive(ctx);
+    }
+  }
+
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
     LOG.warn("Exception thrown while processing request", cause);
@@ -16,6 +16,7 @@ import alluxio.clock.ManualClock;
 import alluxio.heartbeat.HeartbeatContext;
 import alluxio.heartbeat.HeartbeatScheduler;
 import alluxio.heartbeat.ManuallyScheduleHeartbeat;
+import alluxio.master.block.meta.MasterBlockInfo;
 import alluxio.master.journal.Journal;
 import alluxio.master.journal.ReadWriteJournal;
 import alluxio.thrift.Command;
@@ -242,6 +243,24 @@ public class BlockMasterTest {
     Assert.assertEquals(2, mMaster.getBlockInfo(blockId).getLocations().size());
   }
 
+  @Test
+  public void blockMetadataSize() throws Exception {
+    long worker = mMaster.getWorkerId(NET_ADDRESS_1);
+    mMaster.workerRegister(worker, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 0L), NO_BLOCKS_ON_TIERS);
+    long emptySizeBytes = mMaster.getBlockMetadataSizeBytes();
+    Assert.assertEquals(0, mMaster.getBlockCount());
+
+    mMaster.commitBlock(worker, 50L, "MEM", 1L, 20L);
+    mMaster.commitBlock(worker, 50L, "MEM", 2L, 20L);
+
+    // Every block adds its metadata and a location, and the tables are sized up front.
+    Assert.assertEquals(2, mMaster.getBlockCount());
+    Assert.assertEquals(emptySizeBytes
+        + 2 * (MasterBlockInfo.SIZE_BYTES + MasterBlockInfo.LOCATION_SIZE_BYTES),
+        mMaster.getBlockMetadataSizeBytes());
+  }
+
   @Test
   public void unknownWorkerHeartbeatTriggersRegisterRequest() {
     Command heartBeat = mMaster.workerHeartbeat(0, null, null, null);
@@ -27,7 +27,9 @@ import alluxio.heartbeat.HeartbeatContext;
 import alluxio.heartbeat.HeartbeatScheduler;
 import alluxio.heartbeat.ManuallyScheduleHeartbeat;
 import alluxio.master.block.BlockMaster;
+import alluxio.master.file.meta.InodeTree;
 import alluxio.master.file.meta.PersistenceState;
+import alluxio.master.file.meta.TtlBucketList;
 import alluxio.master.file.meta.TtlIntervalRule;
 import alluxio.master.file.options.CompleteFileOptions;
 import alluxio.master.file.options.CreateDirectoryOptions;
@@ -38,11 +40,14 @@ import alluxio.master.file.options.MountOptions;
 import alluxio.master.file.options.SetAttributeOptions;
 import alluxio.master.journal.Journal;
 import alluxio.master.journal.ReadWriteJournal;
+import alluxio.metrics.MetricsSystem;
 import alluxio.security.GroupMappingServiceTestUtils;
 import alluxio.security.LoginUserTestUtils;
+import alluxio.security.authentication.AuthenticatedClientUser;
 import alluxio.thrift.Command;
 import alluxio.thrift.CommandType;
 import alluxio.thrift.FileSystemCommand;
+import alluxio.util.CommonUtils;
 import alluxio.util.IdUtils;
 import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.executor.ExecutorServiceFactories;
@@ -54,6 +59,8 @@ import alluxio.wire.LoadMetadataType;
 import alluxio.wire.TtlAction;
 import alluxio.wire.WorkerNetAddress;
 
+import com.codahale.metrics.Gauge;
+import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
@@ -66,6 +73,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
+import org.powermock.reflect.Whitebox;
 
 import java.io.File;
 import java.io.IOException;
@@ -77,8 +85,11 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Unit tests for {@link FileSystemMaster}.
@@ -143,7 +154,7 @@ public final class FileSystemMasterTest {
 
     mBlockMaster = new BlockMaster(blockJournal);
     mExecutorService =
-        Executors.newFixedThreadPool(2, ThreadFactoryUtils.build("FileSystemMasterTest-%d", true));
+        Executors.newFixedThreadPool(3, ThreadFactoryUtils.build("FileSystemMasterTest-%d", true));
     mFileSystemMaster = new FileSystemMaster(mBlockMaster, fsJournal,
         ExecutorServiceFactories.constantExecutorServiceFactory(mExecutorService));
 
@@ -241,6 +252,141 @@ public final class FileSystemMasterTest {
     Assert.assertEquals(-1, mFileSystemMaster.getFileId(NESTED_URI));
   }
 
+  /**
+   * Tests that a directory deleted with background deletion enabled is removed from the
+   * namespace, and that its inodes, blocks and under storage files are removed afterwards.
+   */
+  @Test
+  public void deleteDirInBackground() throws Exception {
+    Configuration.set(PropertyKey.MASTER_FILE_DELETE_BACKGROUND_ENABLED, "true");
+    Configuration.set(PropertyKey.MASTER_FILE_DELETE_BATCH_SIZE, "1");
+    mFileSystemMaster.stop();
+    mExecutorService =
+        Executors.newFixedThreadPool(3, ThreadFactoryUtils.build("FileSystemMasterTest-%d", true));
+    mFileSystemMaster = new FileSystemMaster(mBlockMaster,
+        new ReadWriteJournal(mTestFolder.newFolder().getAbsolutePath()),
+        ExecutorServiceFactories.constantExecutorServiceFactory(mExecutorService));
+    mFileSystemMaster.start(true);
+
+    final String ufsDir = PathUtils.concatPath(mUnderFS, "a");
+    FileUtils.createFile(PathUtils.concatPath(ufsDir, "f1"));
+    FileUtils.createFile(PathUtils.concatPath(ufsDir, "b", "f2"));
+    mFileSystemMaster.loadMetadata(new AlluxioURI("/a/f1"),
+        LoadMetadataOptions.defaults().setCreateAncestors(true));
+    mFileSystemMaster.loadMetadata(new AlluxioURI("/a/b/f2"),
+        LoadMetadataOptions.defaults().setCreateAncestors(true));
+    final long blockId = createFileWithSingleBlock(new AlluxioURI("/a/c"));
+
+    mFileSystemMaster.delete(new AlluxioURI("/a"), true);
+    CommonUtils.waitFor("the under storage directory to be deleted",
+        new Function<Void, Boolean>() {
+          @Override
+          public Boolean apply(Void input) {
+            return !Files.exists(Paths.get(ufsDir));
+          }
+        }, 10 * Constants.SECOND_MS);
+    Assert.assertEquals(IdUtils.INVALID_FILE_ID,
+        mFileSystemMaster.getFileId(new AlluxioURI("/a")));
+    Assert.assertEquals(IdUtils.INVALID_FILE_ID,
+        mFileSystemMaster.getFileId(new AlluxioURI("/a/b/f2")));
+    // Only the root is left.
+    Assert.assertEquals(1, mFileSystemMaster.getNumberOfPaths());
+    try {
+      mBlockMaster.getBlockInfo(blockId);
+      Assert.fail("The block of a deleted file should be removed");
+    } catch (BlockInfoException e) {
+      // expected
+    }
+    final String pendingDeleteGauge = MetricsSystem.getMasterMetricName("UfsPathsPendingDelete");
+    Gauge<?> gauge = MetricsSystem.METRIC_REGISTRY.getGauges().get(pendingDeleteGauge);
+
+    // A new master starts a new deleter, whose gauge replaces the one of the stopped deleter.
+    mFileSystemMaster.stop();
+    mExecutorService =
+        Executors.newFixedThreadPool(3, ThreadFactoryUtils.build("FileSystemMasterTest-%d", true));
+    mFileSystemMaster = new FileSystemMaster(mBlockMaster,
+        new ReadWriteJournal(mTestFolder.newFolder().getAbsolutePath()),
+        ExecutorServiceFactories.constantExecutorServiceFactory(mExecutorService));
+    mFileSystemMaster.start(true);
+    FileUtils.createFile(PathUtils.concatPath(mUnderFS, "d", "f"));
+    mFileSystemMaster.loadMetadata(new AlluxioURI("/d/f"),
+        LoadMetadataOptions.defaults().setCreateAncestors(true));
+    mFileSystemMaster.delete(new AlluxioURI("/d"), true);
+    Assert.assertNotSame(gauge, MetricsSystem.METRIC_REGISTRY.getGauges().get(pendingDeleteGauge));
+    CommonUtils.waitFor("the under storage directory to be deleted",
+        new Function<Void, Boolean>() {
+          @Override
+          public Boolean apply(Void input) {
+            return MetricsSystem.METRIC_REGISTRY.getGauges().get(pendingDeleteGauge).getValue()
+                .equals(0L);
+          }
+        }, 10 * Constants.SECOND_MS);
+    Assert.assertFalse(Files.exists(Paths.get(PathUtils.concatPath(mUnderFS, "d"))));
+  }
+
+  /**
+   * Tests that the under storage directory of a background delete which was not completed when the
+   * master stopped is deleted by the next leader.
+   */
+  @Test
+  public void deleteDirInBackgroundResumedByNextLeader() throws Exception {
+    Configuration.set(PropertyKey.MASTER_FILE_DELETE_BACKGROUND_ENABLED, "true");
+    String journalFolder = mTestFolder.newFolder().getAbsolutePath();
+    mFileSystemMaster.stop();
+    mExecutorService =
+        Executors.newFixedThreadPool(3, ThreadFactoryUtils.build("FileSystemMasterTest-%d", true));
+    mFileSystemMaster = new FileSystemMaster(mBlockMaster, new ReadWriteJournal(journalFolder),
+        ExecutorServiceFactories.constantExecutorServiceFactory(mExecutorService));
+    mFileSystemMaster.start(true);
+
+    final String ufsDir = PathUtils.concatPath(mUnderFS, "a");
+    FileUtils.createFile(PathUtils.concatPath(ufsDir, "b", "f"));
+    mFileSystemMaster.loadMetadata(new AlluxioURI("/a/b/f"),
+        LoadMetadataOptions.defaults().setCreateAncestors(true));
+
+    // The deletion never starts before the master stops.
+    InodeTree inodeTree = Whitebox.getInternalState(mFileSystemMaster, "mInodeTree");
+    TtlBucketList ttlBuckets = Whitebox.getInternalState(mFileSystemMaster, "mTtlBuckets");
+    Whitebox.setInternalState(mFileSystemMaster, "mBackgroundDeleter",
+        new BackgroundDeleter(inodeTree, mBlockMaster, ttlBuckets,
+            new BackgroundDeleter.DeletionJournal() {
+              @Override
+              public void waitForFlush(long flushCounter) {
+                try {
+                  new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  throw new RuntimeException(e);
+                }
+              }
+
+              @Override
+              public void completed(BackgroundDeleter.Deletion deletion) {
+                throw new IllegalStateException("The deletion should not complete");
+              }
+            }, 1, 1));
+    mFileSystemMaster.delete(new AlluxioURI("/a"), true);
+    Assert.assertEquals(IdUtils.INVALID_FILE_ID,
+        mFileSystemMaster.getFileId(new AlluxioURI("/a")));
+    mFileSystemMaster.stop();
+    Assert.assertTrue(Files.exists(Paths.get(ufsDir, "b", "f")));
+
+    mExecutorService =
+        Executors.newFixedThreadPool(3, ThreadFactoryUtils.build("FileSystemMasterTest-%d", true));
+    mFileSystemMaster = new FileSystemMaster(mBlockMaster, new ReadWriteJournal(journalFolder),
+        ExecutorServiceFactories.constantExecutorServiceFactory(mExecutorService));
+    mFileSystemMaster.start(true);
+    CommonUtils.waitFor("the under storage directory to be deleted",
+        new Function<Void, Boolean>() {
+          @Override
+          public Boolean apply(Void input) {
+            return !Files.exists(Paths.get(ufsDir));
+          }
+        }, 10 * Constants.SECOND_MS);
+    Assert.assertEquals(IdUtils.INVALID_FILE_ID,
+        mFileSystemMaster.getFileId(new AlluxioURI("/a/b/f")));
+  }
+
   /**
    * Tests the {@link FileSystemMaster#getNewBlockIdForFile(AlluxioURI)} method.
    */
@@ -498,6 +644,183 @@ public final class FileSystemMasterTest {
     Assert.assertEquals(6, mFileSystemMaster.getNumberOfPaths());
   }
 
+  /**
+   * Tests that listings which do not need to load metadata only take read locks.
+   */
+  @Test
+  public void listStatusReadLockedWhenMetadataLoaded() throws Exception {
+    AlluxioURI ufsMount = new AlluxioURI(mTestFolder.newFolder().getAbsolutePath());
+    mFileSystemMaster.createDirectory(new AlluxioURI("/mnt/"), CreateDirectoryOptions.defaults());
+    Files.createDirectory(Paths.get(ufsMount.join("dir1").getPath()));
+    Files.createFile(Paths.get(ufsMount.join("dir1").join("file1").getPath()));
+    mFileSystemMaster.mount(new AlluxioURI("/mnt/local"), ufsMount, MountOptions.defaults());
+    AlluxioURI uri = new AlluxioURI("/mnt/local/dir1");
+
+    long readLocked = getMasterCounter("ListStatusReadLockedOps");
+    long writeLocked = getMasterCounter("ListStatusWriteLockedOps");
+
+    // The directory and its children have to be loaded first.
+    Assert.assertEquals(1, mFileSystemMaster.listStatus(uri, ListStatusOptions.defaults()).size());
+    Assert.assertEquals(readLocked, getMasterCounter("ListStatusReadLockedOps"));
+    Assert.assertEquals(writeLocked + 1, getMasterCounter("ListStatusWriteLockedOps"));
+
+    // The children are already loaded.
+    Assert.assertEquals(1, mFileSystemMaster.listStatus(uri, ListStatusOptions.defaults()).size());
+    Assert.assertEquals(1, mFileSystemMaster.listStatus(uri,
+        ListStatusOptions.defaults().setLoadMetadataType(LoadMetadataType.Never)).size());
+    Assert.assertEquals(readLocked + 2, getMasterCounter("ListStatusReadLockedOps"));
+    Assert.assertEquals(writeLocked + 1, getMasterCounter("ListStatusWriteLockedOps"));
+
+    // Always loading the children requires the write lock.
+    Files.createFile(Paths.get(ufsMount.join("dir1").join("file2").getPath()));
+    Assert.assertEquals(2, mFileSystemMaster.listStatus(uri,
+        ListStatusOptions.defaults().setLoadMetadataType(LoadMetadataType.Always)).size());
+    Assert.assertEquals(readLocked + 2, getMasterCounter("ListStatusReadLockedOps"));
+    Assert.assertEquals(writeLocked + 2, getMasterCounter("ListStatusWriteLockedOps"));
+  }
+
+  /**
+   * Tests that status and listing lookups, which do not lock the ancestors of the path, never
+   * return a path which was renamed away while it was looked up.
+   */
+  @Test
+  public void getFileInfoAndListStatusConcurrentWithRename() throws Exception {
+    createFileWithSingleBlock(NESTED_FILE_URI);
+    final AlluxioURI movedUri = new AlluxioURI("/nested/moved");
+    final AtomicBoolean done = new AtomicBoolean(false);
+    final AtomicReference<Exception> renameFailure = new AtomicReference<>();
+    Thread renamer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          AuthenticatedClientUser.set(TEST_USER);
+          while (!done.get()) {
+            mFileSystemMaster.rename(NESTED_URI, movedUri);
+            mFileSystemMaster.rename(movedUri, NESTED_URI);
+          }
+        } catch (Exception e) {
+          renameFailure.set(e);
+        }
+      }
+    });
+    renamer.start();
+    try {
+      for (int i = 0; i < 2000; i++) {
+        try {
+          Assert.assertEquals(NESTED_FILE_URI.getPath(),
+              mFileSystemMaster.getFileInfo(NESTED_FILE_URI).getPath());
+        } catch (FileDoesNotExistException e) {
+          // The directory was renamed away.
+        }
+        try {
+          List<FileInfo> infos = mFileSystemMaster.listStatus(NESTED_URI,
+              ListStatusOptions.defaults().setLoadMetadataType(LoadMetadataType.Never));
+          Assert.assertEquals(1, infos.size());
+          Assert.assertEquals(NESTED_FILE_URI.getPath(), infos.get(0).getPath());
+        } catch (FileDoesNotExistException e) {
+          // The directory was renamed away.
+        }
+      }
+    } finally {
+      done.set(true);
+      renamer.join();
+    }
+    Assert.assertNull(renameFailure.get());
+  }
+
+  /**
+   * Tests that a listing can load the metadata of the whole tree, while only listing the direct
+   * children of the directory.
+   */
+  @Test
+  public void listStatusLoadMetadataRecursive() throws Exception {
+    AlluxioURI ufsMount = new AlluxioURI(mTestFolder.newFolder().getAbsolutePath());
+    mFileSystemMaster.createDirectory(new AlluxioURI("/mnt/"), CreateDirectoryOptions.defaults());
+    for (int i = 0; i < 3; i++) {
+      AlluxioURI ufsDir = ufsMount.join("dir" + i);
+      Files.createDirectories(Paths.get(ufsDir.join("nested").getPath()));
+      Files.createFile(Paths.get(ufsDir.join("file").getPath()));
+      Files.createFile(Paths.get(ufsDir.join("nested").join("file").getPath()));
+    }
+    mFileSystemMaster.mount(new AlluxioURI("/mnt/local"), ufsMount, MountOptions.defaults());
+    AlluxioURI uri = new AlluxioURI("/mnt/local");
+    long directoriesListed = getMasterCounter("MetadataLoadDirectoriesListed");
+    long pathsLoaded = getMasterCounter("MetadataLoadPathsLoaded");
+
+    List<FileInfo> fileInfoList = mFileSystemMaster.listStatus(uri,
+        ListStatusOptions.defaults().setLoadMetadataRecursive(true));
+    List<String> paths = new ArrayList<>();
+    for (FileInfo fileInfo : fileInfoList) {
+      paths.add(fileInfo.getPath());
+    }
+    Assert.assertEquals(Arrays.asList("/mnt/local/dir0", "/mnt/local/dir1", "/mnt/local/dir2"),
+        paths);
+    // The mount point and the 6 directories under it are listed.
+    Assert.assertEquals(directoriesListed + 7, getMasterCounter("MetadataLoadDirectoriesListed"));
+    Assert.assertEquals(pathsLoaded + 12, getMasterCounter("MetadataLoadPathsLoaded"));
+    Assert.assertEquals(15, mFileSystemMaster.getNumberOfPaths());
+    Assert.assertEquals(1, mFileSystemMaster.listStatus(uri.join("dir1").join("nested"),
+        ListStatusOptions.defaults().setLoadMetadataType(LoadMetadataType.Never)).size());
+
+    // The loaded directories are not listed again, unless the metadata is always loaded.
+    Files.createFile(Paths.get(ufsMount.join("dir0").join("nested").join("file2").getPath()));
+    AlluxioURI nested = uri.join("dir0").join("nested");
+    mFileSystemMaster.listStatus(uri, ListStatusOptions.defaults().setLoadMetadataRecursive(true));
+    Assert.assertEquals(directoriesListed + 7, getMasterCounter("MetadataLoadDirectoriesListed"));
+    Assert.assertEquals(1, mFileSystemMaster.listStatus(nested,
+        ListStatusOptions.defaults().setLoadMetadataType(LoadMetadataType.Never)).size());
+    // The tree is only loaded with the first batch.
+    Assert.assertEquals(1, mFileSystemMaster.listStatus(uri, ListStatusOptions.defaults()
+        .setLoadMetadataRecursive(true).setLoadMetadataType(LoadMetadataType.Always)
+        .setStartAfter("dir0").setBatchSize(1)).size());
+    Assert.assertEquals(directoriesListed + 7, getMasterCounter("MetadataLoadDirectoriesListed"));
+    Assert.assertEquals(3, mFileSystemMaster.listStatus(uri, ListStatusOptions.defaults()
+        .setLoadMetadataRecursive(true).setLoadMetadataType(LoadMetadataType.Always)).size());
+    Assert.assertEquals(directoriesListed + 14, getMasterCounter("MetadataLoadDirectoriesListed"));
+    Assert.assertEquals(pathsLoaded + 13, getMasterCounter("MetadataLoadPathsLoaded"));
+    Assert.assertEquals(2, mFileSystemMaster.listStatus(nested,
+        ListStatusOptions.defaults().setLoadMetadataType(LoadMetadataType.Never)).size());
+
+    // A file is listed as its only entry.
+    Assert.assertEquals(1, mFileSystemMaster.listStatus(uri.join("dir1").join("file"),
+        ListStatusOptions.defaults().setLoadMetadataRecursive(true)).size());
+  }
+
+  /**
+   * Tests that a directory can be listed in batches, in name order.
+   */
+  @Test
+  public void listStatusInBatches() throws Exception {
+    AlluxioURI dir = new AlluxioURI("/batches");
+    mFileSystemMaster.createDirectory(dir, CreateDirectoryOptions.defaults());
+    for (int i = 4; i >= 0; i--) {
+      mFileSystemMaster.createDirectory(dir.join("child" + i), CreateDirectoryOptions.defaults());
+    }
+
+    List<String> names = new ArrayList<>();
+    String startAfter = null;
+    List<FileInfo> batch;
+    do {
+      batch = mFileSystemMaster.listStatus(dir,
+          ListStatusOptions.defaults().setStartAfter(startAfter).setBatchSize(2));
+      Assert.assertTrue(batch.size() <= 2);
+      for (FileInfo info : batch) {
+        names.add(info.getName());
+        startAfter = info.getName();
+      }
+    } while (batch.size() == 2);
+    Assert.assertEquals(Lists.newArrayList("child0", "child1", "child2", "child3", "child4"),
+        names);
+
+    // A file is listed as its only entry.
+    AlluxioURI file = dir.join("child0").join("file");
+    createFileWithSingleBlock(file);
+    Assert.assertEquals(1, mFileSystemMaster.listStatus(file,
+        ListStatusOptions.defaults().setBatchSize(1)).size());
+    Assert.assertTrue(mFileSystemMaster.listStatus(file,
+        ListStatusOptions.defaults().setStartAfter("file").setBatchSize(1)).isEmpty());
+  }
+
   /**
    * Tests listing status on a non-persisted directory.
    */
@@ -793,6 +1116,39 @@ public final class FileSystemMasterTest {
     Assert.assertEquals(fileId, mFileSystemMaster.getFileInfo(fileId).getFileId());
   }
 
+  /**
+   * Tests that the expired files of several directories are all deleted or freed by one TTL check,
+   * and that the TTL of the freed files is reset.
+   */
+  @Test
+  public void ttlCheckExpiresFilesOfSeveralDirectories() throws Exception {
+    CreateFileOptions options =
+        CreateFileOptions.defaults().setBlockSizeBytes(Constants.KB).setRecursive(true).setTtl(0);
+    List<Long> fileIds = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      fileIds.add(mFileSystemMaster.createFile(NESTED_URI.join("file" + i), options));
+      fileIds.add(mFileSystemMaster.createFile(TEST_URI.join("file" + i), options));
+    }
+    long blockId = createFileWithSingleBlock(NESTED_FILE_URI);
+    mFileSystemMaster.setAttribute(NESTED_FILE_URI,
+        SetAttributeOptions.defaults().setTtl(0).setTtlAction(TtlAction.FREE));
+
+    HeartbeatScheduler.execute(HeartbeatContext.MASTER_TTL_CHECK);
+    for (long fileId : fileIds) {
+      try {
+        mFileSystemMaster.getFileInfo(fileId);
+        Assert.fail("File " + fileId + " should have been deleted");
+      } catch (FileDoesNotExistException e) {
+        // expected
+      }
+    }
+    FileInfo fileInfo = mFileSystemMaster.getFileInfo(NESTED_FILE_URI);
+    Assert.assertEquals(Constants.NO_TTL, fileInfo.getTtl());
+    mBlockMaster.workerHeartbeat(mWorkerId1, ImmutableMap.of("MEM", (long) Constants.KB),
+        ImmutableList.of(blockId), ImmutableMap.<String, List<Long>>of());
+    Assert.assertEquals(0, mBlockMaster.getBlockInfo(blockId).getLocations().size());
+  }
+
   /**
    * Tests that the original TTL is removed after setting it to {@link Constants#NO_TTL} for a file.
    */
@@ -1225,4 +1581,9 @@ public final class FileSystemMasterTest {
     mFileSystemMaster.completeFile(uri, options);
     return blockId;
   }
+
+  private static long getMasterCounter(String name) {
+    return MetricsSystem.METRIC_REGISTRY.counter(MetricsSystem.getMasterMetricName(name))
+        .getCount();
+  }
 }
@@ -70,7 +70,8 @@ public class DefaultAsyncPersistHandlerTest {
   }
 
   /**
-   * Tests the persistence of file with block on multiple workers.
+   * Tests that a file whose blocks are stored on multiple workers is persisted in parts, each of
+   * which is persisted by a worker storing its blocks.
    */
   @Test
   public void persistenceFileWithBlocksOnMultipleWorkers() throws Exception {
@@ -79,19 +80,61 @@ public class DefaultAsyncPersistHandlerTest {
     AlluxioURI path = new AlluxioURI("/test");
     List<FileBlockInfo> blockInfoList = new ArrayList<>();
     BlockLocation location1 = new BlockLocation().setWorkerId(1);
-    blockInfoList.add(new FileBlockInfo()
-        .setBlockInfo(new BlockInfo().setLocations(Lists.newArrayList(location1))));
+    blockInfoList.add(new FileBlockInfo().setBlockInfo(new BlockInfo().setBlockId(1).setLength(10)
+        .setLocations(Lists.newArrayList(location1))));
     BlockLocation location2 = new BlockLocation().setWorkerId(2);
-    blockInfoList.add(new FileBlockInfo()
-        .setBlockInfo(new BlockInfo().setLocations(Lists.newArrayList(location2))));
+    blockInfoList.add(new FileBlockInfo().setBlockInfo(new BlockInfo().setBlockId(2).setLength(20)
+        .setLocations(Lists.newArrayList(location2))));
     long fileId = 2;
     Mockito.when(mFileSystemMaster.getFileId(path)).thenReturn(fileId);
+    Mockito.when(mFileSystemMaster.getPath(fileId)).thenReturn(path);
     Mockito.when(mFileSystemMaster.getFileInfo(fileId))
-        .thenReturn(new FileInfo().setLength(1).setCompleted(true));
+        .thenReturn(new FileInfo().setLength(30).setCompleted(true));
     Mockito.when(mFileSystemMaster.getFileBlockInfoList(path)).thenReturn(blockInfoList);
 
-    // no persist scheduled on any worker
-    Assert.assertEquals(0, handler.pollFilesToPersist(1).size());
+    handler.scheduleAsyncPersistence(path);
+    List<PersistFile> persistFiles = handler.pollFilesToPersist(1);
+    Assert.assertEquals(
+        Lists.newArrayList(new PersistFile(fileId, Lists.newArrayList(1L, 2L), 0, 2, 0, 1)),
+        persistFiles);
+    persistFiles = handler.pollFilesToPersist(2);
+    Assert.assertEquals(
+        Lists.newArrayList(new PersistFile(fileId, Lists.newArrayList(1L, 2L), 1, 2, 1, 2)),
+        persistFiles);
     Assert.assertEquals(0, handler.pollFilesToPersist(2).size());
   }
+
+  /**
+   * Tests that the consecutive blocks stored by the same worker are persisted as one part, and
+   * that a block stored by several workers is persisted by the worker persisting the previous
+   * block.
+   */
+  @Test
+  public void persistenceFileWithBlocksInterleavedOnWorkers() throws Exception {
+    DefaultAsyncPersistHandler handler =
+        new DefaultAsyncPersistHandler(new FileSystemMasterView(mFileSystemMaster));
+    AlluxioURI path = new AlluxioURI("/test");
+    long[][] blockWorkers = {{1}, {1, 2}, {2}, {1}};
+    List<FileBlockInfo> blockInfoList = new ArrayList<>();
+    for (int i = 0; i < blockWorkers.length; i++) {
+      List<BlockLocation> locations = new ArrayList<>();
+      for (long workerId : blockWorkers[i]) {
+        locations.add(new BlockLocation().setWorkerId(workerId));
+      }
+      blockInfoList.add(new FileBlockInfo().setBlockInfo(
+          new BlockInfo().setBlockId(i).setLength(10).setLocations(locations)));
+    }
+    long fileId = 2;
+    Mockito.when(mFileSystemMaster.getFileId(path)).thenReturn(fileId);
+    Mockito.when(mFileSystemMaster.getFileInfo(fileId))
+        .thenReturn(new FileInfo().setLength(40).setCompleted(true));
+    Mockito.when(mFileSystemMaster.getFileBlockInfoList(path)).thenReturn(blockInfoList);
+
+    handler.scheduleAsyncPersistence(path);
+    List<Long> blockIds = Lists.newArrayList(0L, 1L, 2L, 3L);
+    Assert.assertEquals(Lists.newArrayList(new PersistFile(fileId, blockIds, 0, 3, 0, 2),
+        new PersistFile(fileId, blockIds, 2, 3, 3, 4)), handler.pollFilesToPersist(1));
+    Assert.assertEquals(Lists.newArrayList(new PersistFile(fileId, blockIds, 1, 3, 2, 3)),
+        handler.pollFilesToPersist(2));
+  }
 }
@@ -16,6 +16,7 @@ import alluxio.master.file.options.CreateDirectoryOptions;
 import alluxio.security.authorization.Permission;
 import alluxio.wire.FileInfo;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.junit.Assert;
 import org.junit.Test;
@@ -42,6 +43,28 @@ public final class InodeDirectoryTest extends AbstractInodeTest {
         inodeDirectory.getChildrenIds());
   }
 
+  /**
+   * Tests that the {@link InodeDirectory#getChildrenAfter(String)} method returns the children in
+   * name order, starting after the given name.
+   */
+  @Test
+  public void getChildrenAfter() {
+    InodeDirectory inodeDirectory = createInodeDirectory();
+    InodeFile inodeFile1 = createInodeFile(1);
+    InodeFile inodeFile2 = createInodeFile(2);
+    InodeFile inodeFile3 = createInodeFile(3);
+    inodeDirectory.addChild(inodeFile3);
+    inodeDirectory.addChild(inodeFile1);
+    inodeDirectory.addChild(inodeFile2);
+    Assert.assertEquals(Lists.newArrayList(inodeFile1, inodeFile2, inodeFile3),
+        Lists.newArrayList(inodeDirectory.getChildrenAfter(null)));
+    Assert.assertEquals(Lists.newArrayList(inodeFile2, inodeFile3),
+        Lists.newArrayList(inodeDirectory.getChildrenAfter(inodeFile1.getName())));
+    Assert.assertEquals(Lists.newArrayList(inodeFile3),
+        Lists.newArrayList(inodeDirectory.getChildrenAfter("testFile20")));
+    Assert.assertTrue(inodeDirectory.getChildrenAfter(inodeFile3.getName()).isEmpty());
+  }
+
   /**
    * Tests the {@link InodeDirectory#removeChild(String)} method after multiple children have been
    * added.
@@ -47,6 +47,9 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Unit tests for {@link InodeTree}.
@@ -76,6 +79,7 @@ public final class InodeTreeTest {
    */
   @Before
   public void before() throws Exception {
+    Configuration.set(PropertyKey.MASTER_INODE_TREE_OPTIMISTIC_READ_ENABLED, "true");
     Journal blockJournal = new ReadWriteJournal(mTestFolder.newFolder().getAbsolutePath());
 
     BlockMaster blockMaster = new BlockMaster(blockJournal);
@@ -621,6 +625,208 @@ public final class InodeTreeTest {
     }
   }
 
+  /**
+   * Tests that a {@link InodeTree.LockMode#READ} lookup locks the whole path.
+   */
+  @Test
+  public void lockFullInodePathReadLocksWholePath() throws Exception {
+    createPath(mTree, NESTED_FILE_URI, sNestedFileOptions);
+
+    try (LockedInodePath inodePath =
+        mTree.lockFullInodePath(NESTED_FILE_URI, InodeTree.LockMode.READ)) {
+      List<Inode<?>> inodes = inodePath.getInodeList();
+      Assert.assertEquals(4, inodes.size());
+      for (Inode<?> inode : inodes) {
+        Assert.assertTrue(inode.isReadLocked());
+      }
+    }
+  }
+
+  /**
+   * Tests that a target-only read lookup only locks the target inode.
+   */
+  @Test
+  public void lockFullInodePathForTargetReadOnlyLocksTarget() throws Exception {
+    createPath(mTree, NESTED_FILE_URI, sNestedFileOptions);
+
+    try (LockedInodePath inodePath = mTree.lockFullInodePathForTargetRead(NESTED_FILE_URI)) {
+      List<Inode<?>> inodes = inodePath.getInodeList();
+      Assert.assertEquals(4, inodes.size());
+      Assert.assertEquals(NESTED_FILE_URI.getName(), inodePath.getInode().getName());
+      Assert.assertTrue(inodePath.getInode().isReadLocked());
+      for (Inode<?> ancestor : inodes.subList(0, inodes.size() - 1)) {
+        Assert.assertFalse(ancestor.isReadLocked());
+      }
+    }
+    Assert.assertFalse(getInodeByPath(mTree, NESTED_FILE_URI).isReadLocked());
+  }
+
+  /**
+   * Tests that a target-only read lookup falls back to locking the whole path when an ancestor is
+   * write locked.
+   */
+  @Test
+  public void lockFullInodePathForTargetReadWithWriteLockedAncestor() throws Exception {
+    createPath(mTree, NESTED_FILE_URI, sNestedFileOptions);
+
+    try (LockedInodePath ancestorPath =
+        mTree.lockFullInodePath(new AlluxioURI("/nested"), InodeTree.LockMode.WRITE)) {
+      try (LockedInodePath inodePath = mTree.lockFullInodePathForTargetRead(NESTED_FILE_URI)) {
+        Assert.assertEquals(NESTED_FILE_URI.getName(), inodePath.getInode().getName());
+        for (Inode<?> inode : inodePath.getInodeList()) {
+          Assert.assertTrue(inode.isReadLocked());
+        }
+      }
+      Assert.assertTrue(ancestorPath.getInode().isWriteLocked());
+    }
+  }
+
+  /**
+   * Tests that an optimistically locked path is no longer valid once one of its ancestors has been
+   * write locked, and that paths which do not exist are not locked optimistically.
+   */
+  @Test
+  public void tryLockFullInodePathOptimistic() throws Exception {
+    createPath(mTree, NESTED_FILE_URI, sNestedFileOptions);
+
+    Assert.assertNull(mTree.tryLockFullInodePathOptimistic(new AlluxioURI("/nested/missing")));
+    try (OptimisticLockedInodePath inodePath =
+        mTree.tryLockFullInodePathOptimistic(NESTED_FILE_URI)) {
+      Assert.assertNotNull(inodePath);
+      Assert.assertEquals(4, inodePath.getInodeList().size());
+      Assert.assertTrue(inodePath.getInode().isReadLocked());
+      Assert.assertTrue(inodePath.validate());
+
+      try (LockedInodePath ancestorPath =
+          mTree.lockFullInodePath(new AlluxioURI("/nested"), InodeTree.LockMode.WRITE)) {
+        Assert.assertFalse(inodePath.validate());
+      }
+      Assert.assertFalse(inodePath.validate());
+    }
+    Assert.assertFalse(getInodeByPath(mTree, NESTED_FILE_URI).isReadLocked());
+  }
+
+  /**
+   * Tests that target-only read lookups racing with renames of their ancestors and with attribute
+   * changes on their ancestors always find the inode which is at the path at some point during the
+   * lookup.
+   */
+  @Test
+  public void lockFullInodePathForTargetReadConcurrentWithRenameAndSetAttribute()
+      throws Exception {
+    final AlluxioURI dirUri = new AlluxioURI("/a");
+    final AlluxioURI fileUri = new AlluxioURI("/a/f");
+    final AlluxioURI xUri = new AlluxioURI("/x");
+    final AlluxioURI yUri = new AlluxioURI("/y");
+    final AlluxioURI tmpUri = new AlluxioURI("/t");
+    final AlluxioURI tmpFileUri = new AlluxioURI("/t/f");
+    createPath(mTree, fileUri, sNestedFileOptions);
+    createPath(mTree, yUri, sFileOptions);
+    final long xFileId = getInodeByPath(mTree, fileUri).getId();
+    final long yFileId = getInodeByPath(mTree, yUri).getId();
+    // Every four renames move the directory at /a away, swap its file with the file at /x or /y,
+    // and move the directory back, so a lookup which misses a rename of /a can find a file which
+    // was never at /a/f.
+    final AlluxioURI[][] steps = {
+        {dirUri, tmpUri}, {tmpFileUri, xUri}, {yUri, tmpFileUri}, {tmpUri, dirUri},
+        {dirUri, tmpUri}, {tmpFileUri, yUri}, {xUri, tmpFileUri}, {tmpUri, dirUri}};
+    final AtomicLong renames = new AtomicLong();
+    final AtomicBoolean stop = new AtomicBoolean();
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    Thread renamer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          while (!stop.get()) {
+            AlluxioURI[] step = steps[(int) (renames.get() % steps.length)];
+            renameInode(mTree, step[0], step[1], renames);
+          }
+        } catch (Throwable t) {
+          error.compareAndSet(null, t);
+        }
+      }
+    });
+    Thread attributeSetter = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        short mode = 0;
+        try {
+          while (!stop.get()) {
+            for (AlluxioURI uri : new AlluxioURI[] {dirUri, fileUri, tmpUri}) {
+              try (LockedInodePath inodePath =
+                  mTree.lockFullInodePath(uri, InodeTree.LockMode.WRITE)) {
+                inodePath.getInode().setPermission((short) (0700 | (mode++ & 077)));
+              } catch (FileDoesNotExistException e) {
+                // The path is being renamed.
+              }
+            }
+          }
+        } catch (Throwable t) {
+          error.compareAndSet(null, t);
+        }
+      }
+    });
+    renamer.start();
+    attributeSetter.start();
+    try {
+      for (int i = 0; i < 20000 && error.get() == null; i++) {
+        long before = renames.get();
+        long fileId = -1;
+        try (LockedInodePath inodePath = mTree.lockFullInodePathForTargetRead(fileUri)) {
+          Assert.assertTrue(inodePath.getInode().isReadLocked());
+          fileId = inodePath.getInode().getId();
+        } catch (FileDoesNotExistException e) {
+          // The directory or the file is renamed away.
+        }
+        long after = renames.get();
+        boolean valid = false;
+        for (long state = before; state <= after && !valid; state++) {
+          valid = fileId == expectedFileId(state, xFileId, yFileId);
+        }
+        Assert.assertTrue(String.format("file id %d is not at %s during renames %d to %d", fileId,
+            fileUri, before, after), valid);
+      }
+    } finally {
+      stop.set(true);
+      renamer.join(10 * Constants.SECOND_MS);
+      attributeSetter.join(10 * Constants.SECOND_MS);
+    }
+    Assert.assertFalse("renamer is deadlocked", renamer.isAlive());
+    Assert.assertFalse("attribute setter is deadlocked", attributeSetter.isAlive());
+    if (error.get() != null) {
+      throw new AssertionError(error.get());
+    }
+  }
+
+  // Returns the id of the file at /a/f after the given number of renames in
+  // lockFullInodePathForTargetReadConcurrentWithRenameAndSetAttribute, or -1 if there is none.
+  private static long expectedFileId(long renames, long xFileId, long yFileId) {
+    if (renames % 4 != 0) {
+      return -1;
+    }
+    return (renames / 4) % 2 == 0 ? xFileId : yFileId;
+  }
+
+  // Helper to rename an inode in the same way as the file system master. The rename is counted
+  // before the paths are unlocked.
+  private static void renameInode(InodeTree root, AlluxioURI src, AlluxioURI dst,
+      AtomicLong renames) throws Exception {
+    try (InodePathPair inodePathPair = root.lockInodePathPair(src,
+        InodeTree.LockMode.WRITE_PARENT, dst, InodeTree.LockMode.WRITE_PARENT)) {
+      LockedInodePath srcInodePath = inodePathPair.getFirst();
+      LockedInodePath dstInodePath = inodePathPair.getSecond();
+      Inode<?> srcInode = srcInodePath.getInode();
+      InodeDirectory srcParentInode = srcInodePath.getParentInodeDirectory();
+      InodeDirectory dstParentInode = dstInodePath.getParentInodeDirectory();
+      srcParentInode.removeChild(srcInode);
+      srcInode.setParentId(dstParentInode.getId());
+      srcInode.setName(dst.getName());
+      dstParentInode.addChild(srcInode);
+      renames.incrementAndGet();
+    }
+  }
+
   // Helper to create a path.
   InodeTree.CreatePathResult createPath(InodeTree root, AlluxioURI path,
       CreatePathOptions<?> options)
@@ -136,4 +136,51 @@ public final class TtlBucketListTest {
     expired = getSortedExpiredBuckets(BUCKET2_END);
     Assert.assertEquals(0, expired.size());
   }
+
+  /**
+   * Tests that the buckets of a list started before their intervals expire in order, from any
+   * level of the wheel, including when the expiration time moves far ahead at once.
+   */
+  @Test
+  public void expireFromWheel() {
+    mBucketList = new TtlBucketList(BUCKET1_START);
+    long[] ttls = {BUCKET1_START, BUCKET2_START + 1, 65 * BUCKET_INTERVAL,
+        5000 * BUCKET_INTERVAL, 300000 * BUCKET_INTERVAL, 300000 * BUCKET_INTERVAL + 5};
+    List<InodeFile> files = Lists.newArrayList();
+    for (int i = 0; i < ttls.length; i++) {
+      InodeFile file =
+          InodeFile.create(i, 0, "ignored", 0, CreateFileOptions.defaults().setTtl(ttls[i]));
+      files.add(file);
+      mBucketList.insert(file);
+    }
+
+    List<TtlBucket> expired = getSortedExpiredBuckets(BUCKET2_END);
+    Assert.assertEquals(2, expired.size());
+    assertExpired(expired, 0, files.get(0));
+    assertExpired(expired, 1, files.get(1));
+    mBucketList.removeBuckets(Sets.newHashSet(expired));
+
+    // Nothing expires before the end of the interval of the next bucket.
+    Assert.assertTrue(getSortedExpiredBuckets(66 * BUCKET_INTERVAL - 1).isEmpty());
+    expired = getSortedExpiredBuckets(66 * BUCKET_INTERVAL);
+    Assert.assertEquals(1, expired.size());
+    assertExpired(expired, 0, files.get(2));
+    mBucketList.removeBuckets(Sets.newHashSet(expired));
+
+    // A file inserted in a passed interval expires at once.
+    InodeFile late = InodeFile.create(ttls.length, 0, "ignored", 0,
+        CreateFileOptions.defaults().setTtl(BUCKET2_START));
+    mBucketList.insert(late);
+    expired = getSortedExpiredBuckets(66 * BUCKET_INTERVAL);
+    assertExpired(expired, 0, late);
+    mBucketList.removeBuckets(Sets.newHashSet(expired));
+
+    mBucketList.remove(files.get(3));
+    expired = getSortedExpiredBuckets(300001 * BUCKET_INTERVAL);
+    Assert.assertEquals(2, expired.size());
+    assertExpired(expired, 0);
+    assertExpired(expired, 1, files.get(4), files.get(5));
+    mBucketList.removeBuckets(Sets.newHashSet(expired));
+    Assert.assertTrue(getSortedExpiredBuckets(Long.MAX_VALUE / 2).isEmpty());
+  }
 }
@@ -27,6 +27,9 @@ public class ListStatusOptionsTest {
   public void defaults() {
     ListStatusOptions options = ListStatusOptions.defaults();
     Assert.assertEquals(LoadMetadataType.Once, options.getLoadMetadataType());
+    Assert.assertNull(options.getStartAfter());
+    Assert.assertEquals(0, options.getBatchSize());
+    Assert.assertFalse(options.isLoadMetadataRecursive());
   }
 
   @Test
@@ -35,14 +38,26 @@ public class ListStatusOptionsTest {
     Assert.assertEquals(LoadMetadataType.Once, options.getLoadMetadataType());
     options.setLoadMetadataType(LoadMetadataType.Always);
     Assert.assertEquals(LoadMetadataType.Always, options.getLoadMetadataType());
+    options.setStartAfter("child");
+    Assert.assertEquals("child", options.getStartAfter());
+    options.setBatchSize(10);
+    Assert.assertEquals(10, options.getBatchSize());
+    options.setLoadMetadataRecursive(true);
+    Assert.assertTrue(options.isLoadMetadataRecursive());
   }
 
   @Test
   public void fromThrift() {
     ListStatusTOptions listStatusTOptions = new ListStatusTOptions();
     listStatusTOptions.setLoadMetadataType(LoadMetadataTType.Always);
+    listStatusTOptions.setStartAfter("child");
+    listStatusTOptions.setBatchSize(10);
+    listStatusTOptions.setLoadMetadataRecursive(true);
     ListStatusOptions options = new ListStatusOptions(listStatusTOptions);
     Assert.assertEquals(LoadMetadataType.Always, options.getLoadMetadataType());
+    Assert.assertEquals("child", options.getStartAfter());
+    Assert.assertEquals(10, options.getBatchSize());
+    Assert.assertTrue(options.isLoadMetadataRecursive());
   }
 
   @Test
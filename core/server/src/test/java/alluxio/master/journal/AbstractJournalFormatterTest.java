@@ -17,6 +17,7 @@ import alluxio.proto.journal.Block.BlockContainerIdGeneratorEntry;
 import alluxio.proto.journal.Block.BlockInfoEntry;
 import alluxio.proto.journal.File.AddMountPointEntry;
 import alluxio.proto.journal.File.AsyncPersistRequestEntry;
+import alluxio.proto.journal.File.BackgroundDeleteEntry;
 import alluxio.proto.journal.File.CompleteFileEntry;
 import alluxio.proto.journal.File.DeleteFileEntry;
 import alluxio.proto.journal.File.DeleteMountPointEntry;
@@ -29,6 +30,8 @@ import alluxio.proto.journal.File.PersistDirectoryEntry;
 import alluxio.proto.journal.File.ReinitializeFileEntry;
 import alluxio.proto.journal.File.RenameEntry;
 import alluxio.proto.journal.File.SetAttributeEntry;
+import alluxio.proto.journal.Journal.CheckpointChunkEntry;
+import alluxio.proto.journal.Journal.CheckpointHeaderEntry;
 import alluxio.proto.journal.Journal.JournalEntry;
 import alluxio.proto.journal.KeyValue.CompletePartitionEntry;
 import alluxio.proto.journal.KeyValue.CompleteStoreEntry;
@@ -47,6 +50,7 @@ import com.google.common.collect.DiscreteDomain;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Range;
+import com.google.protobuf.ByteString;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -114,6 +118,19 @@ public abstract class AbstractJournalFormatterTest {
                     .setBlockId(TEST_BLOCK_ID)
                     .setLength(TEST_LENGTH_BYTES))
                 .build())
+        .add(
+            JournalEntry.newBuilder()
+                .setCheckpointChunk(CheckpointChunkEntry.newBuilder()
+                    .setEntryType(JournalEntry.BLOCK_INFO_FIELD_NUMBER)
+                    .setNumEntries(0)
+                    .setCompressed(false)
+                    .setEntries(ByteString.EMPTY))
+                .build())
+        .add(
+            JournalEntry.newBuilder()
+                .setCheckpointHeader(CheckpointHeaderEntry.newBuilder()
+                    .setNextLogNumber(Journal.FIRST_COMPLETED_LOG_NUMBER))
+                .build())
         .add(JournalEntry.newBuilder()
             .setInodeFile(InodeFileEntry.newBuilder()
                 .setCreationTimeMs(TEST_OP_TIME_MS)
@@ -172,6 +189,13 @@ public abstract class AbstractJournalFormatterTest {
                 .setRecursive(true)
                 .setOpTimeMs(TEST_OP_TIME_MS))
             .build())
+        .add(JournalEntry.newBuilder()
+            .setBackgroundDelete(BackgroundDeleteEntry.newBuilder()
+                .setId(TEST_FILE_ID)
+                .setAlluxioPath(TEST_ALLUXIO_PATH.toString())
+                .setUfsPath(TEST_UFS_PATH.toString())
+                .setCompleted(true))
+            .build())
         .add(JournalEntry.newBuilder()
             .setRename(RenameEntry.newBuilder()
                 .setId(TEST_FILE_ID)
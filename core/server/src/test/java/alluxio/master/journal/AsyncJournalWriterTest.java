@@ -0,0 +1,250 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.Configuration;
+import alluxio.ConfigurationTestUtils;
+import alluxio.PropertyKey;
+import alluxio.proto.journal.Journal.JournalEntry;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Unit tests for {@link AsyncJournalWriter}.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(JournalWriter.class)
+public final class AsyncJournalWriterTest {
+  private static final JournalEntry ENTRY = JournalEntry.newBuilder().build();
+
+  private JournalOutputStream mOutputStream;
+  private AsyncJournalWriter mAsyncJournalWriter;
+
+  /**
+   * Sets up a journal writer which writes to a mock output stream.
+   */
+  @Before
+  public void before() throws Exception {
+    Configuration.set(PropertyKey.MASTER_JOURNAL_QUEUE_CAPACITY, "2");
+    mOutputStream = Mockito.mock(JournalOutputStream.class);
+    JournalWriter journalWriter = PowerMockito.mock(JournalWriter.class);
+    Mockito.when(journalWriter.getEntryOutputStream()).thenReturn(mOutputStream);
+    mAsyncJournalWriter = new AsyncJournalWriter(journalWriter);
+  }
+
+  /**
+   * Stops the writer and resets the configuration.
+   */
+  @After
+  public void after() {
+    mAsyncJournalWriter.close();
+    ConfigurationTestUtils.resetConfiguration();
+  }
+
+  /**
+   * Tests that flushing waits until the appended entries are written and flushed.
+   */
+  @Test
+  public void appendAndFlush() throws Exception {
+    long counter = AsyncJournalWriter.INVALID_FLUSH_COUNTER;
+    for (int i = 0; i < 10; i++) {
+      counter = mAsyncJournalWriter.appendEntry(ENTRY);
+    }
+    Assert.assertEquals(10, counter);
+    mAsyncJournalWriter.flush(counter);
+    Mockito.verify(mOutputStream, Mockito.times(10)).writeEntry(ENTRY);
+    Mockito.verify(mOutputStream, Mockito.atLeastOnce()).flush();
+  }
+
+  /**
+   * Tests that a failed flush stops the writer, so that the flushes of later entries and later
+   * appends fail, while the flushes of entries written before still succeed.
+   */
+  @Test
+  public void flushFailure() throws Exception {
+    Mockito.doNothing().doThrow(new IOException("flush failed")).doNothing().when(mOutputStream)
+        .flush();
+    long flushedCounter = mAsyncJournalWriter.appendEntry(ENTRY);
+    mAsyncJournalWriter.flush(flushedCounter);
+    long counter = mAsyncJournalWriter.appendEntry(ENTRY);
+    try {
+      mAsyncJournalWriter.flush(counter);
+      Assert.fail("Flushing a failed entry should fail");
+    } catch (IOException e) {
+      Assert.assertEquals("flush failed", e.getCause().getMessage());
+    }
+    try {
+      mAsyncJournalWriter.flush(counter + 1);
+      Assert.fail("Flushing an entry after a failed entry should fail");
+    } catch (IOException e) {
+      // expected
+    }
+    try {
+      mAsyncJournalWriter.appendEntry(ENTRY);
+      Assert.fail("Appending after a failed flush should fail");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    mAsyncJournalWriter.flush(flushedCounter);
+  }
+
+  /**
+   * Tests that appending blocks while the queue is full, until the writer catches up.
+   */
+  @Test
+  public void backpressure() throws Exception {
+    final CountDownLatch writing = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    Mockito.doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        writing.countDown();
+        release.await();
+        return null;
+      }
+    }).doNothing().when(mOutputStream).writeEntry(ENTRY);
+
+    // The writer thread takes the first entry and blocks writing it, then the queue is filled.
+    mAsyncJournalWriter.appendEntry(ENTRY);
+    Assert.assertTrue(writing.await(10, TimeUnit.SECONDS));
+    mAsyncJournalWriter.appendEntry(ENTRY);
+    mAsyncJournalWriter.appendEntry(ENTRY);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Long> blockedAppend = executor.submit(new Callable<Long>() {
+        @Override
+        public Long call() {
+          return mAsyncJournalWriter.appendEntry(ENTRY);
+        }
+      });
+      try {
+        blockedAppend.get(100, TimeUnit.MILLISECONDS);
+        Assert.fail("Appending to a full queue should block");
+      } catch (TimeoutException e) {
+        // expected
+      }
+      release.countDown();
+      long counter = blockedAppend.get(10, TimeUnit.SECONDS);
+      Assert.assertEquals(4, counter);
+      mAsyncJournalWriter.flush(counter);
+      Mockito.verify(mOutputStream, Mockito.times(4)).writeEntry(ENTRY);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Tests that closing writes the appended entries, and that later appends fail.
+   */
+  @Test
+  public void close() throws Exception {
+    long counter = mAsyncJournalWriter.appendEntry(ENTRY);
+    mAsyncJournalWriter.close();
+    Mockito.verify(mOutputStream).writeEntry(ENTRY);
+    mAsyncJournalWriter.flush(counter);
+    try {
+      mAsyncJournalWriter.appendEntry(ENTRY);
+      Assert.fail("Appending after closing should fail");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Tests that an append blocked on a full queue fails once the writer is closed.
+   */
+  @Test
+  public void closeWithBlockedAppend() throws Exception {
+    final CountDownLatch writing = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    Mockito.doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        writing.countDown();
+        release.await();
+        return null;
+      }
+    }).doNothing().when(mOutputStream).writeEntry(ENTRY);
+    mAsyncJournalWriter.appendEntry(ENTRY);
+    Assert.assertTrue(writing.await(10, TimeUnit.SECONDS));
+    mAsyncJournalWriter.appendEntry(ENTRY);
+    mAsyncJournalWriter.appendEntry(ENTRY);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<Long> blockedAppend = executor.submit(new Callable<Long>() {
+        @Override
+        public Long call() {
+          return mAsyncJournalWriter.appendEntry(ENTRY);
+        }
+      });
+      Future<?> close = executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          mAsyncJournalWriter.close();
+        }
+      });
+      try {
+        blockedAppend.get(10, TimeUnit.SECONDS);
+        Assert.fail("An append blocked while closing should fail");
+      } catch (ExecutionException e) {
+        Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+      release.countDown();
+      close.get(10, TimeUnit.SECONDS);
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Tests that waiting flushes fail when the writer thread dies, and that later appends fail.
+   */
+  @Test
+  public void writerThreadFailure() throws Exception {
+    Mockito.doThrow(new Error("writer failed")).when(mOutputStream).writeEntry(ENTRY);
+    try {
+      mAsyncJournalWriter.flush(mAsyncJournalWriter.appendEntry(ENTRY));
+      Assert.fail("Flushing after the writer thread failed should fail");
+    } catch (IOException e) {
+      Assert.assertEquals("writer failed", e.getCause().getMessage());
+    }
+    try {
+      mAsyncJournalWriter.appendEntry(ENTRY);
+      Assert.fail("Appending after the writer thread failed should fail");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+}
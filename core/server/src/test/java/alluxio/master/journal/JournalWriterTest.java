@@ -20,12 +20,18 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
+import alluxio.Configuration;
+import alluxio.ConfigurationTestUtils;
+import alluxio.PropertyKey;
 import alluxio.master.journal.JournalWriter.EntryOutputStream;
+import alluxio.proto.journal.File.InodeDirectoryIdGeneratorEntry;
+import alluxio.proto.journal.Journal.CheckpointHeaderEntry;
 import alluxio.proto.journal.Journal.JournalEntry;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
 
 import org.apache.hadoop.fs.FSDataOutputStream;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -58,6 +64,11 @@ public class JournalWriterTest {
     mJournal = new ReadWriteJournal(journalFolder.getAbsolutePath());
   }
 
+  @After
+  public void after() throws Exception {
+    ConfigurationTestUtils.resetConfiguration();
+  }
+
   @Test
   public void rotateLogOnFlushIOException() throws Exception {
     // Setup so that we can trigger an IOException when flush is called on the underlying stream.
@@ -137,4 +148,99 @@ public class JournalWriterTest {
 
     verify(mockJournalWriter).completeCurrentLog();
   }
+
+  /**
+   * Tests that a standby checkpoint is installed, and that only the logs it reflects are deleted.
+   */
+  @Test
+  public void installStandbyCheckpoint() throws Exception {
+    JournalWriter writer = writeLogs(4);
+    UnderFileSystem ufs = UnderFileSystem.get(mJournal.getDirectory());
+
+    writeStandbyCheckpoint(3);
+    Assert.assertTrue(writer.installStandbyCheckpoint());
+    Assert.assertFalse(ufs.exists(mJournal.getStandbyCheckpointFilePath()));
+    Assert.assertEquals(3,
+        mJournal.getCheckpointNextLogNumber(ufs, mJournal.getCheckpointFilePath()));
+    Assert.assertFalse(ufs.exists(mJournal.getCompletedLogFilePath(1)));
+    Assert.assertFalse(ufs.exists(mJournal.getCompletedLogFilePath(2)));
+    Assert.assertTrue(ufs.exists(mJournal.getCompletedLogFilePath(3)));
+
+    // A standby checkpoint which does not reflect more logs is discarded.
+    writeStandbyCheckpoint(2);
+    Assert.assertFalse(writer.installStandbyCheckpoint());
+    Assert.assertFalse(ufs.exists(mJournal.getStandbyCheckpointFilePath()));
+    Assert.assertEquals(3,
+        mJournal.getCheckpointNextLogNumber(ufs, mJournal.getCheckpointFilePath()));
+    writer.close();
+  }
+
+  /**
+   * Tests that a reader keeps reading after a checkpoint which reflects only the logs it read is
+   * installed, and starts reading new checkpoints after the logs they reflect.
+   */
+  @Test
+  public void readInstalledCheckpoint() throws Exception {
+    JournalWriter writer = writeLogs(4);
+    JournalReader reader = new JournalReader(mJournal);
+    reader.getCheckpointInputStream().close();
+    for (int i = 0; i < 3; i++) {
+      reader.getNextInputStream().close();
+    }
+    File checkpoint = new File(mJournal.getCheckpointFilePath());
+    long modificationTime = checkpoint.lastModified();
+
+    writeStandbyCheckpoint(3);
+    Assert.assertTrue(writer.installStandbyCheckpoint());
+    Assert.assertTrue(checkpoint.setLastModified(modificationTime + 1000));
+    Assert.assertNull(reader.getNextInputStream());
+    Assert.assertTrue(reader.isValid());
+    Assert.assertEquals(3, reader.getCheckpointNextLogNumber());
+
+    JournalReader newReader = new JournalReader(mJournal);
+    JournalInputStream checkpointStream = newReader.getCheckpointInputStream();
+    Assert.assertEquals(JournalEntry.EntryCase.INODE_DIRECTORY_ID_GENERATOR,
+        checkpointStream.getNextEntry().getEntryCase());
+    Assert.assertNull(checkpointStream.getNextEntry());
+    checkpointStream.close();
+    Assert.assertEquals(3, newReader.getNextLogNumber());
+    Assert.assertNotNull(newReader.getNextInputStream());
+    writer.close();
+  }
+
+  /**
+   * Writes a checkpoint and entries to the journal, rotating the log after every entry.
+   *
+   * @param numEntries the number of entries to write
+   * @return the journal writer, whose current log holds the last entry
+   */
+  private JournalWriter writeLogs(int numEntries) throws IOException {
+    Configuration.set(PropertyKey.MASTER_JOURNAL_LOG_SIZE_BYTES_MAX, "1");
+    JournalWriter writer = new JournalWriter(mJournal);
+    writer.completeAllLogs();
+    writer.getCheckpointOutputStream(0).close();
+    JournalOutputStream outputStream = writer.getEntryOutputStream();
+    for (int i = 0; i < numEntries; i++) {
+      outputStream.writeEntry(JournalEntry.newBuilder().build());
+      outputStream.flush();
+    }
+    return writer;
+  }
+
+  /**
+   * Writes a checkpoint for the leader to install, as a standby master would.
+   *
+   * @param nextLogNumber the number of the first log which the checkpoint does not reflect
+   */
+  private void writeStandbyCheckpoint(long nextLogNumber) throws IOException {
+    UnderFileSystem ufs = UnderFileSystem.get(mJournal.getDirectory());
+    try (OutputStream outputStream = ufs.create(mJournal.getStandbyCheckpointFilePath())) {
+      JournalFormatter formatter = mJournal.getJournalFormatter();
+      formatter.serialize(JournalEntry.newBuilder().setCheckpointHeader(
+          CheckpointHeaderEntry.newBuilder().setNextLogNumber(nextLogNumber)).build(),
+          outputStream);
+      formatter.serialize(JournalEntry.newBuilder().setInodeDirectoryIdGenerator(
+          InodeDirectoryIdGeneratorEntry.getDefaultInstance()).build(), outputStream);
+    }
+  }
 }
@@ -0,0 +1,89 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.proto.journal.Block.BlockInfoEntry;
+import alluxio.proto.journal.Journal.CheckpointChunkEntry;
+import alluxio.proto.journal.Journal.JournalEntry;
+
+import com.google.protobuf.ByteString;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Unit tests for {@link ParallelCheckpointInputStream}.
+ */
+public final class ParallelCheckpointInputStreamTest {
+  private final JournalFormatter mFormatter = new ProtoBufJournalFormatter();
+
+  /**
+   * Tests that the entries of a checkpoint without chunks are read as they are.
+   */
+  @Test
+  public void readEntriesWithoutChunks() throws Exception {
+    ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+    for (int i = 0; i < 10; i++) {
+      mFormatter.serialize(blockEntry(i).toBuilder().setSequenceNumber(i).build(), checkpoint);
+    }
+
+    JournalInputStream inputStream = createInputStream(checkpoint);
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(i, inputStream.getNextEntry().getBlockInfo().getBlockId());
+      Assert.assertEquals(i, inputStream.getLatestSequenceNumber());
+    }
+    Assert.assertNull(inputStream.getNextEntry());
+    inputStream.close();
+  }
+
+  /**
+   * Tests that reading a chunk with fewer entries than it claims to have fails.
+   */
+  @Test
+  public void readTruncatedChunk() throws Exception {
+    ByteArrayOutputStream entries = new ByteArrayOutputStream();
+    mFormatter.serialize(blockEntry(1), entries);
+    ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+    mFormatter.serialize(JournalEntry.newBuilder()
+        .setCheckpointChunk(CheckpointChunkEntry.newBuilder()
+            .setEntryType(JournalEntry.BLOCK_INFO_FIELD_NUMBER)
+            .setNumEntries(2)
+            .setCompressed(false)
+            .setEntries(ByteString.copyFrom(entries.toByteArray())))
+        .build(), checkpoint);
+
+    JournalInputStream inputStream = createInputStream(checkpoint);
+    try {
+      inputStream.getNextEntry();
+      Assert.fail("Reading a truncated chunk should fail");
+    } catch (IOException e) {
+      // expected
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  private JournalInputStream createInputStream(ByteArrayOutputStream checkpoint)
+      throws IOException {
+    return new ParallelCheckpointInputStream(
+        mFormatter.deserialize(new ByteArrayInputStream(checkpoint.toByteArray())), mFormatter, 2);
+  }
+
+  private static JournalEntry blockEntry(long blockId) {
+    return JournalEntry.newBuilder()
+        .setBlockInfo(BlockInfoEntry.newBuilder().setBlockId(blockId).setLength(blockId))
+        .build();
+  }
+}
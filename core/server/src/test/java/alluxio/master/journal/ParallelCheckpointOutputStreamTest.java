@@ -0,0 +1,150 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.Configuration;
+import alluxio.ConfigurationTestUtils;
+import alluxio.PropertyKey;
+import alluxio.proto.journal.Block.BlockContainerIdGeneratorEntry;
+import alluxio.proto.journal.Block.BlockInfoEntry;
+import alluxio.proto.journal.Journal.CheckpointChunkEntry;
+import alluxio.proto.journal.Journal.JournalEntry;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Unit tests for {@link ParallelCheckpointOutputStream}.
+ */
+public final class ParallelCheckpointOutputStreamTest {
+  private static final long SEQUENCE_NUMBER = 42;
+  private static final long NEXT_LOG_NUMBER = 7;
+
+  private final JournalFormatter mFormatter = new ProtoBufJournalFormatter();
+
+  /**
+   * Resets the configuration.
+   */
+  @After
+  public void after() {
+    ConfigurationTestUtils.resetConfiguration();
+  }
+
+  /**
+   * Tests that the entries of many chunks are read back in order after the header, with the
+   * sequence number of the checkpoint.
+   */
+  @Test
+  public void writeInOrder() throws Exception {
+    checkWriteInOrder();
+  }
+
+  /**
+   * Tests that the entries are read back in order when the chunks are not compressed.
+   */
+  @Test
+  public void writeInOrderUncompressed() throws Exception {
+    Configuration.set(PropertyKey.MASTER_JOURNAL_CHECKPOINT_COMPRESSION_ENABLED, "false");
+    checkWriteInOrder();
+  }
+
+  /**
+   * Tests that the entries are grouped into chunks of entries of the same type.
+   */
+  @Test
+  public void chunkPerEntryType() throws Exception {
+    ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+    ParallelCheckpointOutputStream outputStream =
+        new ParallelCheckpointOutputStream(checkpoint, mFormatter, SEQUENCE_NUMBER, 2);
+    outputStream.writeHeader(NEXT_LOG_NUMBER);
+    outputStream.writeEntry(containerIdEntry(1));
+    outputStream.writeEntry(blockEntry(1));
+    outputStream.writeEntry(blockEntry(2));
+    outputStream.writeEntry(containerIdEntry(2));
+    outputStream.close();
+
+    JournalInputStream inputStream =
+        mFormatter.deserialize(new ByteArrayInputStream(checkpoint.toByteArray()));
+    Assert.assertEquals(NEXT_LOG_NUMBER,
+        inputStream.getNextEntry().getCheckpointHeader().getNextLogNumber());
+    int[] entryTypes = {JournalEntry.BLOCK_CONTAINER_ID_GENERATOR_FIELD_NUMBER,
+        JournalEntry.BLOCK_INFO_FIELD_NUMBER,
+        JournalEntry.BLOCK_CONTAINER_ID_GENERATOR_FIELD_NUMBER};
+    int[] numEntries = {1, 2, 1};
+    for (int i = 0; i < entryTypes.length; i++) {
+      CheckpointChunkEntry chunk = inputStream.getNextEntry().getCheckpointChunk();
+      Assert.assertEquals(entryTypes[i], chunk.getEntryType());
+      Assert.assertEquals(numEntries[i], chunk.getNumEntries());
+    }
+    Assert.assertNull(inputStream.getNextEntry());
+  }
+
+  /**
+   * Tests that no entries can be written after closing the stream.
+   */
+  @Test
+  public void writeAfterClose() throws Exception {
+    JournalOutputStream outputStream = new ParallelCheckpointOutputStream(
+        new ByteArrayOutputStream(), mFormatter, SEQUENCE_NUMBER, 1);
+    outputStream.close();
+    try {
+      outputStream.writeEntry(blockEntry(0));
+      Assert.fail("Writing after closing should fail");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  private void checkWriteInOrder() throws Exception {
+    int numEntries = 100000;
+    ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+    ParallelCheckpointOutputStream outputStream =
+        new ParallelCheckpointOutputStream(checkpoint, mFormatter, SEQUENCE_NUMBER, 4);
+    outputStream.writeHeader(NEXT_LOG_NUMBER);
+    for (int i = 0; i < numEntries; i++) {
+      outputStream.writeEntry(blockEntry(i));
+    }
+    outputStream.writeEntry(containerIdEntry(numEntries));
+    outputStream.close();
+
+    JournalInputStream inputStream = new ParallelCheckpointInputStream(
+        mFormatter.deserialize(new ByteArrayInputStream(checkpoint.toByteArray())), mFormatter, 4);
+    Assert.assertEquals(NEXT_LOG_NUMBER,
+        inputStream.getNextEntry().getCheckpointHeader().getNextLogNumber());
+    for (int i = 0; i < numEntries; i++) {
+      JournalEntry entry = inputStream.getNextEntry();
+      Assert.assertEquals(i, entry.getBlockInfo().getBlockId());
+      Assert.assertEquals(SEQUENCE_NUMBER, entry.getSequenceNumber());
+    }
+    Assert.assertEquals(numEntries,
+        inputStream.getNextEntry().getBlockContainerIdGenerator().getNextContainerId());
+    Assert.assertNull(inputStream.getNextEntry());
+    Assert.assertEquals(SEQUENCE_NUMBER, inputStream.getLatestSequenceNumber());
+    inputStream.close();
+  }
+
+  private static JournalEntry containerIdEntry(long nextContainerId) {
+    return JournalEntry.newBuilder().setBlockContainerIdGenerator(
+        BlockContainerIdGeneratorEntry.newBuilder().setNextContainerId(nextContainerId)).build();
+  }
+
+  private static JournalEntry blockEntry(long blockId) {
+    return JournalEntry.newBuilder()
+        .setBlockInfo(BlockInfoEntry.newBuilder().setBlockId(blockId).setLength(blockId))
+        .build();
+  }
+}
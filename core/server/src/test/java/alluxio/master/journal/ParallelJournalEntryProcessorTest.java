@@ -0,0 +1,103 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.collections.ConcurrentHashSet;
+import alluxio.master.Master;
+import alluxio.proto.journal.Block.BlockInfoEntry;
+import alluxio.proto.journal.Journal.JournalEntry;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link ParallelJournalEntryProcessor}.
+ */
+public final class ParallelJournalEntryProcessorTest {
+  private Master mMaster;
+  private ParallelJournalEntryProcessor mProcessor;
+
+  /**
+   * Sets up a processor for a mock master.
+   */
+  @Before
+  public void before() {
+    mMaster = Mockito.mock(Master.class);
+    mProcessor = new ParallelJournalEntryProcessor(mMaster, 4);
+  }
+
+  /**
+   * Stops the processor.
+   */
+  @After
+  public void after() {
+    mProcessor.close();
+  }
+
+  /**
+   * Tests that every entry of a batch is processed once.
+   */
+  @Test
+  public void processBatch() throws Exception {
+    final Set<Long> blockIds = new ConcurrentHashSet<>();
+    Mockito.doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) {
+        JournalEntry entry = (JournalEntry) invocation.getArguments()[0];
+        Assert.assertTrue(blockIds.add(entry.getBlockInfo().getBlockId()));
+        return null;
+      }
+    }).when(mMaster).processJournalEntry(Mockito.any(JournalEntry.class));
+
+    int numEntries = 10000;
+    for (int i = 0; i < numEntries; i++) {
+      mProcessor.add(blockEntry(i));
+    }
+    mProcessor.processBatch();
+    Assert.assertEquals(numEntries, blockIds.size());
+    // The batch is empty after it is processed.
+    mProcessor.processBatch();
+    Mockito.verify(mMaster, Mockito.times(numEntries))
+        .processJournalEntry(Mockito.any(JournalEntry.class));
+  }
+
+  /**
+   * Tests that a failure to process an entry fails the batch.
+   */
+  @Test
+  public void processBatchFailure() throws Exception {
+    Mockito.doThrow(new IOException("failed")).when(mMaster).processJournalEntry(blockEntry(5000));
+    for (int i = 0; i < 10000; i++) {
+      mProcessor.add(blockEntry(i));
+    }
+    try {
+      mProcessor.processBatch();
+      Assert.fail("Processing a batch with a failed entry should fail");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  private static JournalEntry blockEntry(long blockId) {
+    return JournalEntry.newBuilder()
+        .setBlockInfo(BlockInfoEntry.newBuilder().setBlockId(blockId).setLength(blockId))
+        .build();
+  }
+}
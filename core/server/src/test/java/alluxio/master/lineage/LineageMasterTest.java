@@ -71,7 +71,7 @@ public final class LineageMasterTest {
     Journal journal = new ReadWriteJournal(mTestFolder.newFolder().getAbsolutePath());
     mFileSystemMaster = Mockito.mock(FileSystemMaster.class);
     ThreadFactory threadPool = ThreadFactoryUtils.build("LineageMasterTest-%d", true);
-    mExecutorService = Executors.newFixedThreadPool(2, threadPool);
+    mExecutorService = Executors.newFixedThreadPool(3, threadPool);
     mLineageMaster = new LineageMaster(mFileSystemMaster, journal,
         ExecutorServiceFactories.constantExecutorServiceFactory(mExecutorService));
     mJob = new CommandLineJob("test", new JobConf("output"));
@@ -0,0 +1,64 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.network.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RPCBlockLoadRequest}.
+ */
+public class RPCBlockLoadRequestTest {
+  private static final long BLOCK_ID = 11;
+
+  private ByteBuf mBuffer = null;
+
+  private void assertValid(long blockId, RPCBlockLoadRequest req) {
+    Assert.assertEquals(RPCMessage.Type.RPC_BLOCK_LOAD_REQUEST, req.getType());
+    Assert.assertEquals(blockId, req.getBlockId());
+  }
+
+  /**
+   * Sets up the buffer before a test runs.
+   */
+  @Before
+  public final void before() {
+    mBuffer = Unpooled.buffer();
+  }
+
+  /**
+   * Tests the {@link RPCBlockLoadRequest#getEncodedLength()} method.
+   */
+  @Test
+  public void encodedLength() {
+    RPCBlockLoadRequest req = new RPCBlockLoadRequest(BLOCK_ID);
+    int encodedLength = req.getEncodedLength();
+    req.encode(mBuffer);
+    Assert.assertEquals(encodedLength, mBuffer.readableBytes());
+  }
+
+  /**
+   * Tests the {@link RPCBlockLoadRequest#encode(ByteBuf)} and
+   * {@link RPCBlockLoadRequest#decode(ByteBuf)} methods.
+   */
+  @Test
+  public void encodeDecode() {
+    RPCBlockLoadRequest req = new RPCBlockLoadRequest(BLOCK_ID);
+    req.encode(mBuffer);
+    RPCBlockLoadRequest req2 = RPCBlockLoadRequest.decode(mBuffer);
+    assertValid(BLOCK_ID, req);
+    assertValid(BLOCK_ID, req2);
+  }
+}
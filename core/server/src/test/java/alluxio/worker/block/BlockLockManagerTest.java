@@ -30,10 +30,12 @@ import org.junit.runner.RunWith;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -95,6 +97,22 @@ public final class BlockLockManagerTest {
     mLockManager.unlockBlock(badLockId);
   }
 
+  /**
+   * Tests that {@link BlockLockManager#unlockBlock(long, long)} skips the lock ids of the session
+   * whose records have already been claimed by {@link BlockLockManager#unlockBlock(long)}.
+   */
+  @Test(timeout = 10000)
+  public void unlockBlockBySessionSkipsClaimedLock() throws Exception {
+    long otherBlockId = TEST_BLOCK_ID + 1;
+    long claimedLockId = mLockManager.lockBlock(TEST_SESSION_ID, otherBlockId, BlockLockType.READ);
+    mLockManager.lockBlock(TEST_SESSION_ID, TEST_BLOCK_ID, BlockLockType.READ);
+    Map<Long, ?> lockIdToRecordMap = Whitebox.getInternalState(mLockManager, "mLockIdToRecordMap");
+    lockIdToRecordMap.remove(claimedLockId);
+    mLockManager.unlockBlock(TEST_SESSION_ID, TEST_BLOCK_ID);
+    // The read lock has been released, so a write lock can be taken.
+    mLockManager.lockBlock(TEST_SESSION_ID + 1, TEST_BLOCK_ID, BlockLockType.WRITE);
+  }
+
   /**
    * Tests that an exception is thrown when trying to validate a lock of a block via
    * {@link BlockLockManager#validateLock(long, long, long)} which is not locked.
@@ -32,6 +32,12 @@ import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Unit tests for {@link TieredBlockStore}.
@@ -583,4 +589,45 @@ public final class TieredBlockStoreTest {
 
     mBlockStore.removeBlock(SESSION_ID1, BLOCK_ID1);
   }
+
+  /**
+   * Tests that blocks can be cached, read and removed by several sessions concurrently.
+   */
+  @Test
+  public void concurrentBlockOperations() throws Exception {
+    final int numSessions = 8;
+    final int numBlocksPerSession = 50;
+    long availableBytes = mMetaManager.getAvailableBytes(BlockStoreLocation.anyTier());
+    ExecutorService executorService = Executors.newFixedThreadPool(numSessions);
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < numSessions; i++) {
+        final long sessionId = SESSION_ID1 + i;
+        futures.add(executorService.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            for (int j = 0; j < numBlocksPerSession; j++) {
+              long blockId = BLOCK_ID1 + sessionId * numBlocksPerSession + j;
+              TieredBlockStoreTestUtils.cache(sessionId, blockId, BLOCK_SIZE, mBlockStore,
+                  BlockStoreLocation.anyTier());
+              long lockId = mBlockStore.lockBlock(sessionId, blockId);
+              mBlockStore.getBlockReader(sessionId, blockId, lockId).close();
+              mBlockStore.accessBlock(sessionId, blockId);
+              mBlockStore.unlockBlock(lockId);
+              mBlockStore.removeBlock(sessionId, blockId);
+              Assert.assertFalse(mBlockStore.hasBlockMeta(blockId));
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+    Assert.assertEquals(availableBytes,
+        mMetaManager.getAvailableBytes(BlockStoreLocation.anyTier()));
+  }
 }
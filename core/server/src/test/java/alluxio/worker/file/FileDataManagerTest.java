@@ -17,6 +17,9 @@ import alluxio.Configuration;
 import alluxio.ConfigurationTestUtils;
 import alluxio.PropertyKey;
 import alluxio.Sessions;
+import alluxio.client.block.AlluxioBlockStore;
+import alluxio.client.block.BufferedBlockInStream;
+import alluxio.client.file.options.InStreamOptions;
 import alluxio.exception.BlockDoesNotExistException;
 import alluxio.exception.InvalidWorkerStateException;
 import alluxio.underfs.UnderFileSystem;
@@ -53,10 +56,11 @@ import java.util.List;
  * Tests {@link FileDataManager}.
  */
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({BlockWorker.class, BufferUtils.class, BlockMeta.class})
+@PrepareForTest({BlockWorker.class, BufferUtils.class, BlockMeta.class, AlluxioBlockStore.class})
 public final class FileDataManagerTest {
   private UnderFileSystem mUfs;
   private BlockWorker mBlockWorker;
+  private AlluxioBlockStore mBlockStore;
   private MockRateLimiter mMockRateLimiter;
   private FileDataManager mManager;
 
@@ -64,9 +68,11 @@ public final class FileDataManagerTest {
   public void before() throws Exception {
     mUfs = Mockito.mock(UnderFileSystem.class);
     mBlockWorker = Mockito.mock(BlockWorker.class);
+    mBlockStore = PowerMockito.mock(AlluxioBlockStore.class);
     mMockRateLimiter =
         new MockRateLimiter(Configuration.getBytes(PropertyKey.WORKER_FILE_PERSIST_RATE_LIMIT));
-    mManager = new FileDataManager(mBlockWorker, mUfs, mMockRateLimiter.getGuavaRateLimiter());
+    mManager = new FileDataManager(mBlockWorker, mUfs, mMockRateLimiter.getGuavaRateLimiter(),
+        mBlockStore);
   }
 
   @After
@@ -115,7 +121,8 @@ public final class FileDataManagerTest {
     Configuration.set(PropertyKey.WORKER_FILE_PERSIST_RATE_LIMIT, "100");
     mMockRateLimiter =
         new MockRateLimiter(Configuration.getBytes(PropertyKey.WORKER_FILE_PERSIST_RATE_LIMIT));
-    mManager = new FileDataManager(mBlockWorker, mUfs, mMockRateLimiter.getGuavaRateLimiter());
+    mManager = new FileDataManager(mBlockWorker, mUfs, mMockRateLimiter.getGuavaRateLimiter(),
+        mBlockStore);
 
     long fileId = 1;
     List<Long> blockIds = Lists.newArrayList(1L, 2L, 3L);
@@ -175,30 +182,57 @@ public final class FileDataManagerTest {
   }
 
   /**
-   * Tests the blocks are unlocked correctly when exception is encountered in
-   * {@link FileDataManager#lockBlocks(long, List)}.
+   * Tests that the blocks which are not stored by this worker are read from the other workers
+   * when the file is persisted.
    */
   @Test
-  public void lockBlocksErrorHandling() throws Exception {
+  public void persistFileWithRemoteBlocks() throws Exception {
     long fileId = 1;
     List<Long> blockIds = Lists.newArrayList(1L, 2L, 3L);
+    BufferedBlockInStream inStream = Mockito.mock(BufferedBlockInStream.class);
+    Mockito.when(mBlockStore.getInStream(Mockito.eq(2L), Mockito.any(InStreamOptions.class)))
+        .thenReturn(inStream);
 
-    Mockito.when(mBlockWorker.lockBlock(Sessions.CHECKPOINT_SESSION_ID, 1L)).thenReturn(1L);
-    Mockito.when(mBlockWorker.lockBlock(Sessions.CHECKPOINT_SESSION_ID, 2L)).thenReturn(2L);
-    Mockito.when(mBlockWorker.lockBlock(Sessions.CHECKPOINT_SESSION_ID, 3L))
-        .thenThrow(new BlockDoesNotExistException("block 3 does not exist"));
+    writeFileWithBlocks(fileId, blockIds, ImmutableList.of(2L));
+
+    Assert.assertEquals(Arrays.asList(fileId), mManager.getPersistedFiles());
+    Mockito.verify(mBlockWorker, Mockito.never())
+        .readBlockRemote(Sessions.CHECKPOINT_SESSION_ID, 2L, 2L);
+    Mockito.verify(inStream).close();
+    Mockito.verify(mBlockWorker).unlockBlock(1L);
+    Mockito.verify(mBlockWorker).unlockBlock(3L);
+    Mockito.verify(mBlockWorker, Mockito.never()).unlockBlock(2L);
+    // verify fastCopy called once per block
+    PowerMockito.verifyStatic(Mockito.times(3));
+    BufferUtils.fastCopy(Mockito.any(ReadableByteChannel.class),
+        Mockito.any(WritableByteChannel.class));
+  }
+
+  /**
+   * Tests that the local blocks are unlocked when a block stored by another worker fails to be
+   * read.
+   */
+  @Test
+  public void remoteBlockErrorHandling() throws Exception {
+    long fileId = 1;
+    List<Long> blockIds = Lists.newArrayList(1L, 2L);
+    Mockito.when(mBlockStore.getInStream(Mockito.eq(2L), Mockito.any(InStreamOptions.class)))
+        .thenThrow(new IOException("Block 2 is not available in Alluxio"));
     try {
-      mManager.lockBlocks(fileId, blockIds);
-      Assert.fail("the lock should fail");
+      writeFileWithBlocks(fileId, blockIds, ImmutableList.of(2L));
+      Assert.fail("the persist should fail");
     } catch (IOException e) {
-      Assert.assertEquals(
-          "failed to lock all blocks of file 1\n"
-              + "alluxio.exception.BlockDoesNotExistException: block 3 does not exist\n",
-          e.getMessage());
-      // verify the locks are all unlocked
+      Assert.assertEquals("the blocks of file1 are failed to persist\n"
+          + "java.io.IOException: Block 2 is not available in Alluxio\n", e.getMessage());
       Mockito.verify(mBlockWorker).unlockBlock(1L);
-      Mockito.verify(mBlockWorker).unlockBlock(2L);
     }
+    // the file can be persisted again
+    Mockito.reset(mBlockStore);
+    Mockito.when(mBlockStore.getInStream(Mockito.eq(2L), Mockito.any(InStreamOptions.class)))
+        .thenReturn(Mockito.mock(BufferedBlockInStream.class));
+    mManager.lockBlocks(fileId, blockIds);
+    mManager.persistFile(fileId, blockIds);
+    Assert.assertEquals(Arrays.asList(fileId), mManager.getPersistedFiles());
   }
 
   /**
@@ -243,12 +277,127 @@ public final class FileDataManagerTest {
     }
   }
 
+  /**
+   * Tests that a part of a file is persisted next to the file, with the blocks of the part only.
+   */
+  @Test
+  public void persistFilePart() throws Exception {
+    long fileId = 1;
+    List<Long> blockIds = Lists.newArrayList(1L, 2L, 3L);
+    FileInfo fileInfo = new FileInfo().setPath("test");
+    Mockito.when(mBlockWorker.getFileInfo(fileId)).thenReturn(fileInfo);
+    BlockReader reader = Mockito.mock(BlockReader.class);
+    for (long blockId : blockIds) {
+      Mockito.when(mBlockWorker.lockBlock(Sessions.CHECKPOINT_SESSION_ID, blockId))
+          .thenReturn(blockId);
+      Mockito.when(mBlockWorker.readBlockRemote(Sessions.CHECKPOINT_SESSION_ID, blockId, blockId))
+          .thenReturn(reader);
+    }
+    String ufsRoot = Configuration.get(PropertyKey.UNDERFS_ADDRESS);
+    Mockito.when(mUfs.exists(ufsRoot)).thenReturn(true);
+    Mockito.when(mUfs.create(Mockito.anyString(), Mockito.any(CreateOptions.class)))
+        .thenReturn(Mockito.mock(OutputStream.class));
+    PowerMockito.mockStatic(BufferUtils.class);
+
+    mManager.persistFilePart(fileId, blockIds, 1, 1, 3);
+
+    String dstPath = PathUtils.concatPath(ufsRoot, fileInfo.getPath());
+    Mockito.verify(mUfs).create(Mockito.eq(dstPath + ".alluxio.0x0000000000000001.part1"),
+        Mockito.any(CreateOptions.class));
+    Mockito.verify(mBlockWorker, Mockito.never()).lockBlock(Sessions.CHECKPOINT_SESSION_ID, 1L);
+    Mockito.verify(mBlockWorker).unlockBlock(2L);
+    Mockito.verify(mBlockWorker).unlockBlock(3L);
+    PowerMockito.verifyStatic(Mockito.times(2));
+    BufferUtils.fastCopy(Mockito.any(ReadableByteChannel.class),
+        Mockito.any(WritableByteChannel.class));
+    // the file is only persisted once its parts are joined
+    Assert.assertEquals(Collections.emptyList(), mManager.getPersistedFiles());
+  }
+
+  /**
+   * Tests that the parts of a file are joined into the file once they are all persisted.
+   */
+  @Test
+  public void joinFileParts() throws Exception {
+    long fileId = 1;
+    String dstPath = mockFileParts(fileId, 2, 30);
+
+    Assert.assertTrue(mManager.joinFileParts(fileId, 2, System.currentTimeMillis()));
+
+    Mockito.verify(mUfs).concat(dstPath, Lists.newArrayList(
+        dstPath + ".alluxio.0x0000000000000001.part0",
+        dstPath + ".alluxio.0x0000000000000001.part1"));
+    Assert.assertEquals(Arrays.asList(fileId), mManager.getPersistedFiles());
+    Assert.assertFalse(mManager.needPersistence(fileId));
+  }
+
+  /**
+   * Tests that the parts of a file are not joined when they are not all persisted in time.
+   */
+  @Test
+  public void joinFilePartsTimeout() throws Exception {
+    Configuration.set(PropertyKey.WORKER_FILE_PERSIST_PARTS_TIMEOUT_MS, "0");
+    long fileId = 1;
+    mockFileParts(fileId, 2, 40);
+
+    Assert.assertFalse(mManager.joinFileParts(fileId, 2, System.currentTimeMillis()));
+
+    Mockito.verify(mUfs, Mockito.never())
+        .concat(Mockito.anyString(), Mockito.anyListOf(String.class));
+    Assert.assertEquals(Collections.emptyList(), mManager.getPersistedFiles());
+  }
+
+  /**
+   * Tests that the parts of a file are not joined when the under file system fails to join them.
+   */
+  @Test
+  public void joinFilePartsConcatFailure() throws Exception {
+    long fileId = 1;
+    String dstPath = mockFileParts(fileId, 2, 30);
+    Mockito.doThrow(new IOException("concat failed")).when(mUfs)
+        .concat(Mockito.eq(dstPath), Mockito.anyListOf(String.class));
+
+    Assert.assertFalse(mManager.joinFileParts(fileId, 2, System.currentTimeMillis()));
+    Assert.assertEquals(Collections.emptyList(), mManager.getPersistedFiles());
+  }
+
+  /**
+   * Mocks the parts of a file in the under file system, each of which is 15 bytes long.
+   *
+   * @param fileId the id of the file
+   * @param partCount the number of parts
+   * @param length the length of the file
+   * @return the path of the file in the under file system
+   */
+  private String mockFileParts(long fileId, int partCount, long length) throws Exception {
+    FileInfo fileInfo = new FileInfo().setPath("test").setLength(length);
+    Mockito.when(mBlockWorker.getFileInfo(fileId)).thenReturn(fileInfo);
+    String dstPath =
+        PathUtils.concatPath(Configuration.get(PropertyKey.UNDERFS_ADDRESS), fileInfo.getPath());
+    for (int i = 0; i < partCount; i++) {
+      String partPath = dstPath + String.format(".alluxio.0x%016X.part%d", fileId, i);
+      Mockito.when(mUfs.exists(partPath)).thenReturn(true);
+      Mockito.when(mUfs.getFileSize(partPath)).thenReturn(15L);
+    }
+    return dstPath;
+  }
+
   private void writeFileWithBlocks(long fileId, List<Long> blockIds) throws Exception {
+    writeFileWithBlocks(fileId, blockIds, Collections.<Long>emptyList());
+  }
+
+  private void writeFileWithBlocks(long fileId, List<Long> blockIds, List<Long> remoteBlockIds)
+      throws Exception {
     FileInfo fileInfo = new FileInfo();
     fileInfo.setPath("test");
     Mockito.when(mBlockWorker.getFileInfo(fileId)).thenReturn(fileInfo);
     BlockReader reader = Mockito.mock(BlockReader.class);
     for (long blockId : blockIds) {
+      if (remoteBlockIds.contains(blockId)) {
+        Mockito.when(mBlockWorker.lockBlock(Sessions.CHECKPOINT_SESSION_ID, blockId))
+            .thenThrow(new BlockDoesNotExistException("block " + blockId + " does not exist"));
+        continue;
+      }
       Mockito.when(mBlockWorker.lockBlock(Sessions.CHECKPOINT_SESSION_ID, blockId))
           .thenReturn(blockId);
       Mockito.when(mBlockWorker.readBlockRemote(Sessions.CHECKPOINT_SESSION_ID, blockId, blockId))
@@ -11,7 +11,11 @@
 
 package alluxio.worker.file;
 
+import alluxio.thrift.CommandType;
 import alluxio.thrift.FileSystemCommand;
+import alluxio.thrift.FileSystemCommandOptions;
+import alluxio.thrift.PersistCommandOptions;
+import alluxio.thrift.PersistFile;
 
 import com.google.common.collect.Lists;
 import org.junit.Before;
@@ -31,6 +35,8 @@ import java.util.concurrent.atomic.AtomicReference;
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({FileDataManager.class, FileSystemMasterClient.class})
 public final class FileWorkerMasterSyncExecutorTest {
+  private static final long TIMEOUT_MS = 10000;
+
   private FileDataManager mFileDataManager;
   private FileSystemMasterClient mFileSystemMasterClient;
   private FileWorkerMasterSyncExecutor mFileWorkerMasterSyncExecutor;
@@ -72,4 +78,75 @@ public final class FileWorkerMasterSyncExecutorTest {
     mFileWorkerMasterSyncExecutor.heartbeat();
     Mockito.verify(mFileDataManager).clearPersistedFiles(persistedFiles);
   }
+
+  /**
+   * Verifies that the parts of a file persisted by this worker are joined into the file when this
+   * worker persists the first part.
+   */
+  @Test
+  public void heartbeatPersistFileParts() throws Exception {
+    List<Long> blockIds = Lists.newArrayList(1L, 2L, 3L);
+    mockPersistCommand(new PersistFile(1L, blockIds, 0, 3, 0, 1),
+        new PersistFile(1L, blockIds, 2, 3, 2, 3));
+    Mockito.when(mFileDataManager.needPersistence(1L)).thenReturn(true);
+    Mockito.when(mFileDataManager.joinFileParts(Mockito.eq(1L), Mockito.eq(3), Mockito.anyLong()))
+        .thenReturn(true);
+
+    mFileWorkerMasterSyncExecutor.heartbeat();
+
+    Mockito.verify(mFileDataManager, Mockito.timeout(TIMEOUT_MS))
+        .joinFileParts(Mockito.eq(1L), Mockito.eq(3), Mockito.anyLong());
+    Mockito.verify(mFileDataManager).persistFilePart(1L, blockIds, 0, 0, 1);
+    Mockito.verify(mFileDataManager).persistFilePart(1L, blockIds, 2, 2, 3);
+    Mockito.verify(mFileDataManager, Mockito.never())
+        .persistFile(Mockito.anyLong(), Mockito.anyListOf(Long.class));
+  }
+
+  /**
+   * Verifies that the file is persisted by this worker alone when its parts fail to be joined.
+   */
+  @Test
+  public void heartbeatPersistFilePartsFallback() throws Exception {
+    List<Long> blockIds = Lists.newArrayList(1L, 2L);
+    mockPersistCommand(new PersistFile(1L, blockIds, 0, 2, 0, 1));
+    Mockito.when(mFileDataManager.needPersistence(1L)).thenReturn(true);
+    Mockito.when(mFileDataManager.joinFileParts(Mockito.eq(1L), Mockito.eq(2), Mockito.anyLong()))
+        .thenReturn(false);
+
+    mFileWorkerMasterSyncExecutor.heartbeat();
+
+    Mockito.verify(mFileDataManager, Mockito.timeout(TIMEOUT_MS)).persistFile(1L, blockIds);
+    Mockito.verify(mFileDataManager).lockBlocks(1L, blockIds);
+    Mockito.verify(mFileDataManager, Mockito.timeout(TIMEOUT_MS).times(2))
+        .deleteFileParts(1L, 2);
+  }
+
+  /**
+   * Verifies that a worker which does not persist the first part of a file does not join the
+   * parts.
+   */
+  @Test
+  public void heartbeatPersistFilePartsNotFirst() throws Exception {
+    List<Long> blockIds = Lists.newArrayList(1L, 2L);
+    mockPersistCommand(new PersistFile(1L, blockIds, 1, 2, 1, 2));
+    Mockito.when(mFileDataManager.needPersistence(1L)).thenReturn(true);
+
+    mFileWorkerMasterSyncExecutor.heartbeat();
+
+    Mockito.verify(mFileDataManager, Mockito.timeout(TIMEOUT_MS))
+        .persistFilePart(1L, blockIds, 1, 1, 2);
+    mFileWorkerMasterSyncExecutor.close();
+    Mockito.verify(mFileDataManager, Mockito.never())
+        .joinFileParts(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyLong());
+    Mockito.verify(mFileDataManager, Mockito.never())
+        .persistFile(Mockito.anyLong(), Mockito.anyListOf(Long.class));
+  }
+
+  private void mockPersistCommand(PersistFile... persistFiles) throws Exception {
+    FileSystemCommand command = new FileSystemCommand(CommandType.Persist,
+        FileSystemCommandOptions.persistOptions(
+            new PersistCommandOptions(Lists.newArrayList(persistFiles))));
+    Mockito.when(mFileSystemMasterClient.heartbeat(Mockito.anyLong(),
+        Mockito.anyListOf(Long.class))).thenReturn(command);
+  }
 }
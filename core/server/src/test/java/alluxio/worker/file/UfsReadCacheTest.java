@@ -0,0 +1,265 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.file;
+
+import alluxio.Constants;
+import alluxio.util.io.BufferUtils;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link UfsReadCache}.
+ */
+public final class UfsReadCacheTest {
+  private static final String URI = "/file";
+  private static final int CHUNK_SIZE = 100;
+  private static final int LENGTH = 250;
+  private static final long MODIFICATION_TIME_MS = 1000L;
+  private static final byte[] DATA = BufferUtils.getIncreasingByteArray(LENGTH);
+
+  /** The positions the under storage file was opened at. */
+  private List<Long> mOpenedPositions;
+  /** The positions of the fetches which started, including those waiting for the latch. */
+  private List<Long> mStartedPositions;
+  /** The latch which the fetches wait for before reading the under storage. */
+  private CountDownLatch mLatch;
+  /** The number of fetches to fail. */
+  private int mFailures;
+
+  /**
+   * A cache of a file in memory, which records the positions the file is opened at.
+   */
+  private final class TestCache extends UfsReadCache {
+    TestCache(long capacityBytes) {
+      this(capacityBytes, 10 * Constants.SECOND_MS);
+    }
+
+    TestCache(long capacityBytes, long readTimeoutMs) {
+      super(CHUNK_SIZE, capacityBytes, 4, readTimeoutMs);
+    }
+
+    @Override
+    InputStream openUfs(String uri, long fileLength, long position) throws IOException {
+      Assert.assertEquals(URI, uri);
+      Assert.assertEquals(LENGTH, fileLength);
+      mStartedPositions.add(position);
+      try {
+        mLatch.await();
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      }
+      synchronized (UfsReadCacheTest.this) {
+        if (mFailures > 0) {
+          mFailures--;
+          throw new IOException("Failed to open " + uri);
+        }
+      }
+      mOpenedPositions.add(position);
+      return new ByteArrayInputStream(DATA, (int) position, LENGTH - (int) position);
+    }
+  }
+
+  /**
+   * Sets up the fake under storage before each test runs.
+   */
+  @Before
+  public void before() {
+    mOpenedPositions = Collections.synchronizedList(new ArrayList<Long>());
+    mStartedPositions = Collections.synchronizedList(new ArrayList<Long>());
+    mLatch = new CountDownLatch(0);
+    mFailures = 0;
+  }
+
+  /**
+   * Tests that concurrent reads of a chunk are served by a single fetch of the chunk.
+   */
+  @Test
+  public void coalesceConcurrentReads() throws Exception {
+    final UfsReadCache cache = new TestCache(LENGTH);
+    mLatch = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<byte[]>> reads = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        final int position = i * 10;
+        reads.add(executor.submit(new Callable<byte[]>() {
+          @Override
+          public byte[] call() throws Exception {
+            return readFully(open(cache, position), CHUNK_SIZE);
+          }
+        }));
+      }
+      mLatch.countDown();
+      for (int i = 0; i < 4; i++) {
+        Assert.assertArrayEquals(Arrays.copyOfRange(DATA, i * 10, i * 10 + CHUNK_SIZE),
+            reads.get(i).get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    // Each chunk was fetched once, the second and third ones ahead of the reads.
+    Thread.sleep(100);
+    Collections.sort(mOpenedPositions);
+    Assert.assertEquals(Arrays.asList(0L, 100L, 200L), mOpenedPositions);
+  }
+
+  /**
+   * Tests that the fetched chunks are served from memory until they are evicted.
+   */
+  @Test
+  public void evictLeastRecentlyUsed() throws Exception {
+    UfsReadCache cache = new TestCache(2 * CHUNK_SIZE);
+    Assert.assertArrayEquals(DATA, readFully(open(cache, 0), LENGTH));
+    InputStream in = open(cache, 0);
+    Assert.assertEquals(LENGTH, in.skip(2 * LENGTH));
+    Assert.assertEquals(-1, in.read());
+    Thread.sleep(100);
+    Assert.assertEquals(3, mOpenedPositions.size());
+
+    // The first chunk was evicted for the last one, the second and the last ones are cached.
+    Assert.assertArrayEquals(Arrays.copyOfRange(DATA, 150, LENGTH),
+        readFully(open(cache, 150), LENGTH - 150));
+    Thread.sleep(100);
+    Assert.assertEquals(3, mOpenedPositions.size());
+    Assert.assertEquals(DATA[5], (byte) open(cache, 5).read());
+    Thread.sleep(100);
+    Assert.assertEquals(4, mOpenedPositions.size());
+    Assert.assertEquals(0L, (long) mOpenedPositions.get(3));
+  }
+
+  /**
+   * Tests that a failed fetch fails the reads waiting for it, and that the chunk is fetched again
+   * by the next read.
+   */
+  @Test
+  public void fetchFailure() throws Exception {
+    UfsReadCache cache = new TestCache(LENGTH);
+    mFailures = 1;
+    try {
+      open(cache, 220).read();
+      Assert.fail("Reading a chunk which failed to be fetched should fail");
+    } catch (IOException e) {
+      // expected
+    }
+    Assert.assertArrayEquals(Arrays.copyOfRange(DATA, 220, LENGTH),
+        readFully(open(cache, 220), LENGTH - 220));
+    Assert.assertEquals(Arrays.asList(200L), mOpenedPositions);
+  }
+
+  /**
+   * Tests that the chunks of a file are fetched again once the file is modified.
+   */
+  @Test
+  public void fetchModifiedFile() throws Exception {
+    UfsReadCache cache = new TestCache(LENGTH);
+    Assert.assertEquals(DATA[5], (byte) cache.openAtPosition(URI, LENGTH, 1L, 5).read());
+    Assert.assertEquals(DATA[5], (byte) cache.openAtPosition(URI, LENGTH, 1L, 5).read());
+    Assert.assertEquals(DATA[5], (byte) cache.openAtPosition(URI, LENGTH, 2L, 5).read());
+    Thread.sleep(100);
+    Collections.sort(mOpenedPositions);
+    // Both versions of the first chunk, and the second chunk of each version fetched ahead.
+    Assert.assertEquals(Arrays.asList(0L, 0L, 100L, 100L), mOpenedPositions);
+  }
+
+  /**
+   * Tests that a read waiting for a chunk being fetched fails once the read timeout expires.
+   */
+  @Test
+  public void readTimeout() throws Exception {
+    UfsReadCache cache = new TestCache(LENGTH, 100);
+    mLatch = new CountDownLatch(1);
+    try {
+      open(cache, 0).read();
+      Assert.fail("Reading a chunk which is not fetched in time should fail");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().startsWith("Timed out"));
+    } finally {
+      mLatch.countDown();
+    }
+  }
+
+  /**
+   * Tests that the chunks being fetched count toward the memory of the cache, so that a fetch
+   * waits for room before it starts.
+   */
+  @Test
+  public void boundFetchingMemory() throws Exception {
+    UfsReadCache cache = new TestCache(CHUNK_SIZE);
+    mLatch = new CountDownLatch(1);
+    final InputStream in = open(cache, 0);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Integer> read = executor.submit(new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          return in.read();
+        }
+      });
+      Thread.sleep(100);
+      // The chunk fetched ahead waits for the first chunk to be fetched.
+      Assert.assertEquals(Arrays.asList(0L), mStartedPositions);
+      mLatch.countDown();
+      Assert.assertEquals(DATA[0], (byte) (int) read.get(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+    Thread.sleep(100);
+    Assert.assertEquals(Arrays.asList(0L, 100L), mStartedPositions);
+  }
+
+  /**
+   * Opens a stream of the file with the cache.
+   *
+   * @param cache the cache
+   * @param position the position to open the file at
+   * @return the stream
+   */
+  private static InputStream open(UfsReadCache cache, long position) {
+    return cache.openAtPosition(URI, LENGTH, MODIFICATION_TIME_MS, position);
+  }
+
+  /**
+   * Reads bytes of a stream until the given length or the end of the stream.
+   *
+   * @param in the stream
+   * @param length the number of bytes to read
+   * @return the bytes read
+   */
+  private static byte[] readFully(InputStream in, int length) throws IOException {
+    byte[] read = new byte[length];
+    int total = 0;
+    while (total < length) {
+      int n = in.read(read, total, length - total);
+      if (n == -1) {
+        break;
+      }
+      total += n;
+    }
+    return Arrays.copyOf(read, total);
+  }
+}
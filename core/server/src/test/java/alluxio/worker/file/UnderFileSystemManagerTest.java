@@ -274,8 +274,8 @@ public final class UnderFileSystemManagerTest {
     // Specifically testing S3A to validate the code path taken if the UFS implements the
     // openAtPosition api.
     S3AUnderFileSystem ufs = Mockito.mock(S3AUnderFileSystem.class);
-    Mockito.when(ufs.openAtPosition(Mockito.anyString(), Mockito.anyLong())).thenReturn(
-        mMockInputStream);
+    Mockito.when(ufs.openAtPosition(Mockito.anyString(), Mockito.eq(FILE_LENGTH),
+        Mockito.anyLong())).thenReturn(mMockInputStream);
     Mockito.when(ufs.getFileSize(Mockito.anyString())).thenReturn(FILE_LENGTH);
     PowerMockito.mockStatic(UnderFileSystem.class);
     Mockito.when(UnderFileSystem.get(Mockito.anyString())).thenReturn(ufs);
@@ -14,15 +14,22 @@ package alluxio.worker.netty;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import alluxio.ConfigurationRule;
 import alluxio.PropertyKey;
+import alluxio.Sessions;
 import alluxio.client.netty.ClientHandler;
 import alluxio.client.netty.NettyClient;
+import alluxio.client.netty.PipelinedResponseListener;
 import alluxio.client.netty.SingleResponseListener;
 import alluxio.exception.BlockDoesNotExistException;
+import alluxio.master.block.BlockId;
+import alluxio.network.protocol.RPCBlockLoadRequest;
+import alluxio.network.protocol.RPCBlockLoadResponse;
 import alluxio.network.protocol.RPCBlockReadRequest;
 import alluxio.network.protocol.RPCBlockWriteRequest;
 import alluxio.network.protocol.RPCFileReadRequest;
@@ -30,8 +37,11 @@ import alluxio.network.protocol.RPCFileWriteRequest;
 import alluxio.network.protocol.RPCRequest;
 import alluxio.network.protocol.RPCResponse;
 import alluxio.network.protocol.databuffer.DataByteArrayChannel;
+import alluxio.util.IdUtils;
+import alluxio.wire.FileInfo;
 import alluxio.worker.AlluxioWorkerService;
 import alluxio.worker.block.BlockWorker;
+import alluxio.worker.block.io.BlockWriter;
 import alluxio.worker.block.io.MockBlockReader;
 import alluxio.worker.block.io.MockBlockWriter;
 import alluxio.worker.file.FileSystemWorker;
@@ -45,11 +55,19 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.AdditionalAnswers;
 import org.mockito.Mockito;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -63,7 +81,11 @@ public final class NettyDataServerTest {
 
   @Rule
   public ConfigurationRule mRule = new ConfigurationRule(ImmutableMap.of(
-      PropertyKey.WORKER_NETWORK_NETTY_SHUTDOWN_QUIET_PERIOD, "0"));
+      PropertyKey.WORKER_NETWORK_NETTY_SHUTDOWN_QUIET_PERIOD, "0",
+      PropertyKey.WORKER_NETWORK_NETTY_WRITER_SPACE_RESERVE_BYTES, "8"));
+
+  @Rule
+  public TemporaryFolder mFolder = new TemporaryFolder();
 
   @Before
   public void before() {
@@ -151,10 +173,10 @@ public final class NettyDataServerTest {
     RPCResponse response =
         request(new RPCBlockWriteRequest(sessionId, blockId, offset, length, data));
 
-    // Verify that the write request tells the worker to create a new block and write the specified
-    // data to it.
+    // Verify that the write request tells the worker to create a new block, reserving the minimum
+    // amount of space, and write the specified data to it.
     assertEquals(RPCResponse.Status.SUCCESS, response.getStatus());
-    verify(mBlockWorker).createBlockRemote(sessionId, blockId, "MEM", length);
+    verify(mBlockWorker).createBlockRemote(sessionId, blockId, "MEM", 8);
     assertEquals("ab", new String(blockWriter.getBytes(), Charsets.UTF_8));
   }
 
@@ -174,10 +196,37 @@ public final class NettyDataServerTest {
     // Verify that the write request requests space on an existing block and then writes the
     // specified data.
     assertEquals(RPCResponse.Status.SUCCESS, response.getStatus());
-    verify(mBlockWorker).requestSpace(sessionId, blockId, length);
+    verify(mBlockWorker).requestSpace(sessionId, blockId, 8);
     assertEquals("ab", new String(blockWriter.getBytes(), Charsets.UTF_8));
   }
 
+  @Test
+  public void writeBlockStream() throws Exception {
+    long sessionId = 0;
+    long blockId = 1;
+    byte[] bytes = "abcdefghij".getBytes(Charsets.UTF_8);
+    MockBlockWriter mockWriter = new MockBlockWriter();
+    BlockWriter blockWriter =
+        Mockito.mock(BlockWriter.class, AdditionalAnswers.delegatesTo(mockWriter));
+    when(mBlockWorker.getTempBlockWriterRemote(sessionId, blockId)).thenReturn(blockWriter);
+    List<RPCResponse> responses = requestAll(
+        new RPCBlockWriteRequest(sessionId, blockId, 0, 4, new DataByteArrayChannel(bytes, 0, 4)),
+        new RPCBlockWriteRequest(sessionId, blockId, 4, 4, new DataByteArrayChannel(bytes, 4, 4)),
+        new RPCBlockWriteRequest(sessionId, blockId, 8, 2, new DataByteArrayChannel(bytes, 8, 2)),
+        new RPCBlockWriteRequest(sessionId, blockId, 10, 0, new DataByteArrayChannel(bytes, 0, 0)));
+
+    // Verify that the writes of the channel share one writer, which is closed by the empty write
+    // at the end, and that space is only requested once the first reservation is used up.
+    for (RPCResponse response : responses) {
+      assertEquals(RPCResponse.Status.SUCCESS, response.getStatus());
+    }
+    verify(mBlockWorker).createBlockRemote(sessionId, blockId, "MEM", 8);
+    verify(mBlockWorker).requestSpace(sessionId, blockId, 8);
+    verify(mBlockWorker).getTempBlockWriterRemote(sessionId, blockId);
+    verify(blockWriter).close();
+    assertEquals("abcdefghij", new String(mockWriter.getBytes(), Charsets.UTF_8));
+  }
+
   @Test
   public void blockWorkerExceptionCausesFailStatusOnWrite() throws Exception {
     long sessionId = 0;
@@ -194,6 +243,52 @@ public final class NettyDataServerTest {
     assertEquals(RPCResponse.Status.WRITE_ERROR, response.getStatus());
   }
 
+  @Test
+  public void loadBlock() throws Exception {
+    long blockId = BlockId.createBlockId(1, 1);
+    MockBlockWriter blockWriter = new MockBlockWriter();
+    when(mBlockWorker.getFileInfo(IdUtils.fileIdFromBlockId(blockId)))
+        .thenReturn(createUfsFileInfo("abcdefghij", 10));
+    when(mBlockWorker.getTempBlockWriterRemote(Sessions.LOAD_BLOCK_SESSION_ID, blockId))
+        .thenReturn(blockWriter);
+    RPCResponse response = request(new RPCBlockLoadRequest(blockId));
+
+    // Verify that the second block of the file, its last 4 bytes, was copied into a new block of
+    // the worker, which was committed.
+    assertEquals(RPCResponse.Status.SUCCESS, response.getStatus());
+    assertEquals(4, ((RPCBlockLoadResponse) response).getLength());
+    verify(mBlockWorker).createBlockRemote(Sessions.LOAD_BLOCK_SESSION_ID, blockId, "MEM", 4);
+    verify(mBlockWorker).commitBlock(Sessions.LOAD_BLOCK_SESSION_ID, blockId);
+    assertEquals("ghij", new String(blockWriter.getBytes(), Charsets.UTF_8));
+  }
+
+  @Test
+  public void loadStoredBlock() throws Exception {
+    long blockId = BlockId.createBlockId(1, 1);
+    when(mBlockWorker.hasBlockMeta(blockId)).thenReturn(true);
+    RPCResponse response = request(new RPCBlockLoadRequest(blockId));
+
+    // Verify that the block stored by the worker was not loaded again.
+    assertEquals(RPCResponse.Status.SUCCESS, response.getStatus());
+    assertEquals(0, ((RPCBlockLoadResponse) response).getLength());
+    verify(mBlockWorker, never()).createBlockRemote(anyLong(), anyLong(), anyString(), anyLong());
+  }
+
+  @Test
+  public void loadTruncatedBlockCausesFailStatus() throws Exception {
+    long blockId = BlockId.createBlockId(1, 1);
+    when(mBlockWorker.getFileInfo(IdUtils.fileIdFromBlockId(blockId)))
+        .thenReturn(createUfsFileInfo("abcdefgh", 10));
+    when(mBlockWorker.getTempBlockWriterRemote(Sessions.LOAD_BLOCK_SESSION_ID, blockId))
+        .thenReturn(new MockBlockWriter());
+    RPCResponse response = request(new RPCBlockLoadRequest(blockId));
+
+    // Verify that the load failed, and that the partially written block was aborted.
+    assertEquals(RPCResponse.Status.UFS_READ_FAILED, response.getStatus());
+    verify(mBlockWorker).abortBlock(Sessions.LOAD_BLOCK_SESSION_ID, blockId);
+    verify(mBlockWorker, never()).commitBlock(anyLong(), anyLong());
+  }
+
   @Test
   public void readFile() throws Exception {
     long tempUfsFileId = 1;
@@ -243,6 +338,47 @@ public final class NettyDataServerTest {
     assertEquals(RPCResponse.Status.UFS_WRITE_FAILED, response.getStatus());
   }
 
+  /**
+   * Creates the info of a persisted file of two blocks of 6 bytes, whose under storage file has
+   * the given content.
+   *
+   * @param content the content of the under storage file
+   * @param length the length of the file
+   * @return the info of the file
+   */
+  private FileInfo createUfsFileInfo(String content, long length) throws Exception {
+    File ufsFile = mFolder.newFile();
+    Files.write(ufsFile.toPath(), content.getBytes(Charsets.UTF_8));
+    return new FileInfo().setPath("/file").setUfsPath(ufsFile.getPath()).setPersisted(true)
+        .setLength(length).setBlockSizeBytes(6)
+        .setBlockIds(Arrays.asList(BlockId.createBlockId(1, 0), BlockId.createBlockId(1, 1)));
+  }
+
+  private List<RPCResponse> requestAll(RPCRequest... requests) throws Exception {
+    InetSocketAddress address =
+        new InetSocketAddress(mNettyDataServer.getBindHost(), mNettyDataServer.getPort());
+    Bootstrap clientBootstrap = NettyClient.createClientBootstrap();
+    ChannelFuture f = clientBootstrap.connect(address).sync();
+    Channel channel = f.channel();
+    try {
+      PipelinedResponseListener listener = new PipelinedResponseListener();
+      ((ClientHandler) channel.pipeline().addLast(new ClientHandler()).last())
+          .addListener(listener);
+      List<Future<RPCResponse>> futures = new ArrayList<>();
+      for (RPCRequest request : requests) {
+        futures.add(listener.expectResponse());
+        channel.writeAndFlush(request);
+      }
+      List<RPCResponse> responses = new ArrayList<>();
+      for (Future<RPCResponse> future : futures) {
+        responses.add(future.get(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS));
+      }
+      return responses;
+    } finally {
+      channel.close().sync();
+    }
+  }
+
   private RPCResponse request(RPCRequest rpcBlockWriteRequest) throws Exception {
     InetSocketAddress address =
         new InetSocketAddress(mNettyDataServer.getBindHost(), mNettyDataServer.getPort());
@@ -0,0 +1,156 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.examples.keyvalue;
+
+import alluxio.AlluxioURI;
+import alluxio.Configuration;
+import alluxio.Constants;
+import alluxio.PropertyKey;
+import alluxio.RuntimeConstants;
+import alluxio.cli.CliUtils;
+import alluxio.client.keyvalue.KeyValueIterator;
+import alluxio.client.keyvalue.KeyValueStoreReader;
+import alluxio.client.keyvalue.KeyValueSystem;
+import alluxio.util.FormatUtils;
+import alluxio.util.io.BufferUtils;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * Measures the lookup throughput of a key-value store, getting a random sample of its keys one by
+ * one with {@link KeyValueStoreReader#get(ByteBuffer)}, and in batches with
+ * {@link KeyValueStoreReader#multiGet(List)}. Both ways must return the same values.
+ */
+public final class KeyValueStoreGetBenchmark implements Callable<Boolean> {
+  private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+
+  private final AlluxioURI mStoreUri;
+  private final int mNumKeys;
+  private final int mBatchSize;
+
+  /**
+   * @param storeUri URI of the key-value store to read
+   * @param numKeys the number of keys to look up
+   * @param batchSize the number of keys of each multiGet
+   */
+  public KeyValueStoreGetBenchmark(AlluxioURI storeUri, int numKeys, int batchSize) {
+    mStoreUri = storeUri;
+    mNumKeys = numKeys;
+    mBatchSize = batchSize;
+  }
+
+  @Override
+  public Boolean call() throws Exception {
+    KeyValueSystem kvs = KeyValueSystem.Factory.create();
+    KeyValueStoreReader reader = kvs.openStore(mStoreUri);
+    try {
+      List<ByteBuffer> keys = sampleKeys(reader);
+      LOG.info("Looking up {} keys of store {}", keys.size(), mStoreUri);
+
+      long startMs = System.currentTimeMillis();
+      List<ByteBuffer> values = new ArrayList<>(keys.size());
+      for (ByteBuffer key : keys) {
+        values.add(reader.get(key));
+      }
+      long getMs = System.currentTimeMillis() - startMs;
+      printThroughput("get", keys.size(), getMs);
+
+      startMs = System.currentTimeMillis();
+      List<ByteBuffer> batchValues = new ArrayList<>(keys.size());
+      for (List<ByteBuffer> batch : Lists.partition(keys, mBatchSize)) {
+        batchValues.addAll(reader.multiGet(batch));
+      }
+      long multiGetMs = System.currentTimeMillis() - startMs;
+      printThroughput("multiGet", keys.size(), multiGetMs);
+
+      for (int i = 0; i < keys.size(); i++) {
+        if (values.get(i) == null || !values.get(i).equals(batchValues.get(i))) {
+          byte[] key = BufferUtils.newByteArrayFromByteBuffer(keys.get(i));
+          LOG.error("get and multiGet return different values for key {}",
+              FormatUtils.byteArrayToHexString(key));
+          return false;
+        }
+      }
+      return true;
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Reads the keys of the store in order, and keeps a uniform random sample of them.
+   *
+   * @param reader the reader of the store
+   * @return the sampled keys, in random order
+   */
+  private List<ByteBuffer> sampleKeys(KeyValueStoreReader reader) throws Exception {
+    Random random = new Random();
+    List<ByteBuffer> sample = new ArrayList<>(mNumKeys);
+    KeyValueIterator iterator = reader.iterator();
+    for (int seen = 0; iterator.hasNext(); seen++) {
+      ByteBuffer key = iterator.next().getKey();
+      if (sample.size() < mNumKeys) {
+        sample.add(key);
+      } else {
+        int i = random.nextInt(seen + 1);
+        if (i < mNumKeys) {
+          sample.set(i, key);
+        }
+      }
+    }
+    Collections.shuffle(sample, random);
+    return sample;
+  }
+
+  private void printThroughput(String method, int numKeys, long durationMs) {
+    System.out.println(String.format("%s: %d keys in %d ms, %.1f keys/s", method, numKeys,
+        durationMs, numKeys * 1000.0 / Math.max(durationMs, 1)));
+  }
+
+  /**
+   * Starts in a command like
+   * {@code java -cp ALLUXIO_JAR CLASS_NAME <key-value store URI> [number of keys] [batch size]}.
+   *
+   * @param args the URI of the store to read, and optionally the number of keys to look up
+   *        (10000 by default) and the number of keys of each multiGet (100 by default)
+   * @throws Exception if unexpected errors happen
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length < 1 || args.length > 3) {
+      System.out.println("Usage: java -cp " + RuntimeConstants.ALLUXIO_JAR + " "
+          + KeyValueStoreGetBenchmark.class.getName()
+          + " <key-value store URI> [number of keys] [batch size]");
+      System.exit(-1);
+    }
+
+    if (!Configuration.getBoolean(PropertyKey.KEY_VALUE_ENABLED)) {
+      System.out.println("Alluxio key value service is disabled. To run this benchmark, please set "
+          + PropertyKey.KEY_VALUE_ENABLED + " to be true and restart the cluster.");
+      System.exit(-1);
+    }
+
+    int numKeys = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+    int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+    boolean result = CliUtils.runExample(
+        new KeyValueStoreGetBenchmark(new AlluxioURI(args[0]), numKeys, batchSize));
+    System.exit(result ? 0 : 1);
+  }
+}
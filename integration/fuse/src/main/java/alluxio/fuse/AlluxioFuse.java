@@ -61,10 +61,15 @@ public final class AlluxioFuse {
     final FileSystem tfs = FileSystem.Factory.get();
     final AlluxioFuseFileSystem fs = new AlluxioFuseFileSystem(tfs, opts);
     final List<String> fuseOpts = opts.getFuseOpts();
-    // Force direct_io in FUSE: writes and reads bypass the kernel page
-    // cache and go directly to alluxio. This avoids extra memory copies
-    // in the write path.
-    fuseOpts.add("-odirect_io");
+    if (Configuration.getBoolean(PropertyKey.FUSE_DIRECT_IO_ENABLED)) {
+      // Use direct_io in FUSE: writes and reads bypass the kernel page
+      // cache and go directly to alluxio. This avoids extra memory copies
+      // in the write path, but disables the kernel read-ahead.
+      fuseOpts.add("-odirect_io");
+    } else {
+      // Without direct_io, writes are split into pages unless big writes are enabled.
+      fuseOpts.add("-obig_writes");
+    }
 
     try {
       fs.mount(Paths.get(opts.getMountPoint()), true, opts.isDebug(),
@@ -129,6 +134,7 @@ public final class AlluxioFuse {
 
       List<String> fuseOpts = new ArrayList<>();
       boolean noUserMaxWrite = true;
+      boolean noUserMaxReadahead = true;
       if (cli.hasOption("o")) {
         String[] fopts = cli.getOptionValues("o");
         // keep the -o
@@ -137,6 +143,9 @@ public final class AlluxioFuse {
           if (noUserMaxWrite && fopt.startsWith("max_write")) {
             noUserMaxWrite = false;
           }
+          if (noUserMaxReadahead && fopt.startsWith("max_readahead")) {
+            noUserMaxReadahead = false;
+          }
         }
       }
       // check if the user has specified his own max_write, otherwise get it
@@ -145,6 +154,12 @@ public final class AlluxioFuse {
         final long maxWrite = Configuration.getLong(PropertyKey.FUSE_MAXWRITE_BYTES);
         fuseOpts.add(String.format("-omax_write=%d", maxWrite));
       }
+      // the kernel reads ahead with concurrent reads of the file, which are served by the
+      // streams of the open file in parallel
+      if (noUserMaxReadahead && !Configuration.getBoolean(PropertyKey.FUSE_DIRECT_IO_ENABLED)) {
+        final long maxReadahead = Configuration.getLong(PropertyKey.FUSE_MAXREADAHEAD_BYTES);
+        fuseOpts.add(String.format("-omax_readahead=%d", maxReadahead));
+      }
 
       if (mntPointValue == null) {
         mntPointValue = Configuration.get(PropertyKey.FUSE_MOUNT_DEFAULT);
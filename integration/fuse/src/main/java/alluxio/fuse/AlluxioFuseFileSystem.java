@@ -45,9 +45,10 @@ import ru.serce.jnrfuse.struct.FuseFileInfo;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -74,7 +75,11 @@ final class AlluxioFuseFileSystem extends FuseStubFS {
 
   // Table of open files with corresponding InputStreams and OutputStreams
   private final Map<Long, OpenFileEntry> mOpenFiles;
-  private long mNextOpenFileId;
+  private final AtomicLong mNextOpenFileId;
+  // Maximum number of streams reading an open file concurrently
+  private final int mMaxReadStreams;
+  // Buffer of each FUSE thread for the data read, reused across the reads of the thread
+  private final ThreadLocal<byte[]> mReadBuffer;
 
   /**
    * Creates a new instance of {@link AlluxioFuseFileSystem}.
@@ -87,8 +92,10 @@ final class AlluxioFuseFileSystem extends FuseStubFS {
     mFileSystem = fs;
     mAlluxioMaster = Configuration.get(PropertyKey.MASTER_ADDRESS);
     mAlluxioRootPath = Paths.get(opts.getAlluxioRoot());
-    mNextOpenFileId = 0L;
-    mOpenFiles = new HashMap<>();
+    mNextOpenFileId = new AtomicLong(0L);
+    mOpenFiles = new ConcurrentHashMap<>();
+    mMaxReadStreams = Configuration.getInt(PropertyKey.FUSE_READ_STREAMS_MAX);
+    mReadBuffer = new ThreadLocal<>();
 
     final int maxCachedPaths = Configuration.getInt(PropertyKey.FUSE_CACHED_PATHS_MAX);
     mPathResolverCache = CacheBuilder.newBuilder()
@@ -124,21 +131,18 @@ final class AlluxioFuseFileSystem extends FuseStubFS {
     }
 
     try {
-      synchronized (mOpenFiles) {
-        if (mOpenFiles.size() >= MAX_OPEN_FILES) {
-          LOG.error("Cannot open {}: too many open files (MAX_OPEN_FILES: {})",
-              turi, MAX_OPEN_FILES);
-          return -ErrorCodes.EMFILE();
-        }
-
-        final OpenFileEntry ofe = new OpenFileEntry(null, mFileSystem.createFile(turi));
-        LOG.debug("Alluxio OutStream created for {}", path);
-        mOpenFiles.put(mNextOpenFileId, ofe);
-        fi.fh.set(mNextOpenFileId);
-
-        // Assuming I will never wrap around (2^64 open files are quite a lot anyway)
-        mNextOpenFileId += 1;
+      if (mOpenFiles.size() >= MAX_OPEN_FILES) {
+        LOG.error("Cannot open {}: too many open files (MAX_OPEN_FILES: {})",
+            turi, MAX_OPEN_FILES);
+        return -ErrorCodes.EMFILE();
       }
+
+      final OpenFileEntry ofe = new OpenFileEntry(null, mFileSystem.createFile(turi));
+      LOG.debug("Alluxio OutStream created for {}", path);
+      // Assuming I will never wrap around (2^64 open files are quite a lot anyway)
+      final long fd = mNextOpenFileId.getAndIncrement();
+      mOpenFiles.put(fd, ofe);
+      fi.fh.set(fd);
       LOG.debug("{} created and opened in O_WRONLY mode", path);
 
     } catch (FileAlreadyExistsException e) {
@@ -171,10 +175,7 @@ final class AlluxioFuseFileSystem extends FuseStubFS {
   public int flush(String path, FuseFileInfo fi) {
     LOG.trace("flush({})", path);
     final long fd = fi.fh.get();
-    OpenFileEntry oe;
-    synchronized (mOpenFiles) {
-      oe = mOpenFiles.get(fd);
-    }
+    final OpenFileEntry oe = mOpenFiles.get(fd);
     if (oe == null) {
       LOG.error("Cannot find fd for {} in table", path);
       return -ErrorCodes.EBADFD();
@@ -329,18 +330,16 @@ final class AlluxioFuseFileSystem extends FuseStubFS {
         return -ErrorCodes.EISDIR();
       }
 
-      synchronized (mOpenFiles) {
-        if (mOpenFiles.size() == MAX_OPEN_FILES) {
-          LOG.error("Cannot open {}: too many open files", turi);
-          return ErrorCodes.EMFILE();
-        }
-        final OpenFileEntry ofe = new OpenFileEntry(mFileSystem.openFile(turi), null);
-        mOpenFiles.put(mNextOpenFileId, ofe);
-        fi.fh.set(mNextOpenFileId);
-
-        // Assuming I will never wrap around (2^64 open files are quite a lot anyway)
-        mNextOpenFileId += 1;
+      if (mOpenFiles.size() >= MAX_OPEN_FILES) {
+        LOG.error("Cannot open {}: too many open files", turi);
+        return -ErrorCodes.EMFILE();
       }
+      final OpenFileEntry ofe = new OpenFileEntry(new FileInStreamPool(mFileSystem, turi,
+          status.getLength(), mFileSystem.openFile(turi), mMaxReadStreams), null);
+      // Assuming I will never wrap around (2^64 open files are quite a lot anyway)
+      final long fd = mNextOpenFileId.getAndIncrement();
+      mOpenFiles.put(fd, ofe);
+      fi.fh.set(fd);
 
     } catch (FileDoesNotExistException e) {
       LOG.debug("File does not exist {}", path, e);
@@ -384,39 +383,34 @@ final class AlluxioFuseFileSystem extends FuseStubFS {
     LOG.trace("read({}, {}, {})", path, size, offset);
     final int sz = (int) size;
     final long fd = fi.fh.get();
-    OpenFileEntry oe;
-    synchronized (mOpenFiles) {
-      oe = mOpenFiles.get(fd);
-    }
+    final OpenFileEntry oe = mOpenFiles.get(fd);
     if (oe == null) {
       LOG.error("Cannot find fd for {} in table", path);
       return -ErrorCodes.EBADFD();
     }
 
-    int rd = 0;
-    int nread = 0;
+    int nread;
     if (oe.getIn() == null) {
       LOG.error("{} was not open for reading", path);
       return -ErrorCodes.EBADFD();
     }
     try {
-      oe.getIn().seek(offset);
-      final byte[] dest = new byte[sz];
-      while (rd >= 0 && nread < size) {
-        rd = oe.getIn().read(dest, nread, sz - nread);
-        if (rd >= 0) {
-          nread += rd;
-        }
+      byte[] dest = mReadBuffer.get();
+      if (dest == null || dest.length < sz) {
+        dest = new byte[sz];
+        mReadBuffer.set(dest);
       }
-
-      if (nread == -1) { // EOF
-        nread = 0;
-      } else if (nread > 0) {
+      // Reads at the offset without seeking a stream shared with the concurrent reads of the file
+      nread = oe.getIn().read(offset, dest, sz);
+      if (nread > 0) {
         buf.put(0, dest, 0, nread);
       }
     } catch (IOException e) {
       LOG.error("IOException while reading from {}.", path, e);
       return -ErrorCodes.EIO();
+    } catch (AlluxioException e) {
+      LOG.error("AlluxioException while reading from {}.", path, e);
+      return -ErrorCodes.EFAULT();
     } catch (Throwable e) {
       LOG.error("Unexpected exception on {}", path, e);
       return -ErrorCodes.EFAULT();
@@ -492,13 +486,10 @@ final class AlluxioFuseFileSystem extends FuseStubFS {
   public int release(String path, FuseFileInfo fi) {
     LOG.trace("release({})", path);
     final long fd = fi.fh.get();
-    OpenFileEntry oe;
-    synchronized (mOpenFiles) {
-      oe = mOpenFiles.remove(fd);
-      if (oe == null) {
-        LOG.error("Cannot find fd for {} in table", path);
-        return -ErrorCodes.EBADFD();
-      }
+    final OpenFileEntry oe = mOpenFiles.remove(fd);
+    if (oe == null) {
+      LOG.error("Cannot find fd for {} in table", path);
+      return -ErrorCodes.EBADFD();
     }
 
     try {
@@ -592,10 +583,7 @@ final class AlluxioFuseFileSystem extends FuseStubFS {
     LOG.trace("write({}, {}, {})", path, size, offset);
     final int sz = (int) size;
     final long fd = fi.fh.get();
-    OpenFileEntry oe;
-    synchronized (mOpenFiles) {
-      oe = mOpenFiles.get(fd);
-    }
+    final OpenFileEntry oe = mOpenFiles.get(fd);
     if (oe == null) {
       LOG.error("Cannot find fd for {} in table", path);
       return -ErrorCodes.EBADFD();
@@ -0,0 +1,226 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.fuse;
+
+import alluxio.AlluxioURI;
+import alluxio.Constants;
+import alluxio.client.file.FileInStream;
+import alluxio.client.file.FileSystem;
+import alluxio.exception.AlluxioException;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The input streams of a file opened for reading, which serve positional reads of the file
+ * concurrently.
+ * <p>
+ * A {@link FileInStream} has a single position, so concurrent reads on the same stream would race
+ * on seeking it. Instead, each read takes a stream which no other read is using, preferring the
+ * stream whose position is the offset of the read, so that the sequential reads issued by the
+ * kernel read-ahead continue on the same stream without seeking. More streams are opened on demand
+ * up to a maximum, after which reads wait for a stream.
+ */
+@ThreadSafe
+final class FileInStreamPool implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+
+  private final FileSystem mFileSystem;
+  private final AlluxioURI mUri;
+  private final long mLength;
+  private final int mMaxStreams;
+
+  /** The streams which no read is using. */
+  @GuardedBy("this")
+  private final List<PositionedStream> mIdleStreams = new ArrayList<>();
+  /** The number of streams opened, including the ones being read. */
+  @GuardedBy("this")
+  private int mNumStreams;
+  @GuardedBy("this")
+  private boolean mClosed;
+
+  /**
+   * A stream of the file, with the position it is at.
+   */
+  private static final class PositionedStream {
+    private final FileInStream mIn;
+    private long mPos;
+
+    private PositionedStream(FileInStream in) {
+      mIn = in;
+    }
+  }
+
+  /**
+   * Creates a pool of the streams of a file.
+   *
+   * @param fileSystem the file system to open more streams with
+   * @param uri the Alluxio URI of the file
+   * @param length the length of the file
+   * @param in the first stream of the file, at the beginning of the file
+   * @param maxStreams the maximum number of streams of the file
+   */
+  FileInStreamPool(FileSystem fileSystem, AlluxioURI uri, long length, FileInStream in,
+      int maxStreams) {
+    Preconditions.checkArgument(maxStreams > 0, "Invalid number of streams: %s", maxStreams);
+    mFileSystem = fileSystem;
+    mUri = uri;
+    mLength = length;
+    mMaxStreams = maxStreams;
+    mIdleStreams.add(new PositionedStream(in));
+    mNumStreams = 1;
+  }
+
+  /**
+   * Reads bytes of the file at an offset, without affecting the reads at other offsets.
+   *
+   * @param offset the offset in the file to read from
+   * @param dest the buffer to read into
+   * @param length the number of bytes to read
+   * @return the number of bytes read, which is less than the requested length only at the end of
+   *         the file
+   * @throws IOException if the bytes fail to be read
+   * @throws AlluxioException if a new stream fails to be opened
+   */
+  int read(long offset, byte[] dest, int length) throws IOException, AlluxioException {
+    if (offset >= mLength) {
+      return 0;
+    }
+    PositionedStream stream = acquire(offset);
+    boolean failed = true;
+    try {
+      if (stream.mPos != offset) {
+        stream.mIn.seek(offset);
+        stream.mPos = offset;
+      }
+      int nread = 0;
+      int rd = 0;
+      while (rd >= 0 && nread < length) {
+        rd = stream.mIn.read(dest, nread, length - nread);
+        if (rd >= 0) {
+          nread += rd;
+        }
+      }
+      stream.mPos += nread;
+      failed = false;
+      return nread;
+    } finally {
+      release(stream, failed);
+    }
+  }
+
+  /**
+   * Closes the streams of the file. The streams being read are closed when their reads end.
+   *
+   * @throws IOException if a stream fails to be closed
+   */
+  @Override
+  public void close() throws IOException {
+    List<PositionedStream> streams;
+    synchronized (this) {
+      mClosed = true;
+      streams = new ArrayList<>(mIdleStreams);
+      mNumStreams -= mIdleStreams.size();
+      mIdleStreams.clear();
+      notifyAll();
+    }
+    IOException exception = null;
+    for (PositionedStream stream : streams) {
+      try {
+        stream.mIn.close();
+      } catch (IOException e) {
+        exception = e;
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  /**
+   * Takes a stream for a read, opening a new stream if no idle stream is at the offset.
+   *
+   * @param offset the offset of the read
+   * @return the stream, which no other read uses until it is released
+   * @throws IOException if the file is closed, or the wait for a stream is interrupted
+   * @throws AlluxioException if a new stream fails to be opened
+   */
+  private PositionedStream acquire(long offset) throws IOException, AlluxioException {
+    synchronized (this) {
+      while (true) {
+        if (mClosed) {
+          throw new IOException("File " + mUri + " is closed");
+        }
+        for (int i = 0; i < mIdleStreams.size(); i++) {
+          if (mIdleStreams.get(i).mPos == offset) {
+            return mIdleStreams.remove(i);
+          }
+        }
+        if (mNumStreams < mMaxStreams) {
+          // Opens the stream outside of the lock, since it contacts the master.
+          mNumStreams++;
+          break;
+        }
+        if (!mIdleStreams.isEmpty()) {
+          return mIdleStreams.remove(mIdleStreams.size() - 1);
+        }
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException(e);
+        }
+      }
+    }
+    try {
+      return new PositionedStream(mFileSystem.openFile(mUri));
+    } catch (IOException | AlluxioException | RuntimeException e) {
+      synchronized (this) {
+        mNumStreams--;
+        notifyAll();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Returns a stream after a read, closing it if the read failed or the file is closed.
+   *
+   * @param stream the stream
+   * @param failed whether the read failed, in which case the position of the stream is unknown
+   */
+  private void release(PositionedStream stream, boolean failed) {
+    synchronized (this) {
+      if (!failed && !mClosed) {
+        mIdleStreams.add(stream);
+        notifyAll();
+        return;
+      }
+      mNumStreams--;
+      notifyAll();
+    }
+    try {
+      stream.mIn.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close a stream of {}: {}", mUri, e.getMessage());
+    }
+  }
+}
@@ -11,7 +11,6 @@
 
 package alluxio.fuse;
 
-import alluxio.client.file.FileInStream;
 import alluxio.client.file.FileOutStream;
 
 import java.io.Closeable;
@@ -31,21 +30,21 @@ import javax.annotation.concurrent.NotThreadSafe;
  */
 @NotThreadSafe
 final class OpenFileEntry implements Closeable {
-  private final FileInStream mIn;
+  private final FileInStreamPool mIn;
   private final FileOutStream mOut;
 
-  public OpenFileEntry(FileInStream in, FileOutStream out) {
+  public OpenFileEntry(FileInStreamPool in, FileOutStream out) {
     mIn = in;
     mOut = out;
   }
 
   /**
-   * Gets the opened input stream for this open file entry. The value returned can be {@code null}
-   * if the file is not open for reading.
+   * Gets the opened input streams for this open file entry. The value returned can be
+   * {@code null} if the file is not open for reading.
    *
-   * @return an opened input stream for the open alluxio file, or null
+   * @return the opened input streams for the open alluxio file, or null
    */
-  public FileInStream getIn() {
+  public FileInStreamPool getIn() {
     return mIn;
   }
 
@@ -62,7 +61,7 @@ final class OpenFileEntry implements Closeable {
   /**
    * Closes the underlying open streams.
    *
-   * @throws IOException if the {@link FileInStream} cannot be closed
+   * @throws IOException if the input streams cannot be closed
    */
   @Override
   public void close() throws IOException {
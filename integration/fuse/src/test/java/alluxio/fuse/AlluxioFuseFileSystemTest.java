@@ -163,6 +163,7 @@ public class AlluxioFuseFileSystemTest {
     AlluxioURI expectedPath = BASE_EXPECTED_URI.join("/foo/bar");
     FileInfo fi = new FileInfo();
     fi.setFolder(false);
+    fi.setLength(4);
     URIStatus status = new URIStatus(fi);
 
     when(mFileSystem.exists(expectedPath)).thenReturn(true);
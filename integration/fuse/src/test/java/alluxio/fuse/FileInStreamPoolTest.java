@@ -0,0 +1,183 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.fuse;
+
+import alluxio.AlluxioURI;
+import alluxio.client.file.FileInStream;
+import alluxio.client.file.FileSystem;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link FileInStreamPool}.
+ */
+public final class FileInStreamPoolTest {
+  private static final AlluxioURI URI = new AlluxioURI("/file");
+  private static final int LENGTH = 100;
+
+  private FileSystem mFileSystem;
+  /** The streams opened by the pool, in opening order. */
+  private List<FakeStream> mStreams;
+
+  /**
+   * A stream of a file whose bytes are their offsets, which records its seeks.
+   */
+  private static final class FakeStream {
+    private final FileInStream mIn = Mockito.mock(FileInStream.class);
+    private long mPos;
+    private int mNumSeeks;
+    /** The latch which reads wait for. */
+    private CountDownLatch mLatch = new CountDownLatch(0);
+
+    private FakeStream() throws Exception {
+      Mockito.doAnswer(new Answer<Void>() {
+        @Override
+        public Void answer(InvocationOnMock invocation) {
+          mPos = (Long) invocation.getArguments()[0];
+          mNumSeeks++;
+          return null;
+        }
+      }).when(mIn).seek(Mockito.anyLong());
+      Mockito.when(mIn.read(Mockito.any(byte[].class), Mockito.anyInt(), Mockito.anyInt()))
+          .thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) throws Exception {
+              mLatch.await();
+              byte[] dest = (byte[]) invocation.getArguments()[0];
+              int off = (Integer) invocation.getArguments()[1];
+              int len = (Integer) invocation.getArguments()[2];
+              if (mPos >= LENGTH) {
+                return -1;
+              }
+              int read = (int) Math.min(len, LENGTH - mPos);
+              for (int i = 0; i < read; i++) {
+                dest[off + i] = (byte) mPos++;
+              }
+              return read;
+            }
+          });
+    }
+  }
+
+  /**
+   * Sets up the file system before each test runs.
+   */
+  @Before
+  public void before() throws Exception {
+    mFileSystem = Mockito.mock(FileSystem.class);
+    mStreams = new ArrayList<>();
+    Mockito.when(mFileSystem.openFile(URI)).thenAnswer(new Answer<FileInStream>() {
+      @Override
+      public FileInStream answer(InvocationOnMock invocation) throws Exception {
+        return newStream().mIn;
+      }
+    });
+  }
+
+  /**
+   * Tests that sequential reads continue on the same stream without seeking, and that reads at
+   * the end of the file return no bytes.
+   */
+  @Test
+  public void sequentialReads() throws Exception {
+    FileInStreamPool pool = createPool(4);
+    byte[] dest = new byte[30];
+    for (int offset = 0; offset < LENGTH; offset += 30) {
+      int read = pool.read(offset, dest, 30);
+      Assert.assertEquals(Math.min(30, LENGTH - offset), read);
+      Assert.assertEquals((byte) offset, dest[0]);
+    }
+    Assert.assertEquals(0, pool.read(LENGTH, dest, 30));
+    Assert.assertEquals(1, mStreams.size());
+    Assert.assertEquals(0, mStreams.get(0).mNumSeeks);
+    pool.close();
+    Mockito.verify(mStreams.get(0).mIn).close();
+  }
+
+  /**
+   * Tests that a read at another offset seeks an idle stream once the maximum number of streams
+   * is reached.
+   */
+  @Test
+  public void randomReads() throws Exception {
+    FileInStreamPool pool = createPool(2);
+    byte[] dest = new byte[10];
+    pool.read(0, dest, 10);
+    pool.read(50, dest, 10);
+    Assert.assertEquals(50, dest[0]);
+    Assert.assertEquals(2, mStreams.size());
+    pool.read(80, dest, 10);
+    Assert.assertEquals(80, dest[0]);
+    Assert.assertEquals(2, mStreams.size());
+    Assert.assertEquals(2, mStreams.get(1).mNumSeeks);
+    // Both streams continue where they are without seeking.
+    pool.read(10, dest, 10);
+    pool.read(90, dest, 10);
+    Assert.assertEquals(90, dest[0]);
+    Assert.assertEquals(0, mStreams.get(0).mNumSeeks);
+    Assert.assertEquals(2, mStreams.get(1).mNumSeeks);
+  }
+
+  /**
+   * Tests that concurrent reads of the file use different streams instead of waiting for each
+   * other.
+   */
+  @Test
+  public void concurrentReads() throws Exception {
+    final FileInStreamPool pool = createPool(2);
+    final CountDownLatch latch = new CountDownLatch(1);
+    mStreams.get(0).mLatch = latch;
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Integer> blocked = executor.submit(new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          return pool.read(0, new byte[10], 10);
+        }
+      });
+      // The first stream is blocked in the read at 0, so the read at 40 opens another stream.
+      byte[] dest = new byte[10];
+      Assert.assertEquals(10, pool.read(40, dest, 10));
+      Assert.assertEquals(40, dest[0]);
+      Assert.assertEquals(2, mStreams.size());
+      Assert.assertFalse(blocked.isDone());
+      latch.countDown();
+      Assert.assertEquals(10, (int) blocked.get(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private FileInStreamPool createPool(int maxStreams) throws Exception {
+    return new FileInStreamPool(mFileSystem, URI, LENGTH, newStream().mIn, maxStreams);
+  }
+
+  private FakeStream newStream() throws Exception {
+    FakeStream stream = new FakeStream();
+    mStreams.add(stream);
+    return stream;
+  }
+}
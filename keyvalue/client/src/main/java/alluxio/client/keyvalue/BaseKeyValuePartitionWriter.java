@@ -22,6 +22,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -34,6 +36,8 @@ import javax.annotation.concurrent.NotThreadSafe;
  *   <li>A payload buffer which is an array of (key,value) pairs;</li>
  *   <li>A index which is a hash table maps each key to the offset in bytes into the payload
  *   buffer;</li>
+ *   <li>Optionally, a Bloom filter of the keys, followed by a 4-bytes pointer to the filter and
+ *   the 4-bytes {@link #BLOOM_FILTER_MAGIC};</li>
  *   <li>A 4-bytes pointer in the end indicating the offset of the index.</li>
  * </ul>
  *
@@ -41,6 +45,11 @@ import javax.annotation.concurrent.NotThreadSafe;
 @NotThreadSafe
 final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+  /**
+   * Marks a partition with a Bloom filter. It is negative, so it never equals the payload offset
+   * which precedes the index pointer in a partition without a filter.
+   */
+  static final int BLOOM_FILTER_MAGIC = 0xB10F117E;
 
   /** Handle to write to the underlying file. */
   private final AbstractOutStream mFileOutStream;
@@ -56,6 +65,10 @@ final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
   private boolean mCanceled;
   /** Maximum size of this partition in bytes. */
   private long mMaxSizeBytes;
+  /** Bits per key of the Bloom filter, or 0 if the partition has no filter. */
+  private final int mBloomFilterBitsPerKey;
+  /** Hashes of the keys added, to build the Bloom filter. */
+  private long[] mKeyHashes;
 
   /**
    * Constructs a {@link BaseKeyValuePartitionWriter} given an output stream.
@@ -71,6 +84,11 @@ final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
     mClosed = false;
     mCanceled = false;
     mMaxSizeBytes = Configuration.getBytes(PropertyKey.KEY_VALUE_PARTITION_SIZE_BYTES_MAX);
+    mBloomFilterBitsPerKey =
+        Configuration.getInt(PropertyKey.KEY_VALUE_PARTITION_BLOOM_FILTER_BITS_PER_KEY);
+    Preconditions.checkArgument(mBloomFilterBitsPerKey >= 0, "%s must not be negative",
+        PropertyKey.KEY_VALUE_PARTITION_BLOOM_FILTER_BITS_PER_KEY);
+    mKeyHashes = new long[mBloomFilterBitsPerKey > 0 ? 64 : 0];
   }
 
   @Override
@@ -101,6 +119,12 @@ final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
     Preconditions.checkArgument(value.length > 0, "Cannot put an empty value");
     Preconditions.checkState(!mClosed);
     mIndex.put(key, value, mPayloadWriter);
+    if (mBloomFilterBitsPerKey > 0) {
+      if (mKeyCount == mKeyHashes.length) {
+        mKeyHashes = Arrays.copyOf(mKeyHashes, mKeyHashes.length * 2);
+      }
+      mKeyHashes[mKeyCount] = BloomFilter.hash(ByteBuffer.wrap(key));
+    }
     mKeyCount++;
   }
 
@@ -126,7 +150,13 @@ final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
   public long byteCount() {
     Preconditions.checkState(!mClosed);
     // last pointer to index
-    return mFileOutStream.getBytesWritten() + mIndex.byteCount() + Integer.SIZE / Byte.SIZE;
+    long bytes = mFileOutStream.getBytesWritten() + mIndex.byteCount() + Integer.SIZE / Byte.SIZE;
+    if (mBloomFilterBitsPerKey > 0) {
+      // the filter with the pointer to it and the magic number, sized for one more key
+      bytes += BloomFilter.byteCount(mKeyCount + 1, mBloomFilterBitsPerKey)
+          + 2 * Integer.SIZE / Byte.SIZE;
+    }
+    return bytes;
   }
 
   private void build() throws IOException {
@@ -134,6 +164,12 @@ final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
     mFileOutStream.flush();
     int indexOffset = mFileOutStream.getBytesWritten();
     mFileOutStream.write(mIndex.getBytes());
+    if (mBloomFilterBitsPerKey > 0) {
+      int bloomFilterOffset = mFileOutStream.getBytesWritten();
+      mFileOutStream.write(BloomFilter.build(mKeyHashes, mKeyCount, mBloomFilterBitsPerKey));
+      ByteIOUtils.writeInt(mFileOutStream, bloomFilterOffset);
+      ByteIOUtils.writeInt(mFileOutStream, BLOOM_FILTER_MAGIC);
+    }
     ByteIOUtils.writeInt(mFileOutStream, indexOffset);
   }
 }
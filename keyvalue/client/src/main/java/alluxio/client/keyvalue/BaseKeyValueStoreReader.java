@@ -12,25 +12,40 @@
 package alluxio.client.keyvalue;
 
 import alluxio.AlluxioURI;
+import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.PropertyKey;
 import alluxio.client.ClientContext;
+import alluxio.client.block.AlluxioBlockStore;
 import alluxio.exception.AlluxioException;
+import alluxio.exception.ExceptionMessage;
 import alluxio.thrift.PartitionInfo;
 import alluxio.util.io.BufferUtils;
+import alluxio.wire.BlockInfo;
+import alluxio.wire.WorkerNetAddress;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * Default implementation of {@link KeyValueStoreReader} to access an Alluxio key-value store.
+ *
+ * The reader keeps a client to each worker it talks to, and the worker serving each partition it
+ * has read, so that lookups do not connect to the worker for every key.
  */
 @NotThreadSafe
 class BaseKeyValueStoreReader implements KeyValueStoreReader {
@@ -41,6 +56,12 @@ class BaseKeyValueStoreReader implements KeyValueStoreReader {
 
   /** A list of partitions of the store. */
   private final List<PartitionInfo> mPartitions;
+  /** The maximum number of keys to get from a worker in a single request. */
+  private final int mMultiGetBatchSize;
+  /** The addresses of the workers serving the partitions, by block id. */
+  private final Map<Long, WorkerNetAddress> mPartitionWorkers = new HashMap<>();
+  /** The clients to the workers, by address. */
+  private final Map<WorkerNetAddress, KeyValueWorkerClient> mWorkerClients = new HashMap<>();
 
   /**
    * Constructs a {@link BaseKeyValueStoreReader} instance.
@@ -55,10 +76,18 @@ class BaseKeyValueStoreReader implements KeyValueStoreReader {
     mMasterClient = new KeyValueMasterClient(mMasterAddress);
     mPartitions = mMasterClient.getPartitionInfo(uri);
     mMasterClient.close();
+    mMultiGetBatchSize = Configuration.getInt(PropertyKey.KEY_VALUE_CLIENT_MULTI_GET_BATCH_SIZE);
+    Preconditions.checkArgument(mMultiGetBatchSize > 0, "%s must be positive",
+        PropertyKey.KEY_VALUE_CLIENT_MULTI_GET_BATCH_SIZE);
   }
 
   @Override
   public void close() {
+    for (KeyValueWorkerClient client : mWorkerClients.values()) {
+      client.close();
+    }
+    mWorkerClients.clear();
+    mPartitionWorkers.clear();
   }
 
   @Override
@@ -73,6 +102,89 @@ class BaseKeyValueStoreReader implements KeyValueStoreReader {
   @Override
   public ByteBuffer get(ByteBuffer key) throws IOException, AlluxioException {
     Preconditions.checkNotNull(key);
+    PartitionInfo partition = findPartition(key);
+    if (partition == null) {
+      return null;
+    }
+    // The key is either in this partition or not in the key-value store
+    long blockId = partition.getBlockId();
+    WorkerNetAddress address = getPartitionWorker(blockId);
+    try {
+      ByteBuffer value = getWorkerClient(address).get(blockId, key);
+      return value.remaining() == 0 ? null : value;
+    } catch (IOException | AlluxioException e) {
+      invalidateWorker(address);
+      throw e;
+    }
+  }
+
+  @Override
+  public List<ByteBuffer> multiGet(List<ByteBuffer> keys) throws IOException, AlluxioException {
+    Preconditions.checkNotNull(keys);
+    // Group the positions of the keys by the worker serving their partitions.
+    Map<WorkerNetAddress, List<Integer>> positionsByWorker = new HashMap<>();
+    long[] blockIds = new long[keys.size()];
+    for (int i = 0; i < keys.size(); i++) {
+      ByteBuffer key = Preconditions.checkNotNull(keys.get(i));
+      PartitionInfo partition = findPartition(key);
+      if (partition == null) {
+        continue;
+      }
+      blockIds[i] = partition.getBlockId();
+      WorkerNetAddress address = getPartitionWorker(partition.getBlockId());
+      List<Integer> positions = positionsByWorker.get(address);
+      if (positions == null) {
+        positions = new ArrayList<>();
+        positionsByWorker.put(address, positions);
+      }
+      positions.add(i);
+    }
+
+    ByteBuffer[] values = new ByteBuffer[keys.size()];
+    for (Map.Entry<WorkerNetAddress, List<Integer>> entry : positionsByWorker.entrySet()) {
+      WorkerNetAddress address = entry.getKey();
+      for (List<Integer> batch : Lists.partition(entry.getValue(), mMultiGetBatchSize)) {
+        List<Long> batchBlockIds = new ArrayList<>(batch.size());
+        List<ByteBuffer> batchKeys = new ArrayList<>(batch.size());
+        for (int position : batch) {
+          batchBlockIds.add(blockIds[position]);
+          batchKeys.add(keys.get(position));
+        }
+        List<ByteBuffer> batchValues;
+        try {
+          batchValues = getWorkerClient(address).multiGet(batchBlockIds, batchKeys);
+        } catch (IOException | AlluxioException e) {
+          invalidateWorker(address);
+          throw e;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+          ByteBuffer value = batchValues.get(i);
+          values[batch.get(i)] = value.remaining() == 0 ? null : value;
+        }
+      }
+    }
+    return Arrays.asList(values);
+  }
+
+  @Override
+  public KeyValueIterator iterator() throws IOException, AlluxioException {
+    return new KeyValueStoreIterator(mPartitions);
+  }
+
+  @Override
+  public int size() throws IOException, AlluxioException {
+    int totalSize = 0;
+    for (PartitionInfo partition : mPartitions) {
+      totalSize += partition.getKeyCount();
+    }
+    return totalSize;
+  }
+
+  /**
+   * @param key the key to look up
+   * @return the only partition which may contain the key, or null if the key is not in the store
+   */
+  private PartitionInfo findPartition(ByteBuffer key) {
     int left = 0;
     int right = mPartitions.size();
     while (left < right) {
@@ -84,27 +196,54 @@ class BaseKeyValueStoreReader implements KeyValueStoreReader {
       } else if (key.compareTo(partition.bufferForKeyLimit()) > 0) {
         left = middle + 1;
       } else {
-        // The key is either in this partition or not in the key-value store
-        long blockId = partition.getBlockId();
-        try (KeyValuePartitionReader reader = KeyValuePartitionReader.Factory.create(blockId)) {
-          return reader.get(key);
-        }
+        return partition;
       }
     }
     return null;
   }
 
-  @Override
-  public KeyValueIterator iterator() throws IOException, AlluxioException {
-    return new KeyValueStoreIterator(mPartitions);
+  /**
+   * @param blockId the block id of a partition
+   * @return the address of the worker serving the partition
+   * @throws IOException if the location of the partition fails to be looked up
+   */
+  private WorkerNetAddress getPartitionWorker(long blockId) throws IOException {
+    WorkerNetAddress address = mPartitionWorkers.get(blockId);
+    if (address == null) {
+      BlockInfo info = new AlluxioBlockStore().getInfo(blockId);
+      if (info.getLocations().isEmpty()) {
+        throw new IOException(ExceptionMessage.BLOCK_UNAVAILABLE.getMessage(blockId));
+      }
+      address = info.getLocations().get(0).getWorkerAddress();
+      mPartitionWorkers.put(blockId, address);
+    }
+    return address;
   }
 
-  @Override
-  public int size() throws IOException, AlluxioException {
-    int totalSize = 0;
-    for (PartitionInfo partition : mPartitions) {
-      totalSize += partition.getKeyCount();
+  /**
+   * @param address the address of a worker
+   * @return the client to the worker, which is created if it does not exist yet
+   */
+  private KeyValueWorkerClient getWorkerClient(WorkerNetAddress address) {
+    KeyValueWorkerClient client = mWorkerClients.get(address);
+    if (client == null) {
+      client = new KeyValueWorkerClient(address);
+      mWorkerClients.put(address, client);
     }
-    return totalSize;
+    return client;
+  }
+
+  /**
+   * Closes the client to a worker which failed a request, and forgets the partitions it serves,
+   * so that the next requests look up their locations again.
+   *
+   * @param address the address of the worker
+   */
+  private void invalidateWorker(WorkerNetAddress address) {
+    KeyValueWorkerClient client = mWorkerClients.remove(address);
+    if (client != null) {
+      client.close();
+    }
+    mPartitionWorkers.values().removeAll(Collections.singleton(address));
   }
 }
@@ -0,0 +1,181 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import alluxio.Constants;
+import alluxio.util.io.BufferUtils;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A Bloom filter of the keys of a key-value partition, which tells that most of the keys not in
+ * the partition are missing without probing the index. The filter is read in place from the buffer
+ * of the partition.
+ * <p>
+ * The bytes of a filter look like:
+ * | number of hash functions (int) | bit array (a multiple of 8 bytes) |
+ * <p>
+ * The bits of a key are derived from the two halves of a single 64-bit hash of the key, as in
+ * "Less Hashing, Same Performance: Building a Better Bloom Filter" by Kirsch and Mitzenmacher. The
+ * hash is computed in place on the buffer of the key, since a lookup which passes the filter still
+ * has to hash the key again for the index.
+ */
+@ThreadSafe
+final class BloomFilter {
+  private static final long HASH_SEED = 0x5bd1e995L;
+  private static final long HASH_C1 = 0x87c37b91114253d5L;
+  private static final long HASH_C2 = 0x4cf5ad432745937fL;
+  /** The maximum number of hash functions, to bound the cost of a lookup. */
+  private static final int MAX_NUM_HASH_FUNCTIONS = 16;
+  /** The maximum size of the bit array, so that the bit index of a hash fits in a long. */
+  private static final int MAX_NUM_BYTES = Integer.MAX_VALUE / Byte.SIZE;
+
+  private final ByteBuffer mBits;
+  private final long mNumBits;
+  private final int mNumHashFunctions;
+
+  /**
+   * Creates a Bloom filter by loading its content from a buffer. The {@link ByteBuffer#position}
+   * must be at the beginning of the filter, and the filter takes the rest of the buffer.
+   *
+   * @param buffer the buffer storing the filter
+   * @return the Bloom filter
+   */
+  static BloomFilter loadFromByteBuffer(ByteBuffer buffer) {
+    int numHashFunctions = buffer.getInt(buffer.position());
+    ByteBuffer bits = BufferUtils.sliceByteBuffer(buffer,
+        buffer.position() + Constants.BYTES_IN_INTEGER);
+    Preconditions.checkArgument(numHashFunctions > 0 && numHashFunctions <= MAX_NUM_HASH_FUNCTIONS,
+        "Invalid number of hash functions %s in the Bloom filter", numHashFunctions);
+    Preconditions.checkArgument(bits.remaining() > 0 && bits.remaining() <= MAX_NUM_BYTES
+        && bits.remaining() % (Long.SIZE / Byte.SIZE) == 0,
+        "Invalid size %s of the Bloom filter", bits.remaining());
+    return new BloomFilter(bits, numHashFunctions);
+  }
+
+  /**
+   * Builds the bytes of a Bloom filter of a set of keys.
+   *
+   * @param keyHashes the hashes of the keys, computed by {@link #hash(ByteBuffer)}
+   * @param numKeys the number of keys, which are the first elements of the hashes
+   * @param bitsPerKey the number of bits per key, which is rounded to give a multiple of 8 bytes
+   * @return the bytes of the filter
+   */
+  static byte[] build(long[] keyHashes, int numKeys, int bitsPerKey) {
+    Preconditions.checkArgument(bitsPerKey > 0, "Non-positive bits per key: %s", bitsPerKey);
+    int numBytes = byteCount(numKeys, bitsPerKey) - Constants.BYTES_IN_INTEGER;
+    Preconditions.checkArgument(numBytes <= MAX_NUM_BYTES, "Too many keys: %s", numKeys);
+    // The optimal number of hash functions for the false positive rate is ln(2) * bits per key.
+    long numBits = numBytes * 8L;
+    int numHashFunctions = (int) Math.round(Math.log(2) * numBits / Math.max(numKeys, 1));
+    numHashFunctions = Math.max(1, Math.min(numHashFunctions, MAX_NUM_HASH_FUNCTIONS));
+
+    ByteBuffer buffer = ByteBuffer.allocate(Constants.BYTES_IN_INTEGER + numBytes);
+    buffer.putInt(numHashFunctions);
+    ByteBuffer bits = buffer.slice();
+    for (int i = 0; i < numKeys; i++) {
+      int hash1 = (int) keyHashes[i];
+      int hash2 = (int) (keyHashes[i] >>> 32);
+      for (int j = 1; j <= numHashFunctions; j++) {
+        long bit = bitIndex(hash1, hash2, j, numBits);
+        int byteIndex = (int) (bit >>> 3);
+        bits.put(byteIndex, (byte) (bits.get(byteIndex) | (1 << (bit & 7))));
+      }
+    }
+    return buffer.array();
+  }
+
+  /**
+   * @param numKeys the number of keys
+   * @param bitsPerKey the number of bits per key
+   * @return the size in bytes of a Bloom filter of the keys
+   */
+  static int byteCount(int numKeys, int bitsPerKey) {
+    long numWords = ((long) Math.max(numKeys, 1) * bitsPerKey + Long.SIZE - 1) / Long.SIZE;
+    return (int) (Constants.BYTES_IN_INTEGER + numWords * (Long.SIZE / Byte.SIZE));
+  }
+
+  /**
+   * Hashes a key with the mixing steps of the 64-bit MurmurHash3, over single 8-byte lanes.
+   *
+   * @param key the key, which is read from its position to its limit without being modified
+   * @return the 64-bit hash of the key
+   */
+  static long hash(ByteBuffer key) {
+    long hash = HASH_SEED;
+    int position = key.position();
+    int limit = key.limit();
+    for (; position + 8 <= limit; position += 8) {
+      hash ^= mixLane(key.getLong(position));
+      hash = Long.rotateLeft(hash, 27) * 5 + 0x52dce729;
+    }
+    if (position < limit) {
+      long lane = 0;
+      for (int shift = 0; position < limit; position++, shift += 8) {
+        lane |= (key.get(position) & 0xffL) << shift;
+      }
+      hash ^= mixLane(lane);
+    }
+    hash ^= key.remaining();
+    // The finalization mix of MurmurHash3, so that every bit of the key affects every bit of the
+    // hash.
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  private static long mixLane(long lane) {
+    lane *= HASH_C1;
+    lane = Long.rotateLeft(lane, 31);
+    return lane * HASH_C2;
+  }
+
+  private static long bitIndex(int hash1, int hash2, int i, long numBits) {
+    int combinedHash = hash1 + i * hash2;
+    // Flip all the bits if it's negative, since the hash functions should be independent.
+    if (combinedHash < 0) {
+      combinedHash = ~combinedHash;
+    }
+    // Maps the 31-bit hash to [0, numBits) with a multiplication instead of a division.
+    return (combinedHash * numBits) >>> 31;
+  }
+
+  private BloomFilter(ByteBuffer bits, int numHashFunctions) {
+    mBits = bits;
+    mNumBits = bits.remaining() * 8L;
+    mNumHashFunctions = numHashFunctions;
+  }
+
+  /**
+   * @param key the key
+   * @return false if the key is definitely not in the partition, true if it may be
+   */
+  boolean mightContain(ByteBuffer key) {
+    long hash = hash(key);
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 1; i <= mNumHashFunctions; i++) {
+      long bit = bitIndex(hash1, hash2, i, mNumBits);
+      if ((mBits.get((int) (bit >>> 3)) & (1 << (bit & 7))) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
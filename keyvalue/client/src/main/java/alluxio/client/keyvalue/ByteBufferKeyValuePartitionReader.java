@@ -36,6 +36,8 @@ public final class ByteBufferKeyValuePartitionReader implements KeyValuePartitio
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
 
   private Index mIndex;
+  /** The Bloom filter of the keys, or null if the partition has no filter. */
+  private BloomFilter mBloomFilter;
   private PayloadReader mPayloadReader;
   private ByteBuffer mBuf;
   private int mBufferLength;
@@ -50,16 +52,30 @@ public final class ByteBufferKeyValuePartitionReader implements KeyValuePartitio
   public ByteBufferKeyValuePartitionReader(ByteBuffer fileBytes) {
     mBuf = Preconditions.checkNotNull(fileBytes);
     mBufferLength = mBuf.remaining();
-    mIndex = createIndex();
+    loadIndexAndBloomFilter();
     mPayloadReader = createPayloadReader();
     mClosed = false;
   }
 
-  private Index createIndex() {
+  /**
+   * Loads the index and the Bloom filter of the partition. The partitions written without a filter
+   * end with the offset of the index, and the partitions with a filter end with the offset of the
+   * filter, {@link BaseKeyValuePartitionWriter#BLOOM_FILTER_MAGIC} and the offset of the index.
+   */
+  private void loadIndexAndBloomFilter() {
     int indexOffset = ByteIOUtils.readInt(mBuf, mBufferLength - 4);
-    ByteBuffer indexBytes =
-        BufferUtils.sliceByteBuffer(mBuf, indexOffset, mBufferLength - 4 - indexOffset);
-    return LinearProbingIndex.loadFromByteArray(indexBytes);
+    int indexEnd = mBufferLength - 4;
+    // Without a filter, the int before the index offset is the payload offset of the last bucket
+    // of the index, which is never negative like the magic number.
+    if (mBufferLength >= 12 && ByteIOUtils.readInt(mBuf, mBufferLength - 8)
+        == BaseKeyValuePartitionWriter.BLOOM_FILTER_MAGIC) {
+      int bloomFilterOffset = ByteIOUtils.readInt(mBuf, mBufferLength - 12);
+      mBloomFilter = BloomFilter.loadFromByteBuffer(BufferUtils.sliceByteBuffer(mBuf,
+          bloomFilterOffset, mBufferLength - 12 - bloomFilterOffset));
+      indexEnd = bloomFilterOffset;
+    }
+    ByteBuffer indexBytes = BufferUtils.sliceByteBuffer(mBuf, indexOffset, indexEnd - indexOffset);
+    mIndex = LinearProbingIndex.loadFromByteArray(indexBytes);
   }
 
   private PayloadReader createPayloadReader() {
@@ -85,6 +101,9 @@ public final class ByteBufferKeyValuePartitionReader implements KeyValuePartitio
   public ByteBuffer get(ByteBuffer key) throws IOException {
     Preconditions.checkState(!mClosed);
     LOG.trace("get: key");
+    if (mBloomFilter != null && !mBloomFilter.mightContain(key)) {
+      return null;
+    }
     return mIndex.get(key, mPayloadReader);
   }
 
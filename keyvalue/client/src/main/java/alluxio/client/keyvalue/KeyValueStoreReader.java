@@ -17,6 +17,7 @@ import alluxio.exception.AlluxioException;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * Interface for readers which accesses key-value stores in Alluxio.
@@ -45,6 +46,19 @@ public interface KeyValueStoreReader extends Closeable, KeyValueIterable {
    */
   ByteBuffer get(ByteBuffer key) throws IOException, AlluxioException;
 
+  /**
+   * Gets the values associated with a batch of keys. The keys are grouped by the worker serving
+   * their partitions, and the values of each group are fetched with a single request, which is
+   * much faster than getting the keys one by one.
+   *
+   * @param keys keys to get, none of which can be null
+   * @return the values associated with the keys, in the order of the keys, with null for the keys
+   *         not found
+   * @throws IOException if non-Alluxio error occurs
+   * @throws AlluxioException if Alluxio error occurs
+   */
+  List<ByteBuffer> multiGet(List<ByteBuffer> keys) throws IOException, AlluxioException;
+
   /**
    * @return the number of key-value pairs in the store
    * @throws IOException if a non-Alluxio error occurs
@@ -90,6 +90,26 @@ public final class KeyValueWorkerClient extends AbstractClient {
     });
   }
 
+  /**
+   * Gets the values of a batch of keys, each from the key-value block with the id at the same
+   * position.
+   *
+   * @param blockIds the ids of the blocks of the keys
+   * @param keys the keys to get the values for
+   * @return the values of the keys, which are empty for the keys not found
+   * @throws IOException if an I/O error occurs
+   * @throws AlluxioException if an Alluxio error occurs
+   */
+  public synchronized List<ByteBuffer> multiGet(final List<Long> blockIds,
+      final List<ByteBuffer> keys) throws IOException, AlluxioException {
+    return retryRPC(new RpcCallableThrowsAlluxioTException<List<ByteBuffer>>() {
+      @Override
+      public List<ByteBuffer> call() throws AlluxioTException, TException {
+        return mClient.multiGet(blockIds, keys);
+      }
+    });
+  }
+
   /**
    * Gets a batch of keys next to the current key in the partition.
    * <p>
@@ -149,12 +149,19 @@ public final class LinearProbingIndex implements Index {
    * @return bucket offset in the {@link Index} of the key, -1 if no such key is found
    */
   private int bucketOffset(ByteBuffer key, PayloadReader reader) {
-    int bucketIndex = indexHash(key);
-    byte fingerprint = fingerprintHash(key);
+    byte[] keyBytes = BufferUtils.newByteArrayFromByteBuffer(key);
+    int bucketIndex = indexHash(keyBytes);
+    byte fingerprint = fingerprintHash(keyBytes);
     int bucketOffset = bucketIndex * BUCKET_SIZE_BYTES;
     // Linear probing until a bucket having the same key is found.
     for (int probe = 0; probe < MAX_PROBES; probe++) {
-      if (fingerprint == ByteIOUtils.readByte(mHashTableBuf, bucketOffset)) {
+      byte storedFingerprint = ByteIOUtils.readByte(mHashTableBuf, bucketOffset);
+      if (storedFingerprint == 0) {
+        // Keys are never removed, and a key is put into the first empty bucket of its probes, so
+        // the key is not in the index if an empty bucket is reached.
+        return -1;
+      }
+      if (fingerprint == storedFingerprint) {
         int offset = ByteIOUtils.readInt(mHashTableBuf, bucketOffset + 1);
         ByteBuffer keyStored = reader.getKey(offset);
         if (key.equals(keyStored)) {
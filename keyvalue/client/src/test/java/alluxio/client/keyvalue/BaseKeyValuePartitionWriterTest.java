@@ -122,6 +122,36 @@ public final class BaseKeyValuePartitionWriterTest {
     reader.close();
   }
 
+  /**
+   * Tests that partitions written without a Bloom filter can be read, and that the filter makes
+   * the partition larger.
+   */
+  @Test
+  public void putAndGetWithoutBloomFilter() throws Exception {
+    mWriter.put(KEY1, VALUE1);
+    mWriter.close();
+    int sizeWithBloomFilter = mOutStream.toByteArray().length;
+
+    Configuration.set(PropertyKey.KEY_VALUE_PARTITION_BLOOM_FILTER_BITS_PER_KEY, "0");
+    try {
+      mOutStream = new ByteArrayOutStream();
+      mWriter = new BaseKeyValuePartitionWriter(mOutStream);
+      mWriter.put(KEY1, VALUE1);
+      mWriter.put(KEY2, VALUE2);
+      mWriter.close();
+    } finally {
+      ConfigurationTestUtils.resetConfiguration();
+    }
+    byte[] fileData = mOutStream.toByteArray();
+    Assert.assertTrue(fileData.length - KEY2.length - VALUE2.length < sizeWithBloomFilter);
+    ByteBufferKeyValuePartitionReader reader =
+        new ByteBufferKeyValuePartitionReader(ByteBuffer.wrap(fileData));
+    Assert.assertArrayEquals(VALUE1, reader.get(KEY1));
+    Assert.assertArrayEquals(VALUE2, reader.get(KEY2));
+    Assert.assertNull(reader.get("NoSuchKey".getBytes()));
+    reader.close();
+  }
+
   /**
    * Tests {@link BaseKeyValuePartitionWriter#canPut} works.
    */
@@ -0,0 +1,110 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Unit tests of {@link BloomFilter}.
+ */
+public final class BloomFilterTest {
+  private static final int NUM_KEYS = 10000;
+
+  private static ByteBuffer key(int i) {
+    return ByteBuffer.wrap(("key" + i).getBytes());
+  }
+
+  private static BloomFilter buildFilter(int numKeys, int bitsPerKey) {
+    long[] hashes = new long[numKeys];
+    for (int i = 0; i < numKeys; i++) {
+      hashes[i] = BloomFilter.hash(key(i));
+    }
+    byte[] bytes = BloomFilter.build(hashes, numKeys, bitsPerKey);
+    Assert.assertEquals(BloomFilter.byteCount(numKeys, bitsPerKey), bytes.length);
+    return BloomFilter.loadFromByteBuffer(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Tests that the filter contains all the keys it is built with.
+   */
+  @Test
+  public void noFalseNegatives() {
+    BloomFilter filter = buildFilter(NUM_KEYS, 10);
+    for (int i = 0; i < NUM_KEYS; i++) {
+      Assert.assertTrue(filter.mightContain(key(i)));
+    }
+  }
+
+  /**
+   * Tests that the false positive rate of a filter of 10 bits per key is about 1%.
+   */
+  @Test
+  public void falsePositiveRate() {
+    BloomFilter filter = buildFilter(NUM_KEYS, 10);
+    int falsePositives = 0;
+    for (int i = NUM_KEYS; i < 2 * NUM_KEYS; i++) {
+      if (filter.mightContain(key(i))) {
+        falsePositives++;
+      }
+    }
+    Assert.assertTrue("False positives: " + falsePositives, falsePositives < NUM_KEYS * 0.02);
+  }
+
+  /**
+   * Tests that a filter of no keys contains no keys.
+   */
+  @Test
+  public void empty() {
+    BloomFilter filter = buildFilter(0, 10);
+    Assert.assertFalse(filter.mightContain(key(0)));
+  }
+
+  /**
+   * Tests that the hash of a key only depends on the remaining bytes of its buffer, and does not
+   * move the position of the buffer.
+   */
+  @Test
+  public void hashRemainingBytes() {
+    byte[] bytes = "0123456789abcdef-key".getBytes();
+    ByteBuffer key = ByteBuffer.wrap(bytes, 3, 12);
+    long hash = BloomFilter.hash(key);
+    Assert.assertEquals(3, key.position());
+    Assert.assertEquals(hash, BloomFilter.hash(ByteBuffer.wrap("3456789abcde".getBytes())));
+    Assert.assertNotEquals(hash, BloomFilter.hash(ByteBuffer.wrap("3456789abcdf".getBytes())));
+  }
+
+  /**
+   * Tests that loading a corrupted filter fails.
+   */
+  @Test
+  public void loadInvalid() {
+    ByteBuffer buffer = ByteBuffer.allocate(4 + 12);
+    buffer.putInt(0, 3);
+    try {
+      BloomFilter.loadFromByteBuffer(buffer);
+      Assert.fail("Loading a filter whose size is not a multiple of 8 bytes should fail");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    buffer = ByteBuffer.allocate(4 + 8);
+    buffer.putInt(0, 0);
+    try {
+      BloomFilter.loadFromByteBuffer(buffer);
+      Assert.fail("Loading a filter without hash functions should fail");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+}
@@ -25,4 +25,12 @@ service KeyValueWorkerClientService extends common.AlluxioService {
    */
   i32 getSize(/** the id of the partition */ 1: i64 blockId)
     throws (1: exception.AlluxioTException e, 2: exception.ThriftIOException ioe)
+
+  /**
+   * Looks up a batch of keys, each in the block with the id at the same position. The value of
+   * a key which is not found is empty.
+   */
+  list<binary> multiGet(/** the ids of the blocks being accessed */ 1: list<i64> blockIds,
+      /** binaries of the keys */ 2: list<binary> keys)
+    throws (1: exception.AlluxioTException e, 2: exception.ThriftIOException ioe)
 }
@@ -0,0 +1,218 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.keyvalue;
+
+import alluxio.client.keyvalue.ByteBufferKeyValuePartitionReader;
+import alluxio.exception.BlockDoesNotExistException;
+import alluxio.exception.InvalidWorkerStateException;
+import alluxio.metrics.MetricsSystem;
+import alluxio.util.io.BufferUtils;
+import alluxio.worker.block.AbstractBlockStoreEventListener;
+import alluxio.worker.block.BlockStoreLocation;
+import alluxio.worker.block.BlockWorker;
+import alluxio.worker.block.io.BlockReader;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A bounded cache of the mapped partitions of key-value blocks, so that lookups do not open and map
+ * the block file for every request.
+ *
+ * The cache does not keep the blocks locked, so the block store is free to move, evict or remove
+ * them. Callers must lock the block for the duration of every {@link #acquire}, which guarantees
+ * that the block exists. The cached reader of a block is dropped when the block is removed,
+ * evicted or moved to another location, since the mapping refers to the old block file, and the
+ * mapping is unmapped once the last request releases it.
+ */
+@ThreadSafe
+final class KeyValuePartitionReaderCache {
+  private final BlockWorker mBlockWorker;
+  private final Cache<Long, Partition> mPartitions;
+
+  /**
+   * @param blockWorker the block worker serving the blocks
+   * @param maxSize the maximum number of cached partitions
+   */
+  KeyValuePartitionReaderCache(BlockWorker blockWorker, int maxSize) {
+    mBlockWorker = Preconditions.checkNotNull(blockWorker);
+    mPartitions = CacheBuilder.newBuilder().maximumSize(maxSize)
+        .removalListener(new RemovalListener<Long, Partition>() {
+          @Override
+          public void onRemoval(RemovalNotification<Long, Partition> notification) {
+            notification.getValue().release();
+          }
+        }).build();
+    mBlockWorker.registerBlockStoreEventListener(
+        new AbstractBlockStoreEventListener() {
+          @Override
+          public void onRemoveBlockByClient(long sessionId, long blockId) {
+            mPartitions.invalidate(blockId);
+          }
+
+          @Override
+          public void onRemoveBlockByWorker(long sessionId, long blockId) {
+            mPartitions.invalidate(blockId);
+          }
+
+          @Override
+          public void onMoveBlockByClient(long sessionId, long blockId,
+              BlockStoreLocation oldLocation, BlockStoreLocation newLocation) {
+            mPartitions.invalidate(blockId);
+          }
+
+          @Override
+          public void onMoveBlockByWorker(long sessionId, long blockId,
+              BlockStoreLocation oldLocation, BlockStoreLocation newLocation) {
+            mPartitions.invalidate(blockId);
+          }
+        });
+  }
+
+  /**
+   * Gets the partition of a block, opening it if it is not cached. The partition must be released
+   * with {@link Partition#release()} before the block is unlocked.
+   *
+   * @param sessionId the id of the session which locked the block
+   * @param blockId the id of the block
+   * @param lockId the id of the lock on the block
+   * @return the partition of the block
+   * @throws BlockDoesNotExistException if the block does not exist
+   * @throws InvalidWorkerStateException if the lock does not belong to the session and block
+   * @throws IOException if the block fails to be read
+   */
+  Partition acquire(final long sessionId, final long blockId, final long lockId)
+      throws BlockDoesNotExistException, InvalidWorkerStateException, IOException {
+    while (true) {
+      Partition partition = mPartitions.getIfPresent(blockId);
+      if (partition != null) {
+        Metrics.PARTITION_READER_CACHE_HITS.inc();
+      } else {
+        Metrics.PARTITION_READER_CACHE_MISSES.inc();
+        partition = load(sessionId, blockId, lockId);
+      }
+      if (partition.retain()) {
+        return partition;
+      }
+      // The partition was dropped from the cache and unmapped in between, so look it up again.
+    }
+  }
+
+  private Partition load(final long sessionId, final long blockId, final long lockId)
+      throws BlockDoesNotExistException, InvalidWorkerStateException, IOException {
+    try {
+      return mPartitions.get(blockId, new Callable<Partition>() {
+        @Override
+        public Partition call() throws Exception {
+          try (BlockReader blockReader =
+              mBlockWorker.readBlockRemote(sessionId, blockId, lockId)) {
+            return new Partition(blockReader.read(0, blockReader.getLength()));
+          }
+        }
+      });
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof BlockDoesNotExistException) {
+        throw (BlockDoesNotExistException) cause;
+      }
+      if (cause instanceof InvalidWorkerStateException) {
+        throw (InvalidWorkerStateException) cause;
+      }
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException(cause);
+    } catch (UncheckedExecutionException | ExecutionError e) {
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Drops all the cached partitions.
+   */
+  void clear() {
+    mPartitions.invalidateAll();
+  }
+
+  /**
+   * A key-value partition mapped in memory. The mapping is reference counted, the cache holding
+   * one reference, and it is unmapped when the last reference is released.
+   */
+  @ThreadSafe
+  static final class Partition {
+    private final ByteBuffer mBuffer;
+    private final AtomicInteger mRefCount = new AtomicInteger(1);
+
+    Partition(ByteBuffer buffer) {
+      mBuffer = buffer;
+    }
+
+    /**
+     * Creates a reader of the partition. The readers are not thread-safe, so every request creates
+     * its own. This only slices the mapping, and does not copy the index or the Bloom filter.
+     *
+     * @return a new reader of the partition
+     */
+    ByteBufferKeyValuePartitionReader createReader() {
+      return new ByteBufferKeyValuePartitionReader(mBuffer.duplicate());
+    }
+
+    private boolean retain() {
+      while (true) {
+        int refCount = mRefCount.get();
+        if (refCount == 0) {
+          return false;
+        }
+        if (mRefCount.compareAndSet(refCount, refCount + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Releases a reference to the partition. The buffers returned by the reader must not be used
+     * after the partition is released.
+     */
+    void release() {
+      if (mRefCount.decrementAndGet() == 0 && mBuffer.isDirect()) {
+        BufferUtils.cleanDirectBuffer(mBuffer);
+      }
+    }
+  }
+
+  /**
+   * Class that contains metrics about {@link KeyValuePartitionReaderCache}.
+   */
+  @ThreadSafe
+  private static final class Metrics {
+    private static final Counter PARTITION_READER_CACHE_HITS =
+        MetricsSystem.workerCounter("KeyValuePartitionReaderCacheHits");
+    private static final Counter PARTITION_READER_CACHE_MISSES =
+        MetricsSystem.workerCounter("KeyValuePartitionReaderCacheMisses");
+
+    private Metrics() {} // prevent instantiation
+  }
+}
@@ -68,5 +68,6 @@ public final class KeyValueWorker extends AbstractWorker {
   public void stop() throws IOException {
     // No heartbeat thread to stop
     // Thrift service is multiplexed with other services and will be stopped together with others
+    mKeyValueServiceHandler.close();
   }
 }
@@ -11,7 +11,9 @@
 
 package alluxio.worker.keyvalue;
 
+import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.PropertyKey;
 import alluxio.RpcUtils;
 import alluxio.RpcUtils.RpcCallableThrowsIOException;
 import alluxio.Sessions;
@@ -19,15 +21,15 @@ import alluxio.client.keyvalue.ByteBufferKeyValuePartitionReader;
 import alluxio.client.keyvalue.Index;
 import alluxio.client.keyvalue.PayloadReader;
 import alluxio.exception.AlluxioException;
-import alluxio.exception.BlockDoesNotExistException;
 import alluxio.exception.InvalidWorkerStateException;
+import alluxio.metrics.MetricsSystem;
 import alluxio.thrift.AlluxioTException;
 import alluxio.thrift.KeyValueWorkerClientService;
 import alluxio.thrift.ThriftIOException;
 import alluxio.util.io.BufferUtils;
 import alluxio.worker.block.BlockWorker;
-import alluxio.worker.block.io.BlockReader;
 
+import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import org.slf4j.Logger;
@@ -35,8 +37,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -50,12 +55,16 @@ public final class KeyValueWorkerClientServiceHandler implements KeyValueWorkerC
 
   /** BlockWorker handler for access block info. */
   private final BlockWorker mBlockWorker;
+  /** The readers of the recently read partitions. */
+  private final KeyValuePartitionReaderCache mReaderCache;
 
   /**
    * @param blockWorker the {@link BlockWorker}
    */
   public KeyValueWorkerClientServiceHandler(BlockWorker blockWorker) {
     mBlockWorker = Preconditions.checkNotNull(blockWorker);
+    mReaderCache = new KeyValuePartitionReaderCache(mBlockWorker,
+        Configuration.getInt(PropertyKey.KEY_VALUE_WORKER_PARTITION_READER_CACHE_SIZE));
   }
 
   @Override
@@ -78,109 +87,198 @@ public final class KeyValueWorkerClientServiceHandler implements KeyValueWorkerC
     return RpcUtils.call(new RpcCallableThrowsIOException<ByteBuffer>() {
       @Override
       public ByteBuffer call() throws AlluxioException, IOException {
-        ByteBuffer value = getInternal(blockId, key);
-        if (value == null) {
-          return ByteBuffer.allocate(0);
+        Timer.Context timer = Metrics.GET.time();
+        try {
+          ByteBuffer value = readPartition(blockId, new PartitionCallable<ByteBuffer>() {
+            @Override
+            public ByteBuffer call(ByteBufferKeyValuePartitionReader reader) throws IOException {
+              ByteBuffer value = reader.get(key);
+              return value == null ? null : copyAsNonDirectBuffer(value);
+            }
+          });
+          return value == null ? ByteBuffer.allocate(0) : value;
+        } finally {
+          timer.stop();
+        }
+      }
+    });
+  }
+
+  /**
+   * Gets the values of a batch of keys, each in the block with the id at the same position. The
+   * keys of the same block are looked up under a single lock of the block.
+   *
+   * @param blockIds the ids of the blocks of the keys
+   * @param keys the keys to fetch
+   * @return the values of the keys, which are empty for the keys not found
+   * @throws AlluxioTException if an exception in Alluxio occurs
+   * @throws ThriftIOException if a non-Alluxio related exception occurs
+   */
+  @Override
+  public List<ByteBuffer> multiGet(final List<Long> blockIds, final List<ByteBuffer> keys)
+      throws AlluxioTException, ThriftIOException {
+    return RpcUtils.call(new RpcCallableThrowsIOException<List<ByteBuffer>>() {
+      @Override
+      public List<ByteBuffer> call() throws AlluxioException, IOException {
+        Preconditions.checkArgument(blockIds.size() == keys.size(),
+            "Got %s block ids for %s keys", blockIds.size(), keys.size());
+        Timer.Context timer = Metrics.MULTI_GET.time();
+        try {
+          // Group the positions of the keys by block, keeping the order of the blocks.
+          Map<Long, List<Integer>> positionsByBlock = new LinkedHashMap<>();
+          for (int i = 0; i < blockIds.size(); i++) {
+            List<Integer> positions = positionsByBlock.get(blockIds.get(i));
+            if (positions == null) {
+              positions = new ArrayList<>();
+              positionsByBlock.put(blockIds.get(i), positions);
+            }
+            positions.add(i);
+          }
+          final ByteBuffer[] values = new ByteBuffer[keys.size()];
+          for (Map.Entry<Long, List<Integer>> entry : positionsByBlock.entrySet()) {
+            final List<Integer> positions = entry.getValue();
+            readPartition(entry.getKey(), new PartitionCallable<Void>() {
+              @Override
+              public Void call(ByteBufferKeyValuePartitionReader reader) throws IOException {
+                for (int position : positions) {
+                  ByteBuffer value = reader.get(keys.get(position));
+                  if (value != null) {
+                    values[position] = copyAsNonDirectBuffer(value);
+                  }
+                }
+                return null;
+              }
+            });
+          }
+          List<ByteBuffer> ret = new ArrayList<>(values.length);
+          for (ByteBuffer value : values) {
+            ret.add(value == null ? ByteBuffer.allocate(0) : value);
+          }
+          return ret;
+        } finally {
+          timer.stop();
         }
-        return copyAsNonDirectBuffer(value);
       }
     });
   }
 
   private ByteBuffer copyAsNonDirectBuffer(ByteBuffer directBuffer) {
     // Thrift assumes the ByteBuffer returned has array() method, which is not true if the
-    // ByteBuffer is direct. We make a non-direct copy of the ByteBuffer to return.
+    // ByteBuffer is direct. We make a non-direct copy of the ByteBuffer to return. The copy is
+    // also needed since the partition may be unmapped once it is released.
     return BufferUtils.cloneByteBuffer(directBuffer);
   }
 
   /**
-   * Internal logic to get value from the given block.
+   * Reads the partition of the given block, while the block is locked.
    *
-   * @param blockId Block Id
-   * @param keyBuffer bytes of key
-   * @return key found in the key-value block or null if not found
+   * @param blockId the id of the block
+   * @param callable the read of the partition, which must copy the data it returns
+   * @param <T> the type of the result of the read
+   * @return the result of the read, or null if the worker is in an invalid state
    * @throws IOException if read operation failed
-   * @throws BlockDoesNotExistException if the worker is not serving this block
+   * @throws AlluxioException if the worker is not serving this block, or the read fails
    */
-  private ByteBuffer getInternal(long blockId, ByteBuffer keyBuffer)
-      throws BlockDoesNotExistException, IOException {
+  private <T> T readPartition(long blockId, PartitionCallable<T> callable)
+      throws AlluxioException, IOException {
     final long sessionId = Sessions.KEYVALUE_SESSION_ID;
     final long lockId = mBlockWorker.lockBlock(sessionId, blockId);
     try {
-      return getReader(sessionId, lockId, blockId).get(keyBuffer);
+      KeyValuePartitionReaderCache.Partition partition =
+          mReaderCache.acquire(sessionId, blockId, lockId);
+      try {
+        return callable.call(partition.createReader());
+      } finally {
+        partition.release();
+      }
     } catch (InvalidWorkerStateException e) {
       // We shall never reach here
-      LOG.error("Reaching invalid state to get a key", e);
+      LOG.error("Reaching invalid state to read block {}", blockId, e);
     } finally {
       mBlockWorker.unlockBlock(lockId);
     }
     return null;
   }
 
-  private ByteBufferKeyValuePartitionReader getReader(long sessionId, long lockId, long blockId)
-      throws InvalidWorkerStateException, BlockDoesNotExistException, IOException {
-    BlockReader blockReader = mBlockWorker.readBlockRemote(sessionId, blockId, lockId);
-    ByteBuffer fileBuffer = blockReader.read(0, blockReader.getLength());
-    ByteBufferKeyValuePartitionReader reader = new ByteBufferKeyValuePartitionReader(fileBuffer);
-    // TODO(binfan): clean fileBuffer which is a direct byte buffer
-
-    blockReader.close();
-    return reader;
-  }
-
   @Override
   public List<ByteBuffer> getNextKeys(final long blockId, final ByteBuffer key, final int numKeys)
       throws AlluxioTException, ThriftIOException {
     return RpcUtils.call(new RpcCallableThrowsIOException<List<ByteBuffer>>() {
       @Override
       public List<ByteBuffer> call() throws AlluxioException, IOException {
-        final long sessionId = Sessions.KEYVALUE_SESSION_ID;
-        final long lockId = mBlockWorker.lockBlock(sessionId, blockId);
-        try {
-          ByteBufferKeyValuePartitionReader reader = getReader(sessionId, lockId, blockId);
-          Index index = reader.getIndex();
-          PayloadReader payloadReader = reader.getPayloadReader();
-
-          List<ByteBuffer> ret = Lists.newArrayListWithExpectedSize(numKeys);
-          ByteBuffer currentKey = key;
-          for (int i = 0; i < numKeys; i++) {
-            ByteBuffer nextKey = index.nextKey(currentKey, payloadReader);
-            if (nextKey == null) {
-              break;
+        List<ByteBuffer> keys = readPartition(blockId, new PartitionCallable<List<ByteBuffer>>() {
+          @Override
+          public List<ByteBuffer> call(ByteBufferKeyValuePartitionReader reader) {
+            Index index = reader.getIndex();
+            PayloadReader payloadReader = reader.getPayloadReader();
+
+            List<ByteBuffer> ret = Lists.newArrayListWithExpectedSize(numKeys);
+            ByteBuffer currentKey = key;
+            for (int i = 0; i < numKeys; i++) {
+              ByteBuffer nextKey = index.nextKey(currentKey, payloadReader);
+              if (nextKey == null) {
+                break;
+              }
+              ret.add(copyAsNonDirectBuffer(nextKey));
+              currentKey = nextKey;
             }
-            ret.add(copyAsNonDirectBuffer(nextKey));
-            currentKey = nextKey;
+            return ret;
           }
-          return ret;
-        } catch (InvalidWorkerStateException e) {
-          // We shall never reach here
-          LOG.error("Reaching invalid state to get all keys", e);
-        } finally {
-          mBlockWorker.unlockBlock(lockId);
-        }
-        return Collections.emptyList();
+        });
+        return keys == null ? Collections.<ByteBuffer>emptyList() : keys;
       }
     });
   }
 
-  // TODO(cc): Try to remove the duplicated try-catch logic in other methods like getNextKeys.
   @Override
   public int getSize(final long blockId) throws AlluxioTException, ThriftIOException {
     return RpcUtils.call(new RpcCallableThrowsIOException<Integer>() {
       @Override
       public Integer call() throws AlluxioException, IOException {
-        final long sessionId = Sessions.KEYVALUE_SESSION_ID;
-        final long lockId = mBlockWorker.lockBlock(sessionId, blockId);
-        try {
-          return getReader(sessionId, lockId, blockId).size();
-        } catch (InvalidWorkerStateException e) {
-          // We shall never reach here
-          LOG.error("Reaching invalid state to get size", e);
-        } finally {
-          mBlockWorker.unlockBlock(lockId);
-        }
-        return 0;
+        Integer size = readPartition(blockId, new PartitionCallable<Integer>() {
+          @Override
+          public Integer call(ByteBufferKeyValuePartitionReader reader)
+              throws IOException, AlluxioException {
+            return reader.size();
+          }
+        });
+        return size == null ? 0 : size;
       }
     });
   }
+
+  /**
+   * Drops the cached partition readers.
+   */
+  void close() {
+    mReaderCache.clear();
+  }
+
+  /**
+   * A read of a key-value partition.
+   *
+   * @param <T> the type of the result of the read
+   */
+  private interface PartitionCallable<T> {
+    /**
+     * @param reader the reader of the partition
+     * @return the result of the read
+     * @throws IOException if the read fails
+     * @throws AlluxioException if the read fails in Alluxio
+     */
+    T call(ByteBufferKeyValuePartitionReader reader) throws IOException, AlluxioException;
+  }
+
+  /**
+   * Class that contains metrics about {@link KeyValueWorkerClientServiceHandler}.
+   */
+  @ThreadSafe
+  private static final class Metrics {
+    /** The latency of the lookups of a key. */
+    private static final Timer GET = MetricsSystem.workerTimer("KeyValueGet");
+    /** The latency of the lookups of a batch of keys. */
+    private static final Timer MULTI_GET = MetricsSystem.workerTimer("KeyValueMultiGet");
+
+    private Metrics() {} // prevent instantiation
+  }
 }
@@ -0,0 +1,183 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.keyvalue;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import alluxio.worker.block.BlockStoreEventListener;
+import alluxio.worker.block.BlockStoreLocation;
+import alluxio.worker.block.BlockWorker;
+import alluxio.worker.block.io.BlockReader;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.reflect.Whitebox;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link KeyValuePartitionReaderCache}.
+ */
+public final class KeyValuePartitionReaderCacheTest {
+  private static final long SESSION_ID = 1L;
+  private static final long LOCK_ID = 2L;
+  private static final long BLOCK_ID1 = 10L;
+  private static final long BLOCK_ID2 = 11L;
+  private static final int BLOCK_LENGTH = 16;
+
+  private BlockWorker mBlockWorker;
+
+  /**
+   * Sets up a block worker which serves heap buffers for all blocks.
+   */
+  @Before
+  public void before() throws Exception {
+    mBlockWorker = Mockito.mock(BlockWorker.class);
+    when(mBlockWorker.readBlockRemote(anyLong(), anyLong(), anyLong())).then(
+        new Answer<BlockReader>() {
+          @Override
+          public BlockReader answer(InvocationOnMock invocation) throws Exception {
+            BlockReader reader = Mockito.mock(BlockReader.class);
+            when(reader.getLength()).thenReturn((long) BLOCK_LENGTH);
+            when(reader.read(0, BLOCK_LENGTH)).thenReturn(ByteBuffer.allocate(BLOCK_LENGTH));
+            return reader;
+          }
+        });
+  }
+
+  /**
+   * Tests that a cached partition is shared by the requests, and that every acquire and release
+   * updates its reference count.
+   */
+  @Test
+  public void retainAndRelease() throws Exception {
+    KeyValuePartitionReaderCache cache = new KeyValuePartitionReaderCache(mBlockWorker, 4);
+    KeyValuePartitionReaderCache.Partition partition1 =
+        cache.acquire(SESSION_ID, BLOCK_ID1, LOCK_ID);
+    KeyValuePartitionReaderCache.Partition partition2 =
+        cache.acquire(SESSION_ID, BLOCK_ID1, LOCK_ID);
+    Assert.assertSame(partition1, partition2);
+    verify(mBlockWorker, times(1)).readBlockRemote(SESSION_ID, BLOCK_ID1, LOCK_ID);
+    // The cache holds one reference, and each request another one.
+    Assert.assertEquals(3, refCount(partition1));
+
+    partition1.release();
+    partition2.release();
+    Assert.assertEquals(1, refCount(partition1));
+    Assert.assertSame(partition1, cache.acquire(SESSION_ID, BLOCK_ID1, LOCK_ID));
+    partition1.release();
+
+    cache.clear();
+    Assert.assertEquals(0, refCount(partition1));
+  }
+
+  /**
+   * Tests that a partition is dropped from the cache when its block is removed or evicted.
+   */
+  @Test
+  public void invalidateOnBlockRemoval() throws Exception {
+    KeyValuePartitionReaderCache cache = new KeyValuePartitionReaderCache(mBlockWorker, 4);
+    ArgumentCaptor<BlockStoreEventListener> listener =
+        ArgumentCaptor.forClass(BlockStoreEventListener.class);
+    verify(mBlockWorker).registerBlockStoreEventListener(listener.capture());
+
+    KeyValuePartitionReaderCache.Partition partition1 =
+        cache.acquire(SESSION_ID, BLOCK_ID1, LOCK_ID);
+    partition1.release();
+    listener.getValue().onRemoveBlockByWorker(SESSION_ID, BLOCK_ID1);
+    Assert.assertEquals(0, refCount(partition1));
+
+    KeyValuePartitionReaderCache.Partition partition2 =
+        cache.acquire(SESSION_ID, BLOCK_ID1, LOCK_ID);
+    Assert.assertNotSame(partition1, partition2);
+    partition2.release();
+    listener.getValue().onRemoveBlockByClient(SESSION_ID, BLOCK_ID1);
+    Assert.assertEquals(0, refCount(partition2));
+    verify(mBlockWorker, times(2)).readBlockRemote(SESSION_ID, BLOCK_ID1, LOCK_ID);
+
+    // Removing a block which is not cached does nothing.
+    listener.getValue().onRemoveBlockByWorker(SESSION_ID, BLOCK_ID2);
+  }
+
+  /**
+   * Tests that a partition is dropped from the cache when its block is moved to another location.
+   */
+  @Test
+  public void invalidateOnBlockMove() throws Exception {
+    KeyValuePartitionReaderCache cache = new KeyValuePartitionReaderCache(mBlockWorker, 4);
+    ArgumentCaptor<BlockStoreEventListener> listener =
+        ArgumentCaptor.forClass(BlockStoreEventListener.class);
+    verify(mBlockWorker).registerBlockStoreEventListener(listener.capture());
+    BlockStoreLocation memLocation = BlockStoreLocation.anyDirInTier("MEM");
+    BlockStoreLocation ssdLocation = BlockStoreLocation.anyDirInTier("SSD");
+
+    KeyValuePartitionReaderCache.Partition partition1 =
+        cache.acquire(SESSION_ID, BLOCK_ID1, LOCK_ID);
+    partition1.release();
+    listener.getValue().onMoveBlockByWorker(SESSION_ID, BLOCK_ID1, memLocation, ssdLocation);
+    Assert.assertEquals(0, refCount(partition1));
+
+    KeyValuePartitionReaderCache.Partition partition2 =
+        cache.acquire(SESSION_ID, BLOCK_ID1, LOCK_ID);
+    Assert.assertNotSame(partition1, partition2);
+    partition2.release();
+    listener.getValue().onMoveBlockByClient(SESSION_ID, BLOCK_ID1, ssdLocation, memLocation);
+    Assert.assertEquals(0, refCount(partition2));
+    verify(mBlockWorker, times(2)).readBlockRemote(SESSION_ID, BLOCK_ID1, LOCK_ID);
+  }
+
+  /**
+   * Tests that a partition evicted from the cache while a request uses it stays mapped until the
+   * request releases it.
+   */
+  @Test
+  public void evictPartitionInUse() throws Exception {
+    KeyValuePartitionReaderCache cache = new KeyValuePartitionReaderCache(mBlockWorker, 1);
+    KeyValuePartitionReaderCache.Partition partition1 =
+        cache.acquire(SESSION_ID, BLOCK_ID1, LOCK_ID);
+    // Caching the second block evicts the first one, which is still in use.
+    KeyValuePartitionReaderCache.Partition partition2 =
+        cache.acquire(SESSION_ID, BLOCK_ID2, LOCK_ID);
+    Assert.assertEquals(1, refCount(partition1));
+    Assert.assertEquals(2, refCount(partition2));
+
+    partition1.release();
+    Assert.assertEquals(0, refCount(partition1));
+    partition2.release();
+    Assert.assertEquals(1, refCount(partition2));
+
+    // The evicted partition is never handed out again, the block is mapped again instead.
+    KeyValuePartitionReaderCache.Partition partition3 =
+        cache.acquire(SESSION_ID, BLOCK_ID1, LOCK_ID);
+    Assert.assertNotSame(partition1, partition3);
+    partition3.release();
+    verify(mBlockWorker, times(2)).readBlockRemote(eq(SESSION_ID), eq(BLOCK_ID1), anyLong());
+    verify(mBlockWorker, times(1)).registerBlockStoreEventListener(
+        any(BlockStoreEventListener.class));
+  }
+
+  private static int refCount(KeyValuePartitionReaderCache.Partition partition) {
+    AtomicInteger refCount = Whitebox.getInternalState(partition, "mRefCount");
+    return refCount.get();
+  }
+}
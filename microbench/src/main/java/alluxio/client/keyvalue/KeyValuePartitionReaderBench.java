@@ -0,0 +1,162 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import alluxio.Configuration;
+import alluxio.PropertyKey;
+import alluxio.client.AbstractOutStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups of a key-value partition, for keys which are in the partition and keys
+ * which are not, with and without the Bloom filter of the partition.
+ *
+ * Run with {@code java -jar microbench/target/benchmarks.jar KeyValuePartitionReaderBench}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeyValuePartitionReaderBench {
+  /** The number of keys to look up, cycled through by the benchmarks. */
+  private static final int NUM_LOOKUPS = 1 << 16;
+
+  /**
+   * Creates a new instance of {@link KeyValuePartitionReaderBench}.
+   */
+  public KeyValuePartitionReaderBench() {}
+
+  /**
+   * A partition, and the keys to look up in it.
+   */
+  @State(Scope.Thread)
+  public static class PartitionState {
+    /** The number of keys of the partition, half of the buckets of the index by default. */
+    @Param({"16384"})
+    public int mNumKeys;
+
+    /** The bits per key of the Bloom filter, or 0 for a partition without a filter. */
+    @Param({"0", "10"})
+    public int mBloomFilterBitsPerKey;
+
+    private ByteBufferKeyValuePartitionReader mReader;
+    private ByteBuffer[] mHitKeys;
+    private ByteBuffer[] mMissKeys;
+    private int mNext;
+
+    /**
+     * Creates a new instance of {@link PartitionState}.
+     */
+    public PartitionState() {}
+
+    /**
+     * Writes the partition in memory.
+     *
+     * @throws Exception if the partition fails to be written
+     */
+    @Setup(Level.Trial)
+    public void before() throws Exception {
+      Configuration.set(PropertyKey.KEY_VALUE_PARTITION_BLOOM_FILTER_BITS_PER_KEY,
+          String.valueOf(mBloomFilterBitsPerKey));
+      ByteArrayOutStream outStream = new ByteArrayOutStream();
+      BaseKeyValuePartitionWriter writer = new BaseKeyValuePartitionWriter(outStream);
+      byte[] value = new byte[100];
+      for (int i = 0; i < mNumKeys; i++) {
+        writer.put(key(i), value);
+      }
+      writer.close();
+      mReader = new ByteBufferKeyValuePartitionReader(ByteBuffer.wrap(outStream.toByteArray()));
+
+      mHitKeys = new ByteBuffer[NUM_LOOKUPS];
+      mMissKeys = new ByteBuffer[NUM_LOOKUPS];
+      for (int i = 0; i < NUM_LOOKUPS; i++) {
+        mHitKeys[i] = ByteBuffer.wrap(key(i % mNumKeys));
+        mMissKeys[i] = ByteBuffer.wrap(key(mNumKeys + i));
+      }
+    }
+
+    private static byte[] key(int i) {
+      return String.format("key-%010d", i).getBytes();
+    }
+
+    private int next() {
+      mNext = (mNext + 1) & (NUM_LOOKUPS - 1);
+      return mNext;
+    }
+  }
+
+  /**
+   * Looks up a key which is in the partition.
+   *
+   * @param state the partition
+   * @return the value of the key
+   * @throws Exception if the lookup fails
+   */
+  @Benchmark
+  public ByteBuffer getHit(PartitionState state) throws Exception {
+    return state.mReader.get(state.mHitKeys[state.next()]);
+  }
+
+  /**
+   * Looks up a key which is not in the partition.
+   *
+   * @param state the partition
+   * @return null, since the key is not found
+   * @throws Exception if the lookup fails
+   */
+  @Benchmark
+  public ByteBuffer getMiss(PartitionState state) throws Exception {
+    return state.mReader.get(state.mMissKeys[state.next()]);
+  }
+
+  /**
+   * An output stream which writes to a byte array.
+   */
+  private static final class ByteArrayOutStream extends AbstractOutStream {
+    private final ByteArrayOutputStream mOut = new ByteArrayOutputStream();
+
+    ByteArrayOutStream() {}
+
+    @Override
+    public void write(int b) {
+      mOut.write(b);
+      mBytesWritten++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      mOut.write(b, off, len);
+      mBytesWritten += len;
+    }
+
+    byte[] toByteArray() {
+      return mOut.toByteArray();
+    }
+  }
+}
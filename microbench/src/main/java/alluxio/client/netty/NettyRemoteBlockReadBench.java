@@ -0,0 +1,197 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.netty;
+
+import alluxio.Configuration;
+import alluxio.Constants;
+import alluxio.PropertyKey;
+import alluxio.network.protocol.RPCBlockReadRequest;
+import alluxio.network.protocol.RPCBlockReadResponse;
+import alluxio.network.protocol.RPCMessage;
+import alluxio.network.protocol.RPCMessageDecoder;
+import alluxio.network.protocol.RPCMessageEncoder;
+import alluxio.network.protocol.RPCResponse;
+import alluxio.network.protocol.databuffer.DataByteBuffer;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of sequentially reading a remote block with
+ * {@link NettyRemoteBlockReader}, for several window sizes of outstanding chunk requests. The
+ * block is served by an in-process data server which delays every response by a fixed latency,
+ * to simulate the round trip to a remote worker.
+ *
+ * Run with {@code java -jar microbench/target/benchmarks.jar NettyRemoteBlockReadBench}. Every
+ * operation reads {@link BlockState#mBlockSizeMB} MB.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NettyRemoteBlockReadBench {
+  private static final long BLOCK_ID = 1;
+
+  /**
+   * Creates a new instance of {@link NettyRemoteBlockReadBench}.
+   */
+  public NettyRemoteBlockReadBench() {}
+
+  /**
+   * The data server and the reader of the benchmark.
+   */
+  @State(Scope.Thread)
+  public static class BlockState {
+    @Param({"1", "2", "4", "8", "16"})
+    public int mWindowSize;
+
+    @Param({"128"})
+    public int mChunkSizeKB;
+
+    /** The round trip latency added to every response. */
+    @Param({"1"})
+    public int mLatencyMs;
+
+    @Param({"16"})
+    public int mBlockSizeMB;
+
+    private EventLoopGroup mServerGroup;
+    private Channel mServerChannel;
+    private InetSocketAddress mAddress;
+    private NettyRemoteBlockReader mReader;
+
+    /**
+     * Creates a new instance of {@link BlockState}.
+     */
+    public BlockState() {}
+
+    /**
+     * Starts the data server and creates the reader.
+     *
+     * @throws Exception if the data server cannot be started
+     */
+    @Setup(Level.Trial)
+    public void before() throws Exception {
+      Configuration.set(PropertyKey.USER_NETWORK_NETTY_READER_WINDOW_SIZE,
+          Integer.toString(mWindowSize));
+      Configuration.set(PropertyKey.USER_NETWORK_NETTY_READER_CHUNK_SIZE_BYTES,
+          Integer.toString(mChunkSizeKB * Constants.KB));
+      final ByteBuffer block = ByteBuffer.allocate(mBlockSizeMB * Constants.MB);
+      mServerGroup = new NioEventLoopGroup(1);
+      mServerChannel = new ServerBootstrap().group(mServerGroup)
+          .channel(NioServerSocketChannel.class)
+          .childHandler(new ChannelInitializer<SocketChannel>() {
+            @Override
+            protected void initChannel(SocketChannel ch) {
+              ChannelPipeline pipeline = ch.pipeline();
+              pipeline.addLast(RPCMessage.createFrameDecoder());
+              pipeline.addLast(new RPCMessageDecoder());
+              pipeline.addLast(new RPCMessageEncoder());
+              pipeline.addLast(new DelayedBlockReadHandler(block, mLatencyMs));
+            }
+          })
+          .bind(new InetSocketAddress("localhost", 0)).sync().channel();
+      mAddress = (InetSocketAddress) mServerChannel.localAddress();
+      mReader = new NettyRemoteBlockReader();
+    }
+
+    /**
+     * Closes the reader and stops the data server.
+     *
+     * @throws Exception if the data server fails to stop
+     */
+    @TearDown(Level.Trial)
+    public void after() throws Exception {
+      mReader.close();
+      mServerChannel.close().sync();
+      mServerGroup.shutdownGracefully().sync();
+    }
+  }
+
+  /**
+   * Reads the whole block sequentially, one chunk after the other.
+   *
+   * @param state the block state
+   * @return the sum of the first byte of every chunk, so the reads are not optimized away
+   * @throws Exception if the read fails
+   */
+  @Benchmark
+  public long readBlock(BlockState state) throws Exception {
+    long blockSize = state.mBlockSizeMB * Constants.MB;
+    long sum = 0;
+    long offset = 0;
+    while (offset < blockSize) {
+      ByteBuffer chunk = state.mReader.readRemoteBlock(state.mAddress, BLOCK_ID, offset,
+          blockSize - offset, 0, 0);
+      sum += chunk.get(chunk.position());
+      offset += chunk.remaining();
+    }
+    return sum;
+  }
+
+  /**
+   * Responds to block read requests with the data of a block, after a fixed delay. The delayed
+   * responses of a channel are written in the order of the requests.
+   */
+  private static final class DelayedBlockReadHandler
+      extends SimpleChannelInboundHandler<RPCBlockReadRequest> {
+    private final ByteBuffer mBlock;
+    private final long mLatencyMs;
+
+    DelayedBlockReadHandler(ByteBuffer block, long latencyMs) {
+      mBlock = block;
+      mLatencyMs = latencyMs;
+    }
+
+    @Override
+    protected void channelRead0(final ChannelHandlerContext ctx, RPCBlockReadRequest request) {
+      ByteBuffer data = mBlock.duplicate();
+      data.position((int) request.getOffset());
+      data.limit((int) (request.getOffset() + request.getLength()));
+      final RPCBlockReadResponse response = new RPCBlockReadResponse(request.getBlockId(),
+          request.getOffset(), request.getLength(),
+          new DataByteBuffer(data.slice(), request.getLength()), RPCResponse.Status.SUCCESS);
+      ctx.executor().schedule(new Runnable() {
+        @Override
+        public void run() {
+          ctx.writeAndFlush(response);
+        }
+      }, mLatencyMs, TimeUnit.MILLISECONDS);
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.block;
+
+import alluxio.Constants;
+import alluxio.master.journal.ReadWriteJournal;
+import alluxio.proto.journal.Block.BlockInfoEntry;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.util.io.FileUtils;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap used by the block master per block, for blocks stored on a number of workers.
+ * Every operation loads the metadata of all the blocks into a new block master, and registers the
+ * workers with their blocks. The heap used per block is measured after a full garbage collection,
+ * and printed after every iteration next to the estimate of the
+ * {@link BlockMaster.Metrics#BLOCK_METADATA_SIZE} metric.
+ *
+ * Run with {@code java -jar microbench/target/benchmarks.jar BlockMasterMemoryBench}. Large block
+ * counts need a large heap, e.g. {@code -jvmArgs -Xmx16g}.
+ */
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BlockMasterMemoryBench {
+  private static final String TIER = "MEM";
+  /** The number of blocks of every container, to generate realistic block ids. */
+  private static final int BLOCKS_PER_CONTAINER = 4;
+
+  /**
+   * Creates a new instance of {@link BlockMasterMemoryBench}.
+   */
+  public BlockMasterMemoryBench() {}
+
+  /**
+   * The block master and the blocks of the workers.
+   */
+  @State(Scope.Benchmark)
+  public static class MasterState {
+    @Param({"1000000"})
+    public int mNumBlocks;
+
+    /** The number of workers which store every block. */
+    @Param({"1"})
+    public int mReplication;
+
+    private String mJournalFolder;
+    private BlockMaster mMaster;
+    private List<Long> mBlockIds;
+    /** The heap used per block, measured after a full garbage collection. */
+    private long mMeasuredBytesPerBlock;
+    /** The heap used per block, as estimated by the block master. */
+    private long mEstimatedBytesPerBlock;
+
+    /**
+     * Creates a new instance of {@link MasterState}.
+     */
+    public MasterState() {}
+
+    /**
+     * Generates the block ids.
+     */
+    @Setup(Level.Trial)
+    public void before() {
+      mBlockIds = new ArrayList<>(mNumBlocks);
+      for (int i = 0; i < mNumBlocks; i++) {
+        mBlockIds.add(
+            BlockId.createBlockId(i / BLOCKS_PER_CONTAINER, i % BLOCKS_PER_CONTAINER));
+      }
+    }
+
+    /**
+     * Starts an empty block master.
+     *
+     * @throws Exception if the master fails to start
+     */
+    @Setup(Level.Iteration)
+    public void startMaster() throws Exception {
+      mJournalFolder = Files.createTempDir().getAbsolutePath();
+      mMaster = new BlockMaster(new ReadWriteJournal(mJournalFolder));
+      mMaster.start(true);
+    }
+
+    /**
+     * Reports the heap used per block, and stops the block master.
+     *
+     * @throws Exception if the master fails to stop
+     */
+    @TearDown(Level.Iteration)
+    public void stopMaster() throws Exception {
+      System.out.printf("Heap used per block: %d bytes measured, %d bytes estimated%n",
+          mMeasuredBytesPerBlock, mEstimatedBytesPerBlock);
+      mMaster.stop();
+      mMaster = null;
+      FileUtils.deletePathRecursively(mJournalFolder);
+    }
+  }
+
+  /**
+   * Loads all the blocks into the block master, and registers the workers with their blocks.
+   *
+   * @param state the master state
+   * @return the number of blocks of the master
+   * @throws Exception if a worker fails to register
+   */
+  @Benchmark
+  public int loadBlocks(MasterState state) throws Exception {
+    BlockMaster master = state.mMaster;
+    long usedBefore = usedHeapBytes();
+    for (long blockId : state.mBlockIds) {
+      master.processJournalEntry(JournalEntry.newBuilder().setBlockInfo(
+          BlockInfoEntry.newBuilder().setBlockId(blockId).setLength(Constants.MB)).build());
+    }
+    for (int i = 0; i < state.mReplication; i++) {
+      long workerId = master.getWorkerId(new WorkerNetAddress().setHost("worker" + i)
+          .setRpcPort(80).setDataPort(81).setWebPort(82));
+      master.workerRegister(workerId, ImmutableList.of(TIER),
+          ImmutableMap.of(TIER, (long) Constants.GB), ImmutableMap.of(TIER, 0L),
+          ImmutableMap.of(TIER, state.mBlockIds));
+    }
+    state.mMeasuredBytesPerBlock = (usedHeapBytes() - usedBefore) / state.mNumBlocks;
+    state.mEstimatedBytesPerBlock = master.getBlockMetadataSizeBytes() / state.mNumBlocks;
+    return master.getBlockCount();
+  }
+
+  private static long usedHeapBytes() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.block;
+
+import alluxio.Constants;
+import alluxio.master.journal.ReadWriteJournal;
+import alluxio.proto.journal.Block.BlockInfoEntry;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.thrift.BlockMasterWorkerService.registerWorker_args;
+import alluxio.util.io.FileUtils;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.apache.thrift.transport.TMemoryInputTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time for a worker to register with the block master, from serializing the Thrift
+ * request on the worker to applying it on the master, with the block ids encoded by
+ * {@link BlockIdsCodec}.
+ *
+ * Run with {@code java -jar microbench/target/benchmarks.jar BlockMasterRegisterBench}. The
+ * default of 10M blocks needs a large heap, e.g. {@code -jvmArgs -Xmx16g}, and a smaller number of
+ * blocks can be set with {@code -p mNumBlocks=1000000}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BlockMasterRegisterBench {
+  private static final String TIER = "MEM";
+  /** The number of blocks of every container, to generate realistic block ids. */
+  private static final int BLOCKS_PER_CONTAINER = 64;
+
+  /**
+   * Creates a new instance of {@link BlockMasterRegisterBench}.
+   */
+  public BlockMasterRegisterBench() {}
+
+  /**
+   * The block master and the blocks of the registering worker.
+   */
+  @State(Scope.Benchmark)
+  public static class MasterState {
+    @Param({"10000000"})
+    public int mNumBlocks;
+
+    /** Whether the encoded block ids are compressed. */
+    @Param({"false", "true"})
+    public boolean mCompressed;
+
+    private String mJournalFolder;
+    private BlockMaster mMaster;
+    private BlockMasterWorkerServiceHandler mHandler;
+    private long mWorkerId;
+    private Map<String, List<Long>> mBlocksOnTiers;
+
+    /**
+     * Creates a new instance of {@link MasterState}.
+     */
+    public MasterState() {}
+
+    /**
+     * Starts the block master with the metadata of all the blocks of the worker.
+     *
+     * @throws Exception if the master fails to start
+     */
+    @Setup(Level.Trial)
+    public void before() throws Exception {
+      mJournalFolder = Files.createTempDir().getAbsolutePath();
+      mMaster = new BlockMaster(new ReadWriteJournal(mJournalFolder));
+      mMaster.start(true);
+      mHandler = new BlockMasterWorkerServiceHandler(mMaster);
+      List<Long> blockIds = new ArrayList<>(mNumBlocks);
+      for (int i = 0; i < mNumBlocks; i++) {
+        long blockId = BlockId.createBlockId(i / BLOCKS_PER_CONTAINER, i % BLOCKS_PER_CONTAINER);
+        blockIds.add(blockId);
+        mMaster.processJournalEntry(JournalEntry.newBuilder().setBlockInfo(
+            BlockInfoEntry.newBuilder().setBlockId(blockId).setLength(Constants.MB)).build());
+      }
+      mBlocksOnTiers = ImmutableMap.of(TIER, blockIds);
+      mWorkerId = mMaster.getWorkerId(new WorkerNetAddress().setHost("localhost")
+          .setRpcPort(80).setDataPort(81).setWebPort(82));
+    }
+
+    /**
+     * Stops the block master.
+     *
+     * @throws Exception if the master fails to stop
+     */
+    @TearDown(Level.Trial)
+    public void after() throws Exception {
+      mMaster.stop();
+      FileUtils.deletePathRecursively(mJournalFolder);
+    }
+  }
+
+  /**
+   * Registers the worker with all its blocks.
+   *
+   * @param state the master state
+   * @return the number of bytes of the serialized request
+   * @throws Exception if the registration fails
+   */
+  @Benchmark
+  public int registerWorker(MasterState state) throws Exception {
+    // Serialize the request as the worker does.
+    registerWorker_args args = new registerWorker_args(state.mWorkerId, ImmutableList.of(TIER),
+        ImmutableMap.of(TIER, (long) Constants.GB), ImmutableMap.of(TIER, 0L),
+        BlockIdsCodec.encodeTiers(state.mBlocksOnTiers, state.mCompressed));
+    TMemoryBuffer buffer = new TMemoryBuffer(Constants.KB);
+    args.write(new TBinaryProtocol(buffer));
+    int length = buffer.length();
+
+    // Deserialize and apply the request as the master does.
+    registerWorker_args received = new registerWorker_args();
+    received.read(new TBinaryProtocol(
+        new TMemoryInputTransport(buffer.getArray(), 0, length)));
+    state.mHandler.registerWorker(received.getWorkerId(), received.getStorageTiers(),
+        received.getTotalBytesOnTiers(), received.getUsedBytesOnTiers(),
+        received.bufferForEncodedCurrentBlocksOnTiers());
+    return length;
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import alluxio.AlluxioURI;
+import alluxio.Configuration;
+import alluxio.Constants;
+import alluxio.PropertyKey;
+import alluxio.master.block.BlockMaster;
+import alluxio.master.file.options.CreateFileOptions;
+import alluxio.master.journal.ReadWriteJournal;
+import alluxio.security.authorization.Permission;
+
+import com.google.common.io.Files;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of target-only read path lookups, with and without the optimistic
+ * traversal of the ancestors.
+ *
+ * Run all the thread counts from 1 to 64 with
+ * {@code java -cp microbench/target/benchmarks.jar alluxio.master.file.meta.InodeTreeReadBench},
+ * or a single configuration with {@code java -jar benchmarks.jar InodeTreeReadBench -t 16}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InodeTreeReadBench {
+  private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+  /**
+   * Creates a new instance of {@link InodeTreeReadBench}.
+   */
+  public InodeTreeReadBench() {}
+
+  /**
+   * The inode tree shared by all the benchmark threads.
+   */
+  @State(Scope.Benchmark)
+  public static class TreeState {
+    @Param({"true", "false"})
+    public boolean mOptimistic;
+
+    /** The depth of the files below the root. */
+    @Param({"4"})
+    public int mDepth;
+
+    /** The number of children of every directory. */
+    @Param({"8"})
+    public int mFanOut;
+
+    private BlockMaster mBlockMaster;
+    private InodeTree mTree;
+    private List<AlluxioURI> mFiles;
+
+    /**
+     * Creates a new instance of {@link TreeState}.
+     */
+    public TreeState() {}
+
+    /**
+     * Creates a full tree of {@code mFanOut ^ mDepth} files.
+     *
+     * @throws Exception if the tree cannot be created
+     */
+    @Setup(Level.Trial)
+    public void before() throws Exception {
+      Configuration.set(PropertyKey.MASTER_INODE_TREE_OPTIMISTIC_READ_ENABLED,
+          Boolean.toString(mOptimistic));
+      mBlockMaster =
+          new BlockMaster(new ReadWriteJournal(Files.createTempDir().getAbsolutePath()));
+      mTree = new InodeTree(mBlockMaster, new InodeDirectoryIdGenerator(mBlockMaster),
+          new MountTable());
+      mBlockMaster.start(true);
+      mTree.initializeRoot(new Permission("user", "group", (short) 0755));
+
+      CreateFileOptions options = CreateFileOptions.defaults().setBlockSizeBytes(Constants.KB)
+          .setPermission(new Permission("user", "group", (short) 0644)).setRecursive(true);
+      mFiles = new ArrayList<>();
+      addFiles("", 1, options);
+    }
+
+    private void addFiles(String parent, int level, CreateFileOptions options)
+        throws Exception {
+      for (int i = 0; i < mFanOut; i++) {
+        String path = parent + "/" + (level == mDepth ? "file" : "dir") + i;
+        if (level < mDepth) {
+          addFiles(path, level + 1, options);
+          continue;
+        }
+        AlluxioURI uri = new AlluxioURI(path);
+        try (LockedInodePath inodePath = mTree.lockInodePath(uri, InodeTree.LockMode.WRITE)) {
+          mTree.createPath(inodePath, options);
+        }
+        mFiles.add(uri);
+      }
+    }
+
+    /**
+     * Stops the block master.
+     *
+     * @throws Exception if the block master fails to stop
+     */
+    @TearDown(Level.Trial)
+    public void after() throws Exception {
+      mBlockMaster.stop();
+    }
+  }
+
+  /**
+   * Looks up a random file for a target-only read and reads its length.
+   *
+   * @param state the tree state
+   * @return the length of the file, so the lookup is not optimized away
+   * @throws Exception if the lookup fails
+   */
+  @Benchmark
+  public long lockFullInodePathForTargetRead(TreeState state) throws Exception {
+    AlluxioURI uri =
+        state.mFiles.get(ThreadLocalRandom.current().nextInt(state.mFiles.size()));
+    try (LockedInodePath inodePath = state.mTree.lockFullInodePathForTargetRead(uri)) {
+      return inodePath.getInodeFile().getLength();
+    }
+  }
+
+  /**
+   * Runs the benchmark for every thread count from 1 to 64.
+   *
+   * @param args unused
+   * @throws Exception if the benchmark fails
+   */
+  public static void main(String[] args) throws Exception {
+    for (int threads : THREAD_COUNTS) {
+      Options options = new OptionsBuilder()
+          .include(InodeTreeReadBench.class.getSimpleName())
+          .threads(threads)
+          .build();
+      new Runner(options).run();
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.block;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the throughput of read locking and unlocking blocks with {@link BlockLockManager}, as
+ * done for every block read of a worker.
+ *
+ * Run all the thread counts from 1 to 64 with
+ * {@code java -cp microbench/target/benchmarks.jar alluxio.worker.block.BlockLockManagerBench},
+ * or a single configuration with {@code java -jar benchmarks.jar BlockLockManagerBench -t 16}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BlockLockManagerBench {
+  private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+  /**
+   * Creates a new instance of {@link BlockLockManagerBench}.
+   */
+  public BlockLockManagerBench() {}
+
+  /**
+   * The lock manager shared by all the benchmark threads.
+   */
+  @State(Scope.Benchmark)
+  public static class ManagerState {
+    /** The number of blocks the threads lock, 1 means all the threads lock the same block. */
+    @Param({"1", "1024"})
+    public int mNumBlocks;
+
+    private BlockLockManager mLockManager;
+    private final AtomicLong mNextSessionId = new AtomicLong();
+
+    /**
+     * Creates a new instance of {@link ManagerState}.
+     */
+    public ManagerState() {}
+
+    /**
+     * Creates the lock manager.
+     */
+    @Setup(Level.Trial)
+    public void before() {
+      mLockManager = new BlockLockManager();
+    }
+  }
+
+  /**
+   * The session of a benchmark thread.
+   */
+  @State(Scope.Thread)
+  public static class SessionState {
+    private long mSessionId;
+
+    /**
+     * Creates a new instance of {@link SessionState}.
+     */
+    public SessionState() {}
+
+    /**
+     * Picks a session id for the thread.
+     *
+     * @param manager the lock manager state
+     */
+    @Setup(Level.Trial)
+    public void before(ManagerState manager) {
+      mSessionId = manager.mNextSessionId.incrementAndGet();
+    }
+  }
+
+  /**
+   * Read locks a random block and unlocks it.
+   *
+   * @param manager the lock manager state
+   * @param session the session state
+   * @return the lock id, so the lock is not optimized away
+   * @throws Exception if the block fails to unlock
+   */
+  @Benchmark
+  public long lockUnlockBlock(ManagerState manager, SessionState session) throws Exception {
+    long blockId = ThreadLocalRandom.current().nextInt(manager.mNumBlocks);
+    long lockId =
+        manager.mLockManager.lockBlock(session.mSessionId, blockId, BlockLockType.READ);
+    manager.mLockManager.unlockBlock(lockId);
+    return lockId;
+  }
+
+  /**
+   * Runs the benchmark for every thread count from 1 to 64.
+   *
+   * @param args unused
+   * @throws Exception if the benchmark fails
+   */
+  public static void main(String[] args) throws Exception {
+    for (int threads : THREAD_COUNTS) {
+      Options options = new OptionsBuilder()
+          .include(BlockLockManagerBench.class.getSimpleName())
+          .threads(threads)
+          .build();
+      new Runner(options).run();
+    }
+  }
+}
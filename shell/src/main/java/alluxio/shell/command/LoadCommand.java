@@ -12,27 +12,53 @@
 package alluxio.shell.command;
 
 import alluxio.AlluxioURI;
+import alluxio.Configuration;
 import alluxio.Constants;
-import alluxio.client.ReadType;
-import alluxio.client.file.FileInStream;
+import alluxio.PropertyKey;
+import alluxio.client.block.BlockWorkerInfo;
 import alluxio.client.file.FileSystem;
+import alluxio.client.file.FileSystemContext;
 import alluxio.client.file.URIStatus;
-import alluxio.client.file.options.OpenFileOptions;
+import alluxio.client.netty.NettyBlockLoader;
 import alluxio.exception.AlluxioException;
+import alluxio.util.FormatUtils;
+import alluxio.util.ThreadFactoryUtils;
+import alluxio.util.network.NetworkAddressUtils;
+import alluxio.wire.BlockLocation;
+import alluxio.wire.FileBlockInfo;
 
-import com.google.common.io.Closer;
 import org.apache.commons.cli.CommandLine;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * Loads a file or directory in Alluxio space, makes it resident in memory.
+ * <p>
+ * The blocks which are not stored by any worker are spread over all the workers, which load them
+ * from the under storage in parallel, at most {@link PropertyKey#USER_BLOCK_LOAD_CONCURRENCY}
+ * blocks at once on each worker, so that the data does not go through the shell. The blocks which
+ * are only stored in the lower tiers of workers are promoted to the top tier of the worker storing
+ * them. The progress and the throughput of the load are printed while it runs, and each file is
+ * printed once all its blocks are in the top tier.
  */
 @ThreadSafe
 public final class LoadCommand extends WithWildCardPathCommand {
+  /** The interval between two prints of the progress of a load. */
+  private static final long PROGRESS_INTERVAL_MS = 10 * Constants.SECOND_MS;
+
+  private final NettyBlockLoader mLoader = new NettyBlockLoader();
 
   /**
    * Constructs a new instance to load a file or directory in Alluxio space.
@@ -62,31 +88,150 @@ public final class LoadCommand extends WithWildCardPathCommand {
    */
   private void load(AlluxioURI filePath) throws AlluxioException, IOException {
     URIStatus status = mFileSystem.getStatus(filePath);
+    List<BlockLoad> blocks = new ArrayList<>();
+    listBlocksToLoad(status, blocks);
+    if (blocks.isEmpty()) {
+      // All the files have already been loaded into Alluxio memory, and printed.
+      if (status.isFolder()) {
+        System.out.println(filePath + " loaded");
+      }
+      return;
+    }
+    List<BlockWorkerInfo> workers =
+        FileSystemContext.INSTANCE.getAlluxioBlockStore().getWorkerInfoList();
+    if (workers.isEmpty()) {
+      throw new IOException("No worker is available to load " + filePath);
+    }
+
+    // Spreads the blocks over the workers evenly.
+    List<Queue<BlockLoad>> queues = new ArrayList<>(workers.size());
+    long totalBytes = 0;
+    for (int i = 0; i < workers.size(); i++) {
+      queues.add(new ConcurrentLinkedQueue<BlockLoad>());
+    }
+    for (int i = 0; i < blocks.size(); i++) {
+      queues.get(i % workers.size()).add(blocks.get(i));
+      totalBytes += blocks.get(i).mLength;
+    }
+    System.out.println("Loading " + blocks.size() + " blocks ("
+        + FormatUtils.getSizeFromBytes(totalBytes) + ") of " + filePath + " with "
+        + workers.size() + " workers");
+
+    final Progress progress = new Progress();
+    int concurrency = Configuration.getInt(PropertyKey.USER_BLOCK_LOAD_CONCURRENCY);
+    ExecutorService executor = Executors.newFixedThreadPool(workers.size() * concurrency,
+        ThreadFactoryUtils.build("load-%d", true));
+    try {
+      for (int i = 0; i < workers.size(); i++) {
+        final InetSocketAddress address =
+            NetworkAddressUtils.getDataPortSocketAddress(workers.get(i).getNetAddress());
+        final Queue<BlockLoad> queue = queues.get(i);
+        for (int j = 0; j < concurrency; j++) {
+          executor.execute(new Runnable() {
+            @Override
+            public void run() {
+              BlockLoad block;
+              while ((block = queue.poll()) != null) {
+                loadBlock(address, block, progress);
+              }
+            }
+          });
+        }
+      }
+      executor.shutdown();
+      while (!executor.awaitTermination(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+        System.out.println(progress.format(blocks.size()));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    if (progress.mBlocksFailed.get() > 0) {
+      throw new IOException("Failed to load " + progress.mBlocksFailed.get() + " blocks of "
+          + filePath + ", the last error was: " + progress.mLastError);
+    }
+    System.out.println(filePath + " loaded: " + progress.format(blocks.size()));
+  }
+
+  /**
+   * Lists the blocks of a file or the files of a directory which are not in the top tier of any
+   * worker. The files whose blocks are all in the top tier are printed as loaded.
+   *
+   * @param status the status of the file or directory
+   * @param blocks the list to add the blocks to
+   * @throws AlluxioException when Alluxio exception occurs
+   * @throws IOException when non-Alluxio exception occurs
+   */
+  private void listBlocksToLoad(URIStatus status, List<BlockLoad> blocks)
+      throws AlluxioException, IOException {
     if (status.isFolder()) {
-      List<URIStatus> statuses = mFileSystem.listStatus(filePath);
-      for (URIStatus uriStatus : statuses) {
-        AlluxioURI newPath = new AlluxioURI(uriStatus.getPath());
-        load(newPath);
+      for (URIStatus uriStatus : mFileSystem.listStatus(new AlluxioURI(status.getPath()))) {
+        listBlocksToLoad(uriStatus, blocks);
       }
     } else {
-      if (status.getInMemoryPercentage() == 100) {
-        // The file has already been fully loaded into Alluxio memory.
-        return;
-      }
-      Closer closer = Closer.create();
-      try {
-        OpenFileOptions options = OpenFileOptions.defaults().setReadType(ReadType.CACHE_PROMOTE);
-        FileInStream in = closer.register(mFileSystem.openFile(filePath, options));
-        byte[] buf = new byte[8 * Constants.MB];
-        while (in.read(buf) != -1) {
+      addBlocksToLoad(status, blocks);
+    }
+  }
+
+  /**
+   * Adds the blocks of a file which are not in the top tier of any worker to a list. The blocks
+   * which are not stored by any worker are loaded, the others are promoted.
+   *
+   * @param status the status of the file
+   * @param blocks the list to add the blocks to
+   */
+  private static void addBlocksToLoad(URIStatus status, List<BlockLoad> blocks) {
+    FileLoad file = new FileLoad(status.getPath());
+    if (status.getInMemoryPercentage() < 100) {
+      String topTierAlias = Configuration.get(PropertyKey.MASTER_TIERED_STORE_GLOBAL_LEVEL0_ALIAS);
+      for (FileBlockInfo blockInfo : status.getFileBlockInfos()) {
+        List<BlockLocation> locations = blockInfo.getBlockInfo().getLocations();
+        boolean inTopTier = false;
+        for (BlockLocation location : locations) {
+          inTopTier |= topTierAlias.equals(location.getTierAlias());
+        }
+        if (!inTopTier) {
+          blocks.add(new BlockLoad(file, blockInfo.getBlockInfo().getBlockId(),
+              blockInfo.getBlockInfo().getLength(), !locations.isEmpty()));
+          file.mPendingBlocks.incrementAndGet();
         }
-      } catch (Exception e) {
-        throw closer.rethrow(e);
-      } finally {
-        closer.close();
       }
     }
-    System.out.println(filePath + " loaded");
+    if (file.mPendingBlocks.get() == 0) {
+      // The file has already been fully loaded into Alluxio memory.
+      System.out.println(file.mPath + " loaded");
+    }
+  }
+
+  /**
+   * Loads a block into a worker, or promotes it to the top tier of the worker storing it, printing
+   * the path of its file when all the blocks of the file are loaded.
+   *
+   * @param address the address of the data server of the worker to load the block into
+   * @param block the block
+   * @param progress the progress of the load, to update
+   */
+  private void loadBlock(InetSocketAddress address, BlockLoad block, Progress progress) {
+    FileLoad file = block.mFile;
+    try {
+      if (block.mPromote) {
+        FileSystemContext.INSTANCE.getAlluxioBlockStore().promote(block.mBlockId);
+      } else {
+        progress.mBytesLoaded.addAndGet(mLoader.load(address, block.mBlockId));
+      }
+      progress.mBlocksLoaded.incrementAndGet();
+    } catch (IOException e) {
+      progress.mBlocksFailed.incrementAndGet();
+      progress.mLastError = "block " + block.mBlockId + " of " + file.mPath + " on " + address
+          + ": " + e.getMessage();
+      file.mFailed = true;
+    }
+    if (file.mPendingBlocks.decrementAndGet() == 0 && !file.mFailed) {
+      System.out.println(file.mPath + " loaded");
+    }
   }
 
   @Override
@@ -96,6 +241,71 @@ public final class LoadCommand extends WithWildCardPathCommand {
 
   @Override
   public String getDescription() {
-    return "Loads a file or directory in Alluxio space, makes it resident in memory.";
+    return "Loads a file or directory in Alluxio space, makes it resident in memory. The workers "
+        + "load the blocks from the under storage in parallel, and promote the blocks stored in "
+        + "their lower tiers.";
+  }
+
+  /**
+   * A file being loaded.
+   */
+  private static final class FileLoad {
+    private final String mPath;
+    /** The number of blocks of the file which are not loaded yet. */
+    private final AtomicInteger mPendingBlocks = new AtomicInteger();
+    /** Whether a block of the file failed to be loaded. */
+    private volatile boolean mFailed;
+
+    private FileLoad(String path) {
+      mPath = path;
+    }
+  }
+
+  /**
+   * A block to load.
+   */
+  private static final class BlockLoad {
+    private final FileLoad mFile;
+    private final long mBlockId;
+    private final long mLength;
+    /** Whether the block is stored in a lower tier, and only has to be promoted. */
+    private final boolean mPromote;
+
+    private BlockLoad(FileLoad file, long blockId, long length, boolean promote) {
+      mFile = file;
+      mBlockId = blockId;
+      mLength = length;
+      mPromote = promote;
+    }
+  }
+
+  /**
+   * The progress of the load of a path.
+   */
+  private static final class Progress {
+    private final long mStartTimeMs;
+    /** The number of blocks loaded, including the blocks promoted from a lower tier. */
+    private final AtomicInteger mBlocksLoaded = new AtomicInteger();
+    private final AtomicInteger mBlocksFailed = new AtomicInteger();
+    /** The number of bytes read from the under storage by the workers, excluding promotions. */
+    private final AtomicLong mBytesLoaded = new AtomicLong();
+    private volatile String mLastError;
+
+    private Progress() {
+      mStartTimeMs = System.currentTimeMillis();
+    }
+
+    /**
+     * @param totalBlocks the number of blocks to load
+     * @return the progress and the throughput of the load
+     */
+    private String format(int totalBlocks) {
+      long durationMs = Math.max(System.currentTimeMillis() - mStartTimeMs, 1);
+      long bytesLoaded = mBytesLoaded.get();
+      return mBlocksLoaded.get() + "/" + totalBlocks + " blocks, "
+          + FormatUtils.getSizeFromBytes(bytesLoaded) + " in " + durationMs + " ms ("
+          + FormatUtils.getSizeFromBytes(bytesLoaded * Constants.SECOND_MS / durationMs) + "/s)"
+          + (mBlocksFailed.get() > 0 ? ", " + mBlocksFailed.get() + " failed" : "");
+    }
   }
 }
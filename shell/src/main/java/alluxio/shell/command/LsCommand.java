@@ -103,15 +103,33 @@ public final class LsCommand extends WithWildCardPathCommand {
    *
    * @param path The {@link AlluxioURI} path as the input of the command
    * @param recursive Whether list the path recursively
+   * @param forceLoadMetadata Whether to load the metadata of the path even if it is already loaded
    * @throws AlluxioException when Alluxio exception occurs
    * @throws IOException when non-Alluxio exception occurs
    */
   private void ls(AlluxioURI path, boolean recursive, boolean forceLoadMetadata)
       throws AlluxioException, IOException {
-    ListStatusOptions options = ListStatusOptions.defaults();
+    // The metadata of a tree is loaded with its root, so that the master lists the directories of
+    // the under storage in parallel. The directories of the tree are then listed one by one.
+    ListStatusOptions options = ListStatusOptions.defaults().setLoadMetadataRecursive(recursive);
     if (forceLoadMetadata) {
       options.setLoadMetadataType(LoadMetadataType.Always);
     }
+    ls(path, recursive, options);
+  }
+
+  /**
+   * Displays information for all directories and files directly under the path, listing the
+   * subdirectories with the default options if the listing is recursive.
+   *
+   * @param path the path to list
+   * @param recursive whether to list the path recursively
+   * @param options the options to list the path with
+   * @throws AlluxioException when Alluxio exception occurs
+   * @throws IOException when non-Alluxio exception occurs
+   */
+  private void ls(AlluxioURI path, boolean recursive, ListStatusOptions options)
+      throws AlluxioException, IOException {
     List<URIStatus> statuses = listStatusSortedByIncreasingCreationTime(path, options);
     for (URIStatus status : statuses) {
       System.out.print(formatLsString(SecurityUtils.isSecurityEnabled(), status.isFolder(),
@@ -120,7 +138,7 @@ public final class LsCommand extends WithWildCardPathCommand {
           100 == status.getInMemoryPercentage(), status.getPath()));
       if (recursive && status.isFolder()) {
         ls(new AlluxioURI(path.getScheme(), path.getAuthority(), status.getPath()), true,
-            forceLoadMetadata);
+            ListStatusOptions.defaults());
       }
     }
   }
@@ -35,6 +35,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -251,6 +252,36 @@ public final class KeyValueSystemIntegrationTest {
     mReader.close();
   }
 
+  /**
+   * Tests getting a batch of keys from a store of multiple partitions, including keys which are
+   * not in the store.
+   */
+  @Test
+  public void multiGetMultiPartitions() throws Exception {
+    final int numKeys = 10;
+    final int keyLength = 4; // 4Byte key
+    final int valueLength = 500 * Constants.KB; // 500KB value
+
+    AlluxioURI storeUri = createStoreOfMultiplePartitions(numKeys, null);
+
+    mReader = sKeyValueSystem.openStore(storeUri);
+    List<ByteBuffer> keys = new ArrayList<>();
+    for (int i = numKeys - 1; i >= 0; i--) {
+      keys.add(ByteBuffer.wrap(BufferUtils.getIncreasingByteArray(i, keyLength)));
+    }
+    keys.add(ByteBuffer.wrap(KEY1));
+    keys.add(ByteBuffer.wrap(KEY2));
+    List<ByteBuffer> values = mReader.multiGet(keys);
+    Assert.assertEquals(keys.size(), values.size());
+    for (int i = 0; i < numKeys; i++) {
+      byte[] value = BufferUtils.newByteArrayFromByteBuffer(values.get(numKeys - 1 - i));
+      Assert.assertTrue(BufferUtils.equalIncreasingByteArray(i, valueLength, value));
+    }
+    Assert.assertNull(values.get(numKeys));
+    Assert.assertNull(values.get(numKeys + 1));
+    mReader.close();
+  }
+
   /**
    * Tests putting a key-value pair that is larger than the max key-value partition size,
    * expecting exception thrown.
@@ -211,6 +211,50 @@ public class JournalIntegrationTest {
     multiEditLogTestUtil();
   }
 
+  /**
+   * Tests that the checkpoints written by a standby master are installed by the leader master,
+   * which deletes the completed logs they reflect.
+   */
+  @Test
+  public void standbyCheckpoint() throws Exception {
+    Configuration.set(PropertyKey.MASTER_JOURNAL_CHECKPOINT_PERIOD_ENTRIES, "10");
+    for (int i = 0; i < 62; i++) {
+      mFileSystem.createFile(new AlluxioURI("/a" + i),
+          CreateFileOptions.defaults().setBlockSizeBytes((i + 10) / 10 * 64)).close();
+    }
+    String journalFolder =
+        FileSystemMaster.getJournalDirectory(mLocalAlluxioCluster.getMaster().getJournalFolder());
+    final Journal journal = new ReadWriteJournal(journalFolder);
+    final UnderFileSystem ufs = UnderFileSystem.get(journalFolder);
+
+    FileSystemMaster standbyMaster = MasterTestUtils.createStandbyFileSystemMasterFromJournal();
+    try {
+      CommonUtils.waitFor("standby checkpoint installation", new Function<Void, Boolean>() {
+        @Override
+        public Boolean apply(Void input) {
+          try {
+            return journal.getCheckpointNextLogNumber(ufs, journal.getCheckpointFilePath()) > 2;
+          } catch (IOException e) {
+            return false;
+          }
+        }
+      }, 60 * Constants.SECOND_MS);
+      long nextLogNumber =
+          journal.getCheckpointNextLogNumber(ufs, journal.getCheckpointFilePath());
+      for (long i = Journal.FIRST_COMPLETED_LOG_NUMBER; i < nextLogNumber; i++) {
+        Assert.assertFalse(ufs.exists(journal.getCompletedLogFilePath(i)));
+      }
+      for (int i = 62; i < 124; i++) {
+        mFileSystem.createFile(new AlluxioURI("/a" + i),
+            CreateFileOptions.defaults().setBlockSizeBytes((i + 10) / 10 * 64)).close();
+      }
+    } finally {
+      standbyMaster.stop();
+    }
+    mLocalAlluxioCluster.stopFS();
+    multiEditLogTestUtil();
+  }
+
   /**
    * Tests file and directory creation and deletion.
    */
@@ -45,6 +45,10 @@ public final class LoadCommandTest extends AbstractAlluxioShellTest {
     statusB = mFileSystem.getStatus(uriB);
     Assert.assertTrue(statusA.getInMemoryPercentage() == 100);
     Assert.assertTrue(statusB.getInMemoryPercentage() == 100);
+    // Every file is printed, including the one which was already loaded.
+    String output = mOutput.toString();
+    Assert.assertTrue(output.contains("/testRoot/testFileA loaded\n"));
+    Assert.assertTrue(output.contains("/testRoot/testFileB loaded\n"));
   }
 
   @Test
@@ -57,5 +61,9 @@ public final class LoadCommandTest extends AbstractAlluxioShellTest {
     mFsShell.run("load", "/testFile");
     status = mFileSystem.getStatus(uri);
     Assert.assertTrue(status.getInMemoryPercentage() == 100);
+    // Loading a file which is already loaded only prints it once.
+    mOutput.reset();
+    mFsShell.run("load", "/testFile");
+    Assert.assertEquals("/testFile loaded\n", mOutput.toString());
   }
 }
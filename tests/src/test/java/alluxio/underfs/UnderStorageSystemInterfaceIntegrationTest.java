@@ -206,6 +206,29 @@ public final class UnderStorageSystemInterfaceIntegrationTest {
     Assert.assertTrue(modTime <= end + slack);
   }
 
+  /**
+   * Tests {@link UnderFileSystem#getStatus(String)} returns the same metadata as the per attribute
+   * methods.
+   */
+  @Test
+  public void getStatus() throws IOException {
+    String testFile = PathUtils.concatPath(mUnderfsAddress, "testFile");
+    String testDir = PathUtils.concatPath(mUnderfsAddress, "testDir");
+    Assert.assertNull(mUfs.getStatus(testFile));
+    createTestBytesFile(testFile);
+    mUfs.mkdirs(testDir, false);
+
+    UnderFileStatus fileStatus = mUfs.getStatus(testFile);
+    Assert.assertFalse(fileStatus.isDirectory());
+    Assert.assertEquals(TEST_BYTES.length, fileStatus.getContentLength());
+    Assert.assertEquals(mUfs.getBlockSizeByte(testFile), fileStatus.getBlockSizeBytes());
+    Assert.assertEquals(mUfs.getModificationTimeMs(testFile), fileStatus.getLastModifiedTimeMs());
+    Assert.assertEquals(mUfs.getOwner(testFile), fileStatus.getOwner());
+    Assert.assertEquals(mUfs.getGroup(testFile), fileStatus.getGroup());
+    Assert.assertEquals(mUfs.getMode(testFile), fileStatus.getMode());
+    Assert.assertTrue(mUfs.getStatus(testDir).isDirectory());
+  }
+
   /**
    * Tests if {@link UnderFileSystem#isFile(String)} correctly returns true for files and false
    * otherwise.
@@ -248,6 +271,36 @@ public final class UnderStorageSystemInterfaceIntegrationTest {
         || mUfs.list(testDirNonEmptyChildDir)[0].equals("/testDirNonEmptyChildDirF"));
   }
 
+  /**
+   * Tests if listStatus correctly returns the statuses of the files and directories.
+   */
+  @Test
+  public void listStatus() throws IOException {
+    String testDir = PathUtils.concatPath(mUnderfsAddress, "testDir");
+    String testDirChildDir = PathUtils.concatPath(testDir, "testDirChildDir");
+    String testDirChildFile = PathUtils.concatPath(testDir, "testDirChildFile");
+    mUfs.mkdirs(testDir, false);
+    mUfs.mkdirs(testDirChildDir, false);
+    createTestBytesFile(testDirChildFile);
+
+    UnderFileStatus[] statuses = mUfs.listStatus(testDir);
+    Assert.assertEquals(2, statuses.length);
+    for (UnderFileStatus status : statuses) {
+      // Some file systems may prefix with a slash
+      String name = CommonUtils.stripPrefixIfPresent(status.getName(), "/");
+      if (name.equals("testDirChildDir")) {
+        Assert.assertTrue(status.isDirectory());
+      } else {
+        Assert.assertEquals("testDirChildFile", name);
+        Assert.assertFalse(status.isDirectory());
+        Assert.assertEquals(TEST_BYTES.length, status.getContentLength());
+        Assert.assertEquals(mUfs.getMode(testDirChildFile), status.getMode());
+      }
+    }
+    Assert.assertNull(mUfs.listStatus(testDirChildFile));
+    Assert.assertNull(mUfs.listStatus(PathUtils.concatPath(testDir, "nonexistent")));
+  }
+
   /**
    * Tests if list correctly returns file or folder names for a large directory.
    */
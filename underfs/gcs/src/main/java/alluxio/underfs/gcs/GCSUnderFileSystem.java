@@ -15,10 +15,12 @@ import alluxio.AlluxioURI;
 import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.PropertyKey;
+import alluxio.underfs.UnderFileStatus;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
 import alluxio.underfs.options.MkdirsOptions;
 import alluxio.util.CommonUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.io.PathUtils;
 
 import com.google.common.base.Preconditions;
@@ -40,9 +42,11 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -76,6 +80,9 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
   /** The permission mode that the account owner has to the bucket. */
   private final short mBucketMode;
 
+  /** The executor fetching the ranges of the files being read. */
+  private final ExecutorService mReadExecutor;
+
   static {
     try {
       DIR_HASH = MessageDigest.getInstance("MD5").digest(new byte[0]);
@@ -146,6 +153,9 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
     mBucketPrefix = bucketPrefix;
     mBucketMode = bucketMode;
     mAccountOwner = accountOwner;
+    // The number of ranges being fetched is bounded by the read-ahead window of each stream.
+    mReadExecutor =
+        Executors.newCachedThreadPool(ThreadFactoryUtils.build("gcs-read-range-%d", true));
   }
 
   @Override
@@ -277,6 +287,21 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
     return -1;
   }
 
+  @Override
+  public UnderFileStatus getStatus(String path) throws IOException {
+    if (isRoot(path)) {
+      return newDirectoryStatus(path);
+    }
+    // Get the details as a file and then as a folder, which takes a single request for files.
+    try {
+      GSObject details = mClient.getObjectDetails(mBucketName, stripPrefixIfPresent(path));
+      return newFileStatus(path, details.getContentLength(),
+          details.getLastModifiedDate().getTime());
+    } catch (ServiceException e) {
+      return isFolder(path) ? newDirectoryStatus(path) : null;
+    }
+  }
+
   @Override
   public boolean isFile(String path) throws IOException {
     return exists(path) && !isFolder(path);
@@ -293,6 +318,19 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
     return listInternal(path, false);
   }
 
+  @Override
+  public UnderFileStatus[] listStatus(String path) throws IOException {
+    // if the path not exists, or it is a file, then should return null
+    UnderFileStatus status = getStatus(path);
+    if (status == null || !status.isDirectory()) {
+      return null;
+    }
+    // Non recursive list, which takes the sizes and modification times of the files from the
+    // listing instead of a request per file
+    path = PathUtils.normalizePath(path, PATH_SEPARATOR);
+    return listStatusInternal(path, false);
+  }
+
   @Override
   public boolean mkdirs(String path, boolean createParent) throws IOException {
     return mkdirs(path, new MkdirsOptions().setCreateParent(createParent));
@@ -332,6 +370,9 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
 
   @Override
   public InputStream open(String path) throws IOException {
+    if (Configuration.getInt(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX) > 0) {
+      return openAtPosition(path, 0);
+    }
     try {
       path = stripPrefixIfPresent(path);
       return new GCSInputStream(mBucketName, path, mClient);
@@ -350,6 +391,9 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
    * @throws IOException if failed to open file at position
    */
   public InputStream openAtPosition(String path, long pos) throws IOException {
+    if (Configuration.getInt(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX) > 0) {
+      return openAtPosition(path, getFileSize(path), pos);
+    }
     try {
       path = stripPrefixIfPresent(path);
       return new GCSInputStream(mBucketName, path, mClient, pos);
@@ -359,6 +403,24 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
     }
   }
 
+  /**
+   * Opens a GCS object of a known length at given position and returns the opened input stream.
+   * The length is used to split the object into ranges, so that it does not have to be requested.
+   *
+   * @param path the GCS object path
+   * @param length the length of the object
+   * @param pos the position to open at
+   * @return the opened input stream
+   * @throws IOException if failed to open file at position
+   */
+  public InputStream openAtPosition(String path, long length, long pos) throws IOException {
+    if (Configuration.getInt(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX) > 0) {
+      return new GCSMultiRangeInputStream(mBucketName, stripPrefixIfPresent(path), mClient, length,
+          pos, mReadExecutor);
+    }
+    return openAtPosition(path, pos);
+  }
+
   @Override
   public boolean rename(String src, String dst) throws IOException {
     if (!exists(src)) {
@@ -594,12 +656,34 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
    * @throws IOException if an I/O error occurs
    */
   private String[] listInternal(String path, boolean recursive) throws IOException {
+    UnderFileStatus[] statuses = listStatusInternal(path, recursive);
+    if (statuses == null) {
+      return null;
+    }
+    String[] children = new String[statuses.length];
+    for (int i = 0; i < statuses.length; i++) {
+      children[i] = statuses[i].getName();
+    }
+    return children;
+  }
+
+  /**
+   * Lists the statuses of the files in the given path, named by their logical names which do not
+   * contain the folder suffix. Note that, the list results are unsorted.
+   *
+   * @param path the key to list
+   * @param recursive if true will list children directories as well
+   * @return an array of the statuses of the files and folders in this directory
+   * @throws IOException if an I/O error occurs
+   */
+  private UnderFileStatus[] listStatusInternal(String path, boolean recursive)
+      throws IOException {
     path = stripPrefixIfPresent(path);
     path = PathUtils.normalizePath(path, PATH_SEPARATOR);
     path = path.equals(PATH_SEPARATOR) ? "" : path;
     String delimiter = recursive ? "" : PATH_SEPARATOR;
     String priorLastKey = null;
-    Set<String> children = new HashSet<>();
+    Map<String, UnderFileStatus> children = new HashMap<>();
     try {
       boolean done = false;
       while (!done) {
@@ -624,11 +708,13 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
         for (StorageObject obj : chunk.getObjects()) {
           // Remove parent portion of the key
           String child = getChildName(obj.getKey(), path);
+          boolean isFolder = child.endsWith(FOLDER_SUFFIX);
           // Prune the special folder suffix
           child = CommonUtils.stripSuffixIfPresent(child, FOLDER_SUFFIX);
           // Only add if the path is not empty (removes results equal to the path)
           if (!child.isEmpty()) {
-            children.add(child);
+            children.put(child, isFolder ? newDirectoryStatus(child) : newFileStatus(child,
+                obj.getContentLength(), obj.getLastModifiedDate().getTime()));
           }
         }
         // Handle case (2)
@@ -640,17 +726,17 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
             // Remove any portion after the last path delimiter
             int childNameIndex = child.lastIndexOf(PATH_SEPARATOR);
             child = childNameIndex != -1 ? child.substring(0, childNameIndex) : child;
-            if (!child.isEmpty() && !children.contains(child)) {
+            if (!child.isEmpty() && !children.containsKey(child)) {
               // This directory has not been created through Alluxio.
               mkdirsInternal(commonPrefix);
-              children.add(child);
+              children.put(child, newDirectoryStatus(child));
             }
           }
         }
         done = chunk.isListingComplete();
         priorLastKey = chunk.getPriorLastKey();
       }
-      return children.toArray(new String[children.size()]);
+      return children.values().toArray(new UnderFileStatus[children.size()]);
     } catch (ServiceException e) {
       LOG.error("Failed to list path {}", path, e);
       return null;
@@ -679,6 +765,29 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
     }
   }
 
+  /**
+   * @param name the name of the directory
+   * @return the status of the directory, owned by the account owner with the bucket mode
+   */
+  private UnderFileStatus newDirectoryStatus(String name) {
+    return new UnderFileStatus(name, true).setOwner(mAccountOwner).setGroup(mAccountOwner)
+        .setMode(mBucketMode);
+  }
+
+  /**
+   * @param name the name of the file
+   * @param contentLength the size of the object
+   * @param lastModifiedTimeMs the last modification time of the object
+   * @return the status of the file, owned by the account owner with the bucket mode
+   */
+  private UnderFileStatus newFileStatus(String name, long contentLength,
+      long lastModifiedTimeMs) {
+    return new UnderFileStatus(name, false).setContentLength(contentLength)
+        .setBlockSizeBytes(Configuration.getBytes(PropertyKey.USER_BLOCK_SIZE_BYTES_DEFAULT))
+        .setLastModifiedTimeMs(lastModifiedTimeMs).setOwner(mAccountOwner)
+        .setGroup(mAccountOwner).setMode(mBucketMode);
+  }
+
   /**
    * Treating GCS as a file system, checks if the parent directory exists.
    *
@@ -18,10 +18,12 @@ import alluxio.PropertyKey;
 import alluxio.retry.CountingRetry;
 import alluxio.retry.RetryPolicy;
 import alluxio.security.authorization.Permission;
+import alluxio.underfs.UnderFileStatus;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
 import alluxio.underfs.options.MkdirsOptions;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.fs.BlockLocation;
@@ -128,6 +130,32 @@ public class HdfsUnderFileSystem extends UnderFileSystem {
     // Don't close; file systems are singletons and closing it here could break other users
   }
 
+  @Override
+  public void concat(String dst, List<String> srcs) throws IOException {
+    Preconditions.checkArgument(!srcs.isEmpty(), "No file to concat into %s", dst);
+    // HDFS moves the blocks of the other files to the end of the first one, without copying them
+    if (!rename(srcs.get(0), dst)) {
+      throw new IOException("Failed to rename " + srcs.get(0) + " to " + dst);
+    }
+    if (srcs.size() == 1) {
+      return;
+    }
+    Path[] paths = new Path[srcs.size() - 1];
+    for (int i = 1; i < srcs.size(); i++) {
+      paths[i - 1] = new Path(srcs.get(i));
+    }
+    try {
+      mFileSystem.concat(new Path(dst), paths);
+    } catch (IOException | UnsupportedOperationException e) {
+      // e.g. the files have partial blocks before their ends, or different block sizes
+      LOG.error("Failed to concat {} files into {}: {}", srcs.size(), dst, e.getMessage());
+      if (!rename(dst, srcs.get(0))) {
+        LOG.error("Failed to rename {} back to {}", dst, srcs.get(0));
+      }
+      throw e instanceof IOException ? (IOException) e : new IOException(e);
+    }
+  }
+
   @Override
   public OutputStream createDirect(String path, CreateOptions options) throws IOException {
     IOException te = null;
@@ -266,6 +294,24 @@ public class HdfsUnderFileSystem extends UnderFileSystem {
     return -1;
   }
 
+  @Override
+  public UnderFileStatus getStatus(String path) throws IOException {
+    IOException te = null;
+    RetryPolicy retryPolicy = new CountingRetry(MAX_TRY);
+    while (retryPolicy.attemptRetry()) {
+      try {
+        return toUnderFileStatus(path, mFileSystem.getFileStatus(new Path(path)));
+      } catch (FileNotFoundException e) {
+        return null;
+      } catch (IOException e) {
+        LOG.error("{} try to get status of {} : {}", retryPolicy.getRetryCount(), path,
+            e.getMessage(), e);
+        te = e;
+      }
+    }
+    throw te;
+  }
+
   @Override
   public boolean isFile(String path) throws IOException {
     return mFileSystem.isFile(new Path(path));
@@ -292,6 +338,29 @@ public class HdfsUnderFileSystem extends UnderFileSystem {
     }
   }
 
+  @Override
+  public UnderFileStatus[] listStatus(String path) throws IOException {
+    Path hdfsPath = new Path(path);
+    FileStatus[] files;
+    try {
+      if (!mFileSystem.getFileStatus(hdfsPath).isDir()) {
+        return null;
+      }
+      files = mFileSystem.listStatus(hdfsPath);
+    } catch (FileNotFoundException e) {
+      return null;
+    }
+    if (files == null) {
+      return null;
+    }
+    UnderFileStatus[] statuses = new UnderFileStatus[files.length];
+    for (int i = 0; i < files.length; i++) {
+      // only name the children relative to the path, to keep consistent with list()
+      statuses[i] = toUnderFileStatus(files[i].getPath().getName(), files[i]);
+    }
+    return statuses;
+  }
+
   @Override
   public void connectFromMaster(String host) throws IOException {
     if (!Configuration.containsKey(PropertyKey.MASTER_KEYTAB_KEY_FILE)
@@ -424,6 +493,11 @@ public class HdfsUnderFileSystem extends UnderFileSystem {
     mFileSystem.setConf((org.apache.hadoop.conf.Configuration) conf);
   }
 
+  @Override
+  public boolean supportsConcat() {
+    return mFileSystem instanceof DistributedFileSystem;
+  }
+
   @Override
   public void setOwner(String path, String user, String group) throws IOException {
     try {
@@ -487,4 +561,19 @@ public class HdfsUnderFileSystem extends UnderFileSystem {
     }
   }
 
+  /**
+   * @param name the name of the status
+   * @param status the HDFS status of a path
+   * @return the {@link UnderFileStatus} of the path
+   */
+  private static UnderFileStatus toUnderFileStatus(String name, FileStatus status) {
+    UnderFileStatus ufsStatus = new UnderFileStatus(name, status.isDir())
+        .setOwner(status.getOwner()).setGroup(status.getGroup())
+        .setMode(status.getPermission().toShort());
+    if (!status.isDir()) {
+      ufsStatus.setContentLength(status.getLen()).setBlockSizeBytes(status.getBlockSize())
+          .setLastModifiedTimeMs(status.getModificationTime());
+    }
+    return ufsStatus;
+  }
 }
@@ -17,6 +17,7 @@ import alluxio.Constants;
 import alluxio.PropertyKey;
 import alluxio.security.authorization.Mode;
 import alluxio.security.authorization.Permission;
+import alluxio.underfs.UnderFileStatus;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
 import alluxio.underfs.options.MkdirsOptions;
@@ -25,6 +26,7 @@ import alluxio.util.io.PathUtils;
 import alluxio.util.network.NetworkAddressUtils;
 import alluxio.util.network.NetworkAddressUtils.ServiceType;
 
+import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +37,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.PosixFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
@@ -71,6 +78,39 @@ public class LocalUnderFileSystem extends UnderFileSystem {
   @Override
   public void close() throws IOException {}
 
+  @Override
+  public void concat(String dst, List<String> srcs) throws IOException {
+    Preconditions.checkArgument(!srcs.isEmpty(), "No file to concat into %s", dst);
+    // The other files are appended to the first one, which is renamed at the end so that the new
+    // file only exists once it is complete
+    String first = stripPath(srcs.get(0));
+    long firstLength = new File(first).length();
+    try (FileChannel outputChannel = new FileOutputStream(first, true).getChannel()) {
+      try {
+        for (String src : srcs.subList(1, srcs.size())) {
+          try (FileChannel inputChannel = new FileInputStream(stripPath(src)).getChannel()) {
+            long length = inputChannel.size();
+            long position = 0;
+            while (position < length) {
+              position += inputChannel.transferTo(position, length - position, outputChannel);
+            }
+          }
+        }
+        if (!new File(first).renameTo(new File(stripPath(dst)))) {
+          throw new IOException("Failed to rename " + first + " to " + dst);
+        }
+      } catch (IOException e) {
+        outputChannel.truncate(firstLength);
+        throw e;
+      }
+    }
+    for (String src : srcs.subList(1, srcs.size())) {
+      if (!new File(stripPath(src)).delete()) {
+        LOG.warn("Failed to delete {} after concatenating it into {}", src, dst);
+      }
+    }
+  }
+
   @Override
   public OutputStream createDirect(String path, CreateOptions options) throws IOException {
     path = stripPath(path);
@@ -168,6 +208,39 @@ public class LocalUnderFileSystem extends UnderFileSystem {
     }
   }
 
+  @Override
+  public UnderFileStatus getStatus(String path) throws IOException {
+    File file = new File(stripPath(path));
+    try {
+      return getStatus(path, file);
+    } catch (FileSystemException e) {
+      // Like File#exists, which does not tell a missing file from a path through a regular file or
+      // an inaccessible directory.
+      return null;
+    }
+  }
+
+  /**
+   * Gets the status of a local file from a single read of its attributes.
+   *
+   * @param name the name of the status
+   * @param file the local file
+   * @return the status of the file
+   * @throws IOException if the attributes of the file fail to be read
+   */
+  private UnderFileStatus getStatus(String name, File file) throws IOException {
+    PosixFileAttributes attr = Files.readAttributes(file.toPath(), PosixFileAttributes.class);
+    UnderFileStatus status = new UnderFileStatus(name, attr.isDirectory())
+        .setOwner(attr.owner().getName()).setGroup(attr.group().getName())
+        .setMode(FileUtils.translatePosixPermissionToMode(attr.permissions()));
+    if (!attr.isDirectory()) {
+      status.setContentLength(attr.size())
+          .setBlockSizeBytes(Configuration.getBytes(PropertyKey.USER_BLOCK_SIZE_BYTES_DEFAULT))
+          .setLastModifiedTimeMs(attr.lastModifiedTime().toMillis());
+    }
+    return status;
+  }
+
   @Override
   public boolean isFile(String path) throws IOException {
     path = stripPath(path);
@@ -192,6 +265,23 @@ public class LocalUnderFileSystem extends UnderFileSystem {
     }
   }
 
+  @Override
+  public UnderFileStatus[] listStatus(String path) throws IOException {
+    File[] files = new File(stripPath(path)).listFiles();
+    if (files == null) {
+      return null;
+    }
+    List<UnderFileStatus> statuses = new ArrayList<>(files.length);
+    for (File file : files) {
+      try {
+        statuses.add(getStatus(file.getName(), file));
+      } catch (NoSuchFileException e) {
+        // The file was removed since the listing.
+      }
+    }
+    return statuses.toArray(new UnderFileStatus[statuses.size()]);
+  }
+
   @Override
   public boolean mkdirs(String path, boolean createParent) throws IOException {
     return mkdirs(path, new MkdirsOptions().setCreateParent(createParent));
@@ -261,6 +351,11 @@ public class LocalUnderFileSystem extends UnderFileSystem {
   @Override
   public void setConf(Object conf) {}
 
+  @Override
+  public boolean supportsConcat() {
+    return true;
+  }
+
   @Override
   public void setOwner(String path, String user, String group) throws IOException {
     path = stripPath(path);
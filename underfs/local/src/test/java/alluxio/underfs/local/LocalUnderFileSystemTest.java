@@ -11,6 +11,7 @@
 
 package alluxio.underfs.local;
 
+import alluxio.underfs.UnderFileStatus;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.util.io.PathUtils;
 import alluxio.util.network.NetworkAddressUtils;
@@ -26,6 +27,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -177,6 +179,76 @@ public class LocalUnderFileSystemTest {
     Assert.assertTrue(mLocalUfs.isFile(filepath));
   }
 
+  @Test
+  public void getStatus() throws IOException {
+    byte[] bytes = getBytes();
+    String filepath = PathUtils.concatPath(mLocalUfsRoot, getUniqueFileName());
+    OutputStream os = mLocalUfs.create(filepath);
+    os.write(bytes);
+    os.close();
+
+    UnderFileStatus status = mLocalUfs.getStatus(filepath);
+    Assert.assertEquals(filepath, status.getName());
+    Assert.assertFalse(status.isDirectory());
+    Assert.assertEquals(bytes.length, status.getContentLength());
+    Assert.assertEquals(mLocalUfs.getBlockSizeByte(filepath), status.getBlockSizeBytes());
+    Assert.assertEquals(mLocalUfs.getModificationTimeMs(filepath), status.getLastModifiedTimeMs());
+    Assert.assertEquals(mLocalUfs.getOwner(filepath), status.getOwner());
+    Assert.assertEquals(mLocalUfs.getGroup(filepath), status.getGroup());
+    Assert.assertEquals(mLocalUfs.getMode(filepath), status.getMode());
+
+    Assert.assertTrue(mLocalUfs.getStatus(mLocalUfsRoot).isDirectory());
+    Assert.assertNull(
+        mLocalUfs.getStatus(PathUtils.concatPath(mLocalUfsRoot, getUniqueFileName())));
+  }
+
+  @Test
+  public void listStatus() throws IOException {
+    String dirpath = PathUtils.concatPath(mLocalUfsRoot, getUniqueFileName());
+    mLocalUfs.mkdirs(dirpath, true);
+    String childDirName = getUniqueFileName();
+    mLocalUfs.mkdirs(PathUtils.concatPath(dirpath, childDirName), true);
+    String childFileName = getUniqueFileName();
+    String childFilepath = PathUtils.concatPath(dirpath, childFileName);
+    mLocalUfs.create(childFilepath).close();
+
+    UnderFileStatus[] statuses = mLocalUfs.listStatus(dirpath);
+    Assert.assertEquals(2, statuses.length);
+    for (UnderFileStatus status : statuses) {
+      if (status.getName().equals(childDirName)) {
+        Assert.assertTrue(status.isDirectory());
+      } else {
+        Assert.assertEquals(childFileName, status.getName());
+        Assert.assertFalse(status.isDirectory());
+        Assert.assertEquals(mLocalUfs.getMode(childFilepath), status.getMode());
+      }
+    }
+    Assert.assertNull(mLocalUfs.listStatus(childFilepath));
+  }
+
+  @Test
+  public void concat() throws IOException {
+    List<String> srcs = new ArrayList<>();
+    for (String content : new String[] {"ab", "cde", "f"}) {
+      String filepath = PathUtils.concatPath(mLocalUfsRoot, getUniqueFileName());
+      OutputStream os = mLocalUfs.create(filepath);
+      os.write(content.getBytes());
+      os.close();
+      srcs.add(filepath);
+    }
+    String dst = PathUtils.concatPath(mLocalUfsRoot, getUniqueFileName());
+    mLocalUfs.concat(dst, srcs);
+
+    InputStream is = mLocalUfs.open(dst);
+    byte[] bytes = new byte[(int) mLocalUfs.getFileSize(dst)];
+    is.read(bytes);
+    is.close();
+    Assert.assertEquals("abcdef", new String(bytes));
+    for (String src : srcs) {
+      Assert.assertFalse(mLocalUfs.exists(src));
+    }
+  }
+
   @Test
   public void rename() throws IOException {
     byte[] bytes = getBytes();
@@ -0,0 +1,71 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs.oss;
+
+import alluxio.underfs.MultiRangeObjectInputStream;
+
+import com.aliyun.oss.ClientException;
+import com.aliyun.oss.OSSClient;
+import com.aliyun.oss.ServiceException;
+import com.aliyun.oss.model.GetObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A stream for reading a file from OSS with concurrent ranged requests. Unlike
+ * {@link OSSInputStream}, skipping does not read and discard the skipped bytes.
+ */
+@NotThreadSafe
+public class OSSMultiRangeInputStream extends MultiRangeObjectInputStream {
+
+  /** Bucket name of the Alluxio OSS bucket. */
+  private final String mBucketName;
+
+  /** Key of the file in OSS to read. */
+  private final String mKey;
+
+  /** The OSS client for OSS operations. */
+  private final OSSClient mOssClient;
+
+  /**
+   * Creates a new instance of {@link OSSMultiRangeInputStream}.
+   *
+   * @param bucketName the name of the bucket
+   * @param key the key of the file
+   * @param client the client for OSS
+   * @param length the length of the file
+   * @param executor the executor to fetch the ranges with
+   */
+  OSSMultiRangeInputStream(String bucketName, String key, OSSClient client, long length,
+      ExecutorService executor) {
+    super(length, 0, executor);
+    mBucketName = bucketName;
+    mKey = key;
+    mOssClient = client;
+  }
+
+  @Override
+  protected InputStream openRange(long start, long end) throws IOException {
+    GetObjectRequest request = new GetObjectRequest(mBucketName, mKey);
+    // The end of the range is inclusive in the request
+    request.setRange(start, end - 1);
+    try {
+      return mOssClient.getObject(request).getObjectContent();
+    } catch (ServiceException | ClientException e) {
+      throw new IOException(e);
+    }
+  }
+}
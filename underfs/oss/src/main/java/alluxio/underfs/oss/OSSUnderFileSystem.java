@@ -19,6 +19,7 @@ import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
 import alluxio.underfs.options.MkdirsOptions;
 import alluxio.util.CommonUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.io.PathUtils;
 
 import com.aliyun.oss.ClientConfiguration;
@@ -40,6 +41,8 @@ import java.io.OutputStream;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -65,6 +68,9 @@ public final class OSSUnderFileSystem extends UnderFileSystem {
   /** Prefix of the bucket, for example oss://bucket-name/ . */
   private final String mBucketPrefix;
 
+  /** The executor fetching the ranges of the files being read. */
+  private final ExecutorService mReadExecutor;
+
   /**
    * Constructs a new instance of {@link OSSUnderFileSystem}.
    *
@@ -107,6 +113,9 @@ public final class OSSUnderFileSystem extends UnderFileSystem {
     mClient = ossClient;
     mBucketName = bucketName;
     mBucketPrefix = bucketPrefix;
+    // The number of ranges being fetched is bounded by the read-ahead window of each stream.
+    mReadExecutor =
+        Executors.newCachedThreadPool(ThreadFactoryUtils.build("oss-read-range-%d", true));
   }
 
   @Override
@@ -295,6 +304,10 @@ public final class OSSUnderFileSystem extends UnderFileSystem {
 
   @Override
   public InputStream open(String path) throws IOException {
+    if (Configuration.getInt(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX) > 0) {
+      return new OSSMultiRangeInputStream(mBucketName, stripPrefixIfPresent(path), mClient,
+          getFileSize(path), mReadExecutor);
+    }
     try {
       path = stripPrefixIfPresent(path);
       return new OSSInputStream(mBucketName, path, mClient);
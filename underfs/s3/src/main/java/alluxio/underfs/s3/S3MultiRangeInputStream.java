@@ -0,0 +1,69 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs.s3;
+
+import alluxio.underfs.MultiRangeObjectInputStream;
+
+import org.jets3t.service.S3Service;
+import org.jets3t.service.ServiceException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A stream for reading a file from S3 with concurrent ranged requests.
+ */
+@NotThreadSafe
+public class S3MultiRangeInputStream extends MultiRangeObjectInputStream {
+
+  /** Bucket name of the Alluxio S3 bucket. */
+  private final String mBucketName;
+
+  /** Key of the file in S3 to read. */
+  private final String mKey;
+
+  /** The JetS3t client for S3 operations. */
+  private final S3Service mClient;
+
+  /**
+   * Creates a new instance of {@link S3MultiRangeInputStream}.
+   *
+   * @param bucketName the name of the bucket
+   * @param key the key of the file
+   * @param client the client for S3
+   * @param length the length of the file
+   * @param pos the position to start
+   * @param executor the executor to fetch the ranges with
+   */
+  S3MultiRangeInputStream(String bucketName, String key, S3Service client, long length, long pos,
+      ExecutorService executor) {
+    super(length, pos, executor);
+    mBucketName = bucketName;
+    mKey = key;
+    mClient = client;
+  }
+
+  @Override
+  protected InputStream openRange(long start, long end) throws IOException {
+    try {
+      return mClient.getObject(mBucketName, mKey, null /* ignore ModifiedSince */,
+          null /* ignore UnmodifiedSince */, null /* ignore MatchTags */,
+          null /* ignore NoneMatchTags */, start /* byteRangeStart */,
+          end - 1 /* byteRangeEnd, inclusive */).getDataInputStream();
+    } catch (ServiceException e) {
+      throw new IOException(e);
+    }
+  }
+}
@@ -19,6 +19,7 @@ import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
 import alluxio.underfs.options.MkdirsOptions;
 import alluxio.util.CommonUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.io.PathUtils;
 
 import com.google.common.base.Preconditions;
@@ -45,6 +46,8 @@ import java.security.NoSuchAlgorithmException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -78,6 +81,9 @@ public final class S3UnderFileSystem extends UnderFileSystem {
   /** The permission mode that the account owner has to the bucket. */
   private final short mBucketMode;
 
+  /** The executor fetching the ranges of the files being read. */
+  private final ExecutorService mReadExecutor;
+
   static {
     try {
       DIR_HASH = MessageDigest.getInstance("MD5").digest(new byte[0]);
@@ -188,6 +194,9 @@ public final class S3UnderFileSystem extends UnderFileSystem {
     mBucketPrefix = bucketPrefix;
     mBucketMode = bucketMode;
     mAccountOwner = accountOwner;
+    // The number of ranges being fetched is bounded by the read-ahead window of each stream.
+    mReadExecutor =
+        Executors.newCachedThreadPool(ThreadFactoryUtils.build("s3-read-range-%d", true));
   }
 
   @Override
@@ -375,6 +384,9 @@ public final class S3UnderFileSystem extends UnderFileSystem {
 
   @Override
   public InputStream open(String path) throws IOException {
+    if (Configuration.getInt(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX) > 0) {
+      return openAtPosition(path, 0);
+    }
     try {
       path = stripPrefixIfPresent(path);
       return new S3InputStream(mBucketName, path, mClient);
@@ -393,6 +405,9 @@ public final class S3UnderFileSystem extends UnderFileSystem {
    * @throws IOException if failed to open file at position
    */
   public InputStream openAtPosition(String path, long pos) throws IOException {
+    if (Configuration.getInt(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX) > 0) {
+      return openAtPosition(path, getFileSize(path), pos);
+    }
     try {
       path = stripPrefixIfPresent(path);
       return new S3InputStream(mBucketName, path, mClient, pos);
@@ -402,6 +417,24 @@ public final class S3UnderFileSystem extends UnderFileSystem {
     }
   }
 
+  /**
+   * Opens a S3 object of a known length at given position and returns the opened input stream.
+   * The length is used to split the object into ranges, so that it does not have to be requested.
+   *
+   * @param path the S3 object path
+   * @param length the length of the object
+   * @param pos the position to open at
+   * @return the opened input stream
+   * @throws IOException if failed to open file at position
+   */
+  public InputStream openAtPosition(String path, long length, long pos) throws IOException {
+    if (Configuration.getInt(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX) > 0) {
+      return new S3MultiRangeInputStream(mBucketName, stripPrefixIfPresent(path), mClient, length,
+          pos, mReadExecutor);
+    }
+    return openAtPosition(path, pos);
+  }
+
   @Override
   public boolean rename(String src, String dst) throws IOException {
     if (!exists(src)) {
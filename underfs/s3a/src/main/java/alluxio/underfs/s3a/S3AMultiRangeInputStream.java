@@ -0,0 +1,68 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs.s3a;
+
+import alluxio.underfs.MultiRangeObjectInputStream;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A stream for reading an object in s3 with concurrent ranged requests, using the aws-sdk
+ * implementation.
+ */
+@NotThreadSafe
+public class S3AMultiRangeInputStream extends MultiRangeObjectInputStream {
+  /** Client for operations with s3. */
+  private final AmazonS3 mClient;
+  /** Name of the bucket the object resides in. */
+  private final String mBucketName;
+  /** The path of the object to read. */
+  private final String mKey;
+
+  /**
+   * Constructor for an input stream of an object in s3, positioned at the specified position.
+   *
+   * @param bucketName the bucket the object resides in
+   * @param key the path of the object to read
+   * @param client the s3 client to use for operations
+   * @param length the length of the object
+   * @param position the position to begin reading from
+   * @param executor the executor to fetch the ranges with
+   */
+  public S3AMultiRangeInputStream(String bucketName, String key, AmazonS3 client, long length,
+      long position, ExecutorService executor) {
+    super(length, position, executor);
+    mBucketName = bucketName;
+    mKey = key;
+    mClient = client;
+  }
+
+  @Override
+  protected InputStream openRange(long start, long end) throws IOException {
+    GetObjectRequest getReq = new GetObjectRequest(mBucketName, mKey);
+    // The end of the range is inclusive in the request
+    getReq.setRange(start, end - 1);
+    try {
+      return mClient.getObject(getReq).getObjectContent();
+    } catch (AmazonClientException e) {
+      throw new IOException(e);
+    }
+  }
+}
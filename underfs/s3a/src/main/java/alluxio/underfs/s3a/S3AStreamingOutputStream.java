@@ -0,0 +1,373 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs.s3a;
+
+import alluxio.Configuration;
+import alluxio.Constants;
+import alluxio.PropertyKey;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.internal.Mimetypes;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.util.Base64;
+import com.google.common.base.Preconditions;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A stream for writing a file into S3 with a multipart upload, which uploads the file in parts of
+ * a fixed size while it is written. Unlike {@link S3AOutputStream}, the file is not buffered on
+ * the local disk, and most of it is already uploaded when the stream is closed.
+ * <p>
+ * The parts are written into a bounded number of buffers in memory. A full buffer is uploaded by
+ * the executor while the next part is written into another buffer, and writes block when all the
+ * buffers are being uploaded. A file which fits in a single part is uploaded with a single PUT
+ * request when the stream is closed.
+ */
+@NotThreadSafe
+public class S3AStreamingOutputStream extends OutputStream {
+  private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+
+  /** The minimum size of the parts of a multipart upload, except the last one. */
+  private static final long MIN_PARTITION_SIZE = 5 * Constants.MB;
+
+  private static final boolean SSE_ENABLED =
+      Configuration.getBoolean(PropertyKey.UNDERFS_S3A_SERVER_SIDE_ENCRYPTION_ENABLED);
+
+  /** Bucket name of the Alluxio S3 bucket. */
+  private final String mBucketName;
+
+  /** Key of the file when it is uploaded to S3. */
+  private final String mKey;
+
+  /** The client to upload the parts with. */
+  private final AmazonS3 mClient;
+
+  /** The executor uploading the parts. */
+  private final ExecutorService mExecutor;
+
+  /** The size of the parts. */
+  private final int mPartitionSize;
+
+  /** The maximum number of buffers of the stream. */
+  private final int mMaxBuffers;
+
+  /** The buffers which are not being written or uploaded. */
+  private final BlockingQueue<byte[]> mFreeBuffers;
+
+  /** The uploads of the parts, in part number order. */
+  private final List<Future<PartETag>> mPartUploads = new ArrayList<>();
+
+  /** The number of buffers allocated by the stream. */
+  private int mNumBuffers;
+
+  /** The buffer of the part being written, or null if no byte is written since the last part. */
+  private byte[] mBuffer;
+
+  /** The number of bytes written into the buffer. */
+  private int mBufferLength;
+
+  /** The id of the multipart upload, or null if no part is uploaded yet. */
+  private String mUploadId;
+
+  /** Flag to indicate this stream has been closed, to ensure close is only done once. */
+  private boolean mClosed = false;
+
+  /**
+   * Constructs a new stream for writing a file, with the partition size and the number of buffers
+   * in the configuration.
+   *
+   * @param bucketName the name of the bucket
+   * @param key the key of the file
+   * @param client the client to upload the file with
+   * @param executor the executor to upload the parts with
+   */
+  public S3AStreamingOutputStream(String bucketName, String key, AmazonS3 client,
+      ExecutorService executor) {
+    this(bucketName, key, client, executor,
+        Configuration.getBytes(PropertyKey.UNDERFS_S3A_STREAMING_UPLOAD_PARTITION_SIZE),
+        Configuration.getInt(PropertyKey.UNDERFS_S3A_STREAMING_UPLOAD_BUFFERS_MAX));
+  }
+
+  /**
+   * Constructs a new stream for writing a file.
+   *
+   * @param bucketName the name of the bucket
+   * @param key the key of the file
+   * @param client the client to upload the file with
+   * @param executor the executor to upload the parts with
+   * @param partitionSize the size of the parts, at least 5MB
+   * @param maxBuffers the maximum number of parts buffered in memory
+   */
+  public S3AStreamingOutputStream(String bucketName, String key, AmazonS3 client,
+      ExecutorService executor, long partitionSize, int maxBuffers) {
+    Preconditions.checkArgument(bucketName != null && !bucketName.isEmpty(), "Bucket name must "
+        + "not be null or empty.");
+    Preconditions.checkArgument(partitionSize >= MIN_PARTITION_SIZE
+        && partitionSize <= Integer.MAX_VALUE, "Invalid partition size: %s", partitionSize);
+    Preconditions.checkArgument(maxBuffers > 0, "Invalid number of buffers: %s", maxBuffers);
+    mBucketName = bucketName;
+    mKey = key;
+    mClient = Preconditions.checkNotNull(client);
+    mExecutor = Preconditions.checkNotNull(executor);
+    mPartitionSize = (int) partitionSize;
+    mMaxBuffers = maxBuffers;
+    mFreeBuffers = new ArrayBlockingQueue<>(maxBuffers);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (mBuffer == null) {
+      mBuffer = acquireBuffer();
+    }
+    mBuffer[mBufferLength++] = (byte) b;
+    if (mBufferLength == mPartitionSize) {
+      uploadPart();
+    }
+  }
+
+  @Override
+  public void write(byte[] b) throws IOException {
+    write(b, 0, b.length);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    Preconditions.checkPositionIndexes(off, off + len, b.length);
+    while (len > 0) {
+      if (mBuffer == null) {
+        mBuffer = acquireBuffer();
+      }
+      int toCopy = Math.min(len, mPartitionSize - mBufferLength);
+      System.arraycopy(b, off, mBuffer, mBufferLength, toCopy);
+      mBufferLength += toCopy;
+      off += toCopy;
+      len -= toCopy;
+      if (mBufferLength == mPartitionSize) {
+        uploadPart();
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    // The parts of a multipart upload have a minimum size, so the data is only sent in full parts.
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (mClosed) {
+      return;
+    }
+    mClosed = true;
+    String path = getUploadPath();
+    if (mUploadId == null) {
+      // The file fits in a single part, so it is uploaded at once.
+      byte[] buffer = mBuffer == null ? new byte[0] : mBuffer;
+      ObjectMetadata meta = newObjectMetadata();
+      meta.setContentMD5(md5(buffer, mBufferLength));
+      meta.setContentLength(mBufferLength);
+      try {
+        mClient.putObject(new PutObjectRequest(mBucketName, path,
+            new ByteArrayInputStream(buffer, 0, mBufferLength), meta));
+      } catch (AmazonClientException e) {
+        LOG.error("Failed to upload {}", path);
+        throw new IOException(e);
+      } finally {
+        releaseBuffers();
+      }
+      return;
+    }
+
+    try {
+      if (mBufferLength > 0) {
+        uploadPart();
+      }
+      List<PartETag> partETags = new ArrayList<>(mPartUploads.size());
+      for (Future<PartETag> partUpload : mPartUploads) {
+        partETags.add(getPartETag(partUpload));
+      }
+      mClient.completeMultipartUpload(
+          new CompleteMultipartUploadRequest(mBucketName, path, mUploadId, partETags));
+    } catch (IOException | AmazonClientException e) {
+      LOG.error("Failed to upload {}", path);
+      abort();
+      throw e instanceof IOException ? (IOException) e : new IOException(e);
+    } finally {
+      releaseBuffers();
+    }
+  }
+
+  /**
+   * @return the path in S3 to upload the file to
+   */
+  protected String getUploadPath() {
+    return mKey;
+  }
+
+  /**
+   * Gets a buffer for the next part, waiting for the upload of a part if all the buffers are in
+   * use.
+   *
+   * @return the buffer
+   * @throws IOException if the wait is interrupted
+   */
+  private byte[] acquireBuffer() throws IOException {
+    byte[] buffer = mFreeBuffers.poll();
+    if (buffer != null) {
+      return buffer;
+    }
+    if (mNumBuffers < mMaxBuffers) {
+      mNumBuffers++;
+      return new byte[mPartitionSize];
+    }
+    try {
+      return mFreeBuffers.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Uploads the buffer as the next part, starting the multipart upload if it is the first part.
+   *
+   * @throws IOException if the multipart upload fails to start, or a part fails to be uploaded
+   */
+  private void uploadPart() throws IOException {
+    String path = getUploadPath();
+    try {
+      if (mUploadId == null) {
+        mUploadId = mClient.initiateMultipartUpload(
+            new InitiateMultipartUploadRequest(mBucketName, path, newObjectMetadata()))
+            .getUploadId();
+      }
+    } catch (AmazonClientException e) {
+      LOG.error("Failed to start the multipart upload of {}", path);
+      throw new IOException(e);
+    }
+    // Fail fast if an earlier part has failed, instead of uploading the rest of the file.
+    for (Future<PartETag> partUpload : mPartUploads) {
+      if (partUpload.isDone()) {
+        getPartETag(partUpload);
+      }
+    }
+
+    final byte[] buffer = mBuffer;
+    final UploadPartRequest request = new UploadPartRequest().withBucketName(mBucketName)
+        .withKey(path).withUploadId(mUploadId).withPartNumber(mPartUploads.size() + 1)
+        .withInputStream(new ByteArrayInputStream(buffer, 0, mBufferLength))
+        .withPartSize(mBufferLength);
+    final int length = mBufferLength;
+    mBuffer = null;
+    mBufferLength = 0;
+    mPartUploads.add(mExecutor.submit(new Callable<PartETag>() {
+      @Override
+      public PartETag call() throws Exception {
+        try {
+          request.setMd5Digest(md5(buffer, length));
+          return mClient.uploadPart(request).getPartETag();
+        } finally {
+          mFreeBuffers.add(buffer);
+        }
+      }
+    }));
+  }
+
+  /**
+   * @param partUpload the upload of a part
+   * @return the entity tag of the uploaded part
+   * @throws IOException if the part fails to be uploaded
+   */
+  private PartETag getPartETag(Future<PartETag> partUpload) throws IOException {
+    try {
+      return partUpload.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * @param buffer the buffer
+   * @param length the number of bytes to hash from the beginning of the buffer
+   * @return the base64 encoded MD5 hash of the bytes, which S3 checks against the received bytes
+   */
+  private static String md5(byte[] buffer, int length) {
+    MessageDigest digest = DigestUtils.getMd5Digest();
+    digest.update(buffer, 0, length);
+    return new String(Base64.encode(digest.digest()));
+  }
+
+  /**
+   * Aborts the multipart upload, so that the uploaded parts do not use storage.
+   */
+  private void abort() {
+    for (Future<PartETag> partUpload : mPartUploads) {
+      partUpload.cancel(true);
+    }
+    try {
+      mClient.abortMultipartUpload(
+          new AbortMultipartUploadRequest(mBucketName, getUploadPath(), mUploadId));
+    } catch (AmazonClientException e) {
+      LOG.warn("Failed to abort the multipart upload {} of {}: {}", mUploadId, getUploadPath(),
+          e.getMessage());
+    }
+  }
+
+  /**
+   * Drops the buffers, since the stream is closed.
+   */
+  private void releaseBuffers() {
+    mBuffer = null;
+    mBufferLength = 0;
+    mFreeBuffers.clear();
+  }
+
+  /**
+   * @return the metadata of the uploaded object, with server side encryption if it is enabled,
+   *         and encoded as octet stream since no assumptions are made about the file type
+   */
+  private ObjectMetadata newObjectMetadata() {
+    ObjectMetadata meta = new ObjectMetadata();
+    if (SSE_ENABLED) {
+      meta.setSSEAlgorithm(ObjectMetadata.AES_256_SERVER_SIDE_ENCRYPTION);
+    }
+    meta.setContentEncoding(Mimetypes.MIMETYPE_OCTET_STREAM);
+    return meta;
+  }
+}
@@ -15,10 +15,12 @@ import alluxio.AlluxioURI;
 import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.PropertyKey;
+import alluxio.underfs.UnderFileStatus;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
 import alluxio.underfs.options.MkdirsOptions;
 import alluxio.util.CommonUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.io.PathUtils;
 
 import com.amazonaws.AmazonClientException;
@@ -31,12 +33,19 @@ import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.S3ClientOptions;
 import com.amazonaws.services.s3.internal.Mimetypes;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.transfer.TransferManager;
@@ -52,9 +61,13 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -77,6 +90,15 @@ public class S3AUnderFileSystem extends UnderFileSystem {
   /** Threshold to do multipart copy. */
   private static final long MULTIPART_COPY_THRESHOLD = 100 * Constants.MB;
 
+  /** The minimum size of the parts of a multipart upload, except the last one. */
+  private static final long MIN_PART_SIZE = 5 * Constants.MB;
+
+  /** The maximum size of a part copied by an upload part copy request. */
+  private static final long MAX_COPY_PART_SIZE = 5L * Constants.GB;
+
+  /** The maximum number of keys deleted by a multi-object delete request of S3. */
+  private static final int MAX_DELETE_KEYS = 1000;
+
   /** AWS-SDK S3 client. */
   private final AmazonS3Client mClient;
 
@@ -89,6 +111,12 @@ public class S3AUnderFileSystem extends UnderFileSystem {
   /** Transfer Manager for efficient I/O to S3. */
   private final TransferManager mManager;
 
+  /** Executor uploading the parts of the files written with streaming upload. */
+  private final ExecutorService mUploadExecutor;
+
+  /** Executor fetching the ranges of the files being read. */
+  private final ExecutorService mReadExecutor;
+
   /** The name of the account owner. */
   private final String mAccountOwner;
 
@@ -215,6 +243,12 @@ public class S3AUnderFileSystem extends UnderFileSystem {
     mBucketMode = bucketMode;
     mAccountOwner = accountOwner;
     mManager = transferManager;
+    // The number of parts being uploaded is bounded by the buffers of each stream.
+    mUploadExecutor =
+        Executors.newCachedThreadPool(ThreadFactoryUtils.build("s3a-upload-part-%d", true));
+    // The number of ranges being fetched is bounded by the read-ahead window of each stream.
+    mReadExecutor =
+        Executors.newCachedThreadPool(ThreadFactoryUtils.build("s3a-read-range-%d", true));
   }
 
   @Override
@@ -224,6 +258,81 @@ public class S3AUnderFileSystem extends UnderFileSystem {
 
   @Override
   public void close() throws IOException {
+    // Parts already submitted are still uploaded, so streams being closed can complete.
+    mUploadExecutor.shutdown();
+  }
+
+  @Override
+  public void concat(String dst, List<String> srcs) throws IOException {
+    Preconditions.checkArgument(!srcs.isEmpty(), "No file to concat into %s", dst);
+    String dstKey = stripPrefixIfPresent(dst);
+    List<String> srcKeys = new ArrayList<>(srcs.size());
+    List<Long> srcLengths = new ArrayList<>(srcs.size());
+    try {
+      for (int i = 0; i < srcs.size(); i++) {
+        String srcKey = stripPrefixIfPresent(srcs.get(i));
+        long length = mClient.getObjectMetadata(mBucketName, srcKey).getContentLength();
+        if (i < srcs.size() - 1 && length < MIN_PART_SIZE) {
+          throw new IOException("Unable to concat " + srcs.get(i) + " into " + dst + " because "
+              + "it is smaller than the minimum part size of a multipart upload");
+        }
+        srcKeys.add(srcKey);
+        srcLengths.add(length);
+      }
+    } catch (AmazonClientException e) {
+      throw new IOException(e);
+    }
+
+    // The objects are copied into the parts of the new object by S3, without being downloaded.
+    ObjectMetadata meta = new ObjectMetadata();
+    if (Configuration.getBoolean(PropertyKey.UNDERFS_S3A_SERVER_SIDE_ENCRYPTION_ENABLED)) {
+      meta.setSSEAlgorithm(ObjectMetadata.AES_256_SERVER_SIDE_ENCRYPTION);
+    }
+    meta.setContentEncoding(Mimetypes.MIMETYPE_OCTET_STREAM);
+    String uploadId;
+    try {
+      uploadId = mClient.initiateMultipartUpload(
+          new InitiateMultipartUploadRequest(mBucketName, dstKey, meta)).getUploadId();
+    } catch (AmazonClientException e) {
+      LOG.error("Failed to start the multipart upload of {}", dst);
+      throw new IOException(e);
+    }
+    try {
+      List<PartETag> partETags = new ArrayList<>();
+      for (int i = 0; i < srcKeys.size(); i++) {
+        // Objects larger than a copied part are split into parts of equal size, so that none of
+        // them is smaller than the minimum part size
+        long length = srcLengths.get(i);
+        long numParts = (length + MAX_COPY_PART_SIZE - 1) / MAX_COPY_PART_SIZE;
+        for (long part = 0; part < numParts; part++) {
+          long firstByte = length * part / numParts;
+          long lastByte = length * (part + 1) / numParts - 1;
+          CopyPartRequest request = new CopyPartRequest().withSourceBucketName(mBucketName)
+              .withSourceKey(srcKeys.get(i)).withDestinationBucketName(mBucketName)
+              .withDestinationKey(dstKey).withUploadId(uploadId)
+              .withPartNumber(partETags.size() + 1).withFirstByte(firstByte)
+              .withLastByte(lastByte);
+          partETags.add(mClient.copyPart(request).getPartETag());
+        }
+      }
+      mClient.completeMultipartUpload(
+          new CompleteMultipartUploadRequest(mBucketName, dstKey, uploadId, partETags));
+    } catch (AmazonClientException e) {
+      LOG.error("Failed to concat {} files into {}", srcs.size(), dst);
+      try {
+        mClient.abortMultipartUpload(
+            new AbortMultipartUploadRequest(mBucketName, dstKey, uploadId));
+      } catch (AmazonClientException ae) {
+        LOG.warn("Failed to abort the multipart upload {} of {}: {}", uploadId, dst,
+            ae.getMessage());
+      }
+      throw new IOException(e);
+    }
+    List<String> failedKeys = deleteKeys(srcKeys);
+    if (!failedKeys.isEmpty()) {
+      LOG.warn("Failed to delete {} files after concatenating them into {}", failedKeys.size(),
+          dst);
+    }
   }
 
   @Override
@@ -244,6 +353,10 @@ public class S3AUnderFileSystem extends UnderFileSystem {
   @Override
   public OutputStream createDirect(String path, CreateOptions options) throws IOException {
     if (mkdirs(getParentKey(path), true)) {
+      if (Configuration.getBoolean(PropertyKey.UNDERFS_S3A_STREAMING_UPLOAD_ENABLED)) {
+        return new S3AStreamingOutputStream(mBucketName, stripPrefixIfPresent(path), mClient,
+            mUploadExecutor);
+      }
       return new S3AOutputStream(mBucketName, stripPrefixIfPresent(path), mManager);
     }
     return null;
@@ -265,21 +378,39 @@ public class S3AUnderFileSystem extends UnderFileSystem {
       return deleteInternal(path);
     }
     // Get all relevant files
-    String[] pathsToDelete = listInternal(path, true);
-    if (pathsToDelete == null) {
-      LOG.error("Unable to delete {} because listInternal returns null", path);
+    UnderFileStatus[] statusesToDelete = listStatusInternal(path, true);
+    if (statusesToDelete == null) {
+      LOG.error("Unable to delete {} because listStatusInternal returns null", path);
       return false;
     }
-    for (String pathToDelete : pathsToDelete) {
-      // If we fail to deleteInternal one file, stop
-      if (!deleteInternal(PathUtils.concatPath(path, pathToDelete))) {
-        LOG.error("Failed to delete path {}, aborting delete.", pathToDelete);
-        return false;
-      }
+    // The listing tells the files from the folders, so their keys are deleted in bulk
+    List<String> keysToDelete = new ArrayList<>(statusesToDelete.length);
+    for (UnderFileStatus status : statusesToDelete) {
+      String key = stripPrefixIfPresent(PathUtils.concatPath(path, status.getName()));
+      keysToDelete.add(status.isDirectory() ? convertToFolderName(key) : key);
+    }
+    List<String> failedKeys = deleteKeys(keysToDelete);
+    if (!failedKeys.isEmpty()) {
+      LOG.error("Failed to delete {} children of path {}, aborting delete.", failedKeys.size(),
+          path);
+      return false;
     }
     return deleteInternal(path);
   }
 
+  @Override
+  public List<String> deleteFiles(List<String> paths) throws IOException {
+    Map<String, String> keyToPath = new LinkedHashMap<>();
+    for (String path : paths) {
+      keyToPath.put(stripPrefixIfPresent(path), path);
+    }
+    List<String> failedPaths = new ArrayList<>();
+    for (String failedKey : deleteKeys(new ArrayList<>(keyToPath.keySet()))) {
+      failedPaths.add(keyToPath.get(failedKey));
+    }
+    return failedPaths;
+  }
+
   @Override
   public boolean exists(String path) throws IOException {
     // Root path always exists.
@@ -348,6 +479,21 @@ public class S3AUnderFileSystem extends UnderFileSystem {
     return -1;
   }
 
+  @Override
+  public UnderFileStatus getStatus(String path) throws IOException {
+    if (isRoot(path)) {
+      return newDirectoryStatus(path);
+    }
+    // Get the metadata as a file and then as a folder, which takes a single request for files.
+    try {
+      ObjectMetadata meta = mClient.getObjectMetadata(mBucketName, stripPrefixIfPresent(path));
+      return newFileStatus(path, meta.getContentLength(), meta.getLastModified().getTime());
+    } catch (AmazonClientException e) {
+      return getFolderMetadata(stripPrefixIfPresent(path)) == null ? null
+          : newDirectoryStatus(path);
+    }
+  }
+
   @Override
   public boolean isFile(String path) throws IOException {
     // Directly try to get the file metadata, if we fail it either is a folder or does not exist
@@ -370,6 +516,19 @@ public class S3AUnderFileSystem extends UnderFileSystem {
     return listInternal(path, false);
   }
 
+  @Override
+  public UnderFileStatus[] listStatus(String path) throws IOException {
+    // if the path not exists, or it is a file, then should return null
+    UnderFileStatus status = getStatus(path);
+    if (status == null || !status.isDirectory()) {
+      return null;
+    }
+    // Non recursive list, which takes the sizes and modification times of the files from the
+    // listing instead of a request per file
+    path = PathUtils.normalizePath(path, PATH_SEPARATOR);
+    return listStatusInternal(path, false);
+  }
+
   @Override
   public boolean mkdirs(String path, boolean createParent) throws IOException {
     return mkdirs(path, new MkdirsOptions().setCreateParent(createParent));
@@ -409,6 +568,9 @@ public class S3AUnderFileSystem extends UnderFileSystem {
 
   @Override
   public InputStream open(String path) throws IOException {
+    if (Configuration.getInt(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX) > 0) {
+      return openAtPosition(path, 0);
+    }
     try {
       path = stripPrefixIfPresent(path);
       return new S3AInputStream(mBucketName, path, mClient);
@@ -427,6 +589,9 @@ public class S3AUnderFileSystem extends UnderFileSystem {
    * @throws java.io.IOException if failed to open file at position
    */
   public InputStream openAtPosition(String path, long pos) throws IOException {
+    if (Configuration.getInt(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX) > 0) {
+      return openAtPosition(path, getFileSize(path), pos);
+    }
     try {
       path = stripPrefixIfPresent(path);
       return new S3AInputStream(mBucketName, path, mClient, pos);
@@ -436,6 +601,24 @@ public class S3AUnderFileSystem extends UnderFileSystem {
     }
   }
 
+  /**
+   * Opens a S3 object of a known length at given position and returns the opened input stream.
+   * The length is used to split the object into ranges, so that it does not have to be requested.
+   *
+   * @param path the S3 object path
+   * @param length the length of the object
+   * @param pos the position to open at
+   * @return the opened input stream
+   * @throws IOException if failed to open file at position
+   */
+  public InputStream openAtPosition(String path, long length, long pos) throws IOException {
+    if (Configuration.getInt(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX) > 0) {
+      return new S3AMultiRangeInputStream(mBucketName, stripPrefixIfPresent(path), mClient, length,
+          pos, mReadExecutor);
+    }
+    return openAtPosition(path, pos);
+  }
+
   @Override
   public boolean rename(String src, String dst) throws IOException {
     if (!exists(src)) {
@@ -569,6 +752,37 @@ public class S3AUnderFileSystem extends UnderFileSystem {
     return true;
   }
 
+  /**
+   * Deletes objects with multi-object delete requests, each of which deletes up to
+   * {@link #MAX_DELETE_KEYS} keys. Keys which do not exist are considered deleted.
+   *
+   * @param keys the keys of the objects to delete
+   * @return the keys which failed to be deleted
+   */
+  private List<String> deleteKeys(List<String> keys) {
+    List<String> failedKeys = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i += MAX_DELETE_KEYS) {
+      List<String> batch = keys.subList(i, Math.min(i + MAX_DELETE_KEYS, keys.size()));
+      List<DeleteObjectsRequest.KeyVersion> keyVersions = new ArrayList<>(batch.size());
+      for (String key : batch) {
+        keyVersions.add(new DeleteObjectsRequest.KeyVersion(key));
+      }
+      try {
+        mClient.deleteObjects(
+            new DeleteObjectsRequest(mBucketName).withKeys(keyVersions).withQuiet(true));
+      } catch (MultiObjectDeleteException e) {
+        for (MultiObjectDeleteException.DeleteError error : e.getErrors()) {
+          LOG.error("Failed to delete {}: {}", error.getKey(), error.getMessage());
+          failedKeys.add(error.getKey());
+        }
+      } catch (AmazonClientException e) {
+        LOG.error("Failed to delete {} keys starting with {}", batch.size(), batch.get(0), e);
+        failedKeys.addAll(batch);
+      }
+    }
+    return failedKeys;
+  }
+
   /**
    * Gets the child name based on the parent name.
    *
@@ -683,11 +897,33 @@ public class S3AUnderFileSystem extends UnderFileSystem {
    * @throws IOException if an I/O error occurs
    */
   private String[] listInternal(String path, boolean recursive) throws IOException {
+    UnderFileStatus[] statuses = listStatusInternal(path, recursive);
+    if (statuses == null) {
+      return null;
+    }
+    String[] children = new String[statuses.length];
+    for (int i = 0; i < statuses.length; i++) {
+      children[i] = statuses[i].getName();
+    }
+    return children;
+  }
+
+  /**
+   * Lists the statuses of the files in the given path, named by their logical names which do not
+   * contain the folder suffix. Note that, the list results are unsorted.
+   *
+   * @param path the key to list
+   * @param recursive if true will list children directories as well
+   * @return an array of the statuses of the files and folders in this directory
+   * @throws IOException if an I/O error occurs
+   */
+  private UnderFileStatus[] listStatusInternal(String path, boolean recursive)
+      throws IOException {
     path = stripPrefixIfPresent(path);
     path = PathUtils.normalizePath(path, PATH_SEPARATOR);
     path = path.equals(PATH_SEPARATOR) ? "" : path;
     String delimiter = recursive ? "" : PATH_SEPARATOR;
-    Set<String> children = new HashSet<>();
+    Map<String, UnderFileStatus> children = new HashMap<>();
     try {
       ListObjectsV2Request request =
           new ListObjectsV2Request().withBucketName(mBucketName).withPrefix(path)
@@ -718,11 +954,13 @@ public class S3AUnderFileSystem extends UnderFileSystem {
         for (S3ObjectSummary obj : result.getObjectSummaries()) {
           // Remove parent portion of the key
           String child = getChildName(obj.getKey(), path);
+          boolean isFolder = child.endsWith(FOLDER_SUFFIX);
           // Prune the special folder suffix
           child = CommonUtils.stripSuffixIfPresent(child, FOLDER_SUFFIX);
           // Only add if the path is not empty (removes results equal to the path)
           if (!child.isEmpty()) {
-            children.add(child);
+            children.put(child, isFolder ? newDirectoryStatus(child)
+                : newFileStatus(child, obj.getSize(), obj.getLastModified().getTime()));
           }
         }
         // Handle case (2)
@@ -734,15 +972,15 @@ public class S3AUnderFileSystem extends UnderFileSystem {
             // Remove any portion after the last path delimiter
             int childNameIndex = child.lastIndexOf(PATH_SEPARATOR);
             child = childNameIndex != -1 ? child.substring(0, childNameIndex) : child;
-            if (!child.isEmpty() && !children.contains(child)) {
+            if (!child.isEmpty() && !children.containsKey(child)) {
               // This directory has not been created through Alluxio.
               mkdirsInternal(commonPrefix);
-              children.add(child);
+              children.put(child, newDirectoryStatus(child));
             }
           }
         }
       }
-      return children.toArray(new String[children.size()]);
+      return children.values().toArray(new UnderFileStatus[children.size()]);
     } catch (AmazonClientException e) {
       LOG.error("Failed to list path {}", path, e);
       return null;
@@ -771,6 +1009,29 @@ public class S3AUnderFileSystem extends UnderFileSystem {
     }
   }
 
+  /**
+   * @param name the name of the directory
+   * @return the status of the directory, owned by the account owner with the bucket mode
+   */
+  private UnderFileStatus newDirectoryStatus(String name) {
+    return new UnderFileStatus(name, true).setOwner(mAccountOwner).setGroup(mAccountOwner)
+        .setMode(mBucketMode);
+  }
+
+  /**
+   * @param name the name of the file
+   * @param contentLength the size of the object
+   * @param lastModifiedTimeMs the last modification time of the object
+   * @return the status of the file, owned by the account owner with the bucket mode
+   */
+  private UnderFileStatus newFileStatus(String name, long contentLength,
+      long lastModifiedTimeMs) {
+    return new UnderFileStatus(name, false).setContentLength(contentLength)
+        .setBlockSizeBytes(Configuration.getBytes(PropertyKey.USER_BLOCK_SIZE_BYTES_DEFAULT))
+        .setLastModifiedTimeMs(lastModifiedTimeMs).setOwner(mAccountOwner)
+        .setGroup(mAccountOwner).setMode(mBucketMode);
+  }
+
   /**
    * Treating S3 as a file system, checks if the parent directory exists.
    *
@@ -803,6 +1064,11 @@ public class S3AUnderFileSystem extends UnderFileSystem {
     return CommonUtils.stripPrefixIfPresent(key, PATH_SEPARATOR);
   }
 
+  @Override
+  public boolean supportsConcat() {
+    return true;
+  }
+
   @Override
   public boolean supportsFlush() {
     return false;
@@ -0,0 +1,215 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs.s3a;
+
+import alluxio.Constants;
+import alluxio.util.io.BufferUtils;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.google.common.io.ByteStreams;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Unit tests for the {@link S3AStreamingOutputStream}, which upload into an in-memory stand-in of
+ * the S3 API.
+ */
+public class S3AStreamingOutputStreamTest {
+  private static final String BUCKET_NAME = "testBucket";
+  private static final String KEY = "testKey";
+  private static final String UPLOAD_ID = "testUploadId";
+  private static final int PARTITION_SIZE = 5 * Constants.MB;
+
+  private AmazonS3 mClient;
+  private ExecutorService mExecutor;
+  /** The parts uploaded to the stand-in, by part number. */
+  private Map<Integer, byte[]> mParts;
+  /** The latch which uploads of parts wait for. */
+  private CountDownLatch mUploadLatch;
+
+  /**
+   * Sets up the stand-in of S3 before each test runs.
+   */
+  @Before
+  public void before() throws Exception {
+    mClient = Mockito.mock(AmazonS3.class);
+    mExecutor = Executors.newCachedThreadPool();
+    mParts = new ConcurrentHashMap<>();
+    mUploadLatch = new CountDownLatch(0);
+    InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+    initiateResult.setUploadId(UPLOAD_ID);
+    Mockito.when(mClient.initiateMultipartUpload(Mockito.any(InitiateMultipartUploadRequest.class)))
+        .thenReturn(initiateResult);
+    Mockito.when(mClient.uploadPart(Mockito.any(UploadPartRequest.class)))
+        .thenAnswer(new Answer<UploadPartResult>() {
+          @Override
+          public UploadPartResult answer(InvocationOnMock invocation) throws Throwable {
+            mUploadLatch.await();
+            UploadPartRequest request = (UploadPartRequest) invocation.getArguments()[0];
+            Assert.assertEquals(UPLOAD_ID, request.getUploadId());
+            byte[] part = ByteStreams.toByteArray(request.getInputStream());
+            Assert.assertEquals(request.getPartSize(), part.length);
+            mParts.put(request.getPartNumber(), part);
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag("etag" + request.getPartNumber());
+            return result;
+          }
+        });
+  }
+
+  /**
+   * Stops the upload threads after each test.
+   */
+  @After
+  public void after() {
+    mExecutor.shutdownNow();
+  }
+
+  /**
+   * Tests that a file which fits in a single part is uploaded with a single request.
+   */
+  @Test
+  public void singlePart() throws Exception {
+    S3AStreamingOutputStream stream = createStream(2);
+    byte[] data = BufferUtils.getIncreasingByteArray(100);
+    stream.write(data);
+    stream.write(7);
+    stream.close();
+
+    ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+    Mockito.verify(mClient).putObject(captor.capture());
+    PutObjectRequest request = captor.getValue();
+    Assert.assertEquals(KEY, request.getKey());
+    Assert.assertEquals(101, request.getMetadata().getContentLength());
+    byte[] uploaded = ByteStreams.toByteArray(request.getInputStream());
+    Assert.assertArrayEquals(data, Arrays.copyOf(uploaded, 100));
+    Assert.assertEquals(7, uploaded[100]);
+    Mockito.verify(mClient, Mockito.never())
+        .initiateMultipartUpload(Mockito.any(InitiateMultipartUploadRequest.class));
+  }
+
+  /**
+   * Tests that a larger file is uploaded in parts of the partition size, and that the parts make
+   * up the file.
+   */
+  @Test
+  public void multipleParts() throws Exception {
+    S3AStreamingOutputStream stream = createStream(2);
+    int length = 2 * PARTITION_SIZE + 1234;
+    byte[] data = BufferUtils.getIncreasingByteArray(length);
+    // Writes in chunks which do not line up with the parts.
+    int chunkSize = 1000003;
+    for (int offset = 0; offset < length; offset += chunkSize) {
+      stream.write(data, offset, Math.min(chunkSize, length - offset));
+    }
+    stream.close();
+
+    ArgumentCaptor<CompleteMultipartUploadRequest> captor =
+        ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+    Mockito.verify(mClient).completeMultipartUpload(captor.capture());
+    List<PartETag> partETags = captor.getValue().getPartETags();
+    Assert.assertEquals(3, partETags.size());
+    ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+    for (int i = 0; i < partETags.size(); i++) {
+      Assert.assertEquals(i + 1, partETags.get(i).getPartNumber());
+      Assert.assertEquals("etag" + (i + 1), partETags.get(i).getETag());
+      uploaded.write(mParts.get(i + 1));
+    }
+    Assert.assertEquals(PARTITION_SIZE, mParts.get(1).length);
+    Assert.assertEquals(1234, mParts.get(3).length);
+    Assert.assertArrayEquals(data, uploaded.toByteArray());
+    Mockito.verify(mClient, Mockito.never()).putObject(Mockito.any(PutObjectRequest.class));
+  }
+
+  /**
+   * Tests that the writer waits for the upload of a part when all the buffers are in use.
+   */
+  @Test
+  public void boundedBuffers() throws Exception {
+    mUploadLatch = new CountDownLatch(1);
+    final S3AStreamingOutputStream stream = createStream(2);
+    final byte[] data = BufferUtils.getIncreasingByteArray(2 * PARTITION_SIZE + 1);
+    Thread writer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          stream.write(data);
+          stream.close();
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    writer.start();
+    // Both buffers are being uploaded, so the writer cannot write the last byte.
+    writer.join(500);
+    Assert.assertTrue(writer.isAlive());
+    Assert.assertTrue(mParts.isEmpty());
+
+    mUploadLatch.countDown();
+    writer.join();
+    Assert.assertEquals(3, mParts.size());
+    Mockito.verify(mClient)
+        .completeMultipartUpload(Mockito.any(CompleteMultipartUploadRequest.class));
+  }
+
+  /**
+   * Tests that the multipart upload is aborted when a part fails to be uploaded.
+   */
+  @Test
+  public void failedPart() throws Exception {
+    Mockito.doThrow(new AmazonClientException("failed part")).when(mClient)
+        .uploadPart(Mockito.any(UploadPartRequest.class));
+    S3AStreamingOutputStream stream = createStream(2);
+    stream.write(BufferUtils.getIncreasingByteArray(PARTITION_SIZE + 1));
+    try {
+      stream.close();
+      Assert.fail("Closing a stream whose part failed to be uploaded should fail");
+    } catch (IOException e) {
+      // expected
+    }
+    Mockito.verify(mClient).abortMultipartUpload(Mockito.any(AbortMultipartUploadRequest.class));
+    Mockito.verify(mClient, Mockito.never())
+        .completeMultipartUpload(Mockito.any(CompleteMultipartUploadRequest.class));
+  }
+
+  private S3AStreamingOutputStream createStream(int maxBuffers) {
+    return new S3AStreamingOutputStream(BUCKET_NAME, KEY, mClient, mExecutor, PARTITION_SIZE,
+        maxBuffers);
+  }
+}
@@ -12,18 +12,38 @@
 package alluxio.underfs.s3a;
 
 import alluxio.AlluxioURI;
+import alluxio.Constants;
+import alluxio.underfs.UnderFileStatus;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
 
 /**
  * Unit tests for the {@link S3AUnderFileSystem}.
@@ -77,6 +97,126 @@ public class S3AUnderFileSystemTest {
     Assert.assertFalse(result);
   }
 
+  /**
+   * Test case for {@link S3AUnderFileSystem#delete(String, boolean)}, which deletes the children
+   * of the directory with a multi-object delete request.
+   */
+  @Test
+  public void deleteRecursive() throws IOException {
+    Mockito.when(mClient.getObjectMetadata(BUCKET_NAME, PATH))
+        .thenThrow(AmazonClientException.class);
+    Mockito.when(mClient.getObjectMetadata(BUCKET_NAME, PATH + "_$folder$"))
+        .thenReturn(new ObjectMetadata());
+    ListObjectsV2Result result = new ListObjectsV2Result();
+    S3ObjectSummary file = new S3ObjectSummary();
+    file.setKey(PATH + "/file");
+    file.setLastModified(new Date(1000));
+    S3ObjectSummary folder = new S3ObjectSummary();
+    folder.setKey(PATH + "/folder_$folder$");
+    result.getObjectSummaries().add(file);
+    result.getObjectSummaries().add(folder);
+    Mockito.when(mClient.listObjectsV2(Matchers.any(ListObjectsV2Request.class)))
+        .thenReturn(result);
+
+    Assert.assertTrue(mS3UnderFileSystem.delete(PATH, true));
+    ArgumentCaptor<DeleteObjectsRequest> captor =
+        ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+    Mockito.verify(mClient).deleteObjects(captor.capture());
+    List<String> keys = new ArrayList<>();
+    for (DeleteObjectsRequest.KeyVersion keyVersion : captor.getValue().getKeys()) {
+      keys.add(keyVersion.getKey());
+    }
+    Collections.sort(keys);
+    Assert.assertEquals(Arrays.asList(PATH + "/file", PATH + "/folder_$folder$"), keys);
+    Mockito.verify(mClient).deleteObject(BUCKET_NAME, PATH + "_$folder$");
+  }
+
+  /**
+   * Test case for {@link S3AUnderFileSystem#deleteFiles(List)}, which deletes up to a thousand
+   * files with each request and returns the files which failed to be deleted.
+   */
+  @Test
+  public void deleteFiles() throws IOException {
+    List<String> paths = new ArrayList<>();
+    for (int i = 0; i < 1500; i++) {
+      paths.add(PATH + "/file" + i);
+    }
+    MultiObjectDeleteException.DeleteError error = new MultiObjectDeleteException.DeleteError();
+    error.setKey(PATH + "/file1200");
+    error.setMessage("Access Denied");
+    Mockito.when(mClient.deleteObjects(Matchers.any(DeleteObjectsRequest.class)))
+        .thenReturn(new DeleteObjectsResult(
+            Collections.<DeleteObjectsResult.DeletedObject>emptyList()))
+        .thenThrow(new MultiObjectDeleteException(Collections.singletonList(error),
+            Collections.<DeleteObjectsResult.DeletedObject>emptyList()));
+
+    Assert.assertEquals(Arrays.asList(PATH + "/file1200"), mS3UnderFileSystem.deleteFiles(paths));
+    ArgumentCaptor<DeleteObjectsRequest> captor =
+        ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+    Mockito.verify(mClient, Mockito.times(2)).deleteObjects(captor.capture());
+    Assert.assertEquals(1000, captor.getAllValues().get(0).getKeys().size());
+    Assert.assertEquals(500, captor.getAllValues().get(1).getKeys().size());
+  }
+
+  /**
+   * Test case for {@link S3AUnderFileSystem#concat(String, List)}, which copies the files into the
+   * parts of a multipart upload and then deletes them.
+   */
+  @Test
+  public void concat() throws IOException {
+    ObjectMetadata meta1 = new ObjectMetadata();
+    meta1.setContentLength(6 * Constants.MB);
+    ObjectMetadata meta2 = new ObjectMetadata();
+    meta2.setContentLength(1);
+    Mockito.when(mClient.getObjectMetadata(BUCKET_NAME, SRC + "1")).thenReturn(meta1);
+    Mockito.when(mClient.getObjectMetadata(BUCKET_NAME, SRC + "2")).thenReturn(meta2);
+    InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+    initiateResult.setUploadId("upload");
+    Mockito.when(mClient.initiateMultipartUpload(
+        Matchers.any(InitiateMultipartUploadRequest.class))).thenReturn(initiateResult);
+    CopyPartResult copyResult = new CopyPartResult();
+    copyResult.setETag("etag");
+    Mockito.when(mClient.copyPart(Matchers.any(CopyPartRequest.class))).thenReturn(copyResult);
+
+    mS3UnderFileSystem.concat(DST, Arrays.asList(SRC + "1", SRC + "2"));
+
+    ArgumentCaptor<CopyPartRequest> copyCaptor = ArgumentCaptor.forClass(CopyPartRequest.class);
+    Mockito.verify(mClient, Mockito.times(2)).copyPart(copyCaptor.capture());
+    Assert.assertEquals(SRC + "1", copyCaptor.getAllValues().get(0).getSourceKey());
+    Assert.assertEquals(1, copyCaptor.getAllValues().get(0).getPartNumber());
+    Assert.assertEquals(SRC + "2", copyCaptor.getAllValues().get(1).getSourceKey());
+    Assert.assertEquals(2, copyCaptor.getAllValues().get(1).getPartNumber());
+    ArgumentCaptor<CompleteMultipartUploadRequest> completeCaptor =
+        ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+    Mockito.verify(mClient).completeMultipartUpload(completeCaptor.capture());
+    Assert.assertEquals(DST, completeCaptor.getValue().getKey());
+    Assert.assertEquals(2, completeCaptor.getValue().getPartETags().size());
+    ArgumentCaptor<DeleteObjectsRequest> deleteCaptor =
+        ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+    Mockito.verify(mClient).deleteObjects(deleteCaptor.capture());
+    Assert.assertEquals(2, deleteCaptor.getValue().getKeys().size());
+  }
+
+  /**
+   * Test case for {@link S3AUnderFileSystem#concat(String, List)} when a file other than the last
+   * one is smaller than the minimum part size.
+   */
+  @Test
+  public void concatSmallFile() throws IOException {
+    ObjectMetadata meta = new ObjectMetadata();
+    meta.setContentLength(1);
+    Mockito.when(mClient.getObjectMetadata(Matchers.eq(BUCKET_NAME), Matchers.anyString()))
+        .thenReturn(meta);
+    try {
+      mS3UnderFileSystem.concat(DST, Arrays.asList(SRC + "1", SRC + "2"));
+      Assert.fail("concat of a file smaller than the minimum part size should fail");
+    } catch (IOException e) {
+      // expected
+    }
+    Mockito.verify(mClient, Mockito.never())
+        .initiateMultipartUpload(Matchers.any(InitiateMultipartUploadRequest.class));
+  }
+
   /**
    * Test case for {@link S3AUnderFileSystem#rename(String, String)}.
    */
@@ -88,4 +228,65 @@ public class S3AUnderFileSystemTest {
     boolean result = mS3UnderFileSystem.rename(SRC, DST);
     Assert.assertFalse(result);
   }
+
+  /**
+   * Test case for {@link S3AUnderFileSystem#getStatus(String)}.
+   */
+  @Test
+  public void getStatus() throws IOException {
+    ObjectMetadata meta = new ObjectMetadata();
+    meta.setContentLength(10);
+    meta.setLastModified(new Date(1000));
+    Mockito.when(mClient.getObjectMetadata(BUCKET_NAME, PATH)).thenReturn(meta);
+
+    UnderFileStatus status = mS3UnderFileSystem.getStatus(PATH);
+    Assert.assertFalse(status.isDirectory());
+    Assert.assertEquals(10, status.getContentLength());
+    Assert.assertEquals(1000, status.getLastModifiedTimeMs());
+    Assert.assertEquals(ACCOUNT_OWNER, status.getOwner());
+    Assert.assertEquals(BUCKET_MODE, status.getMode());
+    // A file only takes a single request.
+    Mockito.verify(mClient).getObjectMetadata(Matchers.anyString(), Matchers.anyString());
+  }
+
+  /**
+   * Test case for {@link S3AUnderFileSystem#listStatus(String)}, which takes the statuses of the
+   * files from the listing.
+   */
+  @Test
+  public void listStatus() throws IOException {
+    Mockito.when(mClient.getObjectMetadata(BUCKET_NAME, PATH))
+        .thenThrow(AmazonClientException.class);
+    Mockito.when(mClient.getObjectMetadata(BUCKET_NAME, PATH + "_$folder$"))
+        .thenReturn(new ObjectMetadata());
+    ListObjectsV2Result result = new ListObjectsV2Result();
+    S3ObjectSummary file = new S3ObjectSummary();
+    file.setKey(PATH + "/file");
+    file.setSize(10);
+    file.setLastModified(new Date(1000));
+    S3ObjectSummary folder = new S3ObjectSummary();
+    folder.setKey(PATH + "/folder_$folder$");
+    result.getObjectSummaries().add(file);
+    result.getObjectSummaries().add(folder);
+    result.getCommonPrefixes().add(PATH + "/prefix/");
+    Mockito.when(mClient.listObjectsV2(Matchers.any(ListObjectsV2Request.class)))
+        .thenReturn(result);
+
+    UnderFileStatus[] statuses = mS3UnderFileSystem.listStatus(PATH);
+    Arrays.sort(statuses, new Comparator<UnderFileStatus>() {
+      @Override
+      public int compare(UnderFileStatus a, UnderFileStatus b) {
+        return a.getName().compareTo(b.getName());
+      }
+    });
+    Assert.assertEquals(3, statuses.length);
+    Assert.assertEquals("file", statuses[0].getName());
+    Assert.assertFalse(statuses[0].isDirectory());
+    Assert.assertEquals(10, statuses[0].getContentLength());
+    Assert.assertEquals(1000, statuses[0].getLastModifiedTimeMs());
+    Assert.assertEquals("folder", statuses[1].getName());
+    Assert.assertTrue(statuses[1].isDirectory());
+    Assert.assertEquals("prefix", statuses[2].getName());
+    Assert.assertTrue(statuses[2].isDirectory());
+  }
 }
@@ -0,0 +1,68 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs.swift;
+
+import alluxio.underfs.MultiRangeObjectInputStream;
+
+import org.javaswift.joss.exception.CommandException;
+import org.javaswift.joss.instructions.DownloadInstructions;
+import org.javaswift.joss.model.Account;
+import org.javaswift.joss.model.StoredObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A stream for reading data from a Swift API based object store with concurrent ranged requests.
+ */
+@NotThreadSafe
+public class SwiftMultiRangeInputStream extends MultiRangeObjectInputStream {
+  /** JOSS Swift account. */
+  private final Account mAccount;
+  /** Name of container the object resides in. */
+  private final String mContainerName;
+  /** The path of the object to read, without container prefix. */
+  private final String mObjectPath;
+
+  /**
+   * Constructor for an input stream to an object in a Swift API based store.
+   *
+   * @param account JOSS account with authentication credentials
+   * @param container the name of container where the object resides
+   * @param object path of the object in the container
+   * @param length the length of the object
+   * @param executor the executor to fetch the ranges with
+   */
+  public SwiftMultiRangeInputStream(Account account, String container, String object, long length,
+      ExecutorService executor) {
+    super(length, 0, executor);
+    mAccount = account;
+    mContainerName = container;
+    mObjectPath = object;
+  }
+
+  @Override
+  protected InputStream openRange(long start, long end) throws IOException {
+    try {
+      StoredObject storedObject = mAccount.getContainer(mContainerName).getObject(mObjectPath);
+      DownloadInstructions downloadInstructions = new DownloadInstructions();
+      // The end of the range is inclusive in the request
+      downloadInstructions.setRange(new MidPartLongRange(start, end - 1));
+      return storedObject.downloadObjectAsInputStream(downloadInstructions);
+    } catch (CommandException e) {
+      throw new IOException(e);
+    }
+  }
+}
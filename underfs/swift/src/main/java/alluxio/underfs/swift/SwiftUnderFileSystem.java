@@ -20,6 +20,7 @@ import alluxio.underfs.options.CreateOptions;
 import alluxio.underfs.options.MkdirsOptions;
 import alluxio.underfs.swift.http.SwiftDirectClient;
 import alluxio.util.CommonUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.io.PathUtils;
 
 import org.apache.commons.io.FilenameUtils;
@@ -47,6 +48,8 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -88,6 +91,9 @@ public class SwiftUnderFileSystem extends UnderFileSystem {
   /** JOSS access object. */
   private final Access mAccess;
 
+  /** The executor fetching the ranges of the files being read. */
+  private final ExecutorService mReadExecutor;
+
   /** Determine whether to run JOSS in simulation mode. */
   private boolean mSimulationMode;
 
@@ -191,6 +197,9 @@ public class SwiftUnderFileSystem extends UnderFileSystem {
       mode = (short) 0700;
     }
     mAccountMode = mode;
+    // The number of ranges being fetched is bounded by the read-ahead window of each stream.
+    mReadExecutor =
+        Executors.newCachedThreadPool(ThreadFactoryUtils.build("swift-read-range-%d", true));
   }
 
   @Override
@@ -462,6 +471,10 @@ public class SwiftUnderFileSystem extends UnderFileSystem {
 
   @Override
   public InputStream open(String path) throws IOException {
+    if (Configuration.getInt(PropertyKey.UNDERFS_OBJECT_STORE_READ_AHEAD_CHUNKS_MAX) > 0) {
+      return new SwiftMultiRangeInputStream(mAccount, mContainerName,
+          stripContainerPrefixIfPresent(path), getFileSize(path), mReadExecutor);
+    }
     return new SwiftInputStream(mAccount, mContainerName, stripContainerPrefixIfPresent(path));
   }
 